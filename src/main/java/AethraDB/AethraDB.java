@@ -1,6 +1,7 @@
 package AethraDB;
 
 import AethraDB.evaluation.codegen.GeneratedQuery;
+import AethraDB.evaluation.general_support.events.QueryPhaseEvent;
 import AethraDB.util.AethraGenerator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.memory.UnsafeAllocationManager;
@@ -44,6 +45,27 @@ public class AethraDB {
      */
     private static Option outputProfileInformation;
 
+    /**
+     * Command line option to use off-heap intermediate vectors in the vectorised paradigm.
+     */
+    private static Option useOffHeapVectorsOption;
+
+    /**
+     * Command line option to set the number of bytes the query may reserve before joins and grouped
+     * aggregations switch to spilling to disk.
+     */
+    private static Option spillMemoryBudgetOption;
+
+    /**
+     * Command line option to set the memory budget of the query as a whole, beyond which it fails.
+     */
+    private static Option queryMemoryBudgetOption;
+
+    /**
+     * Command line option to collect per-operator runtime metrics and output them to std err.
+     */
+    private static Option profileOperatorsOption;
+
     /**
      * Variables to keep track of running-time information for main method benchmarking.
      */
@@ -103,6 +125,34 @@ public class AethraDB {
         // Check whether the result should be summarised
         boolean shouldSummarise = cmdArguments.hasOption(summariseAsCount);
 
+        // Check whether off-heap intermediate vectors should be used
+        boolean useOffHeapVectors = cmdArguments.hasOption(useOffHeapVectorsOption);
+
+        // Extract the spill memory budget, which is given in MiB
+        // Only the non-vectorised operators can spill, so the option is rejected for vectorised queries
+        long spillMemoryBudget = 0;
+        if (cmdArguments.hasOption(spillMemoryBudgetOption)) {
+            if (useVectorisedProcessing) {
+                System.out.println("The spill memory budget is only supported for the non-vectorised paradigm");
+                cliHelpFormatter.printHelp("Usage:", cliOptions);
+                return;
+            }
+            spillMemoryBudget = Long.parseLong(cmdArguments.getOptionValue(spillMemoryBudgetOption)) * 1024L * 1024L;
+        }
+
+        // Extract the query memory budget, which is given in MiB
+        // When no spill budget is given explicitly, the query budget also serves as the spill threshold,
+        // so that non-vectorised joins and grouped aggregations spill before their hash-table growth fails
+        long queryMemoryBudget = 0;
+        if (cmdArguments.hasOption(queryMemoryBudgetOption)) {
+            queryMemoryBudget = Long.parseLong(cmdArguments.getOptionValue(queryMemoryBudgetOption)) * 1024L * 1024L;
+            if (spillMemoryBudget == 0 && !useVectorisedProcessing)
+                spillMemoryBudget = queryMemoryBudget;
+        }
+
+        // Check whether the generated code should collect per-operator runtime metrics
+        boolean profileOperators = cmdArguments.hasOption(profileOperatorsOption);
+
         // Initialise the arrow root allocator
         var arrowConfig = RootAllocator.configBuilder()
                 .allocationManagerFactory(UnsafeAllocationManager.FACTORY)
@@ -115,11 +165,19 @@ public class AethraDB {
                 databaseDirectoryPath,
                 queryFile.getPath(),
                 useVectorisedProcessing,
-                shouldSummarise);
+                shouldSummarise,
+                useOffHeapVectors,
+                spillMemoryBudget,
+                profileOperators);
+
+        // Enforce the memory budget on the query, if any
+        generatedQuery.getCCtx().getMemoryAccountant().setLimit(queryMemoryBudget);
 
         // Execute the generated query
         queryExecutionStart = System.nanoTime();
+        QueryPhaseEvent executionEvent = QueryPhaseEvent.start(generatedQuery.getCCtx().getQueryId(), QueryPhaseEvent.EXECUTION);
         generatedQuery.execute();
+        executionEvent.finish();
         queryExecutionEnd = System.nanoTime();
         generatedQuery.getCCtx().close();
         // We do not perform maintenance on the allocation manager in the cCtx of the query as we only execute a single query
@@ -142,6 +200,14 @@ public class AethraDB {
                             + ", \"total\": " + totalTimeMs
                             + "}");
         }
+
+        // Output the peak memory usage of the query if required
+        if (cmdArguments.hasOption(outputProfileInformation) || queryMemoryBudget > 0)
+            System.err.println("{\"memory\": " + generatedQuery.getCCtx().getMemoryAccountant().getPeakUsageReport() + "}");
+
+        // Output the per-operator runtime metrics of the query if required
+        if (profileOperators)
+            System.err.println("{\"profile\": " + generatedQuery.getCCtx().getQueryProfile().toJson() + "}");
     }
 
     /**
@@ -201,6 +267,46 @@ public class AethraDB {
                 .build();
         options.addOption(outputProfileInformation);
 
+        // Define option to use off-heap intermediate vectors
+        useOffHeapVectorsOption = Option
+                .builder("o")
+                .longOpt("off-heap")
+                .hasArg(false)
+                .required(false)
+                .desc("Use off-heap intermediate vectors and join hash-tables, which are freed at the end of the query")
+                .build();
+        options.addOption(useOffHeapVectorsOption);
+
+        // Define option to have joins and grouped aggregations spill to disk once their hash-table can no longer grow within a memory budget
+        spillMemoryBudgetOption = Option
+                .builder("m")
+                .longOpt("spill-memory-budget")
+                .hasArg(true)
+                .required(false)
+                .desc("Switch joins and grouped aggregations to spilling their inputs to disk once the query could no longer grow their hash-table within this many MiB (non-vectorised only)")
+                .build();
+        options.addOption(spillMemoryBudgetOption);
+
+        // Define option to have the query fail cleanly when it exceeds a memory budget
+        queryMemoryBudgetOption = Option
+                .builder("b")
+                .longOpt("memory-budget")
+                .hasArg(true)
+                .required(false)
+                .desc("Fail the query when its Arrow buffers and hash-tables exceed this many MiB (also serves as the spill memory budget of non-vectorised queries, unless given)")
+                .build();
+        options.addOption(queryMemoryBudgetOption);
+
+        // Define option to collect per-operator runtime metrics
+        profileOperatorsOption = Option
+                .builder("P")
+                .longOpt("profile")
+                .hasArg(false)
+                .required(false)
+                .desc("Collect the rows, batches, pipeline time and hash-table statistics of each operator and output them as a JSON tree")
+                .build();
+        options.addOption(profileOperatorsOption);
+
         return options;
     }
 
@@ -47,16 +47,22 @@ public class AethraDBGenerator {
      * This entrypoint exists to perform debugging on the library and should not be used by the
      * native image.
      * @param args The library expects to be given the path to a database, the path to a query file,
-     *             a boolean indicating whether the vectorised query processing paradigm should be used
-     *             and a boolean indicating whether the result should be summarised.
+     *             a boolean indicating whether the vectorised query processing paradigm should be used,
+     *             a boolean indicating whether the result should be summarised, optionally a
+     *             boolean indicating whether off-heap intermediate vectors should be used,
+     *             optionally the spill memory budget in bytes and optionally a boolean indicating
+     *             whether the query should be profiled per operator.
      */
     public static void main(String[] args) throws Exception {
         String databasePath = args[0];
         String queryPath = args[1];
         boolean useVectorised = Boolean.parseBoolean(args[2]);
         boolean summariseResult = Boolean.parseBoolean(args[3]);
+        boolean useOffHeapVectors = args.length > 4 && Boolean.parseBoolean(args[4]);
+        long spillMemoryBudget = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        boolean profileQuery = args.length > 6 && Boolean.parseBoolean(args[6]);
         internalPlan(databasePath, queryPath);
-        internalCodegen(useVectorised, summariseResult);
+        internalCodegen(useVectorised, summariseResult, useOffHeapVectors, spillMemoryBudget, profileQuery);
 
         System.out.println("[Generated query code]");
         QueryCodePrinter.printCode((List<Java.Statement>) generatedQueryClass.getMethodDeclaration("execute").statements);
@@ -97,10 +103,20 @@ public class AethraDBGenerator {
      *                                or data-centric query processing (false).
      * @param summariseResultAsCount Whether to only return the number of results,
      *                               instead of the actual results.
+     * @param useOffHeapVectors Whether query processing should use off-heap intermediate vectors
+     *                          and off-heap join hash-tables.
+     * @param spillMemoryBudget The number of bytes that the hash-table of a join or grouped
+     *                          aggregation may occupy before the operator spills its input(s) to
+     *                          disk, or 0 if operators should never spill.
+     * @param profileQuery Whether the generated code should collect per-operator runtime metrics.
      */
-    private static void internalCodegen(boolean useVectorisedProcessing, boolean summariseResultAsCount) throws Exception {
+    private static void internalCodegen(boolean useVectorisedProcessing, boolean summariseResultAsCount, boolean useOffHeapVectors, long spillMemoryBudget, boolean profileQuery) throws Exception {
         // Instantiate helper objects
         CodeGenContext cCtx = new CodeGenContext(null);
+        cCtx.setUseOffHeapVectors(useOffHeapVectors);
+        cCtx.setUseOffHeapHashTables(useOffHeapVectors);
+        cCtx.setSpillMemoryBudget(spillMemoryBudget);
+        cCtx.setProfileQuery(profileQuery);
         OptimisationContext oCtx = new OptimisationContext();
 
         // Wrap the root operator in the required summarisation and print operators
@@ -118,8 +134,8 @@ public class AethraDBGenerator {
      * Entry point for the native image library to {@code internalCodegen}.
      */
     @CEntryPoint(name = "Java_AethraDB_util_AethraGenerator_codeGen")
-    public static void codeGen(JNIEnv jniEnv, Pointer clazz, IsolateThread isolateThread, boolean useVectorisedProcessing, boolean summariseResultAsCount) throws Exception {
-        internalCodegen(useVectorisedProcessing, summariseResultAsCount);
+    public static void codeGen(JNIEnv jniEnv, Pointer clazz, IsolateThread isolateThread, boolean useVectorisedProcessing, boolean summariseResultAsCount, boolean useOffHeapVectors, long spillMemoryBudget, boolean profileQuery) throws Exception {
+        internalCodegen(useVectorisedProcessing, summariseResultAsCount, useOffHeapVectors, spillMemoryBudget, profileQuery);
     }
 
     /**
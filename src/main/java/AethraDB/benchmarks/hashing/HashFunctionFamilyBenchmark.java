@@ -0,0 +1,289 @@
+package AethraDB.benchmarks.hashing;
+
+import AethraDB.benchmarks.util.ZipfDistribution;
+import AethraDB.evaluation.general_support.hashmaps.HashFunctionFamily;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.message.ArrowBlock;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark evaluates the {@link HashFunctionFamily} instances on (combinations of) the key
+ * columns of the TPC-H lineitem table. To obtain a skewed key distribution, the benchmark samples
+ * the lineitem records according to a Zipf distribution with a configurable exponent. It measures
+ * both the throughput of computing the pre-hash values of the sampled keys, and the collision rate
+ * that the pre-hash values of the distinct sampled keys cause in a power-of-two sized hash table,
+ * as the generated hash-maps derive the bucket of a key from the low bits of its pre-hash value.
+ */
+@State(Scope.Benchmark)
+public class HashFunctionFamilyBenchmark {
+
+    /**
+     * Different instances of the TPC-H database can be tested using this benchmark.
+     */
+    @Param({
+            "/nvtmp/AethraTestData/tpch/sf-1",
+            "/nvtmp/AethraTestData/tpch/sf-10",
+    })
+    private String tpchInstance;
+
+    /**
+     * The hash function family to evaluate.
+     */
+    @Param({ "UNIVERSAL", "MULTIPLY_SHIFT", "MURMUR_FINALISER" })
+    private HashFunctionFamily hashFunctionFamily;
+
+    /**
+     * The key to hash, given as the comma-separated indices of the lineitem columns forming the key:
+     * l_orderkey, l_partkey, and the multi-column key (l_partkey, l_suppkey).
+     */
+    @Param({ "0", "1", "1,2" })
+    private String keyColumns;
+
+    /**
+     * The exponent of the Zipf distribution used for sampling the lineitem records (0 is uniform).
+     */
+    @Param({ "0.0", "0.8", "1.2" })
+    private double zipfExponent;
+
+    /**
+     * The number of keys sampled from the lineitem table.
+     */
+    private static final int SAMPLE_SIZE = 1 << 22;
+
+    /**
+     * The seed used for sampling, so that all hash function families are evaluated on the same keys.
+     */
+    private static final long SAMPLE_SEED = 42L;
+
+    /**
+     * State: the sampled keys, indexed by key column and then by sample index.
+     */
+    private int[][] sampledKeys;
+
+    /**
+     * State: the distinct sampled keys, indexed by key column and then by key index.
+     */
+    private int[][] distinctKeys;
+
+    /**
+     * State: the hash table used for counting collisions, containing for each bucket whether it is occupied.
+     */
+    private boolean[] collisionTable;
+
+    /**
+     * Class used to report the collisions measured by {@code probeCollisions} as secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CollisionCounters {
+
+        /**
+         * The number of distinct keys inserted into the hash table.
+         */
+        public long insertedKeys;
+
+        /**
+         * The number of distinct keys whose bucket was already occupied by another key.
+         */
+        public long bucketCollisions;
+
+        /**
+         * The number of distinct keys whose pre-hash value equals that of another key.
+         */
+        public long preHashCollisions;
+
+        /**
+         * Method to reset the counters at the start of each benchmark iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.insertedKeys = 0;
+            this.bucketCollisions = 0;
+            this.preHashCollisions = 0;
+        }
+
+    }
+
+    /**
+     * Method to set up the state at the start of each benchmark fork.
+     */
+    @Setup(Level.Trial)
+    public void trialSetup() throws Exception {
+        int[] keyColumnIndices = Arrays.stream(this.keyColumns.split(",")).mapToInt(Integer::parseInt).toArray();
+        int[][] lineitemKeys = readLineitemColumns(new File(this.tpchInstance + "/lineitem.arrow"), keyColumnIndices);
+        int recordCount = lineitemKeys[0].length;
+
+        // Sample the records according to the Zipf distribution, where the popularity ranks are
+        // scattered over the table so that the popular records are not clustered by key
+        SplittableRandom random = new SplittableRandom(SAMPLE_SEED);
+        int[] rankToRecord = new int[recordCount];
+        for (int i = 0; i < recordCount; i++)
+            rankToRecord[i] = i;
+        for (int i = recordCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = rankToRecord[i];
+            rankToRecord[i] = rankToRecord[j];
+            rankToRecord[j] = swap;
+        }
+
+        this.sampledKeys = new int[keyColumnIndices.length][SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int record = rankToRecord[ZipfDistribution.sampleRank(random, recordCount, this.zipfExponent)];
+            for (int c = 0; c < keyColumnIndices.length; c++)
+                this.sampledKeys[c][i] = lineitemKeys[c][record];
+        }
+
+        // Determine the distinct sampled keys for the collision measurements
+        long[] packedKeys = new long[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            packedKeys[i] = keyColumnIndices.length == 1
+                    ? this.sampledKeys[0][i]
+                    : ((long) this.sampledKeys[0][i] << 32) | (this.sampledKeys[1][i] & 0xFFFF_FFFFL);
+        }
+        long[] distinctPackedKeys = Arrays.stream(packedKeys).distinct().toArray();
+        this.distinctKeys = new int[keyColumnIndices.length][distinctPackedKeys.length];
+        for (int i = 0; i < distinctPackedKeys.length; i++) {
+            if (keyColumnIndices.length == 1) {
+                this.distinctKeys[0][i] = (int) distinctPackedKeys[i];
+            } else {
+                this.distinctKeys[0][i] = (int) (distinctPackedKeys[i] >>> 32);
+                this.distinctKeys[1][i] = (int) distinctPackedKeys[i];
+            }
+        }
+
+        // Size the hash table like the generated hash-maps do: a power of two with a load factor of at most 0.5
+        this.collisionTable = new boolean[Integer.highestOneBit(distinctPackedKeys.length) << 2];
+    }
+
+    /**
+     * Method to read the key columns of the lineitem table.
+     * @param lineitemFile The Arrow IPC file of the lineitem table.
+     * @param keyColumnIndices The indices of the columns to read.
+     * @return The values of each column, indexed by column and then by record.
+     */
+    private static int[][] readLineitemColumns(File lineitemFile, int[] keyColumnIndices) throws Exception {
+        try (
+                RootAllocator allocator = new RootAllocator();
+                FileInputStream lineitemStream = new FileInputStream(lineitemFile);
+                ArrowFileReader reader = new ArrowFileReader(lineitemStream.getChannel(), allocator, AethraCompressionCodecFactory.INSTANCE)
+        ) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            int recordCount = 0;
+            for (ArrowBlock block : reader.getRecordBlocks()) {
+                reader.loadRecordBatch(block);
+                recordCount += root.getRowCount();
+            }
+
+            int[][] columns = new int[keyColumnIndices.length][recordCount];
+            int recordIndex = 0;
+            for (ArrowBlock block : reader.getRecordBlocks()) {
+                reader.loadRecordBatch(block);
+                for (int c = 0; c < keyColumnIndices.length; c++) {
+                    BaseIntVector columnVector = (BaseIntVector) root.getVector(keyColumnIndices[c]);
+                    for (int i = 0; i < root.getRowCount(); i++)
+                        columns[c][recordIndex + i] = (int) columnVector.getValueAsLong(i);
+                }
+                recordIndex += root.getRowCount();
+            }
+
+            return columns;
+        }
+    }
+
+    /**
+     * Method to compute the pre-hash value of a key.
+     * @param keys The key columns.
+     * @param index The index of the key in the key columns.
+     * @return The pre-hash value of the key.
+     */
+    private long preHash(int[][] keys, int index) {
+        long preHash = this.hashFunctionFamily.preHashInt(keys[0][index]);
+        for (int c = 1; c < keys.length; c++)
+            preHash = this.hashFunctionFamily.combinePreHashes(preHash, this.hashFunctionFamily.preHashInt(keys[c][index]));
+        return preHash;
+    }
+
+    /**
+     * This method measures the throughput of computing the pre-hash values of the sampled keys.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    @Fork(jvmArgsAppend = {
+            "--add-opens=java.base/java.nio=ALL-UNNAMED",
+            "-Darrow.enable_unsafe_memory_access=true",
+            "-Darrow.enable_null_check_for_get=false",
+            "-Xmx16g",
+            "-Xms8g"
+    })
+    public void hashSampledKeys(Blackhole bh) {
+        long checksum = 0;
+        for (int i = 0; i < SAMPLE_SIZE; i++)
+            checksum += this.preHash(this.sampledKeys, i);
+        bh.consume(checksum);
+    }
+
+    /**
+     * This method inserts the distinct sampled keys into a hash table and counts the collisions
+     * they cause, which are reported through the {@link CollisionCounters}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(jvmArgsAppend = {
+            "--add-opens=java.base/java.nio=ALL-UNNAMED",
+            "-Darrow.enable_unsafe_memory_access=true",
+            "-Darrow.enable_null_check_for_get=false",
+            "-Xmx16g",
+            "-Xms8g"
+    })
+    public void probeCollisions(CollisionCounters counters, Blackhole bh) {
+        int distinctKeyCount = this.distinctKeys[0].length;
+        long[] preHashes = new long[distinctKeyCount];
+        Arrays.fill(this.collisionTable, false);
+
+        for (int i = 0; i < distinctKeyCount; i++) {
+            long preHash = this.preHash(this.distinctKeys, i);
+            preHashes[i] = preHash;
+
+            int bucket = (int) (preHash & (this.collisionTable.length - 1));
+            if (this.collisionTable[bucket])
+                counters.bucketCollisions++;
+            else
+                this.collisionTable[bucket] = true;
+        }
+
+        Arrays.sort(preHashes);
+        for (int i = 1; i < distinctKeyCount; i++) {
+            if (preHashes[i] == preHashes[i - 1])
+                counters.preHashCollisions++;
+        }
+
+        counters.insertedKeys += distinctKeyCount;
+        bh.consume(preHashes);
+    }
+
+}
@@ -0,0 +1,40 @@
+package AethraDB.benchmarks.hashmaps;
+
+/**
+ * Interface implemented by the classes which {@link GeneratedMapDrivers} generates around a
+ * generated map type. A driver invokes the methods of the map directly from counted loops over the
+ * key columns, in the same way as generated query code does, so that the measured throughput is
+ * not distorted by reflective or megamorphic calls.
+ */
+public interface GeneratedMapDriver {
+
+    /**
+     * Method to build a new map instance from a sequence of keys, which replaces the map that was
+     * previously built by {@code this}.
+     * @param keyColumns The key columns, each of which is a primitive array of the key type of the column.
+     * @param preHashes The pre-hash value of each key.
+     */
+    void insert(Object[] keyColumns, long[] preHashes);
+
+    /**
+     * Method to look up a sequence of keys in the map that was last built by {@code this}.
+     * @param keyColumns The key columns, each of which is a primitive array of the key type of the column.
+     * @param preHashes The pre-hash value of each key.
+     * @return A checksum over the values that were found, to prevent the lookups from being optimised away.
+     */
+    long probe(Object[] keyColumns, long[] preHashes);
+
+    /**
+     * Method to iterate over all records in the map that was last built by {@code this}.
+     * @return A checksum over the keys and values of the records, to prevent the iteration from
+     * being optimised away.
+     */
+    long iterate();
+
+    /**
+     * Method to obtain the number of records visited by {@code this.iterate()}.
+     * @return The number of records in the map that was last built by {@code this}.
+     */
+    long recordCount();
+
+}
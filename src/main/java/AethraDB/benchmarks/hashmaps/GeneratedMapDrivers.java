@@ -0,0 +1,263 @@
+package AethraDB.benchmarks.hashmaps;
+
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import AethraDB.evaluation.general_support.hashmaps.KeyMultiRecordMapGenerator;
+import AethraDB.evaluation.general_support.hashmaps.KeyValueMapGenerator;
+import org.codehaus.janino.Java;
+import org.codehaus.janino.SimpleCompiler;
+import org.codehaus.janino.Unparser;
+
+import java.io.StringWriter;
+
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.isPrimitive;
+
+/**
+ * Class containing the utilities for instantiating generated map types outside of a query. A map
+ * type is obtained from its generator exactly as the operators do, after which it is compiled by
+ * Janino as an inner class of a {@link GeneratedMapDriver}, i.e. with the same compiler and in the
+ * same class structure as a generated query whose pipelines have been outlined. This allows
+ * changes to the map generators to be measured in isolation, without saving copies of the
+ * generated maps by hand.
+ */
+public final class GeneratedMapDrivers {
+
+    /**
+     * The imports that the generated map types rely on, mirroring those of a generated query.
+     */
+    private static final String[] MAP_IMPORTS = new String[] {
+            "AethraDB.evaluation.codegen.infrastructure.data.QueryMemoryAccountant",
+            "AethraDB.evaluation.general_support.OperatorProfile",
+            "AethraDB.evaluation.general_support.PackedStrings",
+            "AethraDB.evaluation.general_support.events.HashTableRehashEvent",
+            "AethraDB.evaluation.general_support.hashmaps.Char_Arr_Hash_Function",
+            "AethraDB.evaluation.general_support.hashmaps.Double_Hash_Function",
+            "AethraDB.evaluation.general_support.hashmaps.HashFunctionFamily",
+            "AethraDB.evaluation.general_support.hashmaps.Int_Hash_Function",
+            "java.util.Arrays"
+    };
+
+    /**
+     * The owner to which the maps attribute their memory usage.
+     */
+    private static final String MEMORY_OWNER = "benchmark_map";
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private GeneratedMapDrivers() {
+
+    }
+
+    /**
+     * Method to create a driver for a generated key-value map, which builds the map by incrementing
+     * the values of each key (as an aggregation does) and which probes it by incrementing the values
+     * of keys that are already present, as the generated map exposes no other lookup method.
+     * @param generator The generator of the map type to drive.
+     * @return A driver for the map type generated by {@code generator}.
+     * @throws Exception when the map type or its driver cannot be compiled.
+     */
+    public static GeneratedMapDriver forKeyValueMap(KeyValueMapGenerator generator) throws Exception {
+        Java.LocalClassDeclaration mapDeclaration = generator.generate();
+        String mapType = mapDeclaration.name;
+        String recordType = mapType + "." + generator.recordDeclaration.name;
+
+        // Pass the key of each iteration, its pre-hash value and the iteration index as each value
+        StringBuilder incrementArguments = new StringBuilder();
+        for (int k = 0; k < generator.keyTypes.length; k++)
+            incrementArguments.append("keys_").append(k).append("[i], ");
+        incrementArguments.append("preHashes[i]");
+        for (QueryVariableType valueType : generator.valueTypes)
+            incrementArguments.append(", (").append(javaTypeName(valueType)).append(") i");
+
+        // Sum the first key column and all values of each record
+        StringBuilder recordChecksum = new StringBuilder("(long) record.").append(generator.keyFieldNames[0]);
+        for (String valueFieldName : generator.valueFieldNames)
+            recordChecksum.append(" + (long) record.").append(valueFieldName);
+
+        String driverMembers =
+                "private " + mapType + " map;\n" +
+                "\n" +
+                "public void insert(Object[] keyColumns, long[] preHashes) {\n" +
+                        keyColumnDeclarations(generator.keyTypes) +
+                "    " + mapType + " map = new " + mapType + "(new QueryMemoryAccountant(0L), \"" + MEMORY_OWNER + "\");\n" +
+                "    for (int i = 0; i < preHashes.length; i++)\n" +
+                "        map.incrementForKey(" + incrementArguments + ");\n" +
+                "    this.map = map;\n" +
+                "}\n" +
+                "\n" +
+                "public long probe(Object[] keyColumns, long[] preHashes) {\n" +
+                        keyColumnDeclarations(generator.keyTypes) +
+                "    " + mapType + " map = this.map;\n" +
+                "    for (int i = 0; i < preHashes.length; i++)\n" +
+                "        map.incrementForKey(" + incrementArguments + ");\n" +
+                "    return map.numberOfRecords;\n" +
+                "}\n" +
+                "\n" +
+                "public long iterate() {\n" +
+                "    " + mapType + " map = this.map;\n" +
+                "    long checksum = 0;\n" +
+                "    for (int i = 0; i < map.numberOfRecords; i++) {\n" +
+                "        " + recordType + " record = map." + KeyValueMapGenerator.recordArrayName + "[i];\n" +
+                "        checksum += " + recordChecksum + ";\n" +
+                "    }\n" +
+                "    return checksum;\n" +
+                "}\n" +
+                "\n" +
+                "public long recordCount() {\n" +
+                "    return this.map.numberOfRecords;\n" +
+                "}\n";
+
+        return compileDriver("KeyValueMapDriver_" + generator.hashCode(), mapDeclaration, driverMembers);
+    }
+
+    /**
+     * Method to create a driver for a generated key-multi-record map, which builds the map by
+     * associating a record with each key (as the build side of a join does) and which probes it by
+     * visiting the records of each key that is present (as the probe side of a join does).
+     * @param generator The generator of the map type to drive.
+     * @return A driver for the map type generated by {@code generator}.
+     * @throws Exception when the map type or its driver cannot be compiled.
+     */
+    public static GeneratedMapDriver forKeyMultiRecordMap(KeyMultiRecordMapGenerator generator) throws Exception {
+        if (generator.valueTypes.length == 0)
+            throw new IllegalArgumentException("GeneratedMapDrivers.forKeyMultiRecordMap expects a map with at least one value");
+
+        Java.LocalClassDeclaration mapDeclaration = generator.generate();
+        String mapType = mapDeclaration.name;
+        String recordType = mapType + "." + generator.valueRecordDeclaration.name;
+        String recordArray = "map." + KeyMultiRecordMapGenerator.valueRecordArrayName;
+        String recordCountArray = "map." + KeyMultiRecordMapGenerator.keysRecordCountAP.getVariableName();
+
+        // Pass the key of each iteration, its pre-hash value and the iteration index as each value
+        StringBuilder associateArguments = new StringBuilder("keys_0[i], preHashes[i]");
+        for (QueryVariableType valueType : generator.valueTypes)
+            associateArguments.append(", (").append(javaTypeName(valueType)).append(") i");
+
+        // Sum all values of each record
+        StringBuilder recordChecksum = new StringBuilder();
+        for (String valueFieldName : generator.valueFieldNames)
+            recordChecksum.append(recordChecksum.isEmpty() ? "" : " + ").append("(long) record.").append(valueFieldName);
+
+        String driverMembers =
+                "private " + mapType + " map;\n" +
+                "\n" +
+                "public void insert(Object[] keyColumns, long[] preHashes) {\n" +
+                        keyColumnDeclarations(new QueryVariableType[] { generator.keyType }) +
+                "    " + mapType + " map = new " + mapType + "(new QueryMemoryAccountant(0L), \"" + MEMORY_OWNER + "\");\n" +
+                "    for (int i = 0; i < preHashes.length; i++)\n" +
+                "        map.associate(" + associateArguments + ");\n" +
+                "    this.map = map;\n" +
+                "}\n" +
+                "\n" +
+                "public long probe(Object[] keyColumns, long[] preHashes) {\n" +
+                        keyColumnDeclarations(new QueryVariableType[] { generator.keyType }) +
+                "    " + mapType + " map = this.map;\n" +
+                "    long checksum = 0;\n" +
+                "    for (int i = 0; i < preHashes.length; i++) {\n" +
+                "        int index = map.getIndex(keys_0[i], preHashes[i]);\n" +
+                "        if (index == -1)\n" +
+                "            continue;\n" +
+                "        int recordCount = " + recordCountArray + "[index];\n" +
+                "        for (int j = 0; j < recordCount; j++) {\n" +
+                "            " + recordType + " record = " + recordArray + "[index][j];\n" +
+                "            checksum += " + recordChecksum + ";\n" +
+                "        }\n" +
+                "    }\n" +
+                "    return checksum;\n" +
+                "}\n" +
+                "\n" +
+                "public long iterate() {\n" +
+                "    " + mapType + " map = this.map;\n" +
+                "    long checksum = 0;\n" +
+                "    for (int i = 0; i < " + recordCountArray + ".length; i++) {\n" +
+                "        int recordCount = " + recordCountArray + "[i];\n" +
+                "        for (int j = 0; j < recordCount; j++) {\n" +
+                "            " + recordType + " record = " + recordArray + "[i][j];\n" +
+                "            checksum += " + recordChecksum + ";\n" +
+                "        }\n" +
+                "    }\n" +
+                "    return checksum;\n" +
+                "}\n" +
+                "\n" +
+                "public long recordCount() {\n" +
+                "    " + mapType + " map = this.map;\n" +
+                "    long recordCount = 0;\n" +
+                "    for (int i = 0; i < " + recordCountArray + ".length; i++)\n" +
+                "        recordCount += " + recordCountArray + "[i];\n" +
+                "    return recordCount;\n" +
+                "}\n";
+
+        return compileDriver("KeyMultiRecordMapDriver_" + generator.hashCode(), mapDeclaration, driverMembers);
+    }
+
+    /**
+     * Method to create the declarations which cast the key columns passed to a driver method to
+     * their primitive array types.
+     * @param keyTypes The type of each key column.
+     * @return The declarations {@code [type][] keys_[k] = ([type][]) keyColumns[k];}.
+     */
+    private static String keyColumnDeclarations(QueryVariableType[] keyTypes) {
+        StringBuilder declarations = new StringBuilder();
+        for (int k = 0; k < keyTypes.length; k++) {
+            String arrayType = javaTypeName(keyTypes[k]) + "[]";
+            declarations.append("    ").append(arrayType).append(" keys_").append(k)
+                    .append(" = (").append(arrayType).append(") keyColumns[").append(k).append("];\n");
+        }
+        return declarations.toString();
+    }
+
+    /**
+     * Method to obtain the Java source name of a primitive {@link QueryVariableType}.
+     * @param type The type to obtain the source name for.
+     * @return The Java source name of {@code type}.
+     */
+    private static String javaTypeName(QueryVariableType type) {
+        if (!isPrimitive(type))
+            throw new UnsupportedOperationException("GeneratedMapDrivers does not support non-primitive type " + type);
+
+        return switch (type.logicalType) {
+            case P_DOUBLE -> "double";
+            case P_INT, P_INT_DATE -> "int";
+            case P_LONG -> "long";
+            default -> throw new UnsupportedOperationException("GeneratedMapDrivers does not support type " + type);
+        };
+    }
+
+    /**
+     * Method to compile a driver class containing a generated map type and to instantiate it.
+     * @param driverName The name of the driver class.
+     * @param mapDeclaration The generated map type, which becomes an inner class of the driver.
+     * @param driverMembers The source of the members implementing {@link GeneratedMapDriver}.
+     * @return An instance of the compiled driver class.
+     * @throws Exception when the driver class cannot be compiled or instantiated.
+     */
+    private static GeneratedMapDriver compileDriver(
+            String driverName,
+            Java.LocalClassDeclaration mapDeclaration,
+            String driverMembers
+    ) throws Exception {
+        StringWriter driverSource = new StringWriter();
+        for (String mapImport : MAP_IMPORTS)
+            driverSource.append("import ").append(mapImport).append(";\n");
+
+        driverSource.append("\npublic final class ").append(driverName)
+                .append(" implements ").append(GeneratedMapDriver.class.getName()).append(" {\n\n");
+
+        // Unparse the map type as it would appear in the body of a generated query
+        Unparser mapUnparser = new Unparser(driverSource);
+        mapUnparser.unparseTypeDeclaration(mapDeclaration);
+        mapUnparser.close();
+
+        driverSource.append("\n\n").append(driverMembers).append("\n}\n");
+
+        SimpleCompiler compiler = new SimpleCompiler();
+        compiler.setParentClassLoader(GeneratedMapDrivers.class.getClassLoader());
+        compiler.cook(driverSource.toString());
+        return compiler.getClassLoader()
+                .loadClass(driverName)
+                .asSubclass(GeneratedMapDriver.class)
+                .getDeclaredConstructor()
+                .newInstance();
+    }
+
+}
@@ -0,0 +1,146 @@
+package AethraDB.benchmarks.hashmaps;
+
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import AethraDB.evaluation.general_support.hashmaps.KeyValueMapGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_LONG;
+
+/**
+ * This benchmark evaluates the map types generated by the {@link KeyValueMapGenerator}, which
+ * back the hash aggregations. The map type is generated and compiled at the start of each fork,
+ * after which the benchmark measures the throughput of building a map from a sequence of keys
+ * (which increments the values of duplicate keys), of updating the values of keys that are present
+ * in the map, and of iterating over the records of the map. The keys are drawn from a configurable
+ * number of distinct keys according to a Zipf distribution, and each record carries a configurable
+ * number of long values. The throughput is reported through the {@link MapOperationCounters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(jvmArgsAppend = {
+        "--enable-preview",
+        "-Xmx64g",
+        "-Xms16g"
+})
+public class KeyValueMapBenchmark {
+
+    /**
+     * The number of distinct keys from which the keys of the workloads are drawn.
+     */
+    @Param({ "10", "1000", "100000", "10000000", "100000000" })
+    private int keyCardinality;
+
+    /**
+     * The exponent of the Zipf distribution used for drawing the keys (0 is uniform).
+     */
+    @Param({ "0.0", "0.8", "1.2" })
+    private double zipfExponent;
+
+    /**
+     * The type of the keys of the map.
+     */
+    @Param({ "INT", "DOUBLE", "INT_INT" })
+    private MapKeyType keyType;
+
+    /**
+     * The number of long values in each record of the map.
+     */
+    @Param({ "1", "2", "4", "8" })
+    private int payloadWidth;
+
+    /**
+     * The seed used for sampling the keys that are inserted into the map.
+     */
+    private static final long INSERT_SEED = 42L;
+
+    /**
+     * The seed used for sampling the keys that are updated in the map.
+     */
+    private static final long PROBE_SEED = 43L;
+
+    /**
+     * State: the driver of the generated map type.
+     */
+    private GeneratedMapDriver driver;
+
+    /**
+     * State: the keys that are inserted into the map.
+     */
+    private MapWorkload insertWorkload;
+
+    /**
+     * State: the keys that are updated in the map, all of which occur in {@code this.insertWorkload}.
+     */
+    private MapWorkload probeWorkload;
+
+    /**
+     * State: the number of records in the map built from {@code this.insertWorkload}.
+     */
+    private long recordCount;
+
+    /**
+     * Method to set up the state at the start of each benchmark fork.
+     */
+    @Setup(Level.Trial)
+    public void trialSetup() throws Exception {
+        QueryVariableType[] valueTypes = new QueryVariableType[this.payloadWidth];
+        Arrays.fill(valueTypes, P_LONG);
+        this.driver = GeneratedMapDrivers.forKeyValueMap(new KeyValueMapGenerator(this.keyType.keyTypes, valueTypes));
+
+        int keyCount = Math.max(this.keyCardinality, MapWorkload.MIN_KEY_COUNT);
+        this.insertWorkload = MapWorkload.sample(this.keyType, this.keyCardinality, this.zipfExponent, keyCount, INSERT_SEED);
+        this.probeWorkload = this.insertWorkload.resample(keyCount, PROBE_SEED);
+
+        // Build the map which is probed and iterated
+        this.driver.insert(this.insertWorkload.keyColumns, this.insertWorkload.preHashes);
+        this.recordCount = this.driver.recordCount();
+    }
+
+    /**
+     * This method measures building a new map from the insert workload.
+     * @param counters The counters to report the number of inserted keys to.
+     */
+    @Benchmark
+    public void insert(MapOperationCounters counters) {
+        this.driver.insert(this.insertWorkload.keyColumns, this.insertWorkload.preHashes);
+        counters.operations += this.insertWorkload.size();
+    }
+
+    /**
+     * This method measures updating the values of the keys of the probe workload in the map.
+     * @param counters The counters to report the number of probed keys to.
+     * @return A checksum to prevent the probes from being optimised away.
+     */
+    @Benchmark
+    public long probe(MapOperationCounters counters) {
+        long checksum = this.driver.probe(this.probeWorkload.keyColumns, this.probeWorkload.preHashes);
+        counters.operations += this.probeWorkload.size();
+        return checksum;
+    }
+
+    /**
+     * This method measures iterating over all records in the map.
+     * @param counters The counters to report the number of visited records to.
+     * @return A checksum to prevent the iteration from being optimised away.
+     */
+    @Benchmark
+    public long iterate(MapOperationCounters counters) {
+        long checksum = this.driver.iterate();
+        counters.operations += this.recordCount;
+        return checksum;
+    }
+
+}
@@ -0,0 +1,101 @@
+package AethraDB.benchmarks.hashmaps;
+
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import AethraDB.evaluation.general_support.hashmaps.Double_Hash_Function;
+import AethraDB.evaluation.general_support.hashmaps.HashFunctionFamily;
+import AethraDB.evaluation.general_support.hashmaps.Int_Hash_Function;
+
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_DOUBLE;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT;
+
+/**
+ * Enum defining the keys with which the generated maps can be benchmarked. Each key type maps the
+ * popularity rank of a key onto a distinct, non-negative key value (as required by the generated
+ * maps), which is scattered over the key domain so that the popular keys are not clustered.
+ */
+public enum MapKeyType {
+
+    /**
+     * A single integer key column.
+     */
+    INT(new QueryVariableType[] { P_INT }),
+
+    /**
+     * A single double key column, of which the values have two decimals (e.g. a price).
+     */
+    DOUBLE(new QueryVariableType[] { P_DOUBLE }),
+
+    /**
+     * A key consisting of two integer columns, of which the second column has a low cardinality.
+     */
+    INT_INT(new QueryVariableType[] { P_INT, P_INT });
+
+    /**
+     * The {@link QueryVariableType} of each key column.
+     */
+    public final QueryVariableType[] keyTypes;
+
+    /**
+     * Odd multiplier which scatters the ranks over the non-negative integers.
+     */
+    private static final long SCATTER_MULTIPLIER = 0x9E3779B1L;
+
+    /**
+     * Initialise a {@link MapKeyType}.
+     * @param keyTypes The {@link QueryVariableType} of each key column.
+     */
+    MapKeyType(QueryVariableType[] keyTypes) {
+        this.keyTypes = keyTypes;
+    }
+
+    /**
+     * Method to allocate the key columns for a number of keys of this type.
+     * @param keyCount The number of keys to allocate the columns for.
+     * @return The key columns, each of which is a primitive array of the key type of the column.
+     */
+    public Object[] allocateKeyColumns(int keyCount) {
+        return switch (this) {
+            case INT -> new Object[] { new int[keyCount] };
+            case DOUBLE -> new Object[] { new double[keyCount] };
+            case INT_INT -> new Object[] { new int[keyCount], new int[keyCount] };
+        };
+    }
+
+    /**
+     * Method to store the key corresponding to a popularity rank in the key columns and to compute
+     * its pre-hash value in the same way as the generated code does.
+     * @param keyColumns The key columns to store the key in.
+     * @param index The index in {@code keyColumns} at which to store the key.
+     * @param rank The popularity rank of the key.
+     * @return The pre-hash value of the key.
+     */
+    public long storeKey(Object[] keyColumns, int index, int rank) {
+        // As the multiplier is odd, the scattered value is distinct for each rank below 2^31
+        int scatteredRank = (int) ((rank * SCATTER_MULTIPLIER) & Integer.MAX_VALUE);
+
+        switch (this) {
+            case INT -> {
+                ((int[]) keyColumns[0])[index] = scatteredRank;
+                return Int_Hash_Function.preHash(scatteredRank);
+            }
+
+            case DOUBLE -> {
+                double key = scatteredRank / 100.0d;
+                ((double[]) keyColumns[0])[index] = key;
+                return Double_Hash_Function.preHash(key);
+            }
+
+            case INT_INT -> {
+                int firstKey = scatteredRank >>> 8;
+                int secondKey = scatteredRank & 0xFF;
+                ((int[]) keyColumns[0])[index] = firstKey;
+                ((int[]) keyColumns[1])[index] = secondKey;
+                return HashFunctionFamily.combine(Int_Hash_Function.preHash(firstKey), Int_Hash_Function.preHash(secondKey));
+            }
+
+            default -> throw new UnsupportedOperationException(
+                    "MapKeyType.storeKey does not support key type " + this);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package AethraDB.benchmarks.hashmaps;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Class used to report the number of map operations performed by a benchmark as a secondary
+ * result, so that the map benchmarks report their throughput in operations (i.e. inserted keys,
+ * probed keys or visited records) per time unit regardless of the number of operations per invocation.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class MapOperationCounters {
+
+    /**
+     * The number of map operations performed in the current iteration.
+     */
+    public long operations;
+
+    /**
+     * Method to reset the counter at the start of each benchmark iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        this.operations = 0;
+    }
+
+}
@@ -0,0 +1,94 @@
+package AethraDB.benchmarks.hashmaps;
+
+import AethraDB.benchmarks.util.ZipfDistribution;
+
+import java.lang.reflect.Array;
+import java.util.SplittableRandom;
+
+/**
+ * Class representing a sequence of keys, together with their pre-hash values, that is inserted
+ * into or looked up in a generated map by a {@link GeneratedMapDriver}. The pre-hash values are
+ * computed up-front, so that the benchmarks measure the map itself rather than the hash function.
+ */
+public final class MapWorkload {
+
+    /**
+     * The minimum number of keys in a workload, so that small key cardinalities still result in
+     * invocations that are long enough to be measured accurately.
+     */
+    public static final int MIN_KEY_COUNT = 1 << 22;
+
+    /**
+     * The key columns, each of which is a primitive array of the key type of the column.
+     */
+    public final Object[] keyColumns;
+
+    /**
+     * The pre-hash value of each key.
+     */
+    public final long[] preHashes;
+
+    /**
+     * Initialise a {@link MapWorkload}.
+     * @param keyColumns The key columns of the workload.
+     * @param preHashes The pre-hash value of each key.
+     */
+    private MapWorkload(Object[] keyColumns, long[] preHashes) {
+        this.keyColumns = keyColumns;
+        this.preHashes = preHashes;
+    }
+
+    /**
+     * Method to obtain the number of keys in the workload.
+     * @return The number of keys in {@code this}.
+     */
+    public int size() {
+        return this.preHashes.length;
+    }
+
+    /**
+     * Method to sample a workload whose keys are drawn from a fixed number of distinct keys
+     * according to a Zipf distribution.
+     * @param keyType The type of the keys to sample.
+     * @param keyCardinality The number of distinct keys from which the keys are drawn.
+     * @param zipfExponent The exponent of the Zipf distribution (0 is uniform).
+     * @param keyCount The number of keys to sample.
+     * @param seed The seed used for sampling.
+     * @return The sampled workload.
+     */
+    public static MapWorkload sample(MapKeyType keyType, int keyCardinality, double zipfExponent, int keyCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Object[] keyColumns = keyType.allocateKeyColumns(keyCount);
+        long[] preHashes = new long[keyCount];
+
+        for (int i = 0; i < keyCount; i++)
+            preHashes[i] = keyType.storeKey(keyColumns, i, ZipfDistribution.sampleRank(random, keyCardinality, zipfExponent));
+
+        return new MapWorkload(keyColumns, preHashes);
+    }
+
+    /**
+     * Method to sample a workload consisting of keys which occur in {@code this}, each position of
+     * {@code this} being equally likely to be sampled (i.e. the keys follow the same distribution).
+     * @param keyCount The number of keys to sample.
+     * @param seed The seed used for sampling.
+     * @return The sampled workload.
+     */
+    public MapWorkload resample(int keyCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Object[] sampledKeyColumns = new Object[this.keyColumns.length];
+        for (int c = 0; c < this.keyColumns.length; c++)
+            sampledKeyColumns[c] = Array.newInstance(this.keyColumns[c].getClass().getComponentType(), keyCount);
+        long[] sampledPreHashes = new long[keyCount];
+
+        for (int i = 0; i < keyCount; i++) {
+            int position = random.nextInt(this.size());
+            for (int c = 0; c < this.keyColumns.length; c++)
+                System.arraycopy(this.keyColumns[c], position, sampledKeyColumns[c], i, 1);
+            sampledPreHashes[i] = this.preHashes[position];
+        }
+
+        return new MapWorkload(sampledKeyColumns, sampledPreHashes);
+    }
+
+}
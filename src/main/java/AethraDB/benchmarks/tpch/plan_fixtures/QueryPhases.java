@@ -0,0 +1,298 @@
+package AethraDB.benchmarks.tpch.plan_fixtures;
+
+import AethraDB.benchmarks.util.BlackHoleGeneratorOperator;
+import AethraDB.benchmarks.util.PlanFixtures;
+import AethraDB.benchmarks.util.ResultConsumptionOperator;
+import AethraDB.benchmarks.util.ResultConsumptionTarget;
+import AethraDB.evaluation.codegen.GeneratedQuery;
+import AethraDB.evaluation.codegen.QueryCodeGenerator;
+import AethraDB.evaluation.codegen.operators.CodeGenOperator;
+import AethraDB.evaluation.codegen.operators.QueryResultCountOperator;
+import org.apache.arrow.memory.RootAllocator;
+import org.codehaus.janino.Java;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark evaluates the end-to-end performance of AethraDB on TPC-H queries whose plans are
+ * stored as fixtures, bypassing the native planner. Each phase of a query is measured by a separate
+ * benchmark method, so that the decoding of the plan, the generation of the query code, the
+ * compilation of the generated class and the execution of the query can be compared individually
+ * across queries and code generation paradigms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = {
+        "--add-modules=jdk.incubator.vector",
+        "--add-opens=java.base/java.nio=ALL-UNNAMED",
+        "-Darrow.enable_unsafe_memory_access=true",
+        "-Darrow.enable_null_check_for_get=false",
+        "--enable-preview",
+        "-Xmx32g",
+        "-Xms16g"
+})
+public class QueryPhases {
+
+    /**
+     * Different scale factors of the TPC-H database can be tested using this benchmark. The instances
+     * are located through {@link PlanFixtures#resolveTpchInstance(String)}.
+     */
+    @Param({ "1", "10", "100" })
+    public String tpchScaleFactor;
+
+    /**
+     * The query whose plan fixture should be benchmarked.
+     */
+    @Param({ "q1", "q3", "q5", "q6", "q14" })
+    public String query;
+
+    /**
+     * The code generation paradigm in which the query should be generated.
+     */
+    @Param({ "NON_VECTORISED", "VECTORISED" })
+    public String paradigm;
+
+    /**
+     * State: the path of the TPC-H instance to run the query on.
+     */
+    private String tpchInstance;
+
+    /**
+     * State: the plan text of the query.
+     */
+    private String plan;
+
+    /**
+     * State: whether the query should be generated in the vectorised paradigm.
+     */
+    private boolean useVectorised;
+
+    /**
+     * State: the {@link RootAllocator} used for executing the query.
+     */
+    private RootAllocator rootAllocator;
+
+    /**
+     * Method to set up the state at the start of each benchmark fork and to verify that the plan
+     * fixture produces the expected number of result rows.
+     */
+    @Setup(Level.Trial)
+    public void trialSetup() throws Exception {
+        this.tpchInstance = PlanFixtures.resolveTpchInstance(this.tpchScaleFactor);
+        this.plan = PlanFixtures.loadPlan(this.query);
+        this.useVectorised = switch (this.paradigm) {
+            case "NON_VECTORISED" -> false;
+            case "VECTORISED" -> true;
+            default -> throw new UnsupportedOperationException(
+                    "tpch.plan_fixtures.QueryPhases.trialSetup received an unexpected paradigm: " + this.paradigm);
+        };
+        this.rootAllocator = new RootAllocator();
+
+        // Verify the plan by counting its result rows
+        long expectedResultCount = switch (this.query) {
+            case "q1" -> 4;
+            case "q3" -> 10;
+            case "q5" -> 5;
+            case "q6", "q14" -> 1;
+            default -> throw new UnsupportedOperationException(
+                    "tpch.plan_fixtures.QueryPhases.trialSetup received an unexpected query: " + this.query);
+        };
+
+        ResultCounter resultCounter = new ResultCounter();
+        QueryCodeGenerator generator = PlanFixtures.generate(
+                new ResultConsumptionOperator(new QueryResultCountOperator(PlanFixtures.decode(this.tpchInstance, this.plan))),
+                this.useVectorised
+        );
+        GeneratedQuery countingQuery = PlanFixtures.instantiate(
+                PlanFixtures.compile(generator), generator.getCCtx(), this.rootAllocator, resultCounter);
+        countingQuery.execute();
+        countingQuery.getCCtx().close();
+
+        if (resultCounter.resultCount != expectedResultCount)
+            throw new RuntimeException("The computed result is incorrect: expected " + expectedResultCount
+                    + " rows but obtained " + resultCounter.resultCount);
+    }
+
+    /**
+     * Method to release the state at the end of each benchmark fork.
+     */
+    @TearDown(Level.Trial)
+    public void trialTeardown() {
+        this.rootAllocator.close();
+    }
+
+    /**
+     * This method measures the decoding of the plan fixture into an operator tree.
+     * @return The decoded operator tree.
+     */
+    @Benchmark
+    public CodeGenOperator planQuery() {
+        return PlanFixtures.decode(this.tpchInstance, this.plan);
+    }
+
+    /**
+     * This method measures the generation of the query class from a decoded operator tree.
+     * @param state The state providing a freshly decoded operator tree.
+     * @return The generated query class.
+     */
+    @Benchmark
+    public Java.PackageMemberClassDeclaration generateQuery(GenerationState state) throws Exception {
+        return PlanFixtures.generate(state.rootOperator, this.useVectorised).generateQueryClass();
+    }
+
+    /**
+     * This method measures the compilation of a generated query class.
+     * @param state The state providing a freshly generated query class.
+     * @return The compiled query class.
+     */
+    @Benchmark
+    public Class<? extends GeneratedQuery> compileQuery(CompilationState state) throws Exception {
+        return PlanFixtures.compile(state.generator);
+    }
+
+    /**
+     * This method measures the execution of a compiled query, whose result is consumed by a
+     * {@link org.openjdk.jmh.infra.Blackhole} inside the generated code.
+     * @param state The state providing a fresh instance of the compiled query.
+     */
+    @Benchmark
+    public void executeQuery(ExecutionState state) throws Exception {
+        state.generatedQuery.execute();
+    }
+
+    /**
+     * State providing a freshly decoded operator tree for each invocation, as the code generation
+     * of an operator tree cannot be repeated.
+     */
+    @State(Scope.Benchmark)
+    public static class GenerationState {
+
+        /**
+         * The decoded operator tree, topped by an operator consuming the query result.
+         */
+        private CodeGenOperator rootOperator;
+
+        /**
+         * Method to decode the plan before each invocation.
+         * @param benchmark The benchmark state holding the plan.
+         */
+        @Setup(Level.Invocation)
+        public void invocationSetup(QueryPhases benchmark) {
+            this.rootOperator = new BlackHoleGeneratorOperator(PlanFixtures.decode(benchmark.tpchInstance, benchmark.plan));
+        }
+
+    }
+
+    /**
+     * State providing a freshly generated query class for each invocation, as a
+     * {@link QueryCodeGenerator} can only compile its class once.
+     */
+    @State(Scope.Benchmark)
+    public static class CompilationState {
+
+        /**
+         * The generator holding the generated query class.
+         */
+        private QueryCodeGenerator generator;
+
+        /**
+         * Method to decode the plan and generate the query class before each invocation.
+         * @param benchmark The benchmark state holding the plan.
+         */
+        @Setup(Level.Invocation)
+        public void invocationSetup(QueryPhases benchmark) throws Exception {
+            this.generator = PlanFixtures.generate(
+                    new BlackHoleGeneratorOperator(PlanFixtures.decode(benchmark.tpchInstance, benchmark.plan)),
+                    benchmark.useVectorised
+            );
+        }
+
+    }
+
+    /**
+     * State providing a fresh instance of the compiled query for each invocation, with its own
+     * table readers.
+     */
+    @State(Scope.Benchmark)
+    public static class ExecutionState {
+
+        /**
+         * The generator holding the compiled query class and the tables it reads.
+         */
+        private QueryCodeGenerator generator;
+
+        /**
+         * The compiled query class.
+         */
+        private Class<? extends GeneratedQuery> queryClass;
+
+        /**
+         * The query instance to execute in the current invocation.
+         */
+        private GeneratedQuery generatedQuery;
+
+        /**
+         * Method to generate and compile the query once per benchmark fork.
+         * @param benchmark The benchmark state holding the plan.
+         */
+        @Setup(Level.Trial)
+        public void trialSetup(QueryPhases benchmark) throws Exception {
+            this.generator = PlanFixtures.generate(
+                    new BlackHoleGeneratorOperator(PlanFixtures.decode(benchmark.tpchInstance, benchmark.plan)),
+                    benchmark.useVectorised
+            );
+            this.queryClass = PlanFixtures.compile(this.generator);
+        }
+
+        /**
+         * Method to instantiate the query before each invocation.
+         * @param benchmark The benchmark state holding the allocator.
+         */
+        @Setup(Level.Invocation)
+        public void invocationSetup(QueryPhases benchmark) throws Exception {
+            this.generatedQuery = PlanFixtures.instantiate(
+                    this.queryClass, this.generator.getCCtx(), benchmark.rootAllocator, null);
+        }
+
+        /**
+         * Method to release the resources of the query after each invocation.
+         */
+        @TearDown(Level.Invocation)
+        public void invocationTeardown() throws Exception {
+            this.generatedQuery.getCCtx().close();
+            this.generatedQuery = null;
+        }
+
+    }
+
+    /**
+     * {@link ResultConsumptionTarget} counting the number of result rows reported by a
+     * {@link QueryResultCountOperator}.
+     */
+    private static final class ResultCounter extends ResultConsumptionTarget {
+
+        /**
+         * The number of result rows of the query.
+         */
+        private long resultCount = -1;
+
+        @Override
+        public void consumeResultItem(long value) {
+            this.resultCount = value;
+        }
+
+    }
+
+}
@@ -7,6 +7,7 @@ import AethraDB.evaluation.codegen.infrastructure.data.BufferPoolAllocationManag
 import AethraDB.evaluation.vector_support.VectorisedAggregationOperators;
 import AethraDB.evaluation.vector_support.VectorisedArithmeticOperators;
 import AethraDB.evaluation.vector_support.VectorisedFilterOperators;
+import AethraDB.evaluation.vector_support.VectorisedOperators;
 import org.apache.arrow.memory.RootAllocator;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -148,11 +149,11 @@ public class VectorisedNonSimdReducedSelVecUse_Merged_Between_Predicates {
         long count = 0;
         // DIFF: hard-coded
         // ArrowTableReader lineitem = cCtx.getArrowReader(0);
-        while (lineitem.loadNextBatch()) {
-            org.apache.arrow.vector.Float8Vector lineitem_vc_0 = ((org.apache.arrow.vector.Float8Vector) lineitem.getVector(4));
-            org.apache.arrow.vector.Float8Vector lineitem_vc_1 = ((org.apache.arrow.vector.Float8Vector) lineitem.getVector(5));
-            org.apache.arrow.vector.Float8Vector lineitem_vc_2 = ((org.apache.arrow.vector.Float8Vector) lineitem.getVector(6));
-            org.apache.arrow.vector.DateDayVector lineitem_vc_3 = ((org.apache.arrow.vector.DateDayVector) lineitem.getVector(10));
+        while (lineitem.loadNextSubBatch(VectorisedOperators.VECTOR_LENGTH)) {
+            org.apache.arrow.vector.Float8Vector lineitem_vc_0 = ((org.apache.arrow.vector.Float8Vector) lineitem.getSubBatchVector(4));
+            org.apache.arrow.vector.Float8Vector lineitem_vc_1 = ((org.apache.arrow.vector.Float8Vector) lineitem.getSubBatchVector(5));
+            org.apache.arrow.vector.Float8Vector lineitem_vc_2 = ((org.apache.arrow.vector.Float8Vector) lineitem.getSubBatchVector(6));
+            org.apache.arrow.vector.DateDayVector lineitem_vc_3 = ((org.apache.arrow.vector.DateDayVector) lineitem.getSubBatchVector(10));
             int ordinal_3_sel_vec_length = VectorisedFilterOperators.between_ge_lt(lineitem_vc_3, 8766, 9131, ordinal_3_sel_vec);
             int ordinal_2_sel_vec_length = VectorisedFilterOperators.between_ge_le(lineitem_vc_2, 0.05, 0.07, ordinal_2_sel_vec, ordinal_3_sel_vec, ordinal_3_sel_vec_length);
             int ordinal_0_sel_vec_length = VectorisedFilterOperators.lt(lineitem_vc_0, 24, ordinal_0_sel_vec, ordinal_2_sel_vec, ordinal_2_sel_vec_length);
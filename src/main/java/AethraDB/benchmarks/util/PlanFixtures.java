@@ -0,0 +1,187 @@
+package AethraDB.benchmarks.util;
+
+import AethraDB.evaluation.codegen.GeneratedQuery;
+import AethraDB.evaluation.codegen.QueryCodeGenerator;
+import AethraDB.evaluation.codegen.infrastructure.context.CodeGenContext;
+import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
+import AethraDB.evaluation.codegen.infrastructure.data.ABQArrowTableReader;
+import AethraDB.evaluation.codegen.infrastructure.data.ArrowTableReader;
+import AethraDB.evaluation.codegen.operators.CodeGenOperator;
+import AethraDB.util.AethraQueryDecoder;
+import AethraDB.util.tpch.TpchDataGenerator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.compression.CompressionUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class containing the utilities for benchmarking queries from stored Aethra plan fixtures. The
+ * fixtures are the plan text that the native planner would hand to the {@link AethraQueryDecoder},
+ * which allows a query to be decoded, generated, compiled and executed in-process without invoking
+ * the planner, while still exercising the same decoding and code generation path.
+ */
+public final class PlanFixtures {
+
+    /**
+     * The class-path directory containing the plan fixtures, stored as {@code <query>.plan}.
+     */
+    public static final String PLAN_RESOURCE_DIRECTORY = "/AethraDB/benchmarks/tpch/plans/";
+
+    /**
+     * The system property specifying the directory containing the TPC-H instances, stored as
+     * {@code sf-<scale factor>}. When it is not set, the instances are kept in the temporary directory.
+     */
+    public static final String TPCH_DATA_DIRECTORY_PROPERTY = "aethradb.tpch.data_dir";
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private PlanFixtures() {
+
+    }
+
+    /**
+     * Method to load the plan fixture of a query.
+     * @param queryName The name of the query whose plan to load (e.g. "q6").
+     * @return The plan text of the query.
+     * @throws IOException when the fixture cannot be read.
+     */
+    public static String loadPlan(String queryName) throws IOException {
+        try (InputStream planStream = PlanFixtures.class.getResourceAsStream(PLAN_RESOURCE_DIRECTORY + queryName + ".plan")) {
+            if (planStream == null)
+                throw new IllegalArgumentException("PlanFixtures.loadPlan cannot find a plan fixture for query " + queryName);
+
+            return new String(planStream.readAllBytes(), StandardCharsets.UTF_8).strip();
+        }
+    }
+
+    /**
+     * Method to obtain the directory of the TPC-H instance at a given scale factor. The instance is
+     * looked up in the directory given by {@link #TPCH_DATA_DIRECTORY_PROPERTY}, and is generated
+     * using the {@link TpchDataGenerator} if it does not exist yet, so that later runs can reuse it.
+     * @param scaleFactor The TPC-H scale factor of the instance (e.g. "1").
+     * @return The path of the TPC-H instance.
+     * @throws IOException when the instance cannot be generated.
+     */
+    public static String resolveTpchInstance(String scaleFactor) throws IOException {
+        File dataDirectory = new File(System.getProperty(
+                TPCH_DATA_DIRECTORY_PROPERTY,
+                new File(System.getProperty("java.io.tmpdir"), "AethraTpchData").getPath()
+        ));
+        File instanceDirectory = new File(dataDirectory, "sf-" + scaleFactor);
+
+        String[] instanceFiles = instanceDirectory.list();
+        if (instanceFiles != null && instanceFiles.length > 0)
+            return instanceDirectory.getAbsolutePath();
+
+        // Generate the instance next to its final location and only move it there once it is
+        // complete, so that an interrupted generation is never mistaken for a cached instance
+        File partialDirectory = new File(dataDirectory, "sf-" + scaleFactor + ".partial");
+        deleteRecursively(partialDirectory);
+        TpchDataGenerator.generate(
+                partialDirectory,
+                Double.parseDouble(scaleFactor),
+                TpchDataGenerator.DEFAULT_BATCH_LENGTH,
+                Runtime.getRuntime().availableProcessors(),
+                CompressionUtil.CodecType.NO_COMPRESSION
+        );
+
+        if (instanceDirectory.exists() && !instanceDirectory.delete())
+            throw new IOException("PlanFixtures.resolveTpchInstance could not replace " + instanceDirectory);
+        if (!partialDirectory.renameTo(instanceDirectory))
+            throw new IOException("PlanFixtures.resolveTpchInstance could not move the generated instance to " + instanceDirectory);
+
+        return instanceDirectory.getAbsolutePath();
+    }
+
+    /**
+     * Method to delete a file or directory including its contents, if it exists.
+     * @param file The file or directory to delete.
+     * @throws IOException when the file or directory cannot be deleted.
+     */
+    private static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children)
+                deleteRecursively(child);
+        }
+
+        if (file.exists() && !file.delete())
+            throw new IOException("PlanFixtures.deleteRecursively could not delete " + file);
+    }
+
+    /**
+     * Method to decode a plan into its operator tree.
+     * @param databasePath The path of the database over which the plan should be evaluated.
+     * @param plan The plan text to decode.
+     * @return The root operator of the decoded plan.
+     */
+    public static CodeGenOperator decode(String databasePath, String plan) {
+        return AethraQueryDecoder.decode(databasePath, plan);
+    }
+
+    /**
+     * Method to generate the query class for an operator tree.
+     * @param rootOperator The root operator of the query, which should consume the query result.
+     * @param useVectorised Whether to generate code in the vectorised paradigm.
+     * @return The {@link QueryCodeGenerator} holding the generated query class, whose
+     * {@link CodeGenContext} describes the tables that the query reads.
+     * @throws Exception when the query class cannot be generated.
+     */
+    public static QueryCodeGenerator generate(CodeGenOperator rootOperator, boolean useVectorised) throws Exception {
+        QueryCodeGenerator generator = new QueryCodeGenerator(
+                new CodeGenContext(null), new OptimisationContext(), rootOperator, useVectorised);
+        generator.generateQueryClass();
+        return generator;
+    }
+
+    /**
+     * Method to compile a generated query class and load it into the current JVM.
+     * @param generator The {@link QueryCodeGenerator} holding the generated query class.
+     * @return The compiled query class.
+     * @throws Exception when the query class cannot be compiled or loaded.
+     */
+    public static Class<? extends GeneratedQuery> compile(QueryCodeGenerator generator) throws Exception {
+        return generator.compileAndLoadQueryClass();
+    }
+
+    /**
+     * Method to instantiate a compiled query class, opening a reader for each table that the query
+     * reads in the same way as the {@link AethraDB.util.AethraGenerator} does. The caller is
+     * responsible for closing the {@link CodeGenContext} of the returned query after executing it.
+     * @param queryClass The compiled query class to instantiate.
+     * @param generationContext The {@link CodeGenContext} that was used for generating the query class.
+     * @param rootAllocator The allocator to use for executing the query.
+     * @param consumptionTarget The target receiving the query result, or {@code null} if the query
+     *                          does not transfer its result to the caller.
+     * @return The query instance, ready to be executed.
+     * @throws Exception when the query instance cannot be created.
+     */
+    public static GeneratedQuery instantiate(
+            Class<? extends GeneratedQuery> queryClass,
+            CodeGenContext generationContext,
+            RootAllocator rootAllocator,
+            ResultConsumptionTarget consumptionTarget
+    ) throws Exception {
+        CodeGenContext cCtx = new CodeGenContext(rootAllocator);
+        if (consumptionTarget != null)
+            cCtx.setResultConsumptionTarget(consumptionTarget);
+
+        for (ArrowTableReader generationReader : generationContext.getArrowReaders()) {
+            cCtx.addArrowReader(new ABQArrowTableReader(
+                    generationReader.getArrowFile(),
+                    cCtx.getArrowQueryAllocator(),
+                    generationReader.projectsColumns(),
+                    generationReader.getColumnsToProject()
+            ));
+        }
+
+        return queryClass
+                .getDeclaredConstructor(CodeGenContext.class, OptimisationContext.class)
+                .newInstance(cCtx, new OptimisationContext());
+    }
+
+}
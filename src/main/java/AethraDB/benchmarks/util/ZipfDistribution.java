@@ -0,0 +1,37 @@
+package AethraDB.benchmarks.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class containing the utilities for sampling skewed key distributions in benchmarks.
+ */
+public final class ZipfDistribution {
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private ZipfDistribution() {
+
+    }
+
+    /**
+     * Method to sample a rank from a Zipf distribution using the inverse of its continuous approximation.
+     * @param random The random number generator to use.
+     * @param rankCount The number of ranks.
+     * @param exponent The exponent of the distribution (0 is uniform).
+     * @return A rank between 0 (the most popular) and {@code rankCount - 1}.
+     */
+    public static int sampleRank(SplittableRandom random, int rankCount, double exponent) {
+        double u = random.nextDouble();
+        double rank;
+        if (exponent == 0.0d)
+            rank = u * rankCount;
+        else if (exponent == 1.0d)
+            rank = Math.pow(rankCount + 1, u) - 1;
+        else
+            rank = Math.pow(u * (Math.pow(rankCount + 1, 1 - exponent) - 1) + 1, 1 / (1 - exponent)) - 1;
+
+        return Math.min((int) rank, rankCount - 1);
+    }
+
+}
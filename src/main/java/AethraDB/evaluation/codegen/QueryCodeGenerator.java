@@ -3,8 +3,10 @@ package AethraDB.evaluation.codegen;
 import AethraDB.evaluation.codegen.infrastructure.context.CodeGenContext;
 import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoCodeOptimiser;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoPipelineOutliner;
 import AethraDB.evaluation.codegen.operators.CodeGenOperator;
 import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.janino.Access;
@@ -97,11 +99,25 @@ public class QueryCodeGenerator extends SimpleCompiler {
         this.generatedQueryClassName = "GeneratedQuery_" + rootOperator.hashCode();
         this.defaultImports = new String[] {
                 "AethraDB.evaluation.codegen.infrastructure.data.ArrowTableReader",
+                "AethraDB.evaluation.codegen.infrastructure.data.GraceHashJoinPartitions",
+                "AethraDB.evaluation.codegen.infrastructure.data.GroupedAggregationPartitions",
+                "AethraDB.evaluation.codegen.infrastructure.data.PartitionedSpillFile",
+                "AethraDB.evaluation.codegen.infrastructure.data.QueryMemoryAccountant",
+                "AethraDB.evaluation.codegen.infrastructure.data.SortBuffer",
 
+                "AethraDB.evaluation.general_support.AdaptiveConjunctOrder",
                 "AethraDB.evaluation.general_support.ArrowOptimisations",
+                "AethraDB.evaluation.general_support.LikeMatcher",
+                "AethraDB.evaluation.general_support.OperatorProfile",
+                "AethraDB.evaluation.general_support.PackedStrings",
+                "AethraDB.evaluation.general_support.StringDictionaries",
+                "AethraDB.evaluation.general_support.events.HashTableRehashEvent",
+                "AethraDB.evaluation.general_support.events.PipelineEvent",
                 "AethraDB.evaluation.general_support.hashmaps.Double_Hash_Function",
+                "AethraDB.evaluation.general_support.hashmaps.HashFunctionFamily",
                 "AethraDB.evaluation.general_support.hashmaps.Int_Hash_Function",
                 "AethraDB.evaluation.general_support.hashmaps.Char_Arr_Hash_Function",
+                "AethraDB.evaluation.general_support.hashmaps.OffHeapIntKeyMultiRecordMap",
 
                 "AethraDB.evaluation.non_vector_support.LikeOperatorPrimitives",
 
@@ -113,6 +129,7 @@ public class QueryCodeGenerator extends SimpleCompiler {
                 "AethraDB.evaluation.vector_support.VectorisedPrintOperators",
 
                 "java.lang.foreign.MemorySegment",
+                "java.lang.foreign.ValueLayout",
                 "java.util.ArrayList",
                 "java.util.Arrays"
         };
@@ -215,6 +232,21 @@ public class QueryCodeGenerator extends SimpleCompiler {
             );
         }
 
+        // Optimise the execute method body before it becomes part of the generated class
+        if (JaninoCodeOptimiser.OPTIMISATION_ENABLED)
+            completedExecuteMethodBody = JaninoCodeOptimiser.optimise(completedExecuteMethodBody);
+
+        // Outline the pipelines into separate methods, so that each remains small enough to be JIT-compiled
+        // The exception type is referenced by name, as the outliner copies it for each pipeline method
+        // and the types created by classToType can only be resolved while the class is being compiled
+        if (JaninoPipelineOutliner.OUTLINING_ENABLED) {
+            completedExecuteMethodBody = JaninoPipelineOutliner.outline(
+                    this.generatedQueryClass,
+                    completedExecuteMethodBody,
+                    new Java.Type[] { JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), IOException.class.getName()) }
+            );
+        }
+
         // Generate the execute method
         // @Override public void execute() throws IOException
         JaninoMethodGen.createMethod(
@@ -275,6 +307,21 @@ public class QueryCodeGenerator extends SimpleCompiler {
         return queryTempDir.getAbsolutePath();
     };
 
+    /**
+     * Method which compiles the generated class and loads it into the current JVM without storing
+     * it on disk, so that its compilation can be measured in-process.
+     * @return The compiled query class.
+     * @throws CompileException if the generated class cannot be compiled.
+     * @throws ClassNotFoundException if the compiled class cannot be loaded.
+     */
+    public Class<? extends GeneratedQuery> compileAndLoadQueryClass() throws CompileException, ClassNotFoundException {
+        if (!this.generated)
+            throw new IllegalStateException("Cannot compile a generated class if it has not been generated yet");
+
+        this.cook(this.generatedCompilationUnit);
+        return this.getClassLoader().loadClass(this.generatedQueryClassName).asSubclass(GeneratedQuery.class);
+    }
+
     /**
      * Method for creating an array containing all required imports from their String names.
      * @return The {@link Java.AbstractCompilationUnit.ImportDeclaration}[] corresponding to {@code this.defaultImports}.
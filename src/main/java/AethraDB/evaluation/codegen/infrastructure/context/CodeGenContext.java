@@ -4,9 +4,12 @@ import AethraDB.benchmarks.util.ResultConsumptionTarget;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.AccessPath;
 import AethraDB.evaluation.codegen.infrastructure.data.AllocationManager;
 import AethraDB.evaluation.codegen.infrastructure.data.ArrowTableReader;
-import AethraDB.evaluation.codegen.infrastructure.data.BufferPoolAllocationManager;
+import AethraDB.evaluation.codegen.infrastructure.data.QueryMemoryAccountant;
+import AethraDB.evaluation.codegen.infrastructure.data.RecyclingAllocationManager;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen;
+import AethraDB.evaluation.general_support.QueryProfile;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.commons.lang3.tuple.Pair;
 import org.codehaus.janino.Java;
@@ -16,6 +19,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class for keeping track of the context during code generation, as well as plugging in specific
@@ -25,6 +29,16 @@ import java.util.Stack;
  */
 public class CodeGenContext implements AutoCloseable {
 
+    /**
+     * The identifier to assign to the next query for which a {@link CodeGenContext} is created.
+     */
+    private static final AtomicLong nextQueryId = new AtomicLong(0);
+
+    /**
+     * The identifier of the query, with which its Java Flight Recorder events are tagged.
+     */
+    private final long queryId;
+
     /**
      * Stack for keeping track of the defined variables at different stages of the code generation process.
      */
@@ -66,6 +80,17 @@ public class CodeGenContext implements AutoCloseable {
      */
     private final RootAllocator arrowRootAllocator;
 
+    /**
+     * The child allocator of {@code arrowRootAllocator} through which all Arrow buffers of the
+     * query are allocated, so that they are observed by {@code memoryAccountant}.
+     */
+    private final BufferAllocator arrowQueryAllocator;
+
+    /**
+     * The {@link QueryMemoryAccountant} which accounts for the memory used by the query.
+     */
+    private final QueryMemoryAccountant memoryAccountant;
+
     /**
      * A collection of {@link ArrowTableReader} instances used by the query.
      */
@@ -76,16 +101,69 @@ public class CodeGenContext implements AutoCloseable {
      */
     private final AllocationManager allocationManager;
 
+    /**
+     * Whether the vectorised paradigm should use off-heap intermediate vectors where possible.
+     */
+    private boolean useOffHeapVectors;
+
+    /**
+     * Whether join operators should store their hash-tables off-heap where possible.
+     */
+    private boolean useOffHeapHashTables;
+
+    /**
+     * The number of bytes that the query may reserve before a join or grouped aggregation switches
+     * to spilling its input(s) to disk, which is also the maximum estimated hash-table size of a
+     * spilled partition, or 0 if operators should never spill.
+     */
+    private long spillMemoryBudget;
+
+    /**
+     * Whether the operators should generate code for collecting runtime metrics into the {@link QueryProfile}.
+     */
+    private boolean profileQuery;
+
+    /**
+     * The identifier to assign to the next operator that registers itself in the {@link QueryProfile}.
+     */
+    private int nextOperatorProfileId;
+
+    /**
+     * The {@link QueryProfile} into which a profiled query collects its runtime metrics.
+     */
+    private final QueryProfile queryProfile;
+
+    /**
+     * The identifier to assign to the next pipeline of the query, which identifies its pipeline events.
+     */
+    private int nextPipelineId;
+
     /**
      * A {@link ResultConsumptionTarget} for transferring the query result outside the generated query code.
      */
     private ResultConsumptionTarget resultConsumptionTarget;
 
+    /**
+     * The label of the loop that drives the pipeline for which consumption code is currently being
+     * generated, or {@code null} if that pipeline is not driven by a labelled loop. Operators may
+     * generate a break to this label to terminate the pipeline early.
+     */
+    private String pipelineLoopLabel;
+
     /**
      * Creates a new empty {@link CodeGenContext} instance.
      * @param rootAllocator The {@link RootAllocator} to use for arrow operations.
      */
     public CodeGenContext(RootAllocator rootAllocator) {
+        this(rootAllocator, new RecyclingAllocationManager());
+    }
+
+    /**
+     * Creates a new empty {@link CodeGenContext} instance which uses a specific {@link AllocationManager}.
+     * @param rootAllocator The {@link RootAllocator} to use for arrow operations.
+     * @param allocationManager The {@link AllocationManager} to use for query-specific allocations.
+     */
+    public CodeGenContext(RootAllocator rootAllocator, AllocationManager allocationManager) {
         this.definedVariables = new Stack<>();
         this.currentDefinedVariables = new HashSet<>();
 
@@ -99,10 +177,24 @@ public class CodeGenContext implements AutoCloseable {
         this.ordinalMapping = new Stack<>();
         this.currentOrdinalMapping = new ArrayList<>();
 
+        this.queryId = nextQueryId.getAndIncrement();
         this.arrowRootAllocator = rootAllocator;
+        this.memoryAccountant = new QueryMemoryAccountant(this.queryId);
+        this.arrowQueryAllocator = (rootAllocator == null)
+                ? null
+                : rootAllocator.newChildAllocator("query", this.memoryAccountant, 0, Long.MAX_VALUE);
         this.arrowTableReaders = new ArrayList<>();
-        this.allocationManager = new BufferPoolAllocationManager(8);
+        this.allocationManager = allocationManager;
+        this.allocationManager.setMemoryAccountant(this.memoryAccountant);
+        this.useOffHeapVectors = false;
+        this.useOffHeapHashTables = false;
+        this.spillMemoryBudget = 0;
+        this.profileQuery = false;
+        this.nextOperatorProfileId = 0;
+        this.queryProfile = new QueryProfile();
+        this.nextPipelineId = 0;
         this.resultConsumptionTarget = null;
+        this.pipelineLoopLabel = null;
     }
 
     /**
@@ -226,6 +318,14 @@ public class CodeGenContext implements AutoCloseable {
         return Pair.of(allocationStatements, deallocationVariables);
     }
 
+    /**
+     * Obtain the identifier of the query, with which its Java Flight Recorder events are tagged.
+     * @return The identifier of the query belonging to this context.
+     */
+    public long getQueryId() {
+        return this.queryId;
+    }
+
     /**
      * Obtain the {@link RootAllocator} to be able to process Arrow files.
      * @return The {@link RootAllocator} belonging to this query.
@@ -234,12 +334,30 @@ public class CodeGenContext implements AutoCloseable {
         return this.arrowRootAllocator;
     }
 
+    /**
+     * Obtain the {@link BufferAllocator} through which the query should allocate its Arrow buffers,
+     * so that they count towards the memory budget of the query.
+     * @return The query-level child allocator of the {@link RootAllocator} belonging to this query.
+     */
+    public BufferAllocator getArrowQueryAllocator() {
+        return this.arrowQueryAllocator;
+    }
+
+    /**
+     * Method for obtaining the {@link QueryMemoryAccountant} of this {@link CodeGenContext}.
+     * @return The {@link QueryMemoryAccountant} which accounts for the memory used by the query.
+     */
+    public QueryMemoryAccountant getMemoryAccountant() {
+        return this.memoryAccountant;
+    }
+
     /**
      * Method for adding an {@link ArrowTableReader} to the context represented by {@code this}.
      * @param arrowReader The {@link ArrowTableReader} to add.
      * @return The index of the added {@link ArrowTableReader} in the context.
      */
     public int addArrowReader(ArrowTableReader arrowReader) {
+        arrowReader.setQueryId(this.queryId);
         this.arrowTableReaders.add(arrowReader);
         return this.arrowTableReaders.size() - 1;
     }
@@ -269,6 +387,98 @@ public class CodeGenContext implements AutoCloseable {
         return this.allocationManager;
     }
 
+    /**
+     * Method to check whether the vectorised paradigm should use off-heap intermediate vectors.
+     * @return Whether the vectorised paradigm should use off-heap intermediate vectors where possible.
+     */
+    public boolean useOffHeapVectors() {
+        return this.useOffHeapVectors;
+    }
+
+    /**
+     * Method to set whether the vectorised paradigm should use off-heap intermediate vectors.
+     * @param useOffHeapVectors Whether the vectorised paradigm should use off-heap intermediate vectors where possible.
+     */
+    public void setUseOffHeapVectors(boolean useOffHeapVectors) {
+        this.useOffHeapVectors = useOffHeapVectors;
+    }
+
+    /**
+     * Method to check whether join operators should store their hash-tables off-heap.
+     * @return Whether join operators should store their hash-tables off-heap where possible.
+     */
+    public boolean useOffHeapHashTables() {
+        return this.useOffHeapHashTables;
+    }
+
+    /**
+     * Method to set whether join operators should store their hash-tables off-heap.
+     * @param useOffHeapHashTables Whether join operators should store their hash-tables off-heap where possible.
+     */
+    public void setUseOffHeapHashTables(boolean useOffHeapHashTables) {
+        this.useOffHeapHashTables = useOffHeapHashTables;
+    }
+
+    /**
+     * Method to obtain the number of bytes that the query may reserve before a join or grouped
+     * aggregation switches to spilling.
+     * @return The spill memory budget in bytes, or 0 if operators should never spill.
+     */
+    public long getSpillMemoryBudget() {
+        return this.spillMemoryBudget;
+    }
+
+    /**
+     * Method to set the number of bytes that the query may reserve before a join or grouped
+     * aggregation switches to spilling, which is enforced as the spill threshold of the
+     * {@link QueryMemoryAccountant} of the query.
+     * @param spillMemoryBudget The spill memory budget in bytes, or 0 if operators should never spill.
+     */
+    public void setSpillMemoryBudget(long spillMemoryBudget) {
+        this.spillMemoryBudget = spillMemoryBudget;
+        this.memoryAccountant.setSpillThreshold(spillMemoryBudget);
+    }
+
+    /**
+     * Method to check whether the operators should generate code for collecting runtime metrics.
+     * @return Whether the generated query should be profiled.
+     */
+    public boolean profileQuery() {
+        return this.profileQuery;
+    }
+
+    /**
+     * Method to set whether the operators should generate code for collecting runtime metrics.
+     * @param profileQuery Whether the generated query should be profiled.
+     */
+    public void setProfileQuery(boolean profileQuery) {
+        this.profileQuery = profileQuery;
+    }
+
+    /**
+     * Method to assign an identifier to an operator for registering it in the {@link QueryProfile}.
+     * @return The identifier assigned to the operator.
+     */
+    public int assignOperatorProfileId() {
+        return this.nextOperatorProfileId++;
+    }
+
+    /**
+     * Method to obtain the {@link QueryProfile} into which a profiled query collects its runtime metrics.
+     * @return The {@link QueryProfile} of the query, which is empty if the query is not profiled.
+     */
+    public QueryProfile getQueryProfile() {
+        return this.queryProfile;
+    }
+
+    /**
+     * Method to assign an identifier to a pipeline of the query for tagging its execution events.
+     * @return The identifier assigned to the pipeline.
+     */
+    public int assignPipelineId() {
+        return this.nextPipelineId++;
+    }
+
     /**
      * Method for setting the {@link ResultConsumptionTarget} of this {@link CodeGenContext}.
      * @param resultConsumptionTarget The {@link ResultConsumptionTarget} to set.
@@ -287,6 +497,24 @@ public class CodeGenContext implements AutoCloseable {
         return this.resultConsumptionTarget;
     }
 
+    /**
+     * Method to set the label of the loop that drives the pipeline for which consumption code is
+     * currently being generated.
+     * @param pipelineLoopLabel The label of the loop, or {@code null} if there is no such loop.
+     */
+    public void setPipelineLoopLabel(String pipelineLoopLabel) {
+        this.pipelineLoopLabel = pipelineLoopLabel;
+    }
+
+    /**
+     * Method to obtain the label of the loop that drives the pipeline for which consumption code is
+     * currently being generated.
+     * @return The label of the loop, or {@code null} if the pipeline is not driven by a labelled loop.
+     */
+    public String getPipelineLoopLabel() {
+        return this.pipelineLoopLabel;
+    }
+
     /**
      * Method to push the current ordinal to access path mapping so it remains stable until it is needed again.
      */
@@ -322,9 +550,21 @@ public class CodeGenContext implements AutoCloseable {
 
     @Override
     public void close() throws Exception {
-        if (this.arrowTableReaders != null)
-            for (ArrowTableReader reader : this.arrowTableReaders)
+        if (this.arrowTableReaders != null) {
+            for (ArrowTableReader reader : this.arrowTableReaders) {
+                // Include the peak usage of each scan in the memory report of the query
+                this.memoryAccountant.recordPeak(
+                        "scan_" + reader.getArrowFile().getName(), reader.getPeakMemoryAllocation());
                 reader.close();
+            }
+        }
+
+        // All Arrow buffers of the query should have been released by now
+        if (this.arrowQueryAllocator != null)
+            this.arrowQueryAllocator.close();
+
+        // Free any memory held by the allocation manager, as the query is done
+        this.allocationManager.close();
     }
 
 }
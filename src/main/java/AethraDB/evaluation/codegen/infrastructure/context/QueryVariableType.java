@@ -26,6 +26,11 @@ public final class QueryVariableType {
         P_A_INT_DATE,
         P_A_LONG,
 
+        // Primitive memory segment types
+        P_SEG_DOUBLE,
+        P_SEG_INT,
+        P_SEG_LONG,
+
         // Special types
         S_FL_BIN,
         S_VARCHAR,
@@ -61,6 +66,15 @@ public final class QueryVariableType {
         ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR,
         ARRAY_INT_VECTOR_W_SELECTION_VECTOR,
 
+        // Memory segment vector types
+        SEGMENT_DOUBLE_VECTOR,
+        SEGMENT_INT_VECTOR,
+        SEGMENT_LONG_VECTOR,
+
+        // Memory segment vector with selection vector types
+        SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR,
+        SEGMENT_INT_VECTOR_W_SELECTION_VECTOR,
+
         // Complex types
         MAP_GENERATED,
 
@@ -103,6 +117,11 @@ public final class QueryVariableType {
     public static final QueryVariableType P_A_INT_DATE = new QueryVariableType(LogicalType.P_A_INT_DATE, -1);
     public static final QueryVariableType P_A_LONG = new QueryVariableType(LogicalType.P_A_LONG, -1);
 
+    // Primitive memory segment types
+    public static final QueryVariableType P_SEG_DOUBLE = new QueryVariableType(LogicalType.P_SEG_DOUBLE, -1);
+    public static final QueryVariableType P_SEG_INT = new QueryVariableType(LogicalType.P_SEG_INT, -1);
+    public static final QueryVariableType P_SEG_LONG = new QueryVariableType(LogicalType.P_SEG_LONG, -1);
+
     // Special types
     public static final QueryVariableType S_VARCHAR = new QueryVariableType(LogicalType.S_VARCHAR, -1);
 
@@ -133,6 +152,15 @@ public final class QueryVariableType {
     public static final QueryVariableType ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR = new QueryVariableType(LogicalType.ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR, -1);
     public static final QueryVariableType ARRAY_INT_VECTOR_W_SELECTION_VECTOR = new QueryVariableType(LogicalType.ARRAY_INT_VECTOR_W_SELECTION_VECTOR, -1);
 
+    // Memory segment vector types
+    public static final QueryVariableType SEGMENT_DOUBLE_VECTOR = new QueryVariableType(LogicalType.SEGMENT_DOUBLE_VECTOR, -1);
+    public static final QueryVariableType SEGMENT_INT_VECTOR = new QueryVariableType(LogicalType.SEGMENT_INT_VECTOR, -1);
+    public static final QueryVariableType SEGMENT_LONG_VECTOR = new QueryVariableType(LogicalType.SEGMENT_LONG_VECTOR, -1);
+
+    // Memory segment vector with selection vector types
+    public static final QueryVariableType SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR = new QueryVariableType(LogicalType.SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR, -1);
+    public static final QueryVariableType SEGMENT_INT_VECTOR_W_SELECTION_VECTOR = new QueryVariableType(LogicalType.SEGMENT_INT_VECTOR_W_SELECTION_VECTOR, -1);
+
     // Complex types
     public static final QueryVariableType MAP_GENERATED = new QueryVariableType(LogicalType.MAP_GENERATED, -1);
 
@@ -56,6 +56,10 @@ public final class QueryVariableTypeMethods {
             case ARRAY_INT_VECTOR -> QueryVariableType.P_INT;
             case ARRAY_LONG_VECTOR -> QueryVariableType.P_LONG;
 
+            case P_SEG_DOUBLE, SEGMENT_DOUBLE_VECTOR, SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR -> QueryVariableType.P_DOUBLE;
+            case P_SEG_INT, SEGMENT_INT_VECTOR, SEGMENT_INT_VECTOR_W_SELECTION_VECTOR -> QueryVariableType.P_INT;
+            case P_SEG_LONG, SEGMENT_LONG_VECTOR -> QueryVariableType.P_LONG;
+
             default -> throw new IllegalArgumentException(
                     "primitiveType cannot determine the primitive scalar type for " + type);
         };
@@ -76,6 +80,42 @@ public final class QueryVariableTypeMethods {
         };
     }
 
+    /**
+     * Method to get the primitive memory segment type for a primitive type.
+     */
+    public static QueryVariableType primitiveSegmentTypeForPrimitive(QueryVariableType primitive) {
+        return switch (primitive.logicalType) {
+            case P_DOUBLE -> QueryVariableType.P_SEG_DOUBLE;
+            case P_INT -> QueryVariableType.P_SEG_INT;
+            case P_LONG -> QueryVariableType.P_SEG_LONG;
+            default -> throw new IllegalArgumentException(
+                    "primitiveSegmentTypeForPrimitive cannot determine the primitive segment type for " + primitive);
+        };
+    }
+
+    /**
+     * Method to check if a type is a vector type that is backed by a Java array.
+     */
+    public static boolean isArrayVector(QueryVariableType type) {
+        return switch (type.logicalType) {
+            case ARRAY_DOUBLE_VECTOR, ARRAY_FIXED_LENGTH_BINARY_VECTOR, ARRAY_INT_VECTOR, ARRAY_INT_DATE_VECTOR,
+                 ARRAY_LONG_VECTOR, ARRAY_VARCHAR_VECTOR, ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR,
+                 ARRAY_INT_VECTOR_W_SELECTION_VECTOR -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Method to check if a type is a vector type that is backed by a memory segment.
+     */
+    public static boolean isSegmentVector(QueryVariableType type) {
+        return switch (type.logicalType) {
+            case SEGMENT_DOUBLE_VECTOR, SEGMENT_INT_VECTOR, SEGMENT_LONG_VECTOR,
+                 SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR, SEGMENT_INT_VECTOR_W_SELECTION_VECTOR -> true;
+            default -> false;
+        };
+    }
+
     /**
      * Method to get the primitive member type for a primitive array type.
      */
@@ -100,6 +140,9 @@ public final class QueryVariableTypeMethods {
             case P_A_LONG -> QueryVariableType.ARRAY_LONG_VECTOR;
             case S_A_FL_BIN -> new QueryVariableType(QueryVariableType.LogicalType.ARRAY_FIXED_LENGTH_BINARY_VECTOR, arrayType.byteWidth);
             case S_A_VARCHAR -> QueryVariableType.ARRAY_VARCHAR_VECTOR;
+            case P_SEG_DOUBLE -> QueryVariableType.SEGMENT_DOUBLE_VECTOR;
+            case P_SEG_INT -> QueryVariableType.SEGMENT_INT_VECTOR;
+            case P_SEG_LONG -> QueryVariableType.SEGMENT_LONG_VECTOR;
             default ->
                 throw new IllegalArgumentException("vectorTypeForPrimitiveArrayType expects a primitive array type");
         };
@@ -168,6 +211,8 @@ public final class QueryVariableTypeMethods {
         return switch (arrowType.logicalType) {
             case ARRAY_DOUBLE_VECTOR, ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR -> QueryVariableType.ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR;
             case ARRAY_INT_VECTOR, ARRAY_INT_VECTOR_W_SELECTION_VECTOR -> QueryVariableType.ARRAY_INT_VECTOR_W_SELECTION_VECTOR;
+            case SEGMENT_DOUBLE_VECTOR, SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR -> QueryVariableType.SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR;
+            case SEGMENT_INT_VECTOR, SEGMENT_INT_VECTOR_W_SELECTION_VECTOR -> QueryVariableType.SEGMENT_INT_VECTOR_W_SELECTION_VECTOR;
             default ->
                     throw new IllegalArgumentException("arrayVectorWithSelectionVectorType cannot handle this type" + arrowType);
         };
@@ -193,6 +238,8 @@ public final class QueryVariableTypeMethods {
             case P_A_INT_DATE -> JaninoGeneralGen.createPrimitiveArrayType(location, Java.Primitive.INT);
             case P_A_LONG -> JaninoGeneralGen.createPrimitiveArrayType(location, Java.Primitive.LONG);
 
+            case P_SEG_DOUBLE, P_SEG_INT, P_SEG_LONG -> JaninoGeneralGen.createReferenceType(location, "java.lang.foreign.MemorySegment");
+
             case S_FL_BIN -> JaninoGeneralGen.createPrimitiveArrayType(location, Java.Primitive.BYTE);
             case S_VARCHAR -> JaninoGeneralGen.createPrimitiveArrayType(location, Java.Primitive.BYTE);
 
@@ -0,0 +1,155 @@
+package AethraDB.evaluation.codegen.infrastructure.context.access_path;
+
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import org.codehaus.janino.Java;
+
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createIntegerLiteral;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+
+/**
+ * {@link AccessPath} type for accessing a variable containing an Arrow vector of a dictionary-encoded
+ * column. The vector itself is an int vector containing the dictionary codes of the column, while
+ * the values of the column are obtained from the dictionary retained by the column's table reader.
+ */
+public class DictionaryEncodedArrowVectorAccessPath extends ArrowVectorAccessPath {
+
+    /**
+     * The Arrow vector type of the dictionary, and hence of the decoded values of the column.
+     */
+    private final QueryVariableType valueType;
+
+    /**
+     * The index of the table reader of the column in the code generation context.
+     */
+    private final int arrowReaderIndex;
+
+    /**
+     * The name of the variable holding the table reader of the column.
+     */
+    private final String arrowReaderVariableName;
+
+    /**
+     * The index of the column in the table that it belongs to.
+     */
+    private final int columnIndex;
+
+    /**
+     * The name of the query-global variable holding the materialised dictionary values, or {@code null}
+     * if no such variable has been defined yet.
+     */
+    private String dictionaryValuesVariableName;
+
+    /**
+     * Construct a {@link DictionaryEncodedArrowVectorAccessPath} instance.
+     * @param variableToAccess The variable containing the dictionary codes of the column.
+     * @param valueType The Arrow vector type of the dictionary of the column.
+     * @param arrowReaderIndex The index of the table reader of the column in the code generation context.
+     * @param arrowReaderVariableName The name of the variable holding the table reader of the column.
+     * @param columnIndex The index of the column in the table that it belongs to.
+     */
+    public DictionaryEncodedArrowVectorAccessPath(
+            String variableToAccess,
+            QueryVariableType valueType,
+            int arrowReaderIndex,
+            String arrowReaderVariableName,
+            int columnIndex
+    ) {
+        super(variableToAccess, QueryVariableType.ARROW_INT_VECTOR);
+        this.valueType = valueType;
+        this.arrowReaderIndex = arrowReaderIndex;
+        this.arrowReaderVariableName = arrowReaderVariableName;
+        this.columnIndex = columnIndex;
+        this.dictionaryValuesVariableName = null;
+    }
+
+    /**
+     * Method to get the Arrow vector type of the dictionary of the column represented by {@code this}.
+     * @return The Arrow vector type of the dictionary of the column represented by {@code this}.
+     */
+    public QueryVariableType getValueType() {
+        return this.valueType;
+    }
+
+    /**
+     * Method to get the name of the query-global variable holding the materialised dictionary values.
+     * @return The name of the variable, or {@code null} if no such variable has been defined yet.
+     */
+    public String getDictionaryValuesVariableName() {
+        return this.dictionaryValuesVariableName;
+    }
+
+    /**
+     * Method to set the name of the query-global variable holding the materialised dictionary values,
+     * so that the variable can be shared by all operators that decode the column.
+     * @param dictionaryValuesVariableName The name of the variable.
+     */
+    public void setDictionaryValuesVariableName(String dictionaryValuesVariableName) {
+        this.dictionaryValuesVariableName = dictionaryValuesVariableName;
+    }
+
+    /**
+     * Method performing code generation to obtain the dictionary of the column represented by {@code this}.
+     * As the dictionary is obtained via the code generation context, the result can be used to
+     * initialise query-global variables.
+     * @return A {@link Java.Rvalue} evaluating to the dictionary as a {@code FieldVector}.
+     */
+    public Java.Rvalue readDictionary() {
+        // cCtx.getArrowReader([arrowReaderIndex]).getDictionaryVector([columnIndex])
+        return createMethodInvocation(
+                getLocation(),
+                this.readArrowReaderFromContext(),
+                "getDictionaryVector",
+                new Java.Rvalue[] { createIntegerLiteral(getLocation(), this.columnIndex) }
+        );
+    }
+
+    /**
+     * Method performing code generation to obtain the values of the dictionary of the column
+     * represented by {@code this}. As the values are obtained via the code generation context, the
+     * result can be used to initialise query-global variables.
+     * @return A {@link Java.Rvalue} evaluating to the dictionary values as a {@code byte[][]}.
+     */
+    public Java.Rvalue readDictionaryValues() {
+        // cCtx.getArrowReader([arrowReaderIndex]).getDictionaryValues([columnIndex])
+        return createMethodInvocation(
+                getLocation(),
+                this.readArrowReaderFromContext(),
+                "getDictionaryValues",
+                new Java.Rvalue[] { createIntegerLiteral(getLocation(), this.columnIndex) }
+        );
+    }
+
+    /**
+     * Method performing code generation to decode the current vector of codes of the column
+     * represented by {@code this} into a vector of the dictionary's type.
+     * @return A {@link Java.Rvalue} evaluating to the decoded vector as a {@code FieldVector}.
+     */
+    public Java.Rvalue decode() {
+        // [arrowReaderVariableName].decodeDictionaryCodes([columnIndex], [variableToAccess])
+        return createMethodInvocation(
+                getLocation(),
+                createAmbiguousNameRef(getLocation(), this.arrowReaderVariableName),
+                "decodeDictionaryCodes",
+                new Java.Rvalue[] {
+                        createIntegerLiteral(getLocation(), this.columnIndex),
+                        this.read()
+                }
+        );
+    }
+
+    /**
+     * Method performing code generation to obtain the table reader of the column via the code generation context.
+     * @return A {@link Java.Rvalue} evaluating to the table reader of the column.
+     */
+    private Java.Rvalue readArrowReaderFromContext() {
+        return createMethodInvocation(
+                getLocation(),
+                createAmbiguousNameRef(getLocation(), "cCtx"),
+                "getArrowReader",
+                new Java.Rvalue[] { createIntegerLiteral(getLocation(), this.arrowReaderIndex) }
+        );
+    }
+
+}
@@ -0,0 +1,94 @@
+package AethraDB.evaluation.codegen.infrastructure.context.access_path;
+
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import org.codehaus.janino.Java;
+
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createIntegerLiteral;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+
+/**
+ * {@link AccessPath} type for accessing a variable containing the Arrow vector of a column that is
+ * served from the encoded column file of its table. The values in the vector have not been unpacked
+ * yet: this needs to happen via {@code unpack} before the values are accessed, while predicates
+ * can be evaluated on the encoded representation of the column via its table reader.
+ */
+public class EncodedArrowVectorAccessPath extends ArrowVectorAccessPath {
+
+    /**
+     * The name of the variable holding the table reader of the column.
+     */
+    private final String arrowReaderVariableName;
+
+    /**
+     * The index of the column in the table that it belongs to.
+     */
+    private final int columnIndex;
+
+    /**
+     * Construct an {@link EncodedArrowVectorAccessPath} instance.
+     * @param variableToAccess The variable containing the (not yet unpacked) vector of the column.
+     * @param type The type of the vector of the column.
+     * @param arrowReaderVariableName The name of the variable holding the table reader of the column.
+     * @param columnIndex The index of the column in the table that it belongs to.
+     */
+    public EncodedArrowVectorAccessPath(
+            String variableToAccess,
+            QueryVariableType type,
+            String arrowReaderVariableName,
+            int columnIndex
+    ) {
+        super(variableToAccess, type);
+        this.arrowReaderVariableName = arrowReaderVariableName;
+        this.columnIndex = columnIndex;
+    }
+
+    /**
+     * Method performing code generation to obtain the table reader of the column.
+     * @return A {@link Java.Rvalue} evaluating to the table reader of the column.
+     */
+    public Java.Rvalue readArrowReader() {
+        return createAmbiguousNameRef(getLocation(), this.arrowReaderVariableName);
+    }
+
+    /**
+     * Method performing code generation to obtain the index of the column in its table.
+     * @return A {@link Java.Rvalue} evaluating to the index of the column.
+     */
+    public Java.Rvalue readColumnIndex() {
+        return createIntegerLiteral(getLocation(), this.columnIndex);
+    }
+
+    /**
+     * Method performing code generation to unpack all values of the current vector of the column.
+     * @return A {@link Java.Rvalue} evaluating to the unpacked vector as a {@code FieldVector}.
+     */
+    public Java.Rvalue unpack() {
+        // [arrowReaderVariableName].unpackEncodedColumn([columnIndex])
+        return createMethodInvocation(
+                getLocation(),
+                this.readArrowReader(),
+                "unpackEncodedColumn",
+                new Java.Rvalue[] { this.readColumnIndex() }
+        );
+    }
+
+    /**
+     * Method performing code generation to unpack the values of the selected records of the
+     * current vector of the column.
+     * @param selectionVector The selection vector indicating the records to unpack.
+     * @param selectionVectorLength The length of {@code selectionVector}.
+     * @return A {@link Java.Rvalue} evaluating to the unpacked vector as a {@code FieldVector}.
+     */
+    public Java.Rvalue unpack(Java.Rvalue selectionVector, Java.Rvalue selectionVectorLength) {
+        // [arrowReaderVariableName].unpackEncodedColumn([columnIndex], [selectionVector], [selectionVectorLength])
+        return createMethodInvocation(
+                getLocation(),
+                this.readArrowReader(),
+                "unpackEncodedColumn",
+                new Java.Rvalue[] { this.readColumnIndex(), selectionVector, selectionVectorLength }
+        );
+    }
+
+}
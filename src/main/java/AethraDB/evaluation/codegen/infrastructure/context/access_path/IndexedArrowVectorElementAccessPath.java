@@ -23,6 +23,12 @@ public class IndexedArrowVectorElementAccessPath extends AccessPath {
      */
     private final ScalarVariableAccessPath indexVariable;
 
+    /**
+     * The variable containing the address of the data buffer of the Arrow vector, or {@code null}
+     * if elements should be read via the methods of the Arrow vector.
+     */
+    private final ScalarVariableAccessPath dataBufferAddressVariable;
+
     /**
      * Create an {@link IndexedArrowVectorElementAccessPath} instance.
      * @param arrowVectorVariable The Arrow vector variable to access.
@@ -33,10 +39,46 @@ public class IndexedArrowVectorElementAccessPath extends AccessPath {
             ArrowVectorAccessPath arrowVectorVariable,
             ScalarVariableAccessPath indexVariable,
             QueryVariableType type
+    ) {
+        this(arrowVectorVariable, indexVariable, null, type);
+    }
+
+    /**
+     * Create an {@link IndexedArrowVectorElementAccessPath} instance which reads primitive elements
+     * directly from the data buffer of the Arrow vector.
+     * @param arrowVectorVariable The Arrow vector variable to access.
+     * @param indexVariable The index variable to use.
+     * @param dataBufferAddressVariable The variable containing the address of the data buffer of
+     *                                  {@code arrowVectorVariable}, or {@code null} to read elements
+     *                                  via the methods of the Arrow vector.
+     * @param type The type of the variable accessible through {@code this}.
+     */
+    public IndexedArrowVectorElementAccessPath(
+            ArrowVectorAccessPath arrowVectorVariable,
+            ScalarVariableAccessPath indexVariable,
+            ScalarVariableAccessPath dataBufferAddressVariable,
+            QueryVariableType type
     ) {
         super(type);
         this.arrowVectorVariable = arrowVectorVariable;
         this.indexVariable = indexVariable;
+        this.dataBufferAddressVariable = dataBufferAddressVariable;
+    }
+
+    /**
+     * Method to obtain the Arrow vector variable that {@code this} accesses elements from.
+     * @return The Arrow vector variable that {@code this} accesses elements from.
+     */
+    public ArrowVectorAccessPath getArrowVectorVariable() {
+        return this.arrowVectorVariable;
+    }
+
+    /**
+     * Method to obtain the variable representing the index of the element that {@code this} accesses.
+     * @return The index variable used by {@code this}.
+     */
+    public ScalarVariableAccessPath getIndexVariable() {
+        return this.indexVariable;
     }
 
     /**
@@ -54,6 +96,35 @@ public class IndexedArrowVectorElementAccessPath extends AccessPath {
         );
     }
 
+    /**
+     * Method performing code generation to read the primitive value of the variable represented by
+     * {@code this}. If the address of the data buffer of the vector is available, the value is read
+     * from it directly, which avoids the null and bounds checks of {@code readGeneric}.
+     */
+    public Java.Rvalue readPrimitive() {
+        if (this.dataBufferAddressVariable == null)
+            return this.readGeneric();
+
+        // ArrowOptimisations.get[Int|Long|Double]Value([dataBufferAddress], [index])
+        String readMethodName = switch (this.getType().logicalType) {
+            case P_INT, P_INT_DATE -> "getIntValue";
+            case P_LONG -> "getLongValue";
+            case P_DOUBLE -> "getDoubleValue";
+            default -> throw new UnsupportedOperationException(
+                    "IndexedArrowVectorElementAccessPath.readPrimitive does not support this type: " + this.getType());
+        };
+
+        return createMethodInvocation(
+                getLocation(),
+                createAmbiguousNameRef(getLocation(), "ArrowOptimisations"),
+                readMethodName,
+                new Java.Rvalue[] {
+                        this.dataBufferAddressVariable.read(),
+                        this.indexVariable.read()
+                }
+        );
+    }
+
     /**
      * Method performing code generation to read the value of the variable represented by {@code this}
      * while performing an optimised read for a fixed length binary value. It is the callers
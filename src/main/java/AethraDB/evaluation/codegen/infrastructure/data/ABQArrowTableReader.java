@@ -1,7 +1,6 @@
 package AethraDB.evaluation.codegen.infrastructure.data;
 
 import org.apache.arrow.memory.BufferAllocator;
-import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.DateDayVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.FixedSizeBinaryVector;
@@ -9,6 +8,7 @@ import org.apache.arrow.vector.Float8Vector;
 import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
 import org.apache.arrow.vector.ipc.AethraArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowReader;
@@ -19,6 +19,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.IntPredicate;
 
 /**
  * An {@link ArrowTableReader} specialisation which performs the reading of data on a separate thread.
@@ -60,41 +61,41 @@ public class ABQArrowTableReader extends ArrowTableReader {
     /**
      * Creates a new {@link ABQArrowTableReader} instance.
      * @param arrowFile The Arrow IPC file representing the table.
-     * @param rootAllocator The {@link RootAllocator} used for Arrow operations.
+     * @param parentAllocator The {@link BufferAllocator} from which the table allocator is derived.
      * @param useProjectingArrowReader Whether this {@link ArrowTableReader} should use the
      * {@link AethraArrowFileReader} implementation.
      * @param columnsToProject The columns of the {@code arrowFile} to actually project out.
      * @throws FileNotFoundException When the specified Arrow file cannot be found.
      */
-    public ABQArrowTableReader(File arrowFile, RootAllocator rootAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws Exception {
-        super(arrowFile, rootAllocator, useProjectingArrowReader, columnsToProject);
+    public ABQArrowTableReader(File arrowFile, BufferAllocator parentAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws Exception {
+        super(arrowFile, parentAllocator, useProjectingArrowReader, columnsToProject);
         this.loadNextBatchResultQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
         this.fieldVectorQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
-        this.readerThread = new ReaderThread(this.arrowFile, this.tableAllocator, this.useProjectingArrowReader, this.columnsToProject, this.loadNextBatchResultQueue, this.fieldVectorQueue);
+        this.readerThread = new ReaderThread(this.arrowFile, this.tableAllocator, this.useProjectingArrowReader, this.arrowColumnsToProject, this::isBatchPruned, this.loadNextBatchResultQueue, this.fieldVectorQueue);
+        this.retainDictionaries(this.readerThread.tableFileReader);
     }
 
     @Override
-    public void reset() throws Exception {
-        // First close the previous reader thread
+    protected void specificReset() throws Exception {
+        // First stop and close the previous reader thread, releasing any batches it buffered
+        this.stopReaderThread();
+        this.closeCurrentBatch();
         this.readerThread.close();
 
-        // Reset the queues
-        this.loadNextBatchResultQueue.clear();
-        this.fieldVectorQueue.clear();
-
         // Then create a new one
         this.readerThread = new ReaderThread(
                 this.arrowFile,
                 this.tableAllocator,
                 this.useProjectingArrowReader,
-                this.columnsToProject,
+                this.arrowColumnsToProject,
+                this::isBatchPruned,
                 this.loadNextBatchResultQueue,
                 this.fieldVectorQueue);
         this.readerThreadActive = false;
     }
 
     @Override
-    public boolean loadNextBatch() {
+    protected boolean specificLoadNextBatch() {
         if (!this.readerThreadActive) {
             // Launch the reader thread if necessary
             this.readerThread.start();
@@ -102,10 +103,7 @@ public class ABQArrowTableReader extends ArrowTableReader {
 
         } else {
             // Otherwise the currentBatch is already populated and should be closed
-            // Note that only the "projected" columns are valid entries, so only those need to be closed
-            for (int projectedColumnIndex : this.columnsToProject) {
-                this.currentBatch[projectedColumnIndex].close();
-            }
+            this.closeCurrentBatch();
         }
 
         // Get the next batch
@@ -125,16 +123,68 @@ public class ABQArrowTableReader extends ArrowTableReader {
     }
 
     @Override
-    public FieldVector getVector(int index) {
+    protected boolean specificSkipNextBatch() {
+        // The reader thread does not read the pruned batches in the first place
+        return true;
+    }
+
+    @Override
+    protected FieldVector getArrowVector(int index) {
         return this.currentBatch[index];
     }
 
+    @Override
+    protected void specificStopReading() {
+        // Stop the reader thread from decoding batches that will never be consumed
+        this.stopReaderThread();
+    }
+
     @Override
     protected void specificClose() throws Exception {
-        // Close the reader thread
+        // Stop the reader thread in case the table was not read until the end, then close it
+        this.stopReaderThread();
+        this.closeCurrentBatch();
         this.readerThread.close();
     }
 
+    /**
+     * Method to stop the reader thread (if it is active) and to release the batches that it has
+     * buffered but which have not been consumed yet.
+     */
+    private void stopReaderThread() {
+        if (this.readerThreadActive)
+            this.readerThread.requestStop();
+
+        FieldVector[] bufferedBatch;
+        while ((bufferedBatch = this.fieldVectorQueue.poll()) != null)
+            closeBatch(bufferedBatch, this.arrowColumnsToProject);
+        this.loadNextBatchResultQueue.clear();
+    }
+
+    /**
+     * Method to release the batch which is currently available via the {@code getVector} method.
+     */
+    private void closeCurrentBatch() {
+        if (this.currentBatch == null)
+            return;
+
+        closeBatch(this.currentBatch, this.arrowColumnsToProject);
+        this.currentBatch = null;
+    }
+
+    /**
+     * Method to release the vectors of a batch that was read by the reader thread.
+     * @param batch The batch to release.
+     * @param columnsToProject The columns that were projected into the batch. Note that only the
+     *                         "projected" columns are valid entries, so only those need to be closed.
+     */
+    private static void closeBatch(FieldVector[] batch, int[] columnsToProject) {
+        for (int projectedColumnIndex : columnsToProject) {
+            if (batch[projectedColumnIndex] != null)
+                batch[projectedColumnIndex].close();
+        }
+    }
+
     /**
      * Definition of the class that actually performs the reading of the table file into the buffer.
      */
@@ -170,6 +220,11 @@ public class ABQArrowTableReader extends ArrowTableReader {
          */
         private final int[] columnsToProject;
 
+        /**
+         * The predicate indicating whether a batch of the input file should be skipped rather than read.
+         */
+        private final IntPredicate isBatchPruned;
+
         /**
          * The {@link ArrayBlockingQueue} to store the result for {@code loadNextBatch} calls.
          */
@@ -180,6 +235,11 @@ public class ABQArrowTableReader extends ArrowTableReader {
          */
         private final ArrayBlockingQueue<FieldVector[]> fieldVectorTargetQueue;
 
+        /**
+         * Whether the consumer has requested the thread to stop reading before the end of the table.
+         */
+        private volatile boolean stopRequested;
+
         /**
          * Creates a new instance of the {@link ReaderThread} class.
          * @param arrowFile The table file to be read by the created instance.
@@ -187,6 +247,7 @@ public class ABQArrowTableReader extends ArrowTableReader {
          * @param useProjectingArrowReader Whether this {@link ArrowTableReader} should use the
          * {@link AethraArrowFileReader} implementation.
          * @param columnsToProject The actual columns to project out.
+         * @param isBatchPruned The predicate indicating whether a batch should be skipped rather than read.
          * @param loadNextBatchTargetQueue  The queue into which to buffer the result for {@code loadNextBatch} calls.
          * @param fieldVectorTargetQueue The queue into which to buffer the {@link FieldVector}s that have been read.
          * @throws FileNotFoundException If the {@code arrowFile} cannot be found.
@@ -197,6 +258,7 @@ public class ABQArrowTableReader extends ArrowTableReader {
                 BufferAllocator tableAllocator,
                 boolean useProjectingArrowReader,
                 int[] columnsToProject,
+                IntPredicate isBatchPruned,
                 ArrayBlockingQueue<Boolean> loadNextBatchTargetQueue,
                 ArrayBlockingQueue<FieldVector[]> fieldVectorTargetQueue
         ) throws IOException {
@@ -205,19 +267,35 @@ public class ABQArrowTableReader extends ArrowTableReader {
             if (useProjectingArrowReader)
                 this.tableFileReader = new AethraArrowFileReader(this.tableInputStream.getChannel(), this.tableAllocator, columnsToProject);
             else
-                this.tableFileReader = new ArrowFileReader(this.tableInputStream.getChannel(), this.tableAllocator);
+                this.tableFileReader = new ArrowFileReader(this.tableInputStream.getChannel(), this.tableAllocator, AethraCompressionCodecFactory.INSTANCE);
             this.schemaRoot = this.tableFileReader.getVectorSchemaRoot();
             this.columnCount = schemaRoot.getFieldVectors().size();
             this.columnsToProject = columnsToProject;
+            this.isBatchPruned = isBatchPruned;
             this.loadNextBatchTargetQueue = loadNextBatchTargetQueue;
             this.fieldVectorTargetQueue = fieldVectorTargetQueue;
         }
 
         @Override
         public void run() {
+            // The batch that is being read, but which has not been handed over to the consumer yet
+            FieldVector[] vectorBatch = null;
+            int batchIndex = 0;
+
             try {
-                while (tableFileReader.loadNextBatch()) {
-                    FieldVector[] vectorBatch = new FieldVector[columnCount];
+                while (!this.stopRequested) {
+                    // Skip the pruned batches without reading them, as the consumer will skip them too
+                    if (this.isBatchPruned.test(batchIndex)) {
+                        if (!skipNextArrowBatch(tableFileReader))
+                            break;
+                        batchIndex++;
+                        continue;
+                    }
+
+                    if (!tableFileReader.loadNextBatch())
+                        break;
+                    batchIndex++;
+                    vectorBatch = new FieldVector[columnCount];
 
                     // Buffer the actual batch as indicated by the columns to project
                     for (int i : this.columnsToProject) {
@@ -253,16 +331,40 @@ public class ABQArrowTableReader extends ArrowTableReader {
 
                     // Write the actual batch into its queue (blocking)
                     this.fieldVectorTargetQueue.put(vectorBatch);
+                    vectorBatch = null;
 
                 }
 
                 // Final batch has been read, so only communicate this via the loadNextBatch queue (blocking)
-                this.loadNextBatchTargetQueue.put(false);
+                if (!this.stopRequested)
+                    this.loadNextBatchTargetQueue.put(false);
 
             } catch (IOException e) {
-                throw new RuntimeException("ABQArrowTableReader.ReaderThread IOException occurred: ", e);
+                // Reads that are interrupted by a stop request are expected to fail
+                if (!this.stopRequested)
+                    throw new RuntimeException("ABQArrowTableReader.ReaderThread IOException occurred: ", e);
+            } catch (InterruptedException e) {
+                if (!this.stopRequested)
+                    throw new RuntimeException("ABQArrowTableReader.ReaderThread InterruptedException occurred: ", e);
+            } finally {
+                // Release the batch that could not be handed over to the consumer
+                if (vectorBatch != null)
+                    closeBatch(vectorBatch, this.columnsToProject);
+            }
+        }
+
+        /**
+         * Method to request the thread to stop reading the table, which blocks until it has done so.
+         */
+        public void requestStop() {
+            this.stopRequested = true;
+            this.interrupt();
+
+            try {
+                this.join();
             } catch (InterruptedException e) {
-                throw new RuntimeException("ABQArrowTableReader.ReaderThread InterruptedException occurred: ", e);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("ABQArrowTableReader.ReaderThread.requestStop InterruptedException occurred: ", e);
             }
         }
 
@@ -1,16 +1,59 @@
 package AethraDB.evaluation.codegen.infrastructure.data;
 
+import AethraDB.evaluation.vector_support.VectorisedOperators;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
 /**
  * Class for wrapping allocation related infrastructure so that optimisations can be applied
  * irrespective of code generation.
  */
-public abstract class AllocationManager {
+public abstract class AllocationManager implements AutoCloseable {
+
+    /**
+     * The {@link QueryMemoryAccountant} to which the vectors allocated by this {@link AllocationManager}
+     * are reported, or {@code null} if its allocations are not accounted.
+     */
+    private QueryMemoryAccountant memoryAccountant;
 
     /**
      * Default constructor for any {@link AllocationManager} descendant.
      */
     public AllocationManager() {
+        this.memoryAccountant = null;
+    }
 
+    /**
+     * Method to set the {@link QueryMemoryAccountant} to which the vectors allocated by this
+     * {@link AllocationManager} should be reported from now on.
+     * @param memoryAccountant The {@link QueryMemoryAccountant} of the query using this {@link AllocationManager}.
+     */
+    public void setMemoryAccountant(QueryMemoryAccountant memoryAccountant) {
+        this.memoryAccountant = memoryAccountant;
+    }
+
+    /**
+     * Method to reserve the memory of newly allocated vectors with the {@link QueryMemoryAccountant},
+     * if any. Should be invoked before the vectors are allocated.
+     * @param bytes The number of bytes to reserve.
+     * @throws org.apache.arrow.memory.OutOfMemoryException when the reservation would exceed the
+     *         memory budget of the query.
+     */
+    protected void reserveBytes(long bytes) {
+        if (this.memoryAccountant != null)
+            this.memoryAccountant.reserve(QueryMemoryAccountant.ALLOCATION_MANAGER_OWNER, bytes);
+    }
+
+    /**
+     * Method to release memory that was reserved through {@code reserveBytes} once the vectors
+     * occupying it are freed.
+     * @param bytes The number of bytes to release.
+     */
+    protected void releaseBytes(long bytes) {
+        if (this.memoryAccountant != null)
+            this.memoryAccountant.release(QueryMemoryAccountant.ALLOCATION_MANAGER_OWNER, bytes);
     }
 
     /**
@@ -78,4 +121,50 @@ public abstract class AllocationManager {
      */
     public abstract void release(byte[][] vector);
 
+    /**
+     * Method for obtaining an off-heap int vector to use in query processing.
+     * By default, the vector is allocated in an automatically managed {@link Arena}, so that
+     * every {@link AllocationManager} can back queries that use off-heap intermediate vectors.
+     * @return A {@link MemorySegment} which can store {@code VectorisedOperators.VECTOR_LENGTH} ints.
+     */
+    public MemorySegment getIntSegmentVector() {
+        return Arena.ofAuto().allocate(ValueLayout.JAVA_INT.byteSize() * VectorisedOperators.VECTOR_LENGTH, ValueLayout.JAVA_LONG.byteAlignment());
+    }
+
+    /**
+     * Method for obtaining an off-heap long vector to use in query processing.
+     * By default, the vector is allocated in an automatically managed {@link Arena}.
+     * @return A {@link MemorySegment} which can store {@code VectorisedOperators.VECTOR_LENGTH} longs.
+     */
+    public MemorySegment getLongSegmentVector() {
+        return Arena.ofAuto().allocate(ValueLayout.JAVA_LONG.byteSize() * VectorisedOperators.VECTOR_LENGTH, ValueLayout.JAVA_LONG.byteAlignment());
+    }
+
+    /**
+     * Method for obtaining an off-heap double vector to use in query processing.
+     * By default, the vector is allocated in an automatically managed {@link Arena}.
+     * @return A {@link MemorySegment} which can store {@code VectorisedOperators.VECTOR_LENGTH} doubles.
+     */
+    public MemorySegment getDoubleSegmentVector() {
+        return Arena.ofAuto().allocate(ValueLayout.JAVA_DOUBLE.byteSize() * VectorisedOperators.VECTOR_LENGTH, ValueLayout.JAVA_LONG.byteAlignment());
+    }
+
+    /**
+     * Method to mark an off-heap vector used in query processing as unused. ("free a vector")
+     * By default, this is a no-op as automatically managed segments are reclaimed by the GC.
+     * @param vector The vector to mark as unused.
+     */
+    public void release(MemorySegment vector) {
+        // Do nothing since automatically managed segments are reclaimed once unreachable
+    }
+
+    /**
+     * Method to release all resources held by this {@link AllocationManager}. Any vector obtained
+     * from it may no longer be used after this method has been invoked.
+     */
+    @Override
+    public void close() {
+        // Nothing to release by default
+    }
+
 }
@@ -0,0 +1,140 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import AethraDB.evaluation.vector_support.VectorisedOperators;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayDeque;
+
+/**
+ * A {@link RecyclingAllocationManager} specialisation which allocates its off-heap vectors from a
+ * single {@link Arena} that lives as long as the query. Released off-heap vectors are kept on a free
+ * list per element width and handed out again, while all off-heap memory is freed deterministically
+ * once the {@link ArenaAllocationManager} is closed at the end of the query. The off-heap bytes are
+ * reserved with the {@link QueryMemoryAccountant} of the query alongside the on-heap pooled bytes. Since int vectors and
+ * long/double vectors differ in byte size only, these share a free list per element width.
+ */
+public class ArenaAllocationManager extends RecyclingAllocationManager {
+
+    /**
+     * The {@link Arena} from which all off-heap vectors are allocated.
+     */
+    private final Arena queryArena;
+
+    /**
+     * The byte size of a vector with 4-byte elements.
+     */
+    private final long narrowVectorBytes;
+
+    /**
+     * The byte size of a vector with 8-byte elements.
+     */
+    private final long wideVectorBytes;
+
+    /**
+     * Free list of vectors with 4-byte elements, guarded by its own monitor.
+     */
+    private final ArrayDeque<MemorySegment> narrowSegmentVectors;
+
+    /**
+     * Free list of vectors with 8-byte elements, guarded by its own monitor.
+     */
+    private final ArrayDeque<MemorySegment> wideSegmentVectors;
+
+    /**
+     * The number of off-heap bytes allocated from {@code queryArena}.
+     */
+    private long offHeapBytes;
+
+    /**
+     * Create a new {@link ArenaAllocationManager} instance with its own {@link Arena}.
+     */
+    public ArenaAllocationManager() {
+        super();
+        this.queryArena = Arena.ofShared();
+        this.narrowVectorBytes = ValueLayout.JAVA_INT.byteSize() * VectorisedOperators.VECTOR_LENGTH;
+        this.wideVectorBytes = ValueLayout.JAVA_LONG.byteSize() * VectorisedOperators.VECTOR_LENGTH;
+        this.narrowSegmentVectors = new ArrayDeque<>();
+        this.wideSegmentVectors = new ArrayDeque<>();
+        this.offHeapBytes = 0;
+    }
+
+    @Override
+    public MemorySegment getIntSegmentVector() {
+        return this.acquireSegmentVector(this.narrowSegmentVectors, this.narrowVectorBytes);
+    }
+
+    @Override
+    public MemorySegment getLongSegmentVector() {
+        return this.acquireSegmentVector(this.wideSegmentVectors, this.wideVectorBytes);
+    }
+
+    @Override
+    public MemorySegment getDoubleSegmentVector() {
+        return this.acquireSegmentVector(this.wideSegmentVectors, this.wideVectorBytes);
+    }
+
+    @Override
+    public void release(MemorySegment vector) {
+        ArrayDeque<MemorySegment> freeList;
+        if (vector.byteSize() == this.narrowVectorBytes)
+            freeList = this.narrowSegmentVectors;
+        else if (vector.byteSize() == this.wideVectorBytes)
+            freeList = this.wideSegmentVectors;
+        else
+            throw new IllegalArgumentException("ArenaAllocationManager.release received a segment it did not allocate");
+
+        synchronized (freeList) {
+            freeList.addFirst(vector);
+        }
+    }
+
+    /**
+     * Method to obtain a vector from a free list, which is only allocated if the free list is empty.
+     * @param freeList The free list to obtain the vector from.
+     * @param vectorBytes The number of bytes that the vector should have.
+     * @return An off-heap vector of {@code vectorBytes} bytes.
+     */
+    private MemorySegment acquireSegmentVector(ArrayDeque<MemorySegment> freeList, long vectorBytes) {
+        synchronized (freeList) {
+            MemorySegment vector = freeList.pollFirst();
+            if (vector != null)
+                return vector;
+        }
+
+        synchronized (this.queryArena) {
+            reserveBytes(vectorBytes);
+            this.offHeapBytes += vectorBytes;
+            return this.queryArena.allocate(vectorBytes, ValueLayout.JAVA_LONG.byteAlignment());
+        }
+    }
+
+    /**
+     * Method to obtain the number of off-heap bytes allocated by this {@link ArenaAllocationManager}.
+     * @return The number of off-heap bytes allocated by this {@link ArenaAllocationManager}.
+     */
+    public long getOffHeapBytes() {
+        synchronized (this.queryArena) {
+            return this.offHeapBytes;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.narrowSegmentVectors) {
+            this.narrowSegmentVectors.clear();
+        }
+        synchronized (this.wideSegmentVectors) {
+            this.wideSegmentVectors.clear();
+        }
+        this.queryArena.close();
+
+        synchronized (this.queryArena) {
+            releaseBytes(this.offHeapBytes);
+            this.offHeapBytes = 0;
+        }
+        super.close();
+    }
+
+}
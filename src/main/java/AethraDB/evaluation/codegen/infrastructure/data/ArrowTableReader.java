@@ -1,12 +1,27 @@
 package AethraDB.evaluation.codegen.infrastructure.data;
 
+import AethraDB.evaluation.general_support.StringDictionaries;
+import AethraDB.evaluation.general_support.events.BatchLoadEvent;
 import org.apache.arrow.memory.BufferAllocator;
-import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.ipc.AethraArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.TransferPair;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Class for wrapping the reading infrastructure of an Arrow table so that optimisations can be
@@ -34,20 +49,166 @@ public abstract class ArrowTableReader implements AutoCloseable {
      */
     protected int[] columnsToProject;
 
+    /**
+     * The list of columns to project that need to be read from the Arrow file, which excludes the
+     * columns that are served from the encoded column file of the table when columns are projected.
+     */
+    protected int[] arrowColumnsToProject;
+
+    /**
+     * The vectors exposing the current sub-batch when it is a slice of the current batch.
+     * Lazily initialised per column the first time that a batch needs to be sliced.
+     */
+    private FieldVector[] subBatchVectors;
+
+    /**
+     * Whether the current sub-batch is a slice of the current batch (stored in {@code subBatchVectors})
+     * or whether it is the current batch itself.
+     */
+    private boolean subBatchIsSlice;
+
+    /**
+     * The offset within the current batch at which the next sub-batch starts.
+     */
+    private int nextSubBatchOffset;
+
+    /**
+     * The number of records in the current batch.
+     */
+    private int currentBatchLength;
+
+    /**
+     * Whether the consumer of {@code this} has indicated that it does not need any more batches.
+     */
+    private boolean readingStopped;
+
+    /**
+     * The dictionaries of the dictionary-encoded projected columns, indexed by column index
+     * ({@code null} for columns that are not dictionary-encoded). They are retained from the first
+     * Arrow reader that is created for the table, so that they outlive the individual Arrow readers.
+     */
+    private FieldVector[] dictionaryVectors;
+
+    /**
+     * The materialised values of the dictionaries in {@code dictionaryVectors}, indexed by column index.
+     * Lazily initialised per column the first time that the values of a dictionary are requested.
+     */
+    private byte[][][] dictionaryValues;
+
+    /**
+     * The vectors into which the codes of dictionary-encoded columns are decoded, indexed by column index.
+     * Lazily initialised per column the first time that codes of the column need to be decoded.
+     */
+    private FieldVector[] decodedDictionaryVectors;
+
+    /**
+     * The encoded batches of the projected columns that are served from the encoded column file of
+     * the table, indexed by column index and then by batch index ({@code null} for other columns).
+     */
+    private EncodedIntegerBatch[][] encodedColumnBatches;
+
+    /**
+     * The vectors into which the encoded columns are unpacked, indexed by column index.
+     */
+    private BaseFixedWidthVector[] encodedColumnVectors;
+
+    /**
+     * The index of the current batch, which selects the current batch of the encoded columns.
+     */
+    private int currentBatchIndex;
+
+    /**
+     * The offset within the current batch at which the current sub-batch starts.
+     */
+    private int currentSubBatchOffset;
+
+    /**
+     * The number of records in the current sub-batch.
+     */
+    private int currentSubBatchLength;
+
+    /**
+     * The batch statistics of the table, or {@code null} if they have not been loaded yet or if the
+     * table has no (up-to-date) batch statistics file.
+     */
+    private BatchStatisticsFile batchStatistics;
+
+    /**
+     * Whether an attempt has been made to load {@code batchStatistics}.
+     */
+    private boolean batchStatisticsLoaded;
+
+    /**
+     * Whether each batch of the table is skipped because it cannot contain any record satisfying
+     * the predicates registered via {@code pruneBatches}, or {@code null} if no batch is skipped.
+     */
+    private boolean[] prunedBatches;
+
+    /**
+     * The identifier of the query reading the table, with which the batch load events are tagged.
+     */
+    private long queryId;
+
     /**
      * Perform the basic initialisation required for any descendant of {@link ArrowTableReader}.
      * @param arrowFile The Arrow file to be read from.
-     * @param rootAllocator The {@link RootAllocator} that is used for Arrow allocations.
+     * @param parentAllocator The {@link BufferAllocator} from which the table allocator is derived.
      * @param useProjectingArrowReader Whether this {@link ArrowTableReader} should use the
      * {@link AethraArrowFileReader} implementation.
      * @param columnsToProject The columns of the {@code arrowFile} to actually project out.
+     * @throws IOException when an I/O issue occurs while reading the encoded column file of the table.
      */
-    public ArrowTableReader(File arrowFile, RootAllocator rootAllocator, boolean useProjectingArrowReader, int[] columnsToProject) {
+    public ArrowTableReader(File arrowFile, BufferAllocator parentAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws IOException {
         this.arrowFile = arrowFile;
-        // Initialise a specific allocator for this table, at twice the file size to be on the safe side
-        this.tableAllocator = rootAllocator.newChildAllocator(arrowFile.getName(), 0L, 2 * arrowFile.getTotalSpace());
+        // Initialise a specific allocator for this table, which is only bounded by its parent: a limit
+        // derived from the file size does not hold for compressed files, whose decompressed batches
+        // are larger, while the memory budget of a query is enforced by the QueryMemoryAccountant
+        // listening on the query allocator
+        this.tableAllocator = parentAllocator.newChildAllocator(
+                arrowFile.getName(),
+                0L,
+                parentAllocator.getLimit());
         this.useProjectingArrowReader = useProjectingArrowReader;
         this.columnsToProject = columnsToProject;
+        this.arrowColumnsToProject = columnsToProject;
+        this.currentBatchIndex = -1;
+        this.loadEncodedColumns();
+    }
+
+    /**
+     * Method to load the projected columns that are stored in the encoded column file of the table,
+     * if the table has such a file. When columns are projected, these columns are no longer read
+     * from the Arrow file.
+     * @throws IOException when an I/O issue occurs while reading the encoded column file.
+     */
+    private void loadEncodedColumns() throws IOException {
+        EncodedColumnFile encodedColumnFile = EncodedColumnFile.read(this.arrowFile);
+        if (encodedColumnFile == null)
+            return;
+
+        int[] encodedColumnIndices = encodedColumnFile.getColumnIndices();
+        this.encodedColumnBatches = new EncodedIntegerBatch[this.getVectorArrayLength()][];
+        this.encodedColumnVectors = new BaseFixedWidthVector[this.encodedColumnBatches.length];
+
+        for (int position = 0; position < encodedColumnIndices.length; position++) {
+            int columnIndex = encodedColumnIndices[position];
+            if (!this.isProjected(columnIndex))
+                continue;
+
+            this.encodedColumnBatches[columnIndex] = encodedColumnFile.getColumnBatches(position);
+            BaseFixedWidthVector encodedColumnVector = encodedColumnFile.createColumnVector(position, this.tableAllocator);
+            encodedColumnVector.allocateNew(Math.max(encodedColumnFile.getMaxBatchLength(), 1));
+
+            // Encoded columns do not contain nulls
+            encodedColumnVector.getValidityBuffer().setOne(0, encodedColumnVector.getValidityBuffer().capacity());
+            this.encodedColumnVectors[columnIndex] = encodedColumnVector;
+        }
+
+        if (this.useProjectingArrowReader) {
+            this.arrowColumnsToProject = Arrays.stream(this.columnsToProject)
+                    .filter(columnIndex -> !this.isEncodedColumn(columnIndex))
+                    .toArray();
+        }
     }
 
     /**
@@ -58,26 +219,568 @@ public abstract class ArrowTableReader implements AutoCloseable {
 
     /**
      * Method to reset the {@link ArrowTableReader} so it can once more be read from.
+     * @throws Exception when an exception occurs during resetting of some member.
+     */
+    public final void reset() throws Exception {
+        this.releaseSubBatchVectors();
+        this.subBatchIsSlice = false;
+        this.nextSubBatchOffset = 0;
+        this.currentBatchLength = 0;
+        this.readingStopped = false;
+        this.currentBatchIndex = -1;
+        this.currentSubBatchOffset = 0;
+        this.currentSubBatchLength = 0;
+        this.prunedBatches = null;
+        this.specificReset();
+    }
+
+    /**
+     * Method to set the identifier of the query reading the table.
+     * @param queryId The identifier with which the batch load events of the reader are tagged.
+     */
+    public final void setQueryId(long queryId) {
+        this.queryId = queryId;
+    }
+
+    /**
+     * Method to be implemented by all descendants of {@link ArrowTableReader} to reset their own
+     * members so that the table can once more be read from.
+     * @throws Exception when an exception occurs during resetting of some member.
      */
-    public abstract void reset() throws Exception;
+    protected abstract void specificReset() throws Exception;
 
     /**
      * Method for loading the next arrow batch to be processed.
+     * @return {@code true} if a new batch could be loaded, {@code false} if there are no more batches
+     * to process or if reading has been stopped via {@code stopReading}.
+     * @throws IOException when an I/O issue occurs during batch loading.
+     */
+    public final boolean loadNextBatch() throws IOException {
+        if (this.readingStopped)
+            return false;
+
+        // Skip the batches that cannot contain any record satisfying the pruning predicates
+        while (this.isBatchPruned(this.currentBatchIndex + 1)) {
+            if (!this.specificSkipNextBatch())
+                return false;
+            this.currentBatchIndex++;
+        }
+
+        BatchLoadEvent loadEvent = BatchLoadEvent.start(this.queryId, this.arrowFile.getName(), this.currentBatchIndex + 1);
+        boolean batchLoaded = this.specificLoadNextBatch();
+        loadEvent.finish(batchLoaded);
+        if (!batchLoaded)
+            return false;
+
+        this.currentBatchIndex++;
+        if (this.encodedColumnBatches != null) {
+            for (int columnIndex : this.columnsToProject) {
+                if (this.isEncodedColumn(columnIndex) && this.currentBatchIndex >= this.encodedColumnBatches[columnIndex].length)
+                    throw new IllegalStateException(
+                            "ArrowTableReader.loadNextBatch found fewer batches in the encoded column file than in " + this.arrowFile);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to be implemented by all descendants of {@link ArrowTableReader} to load the next
+     * arrow batch to be processed.
      * @return {@code true} if a new batch could be loaded, {@code false} if there are no more batches to process.
      * @throws IOException when an I/O issue occurs during batch loading.
      */
-    public abstract boolean loadNextBatch() throws IOException;
+    protected abstract boolean specificLoadNextBatch() throws IOException;
+
+    /**
+     * Method to be implemented by all descendants of {@link ArrowTableReader} to skip the next arrow
+     * batch, preferably without reading it. Descendants which read ahead may instead avoid reading
+     * the batches for which {@code isBatchPruned} holds, in which case skipping is a no-op.
+     * @return {@code true} if a batch could be skipped, {@code false} if there are no more batches to process.
+     * @throws IOException when an I/O issue occurs while skipping the batch.
+     */
+    protected abstract boolean specificSkipNextBatch() throws IOException;
+
+    /**
+     * Method to skip the next batch of an {@link ArrowReader} without reading it.
+     * @param arrowReader The (file-based) {@link ArrowReader} to skip the next batch of.
+     * @return {@code true} if a batch could be skipped, {@code false} if there are no more batches.
+     * @throws IOException when an I/O issue occurs while skipping the batch.
+     */
+    protected static boolean skipNextArrowBatch(ArrowReader arrowReader) throws IOException {
+        if (arrowReader instanceof AethraArrowFileReader aethraArrowFileReader)
+            return aethraArrowFileReader.skipNextBatch();
+        else if (arrowReader instanceof ArrowFileReader arrowFileReader)
+            return arrowFileReader.skipNextBatch();
+        else
+            throw new UnsupportedOperationException(
+                    "ArrowTableReader.skipNextArrowBatch cannot skip batches of the current reader type: " + arrowReader.getClass());
+    }
+
+    /**
+     * Method to indicate that no more batches will be consumed from {@code this} until it is reset,
+     * for example because a query has already produced all the records it needs. Subsequent calls to
+     * {@code loadNextBatch} and {@code loadNextSubBatch} return {@code false}, while the vectors of
+     * the current batch remain accessible until the next reset or until {@code this} is closed.
+     */
+    public final void stopReading() {
+        if (this.readingStopped)
+            return;
+
+        this.readingStopped = true;
+        this.specificStopReading();
+    }
+
+    /**
+     * Method which can be overridden by descendants of {@link ArrowTableReader} to release resources
+     * that are only needed for reading batches ahead, once reading has been stopped.
+     */
+    protected void specificStopReading() {
+
+    }
 
     /**
      * Method for obtaining a specific {@link FieldVector} of the current arrow batch.
      * @param index The index of the {@link FieldVector} to retrieve.
      * @return The {@link FieldVector} of the current arrow batch corresponding to {@code index}.
      */
-    public abstract FieldVector getVector(int index);
+    public final FieldVector getVector(int index) {
+        if (this.isEncodedColumn(index)) {
+            EncodedIntegerBatch encodedBatch = this.encodedColumnBatches[index][this.currentBatchIndex];
+            BaseFixedWidthVector target = this.encodedColumnVectors[index];
+            encodedBatch.unpack(0, encodedBatch.getValueCount(), target);
+            target.setValueCount(encodedBatch.getValueCount());
+            return target;
+        }
+
+        return this.getArrowVector(index);
+    }
+
+    /**
+     * Method to be implemented by all descendants of {@link ArrowTableReader} to obtain a specific
+     * {@link FieldVector} of the current arrow batch, as read from the Arrow file.
+     * @param index The index of the {@link FieldVector} to retrieve.
+     * @return The {@link FieldVector} of the current arrow batch corresponding to {@code index}.
+     */
+    protected abstract FieldVector getArrowVector(int index);
+
+    /**
+     * Method to retain the dictionaries of the dictionary-encoded projected columns from an Arrow
+     * reader of the table. Should be invoked by descendants of {@link ArrowTableReader} whenever they
+     * create an Arrow reader, and only retains the dictionaries the first time it is invoked.
+     * @param arrowReader The Arrow reader from which to retain the dictionaries.
+     * @throws IOException when an I/O issue occurs while reading the dictionaries.
+     */
+    protected final void retainDictionaries(ArrowReader arrowReader) throws IOException {
+        if (this.dictionaryVectors != null)
+            return;
+
+        this.dictionaryVectors = new FieldVector[this.getVectorArrayLength()];
+        List<Field> fields = arrowReader.getVectorSchemaRoot().getSchema().getFields();
+        Map<Long, FieldVector> retainedDictionaries = new HashMap<>();
+
+        for (int columnIndex : this.columnsToProject) {
+            DictionaryEncoding encoding = fields.get(columnIndex).getDictionary();
+            if (encoding == null)
+                continue;
+
+            // Columns may share a dictionary, which should only be transferred once
+            FieldVector dictionaryVector = retainedDictionaries.get(encoding.getId());
+            if (dictionaryVector == null) {
+                TransferPair transferPair = arrowReader.lookup(encoding.getId()).getVector().getTransferPair(this.tableAllocator);
+                transferPair.transfer();
+                dictionaryVector = (FieldVector) transferPair.getTo();
+                retainedDictionaries.put(encoding.getId(), dictionaryVector);
+            }
+
+            this.dictionaryVectors[columnIndex] = dictionaryVector;
+        }
+    }
+
+    /**
+     * Method for obtaining the dictionary of a dictionary-encoded column. The vectors returned by
+     * {@code getVector} and {@code getSubBatchVector} for such a column contain the dictionary codes,
+     * which index into the returned dictionary.
+     * @param columnIndex The index of the column to retrieve the dictionary for.
+     * @return The dictionary of the column, or {@code null} if the column is not dictionary-encoded.
+     */
+    public final FieldVector getDictionaryVector(int columnIndex) {
+        if (this.dictionaryVectors == null || columnIndex >= this.dictionaryVectors.length)
+            return null;
+
+        return this.dictionaryVectors[columnIndex];
+    }
+
+    /**
+     * Method for obtaining the values of the dictionary of a dictionary-encoded column.
+     * @param columnIndex The index of the column to retrieve the dictionary values for.
+     * @return The values of the dictionary of the column as byte arrays, indexed by dictionary code.
+     */
+    public final byte[][] getDictionaryValues(int columnIndex) {
+        FieldVector dictionaryVector = this.getDictionaryVector(columnIndex);
+        if (dictionaryVector == null)
+            throw new IllegalArgumentException("ArrowTableReader.getDictionaryValues expects a dictionary-encoded column");
+
+        if (this.dictionaryValues == null)
+            this.dictionaryValues = new byte[this.dictionaryVectors.length][][];
+        if (this.dictionaryValues[columnIndex] == null)
+            this.dictionaryValues[columnIndex] = StringDictionaries.getValues(dictionaryVector);
+
+        return this.dictionaryValues[columnIndex];
+    }
+
+    /**
+     * Method for decoding a vector of codes of a dictionary-encoded column into a vector of the
+     * dictionary's type. The returned vector is re-used by subsequent invocations for the same
+     * column, and should therefore only be used until the next invocation.
+     * @param columnIndex The index of the column that the codes belong to.
+     * @param codes The vector of codes to decode.
+     * @return A vector containing the decoded values of {@code codes}.
+     */
+    public final FieldVector decodeDictionaryCodes(int columnIndex, IntVector codes) {
+        byte[][] values = this.getDictionaryValues(columnIndex);
+
+        if (this.decodedDictionaryVectors == null)
+            this.decodedDictionaryVectors = new FieldVector[this.dictionaryVectors.length];
+        if (this.decodedDictionaryVectors[columnIndex] == null)
+            this.decodedDictionaryVectors[columnIndex] =
+                    this.dictionaryVectors[columnIndex].getField().createVector(this.tableAllocator);
+        FieldVector target = this.decodedDictionaryVectors[columnIndex];
+
+        if (target instanceof VarCharVector varCharTarget)
+            StringDictionaries.decode(codes, values, varCharTarget);
+
+        else if (target instanceof FixedSizeBinaryVector fixedSizeBinaryTarget)
+            StringDictionaries.decode(codes, values, fixedSizeBinaryTarget);
+
+        else
+            throw new UnsupportedOperationException(
+                    "ArrowTableReader.decodeDictionaryCodes cannot decode into the current field vector type: " + target.getClass());
+
+        return target;
+    }
+
+    /**
+     * Method for loading the next sub-batch to be processed, which contains at most
+     * {@code maximumSubBatchLength} records. This allows the vectorised paradigm to process vectors
+     * of a (cache-friendly) length that is independent of the batch size used when writing the
+     * Arrow file. Batches that fit within the maximum length are exposed as-is, while larger batches
+     * are split into zero-copy slices (provided that {@code maximumSubBatchLength} is a multiple of 8).
+     * Note that calls to this method should not be interleaved with calls to {@code loadNextBatch}.
+     * @param maximumSubBatchLength The maximum number of records that a sub-batch may contain.
+     * @return {@code true} if a new sub-batch could be loaded, {@code false} if there are no more
+     * sub-batches to process.
+     * @throws IOException when an I/O issue occurs during batch loading.
+     */
+    public final boolean loadNextSubBatch(int maximumSubBatchLength) throws IOException {
+        if (this.readingStopped)
+            return false;
+
+        // Load the next batch if the current batch has been exhausted
+        if (this.nextSubBatchOffset >= this.currentBatchLength) {
+            // Release the slices of the previous batch so its memory can be reclaimed
+            if (this.subBatchIsSlice) {
+                this.releaseSubBatchVectors();
+                this.subBatchIsSlice = false;
+            }
+
+            if (!this.loadNextBatch())
+                return false;
+
+            this.currentBatchLength = this.getCurrentBatchLength();
+            this.nextSubBatchOffset = 0;
+
+            // Expose the batch directly if it fits
+            if (this.currentBatchLength <= maximumSubBatchLength) {
+                this.nextSubBatchOffset = this.currentBatchLength;
+                this.currentSubBatchOffset = 0;
+                this.currentSubBatchLength = this.currentBatchLength;
+                return true;
+            }
+        }
+
+        // Otherwise, slice the next part of the current batch
+        if (this.subBatchVectors == null)
+            this.subBatchVectors = new FieldVector[this.getVectorArrayLength()];
+
+        int subBatchLength = Math.min(maximumSubBatchLength, this.currentBatchLength - this.nextSubBatchOffset);
+        for (int columnIndex : this.arrowColumnsToProject) {
+            if (!this.isEncodedColumn(columnIndex))
+                this.sliceColumn(columnIndex, this.nextSubBatchOffset, subBatchLength);
+        }
+
+        this.subBatchIsSlice = true;
+        this.currentSubBatchOffset = this.nextSubBatchOffset;
+        this.currentSubBatchLength = subBatchLength;
+        this.nextSubBatchOffset += subBatchLength;
+        return true;
+    }
+
+    /**
+     * Method to determine the number of records in the current batch, preferring the encoded
+     * columns so that no Arrow column needs to be accessed (or unpacked) for this purpose.
+     * @return The number of records in the current batch.
+     */
+    private int getCurrentBatchLength() {
+        for (int columnIndex : this.columnsToProject) {
+            if (this.isEncodedColumn(columnIndex))
+                return this.encodedColumnBatches[columnIndex][this.currentBatchIndex].getValueCount();
+        }
+
+        return this.getArrowVector(this.columnsToProject[0]).getValueCount();
+    }
+
+    /**
+     * Method for obtaining a specific {@link FieldVector} of the current sub-batch.
+     * @param index The index of the {@link FieldVector} to retrieve.
+     * @return The {@link FieldVector} of the current sub-batch corresponding to {@code index}.
+     */
+    public final FieldVector getSubBatchVector(int index) {
+        if (this.isEncodedColumn(index))
+            return this.unpackEncodedColumn(index);
+
+        if (this.subBatchIsSlice)
+            return this.subBatchVectors[index];
+        else
+            return this.getArrowVector(index);
+    }
+
+    /* ---- Batch pruning ---- */
+
+    /**
+     * Method to skip the batches of the table that cannot contain a value of a column within an
+     * inclusive range, based on the batch statistics file of the table. Multiple invocations are
+     * combined conjunctively, and are in effect until the next reset. Has no effect if the table has
+     * no (up-to-date) batch statistics for the column, and should be invoked before the first batch
+     * is loaded.
+     * @param columnIndex The index of the column that the range applies to.
+     * @param lowerBound The inclusive lower bound of the range.
+     * @param upperBound The inclusive upper bound of the range.
+     * @throws IOException when an I/O issue occurs while reading the batch statistics file.
+     */
+    public final void pruneBatches(int columnIndex, long lowerBound, long upperBound) throws IOException {
+        if (this.currentBatchIndex != -1)
+            throw new IllegalStateException("ArrowTableReader.pruneBatches should be invoked before the first batch is loaded");
+
+        if (!this.batchStatisticsLoaded) {
+            this.batchStatistics = BatchStatisticsFile.read(this.arrowFile);
+            this.batchStatisticsLoaded = true;
+        }
+
+        if (this.batchStatistics == null || !this.batchStatistics.hasStatistics(columnIndex))
+            return;
+
+        int batchCount = this.batchStatistics.getBatchCount();
+        if (this.prunedBatches == null)
+            this.prunedBatches = new boolean[batchCount];
+
+        for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+            if (lowerBound > upperBound || !this.batchStatistics.mayContain(columnIndex, batchIndex, lowerBound, upperBound))
+                this.prunedBatches[batchIndex] = true;
+        }
+    }
+
+    /**
+     * Method to check whether a batch is skipped as a result of {@code pruneBatches}.
+     * @param batchIndex The index of the batch to check.
+     * @return {@code true} iff the batch cannot contain any record satisfying the pruning predicates.
+     */
+    protected final boolean isBatchPruned(int batchIndex) {
+        return this.prunedBatches != null
+                && batchIndex < this.prunedBatches.length
+                && this.prunedBatches[batchIndex];
+    }
+
+    /* ---- Encoded columns ---- */
+
+    /**
+     * Method to check whether a column is served from the encoded column file of the table.
+     * @param columnIndex The index of the column to check.
+     * @return {@code true} iff the column is a projected column stored in the encoded column file.
+     */
+    public final boolean isEncodedColumn(int columnIndex) {
+        return this.encodedColumnBatches != null
+                && columnIndex < this.encodedColumnBatches.length
+                && this.encodedColumnBatches[columnIndex] != null;
+    }
+
+    /**
+     * Method for obtaining the vector of an encoded column for the current sub-batch without
+     * unpacking its values. The values should be unpacked via {@code unpackEncodedColumn} before
+     * they are accessed, which allows predicates to be evaluated on the encoded representation via
+     * {@code selectEncoded} first, so that only the values of the selected records are unpacked.
+     * @param columnIndex The index of the encoded column.
+     * @return The vector of the column, whose value count equals the length of the current sub-batch.
+     */
+    public final FieldVector getEncodedSubBatchVector(int columnIndex) {
+        BaseFixedWidthVector target = this.encodedColumnVectors[columnIndex];
+        target.setValueCount(this.currentSubBatchLength);
+        return target;
+    }
+
+    /**
+     * Method to unpack all values of an encoded column for the current sub-batch.
+     * @param columnIndex The index of the encoded column.
+     * @return The vector returned by {@code getEncodedSubBatchVector}, containing the unpacked values.
+     */
+    public final FieldVector unpackEncodedColumn(int columnIndex) {
+        BaseFixedWidthVector target = (BaseFixedWidthVector) this.getEncodedSubBatchVector(columnIndex);
+        this.encodedColumnBatches[columnIndex][this.currentBatchIndex].unpack(
+                this.currentSubBatchOffset, this.currentSubBatchLength, target);
+        return target;
+    }
+
+    /**
+     * Method to unpack only the values of the selected records of an encoded column for the current sub-batch.
+     * @param columnIndex The index of the encoded column.
+     * @param selectionVector The selection vector indicating the records to unpack.
+     * @param selectionVectorLength The length of {@code selectionVector}.
+     * @return The vector returned by {@code getEncodedSubBatchVector}, containing the unpacked
+     * values at the positions in {@code selectionVector}.
+     */
+    public final FieldVector unpackEncodedColumn(int columnIndex, int[] selectionVector, int selectionVectorLength) {
+        BaseFixedWidthVector target = (BaseFixedWidthVector) this.getEncodedSubBatchVector(columnIndex);
+        this.encodedColumnBatches[columnIndex][this.currentBatchIndex].unpack(
+                this.currentSubBatchOffset, selectionVector, selectionVectorLength, target);
+        return target;
+    }
+
+    /**
+     * Method to select the records of the current sub-batch whose value in an encoded column lies
+     * within given bounds, by evaluating the bounds on the encoded representation of the column.
+     * @param columnIndex The index of the encoded column.
+     * @param lowerBound The (inclusive) lower bound that a value should satisfy.
+     * @param upperBound The (inclusive) upper bound that a value should satisfy.
+     * @param selectionVectorResult The selection vector to write the selected records to.
+     * @return The length of the resulting selection vector.
+     */
+    public final int selectEncoded(int columnIndex, int lowerBound, int upperBound, int[] selectionVectorResult) {
+        return this.encodedColumnBatches[columnIndex][this.currentBatchIndex].select(
+                this.currentSubBatchOffset, this.currentSubBatchLength, lowerBound, upperBound, selectionVectorResult);
+    }
+
+    /**
+     * Method to select the records out of a selection vector over the current sub-batch whose value
+     * in an encoded column lies within given bounds, by evaluating the bounds on the encoded
+     * representation of the column.
+     * @param columnIndex The index of the encoded column.
+     * @param lowerBound The (inclusive) lower bound that a value should satisfy.
+     * @param upperBound The (inclusive) upper bound that a value should satisfy.
+     * @param selectionVectorResult The selection vector to write the selected records to.
+     * @param selectionVector The selection vector indicating the records to consider.
+     * @param selectionVectorLength The length of {@code selectionVector}.
+     * @return The length of the resulting selection vector.
+     */
+    public final int selectEncoded(
+            int columnIndex,
+            int lowerBound,
+            int upperBound,
+            int[] selectionVectorResult,
+            int[] selectionVector,
+            int selectionVectorLength
+    ) {
+        return this.encodedColumnBatches[columnIndex][this.currentBatchIndex].select(
+                this.currentSubBatchOffset, lowerBound, upperBound, selectionVectorResult, selectionVector, selectionVectorLength);
+    }
+
+    /**
+     * Method to slice a column of the current batch into the sub-batch vector of that column.
+     * @param columnIndex The index of the column to slice.
+     * @param offset The offset within the current batch at which the slice starts.
+     * @param length The number of records in the slice.
+     */
+    private void sliceColumn(int columnIndex, int offset, int length) {
+        FieldVector source = this.getArrowVector(columnIndex);
+        if (this.subBatchVectors[columnIndex] == null)
+            this.subBatchVectors[columnIndex] = source.getField().createVector(this.tableAllocator);
+        FieldVector target = this.subBatchVectors[columnIndex];
+
+        if (source instanceof BaseFixedWidthVector fixedWidthSource)
+            fixedWidthSource.splitAndTransferTo(offset, length, (BaseFixedWidthVector) target);
+
+        else if (source instanceof BaseVariableWidthVector variableWidthSource)
+            variableWidthSource.splitAndTransferTo(offset, length, (BaseVariableWidthVector) target);
+
+        else
+            throw new UnsupportedOperationException(
+                    "ArrowTableReader.sliceColumn cannot slice the current field vector type: " + source.getClass());
+    }
+
+    /**
+     * Method to determine the length of the array needed to store a vector per column index.
+     * @return The maximum projected column index plus one.
+     */
+    private int getVectorArrayLength() {
+        int maxColumnIndex = -1;
+        for (int columnIndex : this.columnsToProject)
+            maxColumnIndex = Math.max(maxColumnIndex, columnIndex);
+        return maxColumnIndex + 1;
+    }
+
+    /**
+     * Method to check whether a column is projected by {@code this}.
+     * @param columnIndex The index of the column to check.
+     * @return {@code true} iff {@code columnIndex} is contained in {@code columnsToProject}.
+     */
+    private boolean isProjected(int columnIndex) {
+        for (int projectedColumnIndex : this.columnsToProject) {
+            if (projectedColumnIndex == columnIndex)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method to release the memory held by the sub-batch vectors.
+     */
+    private void releaseSubBatchVectors() {
+        if (this.subBatchVectors == null)
+            return;
+
+        for (FieldVector subBatchVector : this.subBatchVectors) {
+            if (subBatchVector != null)
+                subBatchVector.clear();
+        }
+    }
 
     @Override
     public final void close() throws Exception {
+        if (this.subBatchVectors != null) {
+            for (FieldVector subBatchVector : this.subBatchVectors) {
+                if (subBatchVector != null)
+                    subBatchVector.close();
+            }
+            this.subBatchVectors = null;
+        }
+
         this.specificClose();
+
+        if (this.dictionaryVectors != null) {
+            for (FieldVector dictionaryVector : this.dictionaryVectors) {
+                if (dictionaryVector != null)
+                    dictionaryVector.close();
+            }
+            this.dictionaryVectors = null;
+            this.dictionaryValues = null;
+        }
+
+        if (this.decodedDictionaryVectors != null) {
+            for (FieldVector decodedDictionaryVector : this.decodedDictionaryVectors) {
+                if (decodedDictionaryVector != null)
+                    decodedDictionaryVector.close();
+            }
+            this.decodedDictionaryVectors = null;
+        }
+
+        if (this.encodedColumnVectors != null) {
+            for (BaseFixedWidthVector encodedColumnVector : this.encodedColumnVectors) {
+                if (encodedColumnVector != null)
+                    encodedColumnVector.close();
+            }
+            this.encodedColumnVectors = null;
+            this.encodedColumnBatches = null;
+        }
+
         this.tableAllocator.close();
     }
 
@@ -96,6 +799,14 @@ public abstract class ArrowTableReader implements AutoCloseable {
         return this.arrowFile;
     }
 
+    /**
+     * Method to obtain the maximum amount of memory that the table allocator has held at any time.
+     * @return The peak memory allocation in bytes, or 0 if {@code this} does not allocate memory.
+     */
+    public long getPeakMemoryAllocation() {
+        return (this.tableAllocator == null) ? 0 : this.tableAllocator.getPeakMemoryAllocation();
+    }
+
     /**
      * Method to check if the {@link ArrowTableReader} represented by {@code this} projects columns.
      * @return Whether the {@link ArrowTableReader} represented by {@code this} projects columns.
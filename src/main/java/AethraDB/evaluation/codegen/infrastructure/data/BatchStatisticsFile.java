@@ -0,0 +1,298 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing the batch statistics file of an Arrow table: a sidecar file next to the Arrow
+ * IPC file of the table which stores the minimum and maximum value of each integer and date column
+ * per batch of the table. An {@link ArrowTableReader} uses these statistics to skip the batches
+ * that cannot contain any record satisfying a range predicate, which is most effective when the
+ * table is clustered on the predicate's column (see {@code AethraDB.util.arrow.ArrowTableClusterer}).
+ *
+ * The file is laid out as follows (all values big-endian):
+ * - The magic number {@code MAGIC} and the format version {@code VERSION}.
+ * - The length of the Arrow file that the statistics were computed for.
+ * - The number of batches, and the number of columns with statistics.
+ * - For each such column, its index in the Arrow table, followed by the minimum and maximum
+ *   non-null value of each batch.
+ */
+public final class BatchStatisticsFile {
+
+    /**
+     * The extension used for batch statistics files, which replaces the ".arrow" extension of the table.
+     */
+    public static final String FILE_EXTENSION = ".astat";
+
+    /**
+     * The magic number identifying a batch statistics file ("ASTA").
+     */
+    private static final int MAGIC = 0x41535441;
+
+    /**
+     * The version of the batch statistics file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of batches of the table.
+     */
+    private final int batchCount;
+
+    /**
+     * The minimum non-null value of each batch, indexed by column index and then by batch index
+     * ({@code null} for columns without statistics). Equals {@code Long.MAX_VALUE} for batches
+     * without non-null values.
+     */
+    private final long[][] minimumValues;
+
+    /**
+     * The maximum non-null value of each batch, indexed by column index and then by batch index
+     * ({@code null} for columns without statistics). Equals {@code Long.MIN_VALUE} for batches
+     * without non-null values.
+     */
+    private final long[][] maximumValues;
+
+    /**
+     * Construct a {@link BatchStatisticsFile} instance.
+     * @param batchCount The number of batches of the table.
+     * @param minimumValues The minimum non-null value of each batch per column.
+     * @param maximumValues The maximum non-null value of each batch per column.
+     */
+    private BatchStatisticsFile(int batchCount, long[][] minimumValues, long[][] maximumValues) {
+        this.batchCount = batchCount;
+        this.minimumValues = minimumValues;
+        this.maximumValues = maximumValues;
+    }
+
+    /**
+     * Method to obtain the batch statistics file belonging to an Arrow table.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @return The (possibly non-existent) batch statistics file of the table.
+     */
+    public static File getBatchStatisticsFile(File arrowFile) {
+        String arrowFileName = arrowFile.getName();
+        String tableName = arrowFileName.endsWith(".arrow")
+                ? arrowFileName.substring(0, arrowFileName.length() - ".arrow".length())
+                : arrowFileName;
+        return new File(arrowFile.getParentFile(), tableName + FILE_EXTENSION);
+    }
+
+    /**
+     * Method to read the batch statistics file of an Arrow table. Statistics that were computed for
+     * a different version of the Arrow file (i.e. for a file of a different length) are ignored, as
+     * they could otherwise cause batches to be skipped incorrectly.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @return The batch statistics file, or {@code null} if the table has no (up-to-date) batch statistics file.
+     * @throws IOException when an I/O issue occurs while reading the file.
+     */
+    public static BatchStatisticsFile read(File arrowFile) throws IOException {
+        File batchStatisticsFile = getBatchStatisticsFile(arrowFile);
+        if (!batchStatisticsFile.isFile())
+            return null;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(batchStatisticsFile)))) {
+            if (input.readInt() != MAGIC)
+                throw new IOException("BatchStatisticsFile.read expects a batch statistics file");
+
+            int version = input.readInt();
+            if (version != VERSION)
+                throw new IOException("BatchStatisticsFile.read does not support version " + version);
+
+            if (input.readLong() != arrowFile.length())
+                return null;
+
+            int batchCount = input.readInt();
+            int columnCount = input.readInt();
+            List<Integer> columnIndices = new ArrayList<>(columnCount);
+            List<long[]> columnMinimumValues = new ArrayList<>(columnCount);
+            List<long[]> columnMaximumValues = new ArrayList<>(columnCount);
+            int vectorArrayLength = 0;
+
+            for (int i = 0; i < columnCount; i++) {
+                int columnIndex = input.readInt();
+                long[] minimumValues = new long[batchCount];
+                long[] maximumValues = new long[batchCount];
+                for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+                    minimumValues[batchIndex] = input.readLong();
+                    maximumValues[batchIndex] = input.readLong();
+                }
+
+                columnIndices.add(columnIndex);
+                columnMinimumValues.add(minimumValues);
+                columnMaximumValues.add(maximumValues);
+                vectorArrayLength = Math.max(vectorArrayLength, columnIndex + 1);
+            }
+
+            long[][] minimumValues = new long[vectorArrayLength][];
+            long[][] maximumValues = new long[vectorArrayLength][];
+            for (int i = 0; i < columnCount; i++) {
+                minimumValues[columnIndices.get(i)] = columnMinimumValues.get(i);
+                maximumValues[columnIndices.get(i)] = columnMaximumValues.get(i);
+            }
+
+            return new BatchStatisticsFile(batchCount, minimumValues, maximumValues);
+        }
+    }
+
+    /**
+     * Method to write the batch statistics file of an Arrow table, which covers all integer and
+     * date (day) columns of the table that are not dictionary-encoded. Any existing batch statistics
+     * file of the table is replaced.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @throws IOException when an I/O issue occurs while reading the table or writing the file.
+     */
+    public static void write(File arrowFile) throws IOException {
+        File batchStatisticsFile = getBatchStatisticsFile(arrowFile);
+        File temporaryFile = new File(batchStatisticsFile.getPath() + ".tmp");
+
+        try (
+                BufferAllocator allocator = new RootAllocator();
+                FileInputStream arrowFileStream = new FileInputStream(arrowFile);
+                ArrowFileReader arrowReader = new ArrowFileReader(arrowFileStream.getChannel(), allocator, AethraCompressionCodecFactory.INSTANCE);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))
+        ) {
+            VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+            List<Field> fields = root.getSchema().getFields();
+            int batchCount = arrowReader.getRecordBlocks().size();
+
+            List<Integer> columnIndices = new ArrayList<>();
+            for (int columnIndex = 0; columnIndex < fields.size(); columnIndex++) {
+                if (hasStatistics(fields.get(columnIndex)))
+                    columnIndices.add(columnIndex);
+            }
+
+            // Compute the statistics of all columns in a single pass over the table
+            long[][] minimumValues = new long[columnIndices.size()][batchCount];
+            long[][] maximumValues = new long[columnIndices.size()][batchCount];
+            for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+                arrowReader.loadRecordBatch(arrowReader.getRecordBlocks().get(batchIndex));
+                int batchLength = root.getRowCount();
+
+                for (int i = 0; i < columnIndices.size(); i++) {
+                    FieldVector columnVector = root.getVector(columnIndices.get(i));
+                    long minimumValue = Long.MAX_VALUE;
+                    long maximumValue = Long.MIN_VALUE;
+
+                    for (int recordIndex = 0; recordIndex < batchLength; recordIndex++) {
+                        if (columnVector.isNull(recordIndex))
+                            continue;
+
+                        long value = getValueAsLong(columnVector, recordIndex);
+                        minimumValue = Math.min(minimumValue, value);
+                        maximumValue = Math.max(maximumValue, value);
+                    }
+
+                    minimumValues[i][batchIndex] = minimumValue;
+                    maximumValues[i][batchIndex] = maximumValue;
+                }
+            }
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(arrowFile.length());
+            output.writeInt(batchCount);
+            output.writeInt(columnIndices.size());
+            for (int i = 0; i < columnIndices.size(); i++) {
+                output.writeInt(columnIndices.get(i));
+                for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+                    output.writeLong(minimumValues[i][batchIndex]);
+                    output.writeLong(maximumValues[i][batchIndex]);
+                }
+            }
+        }
+
+        if (!temporaryFile.renameTo(batchStatisticsFile)) {
+            temporaryFile.delete();
+            throw new IOException("BatchStatisticsFile.write could not replace " + batchStatisticsFile);
+        }
+    }
+
+    /**
+     * Method to check whether statistics are maintained for a column.
+     * @param field The field of the column.
+     * @return {@code true} iff the column is a signed integer or date (day) column that is not dictionary-encoded.
+     */
+    private static boolean hasStatistics(Field field) {
+        if (field.getDictionary() != null)
+            return false;
+
+        return (field.getType() instanceof ArrowType.Int intType && intType.getIsSigned())
+                || (field.getType() instanceof ArrowType.Date dateType && dateType.getUnit() == DateUnit.DAY);
+    }
+
+    /**
+     * Method to obtain the value of a record in a column for which statistics are maintained.
+     * @param columnVector The vector of the column.
+     * @param recordIndex The index of the (non-null) record.
+     * @return The value of the record as a {@code long}.
+     */
+    private static long getValueAsLong(FieldVector columnVector, int recordIndex) {
+        if (columnVector instanceof BaseIntVector intVector)
+            return intVector.getValueAsLong(recordIndex);
+        else if (columnVector instanceof DateDayVector dateDayVector)
+            return dateDayVector.get(recordIndex);
+        else
+            throw new UnsupportedOperationException(
+                    "BatchStatisticsFile.getValueAsLong does not support the provided vector type: " + columnVector.getClass());
+    }
+
+    /**
+     * Method to obtain the number of batches of the table.
+     * @return The number of batches.
+     */
+    public int getBatchCount() {
+        return this.batchCount;
+    }
+
+    /**
+     * Method to check whether statistics are maintained for a column.
+     * @param columnIndex The index of the column in the Arrow table.
+     * @return {@code true} iff the file contains statistics for the column.
+     */
+    public boolean hasStatistics(int columnIndex) {
+        return columnIndex < this.minimumValues.length && this.minimumValues[columnIndex] != null;
+    }
+
+    /**
+     * Method to check whether a batch may contain a value of a column within an inclusive range.
+     * @param columnIndex The index of the column in the Arrow table, for which {@code hasStatistics} holds.
+     * @param batchIndex The index of the batch to check.
+     * @param lowerBound The inclusive lower bound of the range.
+     * @param upperBound The inclusive upper bound of the range.
+     * @return {@code false} iff the batch certainly does not contain a value within the range.
+     */
+    public boolean mayContain(int columnIndex, int batchIndex, long lowerBound, long upperBound) {
+        return this.minimumValues[columnIndex][batchIndex] <= upperBound
+                && this.maximumValues[columnIndex][batchIndex] >= lowerBound;
+    }
+
+    /**
+     * Entry point for creating the batch statistics file of an Arrow table.
+     * @param args The path of the Arrow IPC file of the table.
+     */
+    public static void main(String[] args) throws IOException {
+        write(new File(args[0]));
+    }
+
+}
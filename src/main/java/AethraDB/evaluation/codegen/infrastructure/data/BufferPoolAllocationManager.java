@@ -148,7 +148,7 @@ public class BufferPoolAllocationManager extends AllocationManager {
         if (this.nextLongVectorIndex >= this.longVectors.length) {
             long[][] newLongVectors = new long[this.longVectors.length * 2][];
             System.arraycopy(this.longVectors, 0, newLongVectors, 0, this.longVectors.length);
-            for (int i = this.intVectors.length; i < newLongVectors.length; i++)
+            for (int i = this.longVectors.length; i < newLongVectors.length; i++)
                 newLongVectors[i] = new long[VectorisedOperators.VECTOR_LENGTH];
             this.longVectors = newLongVectors;
         }
@@ -1,6 +1,6 @@
 package AethraDB.evaluation.codegen.infrastructure.data;
 
-import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.DateDayVector;
 import org.apache.arrow.vector.DecimalVector;
 import org.apache.arrow.vector.FieldVector;
@@ -10,6 +10,7 @@ import org.apache.arrow.vector.IntVector;
 import org.apache.arrow.vector.LargeVarCharVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
 import org.apache.arrow.vector.ipc.AethraArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowReader;
@@ -48,14 +49,14 @@ public class CachingArrowTableReader extends ArrowTableReader {
     /**
      * Creates a new {@link CachingArrowTableReader} instance
      * @param arrowFile The Arrow IPC file representing the table.
-     * @param rootAllocator The {@link RootAllocator} used for Arrow operations.
+     * @param parentAllocator The {@link BufferAllocator} from which the table allocator is derived.
      * @param useProjectingArrowReader Whether this {@link ArrowTableReader} should use the
      * {@link AethraArrowFileReader} implementation.
      * @param columnsToProject The columns of the {@code arrowFile} to actually project out.
      * @throws FileNotFoundException When the specified Arrow file cannot be found.
      */
-    public CachingArrowTableReader(File arrowFile, RootAllocator rootAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws Exception {
-        super(arrowFile, rootAllocator, useProjectingArrowReader, columnsToProject);
+    public CachingArrowTableReader(File arrowFile, BufferAllocator parentAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws Exception {
+        super(arrowFile, parentAllocator, useProjectingArrowReader, columnsToProject);
         this.initialise();
     }
 
@@ -68,22 +69,23 @@ public class CachingArrowTableReader extends ArrowTableReader {
         FileInputStream tableInputStream = new FileInputStream(this.arrowFile);
         ArrowReader tableFileReader;
         if (useProjectingArrowReader) {
-            tableFileReader = new AethraArrowFileReader(tableInputStream.getChannel(), this.tableAllocator, this.columnsToProject);
+            tableFileReader = new AethraArrowFileReader(tableInputStream.getChannel(), this.tableAllocator, this.arrowColumnsToProject);
             this.numberOfVectors = ((AethraArrowFileReader) tableFileReader).getRecordBlocks().size();
         } else {
-            tableFileReader = new ArrowFileReader(tableInputStream.getChannel(), this.tableAllocator);
+            tableFileReader = new ArrowFileReader(tableInputStream.getChannel(), this.tableAllocator, AethraCompressionCodecFactory.INSTANCE);
             this.numberOfVectors = ((ArrowFileReader) tableFileReader).getRecordBlocks().size();
         }
 
         VectorSchemaRoot schemaRoot = tableFileReader.getVectorSchemaRoot();
         this.columnCount = schemaRoot.getFieldVectors().size();
         this.fieldVectors = new FieldVector[this.numberOfVectors][columnCount];
+        this.retainDictionaries(tableFileReader);
 
         // Read and cache the data
         int cvi = 0;
         while (tableFileReader.loadNextBatch()) {
             // Cache columns as indicated by the columns to project
-            for (int i : this.columnsToProject) {
+            for (int i : this.arrowColumnsToProject) {
                 FieldVector fv_cvi_i = schemaRoot.getVector(i);
                 if (fv_cvi_i instanceof IntVector int_fv_cvi_i) {
                     this.fieldVectors[cvi][i] = new IntVector(int_fv_cvi_i.getField(), this.tableAllocator);
@@ -131,19 +133,25 @@ public class CachingArrowTableReader extends ArrowTableReader {
     }
 
     @Override
-    public void reset() {
+    protected void specificReset() {
         // Set the correct state
         this.currentVectorIndex = -1;
     }
 
     @Override
-    public boolean loadNextBatch() {
+    protected boolean specificLoadNextBatch() {
         this.currentVectorIndex++;
         return this.currentVectorIndex < this.numberOfVectors;
     }
 
     @Override
-    public FieldVector getVector(int index) {
+    protected boolean specificSkipNextBatch() {
+        this.currentVectorIndex++;
+        return this.currentVectorIndex < this.numberOfVectors;
+    }
+
+    @Override
+    protected FieldVector getArrowVector(int index) {
         return this.fieldVectors[this.currentVectorIndex][index];
     }
 
@@ -151,7 +159,7 @@ public class CachingArrowTableReader extends ArrowTableReader {
     @Override
     protected void specificClose() {
         for (int i = 0; i < this.numberOfVectors; i++) {
-            for (int j : this.columnsToProject) {
+            for (int j : this.arrowColumnsToProject) {
                 this.fieldVectors[i][j].close();
             }
         }
@@ -1,8 +1,9 @@
 package AethraDB.evaluation.codegen.infrastructure.data;
 
-import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
 import org.apache.arrow.vector.ipc.AethraArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowReader;
@@ -36,37 +37,43 @@ public class DirectArrowTableReader extends ArrowTableReader {
     /**
      * Creates a new {@link ArrowTableReader} instance
      * @param arrowFile The Arrow IPC file representing the table.
-     * @param rootAllocator The {@link RootAllocator} used for Arrow operations.
+     * @param parentAllocator The {@link BufferAllocator} from which the table allocator is derived.
      * @param useProjectingArrowReader Whether this {@link ArrowTableReader} should use the
      * {@link AethraArrowFileReader} implementation.
      * @param columnsToProject The columns of the {@code arrowFile} to actually project out.
      * @throws FileNotFoundException When the specified Arrow file cannot be found.
      */
-    public DirectArrowTableReader(File arrowFile, RootAllocator rootAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws Exception {
-        super(arrowFile, rootAllocator, useProjectingArrowReader, columnsToProject);
+    public DirectArrowTableReader(File arrowFile, BufferAllocator parentAllocator, boolean useProjectingArrowReader, int[] columnsToProject) throws Exception {
+        super(arrowFile, parentAllocator, useProjectingArrowReader, columnsToProject);
         this.reset();
     }
 
     @Override
-    public void reset() throws Exception {
+    protected void specificReset() throws Exception {
         if (this.arrowReader != null)
             this.specificClose();
 
         this.arrowFileStream = new FileInputStream(this.arrowFile);
         if (this.useProjectingArrowReader)
-            this.arrowReader = new AethraArrowFileReader(this.arrowFileStream.getChannel(), this.tableAllocator, this.columnsToProject);
+            this.arrowReader = new AethraArrowFileReader(this.arrowFileStream.getChannel(), this.tableAllocator, this.arrowColumnsToProject);
         else
-            this.arrowReader = new ArrowFileReader(this.arrowFileStream.getChannel(), this.tableAllocator);
+            this.arrowReader = new ArrowFileReader(this.arrowFileStream.getChannel(), this.tableAllocator, AethraCompressionCodecFactory.INSTANCE);
         this.vectorSchemaRoot = this.arrowReader.getVectorSchemaRoot();
+        this.retainDictionaries(this.arrowReader);
     }
 
     @Override
-    public boolean loadNextBatch() throws IOException {
+    protected boolean specificLoadNextBatch() throws IOException {
         return this.arrowReader.loadNextBatch();
     }
 
     @Override
-    public FieldVector getVector(int index) {
+    protected boolean specificSkipNextBatch() throws IOException {
+        return skipNextArrowBatch(this.arrowReader);
+    }
+
+    @Override
+    protected FieldVector getArrowVector(int index) {
         return this.vectorSchemaRoot.getVector(index);
     }
 
@@ -0,0 +1,348 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing the Aethra encoded column file of an Arrow table: a sidecar file next to the
+ * Arrow IPC file of the table which stores a subset of its 32-bit integer and date columns, batch by
+ * batch, as {@link EncodedIntegerBatch}es. When such a file is present, an {@link ArrowTableReader}
+ * serves the encoded columns from it rather than from the Arrow file, which allows the vectorised
+ * paradigm to evaluate range predicates on the encoded representation and to only unpack the
+ * values of the selected records.
+ *
+ * The file is laid out as follows (all values big-endian):
+ * - The magic number {@code MAGIC} and the format version {@code VERSION}.
+ * - The number of encoded columns, followed by the index in the Arrow table and the type of each column.
+ * - The number of batches and the maximum number of records in a batch.
+ * - For each batch, for each encoded column, the {@link EncodedIntegerBatch} of that column.
+ */
+public final class EncodedColumnFile {
+
+    /**
+     * The extension used for encoded column files, which replaces the ".arrow" extension of the table.
+     */
+    public static final String FILE_EXTENSION = ".aenc";
+
+    /**
+     * The magic number identifying an encoded column file ("AENC").
+     */
+    private static final int MAGIC = 0x41454E43;
+
+    /**
+     * The version of the encoded column file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The column type tag for 32-bit integer columns.
+     */
+    private static final byte INT_COLUMN = 0;
+
+    /**
+     * The column type tag for date (day) columns.
+     */
+    private static final byte DATE_DAY_COLUMN = 1;
+
+    /**
+     * The indices in the Arrow table of the columns stored in the file.
+     */
+    private final int[] columnIndices;
+
+    /**
+     * The type tag of each column stored in the file.
+     */
+    private final byte[] columnTypes;
+
+    /**
+     * The maximum number of records in a batch of the table.
+     */
+    private final int maxBatchLength;
+
+    /**
+     * The encoded batches of each column stored in the file, indexed by position in {@code columnIndices}
+     * and then by batch index.
+     */
+    private final EncodedIntegerBatch[][] columnBatches;
+
+    /**
+     * Construct an {@link EncodedColumnFile} instance.
+     * @param columnIndices The indices in the Arrow table of the columns stored in the file.
+     * @param columnTypes The type tag of each column stored in the file.
+     * @param maxBatchLength The maximum number of records in a batch of the table.
+     * @param columnBatches The encoded batches of each column stored in the file.
+     */
+    private EncodedColumnFile(int[] columnIndices, byte[] columnTypes, int maxBatchLength, EncodedIntegerBatch[][] columnBatches) {
+        this.columnIndices = columnIndices;
+        this.columnTypes = columnTypes;
+        this.maxBatchLength = maxBatchLength;
+        this.columnBatches = columnBatches;
+    }
+
+    /**
+     * Method to obtain the encoded column file belonging to an Arrow table.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @return The (possibly non-existent) encoded column file of the table.
+     */
+    public static File getEncodedColumnFile(File arrowFile) {
+        String arrowFileName = arrowFile.getName();
+        String tableName = arrowFileName.endsWith(".arrow")
+                ? arrowFileName.substring(0, arrowFileName.length() - ".arrow".length())
+                : arrowFileName;
+        return new File(arrowFile.getParentFile(), tableName + FILE_EXTENSION);
+    }
+
+    /**
+     * Method to obtain the indices of the columns of an Arrow table that are stored in its encoded
+     * column file, while only reading the header of that file.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @return The indices of the encoded columns, or an empty array if the table has no encoded column file.
+     * @throws IOException when an I/O issue occurs while reading the header.
+     */
+    public static int[] readEncodedColumnIndices(File arrowFile) throws IOException {
+        File encodedColumnFile = getEncodedColumnFile(arrowFile);
+        if (!encodedColumnFile.isFile())
+            return new int[0];
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(encodedColumnFile)))) {
+            int columnCount = readHeader(input);
+            int[] columnIndices = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnIndices[i] = input.readInt();
+                input.readByte();
+            }
+            return columnIndices;
+        }
+    }
+
+    /**
+     * Method to read the encoded column file of an Arrow table.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @return The encoded column file, or {@code null} if the table has no encoded column file.
+     * @throws IOException when an I/O issue occurs while reading the file.
+     */
+    public static EncodedColumnFile read(File arrowFile) throws IOException {
+        File encodedColumnFile = getEncodedColumnFile(arrowFile);
+        if (!encodedColumnFile.isFile())
+            return null;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(encodedColumnFile)))) {
+            int columnCount = readHeader(input);
+            int[] columnIndices = new int[columnCount];
+            byte[] columnTypes = new byte[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columnIndices[i] = input.readInt();
+                columnTypes[i] = input.readByte();
+            }
+
+            int batchCount = input.readInt();
+            int maxBatchLength = input.readInt();
+            EncodedIntegerBatch[][] columnBatches = new EncodedIntegerBatch[columnCount][batchCount];
+            for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+                for (int i = 0; i < columnCount; i++)
+                    columnBatches[i][batchIndex] = EncodedIntegerBatch.readFrom(input);
+            }
+
+            return new EncodedColumnFile(columnIndices, columnTypes, maxBatchLength, columnBatches);
+        }
+    }
+
+    /**
+     * Method to read and validate the magic number and version of an encoded column file.
+     * @param input The input positioned at the start of the file.
+     * @return The number of columns stored in the file.
+     * @throws IOException when an I/O issue occurs, or when the input is not a supported encoded column file.
+     */
+    private static int readHeader(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC)
+            throw new IOException("EncodedColumnFile.readHeader expects an encoded column file");
+
+        int version = input.readInt();
+        if (version != VERSION)
+            throw new IOException("EncodedColumnFile.readHeader does not support version " + version);
+
+        return input.readInt();
+    }
+
+    /**
+     * Method to write the encoded column file of an Arrow table, which stores the given columns in
+     * the most compact encoding per batch. Any existing encoded column file of the table is replaced.
+     * @param arrowFile The Arrow IPC file of the table.
+     * @param columnIndices The indices of the 32-bit integer and date (day) columns to encode, which
+     *                      should not contain nulls.
+     * @throws IOException when an I/O issue occurs while reading the table or writing the file.
+     */
+    public static void write(File arrowFile, int[] columnIndices) throws IOException {
+        File encodedColumnFile = getEncodedColumnFile(arrowFile);
+        File temporaryFile = new File(encodedColumnFile.getPath() + ".tmp");
+
+        try (
+                BufferAllocator allocator = new RootAllocator();
+                FileInputStream arrowFileStream = new FileInputStream(arrowFile);
+                ArrowFileReader arrowReader = new ArrowFileReader(arrowFileStream.getChannel(), allocator, AethraCompressionCodecFactory.INSTANCE);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))
+        ) {
+            VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+            List<Field> fields = root.getSchema().getFields();
+            int batchCount = arrowReader.getRecordBlocks().size();
+
+            // Write the header, for which the maximum batch length needs to be known up front
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(columnIndices.length);
+            for (int columnIndex : columnIndices) {
+                output.writeInt(columnIndex);
+                output.writeByte(getColumnType(fields.get(columnIndex)));
+            }
+
+            int maxBatchLength = 0;
+            while (arrowReader.loadNextBatch())
+                maxBatchLength = Math.max(maxBatchLength, root.getRowCount());
+            output.writeInt(batchCount);
+            output.writeInt(maxBatchLength);
+
+            // Encode each batch of each column
+            int[] values = new int[maxBatchLength];
+            for (int batchIndex = 0; batchIndex < batchCount; batchIndex++) {
+                arrowReader.loadRecordBatch(arrowReader.getRecordBlocks().get(batchIndex));
+                int batchLength = root.getRowCount();
+
+                for (int columnIndex : columnIndices) {
+                    FieldVector columnVector = root.getVector(columnIndex);
+                    if (columnVector.getNullCount() > 0)
+                        throw new IllegalArgumentException(
+                                "EncodedColumnFile.write does not support columns containing nulls: " + columnVector.getField());
+
+                    BaseFixedWidthVector fixedWidthVector = (BaseFixedWidthVector) columnVector;
+                    for (int i = 0; i < batchLength; i++)
+                        values[i] = fixedWidthVector.getDataBuffer().getInt((long) i << 2);
+
+                    EncodedIntegerBatch.encode(values, batchLength).writeTo(output);
+                }
+            }
+        }
+
+        if (!temporaryFile.renameTo(encodedColumnFile)) {
+            temporaryFile.delete();
+            throw new IOException("EncodedColumnFile.write could not replace " + encodedColumnFile);
+        }
+    }
+
+    /**
+     * Method to determine the type tag of a column that should be encoded.
+     * @param field The field of the column.
+     * @return The type tag of the column.
+     */
+    private static byte getColumnType(Field field) {
+        if (field.getDictionary() == null) {
+            if (field.getType() instanceof ArrowType.Int intType && intType.getBitWidth() == 32 && intType.getIsSigned())
+                return INT_COLUMN;
+
+            if (field.getType() instanceof ArrowType.Date dateType && dateType.getUnit() == DateUnit.DAY)
+                return DATE_DAY_COLUMN;
+        }
+
+        throw new IllegalArgumentException(
+                "EncodedColumnFile.getColumnType only supports 32-bit integer and date (day) columns: " + field);
+    }
+
+    /**
+     * Method to obtain the indices in the Arrow table of the columns stored in the file.
+     * @return The indices of the encoded columns.
+     */
+    public int[] getColumnIndices() {
+        return this.columnIndices;
+    }
+
+    /**
+     * Method to obtain the number of batches stored in the file.
+     * @return The number of batches.
+     */
+    public int getBatchCount() {
+        return (this.columnBatches.length == 0) ? 0 : this.columnBatches[0].length;
+    }
+
+    /**
+     * Method to obtain the maximum number of records in a batch of the table.
+     * @return The maximum batch length.
+     */
+    public int getMaxBatchLength() {
+        return this.maxBatchLength;
+    }
+
+    /**
+     * Method to obtain the encoded batches of a column stored in the file.
+     * @param position The position of the column in {@code getColumnIndices()}.
+     * @return The encoded batches of the column, indexed by batch index.
+     */
+    public EncodedIntegerBatch[] getColumnBatches(int position) {
+        return this.columnBatches[position];
+    }
+
+    /**
+     * Method to create a vector which can hold the unpacked values of a column stored in the file.
+     * @param position The position of the column in {@code getColumnIndices()}.
+     * @param allocator The allocator to allocate the vector with.
+     * @return An empty vector of the column's type.
+     */
+    public BaseFixedWidthVector createColumnVector(int position, BufferAllocator allocator) {
+        String vectorName = "encoded_column_" + this.columnIndices[position];
+        return switch (this.columnTypes[position]) {
+            case INT_COLUMN -> new IntVector(vectorName, allocator);
+            case DATE_DAY_COLUMN -> new DateDayVector(vectorName, allocator);
+            default -> throw new IllegalStateException(
+                    "EncodedColumnFile.createColumnVector encountered an unknown column type: " + this.columnTypes[position]);
+        };
+    }
+
+    /**
+     * Entry point for creating the encoded column file of an Arrow table.
+     * @param args The path of the Arrow IPC file of the table, followed by the indices of the columns to encode.
+     */
+    public static void main(String[] args) throws IOException {
+        File arrowFile = new File(args[0]);
+        int[] columnIndices = new int[args.length - 1];
+        for (int i = 1; i < args.length; i++)
+            columnIndices[i - 1] = Integer.parseInt(args[i]);
+
+        write(arrowFile, columnIndices);
+
+        // Report the compression achieved per column
+        EncodedColumnFile encodedColumnFile = read(arrowFile);
+        for (int i = 0; i < columnIndices.length; i++) {
+            long encodedSize = 0;
+            long valueCount = 0;
+            List<EncodedIntegerBatch.Encoding> encodings = new ArrayList<>();
+            for (EncodedIntegerBatch batch : encodedColumnFile.getColumnBatches(i)) {
+                encodedSize += batch.getEncodedSize();
+                valueCount += batch.getValueCount();
+                if (!encodings.contains(batch.getEncoding()))
+                    encodings.add(batch.getEncoding());
+            }
+            System.out.println("Column " + columnIndices[i] + ": " + encodedSize + " bytes for " + valueCount
+                    + " values (" + (4 * valueCount) + " bytes unencoded), encodings " + encodings);
+        }
+    }
+
+}
@@ -0,0 +1,656 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import org.apache.arrow.memory.util.MemoryUtil;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Class representing the values of a single 32-bit integer (or date) column within a single batch
+ * of a table, stored in a lightweight encoding rather than as full-width values:
+ * - {@code FRAME_OF_REFERENCE}: each value is stored as its bit-packed difference to the batch minimum.
+ * - {@code RUN_LENGTH}: each run of equal values is stored as its value and end position.
+ * - {@code DELTA}: each value is stored as its bit-packed difference to the previous value, with
+ *   the absolute value stored every {@code DELTA_CHECKPOINT_INTERVAL} values to allow seeking.
+ * Range predicates can be evaluated directly on each of these representations into a selection
+ * vector, after which only the values of the selected records need to be unpacked.
+ */
+public final class EncodedIntegerBatch {
+
+    /**
+     * Enum listing the encodings that an {@link EncodedIntegerBatch} can be stored in.
+     */
+    public enum Encoding {
+        FRAME_OF_REFERENCE,
+        RUN_LENGTH,
+        DELTA
+    }
+
+    /**
+     * The base-2 logarithm of {@code DELTA_CHECKPOINT_INTERVAL}.
+     */
+    private static final int DELTA_CHECKPOINT_SHIFT = 7;
+
+    /**
+     * The number of values between consecutive absolute values stored for a delta-encoded batch.
+     */
+    private static final int DELTA_CHECKPOINT_INTERVAL = 1 << DELTA_CHECKPOINT_SHIFT;
+
+    /**
+     * Empty array used for the representation members that are not used by an encoding.
+     */
+    private static final int[] EMPTY_INT_ARRAY = new int[0];
+
+    /**
+     * The encoding of the batch.
+     */
+    private final Encoding encoding;
+
+    /**
+     * The number of values in the batch.
+     */
+    private final int valueCount;
+
+    /**
+     * The value that is added to each packed value to obtain the actual value ({@code FRAME_OF_REFERENCE})
+     * or delta ({@code DELTA}).
+     */
+    private final int base;
+
+    /**
+     * The number of bits per packed value.
+     */
+    private final int bitWidth;
+
+    /**
+     * The bit-packed values of the batch, where value {@code i} starts at bit {@code i * bitWidth}.
+     */
+    private final long[] packedWords;
+
+    /**
+     * The value of each run of a run-length encoded batch.
+     */
+    private final int[] runValues;
+
+    /**
+     * The (exclusive) end position of each run of a run-length encoded batch.
+     */
+    private final int[] runEnds;
+
+    /**
+     * The absolute value at every {@code DELTA_CHECKPOINT_INTERVAL}-th position of a delta-encoded batch.
+     */
+    private final int[] checkpoints;
+
+    /**
+     * Construct an {@link EncodedIntegerBatch} instance from its representation.
+     * @param encoding The encoding of the batch.
+     * @param valueCount The number of values in the batch.
+     * @param base The value that is added to each packed value.
+     * @param bitWidth The number of bits per packed value.
+     * @param packedWords The bit-packed values of the batch.
+     * @param runValues The value of each run of the batch.
+     * @param runEnds The (exclusive) end position of each run of the batch.
+     * @param checkpoints The absolute value at every {@code DELTA_CHECKPOINT_INTERVAL}-th position of the batch.
+     */
+    private EncodedIntegerBatch(
+            Encoding encoding,
+            int valueCount,
+            int base,
+            int bitWidth,
+            long[] packedWords,
+            int[] runValues,
+            int[] runEnds,
+            int[] checkpoints
+    ) {
+        this.encoding = encoding;
+        this.valueCount = valueCount;
+        this.base = base;
+        this.bitWidth = bitWidth;
+        this.packedWords = packedWords;
+        this.runValues = runValues;
+        this.runEnds = runEnds;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Method to encode the values of a batch in the encoding that represents them most compactly.
+     * @param values The values to encode.
+     * @param valueCount The number of values in {@code values} that belong to the batch.
+     * @return The encoded batch.
+     */
+    public static EncodedIntegerBatch encode(int[] values, int valueCount) {
+        if (valueCount == 0)
+            return new EncodedIntegerBatch(
+                    Encoding.FRAME_OF_REFERENCE, 0, 0, 0, new long[0], EMPTY_INT_ARRAY, EMPTY_INT_ARRAY, EMPTY_INT_ARRAY);
+
+        // Gather the statistics that determine the size of each encoding
+        long min = values[0];
+        long max = values[0];
+        long minDelta = Long.MAX_VALUE;
+        long maxDelta = Long.MIN_VALUE;
+        int runCount = 1;
+        for (int i = 1; i < valueCount; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+
+            long delta = (long) values[i] - values[i - 1];
+            minDelta = Math.min(minDelta, delta);
+            maxDelta = Math.max(maxDelta, delta);
+
+            if (values[i] != values[i - 1])
+                runCount++;
+        }
+
+        int forBitWidth = bitsRequired(max - min);
+        long forSize = 8L * packedWordCount(valueCount, forBitWidth);
+        long rleSize = 8L * runCount;
+
+        // Deltas are only stored if all of them fit in an int, so that they can be added with wrap-around
+        boolean deltaApplicable = valueCount == 1
+                || (minDelta >= Integer.MIN_VALUE && maxDelta <= Integer.MAX_VALUE);
+        int deltaBitWidth = (valueCount == 1) ? 0 : bitsRequired(maxDelta - minDelta);
+        int checkpointCount = (valueCount + DELTA_CHECKPOINT_INTERVAL - 1) >>> DELTA_CHECKPOINT_SHIFT;
+        long deltaSize = deltaApplicable
+                ? 8L * packedWordCount(valueCount, deltaBitWidth) + 4L * checkpointCount
+                : Long.MAX_VALUE;
+
+        // Prefer frame-of-reference on ties, as it allows the cheapest random access
+        if (forSize <= rleSize && forSize <= deltaSize) {
+            long[] packedWords = new long[packedWordCount(valueCount, forBitWidth)];
+            for (int i = 0; i < valueCount; i++)
+                putBits(packedWords, i, forBitWidth, values[i] - min);
+
+            return new EncodedIntegerBatch(
+                    Encoding.FRAME_OF_REFERENCE, valueCount, (int) min, forBitWidth,
+                    packedWords, EMPTY_INT_ARRAY, EMPTY_INT_ARRAY, EMPTY_INT_ARRAY);
+
+        } else if (rleSize <= deltaSize) {
+            int[] runValues = new int[runCount];
+            int[] runEnds = new int[runCount];
+            int currentRun = 0;
+            runValues[0] = values[0];
+            for (int i = 1; i < valueCount; i++) {
+                if (values[i] != values[i - 1]) {
+                    runEnds[currentRun++] = i;
+                    runValues[currentRun] = values[i];
+                }
+            }
+            runEnds[currentRun] = valueCount;
+
+            return new EncodedIntegerBatch(
+                    Encoding.RUN_LENGTH, valueCount, 0, 0, new long[0], runValues, runEnds, EMPTY_INT_ARRAY);
+
+        } else {
+            long[] packedWords = new long[packedWordCount(valueCount, deltaBitWidth)];
+            int[] checkpoints = new int[checkpointCount];
+            checkpoints[0] = values[0];
+            for (int i = 1; i < valueCount; i++) {
+                putBits(packedWords, i, deltaBitWidth, ((long) values[i] - values[i - 1]) - minDelta);
+                if ((i & (DELTA_CHECKPOINT_INTERVAL - 1)) == 0)
+                    checkpoints[i >>> DELTA_CHECKPOINT_SHIFT] = values[i];
+            }
+
+            return new EncodedIntegerBatch(
+                    Encoding.DELTA, valueCount, (int) minDelta, deltaBitWidth,
+                    packedWords, EMPTY_INT_ARRAY, EMPTY_INT_ARRAY, checkpoints);
+        }
+    }
+
+    /**
+     * Method to obtain the encoding of the batch.
+     * @return The encoding of the batch.
+     */
+    public Encoding getEncoding() {
+        return this.encoding;
+    }
+
+    /**
+     * Method to obtain the number of values in the batch.
+     * @return The number of values in the batch.
+     */
+    public int getValueCount() {
+        return this.valueCount;
+    }
+
+    /**
+     * Method to obtain the number of bytes used by the encoded representation of the batch.
+     * @return The size of the encoded representation in bytes.
+     */
+    public long getEncodedSize() {
+        return 8L * this.packedWords.length
+                + 4L * (this.runValues.length + this.runEnds.length + this.checkpoints.length);
+    }
+
+    /**
+     * Method to obtain a single value of the batch.
+     * @param index The position of the value to obtain.
+     * @return The value at {@code index}.
+     */
+    public int get(int index) {
+        return switch (this.encoding) {
+            case FRAME_OF_REFERENCE -> this.base + (int) getBits(this.packedWords, index, this.bitWidth);
+            case RUN_LENGTH -> this.runValues[this.findRun(index)];
+            case DELTA -> this.deltaValueAt(index);
+        };
+    }
+
+    /* ---- Selection primitives ---- */
+
+    /**
+     * Method to select the records of a range of the batch whose value lies within given bounds.
+     * @param offset The position of the first record of the range.
+     * @param length The number of records in the range.
+     * @param lowerBound The (inclusive) lower bound that a value should satisfy.
+     * @param upperBound The (inclusive) upper bound that a value should satisfy.
+     * @param selectionVectorResult The selection vector to write the positions of the selected
+     *                              records to, relative to {@code offset}.
+     * @return The length of the resulting selection vector.
+     */
+    public int select(int offset, int length, int lowerBound, int upperBound, int[] selectionVectorResult) {
+        if (lowerBound > upperBound)
+            return 0;
+
+        int selectionCount = 0;
+        int end = offset + length;
+
+        switch (this.encoding) {
+            case FRAME_OF_REFERENCE -> {
+                // Translate the bounds into the packed domain, so that values need not be unpacked
+                long packedLowerBound = Math.max((long) lowerBound - this.base, 0L);
+                long packedUpperBound = Math.min((long) upperBound - this.base, maxPackedValue(this.bitWidth));
+                if (packedLowerBound > packedUpperBound)
+                    return 0;
+
+                if (packedLowerBound == 0 && packedUpperBound == maxPackedValue(this.bitWidth)) {
+                    for (int i = 0; i < length; i++)
+                        selectionVectorResult[i] = i;
+                    return length;
+                }
+
+                for (int i = offset; i < end; i++) {
+                    long packedValue = getBits(this.packedWords, i, this.bitWidth);
+                    if (packedValue >= packedLowerBound && packedValue <= packedUpperBound)
+                        selectionVectorResult[selectionCount++] = i - offset;
+                }
+            }
+
+            case RUN_LENGTH -> {
+                // Evaluate the predicate once per run and select the complete run if it matches
+                int position = offset;
+                for (int run = this.findRun(offset); position < end; run++) {
+                    int runEnd = Math.min(this.runEnds[run], end);
+                    int runValue = this.runValues[run];
+                    if (runValue >= lowerBound && runValue <= upperBound) {
+                        for (int i = position; i < runEnd; i++)
+                            selectionVectorResult[selectionCount++] = i - offset;
+                    }
+                    position = runEnd;
+                }
+            }
+
+            case DELTA -> {
+                int value = this.deltaValueAt(offset);
+                for (int i = offset; i < end; i++) {
+                    if (i != offset)
+                        value += this.base + (int) getBits(this.packedWords, i, this.bitWidth);
+                    if (value >= lowerBound && value <= upperBound)
+                        selectionVectorResult[selectionCount++] = i - offset;
+                }
+            }
+        }
+
+        return selectionCount;
+    }
+
+    /**
+     * Method to select the records of a range of the batch whose value lies within given bounds,
+     * out of the records that have already been selected by a selection vector.
+     * @param offset The position of the first record of the range.
+     * @param lowerBound The (inclusive) lower bound that a value should satisfy.
+     * @param upperBound The (inclusive) upper bound that a value should satisfy.
+     * @param selectionVectorResult The selection vector to write the positions of the selected
+     *                              records to, relative to {@code offset}.
+     * @param selectionVector The ascending positions of the records to consider, relative to {@code offset}.
+     * @param selectionVectorLength The length of {@code selectionVector}.
+     * @return The length of the resulting selection vector.
+     */
+    public int select(
+            int offset,
+            int lowerBound,
+            int upperBound,
+            int[] selectionVectorResult,
+            int[] selectionVector,
+            int selectionVectorLength
+    ) {
+        if (lowerBound > upperBound || selectionVectorLength == 0)
+            return 0;
+
+        int selectionCount = 0;
+
+        switch (this.encoding) {
+            case FRAME_OF_REFERENCE -> {
+                long packedLowerBound = Math.max((long) lowerBound - this.base, 0L);
+                long packedUpperBound = Math.min((long) upperBound - this.base, maxPackedValue(this.bitWidth));
+                if (packedLowerBound > packedUpperBound)
+                    return 0;
+
+                for (int i = 0; i < selectionVectorLength; i++) {
+                    int selectedRecord = selectionVector[i];
+                    long packedValue = getBits(this.packedWords, offset + selectedRecord, this.bitWidth);
+                    if (packedValue >= packedLowerBound && packedValue <= packedUpperBound)
+                        selectionVectorResult[selectionCount++] = selectedRecord;
+                }
+            }
+
+            case RUN_LENGTH -> {
+                int run = this.findRun(offset + selectionVector[0]);
+                for (int i = 0; i < selectionVectorLength; i++) {
+                    int selectedRecord = selectionVector[i];
+                    while (this.runEnds[run] <= offset + selectedRecord)
+                        run++;
+                    int runValue = this.runValues[run];
+                    if (runValue >= lowerBound && runValue <= upperBound)
+                        selectionVectorResult[selectionCount++] = selectedRecord;
+                }
+            }
+
+            case DELTA -> {
+                int position = offset + selectionVector[0];
+                int value = this.deltaValueAt(position);
+                for (int i = 0; i < selectionVectorLength; i++) {
+                    int selectedRecord = selectionVector[i];
+                    int target = offset + selectedRecord;
+                    if ((target >>> DELTA_CHECKPOINT_SHIFT) != (position >>> DELTA_CHECKPOINT_SHIFT)) {
+                        // Seek to the checkpoint of the target rather than accumulating all deltas up to it
+                        position = target & ~(DELTA_CHECKPOINT_INTERVAL - 1);
+                        value = this.checkpoints[target >>> DELTA_CHECKPOINT_SHIFT];
+                    }
+                    while (position < target)
+                        value += this.base + (int) getBits(this.packedWords, ++position, this.bitWidth);
+
+                    if (value >= lowerBound && value <= upperBound)
+                        selectionVectorResult[selectionCount++] = selectedRecord;
+                }
+            }
+        }
+
+        return selectionCount;
+    }
+
+    /* ---- Unpacking primitives ---- */
+
+    /**
+     * Method to unpack a range of the batch into the data buffer of a 32-bit fixed-width vector.
+     * @param offset The position of the first record of the range.
+     * @param length The number of records in the range.
+     * @param target The vector to unpack into, which should have a capacity of at least {@code length} values.
+     */
+    public void unpack(int offset, int length, BaseFixedWidthVector target) {
+        long targetAddress = target.getDataBufferAddress();
+        int end = offset + length;
+
+        switch (this.encoding) {
+            case FRAME_OF_REFERENCE -> {
+                for (int i = offset; i < end; i++)
+                    MemoryUtil.UNSAFE.putInt(
+                            targetAddress + ((long) (i - offset) << 2),
+                            this.base + (int) getBits(this.packedWords, i, this.bitWidth));
+            }
+
+            case RUN_LENGTH -> {
+                int position = offset;
+                for (int run = this.findRun(offset); position < end; run++) {
+                    int runEnd = Math.min(this.runEnds[run], end);
+                    int runValue = this.runValues[run];
+                    for (int i = position; i < runEnd; i++)
+                        MemoryUtil.UNSAFE.putInt(targetAddress + ((long) (i - offset) << 2), runValue);
+                    position = runEnd;
+                }
+            }
+
+            case DELTA -> {
+                int value = (length == 0) ? 0 : this.deltaValueAt(offset);
+                for (int i = offset; i < end; i++) {
+                    if (i != offset)
+                        value += this.base + (int) getBits(this.packedWords, i, this.bitWidth);
+                    MemoryUtil.UNSAFE.putInt(targetAddress + ((long) (i - offset) << 2), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to unpack only the selected records of a range of the batch into the data buffer of a
+     * 32-bit fixed-width vector. The values at the positions that are not selected are left as-is.
+     * @param offset The position of the first record of the range.
+     * @param selectionVector The ascending positions of the records to unpack, relative to {@code offset}.
+     * @param selectionVectorLength The length of {@code selectionVector}.
+     * @param target The vector to unpack into, at the positions indicated by {@code selectionVector}.
+     */
+    public void unpack(int offset, int[] selectionVector, int selectionVectorLength, BaseFixedWidthVector target) {
+        if (selectionVectorLength == 0)
+            return;
+
+        long targetAddress = target.getDataBufferAddress();
+
+        switch (this.encoding) {
+            case FRAME_OF_REFERENCE -> {
+                for (int i = 0; i < selectionVectorLength; i++) {
+                    int selectedRecord = selectionVector[i];
+                    MemoryUtil.UNSAFE.putInt(
+                            targetAddress + ((long) selectedRecord << 2),
+                            this.base + (int) getBits(this.packedWords, offset + selectedRecord, this.bitWidth));
+                }
+            }
+
+            case RUN_LENGTH -> {
+                int run = this.findRun(offset + selectionVector[0]);
+                for (int i = 0; i < selectionVectorLength; i++) {
+                    int selectedRecord = selectionVector[i];
+                    while (this.runEnds[run] <= offset + selectedRecord)
+                        run++;
+                    MemoryUtil.UNSAFE.putInt(targetAddress + ((long) selectedRecord << 2), this.runValues[run]);
+                }
+            }
+
+            case DELTA -> {
+                int position = offset + selectionVector[0];
+                int value = this.deltaValueAt(position);
+                for (int i = 0; i < selectionVectorLength; i++) {
+                    int selectedRecord = selectionVector[i];
+                    int targetPosition = offset + selectedRecord;
+                    if ((targetPosition >>> DELTA_CHECKPOINT_SHIFT) != (position >>> DELTA_CHECKPOINT_SHIFT)) {
+                        position = targetPosition & ~(DELTA_CHECKPOINT_INTERVAL - 1);
+                        value = this.checkpoints[targetPosition >>> DELTA_CHECKPOINT_SHIFT];
+                    }
+                    while (position < targetPosition)
+                        value += this.base + (int) getBits(this.packedWords, ++position, this.bitWidth);
+
+                    MemoryUtil.UNSAFE.putInt(targetAddress + ((long) selectedRecord << 2), value);
+                }
+            }
+        }
+    }
+
+    /* ---- Serialisation ---- */
+
+    /**
+     * Method to write the batch to an output.
+     * @param output The output to write the batch to.
+     * @throws IOException when an I/O issue occurs while writing.
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeByte(this.encoding.ordinal());
+        output.writeInt(this.valueCount);
+        output.writeInt(this.base);
+        output.writeByte(this.bitWidth);
+
+        output.writeInt(this.packedWords.length);
+        for (long packedWord : this.packedWords)
+            output.writeLong(packedWord);
+
+        writeIntArray(output, this.runValues);
+        writeIntArray(output, this.runEnds);
+        writeIntArray(output, this.checkpoints);
+    }
+
+    /**
+     * Method to read a batch that was written using {@code writeTo}.
+     * @param input The input to read the batch from.
+     * @return The batch that was read.
+     * @throws IOException when an I/O issue occurs while reading, or when the input is malformed.
+     */
+    public static EncodedIntegerBatch readFrom(DataInput input) throws IOException {
+        int encodingOrdinal = input.readUnsignedByte();
+        if (encodingOrdinal >= Encoding.values().length)
+            throw new IOException("EncodedIntegerBatch.readFrom encountered an unknown encoding: " + encodingOrdinal);
+
+        Encoding encoding = Encoding.values()[encodingOrdinal];
+        int valueCount = input.readInt();
+        int base = input.readInt();
+        int bitWidth = input.readUnsignedByte();
+
+        long[] packedWords = new long[input.readInt()];
+        for (int i = 0; i < packedWords.length; i++)
+            packedWords[i] = input.readLong();
+
+        int[] runValues = readIntArray(input);
+        int[] runEnds = readIntArray(input);
+        int[] checkpoints = readIntArray(input);
+
+        if (bitWidth > 32 || packedWords.length < packedWordCount(valueCount, bitWidth) || runValues.length != runEnds.length)
+            throw new IOException("EncodedIntegerBatch.readFrom encountered a malformed batch");
+
+        return new EncodedIntegerBatch(encoding, valueCount, base, bitWidth, packedWords, runValues, runEnds, checkpoints);
+    }
+
+    /**
+     * Method to write a length-prefixed int array to an output.
+     * @param output The output to write the array to.
+     * @param array The array to write.
+     * @throws IOException when an I/O issue occurs while writing.
+     */
+    private static void writeIntArray(DataOutput output, int[] array) throws IOException {
+        output.writeInt(array.length);
+        for (int element : array)
+            output.writeInt(element);
+    }
+
+    /**
+     * Method to read a length-prefixed int array from an input.
+     * @param input The input to read the array from.
+     * @return The array that was read.
+     * @throws IOException when an I/O issue occurs while reading.
+     */
+    private static int[] readIntArray(DataInput input) throws IOException {
+        int[] array = new int[input.readInt()];
+        for (int i = 0; i < array.length; i++)
+            array[i] = input.readInt();
+        return array;
+    }
+
+    /* ---- Helper methods ---- */
+
+    /**
+     * Method to find the run of a run-length encoded batch that contains a given position.
+     * @param position The position to find the run for.
+     * @return The index of the run containing {@code position}.
+     */
+    private int findRun(int position) {
+        int low = 0;
+        int high = this.runEnds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.runEnds[middle] <= position)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Method to compute the value at a given position of a delta-encoded batch, starting from the
+     * closest preceding checkpoint.
+     * @param position The position to compute the value for.
+     * @return The value at {@code position}.
+     */
+    private int deltaValueAt(int position) {
+        int checkpointPosition = position & ~(DELTA_CHECKPOINT_INTERVAL - 1);
+        int value = this.checkpoints[position >>> DELTA_CHECKPOINT_SHIFT];
+        for (int i = checkpointPosition + 1; i <= position; i++)
+            value += this.base + (int) getBits(this.packedWords, i, this.bitWidth);
+        return value;
+    }
+
+    /**
+     * Method to compute the number of bits required to represent a non-negative value.
+     * @param value The value to represent.
+     * @return The number of bits required to represent {@code value}.
+     */
+    private static int bitsRequired(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Method to compute the maximum value that can be packed in a given number of bits.
+     * @param bitWidth The number of bits per packed value.
+     * @return The maximum packed value.
+     */
+    private static long maxPackedValue(int bitWidth) {
+        return (1L << bitWidth) - 1;
+    }
+
+    /**
+     * Method to compute the number of words required to bit-pack a number of values.
+     * @param valueCount The number of values to pack.
+     * @param bitWidth The number of bits per packed value.
+     * @return The number of words required.
+     */
+    private static int packedWordCount(int valueCount, int bitWidth) {
+        return (int) (((long) valueCount * bitWidth + 63) >>> 6);
+    }
+
+    /**
+     * Method to store a packed value in an array of words.
+     * @param words The words to store the value in.
+     * @param index The position of the value.
+     * @param bitWidth The number of bits per packed value.
+     * @param value The value to store, which should fit in {@code bitWidth} bits.
+     */
+    private static void putBits(long[] words, int index, int bitWidth, long value) {
+        if (bitWidth == 0)
+            return;
+
+        long bitPosition = (long) index * bitWidth;
+        int wordIndex = (int) (bitPosition >>> 6);
+        int bitOffset = (int) (bitPosition & 63);
+        words[wordIndex] |= value << bitOffset;
+        if (bitOffset + bitWidth > 64)
+            words[wordIndex + 1] |= value >>> (64 - bitOffset);
+    }
+
+    /**
+     * Method to load a packed value from an array of words.
+     * @param words The words to load the value from.
+     * @param index The position of the value.
+     * @param bitWidth The number of bits per packed value.
+     * @return The packed value.
+     */
+    private static long getBits(long[] words, int index, int bitWidth) {
+        if (bitWidth == 0)
+            return 0L;
+
+        long bitPosition = (long) index * bitWidth;
+        int wordIndex = (int) (bitPosition >>> 6);
+        int bitOffset = (int) (bitPosition & 63);
+        long value = words[wordIndex] >>> bitOffset;
+        if (bitOffset + bitWidth > 64)
+            value |= words[wordIndex + 1] << (64 - bitOffset);
+        return value & maxPackedValue(bitWidth);
+    }
+
+}
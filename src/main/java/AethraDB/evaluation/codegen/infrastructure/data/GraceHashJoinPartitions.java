@@ -0,0 +1,353 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import AethraDB.evaluation.general_support.hashmaps.Int_Hash_Function;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * Class which iterates over the partition pairs of a Grace hash-join, given the build and probe
+ * sides of the join as {@link PartitionedSpillFile}s that were partitioned on their integer join key.
+ * Each partition pair is exposed as two {@link ArrowTableReader}s, so that the generated join code
+ * can build its hash-table over the build partition and probe it with the probe partition, one
+ * partition pair at a time. Build partitions whose estimated hash-table size exceeds the memory
+ * budget are recursively re-partitioned together with their probe partition, which resolves
+ * skewed partitions unless the skew is caused by a single key. Partition pairs of which either
+ * side is empty are skipped, as they cannot produce any join results.
+ */
+public class GraceHashJoinPartitions implements AutoCloseable {
+
+    /**
+     * The maximum partitioning level, beyond which partitions are no longer re-partitioned.
+     */
+    public static final int MAX_PARTITIONING_LEVEL = 4;
+
+    /**
+     * The estimated number of bytes of hash-table overhead per record of a build partition.
+     */
+    private static final long HASH_TABLE_BYTES_PER_RECORD = 32L;
+
+    /**
+     * The {@link BufferAllocator} used for reading the partition files.
+     */
+    private final BufferAllocator parentAllocator;
+
+    /**
+     * The index of the join key column in the build side records.
+     */
+    private final int buildKeyColumn;
+
+    /**
+     * The index of the join key column in the probe side records.
+     */
+    private final int probeKeyColumn;
+
+    /**
+     * The maximum estimated hash-table size of a build partition before it is re-partitioned.
+     */
+    private final long memoryBudget;
+
+    /**
+     * The partition pairs that still need to be processed.
+     */
+    private final ArrayDeque<PartitionPair> pendingPartitions;
+
+    /**
+     * The partition pair that is currently exposed.
+     */
+    private PartitionPair currentPartition;
+
+    /**
+     * The reader over the build side of {@code currentPartition}.
+     */
+    private ArrowTableReader buildReader;
+
+    /**
+     * The reader over the probe side of {@code currentPartition}.
+     */
+    private ArrowTableReader probeReader;
+
+    /**
+     * Create a new {@link GraceHashJoinPartitions} instance, which completes both sides of the
+     * join and takes ownership of their partition files.
+     * @param parentAllocator The {@link BufferAllocator} to use for reading the partition files.
+     * @param buildSide The partitioned build side of the join.
+     * @param probeSide The partitioned probe side of the join.
+     * @param buildKeyColumn The index of the join key column in the build side records.
+     * @param probeKeyColumn The index of the join key column in the probe side records.
+     * @param memoryBudget The maximum estimated hash-table size of a build partition in bytes.
+     * @throws IOException when the partition files could not be completed.
+     */
+    public GraceHashJoinPartitions(
+            BufferAllocator parentAllocator,
+            PartitionedSpillFile buildSide,
+            PartitionedSpillFile probeSide,
+            int buildKeyColumn,
+            int probeKeyColumn,
+            long memoryBudget
+    ) throws IOException {
+        this.parentAllocator = parentAllocator;
+        this.buildKeyColumn = buildKeyColumn;
+        this.probeKeyColumn = probeKeyColumn;
+        this.memoryBudget = memoryBudget;
+        this.pendingPartitions = new ArrayDeque<>();
+        this.enqueuePartitions(buildSide, probeSide, false);
+    }
+
+    /**
+     * Method to advance to the next partition pair that should be joined.
+     * @return Whether a next partition pair is available via {@code getBuildReader} and {@code getProbeReader}.
+     * @throws IOException when a partition could not be read or re-partitioned.
+     */
+    public boolean nextPartition() throws IOException {
+        this.releaseCurrentPartition();
+
+        while (!this.pendingPartitions.isEmpty()) {
+            PartitionPair partition = this.pendingPartitions.pollFirst();
+
+            if (partition.buildSide.getPartitionRecordCount(partition.partition) == 0
+                    || partition.probeSide.getPartitionRecordCount(partition.partition) == 0) {
+                partition.delete();
+                continue;
+            }
+
+            long estimatedBytes = partition.buildSide.getPartitionDataBytes(partition.partition)
+                    + partition.buildSide.getPartitionRecordCount(partition.partition) * HASH_TABLE_BYTES_PER_RECORD;
+            if (estimatedBytes > this.memoryBudget && partition.canRepartition) {
+                this.repartition(partition);
+                continue;
+            }
+
+            this.currentPartition = partition;
+            this.buildReader = this.openReader(partition.buildSide, partition.partition);
+            this.probeReader = this.openReader(partition.probeSide, partition.partition);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to obtain the reader over the build side of the current partition pair.
+     * @return The reader over the build side of the current partition pair.
+     */
+    public ArrowTableReader getBuildReader() {
+        return this.buildReader;
+    }
+
+    /**
+     * Method to obtain the reader over the probe side of the current partition pair.
+     * @return The reader over the probe side of the current partition pair.
+     */
+    public ArrowTableReader getProbeReader() {
+        return this.probeReader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.releaseCurrentPartition();
+        while (!this.pendingPartitions.isEmpty())
+            this.pendingPartitions.pollFirst().delete();
+    }
+
+    /**
+     * Method to complete both sides of a partitioned relation and enqueue its partition pairs.
+     * @param buildSide The partitioned build side.
+     * @param probeSide The partitioned probe side.
+     * @param isFinalLevel Whether the partition pairs may no longer be re-partitioned.
+     * @throws IOException when the partition files could not be completed.
+     */
+    private void enqueuePartitions(
+            PartitionedSpillFile buildSide,
+            PartitionedSpillFile probeSide,
+            boolean isFinalLevel
+    ) throws IOException {
+        buildSide.finish();
+        probeSide.finish();
+        buildSide.close();
+        probeSide.close();
+
+        boolean canRepartition = !isFinalLevel
+                && buildSide.getPartitioningLevel() < MAX_PARTITIONING_LEVEL;
+
+        for (int i = 0; i < PartitionedSpillFile.PARTITION_COUNT; i++) {
+            this.pendingPartitions.addLast(new PartitionPair(
+                    buildSide,
+                    probeSide,
+                    i,
+                    canRepartition
+            ));
+        }
+    }
+
+    /**
+     * Method to split a partition pair into the partition pairs of the next partitioning level.
+     * @param partition The partition pair to split.
+     * @throws IOException when the partition could not be read or written.
+     */
+    private void repartition(PartitionPair partition) throws IOException {
+        PartitionedSpillFile buildSide = this.copyPartition(partition.buildSide, partition.partition, this.buildKeyColumn);
+        PartitionedSpillFile probeSide = this.copyPartition(partition.probeSide, partition.partition, this.probeKeyColumn);
+        partition.delete();
+
+        // When all records ended up in the same partition, they all share the same key so further
+        // re-partitioning is pointless
+        long buildRecordCount = partition.buildSide.getPartitionRecordCount(partition.partition);
+        boolean isFinalLevel = false;
+        for (int i = 0; i < PartitionedSpillFile.PARTITION_COUNT; i++)
+            isFinalLevel |= buildSide.getPartitionRecordCount(i) == buildRecordCount;
+
+        this.enqueuePartitions(buildSide, probeSide, isFinalLevel);
+    }
+
+    /**
+     * Method to copy all records of a partition into a {@link PartitionedSpillFile} at the next
+     * partitioning level.
+     * @param source The partitioned relation containing the partition to copy.
+     * @param partition The index of the partition to copy.
+     * @param keyColumn The index of the join key column.
+     * @return The {@link PartitionedSpillFile} containing the copied records.
+     * @throws IOException when the partition could not be read or written.
+     */
+    private PartitionedSpillFile copyPartition(
+            PartitionedSpillFile source,
+            int partition,
+            int keyColumn
+    ) throws IOException {
+        PartitionedSpillFile target = new PartitionedSpillFile(
+                this.parentAllocator,
+                source.getName(),
+                source.getColumnTypes(),
+                source.getColumnByteWidths(),
+                source.getPartitioningLevel() + 1
+        );
+
+        ArrowTableReader reader = this.openReader(source, partition);
+        FieldVector[] vectors = new FieldVector[source.getColumnTypes().length];
+        while (reader.loadNextBatch()) {
+            for (int i = 0; i < vectors.length; i++)
+                vectors[i] = reader.getVector(i);
+            IntVector keyVector = (IntVector) vectors[keyColumn];
+
+            int recordCount = keyVector.getValueCount();
+            for (int i = 0; i < recordCount; i++)
+                target.copyRecord(Int_Hash_Function.preHash(keyVector.get(i)), vectors, i);
+        }
+        this.closeReader(reader);
+
+        return target;
+    }
+
+    /**
+     * Method to open a reader over a partition file.
+     * @param source The partitioned relation containing the partition to read.
+     * @param partition The index of the partition to read.
+     * @return An {@link ArrowTableReader} over the file of the partition.
+     * @throws IOException when the partition file could not be opened.
+     */
+    private ArrowTableReader openReader(PartitionedSpillFile source, int partition) throws IOException {
+        File partitionFile = source.getPartitionFile(partition);
+        int[] allColumns = new int[source.getColumnTypes().length];
+        for (int i = 0; i < allColumns.length; i++)
+            allColumns[i] = i;
+
+        try {
+            return new DirectArrowTableReader(partitionFile, this.parentAllocator, false, allColumns);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("GraceHashJoinPartitions.openReader could not open " + partitionFile, e);
+        }
+    }
+
+    /**
+     * Method to close a reader over a partition file.
+     * @param reader The reader to close.
+     * @throws IOException when the reader could not be closed.
+     */
+    private void closeReader(ArrowTableReader reader) throws IOException {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("GraceHashJoinPartitions.closeReader could not close " + reader.getArrowFile(), e);
+        }
+    }
+
+    /**
+     * Method to close the readers of the current partition pair and delete its files.
+     * @throws IOException when a reader could not be closed.
+     */
+    private void releaseCurrentPartition() throws IOException {
+        if (this.currentPartition == null)
+            return;
+
+        this.closeReader(this.buildReader);
+        this.closeReader(this.probeReader);
+        this.buildReader = null;
+        this.probeReader = null;
+
+        this.currentPartition.delete();
+        this.currentPartition = null;
+    }
+
+    /**
+     * Class describing a single partition pair of the join.
+     */
+    private static final class PartitionPair {
+
+        /**
+         * The partitioned build side that the partition pair belongs to.
+         */
+        private final PartitionedSpillFile buildSide;
+
+        /**
+         * The partitioned probe side that the partition pair belongs to.
+         */
+        private final PartitionedSpillFile probeSide;
+
+        /**
+         * The index of the partition pair in {@code buildSide} and {@code probeSide}.
+         */
+        private final int partition;
+
+        /**
+         * Whether the partition pair may still be re-partitioned.
+         */
+        private final boolean canRepartition;
+
+        /**
+         * Create a new {@link PartitionPair} instance for a partition of two completed {@link PartitionedSpillFile}s.
+         * @param buildSide The partitioned build side.
+         * @param probeSide The partitioned probe side.
+         * @param partition The index of the partition.
+         * @param canRepartition Whether the partition pair may still be re-partitioned.
+         */
+        private PartitionPair(
+                PartitionedSpillFile buildSide,
+                PartitionedSpillFile probeSide,
+                int partition,
+                boolean canRepartition
+        ) {
+            this.buildSide = buildSide;
+            this.probeSide = probeSide;
+            this.partition = partition;
+            this.canRepartition = canRepartition;
+        }
+
+        /**
+         * Method to delete the files of this partition pair.
+         */
+        private void delete() {
+            this.buildSide.deletePartition(this.partition);
+            this.probeSide.deletePartition(this.partition);
+        }
+
+    }
+
+}
@@ -0,0 +1,327 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import AethraDB.evaluation.general_support.hashmaps.Char_Arr_Hash_Function;
+import AethraDB.evaluation.general_support.hashmaps.Double_Hash_Function;
+import AethraDB.evaluation.general_support.hashmaps.HashFunctionFamily;
+import AethraDB.evaluation.general_support.hashmaps.Int_Hash_Function;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+/**
+ * Class which iterates over the partitions of a grouped aggregation input that was spilled to a
+ * {@link PartitionedSpillFile}, partitioned on the pre-hash value of its group-by key. As all records
+ * of a group end up in the same partition, the generated aggregation code can aggregate one partition
+ * at a time into its (reset) aggregation map and output the groups of that partition, without ever
+ * merging partial aggregation states across partitions. Partitions whose estimated aggregation map
+ * size exceeds the memory budget are recursively re-partitioned, which resolves skewed partitions
+ * unless the skew is caused by a single group. Empty partitions are skipped.
+ * When no records were spilled at all, a single partition without a reader is exposed, so that
+ * the generated code can output the groups which it aggregated in memory via the same code path.
+ */
+public class GroupedAggregationPartitions implements AutoCloseable {
+
+    /**
+     * The estimated number of bytes of aggregation map overhead per record of a partition.
+     */
+    private static final long HASH_TABLE_BYTES_PER_RECORD = 32L;
+
+    /**
+     * The {@link BufferAllocator} used for reading the partition files.
+     */
+    private final BufferAllocator parentAllocator;
+
+    /**
+     * The number of group-by key columns, which are the first columns of the spilled records.
+     */
+    private final int keyColumnCount;
+
+    /**
+     * The maximum estimated aggregation map size of a partition before it is re-partitioned.
+     */
+    private final long memoryBudget;
+
+    /**
+     * The partitions that still need to be processed.
+     */
+    private final ArrayDeque<PendingPartition> pendingPartitions;
+
+    /**
+     * Whether the single partition without a reader should still be exposed, as no records were spilled.
+     */
+    private boolean exposeInMemoryPartition;
+
+    /**
+     * The partition that is currently exposed, or {@code null} if there is none.
+     */
+    private PendingPartition currentPartition;
+
+    /**
+     * The reader over {@code currentPartition}.
+     */
+    private ArrowTableReader reader;
+
+    /**
+     * Create a new {@link GroupedAggregationPartitions} instance, which completes the aggregation
+     * input and takes ownership of its partition files.
+     * @param parentAllocator The {@link BufferAllocator} to use for reading the partition files.
+     * @param input The partitioned aggregation input.
+     * @param keyColumnCount The number of group-by key columns at the start of each spilled record.
+     * @param memoryBudget The maximum estimated aggregation map size of a partition in bytes.
+     * @throws IOException when the partition files could not be completed.
+     */
+    public GroupedAggregationPartitions(
+            BufferAllocator parentAllocator,
+            PartitionedSpillFile input,
+            int keyColumnCount,
+            long memoryBudget
+    ) throws IOException {
+        this.parentAllocator = parentAllocator;
+        this.keyColumnCount = keyColumnCount;
+        this.memoryBudget = memoryBudget;
+        this.pendingPartitions = new ArrayDeque<>();
+        this.currentPartition = null;
+
+        this.exposeInMemoryPartition = input.getRecordCount() == 0;
+        this.enqueuePartitions(input, false);
+    }
+
+    /**
+     * Method to advance to the next partition that should be aggregated.
+     * @return Whether a next partition is available via {@code getReader}.
+     * @throws IOException when a partition could not be read or re-partitioned.
+     */
+    public boolean nextPartition() throws IOException {
+        this.releaseCurrentPartition();
+
+        if (this.exposeInMemoryPartition) {
+            this.exposeInMemoryPartition = false;
+            return true;
+        }
+
+        while (!this.pendingPartitions.isEmpty()) {
+            PendingPartition partition = this.pendingPartitions.pollFirst();
+
+            long recordCount = partition.input.getPartitionRecordCount(partition.partition);
+            if (recordCount == 0) {
+                partition.delete();
+                continue;
+            }
+
+            long estimatedBytes = partition.input.getPartitionDataBytes(partition.partition)
+                    + recordCount * HASH_TABLE_BYTES_PER_RECORD;
+            if (estimatedBytes > this.memoryBudget && partition.canRepartition) {
+                this.repartition(partition);
+                continue;
+            }
+
+            this.currentPartition = partition;
+            this.reader = this.openReader(partition.input, partition.partition);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to obtain the reader over the current partition.
+     * @return The reader over the current partition, or {@code null} if no records were spilled
+     *         and the groups aggregated in memory should be output as they are.
+     */
+    public ArrowTableReader getReader() {
+        return this.reader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.releaseCurrentPartition();
+        while (!this.pendingPartitions.isEmpty())
+            this.pendingPartitions.pollFirst().delete();
+    }
+
+    /**
+     * Method to complete a partitioned aggregation input and enqueue its partitions.
+     * @param input The partitioned aggregation input.
+     * @param isFinalLevel Whether the partitions may no longer be re-partitioned.
+     * @throws IOException when the partition files could not be completed.
+     */
+    private void enqueuePartitions(PartitionedSpillFile input, boolean isFinalLevel) throws IOException {
+        input.finish();
+        input.close();
+
+        boolean canRepartition = !isFinalLevel
+                && input.getPartitioningLevel() < GraceHashJoinPartitions.MAX_PARTITIONING_LEVEL;
+
+        for (int i = 0; i < PartitionedSpillFile.PARTITION_COUNT; i++)
+            this.pendingPartitions.addLast(new PendingPartition(input, i, canRepartition));
+    }
+
+    /**
+     * Method to split a partition into the partitions of the next partitioning level.
+     * @param partition The partition to split.
+     * @throws IOException when the partition could not be read or written.
+     */
+    private void repartition(PendingPartition partition) throws IOException {
+        PartitionedSpillFile source = partition.input;
+        PartitionedSpillFile target = new PartitionedSpillFile(
+                this.parentAllocator,
+                source.getName(),
+                source.getColumnTypes(),
+                source.getColumnByteWidths(),
+                source.getPartitioningLevel() + 1
+        );
+
+        ArrowTableReader partitionReader = this.openReader(source, partition.partition);
+        FieldVector[] vectors = new FieldVector[source.getColumnTypes().length];
+        while (partitionReader.loadNextBatch()) {
+            for (int i = 0; i < vectors.length; i++)
+                vectors[i] = partitionReader.getVector(i);
+
+            int recordCount = vectors[0].getValueCount();
+            for (int i = 0; i < recordCount; i++)
+                target.copyRecord(this.keyPreHash(vectors, i), vectors, i);
+        }
+        this.closeReader(partitionReader);
+        partition.delete();
+
+        // When all records ended up in the same partition, they all belong to the same group so
+        // further re-partitioning is pointless
+        long recordCount = source.getPartitionRecordCount(partition.partition);
+        boolean isFinalLevel = false;
+        for (int i = 0; i < PartitionedSpillFile.PARTITION_COUNT; i++)
+            isFinalLevel |= target.getPartitionRecordCount(i) == recordCount;
+
+        this.enqueuePartitions(target, isFinalLevel);
+    }
+
+    /**
+     * Method to compute the pre-hash value of the group-by key of a spilled record.
+     * @param vectors The vectors of the batch containing the record.
+     * @param index The index of the record in {@code vectors}.
+     * @return The pre-hash value of the group-by key of the record.
+     */
+    private long keyPreHash(FieldVector[] vectors, int index) {
+        long preHash = 0;
+        for (int i = 0; i < this.keyColumnCount; i++) {
+            long columnPreHash;
+            if (vectors[i] instanceof IntVector intVector)
+                columnPreHash = Int_Hash_Function.preHash(intVector.get(index));
+            else if (vectors[i] instanceof DateDayVector dateVector)
+                columnPreHash = Int_Hash_Function.preHash(dateVector.get(index));
+            else if (vectors[i] instanceof Float8Vector doubleVector)
+                columnPreHash = Double_Hash_Function.preHash(doubleVector.get(index));
+            else if (vectors[i] instanceof FixedSizeBinaryVector binaryVector)
+                columnPreHash = Char_Arr_Hash_Function.preHash(binaryVector.get(index));
+            else if (vectors[i] instanceof VarCharVector varCharVector)
+                columnPreHash = Char_Arr_Hash_Function.preHash(varCharVector.get(index));
+            else
+                throw new UnsupportedOperationException(
+                        "GroupedAggregationPartitions.keyPreHash does not support key vector " + vectors[i].getClass().getSimpleName());
+
+            preHash = (i == 0) ? columnPreHash : HashFunctionFamily.combine(preHash, columnPreHash);
+        }
+        return preHash;
+    }
+
+    /**
+     * Method to open a reader over a partition file.
+     * @param source The partitioned aggregation input containing the partition to read.
+     * @param partition The index of the partition to read.
+     * @return An {@link ArrowTableReader} over the file of the partition.
+     * @throws IOException when the partition file could not be opened.
+     */
+    private ArrowTableReader openReader(PartitionedSpillFile source, int partition) throws IOException {
+        File partitionFile = source.getPartitionFile(partition);
+        int[] allColumns = new int[source.getColumnTypes().length];
+        for (int i = 0; i < allColumns.length; i++)
+            allColumns[i] = i;
+
+        try {
+            return new DirectArrowTableReader(partitionFile, this.parentAllocator, false, allColumns);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("GroupedAggregationPartitions.openReader could not open " + partitionFile, e);
+        }
+    }
+
+    /**
+     * Method to close a reader over a partition file.
+     * @param partitionReader The reader to close.
+     * @throws IOException when the reader could not be closed.
+     */
+    private void closeReader(ArrowTableReader partitionReader) throws IOException {
+        try {
+            partitionReader.close();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("GroupedAggregationPartitions.closeReader could not close " + partitionReader.getArrowFile(), e);
+        }
+    }
+
+    /**
+     * Method to close the reader of the current partition and delete its file.
+     * @throws IOException when the reader could not be closed.
+     */
+    private void releaseCurrentPartition() throws IOException {
+        if (this.currentPartition == null)
+            return;
+
+        this.closeReader(this.reader);
+        this.reader = null;
+
+        this.currentPartition.delete();
+        this.currentPartition = null;
+    }
+
+    /**
+     * Class describing a single partition of the aggregation input.
+     */
+    private static final class PendingPartition {
+
+        /**
+         * The partitioned aggregation input that the partition belongs to.
+         */
+        private final PartitionedSpillFile input;
+
+        /**
+         * The index of the partition in {@code input}.
+         */
+        private final int partition;
+
+        /**
+         * Whether the partition may still be re-partitioned.
+         */
+        private final boolean canRepartition;
+
+        /**
+         * Create a new {@link PendingPartition} instance for a partition of a completed {@link PartitionedSpillFile}.
+         * @param input The partitioned aggregation input.
+         * @param partition The index of the partition.
+         * @param canRepartition Whether the partition may still be re-partitioned.
+         */
+        private PendingPartition(PartitionedSpillFile input, int partition, boolean canRepartition) {
+            this.input = input;
+            this.partition = partition;
+            this.canRepartition = canRepartition;
+        }
+
+        /**
+         * Method to delete the file of this partition.
+         */
+        private void delete() {
+            this.input.deletePartition(this.partition);
+        }
+
+    }
+
+}
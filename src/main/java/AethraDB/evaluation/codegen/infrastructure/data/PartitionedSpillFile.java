@@ -0,0 +1,520 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class which hash-partitions the records of a relation over a fixed number of temporary Arrow IPC
+ * files, so that a blocking operator can process a relation that does not fit its memory budget
+ * one partition at a time. Records are written column-by-column by generated code: a record is
+ * started via {@code startRecord} with the pre-hash value of its key, after which each column value
+ * is written via the appropriate {@code write*} method and the record is completed via {@code endRecord}.
+ * Each partition buffers records in a {@link VectorSchemaRoot} which is flushed as a single batch
+ * once it contains {@code SPILL_BATCH_SIZE} records. The consumer of a partition deletes its file
+ * via {@code deletePartition} once it is done with it, while closing an unfinished
+ * {@link PartitionedSpillFile} deletes all of its files.
+ */
+public class PartitionedSpillFile implements AutoCloseable {
+
+    /**
+     * Column type indicating an int column.
+     */
+    public static final int INT_COLUMN = 0;
+
+    /**
+     * Column type indicating a long column.
+     */
+    public static final int LONG_COLUMN = 1;
+
+    /**
+     * Column type indicating a double column.
+     */
+    public static final int DOUBLE_COLUMN = 2;
+
+    /**
+     * Column type indicating a date column, which is represented by its unix day as an int.
+     */
+    public static final int DATE_COLUMN = 3;
+
+    /**
+     * Column type indicating a fixed length binary column.
+     */
+    public static final int FIXED_LENGTH_BINARY_COLUMN = 4;
+
+    /**
+     * Column type indicating a varchar column.
+     */
+    public static final int VARCHAR_COLUMN = 5;
+
+    /**
+     * The number of bits of the partition index, which determines the number of partitions.
+     */
+    public static final int PARTITION_BITS = 5;
+
+    /**
+     * The number of partitions that a relation is split into per partitioning level.
+     */
+    public static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+
+    /**
+     * The number of records that a partition buffers before it writes them to disk as a batch.
+     */
+    public static final int SPILL_BATCH_SIZE = 4096;
+
+    /**
+     * The allocator used for the buffers of all partitions.
+     */
+    private final BufferAllocator spillAllocator;
+
+    /**
+     * The name used as the prefix of the temporary partition files.
+     */
+    private final String name;
+
+    /**
+     * The type of each column in the relation.
+     */
+    private final int[] columnTypes;
+
+    /**
+     * The byte width of each column in the relation, which is only relevant for fixed length binary columns.
+     */
+    private final int[] columnByteWidths;
+
+    /**
+     * The Arrow schema of the partition files.
+     */
+    private final Schema spillSchema;
+
+    /**
+     * The partitioning level, which is used to salt the partition function so that a partition
+     * can be split further by re-partitioning it at the next level.
+     */
+    private final int partitioningLevel;
+
+    /**
+     * The state of each partition.
+     */
+    private final Partition[] partitions;
+
+    /**
+     * The partition to which the record that is currently being written belongs.
+     */
+    private Partition currentPartition;
+
+    /**
+     * The vectors of {@code currentPartition} for direct access by the {@code write*} methods.
+     */
+    private FieldVector[] currentVectors;
+
+    /**
+     * The index of the record that is currently being written in the vectors of {@code currentPartition}.
+     */
+    private int currentRecordIndex;
+
+    /**
+     * Whether {@code finish} has been invoked on this {@link PartitionedSpillFile}.
+     */
+    private boolean finished;
+
+    /**
+     * Create a new {@link PartitionedSpillFile} instance.
+     * @param parentAllocator The {@link BufferAllocator} from which the partition buffers are allocated.
+     * @param name The name to use as the prefix of the temporary partition files.
+     * @param columnTypes The type of each column in the relation to spill.
+     * @param columnByteWidths The byte width of each column, which is only used for fixed length binary columns.
+     * @param partitioningLevel The level at which this {@link PartitionedSpillFile} partitions records.
+     */
+    public PartitionedSpillFile(
+            BufferAllocator parentAllocator,
+            String name,
+            int[] columnTypes,
+            int[] columnByteWidths,
+            int partitioningLevel
+    ) {
+        if (columnTypes.length != columnByteWidths.length)
+            throw new IllegalArgumentException("PartitionedSpillFile requires a byte width for each column type");
+
+        this.spillAllocator = parentAllocator.newChildAllocator(name + "_spill_" + partitioningLevel, 0L, Long.MAX_VALUE);
+        this.name = name;
+        this.columnTypes = columnTypes;
+        this.columnByteWidths = columnByteWidths;
+        this.partitioningLevel = partitioningLevel;
+
+        List<Field> spillFields = new ArrayList<>(columnTypes.length);
+        for (int i = 0; i < columnTypes.length; i++)
+            spillFields.add(Field.nullable("c" + i, arrowTypeForColumn(columnTypes[i], columnByteWidths[i])));
+        this.spillSchema = new Schema(spillFields);
+
+        this.partitions = new Partition[PARTITION_COUNT];
+        for (int i = 0; i < PARTITION_COUNT; i++)
+            this.partitions[i] = new Partition();
+
+        this.finished = false;
+    }
+
+    /**
+     * Method to compute the partition that a record belongs to. The pre-hash value is salted with
+     * the partitioning level and mixed, so that the partition index is independent of the bits
+     * which the hash-tables use for selecting a bucket, as well as of the partition index at
+     * lower partitioning levels.
+     * @param preHash The pre-hash value of the key of the record.
+     * @param partitioningLevel The level at which the record is partitioned.
+     * @return The index of the partition that the record belongs to.
+     */
+    public static int partitionOf(long preHash, int partitioningLevel) {
+        long mixed = (preHash ^ (partitioningLevel * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        return (int) (mixed >>> (Long.SIZE - PARTITION_BITS));
+    }
+
+    /**
+     * Method to start writing a new record to the partition corresponding to its key.
+     * @param preHash The pre-hash value of the key of the record.
+     * @throws IOException when the partition could not be opened.
+     */
+    public void startRecord(long preHash) throws IOException {
+        if (this.finished)
+            throw new IllegalStateException("PartitionedSpillFile.startRecord cannot be invoked after finish");
+
+        this.currentPartition = this.partitions[partitionOf(preHash, this.partitioningLevel)];
+        if (this.currentPartition.root == null)
+            this.currentPartition.open();
+        this.currentVectors = this.currentPartition.vectors;
+        this.currentRecordIndex = this.currentPartition.bufferedRecords;
+    }
+
+    /**
+     * Method to write an int value to a column of the current record.
+     * @param column The column to write to.
+     * @param value The value to write.
+     */
+    public void writeInt(int column, int value) {
+        if (this.columnTypes[column] == DATE_COLUMN)
+            ((DateDayVector) this.currentVectors[column]).setSafe(this.currentRecordIndex, value);
+        else
+            ((IntVector) this.currentVectors[column]).setSafe(this.currentRecordIndex, value);
+        this.currentPartition.dataBytes += Integer.BYTES;
+    }
+
+    /**
+     * Method to write a long value to a column of the current record.
+     * @param column The column to write to.
+     * @param value The value to write.
+     */
+    public void writeLong(int column, long value) {
+        ((BigIntVector) this.currentVectors[column]).setSafe(this.currentRecordIndex, value);
+        this.currentPartition.dataBytes += Long.BYTES;
+    }
+
+    /**
+     * Method to write a double value to a column of the current record.
+     * @param column The column to write to.
+     * @param value The value to write.
+     */
+    public void writeDouble(int column, double value) {
+        ((Float8Vector) this.currentVectors[column]).setSafe(this.currentRecordIndex, value);
+        this.currentPartition.dataBytes += Double.BYTES;
+    }
+
+    /**
+     * Method to write a binary value to a fixed length binary or varchar column of the current record.
+     * @param column The column to write to.
+     * @param value The value to write.
+     */
+    public void writeBytes(int column, byte[] value) {
+        if (this.columnTypes[column] == FIXED_LENGTH_BINARY_COLUMN)
+            ((FixedSizeBinaryVector) this.currentVectors[column]).setSafe(this.currentRecordIndex, value);
+        else
+            ((VarCharVector) this.currentVectors[column]).setSafe(this.currentRecordIndex, value);
+        this.currentPartition.dataBytes += value.length;
+    }
+
+    /**
+     * Method to complete the current record, which flushes its partition to disk when the
+     * partition has buffered {@code SPILL_BATCH_SIZE} records.
+     * @throws IOException when the partition could not be written to disk.
+     */
+    public void endRecord() throws IOException {
+        this.currentPartition.recordCount++;
+        if (++this.currentPartition.bufferedRecords == SPILL_BATCH_SIZE)
+            this.currentPartition.flush();
+    }
+
+    /**
+     * Method to copy a record from a batch of another {@link PartitionedSpillFile} with the same
+     * column types into this {@link PartitionedSpillFile}, which is used for re-partitioning.
+     * @param preHash The pre-hash value of the key of the record.
+     * @param sourceVectors The vectors of the batch containing the record.
+     * @param sourceIndex The index of the record in {@code sourceVectors}.
+     * @throws IOException when the partition could not be written to disk.
+     */
+    public void copyRecord(long preHash, FieldVector[] sourceVectors, int sourceIndex) throws IOException {
+        this.startRecord(preHash);
+        for (int i = 0; i < this.currentVectors.length; i++) {
+            this.currentVectors[i].copyFromSafe(sourceIndex, this.currentRecordIndex, sourceVectors[i]);
+            this.currentPartition.dataBytes += switch (this.columnTypes[i]) {
+                case INT_COLUMN, DATE_COLUMN -> Integer.BYTES;
+                case LONG_COLUMN, DOUBLE_COLUMN -> Long.BYTES;
+                case FIXED_LENGTH_BINARY_COLUMN -> this.columnByteWidths[i];
+                default -> ((VarCharVector) sourceVectors[i]).getValueLength(sourceIndex);
+            };
+        }
+        this.endRecord();
+    }
+
+    /**
+     * Method to flush all partitions to disk and close their files, after which the partitions can be read.
+     * @throws IOException when a partition could not be written to disk.
+     */
+    public void finish() throws IOException {
+        if (this.finished)
+            return;
+
+        for (Partition partition : this.partitions) {
+            if (partition.root == null)
+                continue;
+
+            if (partition.bufferedRecords > 0)
+                partition.flush();
+            partition.close();
+        }
+
+        this.finished = true;
+    }
+
+    /**
+     * Method to obtain the file of a partition.
+     * @param partition The index of the partition.
+     * @return The file containing the records of the partition, or {@code null} if it is empty.
+     */
+    public File getPartitionFile(int partition) {
+        return this.partitions[partition].file;
+    }
+
+    /**
+     * Method to obtain the number of records in a partition.
+     * @param partition The index of the partition.
+     * @return The number of records in the partition.
+     */
+    public long getPartitionRecordCount(int partition) {
+        return this.partitions[partition].recordCount;
+    }
+
+    /**
+     * Method to obtain the total number of records over all partitions.
+     * @return The number of records that were written to this {@link PartitionedSpillFile}.
+     */
+    public long getRecordCount() {
+        long recordCount = 0;
+        for (Partition partition : this.partitions)
+            recordCount += partition.recordCount;
+        return recordCount;
+    }
+
+    /**
+     * Method to obtain the number of column value bytes written to a partition.
+     * @param partition The index of the partition.
+     * @return The number of column value bytes written to the partition.
+     */
+    public long getPartitionDataBytes(int partition) {
+        return this.partitions[partition].dataBytes;
+    }
+
+    /**
+     * Method to delete the file of a partition, which should be invoked by the consumer of the
+     * partition once it no longer needs to read it.
+     * @param partition The index of the partition to delete.
+     */
+    public void deletePartition(int partition) {
+        this.partitions[partition].delete();
+    }
+
+    /**
+     * Method to obtain the type of each column in the relation.
+     * @return The type of each column in the relation.
+     */
+    public int[] getColumnTypes() {
+        return this.columnTypes;
+    }
+
+    /**
+     * Method to obtain the byte width of each column in the relation.
+     * @return The byte width of each column in the relation.
+     */
+    public int[] getColumnByteWidths() {
+        return this.columnByteWidths;
+    }
+
+    /**
+     * Method to obtain the partitioning level of this {@link PartitionedSpillFile}.
+     * @return The level at which this {@link PartitionedSpillFile} partitions records.
+     */
+    public int getPartitioningLevel() {
+        return this.partitioningLevel;
+    }
+
+    /**
+     * Method to obtain the name of this {@link PartitionedSpillFile}.
+     * @return The name used as the prefix of the temporary partition files.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Closes the {@link PartitionedSpillFile}, releasing all buffers. The partition files are only
+     * deleted if {@code finish} was not invoked, as they are owned by the consumer of the partitions
+     * afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Partition partition : this.partitions) {
+            if (partition.root != null)
+                partition.close();
+            if (!this.finished)
+                partition.delete();
+        }
+        this.spillAllocator.close();
+    }
+
+    /**
+     * Method to obtain the Arrow type corresponding to a column type.
+     * @param columnType The column type to convert.
+     * @param byteWidth The byte width of the column.
+     * @return The Arrow type corresponding to {@code columnType}.
+     */
+    private static ArrowType arrowTypeForColumn(int columnType, int byteWidth) {
+        return switch (columnType) {
+            case INT_COLUMN -> new ArrowType.Int(32, true);
+            case LONG_COLUMN -> new ArrowType.Int(64, true);
+            case DOUBLE_COLUMN -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case DATE_COLUMN -> new ArrowType.Date(DateUnit.DAY);
+            case FIXED_LENGTH_BINARY_COLUMN -> new ArrowType.FixedSizeBinary(byteWidth);
+            case VARCHAR_COLUMN -> ArrowType.Utf8.INSTANCE;
+            default -> throw new IllegalArgumentException(
+                    "PartitionedSpillFile.arrowTypeForColumn does not support column type " + columnType);
+        };
+    }
+
+    /**
+     * Class containing the state of a single partition.
+     */
+    private final class Partition {
+
+        /**
+         * The file that the partition is written to.
+         */
+        private File file;
+
+        /**
+         * The stream used for writing {@code file}.
+         */
+        private FileOutputStream fileStream;
+
+        /**
+         * The batch that buffers the records of the partition before they are written.
+         */
+        private VectorSchemaRoot root;
+
+        /**
+         * The vectors of {@code root}.
+         */
+        private FieldVector[] vectors;
+
+        /**
+         * The writer used for writing {@code root} to {@code file}.
+         */
+        private ArrowFileWriter writer;
+
+        /**
+         * The number of records currently buffered in {@code root}.
+         */
+        private int bufferedRecords;
+
+        /**
+         * The total number of records in the partition.
+         */
+        private long recordCount;
+
+        /**
+         * The total number of column value bytes written to the partition.
+         */
+        private long dataBytes;
+
+        /**
+         * Method to create the file of the partition and allocate its buffers.
+         * @throws IOException when the file could not be created.
+         */
+        private void open() throws IOException {
+            this.file = File.createTempFile("aethradb_" + name + "_l" + partitioningLevel + "_", ".arrow");
+            this.fileStream = new FileOutputStream(this.file);
+
+            this.root = VectorSchemaRoot.create(spillSchema, spillAllocator);
+            this.vectors = this.root.getFieldVectors().toArray(new FieldVector[0]);
+            for (FieldVector vector : this.vectors) {
+                vector.setInitialCapacity(SPILL_BATCH_SIZE);
+                vector.allocateNew();
+            }
+
+            this.writer = new ArrowFileWriter(this.root, null, this.fileStream.getChannel());
+            this.writer.start();
+        }
+
+        /**
+         * Method to write the buffered records to disk as a single batch.
+         * @throws IOException when the batch could not be written.
+         */
+        private void flush() throws IOException {
+            this.root.setRowCount(this.bufferedRecords);
+            this.writer.writeBatch();
+            for (FieldVector vector : this.vectors)
+                vector.reset();
+            this.bufferedRecords = 0;
+        }
+
+        /**
+         * Method to complete the file of the partition and release its buffers.
+         * @throws IOException when the file could not be completed.
+         */
+        private void close() throws IOException {
+            this.writer.end();
+            this.writer.close();
+            this.fileStream.close();
+            this.root.close();
+            this.root = null;
+            this.vectors = null;
+        }
+
+        /**
+         * Method to delete the file of the partition, if it exists.
+         */
+        private void delete() {
+            if (this.file == null)
+                return;
+
+            this.file.delete();
+            this.file = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import org.apache.arrow.memory.AllocationListener;
+import org.apache.arrow.memory.OutOfMemoryException;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class which accounts for all memory used by a single query against an optional memory budget.
+ * The accountant observes the Arrow buffers of the query by acting as the {@link AllocationListener}
+ * of the query's Arrow allocator, while the generated hash-maps and the {@link AllocationManager}
+ * of the query reserve their (estimated) footprint explicitly whenever they allocate or grow their
+ * arrays and vectors. Each reservation is attributed
+ * to an owner, so that the peak memory usage per operator can be reported after the query.
+ * Reservations which would exceed the budget fail with an {@link OutOfMemoryException}, which
+ * aborts the query cleanly instead of letting the JVM run out of memory. Operators which can spill
+ * check whether the next growth of their hash-table could still be reserved before it occurs, and
+ * switch to partitioning their input to disk once it could not.
+ */
+public class QueryMemoryAccountant implements AllocationListener {
+
+    /**
+     * The owner to which all Arrow buffer allocations of the query are attributed.
+     */
+    public static final String ARROW_OWNER = "arrow_buffers";
+
+    /**
+     * The owner to which all vectors allocated by the {@link AllocationManager} of the query are attributed.
+     */
+    public static final String ALLOCATION_MANAGER_OWNER = "allocation_manager";
+
+    /**
+     * The memory budget of the query in bytes, or 0 if the query has no memory budget.
+     */
+    private volatile long limit;
+
+    /**
+     * The number of bytes that the query may reserve before operators which can spill should
+     * partition their input to disk, or 0 if only the memory budget applies.
+     */
+    private volatile long spillThreshold;
+
+    /**
+     * The number of bytes that is currently reserved by the query.
+     */
+    private final AtomicLong reservedBytes;
+
+    /**
+     * The maximum number of bytes that has been reserved by the query at any point in time.
+     */
+    private final AtomicLong peakReservedBytes;
+
+    /**
+     * The number of bytes that is currently reserved per owner.
+     */
+    private final ConcurrentHashMap<String, AtomicLong> ownerReservedBytes;
+
+    /**
+     * The maximum number of bytes that has been reserved per owner at any point in time.
+     */
+    private final ConcurrentHashMap<String, AtomicLong> ownerPeakReservedBytes;
+
+    /**
+     * The identifier of the query whose memory is accounted, which tags the events of its hash-maps.
+     */
+    private final long queryId;
+
+    /**
+     * Create a new {@link QueryMemoryAccountant} instance without a memory budget.
+     * @param queryId The identifier of the query whose memory is accounted.
+     */
+    public QueryMemoryAccountant(long queryId) {
+        this.queryId = queryId;
+        this.limit = 0;
+        this.spillThreshold = 0;
+        this.reservedBytes = new AtomicLong(0);
+        this.peakReservedBytes = new AtomicLong(0);
+        this.ownerReservedBytes = new ConcurrentHashMap<>();
+        this.ownerPeakReservedBytes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method to obtain the identifier of the query whose memory is accounted.
+     * @return The identifier of the query.
+     */
+    public long getQueryId() {
+        return this.queryId;
+    }
+
+    /**
+     * Method to obtain the memory budget of the query.
+     * @return The memory budget in bytes, or 0 if the query has no memory budget.
+     */
+    public long getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Method to set the memory budget of the query.
+     * @param limit The memory budget in bytes, or 0 to remove the memory budget.
+     */
+    public void setLimit(long limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("QueryMemoryAccountant.setLimit expects a non-negative limit");
+        this.limit = limit;
+    }
+
+    /**
+     * Method to obtain the number of bytes that the query may reserve before operators which can
+     * spill should partition their input to disk.
+     * @return The spill threshold in bytes, or 0 if only the memory budget applies.
+     */
+    public long getSpillThreshold() {
+        return this.spillThreshold;
+    }
+
+    /**
+     * Method to set the number of bytes that the query may reserve before operators which can
+     * spill should partition their input to disk.
+     * @param spillThreshold The spill threshold in bytes, or 0 if only the memory budget should apply.
+     */
+    public void setSpillThreshold(long spillThreshold) {
+        if (spillThreshold < 0)
+            throw new IllegalArgumentException("QueryMemoryAccountant.setSpillThreshold expects a non-negative threshold");
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Method to obtain the number of bytes that is currently reserved by the query.
+     * @return The number of bytes that is currently reserved.
+     */
+    public long getReservedBytes() {
+        return this.reservedBytes.get();
+    }
+
+    /**
+     * Method to obtain the maximum number of bytes that has been reserved by the query.
+     * @return The peak number of reserved bytes.
+     */
+    public long getPeakReservedBytes() {
+        return this.peakReservedBytes.get();
+    }
+
+    /**
+     * Method to obtain the maximum number of bytes that has been reserved by a specific owner.
+     * @param owner The owner to obtain the peak reservation for.
+     * @return The peak number of bytes reserved by {@code owner}.
+     */
+    public long getPeakReservedBytes(String owner) {
+        AtomicLong ownerPeak = this.ownerPeakReservedBytes.get(owner);
+        return ownerPeak == null ? 0 : ownerPeak.get();
+    }
+
+    /**
+     * Method to check whether a reservation of some size would currently fit in the memory budget.
+     * @param bytes The number of bytes that would be reserved.
+     * @return Whether {@code bytes} more bytes can be reserved without exceeding the memory budget.
+     */
+    public boolean canReserve(long bytes) {
+        long currentLimit = this.limit;
+        return currentLimit == 0 || this.reservedBytes.get() + bytes <= currentLimit;
+    }
+
+    /**
+     * Method to check whether the reservation of an owner could still double, which is what the
+     * next growth of a hash-table reserves at most. Operators which can spill invoke this method
+     * periodically while building their hash-table, and partition their remaining input to disk
+     * once it returns false rather than letting the reservation of the growth fail.
+     * @param owner The owner whose reservation would grow.
+     * @return Whether doubling the reservation of {@code owner} stays within both the spill
+     *         threshold and the memory budget of the query.
+     */
+    public boolean canGrow(String owner) {
+        AtomicLong ownerBytes = this.ownerReservedBytes.get(owner);
+        long projectedBytes = this.reservedBytes.get() + (ownerBytes == null ? 0 : ownerBytes.get());
+
+        long currentThreshold = this.spillThreshold;
+        if (currentThreshold != 0 && projectedBytes > currentThreshold)
+            return false;
+
+        long currentLimit = this.limit;
+        return currentLimit == 0 || projectedBytes <= currentLimit;
+    }
+
+    /**
+     * Method to reserve memory on behalf of an owner.
+     * @param owner The owner on whose behalf the memory is reserved.
+     * @param bytes The number of bytes to reserve.
+     * @throws OutOfMemoryException when the reservation would exceed the memory budget of the query.
+     */
+    public void reserve(String owner, long bytes) {
+        long newReservedBytes = this.reservedBytes.addAndGet(bytes);
+        long currentLimit = this.limit;
+        if (currentLimit != 0 && newReservedBytes > currentLimit) {
+            this.reservedBytes.addAndGet(-bytes);
+            throw new OutOfMemoryException(
+                    "QueryMemoryAccountant.reserve cannot reserve " + bytes + " bytes for " + owner
+                            + " as the query has reserved " + (newReservedBytes - bytes)
+                            + " bytes of its " + currentLimit + " byte budget");
+        }
+        this.peakReservedBytes.accumulateAndGet(newReservedBytes, Math::max);
+
+        long newOwnerBytes = this.ownerReservedBytes
+                .computeIfAbsent(owner, o -> new AtomicLong(0))
+                .addAndGet(bytes);
+        this.ownerPeakReservedBytes
+                .computeIfAbsent(owner, o -> new AtomicLong(0))
+                .accumulateAndGet(newOwnerBytes, Math::max);
+    }
+
+    /**
+     * Method to release memory that was reserved on behalf of an owner.
+     * @param owner The owner on whose behalf the memory was reserved.
+     * @param bytes The number of bytes to release.
+     */
+    public void release(String owner, long bytes) {
+        this.reservedBytes.addAndGet(-bytes);
+        AtomicLong ownerBytes = this.ownerReservedBytes.get(owner);
+        if (ownerBytes != null)
+            ownerBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Method to record the peak memory usage of an owner whose memory is not reserved through
+     * {@code this}, such as the child allocator of a table reader, so that it is included in the
+     * usage report of the query without counting towards the memory budget twice.
+     * @param owner The owner whose peak memory usage is recorded.
+     * @param peakBytes The peak memory usage of {@code owner} in bytes.
+     */
+    public void recordPeak(String owner, long peakBytes) {
+        this.ownerPeakReservedBytes
+                .computeIfAbsent(owner, o -> new AtomicLong(0))
+                .accumulateAndGet(peakBytes, Math::max);
+    }
+
+    /**
+     * Method to obtain a report of the peak memory usage of the query and each of its owners.
+     * @return A JSON object mapping each owner to its peak memory usage in bytes.
+     */
+    public String getPeakUsageReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("{\"limit\": ").append(this.limit);
+        report.append(", \"peak\": ").append(this.peakReservedBytes.get());
+        report.append(", \"owners\": {");
+
+        boolean first = true;
+        Map<String, AtomicLong> sortedOwners = new TreeMap<>(this.ownerPeakReservedBytes);
+        for (Map.Entry<String, AtomicLong> owner : sortedOwners.entrySet()) {
+            if (!first)
+                report.append(", ");
+            report.append('"').append(owner.getKey()).append("\": ").append(owner.getValue().get());
+            first = false;
+        }
+
+        report.append("}}");
+        return report.toString();
+    }
+
+    /* ---- AllocationListener implementation for the Arrow allocator of the query ---- */
+
+    @Override
+    public void onPreAllocation(long size) {
+        // Fail the allocation before Arrow reserves any memory for it
+        if (!this.canReserve(size))
+            throw new OutOfMemoryException(
+                    "QueryMemoryAccountant.onPreAllocation cannot allocate an Arrow buffer of " + size
+                            + " bytes as the query has reserved " + this.reservedBytes.get()
+                            + " bytes of its " + this.limit + " byte budget");
+    }
+
+    @Override
+    public void onAllocation(long size) {
+        // The budget was checked in onPreAllocation, so only the accounting needs to be updated
+        long newReservedBytes = this.reservedBytes.addAndGet(size);
+        this.peakReservedBytes.accumulateAndGet(newReservedBytes, Math::max);
+        long newOwnerBytes = this.ownerReservedBytes
+                .computeIfAbsent(ARROW_OWNER, o -> new AtomicLong(0))
+                .addAndGet(size);
+        this.ownerPeakReservedBytes
+                .computeIfAbsent(ARROW_OWNER, o -> new AtomicLong(0))
+                .accumulateAndGet(newOwnerBytes, Math::max);
+    }
+
+    @Override
+    public void onRelease(long size) {
+        this.release(ARROW_OWNER, size);
+    }
+
+}
@@ -0,0 +1,278 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import AethraDB.evaluation.vector_support.VectorisedOperators;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * An {@link AllocationManager} specialisation which keeps a free list per vector type, so that
+ * released vectors are handed out again on subsequent requests instead of being re-allocated.
+ * Each free list is fronted by a small per-thread cache, which allows parallel workers to obtain
+ * and release vectors without contending on the shared free list in the common case. The
+ * {@link RecyclingAllocationManager} also keeps track of the number of bytes it has handed out
+ * ("live" bytes) and the number of bytes it owns ("pooled" bytes), including the peak of the latter.
+ * The pooled bytes are reserved with the {@link QueryMemoryAccountant} of the query, if any, until
+ * the {@link RecyclingAllocationManager} is closed.
+ * Each vector obtained from this {@link RecyclingAllocationManager} should be released at most once.
+ */
+public class RecyclingAllocationManager extends AllocationManager {
+
+    /**
+     * The maximum number of vectors per type that are cached per thread before vectors are returned
+     * to the shared free list.
+     */
+    private static final int THREAD_CACHE_CAPACITY = 8;
+
+    /**
+     * The number of bytes in use by all vectors that are currently handed out.
+     */
+    private final AtomicLong liveBytes;
+
+    /**
+     * The number of bytes in use by all vectors that are owned by this {@link RecyclingAllocationManager}.
+     */
+    private final AtomicLong pooledBytes;
+
+    /**
+     * The maximum value of {@code pooledBytes} since the last call to {@code performMaintenance}.
+     */
+    private final AtomicLong peakPooledBytes;
+
+    /**
+     * Pool of int vectors.
+     */
+    private final VectorPool<int[]> intVectors;
+
+    /**
+     * Pool of long vectors.
+     */
+    private final VectorPool<long[]> longVectors;
+
+    /**
+     * Pool of boolean vectors.
+     */
+    private final VectorPool<boolean[]> booleanVectors;
+
+    /**
+     * Pool of double vectors.
+     */
+    private final VectorPool<double[]> doubleVectors;
+
+    /**
+     * Pool of nested byte vectors.
+     */
+    private final VectorPool<byte[][]> nestedByteVectors;
+
+    /**
+     * Create a new {@link RecyclingAllocationManager} instance with empty free lists.
+     */
+    public RecyclingAllocationManager() {
+        super();
+        this.liveBytes = new AtomicLong(0);
+        this.pooledBytes = new AtomicLong(0);
+        this.peakPooledBytes = new AtomicLong(0);
+
+        int vectorLength = VectorisedOperators.VECTOR_LENGTH;
+        this.intVectors = new VectorPool<>(() -> new int[vectorLength], (long) Integer.BYTES * vectorLength);
+        this.longVectors = new VectorPool<>(() -> new long[vectorLength], (long) Long.BYTES * vectorLength);
+        this.booleanVectors = new VectorPool<>(() -> new boolean[vectorLength], vectorLength);
+        this.doubleVectors = new VectorPool<>(() -> new double[vectorLength], (long) Double.BYTES * vectorLength);
+        // Estimate the size of a reference as 8 bytes, which is the upper bound without compressed oops
+        this.nestedByteVectors = new VectorPool<>(() -> new byte[vectorLength][], (long) Long.BYTES * vectorLength);
+    }
+
+    @Override
+    public void performMaintenance() {
+        // Return the vectors cached by the calling thread to the shared free lists
+        this.intVectors.flushThreadCache();
+        this.longVectors.flushThreadCache();
+        this.booleanVectors.flushThreadCache();
+        this.doubleVectors.flushThreadCache();
+        this.nestedByteVectors.flushThreadCache();
+
+        // And start a new peak measurement period
+        this.peakPooledBytes.set(this.pooledBytes.get());
+    }
+
+    @Override
+    public int[] getIntVector() {
+        return this.intVectors.acquire();
+    }
+
+    @Override
+    public void release(int[] vector) {
+        this.intVectors.release(vector);
+    }
+
+    @Override
+    public long[] getLongVector() {
+        return this.longVectors.acquire();
+    }
+
+    @Override
+    public void release(long[] vector) {
+        this.longVectors.release(vector);
+    }
+
+    @Override
+    public boolean[] getBooleanVector() {
+        return this.booleanVectors.acquire();
+    }
+
+    @Override
+    public void release(boolean[] vector) {
+        this.booleanVectors.release(vector);
+    }
+
+    @Override
+    public double[] getDoubleVector() {
+        return this.doubleVectors.acquire();
+    }
+
+    @Override
+    public void release(double[] vector) {
+        this.doubleVectors.release(vector);
+    }
+
+    @Override
+    public byte[][] getNestedByteVector() {
+        return this.nestedByteVectors.acquire();
+    }
+
+    @Override
+    public void release(byte[][] vector) {
+        this.nestedByteVectors.release(vector);
+    }
+
+    @Override
+    public void close() {
+        // The pooled vectors are no longer handed out, so their memory is left to the GC
+        releaseBytes(this.pooledBytes.getAndSet(0));
+    }
+
+    /**
+     * Method to obtain the number of bytes in use by vectors that are currently handed out.
+     * @return The number of bytes in use by vectors that are currently handed out.
+     */
+    public long getLiveBytes() {
+        return this.liveBytes.get();
+    }
+
+    /**
+     * Method to obtain the number of bytes in use by all vectors owned by this {@link RecyclingAllocationManager}.
+     * @return The number of bytes in use by all vectors owned by this {@link RecyclingAllocationManager}.
+     */
+    public long getPooledBytes() {
+        return this.pooledBytes.get();
+    }
+
+    /**
+     * Method to obtain the peak number of pooled bytes since the last call to {@code performMaintenance}.
+     * @return The peak number of pooled bytes since the last call to {@code performMaintenance}.
+     */
+    public long getPeakPooledBytes() {
+        return this.peakPooledBytes.get();
+    }
+
+    /**
+     * Class implementing the free list of a single vector type, fronted by a per-thread cache.
+     * @param <T> The vector type that is pooled.
+     */
+    private final class VectorPool<T> {
+
+        /**
+         * The factory used for creating new vectors when the free list is empty.
+         */
+        private final Supplier<T> vectorFactory;
+
+        /**
+         * The (estimated) number of bytes in use by a single vector of this pool.
+         */
+        private final long vectorBytes;
+
+        /**
+         * The free list shared by all threads, which is guarded by its own monitor.
+         */
+        private final ArrayDeque<T> sharedFreeList;
+
+        /**
+         * The free list cache of each thread.
+         */
+        private final ThreadLocal<ArrayDeque<T>> threadCache;
+
+        /**
+         * Create a new {@link VectorPool} instance.
+         * @param vectorFactory The factory to use for creating new vectors.
+         * @param vectorBytes The (estimated) number of bytes in use by a single vector.
+         */
+        private VectorPool(Supplier<T> vectorFactory, long vectorBytes) {
+            this.vectorFactory = vectorFactory;
+            this.vectorBytes = vectorBytes;
+            this.sharedFreeList = new ArrayDeque<>();
+            this.threadCache = ThreadLocal.withInitial(() -> new ArrayDeque<>(THREAD_CACHE_CAPACITY));
+        }
+
+        /**
+         * Method to obtain a vector from the pool, which is only allocated if no free vector exists.
+         * @return A vector of length {@code VectorisedOperators.VECTOR_LENGTH}.
+         */
+        private T acquire() {
+            // Prefer the thread-local cache, as it requires no synchronisation
+            T vector = this.threadCache.get().pollFirst();
+
+            // Then try the shared free list
+            if (vector == null) {
+                synchronized (this.sharedFreeList) {
+                    vector = this.sharedFreeList.pollFirst();
+                }
+            }
+
+            // Otherwise allocate a new vector and account for it, which fails if it does not fit the memory budget
+            if (vector == null) {
+                reserveBytes(this.vectorBytes);
+                long newPooledBytes = pooledBytes.addAndGet(this.vectorBytes);
+                peakPooledBytes.accumulateAndGet(newPooledBytes, Math::max);
+                vector = this.vectorFactory.get();
+            }
+
+            liveBytes.addAndGet(this.vectorBytes);
+            return vector;
+        }
+
+        /**
+         * Method to return a vector to the pool so that it can be handed out again.
+         * @param vector The vector to return to the pool.
+         */
+        private void release(T vector) {
+            liveBytes.addAndGet(-this.vectorBytes);
+
+            ArrayDeque<T> cache = this.threadCache.get();
+            if (cache.size() < THREAD_CACHE_CAPACITY) {
+                cache.addFirst(vector);
+                return;
+            }
+
+            synchronized (this.sharedFreeList) {
+                this.sharedFreeList.addFirst(vector);
+            }
+        }
+
+        /**
+         * Method to move all vectors in the cache of the calling thread to the shared free list.
+         */
+        private void flushThreadCache() {
+            ArrayDeque<T> cache = this.threadCache.get();
+            if (cache.isEmpty())
+                return;
+
+            synchronized (this.sharedFreeList) {
+                while (!cache.isEmpty())
+                    this.sharedFreeList.addFirst(cache.pollFirst());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,889 @@
+package AethraDB.evaluation.codegen.infrastructure.data;
+
+import java.util.Arrays;
+
+/**
+ * Class which materialises the records consumed by a sort operator into columnar buffers and
+ * orders them on a set of sort columns. Records are sorted by building a byte-normalised key per
+ * record, in which each sort column is encoded such that an unsigned byte-wise comparison of two
+ * keys matches the sort order of the records, after which the keys are ordered using an LSD radix
+ * sort (for narrow keys) or an MSD radix sort (for wide keys). String sort columns only contribute
+ * a fixed-length prefix to the key, so runs of records with equal keys are ordered afterwards by
+ * comparing the full records whenever the prefix does not capture the complete string.
+ * When the number of requested records is limited, the buffer instead retains only the best
+ * records seen so far in a bounded max-heap (Top-N), so that the full input is never sorted.
+ */
+public class SortBuffer {
+
+    /**
+     * Column kind indicating a column of {@code int} (and date) values.
+     */
+    public static final int INT_COLUMN = 0;
+
+    /**
+     * Column kind indicating a column of {@code long} values.
+     */
+    public static final int LONG_COLUMN = 1;
+
+    /**
+     * Column kind indicating a column of {@code double} values.
+     */
+    public static final int DOUBLE_COLUMN = 2;
+
+    /**
+     * Column kind indicating a column of fixed-length binary or varchar values.
+     */
+    public static final int BYTES_COLUMN = 3;
+
+    /**
+     * Limit value indicating that all records should be retained by the buffer.
+     */
+    public static final int NO_LIMIT = -1;
+
+    /**
+     * The largest limit for which the buffer retains its records in a bounded heap.
+     */
+    public static final int MAX_TOP_N_LIMIT = 1 << 16;
+
+    /**
+     * The initial number of record slots of a buffer which retains all records.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The number of bytes of a string sort column that is encoded into the normalised key.
+     */
+    private static final int STRING_KEY_PREFIX_BYTES = 16;
+
+    /**
+     * The widest normalised key (in bytes) that is sorted using an LSD radix sort.
+     */
+    private static final int MAX_LSD_KEY_BYTES = 16;
+
+    /**
+     * The range size below which the radix and merge sorts switch to an insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * The estimated number of bytes of a reference to a byte array value.
+     */
+    private static final int REFERENCE_BYTES = 4;
+
+    /**
+     * The estimated number of bytes of a byte array value, including its header.
+     */
+    private static final int ESTIMATED_BYTES_VALUE_BYTES = 16 + 32;
+
+    /**
+     * The {@link QueryMemoryAccountant} to which the buffer reserves its memory, or {@code null}.
+     */
+    private final QueryMemoryAccountant memoryAccountant;
+
+    /**
+     * The owner on whose behalf the buffer reserves its memory.
+     */
+    private final String memoryOwner;
+
+    /**
+     * The kind of each column in the buffer.
+     */
+    private final int[] columnKinds;
+
+    /**
+     * The indices of the columns to sort on, in order of significance.
+     */
+    private final int[] sortColumns;
+
+    /**
+     * Whether each sort column should be sorted in descending order.
+     */
+    private final boolean[] descending;
+
+    /**
+     * The maximum number of records to expose after sorting, or {@code NO_LIMIT}.
+     */
+    private final int limit;
+
+    /**
+     * Whether the buffer only retains the best {@code limit} records in a bounded heap.
+     */
+    private final boolean isTopN;
+
+    /**
+     * The estimated number of bytes needed per record slot.
+     */
+    private final long bytesPerRecordSlot;
+
+    /**
+     * The values of the {@code INT_COLUMN} columns, indexed by column and record slot.
+     */
+    private final int[][] intColumns;
+
+    /**
+     * The values of the {@code LONG_COLUMN} columns, indexed by column and record slot.
+     */
+    private final long[][] longColumns;
+
+    /**
+     * The values of the {@code DOUBLE_COLUMN} columns, indexed by column and record slot.
+     */
+    private final double[][] doubleColumns;
+
+    /**
+     * The values of the {@code BYTES_COLUMN} columns, indexed by column and record slot.
+     */
+    private final byte[][][] bytesColumns;
+
+    /**
+     * The minimum length of the retained values of each {@code BYTES_COLUMN} column.
+     */
+    private final int[] minBytesLength;
+
+    /**
+     * The maximum length of the retained values of each {@code BYTES_COLUMN} column.
+     */
+    private final int[] maxBytesLength;
+
+    /**
+     * The number of record slots allocated in the column buffers.
+     */
+    private int capacity;
+
+    /**
+     * The number of records currently retained by the buffer.
+     */
+    private int recordCount;
+
+    /**
+     * The record slot to which the values of the record that is being appended are written.
+     */
+    private int stagingRow;
+
+    /**
+     * The record slots of the retained records if {@code isTopN}, ordered as a max-heap on the
+     * sort order so that the record that sorts last is at the root.
+     */
+    private final int[] heap;
+
+    /**
+     * The record slots of the retained records in sorted order, once {@code sort} has been invoked.
+     */
+    private int[] sortedRows;
+
+    /**
+     * The number of records that is exposed after sorting.
+     */
+    private int sortedRecordCount;
+
+    /**
+     * The number of bytes that the buffer has reserved from {@code memoryAccountant}.
+     */
+    private long reservedBytes;
+
+    /**
+     * The width in bytes of each sort column in the normalised key.
+     */
+    private final int[] keyColumnWidths;
+
+    /**
+     * The number of leading sort columns that is encoded into the normalised key.
+     */
+    private int keyColumnCount;
+
+    /**
+     * Create a new {@link SortBuffer} instance.
+     * @param memoryAccountant The {@link QueryMemoryAccountant} to reserve memory from, or {@code null}.
+     * @param memoryOwner The owner on whose behalf memory is reserved.
+     * @param columnKinds The kind of each column of the records to sort.
+     * @param sortColumns The indices of the columns to sort on, in order of significance.
+     * @param descending Whether each sort column should be sorted in descending order.
+     * @param limit The maximum number of records to expose after sorting, or {@code NO_LIMIT}.
+     */
+    public SortBuffer(
+            QueryMemoryAccountant memoryAccountant,
+            String memoryOwner,
+            int[] columnKinds,
+            int[] sortColumns,
+            boolean[] descending,
+            int limit
+    ) {
+        if (sortColumns.length != descending.length)
+            throw new IllegalArgumentException("SortBuffer expects a sort direction for each sort column");
+        if (limit < 0 && limit != NO_LIMIT)
+            throw new IllegalArgumentException("SortBuffer expects a non-negative limit or NO_LIMIT");
+
+        this.memoryAccountant = memoryAccountant;
+        this.memoryOwner = memoryOwner;
+        this.columnKinds = columnKinds;
+        this.sortColumns = sortColumns;
+        this.descending = descending;
+        this.limit = limit;
+        this.isTopN = limit != NO_LIMIT && limit <= MAX_TOP_N_LIMIT;
+
+        this.intColumns = new int[columnKinds.length][];
+        this.longColumns = new long[columnKinds.length][];
+        this.doubleColumns = new double[columnKinds.length][];
+        this.bytesColumns = new byte[columnKinds.length][][];
+        this.minBytesLength = new int[columnKinds.length];
+        this.maxBytesLength = new int[columnKinds.length];
+        Arrays.fill(this.minBytesLength, Integer.MAX_VALUE);
+        this.keyColumnWidths = new int[sortColumns.length];
+
+        long bytesPerSlot = 0;
+        for (int columnKind : columnKinds) {
+            bytesPerSlot += switch (columnKind) {
+                case INT_COLUMN -> Integer.BYTES;
+                case LONG_COLUMN -> Long.BYTES;
+                case DOUBLE_COLUMN -> Double.BYTES;
+                case BYTES_COLUMN -> REFERENCE_BYTES + ESTIMATED_BYTES_VALUE_BYTES;
+                default -> throw new IllegalArgumentException("SortBuffer does not support column kind " + columnKind);
+            };
+        }
+        this.bytesPerRecordSlot = bytesPerSlot;
+
+        this.capacity = 0;
+        this.recordCount = 0;
+        this.stagingRow = 0;
+        this.heap = this.isTopN ? new int[limit] : null;
+        this.reservedBytes = 0;
+        this.growColumns(this.isTopN ? limit + 1 : INITIAL_CAPACITY);
+    }
+
+    /* ---- Record materialisation ---- */
+
+    /**
+     * Method to set an {@code INT_COLUMN} value of the record that is being appended.
+     * @param column The column to set the value of.
+     * @param value The value to set.
+     */
+    public void setInt(int column, int value) {
+        this.intColumns[column][this.stagingRow] = value;
+    }
+
+    /**
+     * Method to set a {@code LONG_COLUMN} value of the record that is being appended.
+     * @param column The column to set the value of.
+     * @param value The value to set.
+     */
+    public void setLong(int column, long value) {
+        this.longColumns[column][this.stagingRow] = value;
+    }
+
+    /**
+     * Method to set a {@code DOUBLE_COLUMN} value of the record that is being appended.
+     * @param column The column to set the value of.
+     * @param value The value to set.
+     */
+    public void setDouble(int column, double value) {
+        this.doubleColumns[column][this.stagingRow] = value;
+    }
+
+    /**
+     * Method to set a {@code BYTES_COLUMN} value of the record that is being appended. The value
+     * is only copied once the record is retained, so the caller may reuse {@code value} afterwards.
+     * @param column The column to set the value of.
+     * @param value The value to set.
+     */
+    public void setBytes(int column, byte[] value) {
+        this.bytesColumns[column][this.stagingRow] = value;
+    }
+
+    /**
+     * Method to complete the record that is being appended, after all its columns have been set.
+     */
+    public void finishRecord() {
+        if (!this.isTopN) {
+            this.retainRow(this.stagingRow);
+            this.recordCount++;
+            if (this.recordCount == this.capacity)
+                this.growColumns(2 * this.capacity);
+            this.stagingRow = this.recordCount;
+
+        } else if (this.recordCount < this.limit) {
+            // The heap is not full yet, so the record is always retained
+            this.retainRow(this.stagingRow);
+            this.heap[this.recordCount] = this.stagingRow;
+            this.siftUp(this.recordCount);
+            this.recordCount++;
+            this.stagingRow = this.recordCount;
+
+        } else if (this.limit > 0 && this.compareRows(this.stagingRow, this.heap[0]) < 0) {
+            // The record sorts before the last retained record, so it replaces that record and
+            // the slot of the evicted record becomes the new staging slot
+            this.retainRow(this.stagingRow);
+            int evictedRow = this.heap[0];
+            this.heap[0] = this.stagingRow;
+            this.stagingRow = evictedRow;
+            this.siftDown(0);
+        }
+    }
+
+    /**
+     * Method to make a record slot independent of the values passed by the caller.
+     * @param row The record slot to retain.
+     */
+    private void retainRow(int row) {
+        for (int column = 0; column < this.columnKinds.length; column++) {
+            if (this.columnKinds[column] != BYTES_COLUMN)
+                continue;
+
+            byte[] value = this.bytesColumns[column][row];
+            this.bytesColumns[column][row] = Arrays.copyOf(value, value.length);
+            if (value.length < this.minBytesLength[column])
+                this.minBytesLength[column] = value.length;
+            if (value.length > this.maxBytesLength[column])
+                this.maxBytesLength[column] = value.length;
+        }
+    }
+
+    /**
+     * Method to grow the column buffers to a new number of record slots.
+     * @param newCapacity The new number of record slots.
+     */
+    private void growColumns(int newCapacity) {
+        this.reserve((newCapacity - this.capacity) * this.bytesPerRecordSlot);
+
+        for (int column = 0; column < this.columnKinds.length; column++) {
+            switch (this.columnKinds[column]) {
+                case INT_COLUMN -> this.intColumns[column] = (this.intColumns[column] == null)
+                        ? new int[newCapacity] : Arrays.copyOf(this.intColumns[column], newCapacity);
+                case LONG_COLUMN -> this.longColumns[column] = (this.longColumns[column] == null)
+                        ? new long[newCapacity] : Arrays.copyOf(this.longColumns[column], newCapacity);
+                case DOUBLE_COLUMN -> this.doubleColumns[column] = (this.doubleColumns[column] == null)
+                        ? new double[newCapacity] : Arrays.copyOf(this.doubleColumns[column], newCapacity);
+                case BYTES_COLUMN -> this.bytesColumns[column] = (this.bytesColumns[column] == null)
+                        ? new byte[newCapacity][] : Arrays.copyOf(this.bytesColumns[column], newCapacity);
+            }
+        }
+
+        this.capacity = newCapacity;
+    }
+
+    /* ---- Top-N heap maintenance ---- */
+
+    /**
+     * Method to restore the heap property by moving a heap entry towards the root.
+     * @param index The index of the heap entry to move.
+     */
+    private void siftUp(int index) {
+        int row = this.heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parentRow = this.heap[parentIndex];
+            if (this.compareRows(row, parentRow) <= 0)
+                break;
+            this.heap[index] = parentRow;
+            index = parentIndex;
+        }
+        this.heap[index] = row;
+    }
+
+    /**
+     * Method to restore the heap property by moving a heap entry away from the root.
+     * @param index The index of the heap entry to move.
+     */
+    private void siftDown(int index) {
+        int row = this.heap[index];
+        int heapSize = this.recordCount;
+        while (true) {
+            int childIndex = 2 * index + 1;
+            if (childIndex >= heapSize)
+                break;
+            if (childIndex + 1 < heapSize && this.compareRows(this.heap[childIndex + 1], this.heap[childIndex]) > 0)
+                childIndex++;
+            if (this.compareRows(this.heap[childIndex], row) <= 0)
+                break;
+            this.heap[index] = this.heap[childIndex];
+            index = childIndex;
+        }
+        this.heap[index] = row;
+    }
+
+    /* ---- Sorting ---- */
+
+    /**
+     * Method to sort the retained records, after which they can be obtained via {@code getSortedRows}.
+     */
+    public void sort() {
+        int[] rows = new int[this.recordCount];
+        if (this.isTopN) {
+            System.arraycopy(this.heap, 0, rows, 0, this.recordCount);
+        } else {
+            for (int i = 0; i < rows.length; i++)
+                rows[i] = i;
+        }
+
+        this.sortRows(rows);
+        this.sortedRows = rows;
+        this.sortedRecordCount = (this.limit == NO_LIMIT) ? rows.length : Math.min(rows.length, this.limit);
+    }
+
+    /**
+     * Method to sort a set of record slots using their normalised keys.
+     * @param rows The record slots to sort.
+     */
+    private void sortRows(int[] rows) {
+        int n = rows.length;
+        if (n < 2)
+            return;
+
+        // Determine the layout of the normalised key
+        int keyWidth = 0;
+        boolean keysAreExact = true;
+        this.keyColumnCount = 0;
+        while (keysAreExact && this.keyColumnCount < this.sortColumns.length) {
+            int column = this.sortColumns[this.keyColumnCount];
+            int width = switch (this.columnKinds[column]) {
+                case INT_COLUMN -> Integer.BYTES;
+                case LONG_COLUMN, DOUBLE_COLUMN -> Long.BYTES;
+                default -> Math.min(this.maxBytesLength[column], STRING_KEY_PREFIX_BYTES);
+            };
+            this.keyColumnWidths[this.keyColumnCount++] = width;
+            keyWidth += width;
+
+            // Strings of varying length are zero-padded in the key and longer strings are truncated,
+            // so equal key prefixes do not imply equal strings and the key has to end at this column
+            if (this.columnKinds[column] == BYTES_COLUMN)
+                keysAreExact = this.maxBytesLength[column] <= STRING_KEY_PREFIX_BYTES
+                        && this.minBytesLength[column] == this.maxBytesLength[column];
+        }
+        keysAreExact &= this.keyColumnCount == this.sortColumns.length;
+
+        if (keyWidth == 0)
+            return;
+
+        long keyBytes = (long) n * keyWidth;
+        if (keyBytes > Integer.MAX_VALUE - 8) {
+            // The keys do not fit in a single array, so sort by comparing the records directly
+            this.reserve(4L * n);
+            this.mergeSortRows(rows, 0, n, new int[n]);
+            this.release(4L * n);
+            return;
+        }
+
+        long sortBytes = keyBytes + 3L * Integer.BYTES * n;
+        this.reserve(sortBytes);
+
+        // Build the normalised keys and sort the key indices
+        byte[] keys = new byte[(int) keyBytes];
+        for (int i = 0; i < n; i++)
+            this.writeNormalisedKey(rows[i], keys, i * keyWidth);
+
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        int[] buffer = new int[n];
+
+        if (keyWidth <= MAX_LSD_KEY_BYTES)
+            lsdRadixSort(keys, keyWidth, order, buffer);
+        else
+            msdRadixSort(keys, keyWidth, order, buffer, 0, n, 0);
+
+        int[] sorted = buffer;
+        for (int i = 0; i < n; i++)
+            sorted[i] = rows[order[i]];
+
+        // Order runs of equal keys on the full records when the keys are only a prefix
+        if (!keysAreExact) {
+            int[] scratch = null;
+            int runStart = 0;
+            for (int i = 1; i <= n; i++) {
+                if (i < n && compareKeys(keys, keyWidth, order[runStart], order[i], 0) == 0)
+                    continue;
+
+                if (i - runStart > 1) {
+                    if (scratch == null)
+                        scratch = new int[n];
+                    this.mergeSortRows(sorted, runStart, i, scratch);
+                }
+                runStart = i;
+            }
+        }
+
+        System.arraycopy(sorted, 0, rows, 0, n);
+        this.release(sortBytes);
+    }
+
+    /**
+     * Method to write the normalised key of a record.
+     * @param row The record slot to write the key of.
+     * @param keys The array to write the key into.
+     * @param offset The offset in {@code keys} at which the key should be written.
+     */
+    private void writeNormalisedKey(int row, byte[] keys, int offset) {
+        for (int i = 0; i < this.keyColumnCount; i++) {
+            int column = this.sortColumns[i];
+            int width = this.keyColumnWidths[i];
+
+            switch (this.columnKinds[column]) {
+                case INT_COLUMN -> writeBigEndian(keys, offset, this.intColumns[column][row] ^ Integer.MIN_VALUE, Integer.BYTES);
+                case LONG_COLUMN -> writeBigEndian(keys, offset, this.longColumns[column][row] ^ Long.MIN_VALUE, Long.BYTES);
+                case DOUBLE_COLUMN -> {
+                    // Flip all bits of negative values and only the sign bit of positive values
+                    long bits = Double.doubleToLongBits(this.doubleColumns[column][row]);
+                    writeBigEndian(keys, offset, bits ^ ((bits >> 63) | Long.MIN_VALUE), Long.BYTES);
+                }
+                default -> {
+                    byte[] value = this.bytesColumns[column][row];
+                    System.arraycopy(value, 0, keys, offset, Math.min(value.length, width));
+                }
+            }
+
+            if (this.descending[i]) {
+                for (int j = offset; j < offset + width; j++)
+                    keys[j] = (byte) ~keys[j];
+            }
+
+            offset += width;
+        }
+    }
+
+    /**
+     * Method to write the lowest bytes of a value into an array in big-endian order.
+     * @param target The array to write into.
+     * @param offset The offset in {@code target} at which the bytes should be written.
+     * @param value The value to write.
+     * @param byteCount The number of bytes of {@code value} to write.
+     */
+    private static void writeBigEndian(byte[] target, int offset, long value, int byteCount) {
+        for (int i = byteCount - 1; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Method to sort key indices using an LSD radix sort, which skips the byte positions at which
+     * all keys are equal.
+     * @param keys The normalised keys.
+     * @param keyWidth The width of each key in bytes.
+     * @param order The key indices to sort.
+     * @param buffer A scratch array of the same length as {@code order}.
+     */
+    private static void lsdRadixSort(byte[] keys, int keyWidth, int[] order, int[] buffer) {
+        int n = order.length;
+
+        // Compute the histograms of all byte positions in a single sequential pass
+        int[][] histograms = new int[keyWidth][256];
+        for (int i = 0, k = 0; i < n; i++)
+            for (int b = 0; b < keyWidth; b++, k++)
+                histograms[b][keys[k] & 0xFF]++;
+
+        int[] source = order;
+        int[] target = buffer;
+        for (int b = keyWidth - 1; b >= 0; b--) {
+            int[] counts = histograms[b];
+            if (counts[keys[b] & 0xFF] == n)
+                continue;
+
+            int offset = 0;
+            for (int d = 0; d < 256; d++) {
+                int count = counts[d];
+                counts[d] = offset;
+                offset += count;
+            }
+
+            for (int i = 0; i < n; i++) {
+                int keyIndex = source[i];
+                target[counts[keys[keyIndex * keyWidth + b] & 0xFF]++] = keyIndex;
+            }
+
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+
+        if (source != order)
+            System.arraycopy(source, 0, order, 0, n);
+    }
+
+    /**
+     * Method to sort a range of key indices using an MSD radix sort, which stops refining a bucket
+     * as soon as it is small enough to be sorted by an insertion sort.
+     * @param keys The normalised keys.
+     * @param keyWidth The width of each key in bytes.
+     * @param order The key indices to sort.
+     * @param buffer A scratch array of the same length as {@code order}.
+     * @param from The start of the range to sort (inclusive).
+     * @param to The end of the range to sort (exclusive).
+     * @param bytePosition The byte position that distinguishes the keys in the range.
+     */
+    private static void msdRadixSort(
+            byte[] keys,
+            int keyWidth,
+            int[] order,
+            int[] buffer,
+            int from,
+            int to,
+            int bytePosition
+    ) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int keyIndex = order[i];
+                int j = i - 1;
+                while (j >= from && compareKeys(keys, keyWidth, order[j], keyIndex, bytePosition) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = keyIndex;
+            }
+            return;
+        }
+
+        // bucketBounds[d] is the start of bucket d and bucketBounds[d + 1] its end
+        int[] bucketBounds = new int[257];
+        for (int i = from; i < to; i++)
+            bucketBounds[(keys[order[i] * keyWidth + bytePosition] & 0xFF) + 1]++;
+        for (int d = 0; d < 256; d++)
+            bucketBounds[d + 1] += bucketBounds[d];
+
+        int[] nextPositions = Arrays.copyOf(bucketBounds, 256);
+        for (int i = from; i < to; i++) {
+            int keyIndex = order[i];
+            buffer[from + nextPositions[keys[keyIndex * keyWidth + bytePosition] & 0xFF]++] = keyIndex;
+        }
+        System.arraycopy(buffer, from, order, from, to - from);
+
+        if (bytePosition + 1 == keyWidth)
+            return;
+
+        for (int d = 0; d < 256; d++) {
+            int bucketStart = from + bucketBounds[d];
+            int bucketEnd = from + bucketBounds[d + 1];
+            if (bucketEnd - bucketStart > 1)
+                msdRadixSort(keys, keyWidth, order, buffer, bucketStart, bucketEnd, bytePosition + 1);
+        }
+    }
+
+    /**
+     * Method to compare two normalised keys from a given byte position onwards.
+     * @param keys The normalised keys.
+     * @param keyWidth The width of each key in bytes.
+     * @param left The index of the first key.
+     * @param right The index of the second key.
+     * @param bytePosition The byte position from which to compare the keys.
+     * @return A negative value, zero or a positive value when {@code left} is smaller than, equal
+     * to or greater than {@code right} respectively.
+     */
+    private static int compareKeys(byte[] keys, int keyWidth, int left, int right, int bytePosition) {
+        int leftOffset = left * keyWidth;
+        int rightOffset = right * keyWidth;
+        return Arrays.compareUnsigned(
+                keys, leftOffset + bytePosition, leftOffset + keyWidth,
+                keys, rightOffset + bytePosition, rightOffset + keyWidth);
+    }
+
+    /**
+     * Method to sort a range of record slots by comparing the records using a stable merge sort.
+     * @param rows The record slots to sort.
+     * @param from The start of the range to sort (inclusive).
+     * @param to The end of the range to sort (exclusive).
+     * @param scratch A scratch array of at least the same length as {@code rows}.
+     */
+    private void mergeSortRows(int[] rows, int from, int to, int[] scratch) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && this.compareRows(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        this.mergeSortRows(rows, from, middle, scratch);
+        this.mergeSortRows(rows, middle, to, scratch);
+        if (this.compareRows(rows[middle - 1], rows[middle]) <= 0)
+            return;
+
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && this.compareRows(scratch[left], scratch[right]) <= 0))
+                rows[i] = scratch[left++];
+            else
+                rows[i] = scratch[right++];
+        }
+    }
+
+    /**
+     * Method to compare two records on the sort columns.
+     * @param left The record slot of the first record.
+     * @param right The record slot of the second record.
+     * @return A negative value, zero or a positive value when {@code left} sorts before, equal to
+     * or after {@code right} respectively.
+     */
+    private int compareRows(int left, int right) {
+        for (int i = 0; i < this.sortColumns.length; i++) {
+            int column = this.sortColumns[i];
+            int result = switch (this.columnKinds[column]) {
+                case INT_COLUMN -> Integer.compare(this.intColumns[column][left], this.intColumns[column][right]);
+                case LONG_COLUMN -> Long.compare(this.longColumns[column][left], this.longColumns[column][right]);
+                case DOUBLE_COLUMN -> Double.compare(this.doubleColumns[column][left], this.doubleColumns[column][right]);
+                default -> Arrays.compareUnsigned(this.bytesColumns[column][left], this.bytesColumns[column][right]);
+            };
+
+            if (result != 0)
+                return this.descending[i] ? -result : result;
+        }
+        return 0;
+    }
+
+    /* ---- Sorted result exposure ---- */
+
+    /**
+     * Method to obtain the number of records that is exposed after sorting.
+     * @return The number of sorted records.
+     */
+    public int getSortedRecordCount() {
+        return this.sortedRecordCount;
+    }
+
+    /**
+     * Method to obtain the record slots of the retained records in sorted order.
+     * @return The sorted record slots, of which the first {@code getSortedRecordCount()} are exposed.
+     */
+    public int[] getSortedRows() {
+        return this.sortedRows;
+    }
+
+    /**
+     * Method to obtain the values of an {@code INT_COLUMN} column indexed by record slot.
+     * @param column The column to obtain the values of.
+     * @return The values of {@code column}.
+     */
+    public int[] getIntColumn(int column) {
+        return this.intColumns[column];
+    }
+
+    /**
+     * Method to obtain the values of a {@code LONG_COLUMN} column indexed by record slot.
+     * @param column The column to obtain the values of.
+     * @return The values of {@code column}.
+     */
+    public long[] getLongColumn(int column) {
+        return this.longColumns[column];
+    }
+
+    /**
+     * Method to obtain the values of a {@code DOUBLE_COLUMN} column indexed by record slot.
+     * @param column The column to obtain the values of.
+     * @return The values of {@code column}.
+     */
+    public double[] getDoubleColumn(int column) {
+        return this.doubleColumns[column];
+    }
+
+    /**
+     * Method to obtain the values of a {@code BYTES_COLUMN} column indexed by record slot.
+     * @param column The column to obtain the values of.
+     * @return The values of {@code column}.
+     */
+    public byte[][] getBytesColumn(int column) {
+        return this.bytesColumns[column];
+    }
+
+    /**
+     * Method to copy a vector of sorted {@code INT_COLUMN} values into an array.
+     * @param column The column to copy the values of.
+     * @param offset The index of the first sorted record to copy.
+     * @param target The array to copy the values into.
+     * @return The number of values that was copied.
+     */
+    public int gatherInts(int column, int offset, int[] target) {
+        int count = Math.min(target.length, this.sortedRecordCount - offset);
+        int[] source = this.intColumns[column];
+        for (int i = 0; i < count; i++)
+            target[i] = source[this.sortedRows[offset + i]];
+        return count;
+    }
+
+    /**
+     * Method to copy a vector of sorted {@code LONG_COLUMN} values into an array.
+     * @param column The column to copy the values of.
+     * @param offset The index of the first sorted record to copy.
+     * @param target The array to copy the values into.
+     * @return The number of values that was copied.
+     */
+    public int gatherLongs(int column, int offset, long[] target) {
+        int count = Math.min(target.length, this.sortedRecordCount - offset);
+        long[] source = this.longColumns[column];
+        for (int i = 0; i < count; i++)
+            target[i] = source[this.sortedRows[offset + i]];
+        return count;
+    }
+
+    /**
+     * Method to copy a vector of sorted {@code DOUBLE_COLUMN} values into an array.
+     * @param column The column to copy the values of.
+     * @param offset The index of the first sorted record to copy.
+     * @param target The array to copy the values into.
+     * @return The number of values that was copied.
+     */
+    public int gatherDoubles(int column, int offset, double[] target) {
+        int count = Math.min(target.length, this.sortedRecordCount - offset);
+        double[] source = this.doubleColumns[column];
+        for (int i = 0; i < count; i++)
+            target[i] = source[this.sortedRows[offset + i]];
+        return count;
+    }
+
+    /**
+     * Method to copy a vector of sorted {@code BYTES_COLUMN} values into an array.
+     * @param column The column to copy the values of.
+     * @param offset The index of the first sorted record to copy.
+     * @param target The array to copy the values into.
+     * @return The number of values that was copied.
+     */
+    public int gatherBytes(int column, int offset, byte[][] target) {
+        int count = Math.min(target.length, this.sortedRecordCount - offset);
+        byte[][] source = this.bytesColumns[column];
+        for (int i = 0; i < count; i++)
+            target[i] = source[this.sortedRows[offset + i]];
+        return count;
+    }
+
+    /* ---- Memory accounting ---- */
+
+    /**
+     * Method to reserve memory on behalf of the buffer.
+     * @param bytes The number of bytes to reserve.
+     */
+    private void reserve(long bytes) {
+        if (this.memoryAccountant == null)
+            return;
+        this.memoryAccountant.reserve(this.memoryOwner, bytes);
+        this.reservedBytes += bytes;
+    }
+
+    /**
+     * Method to release memory that was reserved on behalf of the buffer.
+     * @param bytes The number of bytes to release.
+     */
+    private void release(long bytes) {
+        if (this.memoryAccountant == null)
+            return;
+        this.memoryAccountant.release(this.memoryOwner, bytes);
+        this.reservedBytes -= bytes;
+    }
+
+    /**
+     * Method to release all memory held by the buffer once its sorted records have been consumed.
+     */
+    public void close() {
+        this.release(this.reservedBytes);
+        Arrays.fill(this.intColumns, null);
+        Arrays.fill(this.longColumns, null);
+        Arrays.fill(this.doubleColumns, null);
+        Arrays.fill(this.bytesColumns, null);
+        this.sortedRows = null;
+        this.sortedRecordCount = 0;
+    }
+
+}
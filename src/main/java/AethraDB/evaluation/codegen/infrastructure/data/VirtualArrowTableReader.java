@@ -25,17 +25,22 @@ public class VirtualArrowTableReader extends ArrowTableReader {
     }
 
     @Override
-    public void reset() throws Exception {
+    protected void specificReset() throws Exception {
         throw new UnsupportedOperationException("VirtualArrowTableReader cannot be reset");
     }
 
     @Override
-    public boolean loadNextBatch() throws IOException {
+    protected boolean specificLoadNextBatch() throws IOException {
         throw new UnsupportedOperationException("VirtualArrowTableReader cannot load batches");
     }
 
     @Override
-    public FieldVector getVector(int index) {
+    protected boolean specificSkipNextBatch() {
+        throw new UnsupportedOperationException("VirtualArrowTableReader cannot skip batches");
+    }
+
+    @Override
+    protected FieldVector getArrowVector(int index) {
         throw new UnsupportedOperationException("VirtualArrowTableReader cannot obtain vectors");
     }
 
@@ -0,0 +1,1055 @@
+package AethraDB.evaluation.codegen.infrastructure.janino;
+
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.Location;
+import org.codehaus.janino.Java;
+import org.codehaus.janino.util.AbstractTraverser;
+import org.codehaus.janino.util.DeepCopier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createPrimitiveType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
+
+/**
+ * Class containing an optimisation pass over generated Janino code. The operators generate code
+ * per consumed ordinal and per produced value without knowledge of the surrounding code, which
+ * results in code that repeats work within and across loop iterations. Since Janino itself does not
+ * optimise the code it compiles, and the JIT compiler cannot prove for example that an allocated
+ * array literal is never mutated, this pass performs the following rewrites on the statements of a
+ * method body before it is compiled:
+ *  - Local variables that are never read and whose initialiser has no side effects are removed,
+ *    which drops the ordinals (and the column vectors) that no operator consumes.
+ *  - Loop-invariant pure expressions, including the array literals used by string comparisons, are
+ *    hoisted out of the loops they occur in and computed once before the outermost loop in which
+ *    they are invariant.
+ *  - A pure expression that was already assigned to an immutable local variable that is in scope is
+ *    replaced by a reference to that variable (common sub-expression elimination).
+ *
+ * An expression is considered pure if it consists of literals, immutable local variables, operators
+ * that cannot throw, primitive casts, array literals and the pre-hash functions which the generated
+ * code uses. The rewrites are performed by copying the statements, as Janino AST nodes can only be
+ * part of a single tree.
+ */
+public class JaninoCodeOptimiser {
+
+    /**
+     * The system property which can be used to disable the optimisation of generated code.
+     */
+    public static final String OPTIMISATION_PROPERTY = "aethradb.optimise_generated_code";
+
+    /**
+     * Whether the generated code should be optimised.
+     */
+    public static final boolean OPTIMISATION_ENABLED = determineOptimisationEnabled();
+
+    /**
+     * The base name of the variables introduced for hoisted expressions.
+     */
+    private static final String HOISTED_VARIABLE_BASE_NAME = "hoisted_value";
+
+    /**
+     * The classes whose static methods listed in {@code PURE_STATIC_METHODS} are pure.
+     */
+    private static final Set<String> PURE_STATIC_METHOD_CLASSES = Set.of(
+            "Int_Hash_Function",
+            "Double_Hash_Function",
+            "HashFunctionFamily"
+    );
+
+    /**
+     * The static methods of the {@code PURE_STATIC_METHOD_CLASSES} that are pure and return a
+     * {@code long}. The {@code Char_Arr_Hash_Function} is excluded on purpose, as it reads mutable
+     * byte arrays.
+     */
+    private static final Set<String> PURE_STATIC_METHODS = Set.of("preHash", "combine");
+
+    /**
+     * The instance methods which only read state, and hence can be removed when their result is
+     * not used by the generated code.
+     */
+    private static final Set<String> READ_ONLY_METHODS = Set.of(
+            "get",
+            "getValueCount",
+            "getVector",
+            "getSubBatchVector",
+            "isNull"
+    );
+
+    /**
+     * The binary operators that can never throw an exception on primitive operands.
+     */
+    private static final Set<String> NON_THROWING_BINARY_OPERATORS = Set.of(
+            "||", "&&", "|", "^", "&", "==", "!=", "<", ">", "<=", ">=",
+            "<<", ">>", ">>>", "+", "-", "*"
+    );
+
+    /**
+     * The binary operators that produce a boolean result.
+     */
+    private static final Set<String> BOOLEAN_BINARY_OPERATORS = Set.of(
+            "||", "&&", "==", "!=", "<", ">", "<=", ">="
+    );
+
+    /**
+     * Reflective access to the value of a {@link Java.SimpleConstant}, which is needed for copying
+     * the constants used in byte array literals, as {@link DeepCopier} does not support them.
+     */
+    private static final java.lang.reflect.Field SIMPLE_CONSTANT_VALUE_FIELD;
+
+    static {
+        try {
+            SIMPLE_CONSTANT_VALUE_FIELD = Java.SimpleConstant.class.getDeclaredField("value");
+            SIMPLE_CONSTANT_VALUE_FIELD.setAccessible(true);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Prevent this class from being instantiated.
+     */
+    private JaninoCodeOptimiser() {
+
+    }
+
+    /**
+     * Method to determine whether generated code should be optimised from the system properties.
+     * @return {@code false} iff the {@code OPTIMISATION_PROPERTY} is set to {@code false}.
+     */
+    private static boolean determineOptimisationEnabled() {
+        return Boolean.parseBoolean(System.getProperty(OPTIMISATION_PROPERTY, "true"));
+    }
+
+    /**
+     * Method to optimise the statements of a generated method body.
+     * @param methodBody The statements to optimise, which should not be part of a method yet.
+     * @return The optimised statements, which replace {@code methodBody}.
+     * @throws CompileException When the statements cannot be copied.
+     */
+    public static List<Java.Statement> optimise(List<Java.Statement> methodBody) throws CompileException {
+        List<Java.Statement> currentBody = methodBody;
+
+        // Remove unused local variables until a fixpoint is reached, as removing a variable can
+        // make the variables used in its initialiser unused
+        while (true) {
+            BodyAnalysis analysis = new BodyAnalysis(currentBody);
+            if (analysis.containsLambdas)
+                return currentBody;
+
+            DeadLocalEliminator eliminator = new DeadLocalEliminator(analysis);
+            currentBody = eliminator.copyStatements(currentBody);
+            if (!eliminator.removedDeclarations)
+                break;
+        }
+
+        // Hoist loop-invariant expressions and eliminate common sub-expressions
+        return new InvariantHoister(new BodyAnalysis(currentBody)).copyStatements(currentBody);
+    }
+
+    /* ---- Analysis ---- */
+
+    /**
+     * {@link AbstractTraverser} which also traverses the expressions used as variable initialisers,
+     * which the {@link AbstractTraverser} itself does not descend into.
+     */
+    static class InitialiserTraverser extends AbstractTraverser<RuntimeException> {
+
+        @Override
+        public void traverseArrayInitializerOrRvalue(Java.ArrayInitializerOrRvalue aiorv) {
+            if (aiorv instanceof Java.Rvalue rvalue) {
+                this.visitAtom(rvalue);
+            } else {
+                for (Java.ArrayInitializerOrRvalue value : ((Java.ArrayInitializer) aiorv).values)
+                    this.traverseArrayInitializerOrRvalue(value);
+            }
+        }
+
+    }
+
+    /**
+     * Class which collects the information about the local variables of a method body which the
+     * rewrites depend on. As the analysis is name-based, it is conservative whenever the same name
+     * is declared in multiple scopes.
+     */
+    private static final class BodyAnalysis extends InitialiserTraverser {
+
+        /**
+         * The number of times each identifier is used as the first identifier of a name.
+         */
+        final Map<String, Integer> referenceCounts = new HashMap<>();
+
+        /**
+         * The names of local variables that are assigned after their declaration.
+         */
+        final Set<String> assignedNames = new HashSet<>();
+
+        /**
+         * The declared type of each local variable, or {@code null} if declarations with the same
+         * name have different types.
+         */
+        final Map<String, Java.Type> declaredTypes = new HashMap<>();
+
+        /**
+         * All identifiers occurring in the body, used for choosing fresh variable names.
+         */
+        final Set<String> usedIdentifiers = new HashSet<>();
+
+        /**
+         * Whether the body contains lambda expressions or method references, whose bodies are not
+         * traversed by the analysis.
+         */
+        boolean containsLambdas = false;
+
+        /**
+         * Creates a new {@link BodyAnalysis} instance for a method body.
+         * @param body The method body to analyse.
+         */
+        BodyAnalysis(List<? extends Java.BlockStatement> body) {
+            for (Java.BlockStatement statement : body)
+                this.visitBlockStatement(statement);
+        }
+
+        @Override
+        public void traverseLocalVariableDeclarationStatement(Java.LocalVariableDeclarationStatement lvds) {
+            for (Java.VariableDeclarator declarator : lvds.variableDeclarators) {
+                this.usedIdentifiers.add(declarator.name);
+                if (declarator.brackets != 0 || !this.declaredTypes.containsKey(declarator.name)) {
+                    this.declaredTypes.put(declarator.name, declarator.brackets == 0 ? lvds.type : null);
+                } else {
+                    Java.Type previousType = this.declaredTypes.get(declarator.name);
+                    if (previousType != null && !previousType.toString().equals(lvds.type.toString()))
+                        this.declaredTypes.put(declarator.name, null);
+                }
+            }
+            super.traverseLocalVariableDeclarationStatement(lvds);
+        }
+
+        @Override
+        public void traverseFormalParameter(Java.FunctionDeclarator.FormalParameter formalParameter) {
+            this.usedIdentifiers.add(formalParameter.name);
+            // Parameters are not local variables of the analysed body
+            this.declaredTypes.put(formalParameter.name, null);
+            super.traverseFormalParameter(formalParameter);
+        }
+
+        @Override
+        public void traverseAssignment(Java.Assignment a) {
+            this.recordAssignment(a.lhs);
+            super.traverseAssignment(a);
+        }
+
+        @Override
+        public void traverseCrement(Java.Crement c) {
+            this.recordAssignment(c.operand);
+            super.traverseCrement(c);
+        }
+
+        @Override
+        public void traverseAmbiguousName(Java.AmbiguousName an) {
+            this.referenceCounts.merge(an.identifiers[0], 1, Integer::sum);
+            this.usedIdentifiers.add(an.identifiers[0]);
+            super.traverseAmbiguousName(an);
+        }
+
+        @Override
+        public void traverseLambdaExpression(Java.LambdaExpression le) {
+            this.containsLambdas = true;
+            super.traverseLambdaExpression(le);
+        }
+
+        @Override
+        public void traverseMethodReference(Java.MethodReference mr) {
+            this.containsLambdas = true;
+            super.traverseMethodReference(mr);
+        }
+
+        /**
+         * Method to record that a local variable may be assigned.
+         * @param lhs The left-hand side of the assignment.
+         */
+        private void recordAssignment(Java.Lvalue lhs) {
+            if (lhs instanceof Java.AmbiguousName name && name.n == 1)
+                this.assignedNames.add(name.identifiers[0]);
+            else if (lhs instanceof Java.ParenthesizedExpression parenthesised && parenthesised.value instanceof Java.Lvalue inner)
+                this.recordAssignment(inner);
+        }
+
+        /**
+         * Method to check whether a name refers to a local variable which is never assigned after
+         * its declaration.
+         * @param name The name to check.
+         * @return {@code true} iff {@code name} is an immutable local variable.
+         */
+        boolean isImmutableLocal(String name) {
+            return this.declaredTypes.containsKey(name) && !this.assignedNames.contains(name);
+        }
+
+        /**
+         * Method to obtain an identifier that does not occur in the analysed body yet.
+         * @param baseName The base name of the identifier.
+         * @return A fresh identifier starting with {@code baseName}.
+         */
+        String freshIdentifier(String baseName) {
+            String candidate = baseName;
+            for (int i = 0; this.usedIdentifiers.contains(candidate); i++)
+                candidate = baseName + "_" + i;
+            this.usedIdentifiers.add(candidate);
+            return candidate;
+        }
+
+    }
+
+    /**
+     * Method to collect the names of all local variables and parameters declared within a statement.
+     * @param statement The statement to collect the declared names of.
+     * @return The names declared within {@code statement}.
+     */
+    private static Set<String> declaredNames(Java.BlockStatement statement) {
+        Set<String> names = new HashSet<>();
+        new InitialiserTraverser() {
+            @Override
+            public void traverseLocalVariableDeclarationStatement(Java.LocalVariableDeclarationStatement lvds) {
+                for (Java.VariableDeclarator declarator : lvds.variableDeclarators)
+                    names.add(declarator.name);
+                super.traverseLocalVariableDeclarationStatement(lvds);
+            }
+
+            @Override
+            public void traverseFormalParameter(Java.FunctionDeclarator.FormalParameter formalParameter) {
+                names.add(formalParameter.name);
+                super.traverseFormalParameter(formalParameter);
+            }
+        }.visitBlockStatement(statement);
+        return names;
+    }
+
+    /**
+     * Class describing an expression which is pure, i.e. which has no side effects, cannot throw
+     * and evaluates to the same value wherever the local variables it reads are in scope.
+     * @param key A key which is equal for two pure expressions iff they are structurally equal.
+     * @param type The type of the expression, or {@code null} if it could not be inferred.
+     * @param locals The local variables read by the expression.
+     * @param computes Whether evaluating the expression requires more than loading a value.
+     * @param allocates Whether the expression allocates an array.
+     */
+    private record PureExpression(String key, Java.Type type, Set<String> locals, boolean computes, boolean allocates) { }
+
+    /**
+     * Method to check whether an expression is pure and to describe it.
+     * @param rvalue The expression to check.
+     * @param analysis The analysis of the method body containing {@code rvalue}.
+     * @return The description of {@code rvalue} if it is pure, {@code null} otherwise.
+     */
+    private static PureExpression analysePure(Java.Rvalue rvalue, BodyAnalysis analysis) {
+        Location location = rvalue.getLocation();
+
+        if (rvalue instanceof Java.IntegerLiteral literal) {
+            boolean isLong = literal.value.endsWith("L") || literal.value.endsWith("l");
+            return literalExpression("I" + literal.value, createPrimitiveType(location, isLong ? Java.Primitive.LONG : Java.Primitive.INT));
+
+        } else if (rvalue instanceof Java.FloatingPointLiteral literal) {
+            boolean isFloat = literal.value.endsWith("F") || literal.value.endsWith("f");
+            return literalExpression("F" + literal.value, createPrimitiveType(location, isFloat ? Java.Primitive.FLOAT : Java.Primitive.DOUBLE));
+
+        } else if (rvalue instanceof Java.BooleanLiteral literal) {
+            return literalExpression("B" + literal.value, createPrimitiveType(location, Java.Primitive.BOOLEAN));
+
+        } else if (rvalue instanceof Java.CharacterLiteral literal) {
+            return literalExpression("C" + literal.value, createPrimitiveType(location, Java.Primitive.CHAR));
+
+        } else if (rvalue instanceof Java.SimpleConstant constant) {
+            Object value = simpleConstantValue(constant);
+            Java.Primitive primitive = value instanceof Byte ? Java.Primitive.BYTE : null;
+            return literalExpression(
+                    "S" + (value == null ? "null" : value.getClass().getSimpleName() + value),
+                    primitive == null ? null : createPrimitiveType(location, primitive)
+            );
+
+        } else if (rvalue instanceof Java.AmbiguousName name) {
+            if (name.n != 1 || !analysis.isImmutableLocal(name.identifiers[0]))
+                return null;
+            return new PureExpression(
+                    "N" + name.identifiers[0],
+                    analysis.declaredTypes.get(name.identifiers[0]),
+                    Set.of(name.identifiers[0]),
+                    false,
+                    false
+            );
+
+        } else if (rvalue instanceof Java.ParenthesizedExpression parenthesised) {
+            return analysePure(parenthesised.value, analysis);
+
+        } else if (rvalue instanceof Java.Cast cast) {
+            PureExpression value = analysePure(cast.value, analysis);
+            if (value == null || !(cast.targetType instanceof Java.PrimitiveType) || primitiveOf(value.type) == null)
+                return null;
+            return new PureExpression(
+                    "(" + cast.targetType + "){" + value.key + "}",
+                    cast.targetType,
+                    value.locals,
+                    value.computes || !value.locals.isEmpty(),
+                    value.allocates
+            );
+
+        } else if (rvalue instanceof Java.UnaryOperation unary) {
+            PureExpression operand = analysePure(unary.operand, analysis);
+            if (operand == null)
+                return null;
+            Java.Type type = unary.operator.equals("!")
+                    ? createPrimitiveType(location, Java.Primitive.BOOLEAN)
+                    : promotedType(location, operand.type, null);
+            return new PureExpression(
+                    "U" + unary.operator + "{" + operand.key + "}",
+                    type,
+                    operand.locals,
+                    operand.computes || !operand.locals.isEmpty(),
+                    operand.allocates
+            );
+
+        } else if (rvalue instanceof Java.BinaryOperation binary) {
+            PureExpression lhs = analysePure(binary.lhs, analysis);
+            PureExpression rhs = analysePure(binary.rhs, analysis);
+            if (lhs == null || rhs == null)
+                return null;
+
+            Java.Type type;
+            if (BOOLEAN_BINARY_OPERATORS.contains(binary.operator)) {
+                type = createPrimitiveType(location, Java.Primitive.BOOLEAN);
+            } else if (binary.operator.startsWith("<<") || binary.operator.startsWith(">>")) {
+                type = promotedType(location, lhs.type, null);
+            } else if (primitiveOf(lhs.type) == Java.Primitive.BOOLEAN && primitiveOf(rhs.type) == Java.Primitive.BOOLEAN) {
+                type = createPrimitiveType(location, Java.Primitive.BOOLEAN);
+            } else {
+                type = promotedType(location, lhs.type, rhs.type);
+            }
+
+            // Division and remainder can only be guaranteed not to throw on floating point operands
+            boolean nonThrowing = NON_THROWING_BINARY_OPERATORS.contains(binary.operator)
+                    || ((binary.operator.equals("/") || binary.operator.equals("%")) && isFloatingPoint(type));
+            if (!nonThrowing || (type == null && !BOOLEAN_BINARY_OPERATORS.contains(binary.operator)))
+                return null;
+
+            Set<String> locals = new HashSet<>(lhs.locals);
+            locals.addAll(rhs.locals);
+            return new PureExpression(
+                    "{" + lhs.key + "}" + binary.operator + "{" + rhs.key + "}",
+                    type,
+                    locals,
+                    lhs.computes || rhs.computes || !locals.isEmpty(),
+                    lhs.allocates || rhs.allocates
+            );
+
+        } else if (rvalue instanceof Java.MethodInvocation invocation) {
+            if (!(invocation.target instanceof Java.AmbiguousName target)
+                    || target.n != 1
+                    || !PURE_STATIC_METHOD_CLASSES.contains(target.identifiers[0])
+                    || !PURE_STATIC_METHODS.contains(invocation.methodName)
+                    || analysis.declaredTypes.containsKey(target.identifiers[0]))
+                return null;
+
+            StringBuilder key = new StringBuilder(target.identifiers[0]).append('.').append(invocation.methodName).append('(');
+            Set<String> locals = new HashSet<>();
+            boolean allocates = false;
+            for (Java.Rvalue argument : invocation.arguments) {
+                PureExpression pureArgument = analysePure(argument, analysis);
+                if (pureArgument == null)
+                    return null;
+                key.append('{').append(pureArgument.key).append('}');
+                locals.addAll(pureArgument.locals);
+                allocates |= pureArgument.allocates;
+            }
+            key.append(')');
+            return new PureExpression(key.toString(), createPrimitiveType(location, Java.Primitive.LONG), locals, true, allocates);
+
+        } else if (rvalue instanceof Java.NewInitializedArray array) {
+            if (array.arrayType == null || !(array.arrayType.componentType instanceof Java.PrimitiveType))
+                return null;
+
+            StringBuilder key = new StringBuilder("new ").append(array.arrayType).append('{');
+            for (Java.ArrayInitializerOrRvalue value : array.arrayInitializer.values) {
+                if (!(value instanceof Java.Rvalue element))
+                    return null;
+                PureExpression pureElement = analysePure(element, analysis);
+                if (pureElement == null || pureElement.computes || !pureElement.locals.isEmpty())
+                    return null;
+                key.append('{').append(pureElement.key).append('}');
+            }
+            key.append('}');
+            return new PureExpression(key.toString(), array.arrayType, Set.of(), true, true);
+
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to describe a pure literal expression.
+     * @param key The key of the literal.
+     * @param type The type of the literal.
+     * @return The description of the literal.
+     */
+    private static PureExpression literalExpression(String key, Java.Type type) {
+        return new PureExpression(key, type, Set.of(), false, false);
+    }
+
+    /**
+     * Method to obtain the value of a {@link Java.SimpleConstant}.
+     * @param constant The constant to obtain the value of.
+     * @return The value of {@code constant}.
+     */
+    private static Object simpleConstantValue(Java.SimpleConstant constant) {
+        try {
+            return SIMPLE_CONSTANT_VALUE_FIELD.get(constant);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Method to obtain the primitive of a type.
+     * @param type The type to obtain the primitive of.
+     * @return The primitive of {@code type}, or {@code null} if it is not a primitive type.
+     */
+    private static Java.Primitive primitiveOf(Java.Type type) {
+        return type instanceof Java.PrimitiveType primitiveType ? primitiveType.primitive : null;
+    }
+
+    /**
+     * Method to check whether a type is a floating point type.
+     * @param type The type to check.
+     * @return {@code true} iff {@code type} is {@code float} or {@code double}.
+     */
+    private static boolean isFloatingPoint(Java.Type type) {
+        Java.Primitive primitive = primitiveOf(type);
+        return primitive == Java.Primitive.FLOAT || primitive == Java.Primitive.DOUBLE;
+    }
+
+    /**
+     * Method to compute the type resulting from the (unary or binary) numeric promotion of operands.
+     * @param location The location at which the type is requested.
+     * @param lhsType The type of the first operand.
+     * @param rhsType The type of the second operand, or {@code null} for unary numeric promotion.
+     * @return The promoted type, or {@code null} if an operand is not of a numeric type.
+     */
+    private static Java.Type promotedType(Location location, Java.Type lhsType, Java.Type rhsType) {
+        int lhsRank = numericRank(primitiveOf(lhsType));
+        int rhsRank = rhsType == null ? 0 : numericRank(primitiveOf(rhsType));
+        if (lhsRank < 0 || rhsRank < 0)
+            return null;
+
+        return switch (Math.max(lhsRank, rhsRank)) {
+            case 0 -> createPrimitiveType(location, Java.Primitive.INT);
+            case 1 -> createPrimitiveType(location, Java.Primitive.LONG);
+            case 2 -> createPrimitiveType(location, Java.Primitive.FLOAT);
+            default -> createPrimitiveType(location, Java.Primitive.DOUBLE);
+        };
+    }
+
+    /**
+     * Method to obtain the rank of a primitive in numeric promotion.
+     * @param primitive The primitive to obtain the rank of.
+     * @return The rank of {@code primitive}, or -1 if it is not numeric.
+     */
+    private static int numericRank(Java.Primitive primitive) {
+        if (primitive == null)
+            return -1;
+
+        return switch (primitive) {
+            case BYTE, SHORT, CHAR, INT -> 0;
+            case LONG -> 1;
+            case FLOAT -> 2;
+            case DOUBLE -> 3;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Method to check whether an expression can be removed when its value is not used, i.e.
+     * whether it has no side effects beyond possibly throwing an exception on invalid input.
+     * @param rvalue The expression to check.
+     * @return {@code true} iff {@code rvalue} has no side effects.
+     */
+    private static boolean isSideEffectFree(Java.Rvalue rvalue) {
+        if (rvalue instanceof Java.Literal || rvalue instanceof Java.SimpleConstant || rvalue instanceof Java.AmbiguousName) {
+            return true;
+
+        } else if (rvalue instanceof Java.ParenthesizedExpression parenthesised) {
+            return isSideEffectFree(parenthesised.value);
+
+        } else if (rvalue instanceof Java.Cast cast) {
+            return isSideEffectFree(cast.value);
+
+        } else if (rvalue instanceof Java.FieldAccessExpression fieldAccess) {
+            return fieldAccess.lhs instanceof Java.Rvalue lhs && isSideEffectFree(lhs);
+
+        } else if (rvalue instanceof Java.ArrayAccessExpression arrayAccess) {
+            return isSideEffectFree(arrayAccess.lhs) && isSideEffectFree(arrayAccess.index);
+
+        } else if (rvalue instanceof Java.ArrayLength arrayLength) {
+            return isSideEffectFree(arrayLength.lhs);
+
+        } else if (rvalue instanceof Java.UnaryOperation unary) {
+            return isSideEffectFree(unary.operand);
+
+        } else if (rvalue instanceof Java.BinaryOperation binary) {
+            return !binary.operator.equals("/") && !binary.operator.equals("%")
+                    && isSideEffectFree(binary.lhs) && isSideEffectFree(binary.rhs);
+
+        } else if (rvalue instanceof Java.MethodInvocation invocation) {
+            boolean readOnlyMethod = READ_ONLY_METHODS.contains(invocation.methodName)
+                    || (PURE_STATIC_METHODS.contains(invocation.methodName)
+                        && invocation.target instanceof Java.AmbiguousName target
+                        && target.n == 1
+                        && PURE_STATIC_METHOD_CLASSES.contains(target.identifiers[0]));
+            if (!readOnlyMethod || !(invocation.target instanceof Java.Rvalue target) || !isSideEffectFree(target))
+                return false;
+            for (Java.Rvalue argument : invocation.arguments) {
+                if (!isSideEffectFree(argument))
+                    return false;
+            }
+            return true;
+
+        } else if (rvalue instanceof Java.NewInitializedArray array) {
+            for (Java.ArrayInitializerOrRvalue value : array.arrayInitializer.values) {
+                if (!(value instanceof Java.Rvalue element) || !isSideEffectFree(element))
+                    return false;
+            }
+            return true;
+
+        }
+
+        return false;
+    }
+
+    /* ---- Rewrites ---- */
+
+    /**
+     * {@link DeepCopier} which additionally supports copying the {@link Java.SimpleConstant}s
+     * generated for byte array literals.
+     */
+    static class ConstantCopier extends DeepCopier {
+
+        /**
+         * Method to copy a list of statements.
+         * @param statements The statements to copy.
+         * @return The copied statements.
+         * @throws CompileException When a statement cannot be copied.
+         */
+        List<Java.Statement> copyStatements(List<Java.Statement> statements) throws CompileException {
+            List<Java.Statement> copiedStatements = new ArrayList<>(statements.size());
+            for (Java.Statement statement : statements) {
+                Java.BlockStatement copiedStatement = this.copyTopLevelStatement(statement);
+                if (copiedStatement != null)
+                    copiedStatements.add((Java.Statement) copiedStatement);
+            }
+            return copiedStatements;
+        }
+
+        /**
+         * Method to copy a statement of the list passed to {@code copyStatements}.
+         * @param statement The statement to copy.
+         * @return The copied statement, or {@code null} if it should be removed.
+         * @throws CompileException When the statement cannot be copied.
+         */
+        Java.BlockStatement copyTopLevelStatement(Java.Statement statement) throws CompileException {
+            return this.copyBlockStatement(statement);
+        }
+
+        @Override
+        public Java.Rvalue copySimpleLiteral(Java.SimpleConstant subject) {
+            Location location = subject.getLocation();
+            Object value = simpleConstantValue(subject);
+            if (value == null) return new Java.SimpleConstant(location);
+            if (value instanceof Byte b) return new Java.SimpleConstant(location, b);
+            if (value instanceof Short s) return new Java.SimpleConstant(location, s);
+            if (value instanceof Integer i) return new Java.SimpleConstant(location, i);
+            if (value instanceof Long l) return new Java.SimpleConstant(location, l);
+            if (value instanceof Float f) return new Java.SimpleConstant(location, f);
+            if (value instanceof Double d) return new Java.SimpleConstant(location, d);
+            if (value instanceof Character c) return new Java.SimpleConstant(location, c);
+            if (value instanceof Boolean b) return new Java.SimpleConstant(location, b);
+            return new Java.SimpleConstant(location, (String) value);
+        }
+
+    }
+
+    /**
+     * {@link DeepCopier} which removes the declarations of local variables that are never read and
+     * whose initialiser has no side effects.
+     */
+    private static final class DeadLocalEliminator extends ConstantCopier {
+
+        /**
+         * The analysis of the method body being copied.
+         */
+        private final BodyAnalysis analysis;
+
+        /**
+         * Whether any declaration was removed while copying.
+         */
+        boolean removedDeclarations = false;
+
+        /**
+         * Creates a new {@link DeadLocalEliminator} instance.
+         * @param analysis The analysis of the method body to copy.
+         */
+        DeadLocalEliminator(BodyAnalysis analysis) {
+            this.analysis = analysis;
+        }
+
+        @Override
+        Java.BlockStatement copyTopLevelStatement(Java.Statement statement) throws CompileException {
+            if (this.isDeadDeclaration(statement))
+                return null;
+            return super.copyTopLevelStatement(statement);
+        }
+
+        @Override
+        public Java.Block copyBlock(Java.Block b) throws CompileException {
+            Java.Block result = new Java.Block(b.getLocation());
+            for (Java.BlockStatement statement : b.statements) {
+                if (!this.isDeadDeclaration(statement))
+                    result.addStatement(this.copyBlockStatement(statement));
+            }
+            return result;
+        }
+
+        /**
+         * Method to check whether a statement is the declaration of a local variable that can be removed.
+         * @param statement The statement to check.
+         * @return {@code true} iff {@code statement} can be removed.
+         */
+        private boolean isDeadDeclaration(Java.BlockStatement statement) {
+            if (!(statement instanceof Java.LocalVariableDeclarationStatement lvds))
+                return false;
+
+            for (Java.VariableDeclarator declarator : lvds.variableDeclarators) {
+                if (this.analysis.referenceCounts.containsKey(declarator.name))
+                    return false;
+                if (declarator.initializer != null
+                        && !(declarator.initializer instanceof Java.Rvalue initializer && isSideEffectFree(initializer)))
+                    return false;
+            }
+
+            this.removedDeclarations = true;
+            return true;
+        }
+
+    }
+
+    /**
+     * {@link DeepCopier} which hoists loop-invariant pure expressions out of loops and replaces pure
+     * expressions by immutable local variables that are in scope and hold the same value.
+     */
+    private static final class InvariantHoister extends ConstantCopier {
+
+        /**
+         * Class representing a loop which is being copied.
+         */
+        private static final class LoopFrame {
+
+            /**
+             * The names declared within the loop, which are not invariant in the loop.
+             */
+            final Set<String> declaredNames;
+
+            /**
+             * The declarations of the variables holding expressions hoisted out of the loop.
+             */
+            final List<Java.LocalVariableDeclarationStatement> hoistedDeclarations = new ArrayList<>();
+
+            /**
+             * Map from the key of each hoisted expression to the variable holding its value.
+             */
+            final Map<String, String> hoistedVariables = new HashMap<>();
+
+            /**
+             * Creates a new {@link LoopFrame} instance.
+             * @param declaredNames The names declared within the loop.
+             */
+            LoopFrame(Set<String> declaredNames) {
+                this.declaredNames = declaredNames;
+            }
+
+        }
+
+        /**
+         * The analysis of the method body being copied.
+         */
+        private final BodyAnalysis analysis;
+
+        /**
+         * The loops enclosing the statement being copied, from outermost to innermost.
+         */
+        private final List<LoopFrame> loopFrames = new ArrayList<>();
+
+        /**
+         * The scopes enclosing the statement being copied, from outermost to innermost, each mapping
+         * the keys of the pure expressions to the immutable local variables holding their value.
+         */
+        private final List<Map<String, String>> expressionScopes = new ArrayList<>();
+
+        /**
+         * The number of local classes enclosing the statement being copied, which are copied as-is.
+         */
+        private int localClassDepth = 0;
+
+        /**
+         * A labeled loop whose frame was already pushed by its {@link Java.LabeledStatement}.
+         */
+        private Java.BlockStatement labeledLoop = null;
+
+        /**
+         * Creates a new {@link InvariantHoister} instance.
+         * @param analysis The analysis of the method body to copy.
+         */
+        InvariantHoister(BodyAnalysis analysis) {
+            this.analysis = analysis;
+            this.expressionScopes.add(new HashMap<>());
+        }
+
+        /**
+         * Functional interface for the actual copying of a loop.
+         */
+        @FunctionalInterface
+        private interface LoopCopier {
+
+            /**
+             * Method to copy the loop.
+             * @return The copied loop.
+             * @throws CompileException When the loop cannot be copied.
+             */
+            Java.BlockStatement copy() throws CompileException;
+
+        }
+
+        /**
+         * Method to copy a loop (or labeled loop) while tracking it as a {@link LoopFrame}, and to
+         * prepend the declarations of the expressions hoisted out of the loop.
+         * @param loop The loop (or labeled loop) to copy.
+         * @param copier The method that performs the actual copying.
+         * @return The copied loop, wrapped in a block together with the hoisted declarations if any.
+         * @throws CompileException When the loop cannot be copied.
+         */
+        private Java.BlockStatement copyLoop(Java.BlockStatement loop, LoopCopier copier) throws CompileException {
+            if (this.localClassDepth > 0)
+                return copier.copy();
+
+            LoopFrame frame = new LoopFrame(declaredNames(loop));
+            this.loopFrames.add(frame);
+            this.expressionScopes.add(new HashMap<>());
+            Java.BlockStatement copiedLoop;
+            try {
+                copiedLoop = copier.copy();
+            } finally {
+                this.expressionScopes.remove(this.expressionScopes.size() - 1);
+                this.loopFrames.remove(this.loopFrames.size() - 1);
+            }
+
+            if (frame.hoistedDeclarations.isEmpty())
+                return copiedLoop;
+
+            // { [hoisted declarations] [loop] }
+            Java.Block hoistingBlock = new Java.Block(loop.getLocation());
+            frame.hoistedDeclarations.forEach(hoistingBlock::addStatement);
+            hoistingBlock.addStatement(copiedLoop);
+            return hoistingBlock;
+        }
+
+        /**
+         * Method to check whether the loop being copied already has its frame pushed, because it is
+         * the body of a labeled statement.
+         * @param loop The loop being copied.
+         * @return {@code true} iff {@code loop} is the labeled loop being copied.
+         */
+        private boolean isLabeledLoop(Java.BlockStatement loop) {
+            if (this.labeledLoop != loop)
+                return false;
+            this.labeledLoop = null;
+            return true;
+        }
+
+        @Override
+        public Java.BlockStatement copyForStatement(Java.ForStatement fs) throws CompileException {
+            if (this.isLabeledLoop(fs))
+                return super.copyForStatement(fs);
+            return this.copyLoop(fs, () -> super.copyForStatement(fs));
+        }
+
+        @Override
+        public Java.BlockStatement copyForEachStatement(Java.ForEachStatement fes) throws CompileException {
+            if (this.isLabeledLoop(fes))
+                return super.copyForEachStatement(fes);
+            return this.copyLoop(fes, () -> super.copyForEachStatement(fes));
+        }
+
+        @Override
+        public Java.BlockStatement copyWhileStatement(Java.WhileStatement ws) throws CompileException {
+            if (this.isLabeledLoop(ws))
+                return super.copyWhileStatement(ws);
+            return this.copyLoop(ws, () -> super.copyWhileStatement(ws));
+        }
+
+        @Override
+        public Java.BlockStatement copyDoStatement(Java.DoStatement subject) throws CompileException {
+            if (this.isLabeledLoop(subject))
+                return super.copyDoStatement(subject);
+            return this.copyLoop(subject, () -> super.copyDoStatement(subject));
+        }
+
+        @Override
+        public Java.BlockStatement copyLabeledStatement(Java.LabeledStatement ls) throws CompileException {
+            boolean isLoop = ls.body instanceof Java.ForStatement
+                    || ls.body instanceof Java.ForEachStatement
+                    || ls.body instanceof Java.WhileStatement
+                    || ls.body instanceof Java.DoStatement;
+            if (!isLoop || this.localClassDepth > 0)
+                return super.copyLabeledStatement(ls);
+
+            // Hoisted declarations need to precede the labeled statement, so that "continue label" remains valid
+            return this.copyLoop(ls, () -> {
+                this.labeledLoop = ls.body;
+                return super.copyLabeledStatement(ls);
+            });
+        }
+
+        @Override
+        public Java.Block copyBlock(Java.Block b) throws CompileException {
+            this.expressionScopes.add(new HashMap<>());
+            try {
+                return super.copyBlock(b);
+            } finally {
+                this.expressionScopes.remove(this.expressionScopes.size() - 1);
+            }
+        }
+
+        @Override
+        public Java.SwitchStatement.SwitchBlockStatementGroup copySwitchBlockStatementGroup(
+                Java.SwitchStatement.SwitchBlockStatementGroup subject
+        ) throws CompileException {
+            // Variables declared in one group are not definitely assigned in the next group
+            this.expressionScopes.add(new HashMap<>());
+            try {
+                return super.copySwitchBlockStatementGroup(subject);
+            } finally {
+                this.expressionScopes.remove(this.expressionScopes.size() - 1);
+            }
+        }
+
+        @Override
+        public Java.BlockStatement copyLocalClassDeclarationStatement(Java.LocalClassDeclarationStatement subject) throws CompileException {
+            this.localClassDepth++;
+            try {
+                return super.copyLocalClassDeclarationStatement(subject);
+            } finally {
+                this.localClassDepth--;
+            }
+        }
+
+        @Override
+        public Java.Rvalue copyNewAnonymousClassInstance(Java.NewAnonymousClassInstance subject) throws CompileException {
+            this.localClassDepth++;
+            try {
+                return super.copyNewAnonymousClassInstance(subject);
+            } finally {
+                this.localClassDepth--;
+            }
+        }
+
+        @Override
+        public Java.BlockStatement copyLocalVariableDeclarationStatement(Java.LocalVariableDeclarationStatement subject) throws CompileException {
+            Java.BlockStatement result = super.copyLocalVariableDeclarationStatement(subject);
+            if (this.localClassDepth > 0)
+                return result;
+
+            // Record the pure initialisers of immutable variables for later re-use
+            for (Java.VariableDeclarator declarator : subject.variableDeclarators) {
+                if (declarator.brackets != 0
+                        || !(declarator.initializer instanceof Java.Rvalue initializer)
+                        || !this.analysis.isImmutableLocal(declarator.name))
+                    continue;
+
+                PureExpression pureInitializer = analysePure(initializer, this.analysis);
+                if (pureInitializer == null
+                        || !pureInitializer.computes
+                        || pureInitializer.allocates
+                        || pureInitializer.type == null
+                        || !pureInitializer.type.toString().equals(subject.type.toString()))
+                    continue;
+
+                this.expressionScopes.get(this.expressionScopes.size() - 1)
+                        .putIfAbsent(pureInitializer.key, declarator.name);
+            }
+
+            return result;
+        }
+
+        @Override
+        public Java.Rvalue copyRvalue(Java.Rvalue subject) throws CompileException {
+            if (this.localClassDepth > 0)
+                return super.copyRvalue(subject);
+
+            PureExpression pureExpression = analysePure(subject, this.analysis);
+            if (pureExpression == null || !pureExpression.computes)
+                return super.copyRvalue(subject);
+
+            // Re-use an immutable variable in scope that already holds the value
+            if (!pureExpression.allocates) {
+                for (int i = this.expressionScopes.size() - 1; i >= 0; i--) {
+                    String variable = this.expressionScopes.get(i).get(pureExpression.key);
+                    if (variable != null)
+                        return createAmbiguousNameRef(subject.getLocation(), variable);
+                }
+            }
+
+            // Otherwise hoist the expression out of the outermost loop in which it is invariant
+            if (pureExpression.type != null) {
+                for (LoopFrame frame : this.loopFrames) {
+                    boolean isInvariant = true;
+                    for (String local : pureExpression.locals)
+                        isInvariant &= !frame.declaredNames.contains(local);
+
+                    if (isInvariant)
+                        return createAmbiguousNameRef(subject.getLocation(), this.hoist(frame, subject, pureExpression));
+                }
+            }
+
+            return super.copyRvalue(subject);
+        }
+
+        /**
+         * Method to hoist an expression out of a loop.
+         * @param frame The frame of the loop to hoist the expression out of.
+         * @param subject The expression to hoist.
+         * @param pureExpression The description of {@code subject}.
+         * @return The name of the variable holding the value of {@code subject}.
+         * @throws CompileException When {@code subject} cannot be copied.
+         */
+        private String hoist(LoopFrame frame, Java.Rvalue subject, PureExpression pureExpression) throws CompileException {
+            String variable = frame.hoistedVariables.get(pureExpression.key);
+            if (variable != null)
+                return variable;
+
+            // [type] [variable] = [subject];
+            variable = this.analysis.freshIdentifier(HOISTED_VARIABLE_BASE_NAME);
+            ConstantCopier plainCopier = new ConstantCopier();
+            frame.hoistedDeclarations.add(createLocalVariable(
+                    subject.getLocation(),
+                    plainCopier.copyType(pureExpression.type),
+                    variable,
+                    plainCopier.copyRvalue(subject)
+            ));
+            frame.hoistedVariables.put(pureExpression.key, variable);
+            return variable;
+        }
+
+    }
+
+}
@@ -3,6 +3,10 @@ package AethraDB.evaluation.codegen.infrastructure.janino;
 import org.codehaus.commons.compiler.Location;
 import org.codehaus.janino.Java;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createIntegerLiteral;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
 
 /**
@@ -107,4 +111,57 @@ public class JaninoControlGen {
         );
     }
 
+    /**
+     * Method for creating a labelled statement, which can be the target of a labelled break.
+     * @param location The location at which the labelled statement is requested for generation.
+     * @param label The label to attach to the statement.
+     * @param body The statement to label.
+     * @return The labelled statement.
+     */
+    public static Java.LabeledStatement createLabeledStatement(
+            Location location,
+            String label,
+            Java.Statement body
+    ) {
+        return new Java.LabeledStatement(location, label, body);
+    }
+
+    /**
+     * Method for creating a "break label;" statement.
+     * @param location The location at which the statement is requested for generation.
+     * @param label The label of the statement to break out of.
+     * @return The generated statement.
+     */
+    public static Java.BreakStatement createBreak(Location location, String label) {
+        return new Java.BreakStatement(location, label);
+    }
+
+    /**
+     * Method for creating a "switch (selector) { case 0: { [bodies[0]] } break; ... }" statement,
+     * in which case {@code i} executes the statements in {@code caseBodies.get(i)}.
+     * @param location The location at which the statement is requested for generation.
+     * @param selector The value to switch on.
+     * @param caseBodies The statements to execute for each value of {@code selector}.
+     * @return The generated statement.
+     */
+    public static Java.SwitchStatement createSwitch(
+            Location location,
+            Java.Rvalue selector,
+            List<List<Java.Statement>> caseBodies
+    ) {
+        List<Java.SwitchStatement.SwitchBlockStatementGroup> caseGroups = new ArrayList<>(caseBodies.size());
+        for (int i = 0; i < caseBodies.size(); i++) {
+            Java.Block caseBlock = new Java.Block(location);
+            caseBlock.addStatements(caseBodies.get(i));
+            caseGroups.add(new Java.SwitchStatement.SwitchBlockStatementGroup(
+                    location,
+                    List.of(createIntegerLiteral(location, i)),
+                    false,
+                    List.of(caseBlock, createBreak(location, null))
+            ));
+        }
+
+        return new Java.SwitchStatement(location, selector, caseGroups);
+    }
+
 }
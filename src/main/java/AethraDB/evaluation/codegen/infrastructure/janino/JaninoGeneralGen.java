@@ -263,6 +263,7 @@ public class JaninoGeneralGen {
 
         for (int i = 0; i < values.length; i++) {
             initialRValues[i] = switch (type) {
+                case BOOLEAN -> new Java.BooleanLiteral(location, values[i]);
                 case INT -> JaninoGeneralGen.createIntegerLiteral(location, values[i]);
                 case FLOAT, DOUBLE -> JaninoGeneralGen.createFloatingPointLiteral(location, values[i]);
                 default -> throw new UnsupportedOperationException("The current primitive is not supported for array initialiser generation");
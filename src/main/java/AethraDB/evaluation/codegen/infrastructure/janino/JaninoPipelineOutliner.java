@@ -0,0 +1,437 @@
+package AethraDB.evaluation.codegen.infrastructure.janino;
+
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.janino.Access;
+import org.codehaus.janino.Java;
+import org.codehaus.janino.util.DeepCopier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createPrimitiveType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
+
+/**
+ * Class which splits a generated method body into separate methods per pipeline. The operators
+ * generate all code of a query into a single method, which for plans containing multiple joins
+ * easily exceeds the bytecode size limit up to which HotSpot is willing to JIT-compile a method.
+ * Such a method is then executed by the interpreter, or at best via on-stack replacement of its
+ * loops. By moving each pipeline into its own private method, every hot loop ends up in a method
+ * that the JIT compiles (and inlines into) normally.
+ *
+ * A pipeline is identified as a sequence of top-level statements that ends with a top-level loop,
+ * as each operator that produces records wraps its consumers in such a loop. The top-level local
+ * classes (i.e. the generated map types) are turned into member classes of the generated class and
+ * top-level local variables which are used by multiple pipelines are turned into its fields.
+ * Each pipeline method copies the fields it uses into local variables on entry, so that its loops
+ * only access local variables, and writes back the variables it defines or assigns before returning
+ * when a later pipeline uses them.
+ */
+public class JaninoPipelineOutliner {
+
+    /**
+     * The system property which can be used to disable the outlining of pipelines.
+     */
+    public static final String OUTLINING_PROPERTY = "aethradb.outline_pipelines";
+
+    /**
+     * Whether pipelines should be outlined into separate methods.
+     */
+    public static final boolean OUTLINING_ENABLED = determineOutliningEnabled();
+
+    /**
+     * The base name of the methods that the pipelines are outlined into.
+     */
+    private static final String PIPELINE_METHOD_BASE_NAME = "executePipeline";
+
+    /**
+     * Prevent this class from being instantiated.
+     */
+    private JaninoPipelineOutliner() {
+
+    }
+
+    /**
+     * Method to determine whether pipelines should be outlined from the system properties.
+     * @return {@code false} iff the {@code OUTLINING_PROPERTY} is set to {@code false}.
+     */
+    private static boolean determineOutliningEnabled() {
+        return Boolean.parseBoolean(System.getProperty(OUTLINING_PROPERTY, "true"));
+    }
+
+    /**
+     * Method to outline the pipelines of a generated method body into separate methods.
+     * @param targetClazz The class to which the pipeline methods and the fields they share should be added.
+     * @param methodBody The statements to outline, which should not be part of a method yet.
+     * @param exceptions The exceptions that the statements of {@code methodBody} may throw.
+     * @return The statements which replace {@code methodBody}, or {@code methodBody} itself if it
+     * consists of a single pipeline or contains constructs which cannot be outlined.
+     * @throws CompileException When the types of the shared variables cannot be copied.
+     */
+    public static List<Java.Statement> outline(
+            Java.NamedClassDeclaration targetClazz,
+            List<Java.Statement> methodBody,
+            Java.Type[] exceptions
+    ) throws CompileException {
+        // Partition the statements into pipelines, each ending with a top-level loop, while setting
+        // aside the top-level local classes
+        DeepCopier copier = new JaninoCodeOptimiser.ConstantCopier();
+        List<Java.LocalClassDeclaration> localClasses = new ArrayList<>();
+        List<List<Java.Statement>> pipelines = new ArrayList<>();
+        List<Java.Statement> currentPipeline = new ArrayList<>();
+        for (Java.Statement statement : flattenHoistingBlocks(methodBody, copier)) {
+            if (statement instanceof Java.LocalClassDeclarationStatement lcds) {
+                localClasses.add(lcds.lcd);
+                continue;
+            }
+
+            currentPipeline.add(statement);
+            if (isLoop(statement)) {
+                pipelines.add(currentPipeline);
+                currentPipeline = new ArrayList<>();
+            }
+        }
+        if (!currentPipeline.isEmpty())
+            pipelines.add(currentPipeline);
+
+        if (pipelines.size() < 2)
+            return methodBody;
+
+        // Analyse the variables that each pipeline declares, uses and assigns
+        Map<String, Java.Type> topLevelTypes = new HashMap<>();
+        Map<String, Integer> declaringPipelines = new LinkedHashMap<>();
+        List<PipelineAnalysis> analyses = new ArrayList<>(pipelines.size());
+        for (int p = 0; p < pipelines.size(); p++) {
+            for (Java.Statement statement : pipelines.get(p)) {
+                if (!(statement instanceof Java.LocalVariableDeclarationStatement lvds))
+                    continue;
+
+                for (Java.VariableDeclarator declarator : lvds.variableDeclarators) {
+                    if (declarator.brackets != 0)
+                        return methodBody;
+                    topLevelTypes.put(declarator.name, lvds.type);
+                    declaringPipelines.put(declarator.name, p);
+                }
+            }
+
+            PipelineAnalysis analysis = new PipelineAnalysis(pipelines.get(p));
+            if (analysis.containsUnsupportedConstructs)
+                return methodBody;
+            analyses.add(analysis);
+        }
+
+        // Determine the top-level variables shared between pipelines, in declaration order
+        Map<String, Integer> sharedVariables = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> declaration : declaringPipelines.entrySet()) {
+            for (int p = 0; p < analyses.size(); p++) {
+                if (p != declaration.getValue() && analyses.get(p).referencedNames.contains(declaration.getKey())) {
+                    sharedVariables.put(declaration.getKey(), declaration.getValue());
+                    break;
+                }
+            }
+        }
+
+        // Turn the local classes into member classes
+        for (Java.LocalClassDeclaration localClass : localClasses)
+            targetClazz.addMemberTypeDeclaration(toMemberClass(localClass, copier));
+
+        // Introduce a field for each shared variable
+        // private [type] [variable];
+        for (String variable : sharedVariables.keySet()) {
+            targetClazz.addFieldDeclaration(
+                    JaninoClassGen.createPrivateFieldDeclaration(
+                            getLocation(),
+                            copier.copyType(topLevelTypes.get(variable)),
+                            new Java.VariableDeclarator(getLocation(), variable, 0, null)
+                    )
+            );
+        }
+
+        // Generate a method per pipeline and replace the statements by invocations of these methods
+        List<Java.Statement> outlinedBody = new ArrayList<>(pipelines.size());
+        for (int p = 0; p < pipelines.size(); p++) {
+            PipelineAnalysis analysis = analyses.get(p);
+            List<Java.Statement> pipelineMethodBody = new ArrayList<>();
+
+            // [type] [variable] = this.[variable];
+            for (Map.Entry<String, Integer> sharedVariable : sharedVariables.entrySet()) {
+                String variable = sharedVariable.getKey();
+                if (sharedVariable.getValue() != p && analysis.referencedNames.contains(variable)) {
+                    pipelineMethodBody.add(
+                            createLocalVariable(
+                                    getLocation(),
+                                    copier.copyType(topLevelTypes.get(variable)),
+                                    variable,
+                                    createThisFieldAccess(variable)
+                            )
+                    );
+                }
+            }
+
+            pipelineMethodBody.addAll(pipelines.get(p));
+
+            // this.[variable] = [variable];
+            for (Map.Entry<String, Integer> sharedVariable : sharedVariables.entrySet()) {
+                String variable = sharedVariable.getKey();
+                boolean definedInPipeline = sharedVariable.getValue() == p || analysis.assignedNames.contains(variable);
+                if (definedInPipeline && isReferencedAfter(analyses, p, variable)) {
+                    pipelineMethodBody.add(
+                            createVariableAssignmentStm(
+                                    getLocation(),
+                                    createThisFieldAccess(variable),
+                                    createAmbiguousNameRef(getLocation(), variable)
+                            )
+                    );
+                }
+            }
+
+            // private void executePipeline_[p]() throws [exceptions] { [pipelineMethodBody] }
+            String pipelineMethodName = PIPELINE_METHOD_BASE_NAME + "_" + p;
+            Java.Type[] pipelineMethodExceptions = new Java.Type[exceptions.length];
+            for (int i = 0; i < exceptions.length; i++)
+                pipelineMethodExceptions[i] = copier.copyType(exceptions[i]);
+
+            JaninoMethodGen.createMethod(
+                    getLocation(),
+                    targetClazz,
+                    Access.PRIVATE,
+                    createPrimitiveType(getLocation(), Java.Primitive.VOID),
+                    pipelineMethodName,
+                    new Java.FunctionDeclarator.FormalParameters(getLocation()),
+                    pipelineMethodExceptions,
+                    pipelineMethodBody
+            );
+
+            // executePipeline_[p]();
+            outlinedBody.add(createMethodInvocationStm(getLocation(), null, pipelineMethodName));
+        }
+
+        return outlinedBody;
+    }
+
+    /**
+     * Method to convert a local class declaration into an equivalent member class declaration.
+     * @param localClass The local class to convert, which should not capture any local variables.
+     * @param copier The {@link DeepCopier} to copy the members of {@code localClass} with.
+     * @return The {@link Java.MemberClassDeclaration} corresponding to {@code localClass}.
+     * @throws CompileException When a member of {@code localClass} cannot be copied.
+     */
+    private static Java.MemberClassDeclaration toMemberClass(
+            Java.LocalClassDeclaration localClass,
+            DeepCopier copier
+    ) throws CompileException {
+        Java.Type[] implementedTypes = new Java.Type[localClass.implementedTypes.length];
+        for (int i = 0; i < implementedTypes.length; i++)
+            implementedTypes[i] = copier.copyType(localClass.implementedTypes[i]);
+
+        Java.MemberClassDeclaration memberClass = new Java.MemberClassDeclaration(
+                localClass.getLocation(),
+                null,
+                localClass.getModifiers(),
+                localClass.name,
+                localClass.getOptionalTypeParameters(),
+                localClass.extendedType == null ? null : copier.copyType(localClass.extendedType),
+                implementedTypes
+        );
+
+        for (Java.MemberTypeDeclaration memberType : localClass.getMemberTypeDeclarations())
+            memberClass.addMemberTypeDeclaration(copier.copyMemberTypeDeclaration(memberType));
+        for (Java.FieldDeclarationOrInitializer fieldOrInitialiser : localClass.fieldDeclarationsAndInitializers)
+            memberClass.addFieldDeclarationOrInitializer(copier.copyFieldDeclarationOrInitializer(fieldOrInitialiser));
+        for (Java.ConstructorDeclarator constructor : localClass.constructors)
+            memberClass.addConstructor(copier.copyConstructorDeclarator(constructor));
+        for (Java.MethodDeclarator method : localClass.getMethodDeclarations())
+            memberClass.addDeclaredMethod(copier.copyMethodDeclarator(method));
+
+        return memberClass;
+    }
+
+    /**
+     * Method to replace each top-level block that ends with a loop by copies of its statements. The
+     * {@link JaninoCodeOptimiser} wraps a loop in such a block together with the declarations of the
+     * expressions it hoisted out of the loop. Flattening the block makes the loop end a pipeline
+     * again, while the hoisted declarations become top-level variables of that pipeline (which are
+     * shared with other pipelines like any other top-level variable). As the optimiser gives each
+     * hoisted variable a fresh name, flattening cannot introduce name clashes.
+     * @param methodBody The statements to flatten.
+     * @param copier The {@link DeepCopier} to copy the statements of the flattened blocks with, as
+     *               these already have the block as their enclosing scope.
+     * @return The flattened statements.
+     * @throws CompileException When a statement of a flattened block cannot be copied.
+     */
+    private static List<Java.Statement> flattenHoistingBlocks(
+            List<Java.Statement> methodBody,
+            DeepCopier copier
+    ) throws CompileException {
+        List<Java.Statement> flattenedBody = new ArrayList<>(methodBody.size());
+        for (Java.Statement statement : methodBody) {
+            if (!(statement instanceof Java.Block block) || !isHoistingBlock(block)) {
+                flattenedBody.add(statement);
+                continue;
+            }
+
+            for (Java.BlockStatement blockStatement : block.statements)
+                flattenedBody.add(copier.copyStatement((Java.Statement) blockStatement));
+        }
+        return flattenedBody;
+    }
+
+    /**
+     * Method to check whether a block consists of statements only and ends with a loop.
+     * @param block The block to check.
+     * @return {@code true} iff {@code block} can be flattened into the pipeline it ends.
+     */
+    private static boolean isHoistingBlock(Java.Block block) {
+        if (block.statements.isEmpty())
+            return false;
+
+        for (Java.BlockStatement blockStatement : block.statements) {
+            if (!(blockStatement instanceof Java.Statement))
+                return false;
+        }
+
+        return isLoop((Java.Statement) block.statements.get(block.statements.size() - 1));
+    }
+
+    /**
+     * Method to check whether a top-level statement is a loop, which ends a pipeline.
+     * @param statement The statement to check.
+     * @return {@code true} iff {@code statement} is a (possibly labeled) loop.
+     */
+    private static boolean isLoop(Java.Statement statement) {
+        if (statement instanceof Java.LabeledStatement labeledStatement)
+            return isLoop(labeledStatement.body);
+
+        return statement instanceof Java.WhileStatement
+                || statement instanceof Java.DoStatement
+                || statement instanceof Java.ForStatement
+                || statement instanceof Java.ForEachStatement;
+    }
+
+    /**
+     * Method to check whether a variable is used by a pipeline after a given pipeline.
+     * @param analyses The analyses of the pipelines.
+     * @param pipeline The index of the pipeline after which to check.
+     * @param variable The variable to check.
+     * @return {@code true} iff a pipeline after {@code pipeline} references {@code variable}.
+     */
+    private static boolean isReferencedAfter(List<PipelineAnalysis> analyses, int pipeline, String variable) {
+        for (int p = pipeline + 1; p < analyses.size(); p++) {
+            if (analyses.get(p).referencedNames.contains(variable))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Method to create an access to a field of the generated class that is shadowed by a local variable.
+     * @param fieldName The name of the field to access.
+     * @return The {@link Java.FieldAccessExpression} representing {@code this.[fieldName]}.
+     */
+    private static Java.FieldAccessExpression createThisFieldAccess(String fieldName) {
+        return new Java.FieldAccessExpression(getLocation(), new Java.ThisReference(getLocation()), fieldName);
+    }
+
+    /**
+     * Class which collects the names that a pipeline references and assigns. As the analysis is
+     * name-based, it relies on the generated code using unique names for its top-level variables.
+     */
+    private static final class PipelineAnalysis extends JaninoCodeOptimiser.InitialiserTraverser {
+
+        /**
+         * The identifiers used as the first identifier of a name in the pipeline.
+         */
+        final Set<String> referencedNames = new HashSet<>();
+
+        /**
+         * The names of the variables that the pipeline may assign.
+         */
+        final Set<String> assignedNames = new HashSet<>();
+
+        /**
+         * Whether the pipeline contains constructs that prevent it from being moved into a separate
+         * method: return statements would return from the wrong method, while the bodies of lambdas
+         * and the variables captured by nested local and anonymous classes are not analysed.
+         */
+        boolean containsUnsupportedConstructs = false;
+
+        /**
+         * Creates a new {@link PipelineAnalysis} instance for the statements of a pipeline.
+         * @param pipeline The statements to analyse.
+         */
+        PipelineAnalysis(List<Java.Statement> pipeline) {
+            for (Java.Statement statement : pipeline)
+                this.visitBlockStatement(statement);
+        }
+
+        @Override
+        public void traverseAmbiguousName(Java.AmbiguousName an) {
+            this.referencedNames.add(an.identifiers[0]);
+            super.traverseAmbiguousName(an);
+        }
+
+        @Override
+        public void traverseAssignment(Java.Assignment a) {
+            this.recordAssignment(a.lhs);
+            super.traverseAssignment(a);
+        }
+
+        @Override
+        public void traverseCrement(Java.Crement c) {
+            this.recordAssignment(c.operand);
+            super.traverseCrement(c);
+        }
+
+        @Override
+        public void traverseReturnStatement(Java.ReturnStatement rs) {
+            this.containsUnsupportedConstructs = true;
+            super.traverseReturnStatement(rs);
+        }
+
+        @Override
+        public void traverseLambdaExpression(Java.LambdaExpression le) {
+            this.containsUnsupportedConstructs = true;
+            super.traverseLambdaExpression(le);
+        }
+
+        @Override
+        public void traverseMethodReference(Java.MethodReference mr) {
+            this.containsUnsupportedConstructs = true;
+            super.traverseMethodReference(mr);
+        }
+
+        @Override
+        public void traverseLocalClassDeclarationStatement(Java.LocalClassDeclarationStatement lcds) {
+            this.containsUnsupportedConstructs = true;
+            super.traverseLocalClassDeclarationStatement(lcds);
+        }
+
+        @Override
+        public void traverseNewAnonymousClassInstance(Java.NewAnonymousClassInstance naci) {
+            this.containsUnsupportedConstructs = true;
+            super.traverseNewAnonymousClassInstance(naci);
+        }
+
+        /**
+         * Method to record that a variable may be assigned.
+         * @param lhs The left-hand side of the assignment.
+         */
+        private void recordAssignment(Java.Lvalue lhs) {
+            if (lhs instanceof Java.AmbiguousName name && name.n == 1)
+                this.assignedNames.add(name.identifiers[0]);
+            else if (lhs instanceof Java.ParenthesizedExpression parenthesised && parenthesised.value instanceof Java.Lvalue inner)
+                this.recordAssignment(inner);
+        }
+
+    }
+
+}
@@ -11,9 +11,11 @@ import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVecto
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithSelectionVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithValidityMaskAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.DictionaryEncodedArrowVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.IndexedArrowVectorElementAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.MapAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.data.PartitionedSpillFile;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen;
@@ -32,6 +34,8 @@ import java.util.List;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARRAY_DOUBLE_VECTOR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARRAY_INT_VECTOR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARRAY_INT_VECTOR_W_SELECTION_VECTOR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARRAY_LONG_VECTOR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARRAY_VARCHAR_VECTOR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARROW_DOUBLE_VECTOR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.ARROW_DOUBLE_VECTOR_W_SELECTION_VECTOR;
@@ -42,8 +46,15 @@ import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTy
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_DOUBLE;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_LONG;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.SEGMENT_DOUBLE_VECTOR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.SEGMENT_INT_VECTOR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.SEGMENT_INT_VECTOR_W_SELECTION_VECTOR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.SEGMENT_LONG_VECTOR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.S_A_VARCHAR;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.S_VARCHAR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.isSegmentVector;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.memberTypeForArrowVector;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.primitiveArrayTypeForPrimitive;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.primitiveType;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
@@ -57,10 +68,16 @@ import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGe
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createPrimitiveLocalVar;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAdditionAssignmentStm;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
-import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableXorAssignmentStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMapInstantiationArguments;
 
 /**
  * A {@link CodeGenOperator} which computes some aggregation function over the records.
+ * When a spill memory budget is configured, a group-by aggregation in the non-vectorised paradigm
+ * aggregates in memory until its aggregation map can no longer grow within the budget. It then
+ * hash-partitions the groups aggregated so far and the remaining input to disk on their key, after
+ * which each partition is aggregated in memory.
+ * In the non-vectorised paradigm, dictionary-encoded group-by keys are aggregated on their int codes
+ * and only decoded when the groups are exposed to the parent operator.
  */
 public class AggregationOperator extends CodeGenOperator {
 
@@ -87,6 +104,19 @@ public class AggregationOperator extends CodeGenOperator {
      */
     private QueryVariableType[] groupByKeyColumnsTypes;
 
+    /**
+     * The dictionary-encoded column whose codes are used as each group-by key column, or null for
+     * group-by key columns that are not dictionary-encoded. Note that this value will only be set
+     * after the {@code declareAggregationState} method has been invoked.
+     */
+    private DictionaryEncodedArrowVectorAccessPath[] groupByKeyDictionaries;
+
+    /**
+     * Whether {@code this} is generating code in the non-vectorised paradigm, which is the only
+     * paradigm in which dictionary-encoded group-by keys are aggregated on their codes.
+     */
+    private boolean producingNonVec;
+
     /**
      * Stores the {@link AccessPath} to the aggregation state variable(s).
      * For a group-by aggregation, there will be 1 aggregation state variable, while there will be
@@ -130,6 +160,41 @@ public class AggregationOperator extends CodeGenOperator {
      */
     private ArrayAccessPath groupKeyPreHashVector = null;
 
+    /**
+     * Whether the group-by aggregation can switch to spilling its input to disk and aggregating
+     * it one partition at a time once its aggregation map can no longer grow within the budget.
+     */
+    private boolean spillToDisk;
+
+    /**
+     * The name of the {@link PartitionedSpillFile} variable for the input records when spilling.
+     */
+    private String spillFileName;
+
+    /**
+     * The name of the variable indicating whether the aggregation has switched to spilling.
+     */
+    private String spillingName;
+
+    /**
+     * The name of the variable counting the records since the aggregation started checking
+     * whether it should switch to spilling.
+     */
+    private String spillCheckName;
+
+    /**
+     * The column types of the spilled records, which consist of the group-by key columns, followed
+     * by the (partial) sum of each SUM aggregation and, if the aggregation contains a COUNT, the
+     * number of input records that the spilled record represents.
+     */
+    private QueryVariableType[] spillColumnTypes;
+
+    /**
+     * The index of the spilled column containing the number of input records that a spilled
+     * record represents, or -1 if the aggregation does not contain a COUNT.
+     */
+    private int spillCountColumn;
+
     /**
      * Create a {@link AggregationOperator} instance for a specific sub-query.
      * @param child The {@link CodeGenOperator} producing the records to be aggregated.
@@ -205,6 +270,15 @@ public class AggregationOperator extends CodeGenOperator {
     @Override
     public List<Java.Statement> produceNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
         List<Java.Statement> codeGenResult;
+        this.producingNonVec = true;
+
+        // Check whether a group-by aggregation may spill its input to disk and reserve the names of its spill state
+        this.spillToDisk = this.groupByAggregation && cCtx.getSpillMemoryBudget() > 0;
+        if (this.spillToDisk) {
+            this.spillFileName = cCtx.claimGlobalVariableName("aggregation_spill");
+            this.spillingName = cCtx.claimGlobalVariableName("aggregation_spilling");
+            this.spillCheckName = cCtx.claimGlobalVariableName("aggregation_spill_check");
+        }
 
         // Store the context and continue production in the child operator, so that eventually this
         // operator's consumeNonVec method is invoked, which will declare the aggregation states
@@ -214,8 +288,21 @@ public class AggregationOperator extends CodeGenOperator {
 
         // Add the aggregation state variable definitions before the codegen result
         codeGenResult = initialiseAggregationStates();
+        if (this.spillToDisk) {
+            codeGenResult.add(createSpillFileDeclaration(this.spillFileName, "aggregation", this.spillColumnTypes));
+            codeGenResult.addAll(createSpillStateDeclarations(this.spillingName, this.spillCheckName));
+        }
         codeGenResult.addAll(childProductionResult);
 
+        // Record the statistics of the aggregation map and time the pipeline exposing the result, if profiling
+        if (this.groupByAggregation && !this.spillToDisk)
+            this.profileHashTable(cCtx, codeGenResult, ((MapAccessPath) this.aggregationStateVariables[0]).read());
+        int outputPipelineStart = codeGenResult.size();
+
+        // When the aggregation may spill, the groups are exposed one partition at a time, where the
+        // groups aggregated in memory form the only partition if the aggregation did not spill
+        Java.Block partitionLoopBody = this.spillToDisk ? this.aggregateSpilledPartitionsNonVec(cCtx, codeGenResult) : null;
+
         // Expose the result of this operator to its parent as a new "scan" (since aggregation is blocking)
         // Exposure way depends on whether we are dealing with a group-by aggregation and the aggregation function
         if (!this.groupByAggregation) {
@@ -256,7 +343,7 @@ public class AggregationOperator extends CodeGenOperator {
             // Now generate a while loop to iterate over the keys
             // for (int key_i = 0; i < [numberOfKeys]; key_i++) { [forLoopBody] }
             Java.Block forLoopBody = createBlock(JaninoGeneralGen.getLocation());
-            codeGenResult.add(
+            Java.Statement keyIterationLoop =
                     JaninoControlGen.createForLoop(
                             JaninoGeneralGen.getLocation(),
                             createLocalVariable(
@@ -268,8 +355,11 @@ public class AggregationOperator extends CodeGenOperator {
                             JaninoOperatorGen.lt(JaninoGeneralGen.getLocation(), keyIterationIndexVariable.read(), numberOfKeys),
                             JaninoOperatorGen.postIncrement(JaninoGeneralGen.getLocation(), keyIterationIndexVariable.write()),
                             forLoopBody
-                    )
-            );
+                    );
+            if (this.spillToDisk)
+                partitionLoopBody.addStatement(keyIterationLoop);
+            else
+                codeGenResult.add(keyIterationLoop);
 
             // Generate the value exposure within the forLoopBody and update the ordinal mapping
             // Currently, this operator only supports exposing the result in a non-SIMD fashion.
@@ -281,7 +371,7 @@ public class AggregationOperator extends CodeGenOperator {
             // Simply expose each record as a set of scalar variables
             // First expose the group-by key values
             // MapType.RecordType currentRecord = [this.aggregationStateVariable.read()].recordsArray[key_i];
-            // [groupKey_j] = currentRecord.[this.aggregationMapGenerator.keyFieldNames[j]];
+            // [groupKey_j] = [read of key j from currentRecord];
             String currentRecord = cCtx.defineVariable("currentRecord");
             forLoopBody.addStatement(
                     createLocalVariable(
@@ -309,20 +399,31 @@ public class AggregationOperator extends CodeGenOperator {
             );
 
             for (int j = 0; j < this.groupByKeyColumnIndices.length; j++) {
+                DictionaryEncodedArrowVectorAccessPath keyDictionary = this.groupByKeyDictionaries[j];
                 ScalarVariableAccessPath groupKeyAP = new ScalarVariableAccessPath(
                         cCtx.defineVariable("groupKey_" + j),
-                        this.groupByKeyColumnsTypes[j]);
+                        (keyDictionary == null)
+                                ? this.groupByKeyColumnsTypes[j]
+                                : memberTypeForArrowVector(keyDictionary.getValueType()));
+
+                // Decode dictionary-encoded keys: [groupKey_j] = [dictionaryValues][currentRecord.key_ord_j];
+                Java.Rvalue groupKeyValue = this.aggregationMapGenerator.createKeyFieldRead(currentRecord, j);
+                if (keyDictionary != null) {
+                    groupKeyValue = JaninoGeneralGen.createArrayElementAccessExpr(
+                            JaninoGeneralGen.getLocation(),
+                            JaninoGeneralGen.createAmbiguousNameRef(
+                                    JaninoGeneralGen.getLocation(),
+                                    this.getDictionaryValuesVariable(cCtx, keyDictionary)),
+                            groupKeyValue
+                    );
+                }
 
                 forLoopBody.addStatement(
                         createLocalVariable(
                                 JaninoGeneralGen.getLocation(),
                                 toJavaType(JaninoGeneralGen.getLocation(), groupKeyAP.getType()),
                                 groupKeyAP.getVariableName(),
-                                new Java.FieldAccessExpression(
-                                        JaninoGeneralGen.getLocation(),
-                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), currentRecord),
-                                        this.aggregationMapGenerator.keyFieldNames[j]
-                                )
+                                groupKeyValue
                         )
                 );
                 newOrdinalMapping.add(currentOrdinalIndex++, groupKeyAP);
@@ -366,9 +467,32 @@ public class AggregationOperator extends CodeGenOperator {
             forLoopBody.addStatements(this.nonVecParentConsume(cCtx, oCtx));
         }
 
+        this.instrumentPipeline(cCtx, codeGenResult, outputPipelineStart);
         return codeGenResult;
     }
 
+    @Override
+    protected boolean consumesDictionaryCodes(int ordinalIndex) {
+        // Dictionary-encoded group-by keys are aggregated on their codes in the non-vectorised paradigm,
+        // as long as the column is not also aggregated itself
+        if (!this.groupByAggregation || !this.producingNonVec)
+            return false;
+
+        for (int[] inputOrdinals : this.aggregationFunctionInputOrdinals) {
+            for (int inputOrdinal : inputOrdinals) {
+                if (inputOrdinal == ordinalIndex)
+                    return false;
+            }
+        }
+
+        for (int keyOrdinal : this.groupByKeyColumnIndices) {
+            if (keyOrdinal == ordinalIndex)
+                return true;
+        }
+
+        return false;
+    }
+
     @Override
     public List<Java.Statement> consumeNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
         List<Java.Statement> codeGenResult = new ArrayList<>();
@@ -431,7 +555,7 @@ public class AggregationOperator extends CodeGenOperator {
                                     createVariableAdditionAssignmentStm(
                                             JaninoGeneralGen.getLocation(),
                                             ((ScalarVariableAccessPath) this.aggregationStateVariables[i]).write(),
-                                            iaveap.readGeneric() // Read generic is applicable since this case will only occur for numeric columns
+                                            iaveap.readPrimitive() // Read primitive is applicable since this case will only occur for numeric columns
                                     ));
 
                         } else {
@@ -445,108 +569,554 @@ public class AggregationOperator extends CodeGenOperator {
                 }
 
             }
+        } else if (this.spillToDisk) { // Group-by processing which may switch to partitioning the records to disk
+            codeGenResult.addAll(this.consumeNonVecSpillable(cCtx));
+
         } else { // Group-by processing
-            // Idea: first perform the hashing of the key-columns, then perform the hash map maintenance
-            AccessPath[] keyColumnAccessPaths;
-            ScalarVariableAccessPath keyColumnPreHashAccessPath;
-            Java.Rvalue[] aggregationValues = new Java.Rvalue[this.aggregationFunctions.length];
-            Java.Block hashMapMaintenanceTarget;
-
-            // Ensure we have "local" access paths for the key column values
-            Java.Rvalue[] keyColumnRValues = new Java.Rvalue[this.groupByKeyColumnIndices.length];
-            keyColumnAccessPaths = new AccessPath[keyColumnRValues.length];
-            for (int i = 0; i < keyColumnRValues.length; i++) {
-                keyColumnRValues[i] = getRValueFromOrdinalAccessPathNonVec(cCtx, this.groupByKeyColumnIndices[i], codeGenResult);
-                keyColumnAccessPaths[i] = cCtx.getCurrentOrdinalMapping().get(this.groupByKeyColumnIndices[i]);
-            }
+            ScalarVariableAccessPath keyColumnPreHashAccessPath =
+                    this.computeGroupKeyPreHashNonVec(cCtx, this.groupByKeyColumnIndices, codeGenResult);
+            this.updateAggregationMapNonVec(
+                    cCtx,
+                    this.groupByKeyColumnIndices,
+                    keyColumnPreHashAccessPath,
+                    this.aggregationFunctionInputOrdinals,
+                    -1,
+                    codeGenResult
+            );
+        }
+
+        // Do not consume parent operator here, but in the produce method since the aggregation is a blocking operator
+        return codeGenResult;
+    }
 
-            // Now compute the pre-hash value in a local variable
-            keyColumnPreHashAccessPath =
-                    new ScalarVariableAccessPath(cCtx.defineVariable("group_key_pre_hash"), P_LONG);
-            for (int i = 0; i < keyColumnRValues.length; i++) {
+    /**
+     * Method for generating the code that updates the aggregation map with the current record in
+     * the non-vectorised paradigm, for a group-by aggregation.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param keyOrdinals The ordinals of the group-by key columns in the current ordinal mapping,
+     *                    which should already be exposed as local variables.
+     * @param keyColumnPreHashAccessPath The access path to the pre-hash value of the group-by key.
+     * @param inputOrdinals The ordinals of the input columns of each aggregation function in the
+     *                      current ordinal mapping.
+     * @param countOrdinal The ordinal of the number of records represented by the current record
+     *                     in the current ordinal mapping, or -1 if it represents a single record.
+     * @param codeGenResult The list of statements to which the generated code should be added.
+     */
+    private void updateAggregationMapNonVec(
+            CodeGenContext cCtx,
+            int[] keyOrdinals,
+            ScalarVariableAccessPath keyColumnPreHashAccessPath,
+            int[][] inputOrdinals,
+            int countOrdinal,
+            List<Java.Statement> codeGenResult
+    ) {
+        Java.Rvalue[] aggregationValues = new Java.Rvalue[this.aggregationFunctions.length];
+        Java.Block hashMapMaintenanceTarget;
 
-                Java.AmbiguousName hashFunctionContainer = switch (this.groupByKeyColumnsTypes[i].logicalType) {
-                    case P_DOUBLE -> JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Double_Hash_Function");
-                    case P_INT, P_INT_DATE -> JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function");
-                    case S_FL_BIN, S_VARCHAR -> JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Char_Arr_Hash_Function");
+        // Obtain the values to insert into the hash-map
+        for (int i = 0; i < this.aggregationFunctions.length; i++) {
+            AggregationFunction currentFunction = this.aggregationFunctions[i];
 
-                    default -> throw new UnsupportedOperationException("AggregationOperator.consumeNonVec does not support this group-by key type");
-                };
+            if (currentFunction == AggregationFunction.G_COUNT) {
+                aggregationValues[i] = (countOrdinal < 0)
+                        ? JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), 1)
+                        : this.getRValueFromOrdinalAccessPathNonVec(cCtx, countOrdinal, codeGenResult);
+            } else if (currentFunction == AggregationFunction.G_SUM) {
+                aggregationValues[i] = this.getRValueFromOrdinalAccessPathNonVec(cCtx, inputOrdinals[i][0], codeGenResult);
+            }
 
-                Java.MethodInvocation currentPreHashInvocation = createMethodInvocation(
+            // No other possibilities due to the constructor
+
+        }
+
+        // Set the correct hashMapMaintenanceTarget
+        hashMapMaintenanceTarget = createBlock(JaninoGeneralGen.getLocation());
+        codeGenResult.add(hashMapMaintenanceTarget);
+
+        // Now perform hash-table maintenance by collecting the correct arguments for the
+        // incrementForKey method of the hash-table based on the aggregation functions
+        Java.Rvalue[] incrementForKeyArgs = new Java.Rvalue[keyOrdinals.length + aggregationValues.length + 1];
+        int currentArgumentIndex = 0;
+        for (int keyOrdinal : keyOrdinals)
+            incrementForKeyArgs[currentArgumentIndex++] = ((ScalarVariableAccessPath) cCtx.getCurrentOrdinalMapping().get(keyOrdinal)).read(); // Key
+        incrementForKeyArgs[currentArgumentIndex++] = keyColumnPreHashAccessPath.read();                                                      // Prehash
+        System.arraycopy(aggregationValues, 0, incrementForKeyArgs, currentArgumentIndex, aggregationValues.length);                       // Values to increment by
+
+        hashMapMaintenanceTarget.addStatement(
+                createMethodInvocationStm(
                         JaninoGeneralGen.getLocation(),
-                        hashFunctionContainer,
-                        "preHash",
-                        new Java.Rvalue[]{ keyColumnRValues[i] }
-                );
+                        ((MapAccessPath) this.aggregationStateVariables[0]).read(),
+                        "incrementForKey",
+                        incrementForKeyArgs
+                )
+        );
+    }
 
-                if (i == 0) {
-                    // On the first key column, need to declare and initialise the variable
-                    codeGenResult.add(
-                            createLocalVariable(
-                                    JaninoGeneralGen.getLocation(),
-                                    toJavaType(JaninoGeneralGen.getLocation(), keyColumnPreHashAccessPath.getType()),
-                                    keyColumnPreHashAccessPath.getVariableName(),
-                                    currentPreHashInvocation
-                            ));
+    /**
+     * Method for generating the code that computes the pre-hash value of the group-by key of the
+     * current record in a local variable, in the non-vectorised paradigm. As a side effect, the
+     * key columns are exposed as local variables in the current ordinal mapping.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param keyOrdinals The ordinals of the group-by key columns in the current ordinal mapping.
+     * @param codeGenResult The list of statements to which the generated code should be added.
+     * @return The access path to the variable containing the pre-hash value.
+     */
+    private ScalarVariableAccessPath computeGroupKeyPreHashNonVec(
+            CodeGenContext cCtx,
+            int[] keyOrdinals,
+            List<Java.Statement> codeGenResult
+    ) {
+        // Ensure we have "local" access paths for the key column values
+        Java.Rvalue[] keyColumnRValues = new Java.Rvalue[keyOrdinals.length];
+        for (int i = 0; i < keyColumnRValues.length; i++)
+            keyColumnRValues[i] = getRValueFromOrdinalAccessPathNonVec(cCtx, keyOrdinals[i], codeGenResult);
 
-                } else {
-                    // On all others, we "extend" the pre-hash using the XOR operator
-                    codeGenResult.add(
-                        createVariableXorAssignmentStm(
+        // Now compute the pre-hash value in a local variable
+        return this.declareGroupKeyPreHashNonVec(cCtx, keyColumnRValues, codeGenResult);
+    }
+
+    /**
+     * Method for generating the code that computes the pre-hash value of a group-by key in a local
+     * variable, in the non-vectorised paradigm.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param keyColumnRValues The values of the group-by key columns, which are each read once.
+     * @param codeGenResult The list of statements to which the generated code should be added.
+     * @return The access path to the variable containing the pre-hash value.
+     */
+    private ScalarVariableAccessPath declareGroupKeyPreHashNonVec(
+            CodeGenContext cCtx,
+            Java.Rvalue[] keyColumnRValues,
+            List<Java.Statement> codeGenResult
+    ) {
+        ScalarVariableAccessPath keyColumnPreHashAccessPath =
+                new ScalarVariableAccessPath(cCtx.defineVariable("group_key_pre_hash"), P_LONG);
+        for (int i = 0; i < keyColumnRValues.length; i++) {
+
+            Java.AmbiguousName hashFunctionContainer = switch (this.groupByKeyColumnsTypes[i].logicalType) {
+                case P_DOUBLE -> JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Double_Hash_Function");
+                case P_INT, P_INT_DATE -> JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function");
+                case S_FL_BIN, S_VARCHAR -> JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Char_Arr_Hash_Function");
+
+                default -> throw new UnsupportedOperationException("AggregationOperator.consumeNonVec does not support this group-by key type");
+            };
+
+            Java.MethodInvocation currentPreHashInvocation = createMethodInvocation(
+                    JaninoGeneralGen.getLocation(),
+                    hashFunctionContainer,
+                    "preHash",
+                    new Java.Rvalue[]{ keyColumnRValues[i] }
+            );
+
+            if (i == 0) {
+                // On the first key column, need to declare and initialise the variable
+                codeGenResult.add(
+                        createLocalVariable(
                                 JaninoGeneralGen.getLocation(),
-                                keyColumnPreHashAccessPath.write(),
+                                toJavaType(JaninoGeneralGen.getLocation(), keyColumnPreHashAccessPath.getType()),
+                                keyColumnPreHashAccessPath.getVariableName(),
                                 currentPreHashInvocation
                         ));
-                }
 
+            } else {
+                // On all others, we "extend" the pre-hash using the hash function family
+                // [keyColumnPreHashAccessPath] = HashFunctionFamily.combine([keyColumnPreHashAccessPath], [currentPreHashInvocation]);
+                codeGenResult.add(
+                    createVariableAssignmentStm(
+                            JaninoGeneralGen.getLocation(),
+                            keyColumnPreHashAccessPath.write(),
+                            createMethodInvocation(
+                                    JaninoGeneralGen.getLocation(),
+                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "HashFunctionFamily"),
+                                    "combine",
+                                    new Java.Rvalue[] { keyColumnPreHashAccessPath.read(), currentPreHashInvocation }
+                            )
+                    ));
             }
 
-            // Also obtain the values to insert into the hash-map later on
-            for (int i = 0; i < this.aggregationFunctions.length; i++) {
-                AggregationFunction currentFunction = this.aggregationFunctions[i];
+        }
 
-                if (currentFunction == AggregationFunction.G_COUNT) {
-                    aggregationValues[i] = JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), 1);
-                } else if (currentFunction == AggregationFunction.G_SUM) {
-                    aggregationValues[i] = this.getRValueFromOrdinalAccessPathNonVec(cCtx, this.aggregationFunctionInputOrdinals[i][0], codeGenResult);
-                }
+        return keyColumnPreHashAccessPath;
+    }
 
-                // No other possibilities due to the constructor
+    /**
+     * Method for generating the code that consumes the current record of a group-by aggregation
+     * which may spill in the non-vectorised paradigm. The record updates the aggregation map until
+     * the map can no longer grow within the budget, at which point the groups aggregated so far are
+     * written to disk and every subsequent record is written to disk instead. Only the group-by key
+     * columns, the input of each SUM aggregation and, if there is a COUNT aggregation, a count of 1
+     * are written for a record.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecSpillable(CodeGenContext cCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+        this.initialiseSpillColumnTypes();
 
-            }
+        // Expose the key columns and the aggregation inputs as local variables, so that both the
+        // in-memory and the spilling code below can read them
+        ScalarVariableAccessPath keyColumnPreHashAccessPath =
+                this.computeGroupKeyPreHashNonVec(cCtx, this.groupByKeyColumnIndices, codeGenResult);
+        for (int i = 0; i < this.aggregationFunctions.length; i++) {
+            if (this.aggregationFunctions[i] == AggregationFunction.G_SUM)
+                this.getRValueFromOrdinalAccessPathNonVec(cCtx, this.aggregationFunctionInputOrdinals[i][0], codeGenResult);
+        }
 
-            // Set the correct hashMapMaintenanceTarget
-            hashMapMaintenanceTarget = createBlock(JaninoGeneralGen.getLocation());
-            codeGenResult.add(hashMapMaintenanceTarget);
+        // if ([spill trigger condition]) { [spilling] = true; [write the aggregation map to disk] }
+        Java.Block spillSwitchBody = createBlock(JaninoGeneralGen.getLocation());
+        spillSwitchBody.addStatement(
+                createVariableAssignmentStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), this.spillingName),
+                        new Java.BooleanLiteral(JaninoGeneralGen.getLocation(), "true")
+                )
+        );
+        spillSwitchBody.addStatements(this.spillAggregationMapNonVec(cCtx));
+        codeGenResult.add(
+                JaninoControlGen.createIf(
+                        JaninoGeneralGen.getLocation(),
+                        createSpillTriggerCondition(
+                                this.spillingName,
+                                this.spillCheckName,
+                                ((MapAccessPath) this.aggregationStateVariables[0]).getVariableName()
+                        ),
+                        spillSwitchBody
+                )
+        );
 
-            // Now perform hash-table maintenance by collecting the correct arguments for the
-            // incrementForKey method of the hash-table based on the aggregation functions
-            Java.Rvalue[] incrementForKeyArgs = new Java.Rvalue[keyColumnAccessPaths.length + aggregationValues.length + 1];
-            int currentArgumentIndex = 0;
-            for (int i = 0; i < keyColumnAccessPaths.length; i++)
-                incrementForKeyArgs[currentArgumentIndex++] = ((ScalarVariableAccessPath) keyColumnAccessPaths[i]).read();  // Key
-            incrementForKeyArgs[currentArgumentIndex++] = keyColumnPreHashAccessPath.read();                                // Prehash
-            System.arraycopy(aggregationValues, 0, incrementForKeyArgs, currentArgumentIndex, aggregationValues.length); // Values to increment by
+        // Write the record to disk, partitioned on the pre-hash value of its group-by key
+        List<Java.Statement> recordSpill = new ArrayList<>();
+        Java.Rvalue[] spillColumnValues = new Java.Rvalue[this.spillColumnTypes.length];
+        int currentSpillColumnIndex = 0;
+        for (int keyOrdinal : this.groupByKeyColumnIndices)
+            spillColumnValues[currentSpillColumnIndex++] = getRValueFromOrdinalAccessPathNonVec(cCtx, keyOrdinal, recordSpill);
 
-            hashMapMaintenanceTarget.addStatement(
-                    createMethodInvocationStm(
+        for (int i = 0; i < this.aggregationFunctions.length; i++) {
+            if (this.aggregationFunctions[i] == AggregationFunction.G_SUM)
+                spillColumnValues[currentSpillColumnIndex++] = getRValueFromOrdinalAccessPathNonVec(
+                        cCtx, this.aggregationFunctionInputOrdinals[i][0], recordSpill);
+        }
+
+        if (this.spillCountColumn >= 0)
+            spillColumnValues[this.spillCountColumn] = JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), 1);
+
+        spillRecordNonVec(
+                recordSpill,
+                this.spillFileName,
+                keyColumnPreHashAccessPath.read(),
+                this.spillColumnTypes,
+                spillColumnValues
+        );
+
+        // Or update the aggregation map with the record
+        List<Java.Statement> mapUpdate = new ArrayList<>();
+        this.updateAggregationMapNonVec(
+                cCtx,
+                this.groupByKeyColumnIndices,
+                keyColumnPreHashAccessPath,
+                this.aggregationFunctionInputOrdinals,
+                -1,
+                mapUpdate
+        );
+
+        // if ([spilling]) { [recordSpill] } else { [mapUpdate] }
+        Java.Block recordSpillBlock = createBlock(JaninoGeneralGen.getLocation());
+        recordSpillBlock.addStatements(recordSpill);
+        Java.Block mapUpdateBlock = createBlock(JaninoGeneralGen.getLocation());
+        mapUpdateBlock.addStatements(mapUpdate);
+        codeGenResult.add(
+                JaninoControlGen.createIf(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), this.spillingName),
+                        recordSpillBlock,
+                        mapUpdateBlock
+                )
+        );
+
+        return codeGenResult;
+    }
+
+    /**
+     * Method for generating the code that writes the groups aggregated so far to disk when a
+     * group-by aggregation switches to spilling in the non-vectorised paradigm, after which the
+     * aggregation map is reset. Each group is written as a single record carrying its partial
+     * aggregates, which are combined with the later records of the same group per partition.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> spillAggregationMapNonVec(CodeGenContext cCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+        MapAccessPath aggregationStateMap = (MapAccessPath) this.aggregationStateVariables[0];
+
+        // for (int spilled_group_i = 0; spilled_group_i < [aggregationStateMap].numberOfRecords; spilled_group_i++) { [groupLoopBody] }
+        ScalarVariableAccessPath groupIndexVariable =
+                new ScalarVariableAccessPath(cCtx.defineVariable("spilled_group_i"), P_INT);
+        Java.Block groupLoopBody = createBlock(JaninoGeneralGen.getLocation());
+        codeGenResult.add(
+                JaninoControlGen.createForLoop(
+                        JaninoGeneralGen.getLocation(),
+                        createPrimitiveLocalVar(
+                                JaninoGeneralGen.getLocation(), Java.Primitive.INT, groupIndexVariable.getVariableName(), "0"),
+                        JaninoOperatorGen.lt(
+                                JaninoGeneralGen.getLocation(),
+                                groupIndexVariable.read(),
+                                new Java.FieldAccessExpression(
+                                        JaninoGeneralGen.getLocation(), aggregationStateMap.read(), "numberOfRecords")
+                        ),
+                        JaninoOperatorGen.postIncrement(JaninoGeneralGen.getLocation(), groupIndexVariable.write()),
+                        groupLoopBody
+                )
+        );
+
+        // MapType.RecordType spilledGroup = [aggregationStateMap].recordsArray[spilled_group_i];
+        String groupRecord = cCtx.defineVariable("spilledGroup");
+        List<Java.Statement> groupSpill = new ArrayList<>();
+        groupSpill.add(
+                createLocalVariable(
+                        JaninoGeneralGen.getLocation(),
+                        new Java.ReferenceType(
+                                JaninoGeneralGen.getLocation(),
+                                new Java.Annotation[0],
+                                new String[] {
+                                        this.aggregationMapGenerator.mapDeclaration.name,
+                                        this.aggregationMapGenerator.recordDeclaration.name
+                                },
+                                null
+                        ),
+                        groupRecord,
+                        JaninoGeneralGen.createArrayElementAccessExpr(
+                                JaninoGeneralGen.getLocation(),
+                                new Java.FieldAccessExpression(
+                                        JaninoGeneralGen.getLocation(),
+                                        aggregationStateMap.read(),
+                                        KeyValueMapGenerator.recordArrayName
+                                ),
+                                groupIndexVariable.read()
+                        )
+                )
+        );
+
+        // [keyType] spilled_group_key_j = [read of key j from spilledGroup];
+        Java.Rvalue[] spillColumnValues = new Java.Rvalue[this.spillColumnTypes.length];
+        Java.Rvalue[] keyColumnRValues = new Java.Rvalue[this.groupByKeyColumnsTypes.length];
+        for (int j = 0; j < this.groupByKeyColumnsTypes.length; j++) {
+            String groupKey = cCtx.defineVariable("spilled_group_key_" + j);
+            groupSpill.add(
+                    createLocalVariable(
                             JaninoGeneralGen.getLocation(),
-                            ((MapAccessPath) this.aggregationStateVariables[0]).read(),
-                            "incrementForKey",
-                            incrementForKeyArgs
+                            toJavaType(JaninoGeneralGen.getLocation(), this.groupByKeyColumnsTypes[j]),
+                            groupKey,
+                            this.aggregationMapGenerator.createKeyFieldRead(groupRecord, j)
                     )
             );
+            keyColumnRValues[j] = JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), groupKey);
+            spillColumnValues[j] = JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), groupKey);
+        }
+        ScalarVariableAccessPath keyColumnPreHashAccessPath =
+                this.declareGroupKeyPreHashNonVec(cCtx, keyColumnRValues, groupSpill);
+
+        // Write the partial sums and the count of the group
+        int currentSpillColumnIndex = keyColumnRValues.length;
+        for (int i = 0; i < this.aggregationFunctions.length; i++) {
+            Java.Rvalue partialAggregate = new Java.FieldAccessExpression(
+                    JaninoGeneralGen.getLocation(),
+                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), groupRecord),
+                    this.aggregationMapGenerator.valueFieldNames[i]
+            );
 
+            if (this.aggregationFunctions[i] == AggregationFunction.G_SUM)
+                spillColumnValues[currentSpillColumnIndex++] = partialAggregate;
+            else if (spillColumnValues[this.spillCountColumn] == null)
+                spillColumnValues[this.spillCountColumn] = partialAggregate;
         }
 
-        // Do not consume parent operator here, but in the produce method since the aggregation is a blocking operator
+        spillRecordNonVec(
+                groupSpill,
+                this.spillFileName,
+                keyColumnPreHashAccessPath.read(),
+                this.spillColumnTypes,
+                spillColumnValues
+        );
+        groupLoopBody.addStatements(groupSpill);
+
+        // [aggregationStateMap].reset();
+        codeGenResult.add(
+                createMethodInvocationStm(JaninoGeneralGen.getLocation(), aggregationStateMap.read(), "reset"));
+
         return codeGenResult;
     }
 
+    /**
+     * Method to initialise the column types of the spilled records of a group-by aggregation, where
+     * each SUM aggregation is spilled in the type of its aggregation map value so that the column
+     * can also hold the partial sum of a group.
+     */
+    private void initialiseSpillColumnTypes() {
+        List<QueryVariableType> spillColumnTypes = new ArrayList<>(Arrays.asList(this.groupByKeyColumnsTypes));
+        boolean hasCountAggregation = false;
+        for (int i = 0; i < this.aggregationFunctions.length; i++) {
+            if (this.aggregationFunctions[i] == AggregationFunction.G_SUM)
+                spillColumnTypes.add(this.aggregationMapGenerator.valueTypes[i]);
+            else
+                hasCountAggregation = true;
+        }
+
+        this.spillCountColumn = hasCountAggregation ? spillColumnTypes.size() : -1;
+        if (hasCountAggregation)
+            spillColumnTypes.add(P_INT);
+
+        this.spillColumnTypes = spillColumnTypes.toArray(new QueryVariableType[0]);
+    }
+
+    /**
+     * Method for generating the code that aggregates the spilled records of a group-by aggregation
+     * one partition at a time in the non-vectorised paradigm. As the records are partitioned on
+     * their group-by key, each partition contains complete groups, so the aggregation map is reset
+     * before each partition and its groups can be exposed to the parent operator directly. When the
+     * aggregation did not spill, a single partition without reader is exposed, for which the groups
+     * that were aggregated in memory are exposed as they are.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codeGenResult The list of statements to which the generated code should be added.
+     * @return The body of the loop over the partitions, to which the code exposing the groups of
+     *         the current partition should be added.
+     */
+    private Java.Block aggregateSpilledPartitionsNonVec(CodeGenContext cCtx, List<Java.Statement> codeGenResult) {
+        // GroupedAggregationPartitions aggregation_partitions = new GroupedAggregationPartitions(
+        //         cCtx.getArrowQueryAllocator(), [spillFile], [keyColumnCount], cCtx.getSpillMemoryBudget());
+        String partitionsName = cCtx.defineVariable("aggregation_partitions");
+        Java.Type partitionsType = JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "GroupedAggregationPartitions");
+        codeGenResult.add(
+                createLocalVariable(
+                        JaninoGeneralGen.getLocation(),
+                        partitionsType,
+                        partitionsName,
+                        JaninoClassGen.createClassInstance(
+                                JaninoGeneralGen.getLocation(),
+                                partitionsType,
+                                new Java.Rvalue[] {
+                                        createMethodInvocation(
+                                                JaninoGeneralGen.getLocation(),
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                                                "getArrowQueryAllocator"
+                                        ),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), this.spillFileName),
+                                        JaninoGeneralGen.createIntegerLiteral(
+                                                JaninoGeneralGen.getLocation(), this.groupByKeyColumnIndices.length),
+                                        createMethodInvocation(
+                                                JaninoGeneralGen.getLocation(),
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                                                "getSpillMemoryBudget"
+                                        )
+                                }
+                        )
+                )
+        );
+
+        // while (aggregation_partitions.nextPartition()) {
+        //     ArrowTableReader aggregation_partition = aggregation_partitions.getReader();
+        //     if (aggregation_partition != null) {
+        //         [aggregationStateMap].reset();
+        //         [scan over the partition which updates the aggregation map]
+        //     }
+        //     [exposure of the groups in the aggregation map]
+        // }
+        Java.Block partitionLoopBody = createBlock(JaninoGeneralGen.getLocation());
+        codeGenResult.add(
+                JaninoControlGen.createWhileLoop(
+                        JaninoGeneralGen.getLocation(),
+                        createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), partitionsName),
+                                "nextPartition"
+                        ),
+                        partitionLoopBody
+                )
+        );
+
+        MapAccessPath aggregationStateMap = (MapAccessPath) this.aggregationStateVariables[0];
+        String partitionReaderName = cCtx.defineVariable("aggregation_partition");
+        partitionLoopBody.addStatement(
+                createLocalVariable(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "ArrowTableReader"),
+                        partitionReaderName,
+                        createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), partitionsName),
+                                "getReader"
+                        )
+                )
+        );
+
+        List<Java.Statement> partitionAggregation = new ArrayList<>();
+        partitionAggregation.add(
+                createMethodInvocationStm(JaninoGeneralGen.getLocation(), aggregationStateMap.read(), "reset"));
+
+        // Scan the records of the partition, which consist of the group-by keys followed by the
+        // (partial) sum of each SUM aggregation and the count of the record, and update the
+        // aggregation map with each record
+        int[] keyOrdinals = new int[this.groupByKeyColumnIndices.length];
+        for (int i = 0; i < keyOrdinals.length; i++)
+            keyOrdinals[i] = i;
+
+        int[][] inputOrdinals = new int[this.aggregationFunctions.length][];
+        int currentSpillColumnIndex = keyOrdinals.length;
+        for (int i = 0; i < this.aggregationFunctions.length; i++) {
+            inputOrdinals[i] = (this.aggregationFunctions[i] == AggregationFunction.G_SUM)
+                    ? new int[] { currentSpillColumnIndex++ }
+                    : new int[0];
+        }
+
+        cCtx.pushCodeGenContext();
+        Java.Block recordLoopBody = scanSpilledPartitionNonVec(cCtx, partitionAggregation, partitionReaderName, this.spillColumnTypes);
+        List<Java.Statement> recordAggregation = new ArrayList<>();
+        ScalarVariableAccessPath keyColumnPreHashAccessPath =
+                this.computeGroupKeyPreHashNonVec(cCtx, keyOrdinals, recordAggregation);
+        this.updateAggregationMapNonVec(
+                cCtx,
+                keyOrdinals,
+                keyColumnPreHashAccessPath,
+                inputOrdinals,
+                this.spillCountColumn,
+                recordAggregation
+        );
+        recordLoopBody.addStatements(recordAggregation);
+        cCtx.popCodeGenContext();
+
+        Java.Block partitionAggregationBlock = createBlock(JaninoGeneralGen.getLocation());
+        partitionAggregationBlock.addStatements(partitionAggregation);
+        partitionLoopBody.addStatement(
+                JaninoControlGen.createIf(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoOperatorGen.neq(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), partitionReaderName),
+                                new Java.NullLiteral(JaninoGeneralGen.getLocation())
+                        ),
+                        partitionAggregationBlock
+                )
+        );
+
+        // Record the statistics of the aggregation map of each partition, if profiling
+        List<Java.Statement> partitionProfiling = new ArrayList<>();
+        this.profileHashTable(cCtx, partitionProfiling, aggregationStateMap.read());
+        partitionLoopBody.addStatements(partitionProfiling);
+
+        // aggregation_partitions.close();
+        codeGenResult.add(
+                createMethodInvocationStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), partitionsName),
+                        "close"
+                )
+        );
+
+        return partitionLoopBody;
+    }
+
     @Override
     public List<Java.Statement> produceVec(CodeGenContext cCtx, OptimisationContext oCtx) {
         List<Java.Statement> codeGenResult = new ArrayList<>();
+        this.producingNonVec = false;
 
         // Allocate the pre-hash vector if necessary
         if (this.groupByAggregation) {
@@ -576,6 +1146,11 @@ public class AggregationOperator extends CodeGenOperator {
         codeGenResult.addAll(initialiseAggregationStates());
         codeGenResult.addAll(childProductionResult);
 
+        // Record the statistics of the aggregation map and time the pipeline exposing the result, if profiling
+        if (this.groupByAggregation)
+            this.profileHashTable(cCtx, codeGenResult, ((MapAccessPath) this.aggregationStateVariables[0]).read());
+        int outputPipelineStart = codeGenResult.size();
+
         // Expose the result of this operator to its parent as a new "scan" (since aggregation is blocking)
         // Exposure way depends on whether we are dealing with a group-by aggregation and the aggregation function
         if (!this.groupByAggregation) {
@@ -853,14 +1428,7 @@ public class AggregationOperator extends CodeGenOperator {
                                         groupKeyVectorsAPs[i].getVectorVariable().read(),
                                         currentResultIndex.read()
                                 ),
-                                new Java.FieldAccessExpression(
-                                        JaninoGeneralGen.getLocation(),
-                                        JaninoGeneralGen.createAmbiguousNameRef(
-                                                JaninoGeneralGen.getLocation(),
-                                                currentRecord
-                                        ),
-                                        this.aggregationMapGenerator.keyFieldNames[i]
-                                )
+                                this.aggregationMapGenerator.createKeyFieldRead(currentRecord, i)
                         )
                 );
             }
@@ -954,6 +1522,7 @@ public class AggregationOperator extends CodeGenOperator {
                     ));
         }
 
+        this.instrumentPipeline(cCtx, codeGenResult, outputPipelineStart);
         return codeGenResult;
     }
 
@@ -1043,17 +1612,16 @@ public class AggregationOperator extends CodeGenOperator {
                         Java.Rvalue sumIncrementRValue;
 
                         if (inputOrdinalAP instanceof ArrayVectorWithSelectionVectorAccessPath avwsvap) {
-                            // sum += VectorisedAggregationOperators.vectorSum(avwsvap.vector, avwsvap.vectorLength, avwsvap.selectionVector, avwsvap.selectionVectorLength);
+                            // sum += VectorisedAggregationOperators.vectorSum(avwsvap.vector, [layout,] avwsvap.vectorLength, avwsvap.selectionVector, avwsvap.selectionVectorLength);
                             sumIncrementRValue = createMethodInvocation(
                                     JaninoGeneralGen.getLocation(),
                                     JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "VectorisedAggregationOperators"),
                                     "vectorSum",
-                                    new Java.Rvalue[]{
-                                            avwsvap.getArrayVectorVariable().getVectorVariable().read(),
-                                            avwsvap.getArrayVectorVariable().getVectorLengthVariable().read(),
+                                    vectorSumArguments(
+                                            avwsvap.getArrayVectorVariable(),
                                             avwsvap.readSelectionVector(),
                                             avwsvap.readSelectionVectorLength()
-                                    }
+                                    )
                             );
 
                         } else if (inputOrdinalAP instanceof ArrowVectorAccessPath avap) {
@@ -1068,29 +1636,25 @@ public class AggregationOperator extends CodeGenOperator {
                             );
 
                         } else if (inputOrdinalAP instanceof ArrayVectorAccessPath avap) {
-                            // sum += VectorisedAggregationOperators.vectorSum(avwsvap.vector, avwsvap.vectorLength,);
+                            // sum += VectorisedAggregationOperators.vectorSum(avap.vector, [layout,] avap.vectorLength);
                             sumIncrementRValue = createMethodInvocation(
                                     JaninoGeneralGen.getLocation(),
                                     JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "VectorisedAggregationOperators"),
                                     "vectorSum",
-                                    new Java.Rvalue[]{
-                                            avap.getVectorVariable().read(),
-                                            avap.getVectorLengthVariable().read(),
-                                    }
+                                    vectorSumArguments(avap)
                             );
 
                         } else if (inputOrdinalAP instanceof ArrayVectorWithValidityMaskAccessPath avwvmap) {
-                            // sum += VectorisedAggregationOperators.vectorSum(avwvmap.vector, avwvmap.vectorLength, avwvmap.validityMask, avwvmap.validityMaskLength);
+                            // sum += VectorisedAggregationOperators.vectorSum(avwvmap.vector, [layout,] avwvmap.vectorLength, avwvmap.validityMask, avwvmap.validityMaskLength);
                             sumIncrementRValue = createMethodInvocation(
                                     JaninoGeneralGen.getLocation(),
                                     JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "VectorisedAggregationOperators"),
                                     "vectorSum",
-                                    new Java.Rvalue[]{
-                                            avwvmap.getArrayVectorVariable().getVectorVariable().read(),
-                                            avwvmap.getArrayVectorVariable().getVectorLengthVariable().read(),
+                                    vectorSumArguments(
+                                            avwvmap.getArrayVectorVariable(),
                                             avwvmap.readValidityMask(),
                                             avwvmap.readValidityMaskLength()
-                                    }
+                                    )
                             );
 
                         } else {
@@ -1396,7 +1960,8 @@ public class AggregationOperator extends CodeGenOperator {
                                 new Java.Rvalue[] { recordIndexAP.read() }
                         );
 
-                    } else if (inputOrdinalType == ARRAY_DOUBLE_VECTOR || inputOrdinalType == ARRAY_INT_VECTOR) {
+                    } else if (inputOrdinalType == ARRAY_DOUBLE_VECTOR || inputOrdinalType == ARRAY_INT_VECTOR
+                            || inputOrdinalType == ARRAY_LONG_VECTOR) {
                         ArrayVectorAccessPath castInputOrdinal = (ArrayVectorAccessPath) inputOrdinal;
 
                         // Simply take the value indicated by the access path
@@ -1418,7 +1983,8 @@ public class AggregationOperator extends CodeGenOperator {
                         );
 
 
-                    } else if (inputOrdinalType == ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR) {
+                    } else if (inputOrdinalType == ARRAY_DOUBLE_VECTOR_W_SELECTION_VECTOR
+                            || inputOrdinalType == ARRAY_INT_VECTOR_W_SELECTION_VECTOR) {
                         ArrayVectorWithSelectionVectorAccessPath castInputOrdinal = (ArrayVectorWithSelectionVectorAccessPath) inputOrdinal;
 
                         // Simply take the value indicated by the access path
@@ -1428,6 +1994,36 @@ public class AggregationOperator extends CodeGenOperator {
                                 recordIndexAP.read()
                         );
 
+                    } else if (inputOrdinalType == SEGMENT_DOUBLE_VECTOR || inputOrdinalType == SEGMENT_INT_VECTOR
+                            || inputOrdinalType == SEGMENT_LONG_VECTOR) {
+                        ArrayVectorAccessPath castInputOrdinal = (ArrayVectorAccessPath) inputOrdinal;
+
+                        // Read the value indicated by the access path from the off-heap vector
+                        incrementForKeyArguments[currentArgumentIndex++] = createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                castInputOrdinal.getVectorVariable().read(),
+                                "getAtIndex",
+                                new Java.Rvalue[] {
+                                        segmentValueLayout(inputOrdinalType),
+                                        recordIndexAP.read()
+                                }
+                        );
+
+                    } else if (inputOrdinalType == SEGMENT_DOUBLE_VECTOR_W_SELECTION_VECTOR
+                            || inputOrdinalType == SEGMENT_INT_VECTOR_W_SELECTION_VECTOR) {
+                        ArrayVectorWithSelectionVectorAccessPath castInputOrdinal = (ArrayVectorWithSelectionVectorAccessPath) inputOrdinal;
+
+                        // Read the value indicated by the access path from the off-heap vector
+                        incrementForKeyArguments[currentArgumentIndex++] = createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                castInputOrdinal.getArrayVectorVariable().getVectorVariable().read(),
+                                "getAtIndex",
+                                new Java.Rvalue[] {
+                                        segmentValueLayout(inputOrdinalType),
+                                        recordIndexAP.read()
+                                }
+                        );
+
                     } else {
                         throw new UnsupportedOperationException(
                                 "AggregationOperator.consumeVec does not support this input ordinal type for the group-by SUM aggregation: " + inputOrdinal.getType());
@@ -1486,6 +2082,10 @@ public class AggregationOperator extends CodeGenOperator {
      * @param cCtx The {@link CodeGenContext} to use during the generation.
      */
     private void declareAggregationState(CodeGenContext cCtx) {
+        // When the child consumes records in multiple places, they should all update the same state
+        if (this.aggregationStateVariables != null)
+            return;
+
         List<AccessPath> om = cCtx.getCurrentOrdinalMapping();
 
         // Declare the aggregation state variable if we have a non-group-by count
@@ -1520,10 +2120,17 @@ public class AggregationOperator extends CodeGenOperator {
         // Otherwise, we have a group-by aggregation
         this.aggregationStateVariables = new AccessPath[1];
 
-        // Obtain the type of the group-by columns
+        // Obtain the type of the group-by columns, where dictionary-encoded columns that were passed
+        // on as codes (see consumesDictionaryCodes) are keyed on their int codes
         this.groupByKeyColumnsTypes = new QueryVariableType[this.groupByKeyColumnIndices.length];
+        this.groupByKeyDictionaries = new DictionaryEncodedArrowVectorAccessPath[this.groupByKeyColumnIndices.length];
         for (int i = 0; i < this.groupByKeyColumnsTypes.length; i++) {
-            QueryVariableType ordinalType = om.get(this.groupByKeyColumnIndices[i]).getType();
+            AccessPath ordinalAP = om.get(this.groupByKeyColumnIndices[i]);
+            if (ordinalAP instanceof IndexedArrowVectorElementAccessPath iaveap
+                    && iaveap.getArrowVectorVariable() instanceof DictionaryEncodedArrowVectorAccessPath deavap)
+                this.groupByKeyDictionaries[i] = deavap;
+
+            QueryVariableType ordinalType = ordinalAP.getType();
             if (ordinalType.logicalType == QueryVariableType.LogicalType.S_FL_BIN
                     || ordinalType.logicalType == QueryVariableType.LogicalType.ARRAY_FIXED_LENGTH_BINARY_VECTOR
                     || ordinalType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR
@@ -1547,8 +2154,8 @@ public class AggregationOperator extends CodeGenOperator {
             } else if (currentFunction == AggregationFunction.G_SUM) {
                 QueryVariableType valueType = primitiveType(om.get(this.aggregationFunctionInputOrdinals[i][0]).getType());
 
-                if (valueType == P_INT) {
-                    // We need to upgrade the value to long
+                if (valueType == P_INT || valueType == P_LONG) {
+                    // We need to upgrade int values to long
                     mapValueTypes.add(P_LONG);
 
                 } else if (valueType == P_DOUBLE) {
@@ -1614,7 +2221,9 @@ public class AggregationOperator extends CodeGenOperator {
                             ((MapAccessPath) this.aggregationStateVariables[0]).getVariableName(),
                             JaninoClassGen.createClassInstance(
                                     JaninoGeneralGen.getLocation(),
-                                    generatedMapType
+                                    generatedMapType,
+                                    createMapInstantiationArguments(
+                                            ((MapAccessPath) this.aggregationStateVariables[0]).getVariableName())
                             )
                     )
             );
@@ -1623,4 +2232,41 @@ public class AggregationOperator extends CodeGenOperator {
         return codeGenResult;
     }
 
+    /**
+     * Method to construct the arguments of a {@code VectorisedAggregationOperators.vectorSum}
+     * invocation over an array or off-heap vector. Off-heap int and long vectors additionally
+     * pass their value layout, so that the primitive matching their element type is selected.
+     * @param vector The vector to compute the sum of.
+     * @param validityArguments The selection vector or validity mask arguments to pass, if any.
+     * @return The arguments of the invocation.
+     */
+    private static Java.Rvalue[] vectorSumArguments(ArrayVectorAccessPath vector, Java.Rvalue... validityArguments) {
+        QueryVariableType vectorType = vector.getType();
+        boolean passLayout = isSegmentVector(vectorType) && primitiveType(vectorType) != P_DOUBLE;
+
+        List<Java.Rvalue> arguments = new ArrayList<>();
+        arguments.add(vector.getVectorVariable().read());
+        if (passLayout)
+            arguments.add(segmentValueLayout(vectorType));
+        arguments.add(vector.getVectorLengthVariable().read());
+        arguments.addAll(Arrays.asList(validityArguments));
+        return arguments.toArray(new Java.Rvalue[0]);
+    }
+
+    /**
+     * Method to obtain the {@code ValueLayout} with which the entries of an off-heap vector are accessed.
+     * @param vectorType The type of the off-heap vector.
+     * @return An r-value referring to the value layout of the entries of the vector.
+     */
+    private static Java.Rvalue segmentValueLayout(QueryVariableType vectorType) {
+        String layout = switch (primitiveType(vectorType).logicalType) {
+            case P_DOUBLE -> "ValueLayout.JAVA_DOUBLE";
+            case P_INT -> "ValueLayout.JAVA_INT";
+            case P_LONG -> "ValueLayout.JAVA_LONG";
+            default -> throw new UnsupportedOperationException(
+                    "AggregationOperator.segmentValueLayout does not support vector type " + vectorType);
+        };
+        return JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), layout);
+    }
+
 }
@@ -5,25 +5,32 @@ import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
 import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.AccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.DictionaryEncodedArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.EncodedArrowVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.IndexedArrowVectorElementAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.data.ArrowTableReader;
+import AethraDB.evaluation.codegen.infrastructure.data.EncodedColumnFile;
 import AethraDB.evaluation.codegen.infrastructure.data.VirtualArrowTableReader;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen;
 import AethraDB.util.arrow.ArrowFileSchemaExtractor;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.codehaus.janino.Java;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_LONG;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.arrowTypeToArrowVectorType;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.memberTypeForArrowVector;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen.createForLoop;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen.createLabeledStatement;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen.createWhileLoop;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createCast;
@@ -33,6 +40,7 @@ import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createBlock;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.lt;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createPrimitiveLocalVar;
@@ -42,6 +50,21 @@ import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGe
  */
 public class ArrowTableScanOperator extends CodeGenOperator {
 
+    /**
+     * The system property which can be used to disable raw column access in non-vectorised scans.
+     */
+    public static final String RAW_COLUMN_ACCESS_PROPERTY = "aethradb.raw_column_access";
+
+    /**
+     * Whether non-vectorised scans should read primitive column values directly from the data
+     * buffers of the Arrow vectors. The data buffer address of each such column is hoisted out of
+     * the record loop, so that the loop body only performs plain memory reads which the JIT can
+     * unroll and vectorise, rather than invoking the bounds- and null-checked getters of the vectors.
+     * Raw reads do not consult the validity buffer, which is fine since AethraDB does not rely on
+     * null values in its input data.
+     */
+    public static final boolean RAW_COLUMN_ACCESS_ENABLED = determineRawColumnAccessEnabled();
+
     /**
      * Boolean keeping track of whether SIMD production is allowed in this operator.
      */
@@ -67,6 +90,17 @@ public class ArrowTableScanOperator extends CodeGenOperator {
      */
     private final int[] projectedColumns;
 
+    /**
+     * The output ordinals of the columns to which the batch pruning ranges in {@code batchPruningBounds} apply.
+     */
+    private final List<Integer> batchPruningOrdinals;
+
+    /**
+     * The inclusive lower and upper bound of each range that the records of this scan are known to be
+     * filtered on, which allows the table reader to skip batches based on their statistics.
+     */
+    private final List<Java.Rvalue[]> batchPruningBounds;
+
     /**
      * Creates an {@link ArrowTableScanOperator} for a specific table.
      * @param databasePath The path of the directory containing the database.
@@ -80,6 +114,29 @@ public class ArrowTableScanOperator extends CodeGenOperator {
         this.tableName = tableName;
         this.isProjecting = isProjecting;
         this.projectedColumns = projectedColumns;
+        this.batchPruningOrdinals = new ArrayList<>();
+        this.batchPruningBounds = new ArrayList<>();
+    }
+
+    /**
+     * Method to indicate that the records produced by this scan will only be retained if the value of
+     * a column lies within an inclusive range, so that the batches of the table which cannot contain
+     * such a value can be skipped. Needs to be invoked before code is generated for this scan.
+     * @param ordinal The output ordinal of the column that the range applies to.
+     * @param lowerBound The inclusive lower bound of the range, which should be a constant.
+     * @param upperBound The inclusive upper bound of the range, which should be a constant.
+     */
+    public void addBatchPruningRange(int ordinal, Java.Rvalue lowerBound, Java.Rvalue upperBound) {
+        this.batchPruningOrdinals.add(ordinal);
+        this.batchPruningBounds.add(new Java.Rvalue[] { lowerBound, upperBound });
+    }
+
+    /**
+     * Method to determine whether raw column access is enabled from the system properties.
+     * @return {@code true} unless the {@code RAW_COLUMN_ACCESS_PROPERTY} is set to {@code false}.
+     */
+    private static boolean determineRawColumnAccessEnabled() {
+        return Boolean.parseBoolean(System.getProperty(RAW_COLUMN_ACCESS_PROPERTY, "true"));
     }
 
     @Override
@@ -101,7 +158,8 @@ public class ArrowTableScanOperator extends CodeGenOperator {
         // - cCtx's ordinal mapping contains the access paths to the projected column vectors
         // - whileLoopBody represents the partially generated while loop that iterates over them
         Java.Block whileLoopBody = createBlock(getLocation());
-        List<Java.Statement> codegenResult = this.genericProduce(cCtx, oCtx, whileLoopBody);
+        String batchLoopLabel = cCtx.defineVariable(this.tableName + "_batch_loop");
+        List<Java.Statement> codegenResult = this.genericProduce(cCtx, oCtx, whileLoopBody, batchLoopLabel, false);
 
         // Task to be performed: introduce a for-loop within the whileLoopBody to iterate over the
         // rows in the projected columns and update the ordinal mapping to the access path for the
@@ -131,6 +189,34 @@ public class ArrowTableScanOperator extends CodeGenOperator {
                 )
         );
 
+        // Hoist the data buffer address of each primitive column out of the record loop
+        // long [column]_address = [column].getDataBufferAddress();
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        ScalarVariableAccessPath[] dataBufferAddresses = new ScalarVariableAccessPath[currentOrdinalMapping.size()];
+        for (int i = 0; i < currentOrdinalMapping.size(); i++) {
+            // Valid to cast to ArrowVectorAccessPath as this is delivered by genericProduce(..)
+            ArrowVectorAccessPath avap = (ArrowVectorAccessPath) currentOrdinalMapping.get(i);
+            if (!supportsRawColumnAccess(avap))
+                continue;
+
+            dataBufferAddresses[i] = new ScalarVariableAccessPath(
+                    cCtx.defineVariable(avap.getVariableName() + "_address"),
+                    P_LONG
+            );
+            whileLoopBody.addStatement(
+                    createLocalVariable(
+                            getLocation(),
+                            createPrimitiveType(getLocation(), Java.Primitive.LONG),
+                            dataBufferAddresses[i].getVariableName(),
+                            createMethodInvocation(
+                                    getLocation(),
+                                    avap.read(),
+                                    "getDataBufferAddress"
+                            )
+                    )
+            );
+        }
+
         // for (int aviv = 0; aviv < [recordCount]; aviv++) { [forLoopBody] }
         String avivName = cCtx.defineVariable("aviv");
         ScalarVariableAccessPath avivAccessPath = new ScalarVariableAccessPath(avivName, P_INT);
@@ -150,26 +236,50 @@ public class ArrowTableScanOperator extends CodeGenOperator {
 
         // Update the ordinal to access path mapping by building a new mapping that replaces each
         // arrow vector variable in the current mapping with one that performs an indexed read using
-        // the aviv index variable
-        List<AccessPath> updatedOrdinalMapping =
-                cCtx.getCurrentOrdinalMapping().stream().map(entry -> {
-                    // Valid to cast to entry ArrowVectorAccessPath as this is delivered by genericProduce(..)
-                    ArrowVectorAccessPath avap = (ArrowVectorAccessPath) entry;
-                    return (AccessPath) new IndexedArrowVectorElementAccessPath(
+        // the aviv index variable (and the hoisted data buffer address where available)
+        List<AccessPath> updatedOrdinalMapping = new ArrayList<>(currentOrdinalMapping.size());
+        for (int i = 0; i < currentOrdinalMapping.size(); i++) {
+            // Valid to cast to entry ArrowVectorAccessPath as this is delivered by genericProduce(..)
+            ArrowVectorAccessPath avap = (ArrowVectorAccessPath) currentOrdinalMapping.get(i);
+            updatedOrdinalMapping.add(
+                    new IndexedArrowVectorElementAccessPath(
                             avap,
                             avivAccessPath,
+                            dataBufferAddresses[i],
                             memberTypeForArrowVector(avap.getType())
-                    );
-                }).toList();
+                    )
+            );
+        }
         cCtx.setCurrentOrdinalMapping(updatedOrdinalMapping);
 
-        // Have the parent operator consume the result within the for loop
+        // Have the parent operator consume the result within the for loop, allowing it to terminate the scan early
+        String outerPipelineLoopLabel = cCtx.getPipelineLoopLabel();
+        cCtx.setPipelineLoopLabel(batchLoopLabel);
         forLoopBody.addStatements(nonVecParentConsume(cCtx, oCtx));
+        cCtx.setPipelineLoopLabel(outerPipelineLoopLabel);
 
         // Return the generated code after wrapping it in the scan surrounding variables
+        this.instrumentPipeline(cCtx, codegenResult, 0);
         return codegenResult;
     }
 
+    /**
+     * Method to determine whether the elements of a column can be read directly from the data
+     * buffer of its Arrow vector.
+     * @param avap The access path to the Arrow vector of the column.
+     * @return {@code true} iff raw column access is enabled and the column is a plain (i.e. not
+     * encoded) vector of fixed-width primitive values.
+     */
+    private static boolean supportsRawColumnAccess(ArrowVectorAccessPath avap) {
+        if (!RAW_COLUMN_ACCESS_ENABLED || avap.getClass() != ArrowVectorAccessPath.class)
+            return false;
+
+        return switch (avap.getType().logicalType) {
+            case ARROW_DATE_VECTOR, ARROW_DOUBLE_VECTOR, ARROW_INT_VECTOR, ARROW_LONG_VECTOR -> true;
+            default -> false;
+        };
+    }
+
     @Override
     public List<Java.Statement> consumeNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
         throw new UnsupportedOperationException("An ArrowTableScanOperator cannot consume data");
@@ -183,13 +293,19 @@ public class ArrowTableScanOperator extends CodeGenOperator {
         // Post-condition:
         // - cCtx's ordinal mapping contains the access paths to the projected column vectors
         // - whileLoopBody represents the partially generated while loop that iterates over them
+        // - Each vector contains at most VectorisedOperators.VECTOR_LENGTH records
         Java.Block whileLoopBody = createBlock(getLocation());
-        List<Java.Statement> codegenResult = this.genericProduce(cCtx, oCtx, whileLoopBody);
+        String batchLoopLabel = cCtx.defineVariable(this.tableName + "_batch_loop");
+        List<Java.Statement> codegenResult = this.genericProduce(cCtx, oCtx, whileLoopBody, batchLoopLabel, true);
 
-        // Have the parent operator consume the result within the while loop
+        // Have the parent operator consume the result within the while loop, allowing it to terminate the scan early
+        String outerPipelineLoopLabel = cCtx.getPipelineLoopLabel();
+        cCtx.setPipelineLoopLabel(batchLoopLabel);
         whileLoopBody.addStatements(vecParentConsume(cCtx, oCtx));
+        cCtx.setPipelineLoopLabel(outerPipelineLoopLabel);
 
         // Return the generated code after wrapping it in the scan surrounding variables
+        this.instrumentPipeline(cCtx, codegenResult, 0);
         return codegenResult;
     }
 
@@ -204,12 +320,18 @@ public class ArrowTableScanOperator extends CodeGenOperator {
      * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
      * @param whileLoopBody The {@link Java.Block} representing the body of the generated while-loop
      *                      which iterates over the vectors of the Arrow table.
+     * @param batchLoopLabel The label to attach to the generated while-loop.
+     * @param useSubBatches Whether the Arrow table should be iterated over in sub-batches of at most
+     *                      {@code VectorisedOperators.VECTOR_LENGTH} records, rather than in the
+     *                      batches that the Arrow file was written in.
      * @return The generated generic query code for this operator.
      */
     private List<Java.Statement> genericProduce(
             CodeGenContext cCtx,
             OptimisationContext oCtx,
-            Java.Block whileLoopBody
+            Java.Block whileLoopBody,
+            String batchLoopLabel,
+            boolean useSubBatches
     ) {
         // Create a virtual arrow reader instance
         File tableFile = new File(this.databasePath + "/" + this.tableName + ".arrow");
@@ -244,27 +366,62 @@ public class ArrowTableScanOperator extends CodeGenOperator {
                 )
         );
 
+        // Skip the batches which cannot contain any record satisfying the pruning ranges
+        // [arrowReaderVariableName].pruneBatches([originalColumnIndex], [lowerBound], [upperBound]);
+        for (int i = 0; i < this.batchPruningOrdinals.size(); i++) {
+            codegenResult.add(
+                    createMethodInvocationStm(
+                            getLocation(),
+                            createAmbiguousNameRef(getLocation(), arrowReaderVariableName),
+                            "pruneBatches",
+                            new Java.Rvalue[] {
+                                    createIntegerLiteral(getLocation(), this.projectedColumns[this.batchPruningOrdinals.get(i)]),
+                                    this.batchPruningBounds.get(i)[0],
+                                    this.batchPruningBounds.get(i)[1]
+                            }
+                    )
+            );
+        }
+
         // Loop over the vectors in the arrow file
-        // while ([arrowReaderVariableName].loadNextBatch()) { [whileLoopBody] }
+        // [batchLoopLabel]: while ([arrowReaderVariableName].loadNextBatch()) { [whileLoopBody] }
+        // or
+        // [batchLoopLabel]: while ([arrowReaderVariableName].loadNextSubBatch(VectorisedOperators.VECTOR_LENGTH)) { [whileLoopBody] }
+        Java.Rvalue loadNextBatchInvocation;
+        if (useSubBatches) {
+            loadNextBatchInvocation = createMethodInvocation(
+                    getLocation(),
+                    createAmbiguousNameRef(getLocation(), arrowReaderVariableName),
+                    "loadNextSubBatch",
+                    new Java.Rvalue[] {
+                            createAmbiguousNameRef(getLocation(), "VectorisedOperators.VECTOR_LENGTH")
+                    }
+            );
+        } else {
+            loadNextBatchInvocation = createMethodInvocation(
+                    getLocation(),
+                    createAmbiguousNameRef(getLocation(), arrowReaderVariableName),
+                    "loadNextBatch"
+            );
+        }
         codegenResult.add(
-                createWhileLoop(
+                createLabeledStatement(
                         getLocation(),
-                        createMethodInvocation(
-                                getLocation(),
-                                createAmbiguousNameRef(getLocation(), arrowReaderVariableName),
-                                "loadNextBatch"
-                        ),
-                        whileLoopBody
+                        batchLoopLabel,
+                        createWhileLoop(getLocation(), loadNextBatchInvocation, whileLoopBody)
                 )
         );
 
         // Project by creating an arrow vector variable per projected column in the [whileLoopBody]
         // [vectorType] [arrowReaderVariableName]_vc_[outputColumnIndex] =
-        //     ([vectorType]) [arrowReaderVariableName].get([originalColumnIndex])
+        //     ([vectorType]) [arrowReaderVariableName].get[SubBatch|EncodedSubBatch]Vector([originalColumnIndex])
+        String getVectorMethodName = useSubBatches ? "getSubBatchVector" : "getVector";
 
         List<Field> schemaFields;
+        int[] encodedColumns;
         try {
             schemaFields = ArrowFileSchemaExtractor.getFieldDescriptionFromTableFile(tableFile);
+            encodedColumns = EncodedColumnFile.readEncodedColumnIndices(tableFile);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -274,15 +431,51 @@ public class ArrowTableScanOperator extends CodeGenOperator {
         for (int outputColumnIndex = 0; outputColumnIndex < numberOutputColumns; outputColumnIndex++) {
             // Obtain data about the column to project
             int originalColumnIndex = this.projectedColumns[outputColumnIndex];
-            QueryVariableType vectorType = arrowTypeToArrowVectorType(schemaFields.get(originalColumnIndex).getType());
+            Field columnField = schemaFields.get(originalColumnIndex);
+            DictionaryEncoding columnEncoding = columnField.getDictionary();
+            QueryVariableType vectorType = (columnEncoding == null)
+                    ? arrowTypeToArrowVectorType(columnField.getType())
+                    : QueryVariableType.ARROW_INT_VECTOR;
 
             // Define and expose an access path to a variable representing vectors of the projected column
             String preferredOutputColumnVariableName = arrowReaderVariableName + "_vc_" + outputColumnIndex;
             String outputColumnVariableName = cCtx.defineVariable(preferredOutputColumnVariableName);
-            projectedColumnAccessPaths.add(
-                    outputColumnIndex,
-                    new ArrowVectorAccessPath(outputColumnVariableName, vectorType)
-            );
+            ArrowVectorAccessPath outputColumnAccessPath;
+            boolean isEncodedColumn = useSubBatches && Arrays.stream(encodedColumns).anyMatch(ec -> ec == originalColumnIndex);
+
+            if (isEncodedColumn) {
+                // Columns served from the encoded column file are only unpacked once an operator
+                // requires their values, so that filters can first be evaluated on the encoded values
+                outputColumnAccessPath = new EncodedArrowVectorAccessPath(
+                        outputColumnVariableName,
+                        vectorType,
+                        arrowReaderVariableName,
+                        originalColumnIndex
+                );
+
+            } else if (columnEncoding == null) {
+                outputColumnAccessPath = new ArrowVectorAccessPath(outputColumnVariableName, vectorType);
+
+            } else {
+                // Dictionary-encoded columns are exposed as their int code vectors, which stay encoded
+                // until an operator that does not operate on codes requires the actual values
+                QueryVariableType dictionaryType = arrowTypeToArrowVectorType(columnField.getType());
+                if (columnEncoding.getIndexType().getBitWidth() != 32
+                        || (dictionaryType != QueryVariableType.ARROW_VARCHAR_VECTOR
+                            && dictionaryType.logicalType != QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR))
+                    throw new UnsupportedOperationException(
+                            "ArrowTableScanOperator.genericProduce only supports 32-bit codes into string dictionaries: " + columnField);
+
+                outputColumnAccessPath = new DictionaryEncodedArrowVectorAccessPath(
+                        outputColumnVariableName,
+                        dictionaryType,
+                        arrowReaderIndex,
+                        arrowReaderVariableName,
+                        originalColumnIndex
+                );
+            }
+
+            projectedColumnAccessPaths.add(outputColumnIndex, outputColumnAccessPath);
 
             // Do the projection by generating the variable for this column's vector
             Java.Type projectedColumnType = toJavaType(getLocation(), vectorType);
@@ -297,7 +490,7 @@ public class ArrowTableScanOperator extends CodeGenOperator {
                                     createMethodInvocation(
                                             getLocation(),
                                             createAmbiguousNameRef(getLocation(), arrowReaderVariableName),
-                                            "getVector",
+                                            isEncodedColumn ? "getEncodedSubBatchVector" : getVectorMethodName,
                                             new Java.Rvalue[] {
                                                     createIntegerLiteral(getLocation(), originalColumnIndex)
                                             }
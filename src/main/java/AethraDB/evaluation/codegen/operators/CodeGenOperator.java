@@ -5,10 +5,23 @@ import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
 import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
 import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.AccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorWithValidityMaskAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithValidityMaskAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.DictionaryEncodedArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.EncodedArrowVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.IndexedArrowVectorElementAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.SIMDLoopAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.data.PartitionedSpillFile;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen;
 import AethraDB.util.language.value.literal.AethraDateDayLiteral;
 import AethraDB.util.language.value.literal.AethraDoubleLiteral;
@@ -18,6 +31,7 @@ import AethraDB.util.language.value.literal.AethraStringLiteral;
 import org.apache.commons.lang3.tuple.Pair;
 import org.codehaus.janino.Java;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -25,6 +39,12 @@ import java.util.List;
  */
 public abstract class CodeGenOperator {
 
+    /**
+     * The number of records between two checks of whether a spilling operator should switch to
+     * spilling, which must be a power of two.
+     */
+    protected static final int SPILL_CHECK_INTERVAL = 1024;
+
     /**
      * The {@link CodeGenOperator} that consumes the result from this operator.
      */
@@ -35,6 +55,19 @@ public abstract class CodeGenOperator {
      */
     private final boolean simdEnabled = false;
 
+    /**
+     * The identifier of this operator in the {@link AethraDB.evaluation.general_support.QueryProfile}
+     * of a profiled query, or -1 if it has not been registered.
+     */
+    private int profileId = -1;
+
+    /**
+     * The name of the query-global variable containing the
+     * {@link AethraDB.evaluation.general_support.OperatorProfile} of this operator in a profiled query,
+     * or {@code null} if it has not been registered.
+     */
+    private String profileVariableName = null;
+
     /**
      * Method to set the parent of this {@link CodeGenOperator}.
      * @param parent The parent of this operator.
@@ -90,8 +123,23 @@ public abstract class CodeGenOperator {
         cCtx.pushOrdinalMapping();
         cCtx.pushCodeGenContext();
 
+        // Decode the dictionary-encoded ordinals that the parent operator cannot consume as codes
+        List<Java.Statement> parentCode = new ArrayList<>();
+        this.decodeDictionaryEncodedOrdinalsNonVec(cCtx, parentCode);
+
+        // Count the record passed to the parent operator if the query is profiled
+        // [profile].rowsOut++;
+        if (cCtx.profileQuery()) {
+            parentCode.add(
+                    JaninoOperatorGen.postIncrementStm(
+                            JaninoGeneralGen.getLocation(),
+                            this.createProfileFieldRef(cCtx, "rowsOut")
+                    )
+            );
+        }
+
         // Have the parent operator consume the result within the for loop
-        List<Java.Statement> parentCode = this.parent.consumeNonVec(cCtx, oCtx);
+        parentCode.addAll(this.parent.consumeNonVec(cCtx, oCtx));
 
         // Pop the CodeGenContext and ordinal to access path mappings again
         cCtx.popCodeGenContext();
@@ -133,8 +181,18 @@ public abstract class CodeGenOperator {
         cCtx.pushOrdinalMapping();
         cCtx.pushCodeGenContext();
 
+        // Decode the dictionary-encoded ordinals that the parent operator cannot consume as codes
+        // and unpack the encoded ordinals that the parent operator cannot consume encoded
+        List<Java.Statement> parentCode = new ArrayList<>();
+        this.decodeDictionaryEncodedOrdinalsVec(cCtx, parentCode);
+        this.unpackEncodedOrdinalsVec(cCtx, parentCode);
+
+        // Count the vector passed to the parent operator if the query is profiled
+        if (cCtx.profileQuery())
+            this.profileVectorOut(cCtx, parentCode);
+
         // Have the parent operator consume the result within the for loop
-        List<Java.Statement> parentCode = this.parent.consumeVec(cCtx, oCtx);
+        parentCode.addAll(this.parent.consumeVec(cCtx, oCtx));
 
         // Pop the CodeGenContext and ordinal to access path mappings again
         cCtx.popCodeGenContext();
@@ -143,6 +201,735 @@ public abstract class CodeGenOperator {
         return parentCode;
     }
 
+    /**
+     * Method to obtain the name of the variable containing the
+     * {@link AethraDB.evaluation.general_support.OperatorProfile} of this operator in a profiled
+     * query, which registers this operator (and its ancestors) in the query profile on first use.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @return The name of the query-global variable containing the profile of this operator.
+     */
+    protected String getProfileVariableName(CodeGenContext cCtx) {
+        if (this.profileVariableName != null)
+            return this.profileVariableName;
+
+        int parentProfileId = -1;
+        if (this.parent != null) {
+            this.parent.getProfileVariableName(cCtx);
+            parentProfileId = this.parent.profileId;
+        }
+        this.profileId = cCtx.assignOperatorProfileId();
+
+        // OperatorProfile [profileVariableName] = cCtx.getQueryProfile().registerOperator([id], [parentId], "[name]");
+        this.profileVariableName = cCtx.defineQueryGlobalVariable(
+                "operator_profile",
+                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "OperatorProfile"),
+                JaninoMethodGen.createMethodInvocation(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoMethodGen.createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                                "getQueryProfile"
+                        ),
+                        "registerOperator",
+                        new Java.Rvalue[] {
+                                JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), this.profileId),
+                                JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), parentProfileId),
+                                JaninoGeneralGen.createStringLiteral(
+                                        JaninoGeneralGen.getLocation(), "\"" + this.getClass().getSimpleName() + "\"")
+                        }
+                ),
+                false
+        );
+        return this.profileVariableName;
+    }
+
+    /**
+     * Method to create a reference to a field of the profile of this operator in a profiled query.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param fieldName The name of the field of the profile to refer to.
+     * @return The {@link Java.AmbiguousName} referring to the field.
+     */
+    private Java.AmbiguousName createProfileFieldRef(CodeGenContext cCtx, String fieldName) {
+        return JaninoGeneralGen.createAmbiguousNameRef(
+                JaninoGeneralGen.getLocation(),
+                this.getProfileVariableName(cCtx) + "." + fieldName
+        );
+    }
+
+    /**
+     * Method to generate code which counts a vector, and the records it contains, that this
+     * operator passes to its parent in a profiled vectorised query.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to which the counting code should be added.
+     */
+    private void profileVectorOut(CodeGenContext cCtx, List<Java.Statement> codegenTarget) {
+        // [profile].batchesOut++;
+        codegenTarget.add(
+                JaninoOperatorGen.postIncrementStm(
+                        JaninoGeneralGen.getLocation(),
+                        this.createProfileFieldRef(cCtx, "batchesOut")
+                )
+        );
+
+        // The records of the vector are counted via the first ordinal that represents a vector
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        Java.Rvalue vectorLength = null;
+        for (int i = 0; i < currentOrdinalMapping.size() && vectorLength == null; i++)
+            vectorLength = readVectorRecordCount(currentOrdinalMapping.get(i));
+        if (vectorLength == null)
+            return;
+
+        // [profile].rowsOut += [vectorLength];
+        codegenTarget.add(
+                JaninoVariableGen.createVariableAdditionAssignmentStm(
+                        JaninoGeneralGen.getLocation(),
+                        this.createProfileFieldRef(cCtx, "rowsOut"),
+                        vectorLength
+                )
+        );
+    }
+
+    /**
+     * Method to generate code which obtains the number of records represented by a vector access path.
+     * @param accessPath The access path to generate the code for.
+     * @return The number of valid records in the vector, or {@code null} if {@code accessPath} does
+     * not represent a vector (or an encoded vector, whose length is only known once it is unpacked).
+     */
+    private static Java.Rvalue readVectorRecordCount(AccessPath accessPath) {
+        if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.readSelectionVectorLength();
+        else if (accessPath instanceof ArrayVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.readSelectionVectorLength();
+        else if (accessPath instanceof ArrowVectorWithValidityMaskAccessPath avwvmap)
+            return createValidityMaskCount(avwvmap.readValidityMask(), avwvmap.readValidityMaskLength());
+        else if (accessPath instanceof ArrayVectorWithValidityMaskAccessPath avwvmap)
+            return createValidityMaskCount(avwvmap.readValidityMask(), avwvmap.readValidityMaskLength());
+        else if (accessPath instanceof ArrayVectorAccessPath avap)
+            return avap.getVectorLengthVariable().read();
+        else if (accessPath instanceof ArrowVectorAccessPath avap && !(avap instanceof EncodedArrowVectorAccessPath))
+            return JaninoMethodGen.createMethodInvocation(JaninoGeneralGen.getLocation(), avap.read(), "getValueCount");
+        else
+            return null;
+    }
+
+    /**
+     * Method to generate code which counts the valid entries of a validity mask.
+     * @param validityMask The validity mask to count the valid entries of.
+     * @param validityMaskLength The length of the valid portion of {@code validityMask}.
+     * @return The generated {@code VectorisedAggregationOperators.count} invocation.
+     */
+    private static Java.Rvalue createValidityMaskCount(Java.Rvalue validityMask, Java.Rvalue validityMaskLength) {
+        return JaninoMethodGen.createMethodInvocation(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "VectorisedAggregationOperators"),
+                "count",
+                new Java.Rvalue[] { validityMask, validityMaskLength }
+        );
+    }
+
+    /**
+     * Method to wrap the code of a pipeline driven by this operator with a Java Flight Recorder
+     * event covering its execution, and with code that measures the time spent in it if the query
+     * is profiled.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param code The list of statements whose tail contains the code of the pipeline.
+     * @param pipelineStart The index in {@code code} of the first statement of the pipeline.
+     */
+    protected void instrumentPipeline(CodeGenContext cCtx, List<Java.Statement> code, int pipelineStart) {
+        // PipelineEvent pipeline_event_[pipelineId] = PipelineEvent.start(cCtx.getQueryId(), [pipelineId], "[name]");
+        // The variable is named after the pipeline, as the pipelines of a query share the scope of
+        // the execute method
+        int pipelineId = cCtx.assignPipelineId();
+        String pipelineEventVariableName = cCtx.defineVariable("pipeline_event_" + pipelineId);
+        code.add(
+                pipelineStart,
+                JaninoVariableGen.createLocalVariable(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "PipelineEvent"),
+                        pipelineEventVariableName,
+                        JaninoMethodGen.createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "PipelineEvent"),
+                                "start",
+                                new Java.Rvalue[] {
+                                        JaninoMethodGen.createMethodInvocation(
+                                                JaninoGeneralGen.getLocation(),
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                                                "getQueryId"
+                                        ),
+                                        JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), pipelineId),
+                                        JaninoGeneralGen.createStringLiteral(
+                                                JaninoGeneralGen.getLocation(), "\"" + this.getClass().getSimpleName() + "\"")
+                                }
+                        )
+                )
+        );
+
+        if (cCtx.profileQuery()) {
+            // long pipeline_start_[id] = System.nanoTime();
+            // The variable is named after the operator driving the pipeline, as the pipelines of a
+            // query share the scope of the execute method
+            this.getProfileVariableName(cCtx);
+            String startTimeVariableName = cCtx.defineVariable("pipeline_start_" + this.profileId);
+            code.add(
+                    pipelineStart + 1,
+                    JaninoVariableGen.createLocalVariable(
+                            JaninoGeneralGen.getLocation(),
+                            JaninoGeneralGen.createPrimitiveType(JaninoGeneralGen.getLocation(), Java.Primitive.LONG),
+                            startTimeVariableName,
+                            createNanoTimeInvocation()
+                    )
+            );
+
+            // [profile].pipelineNanos += System.nanoTime() - pipeline_start_[id];
+            code.add(
+                    JaninoVariableGen.createVariableAdditionAssignmentStm(
+                            JaninoGeneralGen.getLocation(),
+                            this.createProfileFieldRef(cCtx, "pipelineNanos"),
+                            JaninoOperatorGen.sub(
+                                    JaninoGeneralGen.getLocation(),
+                                    createNanoTimeInvocation(),
+                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), startTimeVariableName)
+                            )
+                    )
+            );
+        }
+
+        // pipeline_event_[pipelineId].finish();
+        code.add(
+                JaninoMethodGen.createMethodInvocationStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), pipelineEventVariableName),
+                        "finish"
+                )
+        );
+    }
+
+    /**
+     * Method to generate code which records the statistics of a hash-table built by this operator,
+     * if the query is profiled.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to which the code should be added.
+     * @param hashTable The generated map (which offers a {@code recordStatistics} method) to profile.
+     */
+    protected void profileHashTable(CodeGenContext cCtx, List<Java.Statement> codegenTarget, Java.Rvalue hashTable) {
+        if (!cCtx.profileQuery())
+            return;
+
+        // [hashTable].recordStatistics([profile]);
+        codegenTarget.add(
+                JaninoMethodGen.createMethodInvocationStm(
+                        JaninoGeneralGen.getLocation(),
+                        hashTable,
+                        "recordStatistics",
+                        new Java.Rvalue[] {
+                                JaninoGeneralGen.createAmbiguousNameRef(
+                                        JaninoGeneralGen.getLocation(),
+                                        this.getProfileVariableName(cCtx)
+                                )
+                        }
+                )
+        );
+    }
+
+    /**
+     * Method to generate a {@code System.nanoTime()} invocation.
+     * @return The generated invocation.
+     */
+    private static Java.Rvalue createNanoTimeInvocation() {
+        return JaninoMethodGen.createMethodInvocation(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "System"),
+                "nanoTime"
+        );
+    }
+
+    /**
+     * Method to generate the declaration of a {@link PartitionedSpillFile} variable, to which an
+     * operator writes its input records when it spills in the non-vectorised paradigm.
+     * @param spillFileName The name of the variable to declare.
+     * @param filePrefix The prefix to use for the names of the partition files.
+     * @param columnTypes The primitive types of the columns of the records that will be spilled.
+     * @return The generated declaration.
+     */
+    protected static Java.Statement createSpillFileDeclaration(
+            String spillFileName,
+            String filePrefix,
+            QueryVariableType[] columnTypes
+    ) {
+        String[] spillColumnTypes = new String[columnTypes.length];
+        String[] spillColumnByteWidths = new String[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            int spillColumnType = switch (columnTypes[i].logicalType) {
+                case P_INT -> PartitionedSpillFile.INT_COLUMN;
+                case P_INT_DATE -> PartitionedSpillFile.DATE_COLUMN;
+                case P_LONG -> PartitionedSpillFile.LONG_COLUMN;
+                case P_DOUBLE -> PartitionedSpillFile.DOUBLE_COLUMN;
+                case S_FL_BIN -> PartitionedSpillFile.FIXED_LENGTH_BINARY_COLUMN;
+                default -> PartitionedSpillFile.VARCHAR_COLUMN;
+            };
+            spillColumnTypes[i] = Integer.toString(spillColumnType);
+            spillColumnByteWidths[i] = Integer.toString(Math.max(columnTypes[i].byteWidth, 0));
+        }
+
+        // PartitionedSpillFile [spillFileName] = new PartitionedSpillFile(
+        //         cCtx.getArrowQueryAllocator(), "[filePrefix]", new int[] { ... }, new int[] { ... }, 0);
+        Java.Type spillFileType = JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "PartitionedSpillFile");
+        return JaninoVariableGen.createLocalVariable(
+                JaninoGeneralGen.getLocation(),
+                spillFileType,
+                spillFileName,
+                JaninoClassGen.createClassInstance(
+                        JaninoGeneralGen.getLocation(),
+                        spillFileType,
+                        new Java.Rvalue[] {
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                                        "getArrowQueryAllocator"
+                                ),
+                                JaninoGeneralGen.createStringLiteral(JaninoGeneralGen.getLocation(), "\"" + filePrefix + "\""),
+                                JaninoGeneralGen.createInitialisedPrimitiveArray(
+                                        JaninoGeneralGen.getLocation(), Java.Primitive.INT, spillColumnTypes),
+                                JaninoGeneralGen.createInitialisedPrimitiveArray(
+                                        JaninoGeneralGen.getLocation(), Java.Primitive.INT, spillColumnByteWidths),
+                                JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), 0)
+                        }
+                )
+        );
+    }
+
+    /**
+     * Method to generate the code which writes a record to a {@link PartitionedSpillFile} in the
+     * non-vectorised paradigm.
+     * @param codegenTarget The list of statements to which the code should be added.
+     * @param spillFileName The name of the {@link PartitionedSpillFile} variable.
+     * @param preHash The pre-hash value of the key on which the record is partitioned.
+     * @param columnTypes The primitive types of the columns of the record.
+     * @param columnValues The values of the columns of the record.
+     */
+    protected static void spillRecordNonVec(
+            List<Java.Statement> codegenTarget,
+            String spillFileName,
+            Java.Rvalue preHash,
+            QueryVariableType[] columnTypes,
+            Java.Rvalue[] columnValues
+    ) {
+        // [spillFile].startRecord([preHash]);
+        codegenTarget.add(
+                JaninoMethodGen.createMethodInvocationStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), spillFileName),
+                        "startRecord",
+                        new Java.Rvalue[] { preHash }
+                )
+        );
+
+        // [spillFile].write[Type](i, [column_i]); for each column
+        for (int i = 0; i < columnTypes.length; i++) {
+            String writeMethodName = switch (columnTypes[i].logicalType) {
+                case P_INT, P_INT_DATE -> "writeInt";
+                case P_LONG -> "writeLong";
+                case P_DOUBLE -> "writeDouble";
+                case S_FL_BIN, S_VARCHAR -> "writeBytes";
+                default -> throw new UnsupportedOperationException(
+                        "CodeGenOperator.spillRecordNonVec does not support spilling columns of type " + columnTypes[i]);
+            };
+
+            codegenTarget.add(
+                    JaninoMethodGen.createMethodInvocationStm(
+                            JaninoGeneralGen.getLocation(),
+                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), spillFileName),
+                            writeMethodName,
+                            new Java.Rvalue[] {
+                                    JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), i),
+                                    columnValues[i]
+                            }
+                    )
+            );
+        }
+
+        // [spillFile].endRecord();
+        codegenTarget.add(
+                JaninoMethodGen.createMethodInvocationStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), spillFileName),
+                        "endRecord"
+                )
+        );
+    }
+
+    /**
+     * Method to generate the declarations of the variables tracking whether an operator has
+     * switched to spilling in the non-vectorised paradigm, which it initially does not.
+     * @param spillingName The name of the boolean variable indicating whether the operator spills.
+     * @param spillCheckName The name of the int variable counting the records since the operator
+     *                       started checking whether it should spill.
+     * @return The generated declarations.
+     */
+    protected static List<Java.Statement> createSpillStateDeclarations(String spillingName, String spillCheckName) {
+        // boolean [spillingName] = false;
+        // int [spillCheckName] = 0;
+        return new ArrayList<>(List.of(
+                JaninoVariableGen.createLocalVariable(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createPrimitiveType(JaninoGeneralGen.getLocation(), Java.Primitive.BOOLEAN),
+                        spillingName,
+                        new Java.BooleanLiteral(JaninoGeneralGen.getLocation(), "false")
+                ),
+                JaninoVariableGen.createPrimitiveLocalVar(
+                        JaninoGeneralGen.getLocation(), Java.Primitive.INT, spillCheckName, "0")
+        ));
+    }
+
+    /**
+     * Method to generate the condition under which an operator switches to spilling in the
+     * non-vectorised paradigm. As the generated maps cannot undo a failed reservation, the operator
+     * does not wait for a reservation to fail, but checks every {@code SPILL_CHECK_INTERVAL} records
+     * whether the hash-table of {@code memoryOwner} could still double in size within the budget.
+     * @param spillingName The name of the boolean variable indicating whether the operator spills.
+     * @param spillCheckName The name of the int variable counting the records since the operator
+     *                       started checking whether it should spill.
+     * @param memoryOwner The name under which the hash-table reserves its memory.
+     * @return The generated condition.
+     */
+    protected static Java.Rvalue createSpillTriggerCondition(
+            String spillingName,
+            String spillCheckName,
+            String memoryOwner
+    ) {
+        // !spilling && (spill_check++ & [SPILL_CHECK_INTERVAL - 1]) == [SPILL_CHECK_INTERVAL - 1]
+        //     && !cCtx.getMemoryAccountant().canGrow("[memoryOwner]")
+        return JaninoOperatorGen.and(
+                JaninoGeneralGen.getLocation(),
+                JaninoOperatorGen.and(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoOperatorGen.not(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), spillingName)
+                        ),
+                        JaninoOperatorGen.eq(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoOperatorGen.binAnd(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoOperatorGen.postIncrement(
+                                                JaninoGeneralGen.getLocation(),
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), spillCheckName)
+                                        ),
+                                        JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), SPILL_CHECK_INTERVAL - 1)
+                                ),
+                                JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), SPILL_CHECK_INTERVAL - 1)
+                        )
+                ),
+                JaninoOperatorGen.not(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoMethodGen.createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                                        "getMemoryAccountant"
+                                ),
+                                "canGrow",
+                                new Java.Rvalue[] {
+                                        JaninoGeneralGen.createStringLiteral(JaninoGeneralGen.getLocation(), "\"" + memoryOwner + "\"")
+                                }
+                        )
+                )
+        );
+    }
+
+    /**
+     * Method to generate a scan over a partition of spilled records in the non-vectorised paradigm.
+     * The scan exposes the records of the partition one at a time as the current ordinal mapping,
+     * after which the caller should add the code consuming a record to the returned loop body.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to which the scan should be added.
+     * @param partitionReaderName The name of the {@code ArrowTableReader} variable over the partition.
+     * @param columnTypes The primitive types of the columns of the spilled records.
+     * @return The body of the loop over the records of the partition.
+     */
+    protected static Java.Block scanSpilledPartitionNonVec(
+            CodeGenContext cCtx,
+            List<Java.Statement> codegenTarget,
+            String partitionReaderName,
+            QueryVariableType[] columnTypes
+    ) {
+        // while ([partitionReader].loadNextBatch()) { [batchLoopBody] }
+        Java.Block batchLoopBody = JaninoMethodGen.createBlock(JaninoGeneralGen.getLocation());
+        codegenTarget.add(
+                JaninoControlGen.createWhileLoop(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoMethodGen.createMethodInvocation(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), partitionReaderName),
+                                "loadNextBatch"
+                        ),
+                        batchLoopBody
+                )
+        );
+
+        // [vectorType] [partitionReader]_vc_[i] = ([vectorType]) [partitionReader].getVector(i);
+        ArrowVectorAccessPath[] columnVectors = new ArrowVectorAccessPath[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            QueryVariableType vectorType = switch (columnTypes[i].logicalType) {
+                case P_INT -> QueryVariableType.ARROW_INT_VECTOR;
+                case P_INT_DATE -> QueryVariableType.ARROW_DATE_VECTOR;
+                case P_LONG -> QueryVariableType.ARROW_LONG_VECTOR;
+                case P_DOUBLE -> QueryVariableType.ARROW_DOUBLE_VECTOR;
+                case S_FL_BIN -> new QueryVariableType(
+                        QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR, columnTypes[i].byteWidth);
+                default -> QueryVariableType.ARROW_VARCHAR_VECTOR;
+            };
+            columnVectors[i] = new ArrowVectorAccessPath(cCtx.defineVariable(partitionReaderName + "_vc_" + i), vectorType);
+
+            Java.Type javaVectorType = QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), vectorType);
+            batchLoopBody.addStatement(
+                    JaninoVariableGen.createLocalVariable(
+                            JaninoGeneralGen.getLocation(),
+                            javaVectorType,
+                            columnVectors[i].getVariableName(),
+                            JaninoGeneralGen.createCast(
+                                    JaninoGeneralGen.getLocation(),
+                                    javaVectorType,
+                                    JaninoMethodGen.createMethodInvocation(
+                                            JaninoGeneralGen.getLocation(),
+                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), partitionReaderName),
+                                            "getVector",
+                                            new Java.Rvalue[] { JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), i) }
+                                    )
+                            )
+                    )
+            );
+        }
+
+        // int recordCount = [partitionReader]_vc_0.getValueCount();
+        ScalarVariableAccessPath recordCountAP = new ScalarVariableAccessPath(
+                cCtx.defineVariable("recordCount"), QueryVariableType.P_INT);
+        batchLoopBody.addStatement(
+                JaninoVariableGen.createLocalVariable(
+                        JaninoGeneralGen.getLocation(),
+                        QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), recordCountAP.getType()),
+                        recordCountAP.getVariableName(),
+                        JaninoMethodGen.createMethodInvocation(JaninoGeneralGen.getLocation(), columnVectors[0].read(), "getValueCount")
+                )
+        );
+
+        // for (int aviv = 0; aviv < recordCount; aviv++) { [recordLoopBody] }
+        Java.Block recordLoopBody = JaninoMethodGen.createBlock(JaninoGeneralGen.getLocation());
+        ScalarVariableAccessPath avivAP = new ScalarVariableAccessPath(cCtx.defineVariable("aviv"), QueryVariableType.P_INT);
+        batchLoopBody.addStatement(
+                JaninoControlGen.createForLoop(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoVariableGen.createPrimitiveLocalVar(
+                                JaninoGeneralGen.getLocation(), Java.Primitive.INT, avivAP.getVariableName(), "0"),
+                        JaninoOperatorGen.lt(JaninoGeneralGen.getLocation(), avivAP.read(), recordCountAP.read()),
+                        JaninoOperatorGen.postIncrement(JaninoGeneralGen.getLocation(), avivAP.write()),
+                        recordLoopBody
+                )
+        );
+
+        // Expose the records of the partition via the ordinal mapping
+        List<AccessPath> partitionOrdinalMapping = new ArrayList<>(columnVectors.length);
+        for (ArrowVectorAccessPath columnVector : columnVectors)
+            partitionOrdinalMapping.add(new IndexedArrowVectorElementAccessPath(
+                    columnVector, avivAP, QueryVariableTypeMethods.memberTypeForArrowVector(columnVector.getType())));
+        cCtx.setCurrentOrdinalMapping(partitionOrdinalMapping);
+
+        return recordLoopBody;
+    }
+
+    /**
+     * Method to indicate whether the current operator can consume a dictionary-encoded ordinal as
+     * its int codes, i.e. as an access path over a {@link DictionaryEncodedArrowVectorAccessPath}.
+     * Dictionary-encoded ordinals are decoded before being passed to operators that cannot.
+     * @param ordinalIndex The index of the dictionary-encoded ordinal in the ordinal mapping
+     *                     that will be passed to the operator.
+     * @return {@code true} iff the operator can consume the ordinal without decoding it.
+     */
+    protected boolean consumesDictionaryCodes(int ordinalIndex) {
+        return false;
+    }
+
+    /**
+     * Method to decode the dictionary-encoded ordinals in the current ordinal mapping that the
+     * parent operator cannot consume as codes, in the non-vectorised code generation process.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to which the decoding code should be added.
+     */
+    private void decodeDictionaryEncodedOrdinalsNonVec(CodeGenContext cCtx, List<Java.Statement> codegenTarget) {
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        for (int i = 0; i < currentOrdinalMapping.size(); i++) {
+            if (!(currentOrdinalMapping.get(i) instanceof IndexedArrowVectorElementAccessPath iaveap)
+                    || !(iaveap.getArrowVectorVariable() instanceof DictionaryEncodedArrowVectorAccessPath deavap)
+                    || this.parent.consumesDictionaryCodes(i))
+                continue;
+
+            // [memberType] ordinal_value = [dictionaryValues][[codeVector].get([index])];
+            QueryVariableType memberType = QueryVariableTypeMethods.memberTypeForArrowVector(deavap.getValueType());
+            ScalarVariableAccessPath decodedValueAP = new ScalarVariableAccessPath(
+                    cCtx.defineVariable("ordinal_value"),
+                    memberType
+            );
+            codegenTarget.add(
+                    JaninoVariableGen.createLocalVariable(
+                            JaninoGeneralGen.getLocation(),
+                            QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), memberType),
+                            decodedValueAP.getVariableName(),
+                            JaninoGeneralGen.createArrayElementAccessExpr(
+                                    JaninoGeneralGen.getLocation(),
+                                    JaninoGeneralGen.createAmbiguousNameRef(
+                                            JaninoGeneralGen.getLocation(),
+                                            this.getDictionaryValuesVariable(cCtx, deavap)),
+                                    iaveap.readGeneric()
+                            )
+                    )
+            );
+            currentOrdinalMapping.set(i, decodedValueAP);
+        }
+    }
+
+    /**
+     * Method to decode the dictionary-encoded ordinals in the current ordinal mapping that the
+     * parent operator cannot consume as codes, in the vectorised code generation process.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to which the decoding code should be added.
+     */
+    private void decodeDictionaryEncodedOrdinalsVec(CodeGenContext cCtx, List<Java.Statement> codegenTarget) {
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        for (int i = 0; i < currentOrdinalMapping.size(); i++) {
+            AccessPath ordinalAP = currentOrdinalMapping.get(i);
+            DictionaryEncodedArrowVectorAccessPath deavap;
+            if (ordinalAP instanceof DictionaryEncodedArrowVectorAccessPath plainDeavap)
+                deavap = plainDeavap;
+            else if (ordinalAP instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap
+                    && avwsvap.getArrowVectorVariable() instanceof DictionaryEncodedArrowVectorAccessPath selectedDeavap)
+                deavap = selectedDeavap;
+            else
+                continue;
+
+            if (this.parent.consumesDictionaryCodes(i))
+                continue;
+
+            // Decode the complete code vector, as the selection vector (if any) remains valid on the result
+            // [valueType] ordinal_vector = ([valueType]) [tableReader].decodeDictionaryCodes([columnIndex], [codeVector]);
+            Java.Type valueJavaType = QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), deavap.getValueType());
+            ArrowVectorAccessPath decodedVectorAP = new ArrowVectorAccessPath(
+                    cCtx.defineVariable("ordinal_vector"),
+                    deavap.getValueType()
+            );
+            codegenTarget.add(
+                    JaninoVariableGen.createLocalVariable(
+                            JaninoGeneralGen.getLocation(),
+                            valueJavaType,
+                            decodedVectorAP.getVariableName(),
+                            JaninoGeneralGen.createCast(JaninoGeneralGen.getLocation(), valueJavaType, deavap.decode())
+                    )
+            );
+
+            if (ordinalAP instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap) {
+                currentOrdinalMapping.set(i, new ArrowVectorWithSelectionVectorAccessPath(
+                        decodedVectorAP,
+                        avwsvap.getSelectionVectorVariable(),
+                        avwsvap.getSelectionVectorLengthVariable(),
+                        QueryVariableTypeMethods.arrowVectorWithSelectionVectorType(deavap.getValueType())
+                ));
+            } else {
+                currentOrdinalMapping.set(i, decodedVectorAP);
+            }
+        }
+    }
+
+    /**
+     * Method to indicate whether the current operator can consume an ordinal that is served from an
+     * encoded column file without unpacking its values, i.e. as an access path over an
+     * {@link EncodedArrowVectorAccessPath}. Encoded ordinals are unpacked before being passed to
+     * operators that cannot, where only the values of the selected records are unpacked.
+     * @param ordinalIndex The index of the encoded ordinal in the ordinal mapping that will be
+     *                     passed to the operator.
+     * @return {@code true} iff the operator can consume the ordinal without unpacking it.
+     */
+    protected boolean consumesEncodedValues(int ordinalIndex) {
+        return false;
+    }
+
+    /**
+     * Method to unpack the encoded ordinals in the current ordinal mapping that the parent operator
+     * cannot consume encoded, in the vectorised code generation process.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to which the unpacking code should be added.
+     */
+    private void unpackEncodedOrdinalsVec(CodeGenContext cCtx, List<Java.Statement> codegenTarget) {
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        for (int i = 0; i < currentOrdinalMapping.size(); i++) {
+            AccessPath ordinalAP = currentOrdinalMapping.get(i);
+            EncodedArrowVectorAccessPath eavap;
+            if (ordinalAP instanceof EncodedArrowVectorAccessPath plainEavap)
+                eavap = plainEavap;
+            else if (ordinalAP instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap
+                    && avwsvap.getArrowVectorVariable() instanceof EncodedArrowVectorAccessPath selectedEavap)
+                eavap = selectedEavap;
+            else
+                continue;
+
+            if (this.parent.consumesEncodedValues(i))
+                continue;
+
+            // Only unpack the selected records if there is a selection vector
+            // [vectorType] ordinal_vector = ([vectorType]) [tableReader].unpackEncodedColumn([columnIndex][, [selVec], [selVecLength]]);
+            Java.Type vectorJavaType = QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), eavap.getType());
+            ArrowVectorAccessPath unpackedVectorAP = new ArrowVectorAccessPath(
+                    cCtx.defineVariable("ordinal_vector"),
+                    eavap.getType()
+            );
+            Java.Rvalue unpackInvocation = (ordinalAP instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap)
+                    ? eavap.unpack(avwsvap.readSelectionVector(), avwsvap.readSelectionVectorLength())
+                    : eavap.unpack();
+            codegenTarget.add(
+                    JaninoVariableGen.createLocalVariable(
+                            JaninoGeneralGen.getLocation(),
+                            vectorJavaType,
+                            unpackedVectorAP.getVariableName(),
+                            JaninoGeneralGen.createCast(JaninoGeneralGen.getLocation(), vectorJavaType, unpackInvocation)
+                    )
+            );
+
+            if (ordinalAP instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap) {
+                currentOrdinalMapping.set(i, new ArrowVectorWithSelectionVectorAccessPath(
+                        unpackedVectorAP,
+                        avwsvap.getSelectionVectorVariable(),
+                        avwsvap.getSelectionVectorLengthVariable(),
+                        avwsvap.getType()
+                ));
+            } else {
+                currentOrdinalMapping.set(i, unpackedVectorAP);
+            }
+        }
+    }
+
+    /**
+     * Method to obtain the query-global variable holding the materialised values of the dictionary
+     * of a dictionary-encoded column, defining the variable if this has not happened yet.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param deavap The access path of the dictionary-encoded column.
+     * @return The name of the variable holding the dictionary values.
+     */
+    protected String getDictionaryValuesVariable(CodeGenContext cCtx, DictionaryEncodedArrowVectorAccessPath deavap) {
+        if (deavap.getDictionaryValuesVariableName() == null) {
+            // byte[][] dictionary_values = cCtx.getArrowReader([readerIndex]).getDictionaryValues([columnIndex]);
+            deavap.setDictionaryValuesVariableName(
+                    cCtx.defineQueryGlobalVariable(
+                            "dictionary_values",
+                            JaninoGeneralGen.createNestedPrimitiveArrayType(JaninoGeneralGen.getLocation(), Java.Primitive.BYTE),
+                            deavap.readDictionaryValues(),
+                            false
+                    )
+            );
+        }
+
+        return deavap.getDictionaryValuesVariableName();
+    }
+
     /**
      * Method to retrieve a {@link Java.Rvalue} for a non-vector {@link AccessPath} which is an
      * ordinal of the current {@link CodeGenContext} ordinal mapping.
@@ -249,14 +1036,14 @@ public abstract class CodeGenOperator {
 
 
             } else {
-                // Allocate a local variable and assign it the value which is obtained via a generic read
+                // Allocate a local variable and assign it the value which is obtained via a primitive read
                 operandVariableName = cCtx.defineVariable("ordinal_value");
                 codegenTarget.add(
                         JaninoVariableGen.createLocalVariable(
                                 JaninoGeneralGen.getLocation(),
                                 QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), ordinalType),
                                 operandVariableName,
-                                iaveap.readGeneric()
+                                iaveap.readPrimitive()
                         )
                 );
 
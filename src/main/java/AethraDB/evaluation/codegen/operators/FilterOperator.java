@@ -7,8 +7,14 @@ import AethraDB.evaluation.codegen.infrastructure.context.access_path.AccessPath
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.DictionaryEncodedArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.EncodedArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.IndexedArrowVectorElementAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.general_support.AdaptiveConjunctOrder;
+import AethraDB.evaluation.general_support.PackedStrings;
 import AethraDB.util.language.AethraExpression;
+import AethraDB.util.language.function.AethraBetweenFunction;
 import AethraDB.util.language.function.AethraBinaryFunction;
 import AethraDB.util.language.function.AethraFunction;
 import AethraDB.util.language.function.logic.AethraAndFunction;
@@ -23,6 +29,7 @@ import org.codehaus.janino.Java;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_A_INT;
@@ -31,20 +38,32 @@ import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTy
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT_DATE;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.arrowVectorWithSelectionVectorType;
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen.createClassInstance;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen.createIfNotContinue;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen.createSwitch;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createArrayElementAccessExpr;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createFloatingPointLiteral;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createInitialisedByteArray;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createInitialisedPrimitiveArray;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createIntegerLiteral;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createPrimitiveArrayType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createPrimitiveType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createReferenceType;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.and;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.eq;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.ge;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.gt;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.le;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.lt;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.not;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.postIncrementStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.sub;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
 
 /**
  * A {@link CodeGenOperator} which filters out records according to a given condition.
@@ -84,7 +103,8 @@ public class FilterOperator extends CodeGenOperator {
 
     @Override
     public List<Java.Statement> produceNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
-        // Simply forward the call to the child operator to get the results of the query
+        // Forward the call to the child operator to get the results of the query, allowing a scan to skip batches
+        this.registerBatchPruningRanges(this.filterExpression);
         return this.child.produceNonVec(cCtx, oCtx);
     }
 
@@ -121,7 +141,9 @@ public class FilterOperator extends CodeGenOperator {
         // Forward the generation obligation to the correct method based on the operator type.
         return switch (castFilterOperator.getKind()) {
             case AND -> consumeNonVecAndOperator(cCtx, oCtx, (AethraAndFunction) castFilterOperator, callParentConsumeOnMatch);
+            case BETWEEN -> consumeNonVecBetweenOperator(cCtx, oCtx, (AethraBetweenFunction) castFilterOperator, callParentConsumeOnMatch);
             case EQ, GT, GTE, LT, LTE -> consumeNonVecComparisonOperator(cCtx, oCtx, (AethraBinaryFunction) castFilterOperator, callParentConsumeOnMatch);
+            case LIKE, NOT_LIKE -> consumeNonVecLikeOperator(cCtx, oCtx, (AethraBinaryFunction) castFilterOperator, callParentConsumeOnMatch);
             default -> throw new UnsupportedOperationException(
                     "FilterOperator.consumeNonVecOperator does not support this operator type");
         };
@@ -144,12 +166,19 @@ public class FilterOperator extends CodeGenOperator {
             AethraAndFunction filterOperator,
             boolean callParentConsumeOnMatch
     ) {
+        // Lower and upper bound comparisons on the same column are fused into a single range check
+        AethraAndFunction fusedFilterOperator = this.fuseRangePredicates(cCtx, filterOperator);
+
+        // Small conjunctions of simple predicates are evaluated in an order chosen at runtime
+        if (this.useAdaptiveConjunctOrder(cCtx, fusedFilterOperator, false))
+            return this.consumeNonVecAdaptiveAndOperator(cCtx, oCtx, fusedFilterOperator, callParentConsumeOnMatch);
+
         // Initialise the result
         List<Java.Statement> codegenResult = new ArrayList<>();
 
         // Obtain the AND operands and generate code for each of them
         // If a record does not match the operand, it will invoke a continue statement
-        for (AethraExpression operand : filterOperator.operands)
+        for (AethraExpression operand : fusedFilterOperator.operands)
             codegenResult.addAll(consumeNonVecOperator(cCtx, oCtx, operand, false));
 
         // Any record which processes beyond the above operands in the code-gen flow, matches the
@@ -157,75 +186,1030 @@ public class FilterOperator extends CodeGenOperator {
         if (callParentConsumeOnMatch)
             codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
 
-        // Return the resulting code
-        return codegenResult;
+        // Return the resulting code
+        return codegenResult;
+    }
+
+    /**
+     * Method to generate the required non-vectorised code on the backward code generation pass for
+     * an AND operator whose operands are evaluated in an order chosen at runtime by an
+     * {@link AdaptiveConjunctOrder}. The code for each position contains a case per operand, so
+     * that the order can change between records without regenerating the query code.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The AND operator to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if this {@code filterOperator} matches.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecAdaptiveAndOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraAndFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+        String conjunctOrderName = this.defineAdaptiveConjunctOrder(cCtx, filterOperator);
+
+        // [conjunctOrderName].beginRecord();
+        codegenResult.add(
+                createMethodInvocationStm(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), conjunctOrderName),
+                        "beginRecord"
+                )
+        );
+
+        for (int position = 0; position < filterOperator.operands.length; position++) {
+            // Generate each operand on a copy of the ordinal mapping, as the case in which an
+            // operand is evaluated is not guaranteed to be executed
+            List<List<Java.Statement>> caseBodies = new ArrayList<>(filterOperator.operands.length);
+            for (AethraExpression operand : filterOperator.operands) {
+                cCtx.pushOrdinalMapping();
+                caseBodies.add(consumeNonVecOperator(cCtx, oCtx, operand, false));
+                cCtx.popOrdinalMapping();
+            }
+
+            // switch ([conjunctOrderName].order[position]) {
+            //     case 0: { [operand 0 code] } break;
+            //     ...
+            // }
+            // [conjunctOrderName].passedRecords[position]++;
+            codegenResult.add(
+                    createSwitch(
+                            getLocation(),
+                            createArrayElementAccessExpr(
+                                    getLocation(),
+                                    createAmbiguousNameRef(getLocation(), conjunctOrderName + ".order"),
+                                    createIntegerLiteral(getLocation(), position)
+                            ),
+                            caseBodies
+                    )
+            );
+            codegenResult.add(
+                    postIncrementStm(
+                            getLocation(),
+                            createArrayElementAccessExpr(
+                                    getLocation(),
+                                    createAmbiguousNameRef(getLocation(), conjunctOrderName + ".passedRecords"),
+                                    createIntegerLiteral(getLocation(), position)
+                            )
+                    )
+            );
+        }
+
+        // Any record which processes beyond the above positions matches the conjunctive condition
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
+
+        // Return the resulting code
+        return codegenResult;
+    }
+
+    /**
+     * Method to generate the required non-vectorised code on the backward code generation pass for
+     * a range check. Integer and date columns are checked with a single unsigned comparison of the
+     * offset of the value from the lower bound, while double columns compare against both bounds.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The range check to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if this {@code filterOperator} matches. Necessary to allow
+     *                                 recursive code generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecBetweenOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraBetweenFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+
+        if (!(filterOperator.firstOperand instanceof AethraInputRef lhsRef))
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeNonVecBetweenOperator only supports input references as the checked operand");
+        QueryVariableType lhsType = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex).getType();
+
+        Java.Rvalue rangeCheck;
+        if (isIntegralRangeColumn(lhsType)) {
+            // Integer.compareUnsigned(lhsRvalue - [lower], [upper - lower]) <= 0
+            int[] bounds = getIntegralBetweenBounds(filterOperator);
+            rangeCheck = le(
+                    getLocation(),
+                    createMethodInvocation(
+                            getLocation(),
+                            createAmbiguousNameRef(getLocation(), "Integer"),
+                            "compareUnsigned",
+                            new Java.Rvalue[] {
+                                    sub(
+                                            getLocation(),
+                                            codeGenOperandNonVec(cCtx, lhsRef, codegenResult),
+                                            createIntegerLiteral(getLocation(), bounds[0])
+                                    ),
+                                    createIntegerLiteral(getLocation(), bounds[1] - bounds[0])
+                            }
+                    ),
+                    createIntegerLiteral(getLocation(), 0)
+            );
+
+        } else if (isDoubleRangeColumn(lhsType)) {
+            // lhsRvalue >= [lower] && lhsRvalue <= [upper]
+            double[] bounds = getDoubleBetweenBounds(filterOperator);
+            rangeCheck = and(
+                    getLocation(),
+                    ge(
+                            getLocation(),
+                            codeGenOperandNonVec(cCtx, lhsRef, codegenResult),
+                            createFloatingPointLiteral(getLocation(), bounds[0])
+                    ),
+                    le(
+                            getLocation(),
+                            codeGenOperandNonVec(cCtx, lhsRef, codegenResult),
+                            createFloatingPointLiteral(getLocation(), bounds[1])
+                    )
+            );
+
+        } else {
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeNonVecBetweenOperator does not support this operand type: " + lhsType);
+        }
+
+        // if (!(rangeCheck))
+        //     continue;
+        codegenResult.add(createIfNotContinue(getLocation(), rangeCheck));
+
+        // The condition matches. Invoke the parent consumption method if required.
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
+
+        // Return the result
+        return codegenResult;
+    }
+
+    /**
+     * Method to generate the required non-vectorised code on the backward code generation pass for
+     * a comparison (>, >=, <, <=) operator.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The < operator to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if this {@code filterOperator} matches. Necessary to allow
+     *                                 recursive code generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecComparisonOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraBinaryFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+
+        // Obtain the operator
+        AethraFunction.Kind comparisonOp = filterOperator.getKind();
+        if (comparisonOp != AethraFunction.Kind.EQ
+                && comparisonOp != AethraFunction.Kind.GT
+                && comparisonOp != AethraFunction.Kind.GTE
+                && comparisonOp != AethraFunction.Kind.LT
+                && comparisonOp != AethraFunction.Kind.LTE)
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeNonVecComparisonOperator does not support the provided comparison operator: " + comparisonOp);
+
+        // Obtain the operands
+        AethraExpression lhs = filterOperator.firstOperand;
+        AethraExpression rhs = filterOperator.secondOperand;
+
+        if (this.useSIMDNonVec(cCtx))
+            throw new UnsupportedOperationException("FilterOperator.consumeNonVecComparisonOperator no longer supports SIMD");
+
+        // Dictionary-encoded columns are compared once per dictionary entry rather than once per record
+        if (lhs instanceof AethraInputRef lhsRef && rhs instanceof AethraStringLiteral rhsLit
+                && getDictionaryEncodedVector(cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex)) != null) {
+            return this.consumeNonVecDictionaryPredicate(
+                    cCtx,
+                    oCtx,
+                    lhsRef.columnIndex,
+                    getComparisonPrimitiveName(comparisonOp),
+                    createInitialisedByteArray(getLocation(), rhsLit.value),
+                    callParentConsumeOnMatch
+            );
+        }
+
+        // Short fixed-size binary columns are compared as packed words, loaded straight from the data buffer
+        if (lhs instanceof AethraInputRef lhsRef && rhs instanceof AethraStringLiteral rhsLit
+                && usePackedComparison(cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex).getType(), rhsLit.value, comparisonOp)) {
+            codegenResult.add(
+                    createIfNotContinue(
+                            getLocation(),
+                            codeGenPackedComparisonNonVec(cCtx, lhsRef, rhsLit, comparisonOp, codegenResult)
+                    )
+            );
+
+            if (callParentConsumeOnMatch)
+                codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
+
+            return codegenResult;
+        }
+
+        // Convert the operands
+        Java.Rvalue lhsRvalue = codeGenOperandNonVec(cCtx, lhs, codegenResult);
+        Java.Rvalue rhsRvalue = codeGenOperandNonVec(cCtx, rhs, codegenResult);
+
+        // Generate the required control flow
+        // if (!(lhsRvalue "operator" rhsRvalue))
+        //     continue;
+        codegenResult.add(
+                createIfNotContinue(
+                        getLocation(),
+                        switch (comparisonOp) {
+                            case EQ -> eq(getLocation(), lhsRvalue, rhsRvalue);
+                            case GT -> gt(getLocation(), lhsRvalue, rhsRvalue);
+                            case GTE -> ge(getLocation(), lhsRvalue, rhsRvalue);
+                            case LT -> lt(getLocation(), lhsRvalue, rhsRvalue);
+                            case LTE -> le(getLocation(), lhsRvalue, rhsRvalue);
+                            default -> throw new UnsupportedOperationException(
+                                    "FilterOperator.consumeNonVecComparisonOperator does not support the provided comparison operator");
+                        }
+                )
+        );
+
+        // The condition matches. Invoke the parent consumption method if required.
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
+
+        // Return the result
+        return codegenResult;
+    }
+
+    /**
+     * Method to check whether a comparison between a column and a string literal can be performed on
+     * packed words using {@code PackedStrings}, which is the case when the column contains short
+     * fixed-size binary values and the literal fits within those values.
+     * @param lhsType The type of the column being compared.
+     * @param literal The string literal that the column is compared to.
+     * @param comparisonOp The comparison being performed.
+     * @return {@code true} iff the comparison can be performed on packed words.
+     */
+    private static boolean usePackedComparison(QueryVariableType lhsType, byte[] literal, AethraFunction.Kind comparisonOp) {
+        boolean isFixedSizeBinary = lhsType.logicalType == QueryVariableType.LogicalType.S_FL_BIN
+                || lhsType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR
+                || lhsType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR_W_SELECTION_VECTOR;
+
+        // Equality requires identical widths, as packing pads shorter literals with zero bytes
+        return isFixedSizeBinary
+                && PackedStrings.canPack(lhsType.byteWidth)
+                && literal.length <= lhsType.byteWidth
+                && (comparisonOp != AethraFunction.Kind.EQ || literal.length == lhsType.byteWidth);
+    }
+
+    /**
+     * Method to create the long literals representing the packed words of a string literal.
+     * @param literal The string literal to pack.
+     * @return The two packed words of {@code literal} as long literals.
+     */
+    private static Java.Rvalue[] createPackedWordLiterals(byte[] literal) {
+        return new Java.Rvalue[] {
+                createIntegerLiteral(getLocation(), "0x" + Long.toHexString(PackedStrings.packWord(literal, 0)) + "L"),
+                createIntegerLiteral(getLocation(), "0x" + Long.toHexString(PackedStrings.packWord(literal, 1)) + "L")
+        };
+    }
+
+    /**
+     * Method to generate the non-vectorised condition comparing a short fixed-size binary column to a
+     * string literal on packed words. Elements of Arrow vectors are read directly from the data
+     * buffer, while other values are packed from their byte array representation.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param lhsRef The column being compared.
+     * @param rhsLit The string literal that the column is compared to.
+     * @param comparisonOp The comparison being performed.
+     * @param target The code generation result to add code to if required for accessing the column.
+     * @return The condition that holds iff the comparison holds.
+     */
+    private Java.Rvalue codeGenPackedComparisonNonVec(
+            CodeGenContext cCtx,
+            AethraInputRef lhsRef,
+            AethraStringLiteral rhsLit,
+            AethraFunction.Kind comparisonOp,
+            List<Java.Statement> target
+    ) {
+        Java.Rvalue[] packedLiteral = createPackedWordLiterals(rhsLit.value);
+
+        Java.Rvalue[] arguments;
+        AccessPath lhsAP = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex);
+        if (lhsAP instanceof IndexedArrowVectorElementAccessPath lhsIAVEAP) {
+            arguments = new Java.Rvalue[] {
+                    lhsIAVEAP.getArrowVectorVariable().read(),
+                    lhsIAVEAP.getIndexVariable().read(),
+                    packedLiteral[0],
+                    packedLiteral[1]
+            };
+        } else {
+            arguments = new Java.Rvalue[] {
+                    getRValueFromOrdinalAccessPathNonVec(cCtx, lhsRef.columnIndex, target),
+                    packedLiteral[0],
+                    packedLiteral[1]
+            };
+        }
+
+        // PackedStrings.equals(lhs..., word0, word1)
+        if (comparisonOp == AethraFunction.Kind.EQ)
+            return createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), "PackedStrings"), "equals", arguments);
+
+        // PackedStrings.compare(lhs..., word0, word1) "operator" 0
+        Java.Rvalue comparison = createMethodInvocation(
+                getLocation(), createAmbiguousNameRef(getLocation(), "PackedStrings"), "compare", arguments);
+        Java.Rvalue zero = createIntegerLiteral(getLocation(), 0);
+        return switch (comparisonOp) {
+            case GT -> gt(getLocation(), comparison, zero);
+            case GTE -> ge(getLocation(), comparison, zero);
+            case LT -> lt(getLocation(), comparison, zero);
+            case LTE -> le(getLocation(), comparison, zero);
+            default -> throw new UnsupportedOperationException(
+                    "FilterOperator.codeGenPackedComparisonNonVec does not support the provided comparison operator: " + comparisonOp);
+        };
+    }
+
+    /**
+     * Method to generate the required non-vectorised code on the backward code generation pass for
+     * a LIKE or NOT LIKE operator. Arrow string columns are matched in place, without first copying
+     * the value into a byte array.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The LIKE operator to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if this {@code filterOperator} matches. Necessary to allow
+     *                                 recursive code generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecLikeOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraBinaryFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+
+        if (!(filterOperator.firstOperand instanceof AethraInputRef lhsRef))
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeNonVecLikeOperator only supports input references as the left-hand operand");
+
+        // Compile the pattern into a matcher once per query
+        String matcherName = this.defineLikeMatcher(cCtx, filterOperator.secondOperand);
+
+        // Dictionary-encoded columns are matched once per dictionary entry rather than once per record
+        if (getDictionaryEncodedVector(cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex)) != null) {
+            return this.consumeNonVecDictionaryPredicate(
+                    cCtx,
+                    oCtx,
+                    lhsRef.columnIndex,
+                    filterOperator.getKind() == AethraFunction.Kind.LIKE ? "like" : "notLike",
+                    createAmbiguousNameRef(getLocation(), matcherName),
+                    callParentConsumeOnMatch
+            );
+        }
+
+        // Match Arrow vector elements directly, and fall back to matching the materialised value otherwise
+        Java.Rvalue[] matchArguments;
+        AccessPath lhsAP = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex);
+        if (lhsAP instanceof IndexedArrowVectorElementAccessPath lhsIAVEAP
+                && (lhsAP.getType() == QueryVariableType.S_VARCHAR
+                    || lhsAP.getType().logicalType == QueryVariableType.LogicalType.S_FL_BIN)) {
+            matchArguments = new Java.Rvalue[] {
+                    lhsIAVEAP.getArrowVectorVariable().read(),
+                    lhsIAVEAP.getIndexVariable().read()
+            };
+        } else {
+            matchArguments = new Java.Rvalue[] {
+                    getRValueFromOrdinalAccessPathNonVec(cCtx, lhsRef.columnIndex, codegenResult)
+            };
+        }
+        Java.Rvalue matchResult = createMethodInvocation(
+                getLocation(),
+                createAmbiguousNameRef(getLocation(), matcherName),
+                "matches",
+                matchArguments
+        );
+
+        // Generate the required control flow
+        // if (!([!]like_matcher.matches(lhsRvalue...)))
+        //     continue;
+        codegenResult.add(
+                createIfNotContinue(
+                        getLocation(),
+                        filterOperator.getKind() == AethraFunction.Kind.LIKE
+                                ? matchResult
+                                : not(getLocation(), matchResult)
+                )
+        );
+
+        // The condition matches. Invoke the parent consumption method if required.
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
+
+        // Return the result
+        return codegenResult;
+    }
+
+    /**
+     * Method to generate the required non-vectorised code on the backward code generation pass for
+     * a string predicate on a dictionary-encoded column. The predicate is evaluated once per query
+     * into a bitmap over the dictionary codes, after which each record is checked by a lookup of its code.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param columnIndex The ordinal index of the dictionary-encoded column.
+     * @param predicateName The name of the {@code StringDictionaries} method computing the bitmap.
+     * @param predicateArgument The argument to pass to the {@code StringDictionaries} method.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if the predicate matches.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecDictionaryPredicate(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            int columnIndex,
+            String predicateName,
+            Java.Rvalue predicateArgument,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+
+        AccessPath lhsAP = cCtx.getCurrentOrdinalMapping().get(columnIndex);
+        if (!(lhsAP instanceof IndexedArrowVectorElementAccessPath lhsIAVEAP))
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeNonVecDictionaryPredicate expects an indexed dictionary code vector");
+        String bitmapName = this.defineDictionaryBitmap(
+                cCtx, getDictionaryEncodedVector(lhsAP), predicateName, predicateArgument);
+
+        // if (!(dictionary_bitmap[codeVector.get(index)]))
+        //     continue;
+        codegenResult.add(
+                createIfNotContinue(
+                        getLocation(),
+                        createArrayElementAccessExpr(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), bitmapName),
+                                lhsIAVEAP.readGeneric()
+                        )
+                )
+        );
+
+        // The condition matches. Invoke the parent consumption method if required.
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
+
+        // Return the result
+        return codegenResult;
+    }
+
+    /**
+     * Method to define a query-global bitmap indicating for each code of a dictionary-encoded column
+     * whether its dictionary value satisfies a string predicate.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param deavap The access path of the dictionary-encoded column.
+     * @param predicateName The name of the {@code StringDictionaries} method computing the bitmap.
+     * @param predicateArgument The argument to pass to the {@code StringDictionaries} method.
+     * @return The name of the variable containing the bitmap.
+     */
+    private String defineDictionaryBitmap(
+            CodeGenContext cCtx,
+            DictionaryEncodedArrowVectorAccessPath deavap,
+            String predicateName,
+            Java.Rvalue predicateArgument
+    ) {
+        // boolean[] dictionary_bitmap = StringDictionaries.[predicateName](
+        //      cCtx.getArrowReader([readerIndex]).getDictionaryVector([columnIndex]), [predicateArgument]);
+        return cCtx.defineQueryGlobalVariable(
+                "dictionary_bitmap",
+                createPrimitiveArrayType(getLocation(), Java.Primitive.BOOLEAN),
+                createMethodInvocation(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), "StringDictionaries"),
+                        predicateName,
+                        new Java.Rvalue[] {
+                                deavap.readDictionary(),
+                                predicateArgument
+                        }
+                ),
+                false
+        );
+    }
+
+    /**
+     * Method to obtain the dictionary-encoded code vector underlying an access path, if any.
+     * @param accessPath The access path to inspect.
+     * @return The {@link DictionaryEncodedArrowVectorAccessPath} underlying {@code accessPath}, or
+     * {@code null} if {@code accessPath} does not represent a dictionary-encoded column.
+     */
+    private static DictionaryEncodedArrowVectorAccessPath getDictionaryEncodedVector(AccessPath accessPath) {
+        if (accessPath instanceof DictionaryEncodedArrowVectorAccessPath deavap)
+            return deavap;
+        else if (accessPath instanceof IndexedArrowVectorElementAccessPath iaveap
+                && iaveap.getArrowVectorVariable() instanceof DictionaryEncodedArrowVectorAccessPath deavap)
+            return deavap;
+        else if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap
+                && avwsvap.getArrowVectorVariable() instanceof DictionaryEncodedArrowVectorAccessPath deavap)
+            return deavap;
+        else
+            return null;
+    }
+
+    /**
+     * Method to obtain the name of the primitive implementing a comparison operator, which is shared
+     * by {@code VectorisedFilterOperators} and {@code StringDictionaries}.
+     * @param comparisonOp The comparison operator to obtain the primitive name for.
+     * @return The name of the primitive implementing {@code comparisonOp}.
+     */
+    private static String getComparisonPrimitiveName(AethraFunction.Kind comparisonOp) {
+        return switch (comparisonOp) {
+            case EQ -> "eq";
+            case GT -> "gt";
+            case GTE -> "ge";
+            case LT -> "lt";
+            case LTE -> "le";
+            default -> throw new UnsupportedOperationException(
+                    "FilterOperator.getComparisonPrimitiveName does not support the provided comparison operator: " + comparisonOp);
+        };
+    }
+
+    /**
+     * Method to obtain the {@link EncodedArrowVectorAccessPath} underlying an ordinal access path.
+     * @param accessPath The access path to inspect.
+     * @return The {@link EncodedArrowVectorAccessPath} underlying {@code accessPath}, or
+     * {@code null} if the ordinal is not served from an encoded column file.
+     */
+    private static EncodedArrowVectorAccessPath getEncodedVector(AccessPath accessPath) {
+        if (accessPath instanceof EncodedArrowVectorAccessPath eavap)
+            return eavap;
+        else if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap
+                && avwsvap.getArrowVectorVariable() instanceof EncodedArrowVectorAccessPath eavap)
+            return eavap;
+        else
+            return null;
+    }
+
+    /**
+     * Method to check whether the right-hand operand of a comparison can be evaluated on an encoded
+     * column, i.e. whether it is an integer or date constant.
+     * @param rhs The right-hand operand to check.
+     * @return {@code true} iff the comparison can be evaluated on the encoded values of its column.
+     */
+    private static boolean isEncodedPredicateOperand(AethraExpression rhs) {
+        return rhs instanceof AethraIntegerLiteral
+                || rhs instanceof AethraDateDayLiteral
+                || (rhs instanceof AethraBinaryFunction abf && abf.firstOperand instanceof AethraDateDayLiteral);
+    }
+
+    /**
+     * Method to translate a comparison against an integer or date constant into the inclusive
+     * bounds that are evaluated on the encoded values of a column.
+     * @param comparisonOp The comparison operator.
+     * @param rhs The constant to compare against, for which {@code isEncodedPredicateOperand} holds.
+     * @return The lower and upper bound of the comparison as {@link Java.Rvalue}s.
+     */
+    private Java.Rvalue[] createEncodedPredicateBounds(AethraFunction.Kind comparisonOp, AethraExpression rhs) {
+        int value = this.getEncodedPredicateValue(rhs);
+        Java.Rvalue minValue = createAmbiguousNameRef(getLocation(), "Integer.MIN_VALUE");
+        Java.Rvalue maxValue = createAmbiguousNameRef(getLocation(), "Integer.MAX_VALUE");
+        Java.Rvalue[] emptyRange = new Java.Rvalue[] { createIntegerLiteral(getLocation(), 1), createIntegerLiteral(getLocation(), 0) };
+
+        return switch (comparisonOp) {
+            case EQ -> new Java.Rvalue[] { createIntegerLiteral(getLocation(), value), createIntegerLiteral(getLocation(), value) };
+            case GT -> (value == Integer.MAX_VALUE)
+                    ? emptyRange
+                    : new Java.Rvalue[] { createIntegerLiteral(getLocation(), value + 1), maxValue };
+            case GTE -> new Java.Rvalue[] { createIntegerLiteral(getLocation(), value), maxValue };
+            case LT -> (value == Integer.MIN_VALUE)
+                    ? emptyRange
+                    : new Java.Rvalue[] { minValue, createIntegerLiteral(getLocation(), value - 1) };
+            case LTE -> new Java.Rvalue[] { minValue, createIntegerLiteral(getLocation(), value) };
+            default -> throw new UnsupportedOperationException(
+                    "FilterOperator.createEncodedPredicateBounds does not support the provided comparison operator: " + comparisonOp);
+        };
+    }
+
+    /**
+     * Method to obtain the value of an integer or date constant that a column is compared to.
+     * @param rhs The constant, for which {@code isEncodedPredicateOperand} holds.
+     * @return The value of the integer constant, or the unix day of the date constant.
+     */
+    private int getEncodedPredicateValue(AethraExpression rhs) {
+        if (rhs instanceof AethraIntegerLiteral rhsLit)
+            return rhsLit.value;
+        else if (rhs instanceof AethraDateDayLiteral rhsLit)
+            return rhsLit.unixDay;
+        else
+            return translateToUnixDay(rhs);
+    }
+
+    /**
+     * Method to register the conjuncts of a filter expression which compare a column to an integer
+     * or date constant as batch pruning ranges on the child operator, if it is a table scan. This
+     * allows the scan to skip the batches that cannot contain any record satisfying the filter.
+     * @param filterExpression The (part of the) filter expression to register the conjuncts of.
+     */
+    private void registerBatchPruningRanges(AethraExpression filterExpression) {
+        if (!(this.child instanceof ArrowTableScanOperator scanOperator))
+            return;
+
+        if (filterExpression instanceof AethraAndFunction andFunction) {
+            for (AethraExpression operand : andFunction.operands)
+                this.registerBatchPruningRanges(operand);
+
+        } else if (filterExpression instanceof AethraBinaryFunction binaryFunction
+                && binaryFunction.firstOperand instanceof AethraInputRef inputRef
+                && isEncodedPredicateOperand(binaryFunction.secondOperand)) {
+            boolean isRangeComparison = switch (binaryFunction.getKind()) {
+                case EQ, GT, GTE, LT, LTE -> true;
+                default -> false;
+            };
+
+            if (isRangeComparison) {
+                Java.Rvalue[] bounds = this.createBatchPruningBounds(binaryFunction.getKind(), binaryFunction.secondOperand);
+                scanOperator.addBatchPruningRange(inputRef.columnIndex, bounds[0], bounds[1]);
+            }
+        }
+    }
+
+    /**
+     * Method to translate a comparison against an integer or date constant into the inclusive
+     * bounds of a batch pruning range. Unlike {@code createEncodedPredicateBounds}, the bounds are
+     * {@code long} values, since the statistics of 64-bit integer columns can also be used for pruning.
+     * @param comparisonOp The comparison operator.
+     * @param rhs The constant to compare against, for which {@code isEncodedPredicateOperand} holds.
+     * @return The lower and upper bound of the comparison as {@link Java.Rvalue}s.
+     */
+    private Java.Rvalue[] createBatchPruningBounds(AethraFunction.Kind comparisonOp, AethraExpression rhs) {
+        long value = this.getEncodedPredicateValue(rhs);
+        Java.Rvalue minValue = createAmbiguousNameRef(getLocation(), "Long.MIN_VALUE");
+        Java.Rvalue maxValue = createAmbiguousNameRef(getLocation(), "Long.MAX_VALUE");
+
+        return switch (comparisonOp) {
+            case EQ -> new Java.Rvalue[] { createIntegerLiteral(getLocation(), value + "L"), createIntegerLiteral(getLocation(), value + "L") };
+            case GT -> new Java.Rvalue[] { createIntegerLiteral(getLocation(), (value + 1) + "L"), maxValue };
+            case GTE -> new Java.Rvalue[] { createIntegerLiteral(getLocation(), value + "L"), maxValue };
+            case LT -> new Java.Rvalue[] { minValue, createIntegerLiteral(getLocation(), (value - 1) + "L") };
+            case LTE -> new Java.Rvalue[] { minValue, createIntegerLiteral(getLocation(), value + "L") };
+            default -> throw new UnsupportedOperationException(
+                    "FilterOperator.createBatchPruningBounds does not support the provided comparison operator: " + comparisonOp);
+        };
+    }
+
+    @Override
+    protected boolean consumesEncodedValues(int ordinalIndex) {
+        // Encoded values can be consumed as long as the column is only compared to integer or date constants
+        return !referencesOutsideEncodedPredicate(this.filterExpression, ordinalIndex);
+    }
+
+    /**
+     * Method to check whether an expression references an ordinal other than as the left-hand
+     * operand of a comparison to an integer or date constant, which are the only references that
+     * can be evaluated on encoded values.
+     * @param expression The expression to check.
+     * @param ordinalIndex The ordinal index to check the references for.
+     * @return {@code true} iff {@code expression} references {@code ordinalIndex} outside such a comparison.
+     */
+    private static boolean referencesOutsideEncodedPredicate(AethraExpression expression, int ordinalIndex) {
+        if (expression instanceof AethraInputRef inputRef)
+            return inputRef.columnIndex == ordinalIndex;
+
+        if (expression instanceof AethraAndFunction andFunction) {
+            for (AethraExpression operand : andFunction.operands) {
+                if (referencesOutsideEncodedPredicate(operand, ordinalIndex))
+                    return true;
+            }
+            return false;
+        }
+
+        if (expression instanceof AethraBinaryFunction binaryFunction) {
+            boolean isEncodedPredicate = switch (binaryFunction.getKind()) {
+                case EQ, GT, GTE, LT, LTE -> binaryFunction.firstOperand instanceof AethraInputRef
+                        && isEncodedPredicateOperand(binaryFunction.secondOperand);
+                default -> false;
+            };
+
+            return !isEncodedPredicate
+                    && (referencesOutsideEncodedPredicate(binaryFunction.firstOperand, ordinalIndex)
+                        || referencesOutsideEncodedPredicate(binaryFunction.secondOperand, ordinalIndex));
+        }
+
+        return false;
+    }
+
+    @Override
+    protected boolean consumesDictionaryCodes(int ordinalIndex) {
+        // Dictionary codes can be consumed as long as the column is only used in string predicates
+        return !referencesOutsideStringPredicate(this.filterExpression, ordinalIndex);
+    }
+
+    /**
+     * Method to check whether an expression references an ordinal other than as the left-hand
+     * operand of a string predicate, which are the only references that can be evaluated on codes.
+     * @param expression The expression to check.
+     * @param ordinalIndex The ordinal index to check the references for.
+     * @return {@code true} iff {@code expression} references {@code ordinalIndex} outside a string predicate.
+     */
+    private static boolean referencesOutsideStringPredicate(AethraExpression expression, int ordinalIndex) {
+        if (expression instanceof AethraInputRef inputRef)
+            return inputRef.columnIndex == ordinalIndex;
+
+        if (expression instanceof AethraAndFunction andFunction) {
+            for (AethraExpression operand : andFunction.operands) {
+                if (referencesOutsideStringPredicate(operand, ordinalIndex))
+                    return true;
+            }
+            return false;
+        }
+
+        if (expression instanceof AethraBinaryFunction binaryFunction) {
+            boolean isStringPredicate = switch (binaryFunction.getKind()) {
+                case EQ, GT, GTE, LT, LTE -> binaryFunction.firstOperand instanceof AethraInputRef
+                        && binaryFunction.secondOperand instanceof AethraStringLiteral;
+                case LIKE, NOT_LIKE -> binaryFunction.firstOperand instanceof AethraInputRef;
+                default -> false;
+            };
+
+            return !isStringPredicate
+                    && (referencesOutsideStringPredicate(binaryFunction.firstOperand, ordinalIndex)
+                        || referencesOutsideStringPredicate(binaryFunction.secondOperand, ordinalIndex));
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to define a query-global {@code LikeMatcher} for the pattern of a LIKE operator, so that
+     * the pattern is only analysed once per query rather than once per record.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param pattern The pattern operand of the LIKE operator.
+     * @return The name of the variable containing the compiled matcher.
+     */
+    private String defineLikeMatcher(CodeGenContext cCtx, AethraExpression pattern) {
+        if (!(pattern instanceof AethraStringLiteral patternLiteral))
+            throw new UnsupportedOperationException(
+                    "FilterOperator.defineLikeMatcher only supports string literal patterns");
+
+        // LikeMatcher like_matcher = LikeMatcher.compile(new byte[] { [pattern] });
+        return cCtx.defineQueryGlobalVariable(
+                "like_matcher",
+                createReferenceType(getLocation(), "LikeMatcher"),
+                createMethodInvocation(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), "LikeMatcher"),
+                        "compile",
+                        new Java.Rvalue[] {
+                                createInitialisedByteArray(getLocation(), patternLiteral.value)
+                        }
+                ),
+                false
+        );
+    }
+
+    /**
+     * Method to fuse pairs of a lower bound (>, >=) and an upper bound (<, <=) comparison on the same
+     * integer, date or double column within an AND operator into a single {@link AethraBetweenFunction},
+     * which takes the position of the first comparison of the pair. Comparisons which cannot be paired,
+     * or whose pair describes an empty range, are kept as-is.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param filterOperator The AND operator whose operands should be fused.
+     * @return {@code filterOperator} if no comparisons could be fused, or an equivalent AND operator
+     * over the fused operands otherwise.
+     */
+    private AethraAndFunction fuseRangePredicates(CodeGenContext cCtx, AethraAndFunction filterOperator) {
+        AethraExpression[] operands = filterOperator.operands;
+        List<AethraExpression> fusedOperands = new ArrayList<>(operands.length);
+        boolean[] fusedIntoPrevious = new boolean[operands.length];
+
+        for (int i = 0; i < operands.length; i++) {
+            if (fusedIntoPrevious[i])
+                continue;
+
+            AethraBetweenFunction fusedOperand = null;
+            int boundSide = getRangeBoundSide(cCtx, operands[i]);
+            for (int j = i + 1; j < operands.length && boundSide != 0 && fusedOperand == null; j++) {
+                if (fusedIntoPrevious[j] || getRangeBoundSide(cCtx, operands[j]) != -boundSide)
+                    continue;
+
+                AethraBinaryFunction lowerBound = (AethraBinaryFunction) ((boundSide > 0) ? operands[i] : operands[j]);
+                AethraBinaryFunction upperBound = (AethraBinaryFunction) ((boundSide > 0) ? operands[j] : operands[i]);
+                if (((AethraInputRef) lowerBound.firstOperand).columnIndex != ((AethraInputRef) upperBound.firstOperand).columnIndex)
+                    continue;
+
+                AethraBetweenFunction candidate = new AethraBetweenFunction(
+                        lowerBound.firstOperand,
+                        lowerBound.secondOperand,
+                        lowerBound.getKind() == AethraFunction.Kind.GTE,
+                        upperBound.secondOperand,
+                        upperBound.getKind() == AethraFunction.Kind.LTE
+                );
+
+                QueryVariableType columnType = cCtx.getCurrentOrdinalMapping().get(
+                        ((AethraInputRef) lowerBound.firstOperand).columnIndex).getType();
+                boolean isNonEmptyRange = isIntegralRangeColumn(columnType)
+                        ? getIntegralBetweenBounds(candidate) != null
+                        : getDoubleBetweenBounds(candidate) != null;
+                if (isNonEmptyRange) {
+                    fusedOperand = candidate;
+                    fusedIntoPrevious[j] = true;
+                }
+            }
+
+            fusedOperands.add((fusedOperand == null) ? operands[i] : fusedOperand);
+        }
+
+        if (fusedOperands.size() == operands.length)
+            return filterOperator;
+        return new AethraAndFunction(fusedOperands.toArray(new AethraExpression[0]));
+    }
+
+    /**
+     * Method to determine whether an expression is a comparison which can be fused into a range check.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param expression The expression to check.
+     * @return 1 if {@code expression} is a fusable lower bound comparison, -1 if it is a fusable upper
+     * bound comparison and 0 if it cannot be fused.
+     */
+    private static int getRangeBoundSide(CodeGenContext cCtx, AethraExpression expression) {
+        if (!(expression instanceof AethraBinaryFunction comparison)
+                || !(comparison.firstOperand instanceof AethraInputRef lhsRef))
+            return 0;
+
+        QueryVariableType lhsType = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex).getType();
+        boolean isSupportedOperand = isIntegralRangeColumn(lhsType)
+                ? isEncodedPredicateOperand(comparison.secondOperand)
+                : isDoubleRangeColumn(lhsType)
+                        && (comparison.secondOperand instanceof AethraDoubleLiteral
+                            || comparison.secondOperand instanceof AethraIntegerLiteral);
+        if (!isSupportedOperand)
+            return 0;
+
+        return switch (comparison.getKind()) {
+            case GT, GTE -> 1;
+            case LT, LTE -> -1;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Method to determine whether a column type is checked as an integral range.
+     * @param type The type of the column.
+     * @return {@code true} iff the column contains integer or date values.
+     */
+    private static boolean isIntegralRangeColumn(QueryVariableType type) {
+        return switch (type.logicalType) {
+            case P_INT, P_INT_DATE,
+                 ARROW_INT_VECTOR, ARROW_INT_VECTOR_W_SELECTION_VECTOR,
+                 ARROW_DATE_VECTOR, ARROW_DATE_VECTOR_W_SELECTION_VECTOR -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Method to determine whether a column type is checked as a floating point range.
+     * @param type The type of the column.
+     * @return {@code true} iff the column contains double values.
+     */
+    private static boolean isDoubleRangeColumn(QueryVariableType type) {
+        return switch (type.logicalType) {
+            case P_DOUBLE, ARROW_DOUBLE_VECTOR, ARROW_DOUBLE_VECTOR_W_SELECTION_VECTOR -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Method to obtain the inclusive bounds of a range check on an integer or date column.
+     * @param between The range check to obtain the bounds of.
+     * @return The inclusive lower and upper bound, or {@code null} if the range is empty.
+     */
+    private int[] getIntegralBetweenBounds(AethraBetweenFunction between) {
+        long lowerBound = this.getEncodedPredicateValue(between.lowerBound) + (between.lowerInclusive ? 0L : 1L);
+        long upperBound = this.getEncodedPredicateValue(between.upperBound) - (between.upperInclusive ? 0L : 1L);
+        if (lowerBound > upperBound)
+            return null;
+        return new int[] { (int) lowerBound, (int) upperBound };
     }
 
     /**
-     * Method to generate the required non-vectorised code on the backward code generation pass for
-     * a comparison (>, >=, <, <=) operator.
+     * Method to obtain the inclusive bounds of a range check on a double column. Exclusive bounds
+     * are converted into the adjacent double value, which is exact for all finite bounds.
+     * @param between The range check to obtain the bounds of.
+     * @return The inclusive lower and upper bound, or {@code null} if the range is empty or a bound
+     * is not finite.
+     */
+    private static double[] getDoubleBetweenBounds(AethraBetweenFunction between) {
+        double lowerBound = (between.lowerBound instanceof AethraDoubleLiteral lowerLit)
+                ? lowerLit.value
+                : ((AethraIntegerLiteral) between.lowerBound).value;
+        double upperBound = (between.upperBound instanceof AethraDoubleLiteral upperLit)
+                ? upperLit.value
+                : ((AethraIntegerLiteral) between.upperBound).value;
+        if (!Double.isFinite(lowerBound) || !Double.isFinite(upperBound))
+            return null;
+
+        if (!between.lowerInclusive)
+            lowerBound = Math.nextUp(lowerBound);
+        if (!between.upperInclusive)
+            upperBound = Math.nextDown(upperBound);
+        if (lowerBound > upperBound)
+            return null;
+        return new double[] { lowerBound, upperBound };
+    }
+
+    /**
+     * Method to determine whether an AND operator should be evaluated in an order chosen at runtime.
+     * This is the case for conjunctions of at most {@code AdaptiveConjunctOrder.MAX_ADAPTIVE_CONJUNCTS}
+     * comparisons, range checks or LIKE operators on input columns, each of which can be evaluated
+     * at any position.
      * @param cCtx The {@link CodeGenContext} to use during the generation.
-     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
-     * @param filterOperator The < operator to generate code for.
-     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
-     *                                 if this {@code filterOperator} matches. Necessary to allow
-     *                                 recursive code generation.
-     * @return The generated query code.
+     * @param filterOperator The AND operator to check.
+     * @param vectorised Whether the operator is generated in the vectorised paradigm.
+     * @return {@code true} iff {@code filterOperator} should be evaluated in an adaptive order.
      */
-    private List<Java.Statement> consumeNonVecComparisonOperator(
+    private boolean useAdaptiveConjunctOrder(
             CodeGenContext cCtx,
-            OptimisationContext oCtx,
-            AethraBinaryFunction filterOperator,
-            boolean callParentConsumeOnMatch
+            AethraAndFunction filterOperator,
+            boolean vectorised
     ) {
-        // Initialise the result
-        List<Java.Statement> codegenResult = new ArrayList<>();
-
-        // Obtain the operator
-        AethraFunction.Kind comparisonOp = filterOperator.getKind();
-        if (comparisonOp != AethraFunction.Kind.EQ
-                && comparisonOp != AethraFunction.Kind.GT
-                && comparisonOp != AethraFunction.Kind.GTE
-                && comparisonOp != AethraFunction.Kind.LT
-                && comparisonOp != AethraFunction.Kind.LTE)
-            throw new UnsupportedOperationException(
-                    "FilterOperator.consumeNonVecComparisonOperator does not support the provided comparison operator: " + comparisonOp);
-
-        // Obtain the operands
-        AethraExpression lhs = filterOperator.firstOperand;
-        AethraExpression rhs = filterOperator.secondOperand;
+        if (!AdaptiveConjunctOrder.ADAPTIVE_ORDER_ENABLED
+                || filterOperator.operands.length < 2
+                || filterOperator.operands.length > AdaptiveConjunctOrder.MAX_ADAPTIVE_CONJUNCTS
+                || (vectorised && this.useSIMDVec()))
+            return false;
+
+        for (AethraExpression operand : filterOperator.operands) {
+            if (operand instanceof AethraBetweenFunction between && between.firstOperand instanceof AethraInputRef)
+                continue;
+
+            if (!(operand instanceof AethraBinaryFunction conjunct)
+                    || !(conjunct.firstOperand instanceof AethraInputRef lhsRef))
+                return false;
+
+            switch (conjunct.getKind()) {
+                case EQ, GT, GTE, LT, LTE, LIKE, NOT_LIKE -> { }
+                default -> { return false; }
+            }
 
-        if (this.useSIMDNonVec(cCtx))
-            throw new UnsupportedOperationException("FilterOperator.consumeNonVecComparisonOperator no longer supports SIMD");
+            // Byte-wise comparisons on fixed-size binary vectors can only be evaluated without a
+            // selection vector in the vectorised paradigm, and hence only at the first position
+            AccessPath lhsAP = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex);
+            if (vectorised
+                    && conjunct.getKind() != AethraFunction.Kind.LIKE
+                    && conjunct.getKind() != AethraFunction.Kind.NOT_LIKE
+                    && getDictionaryEncodedVector(lhsAP) == null
+                    && conjunct.secondOperand instanceof AethraStringLiteral rhsLit
+                    && !usePackedComparison(lhsAP.getType(), rhsLit.value, conjunct.getKind()))
+                return false;
+        }
 
-        // Convert the operands
-        Java.Rvalue lhsRvalue = codeGenOperandNonVec(cCtx, lhs, codegenResult);
-        Java.Rvalue rhsRvalue = codeGenOperandNonVec(cCtx, rhs, codegenResult);
+        return true;
+    }
 
-        // Generate the required control flow
-        // if (!(lhsRvalue "operator" rhsRvalue))
-        //     continue;
-        codegenResult.add(
-                createIfNotContinue(
+    /**
+     * Method to define a query-global {@link AdaptiveConjunctOrder} for the operands of an AND operator.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param filterOperator The AND operator to define the order for.
+     * @return The name of the variable containing the {@link AdaptiveConjunctOrder}.
+     */
+    private String defineAdaptiveConjunctOrder(CodeGenContext cCtx, AethraAndFunction filterOperator) {
+        String[] staticCosts = new String[filterOperator.operands.length];
+        for (int i = 0; i < staticCosts.length; i++)
+            staticCosts[i] = Double.toString(estimateConjunctCost(filterOperator.operands[i]));
+
+        // AdaptiveConjunctOrder adaptive_conjunct_order = new AdaptiveConjunctOrder(new double[] { [staticCosts] });
+        return cCtx.defineQueryGlobalVariable(
+                "adaptive_conjunct_order",
+                createReferenceType(getLocation(), "AdaptiveConjunctOrder"),
+                createClassInstance(
                         getLocation(),
-                        switch (comparisonOp) {
-                            case EQ -> eq(getLocation(), lhsRvalue, rhsRvalue);
-                            case GT -> gt(getLocation(), lhsRvalue, rhsRvalue);
-                            case GTE -> ge(getLocation(), lhsRvalue, rhsRvalue);
-                            case LT -> lt(getLocation(), lhsRvalue, rhsRvalue);
-                            case LTE -> le(getLocation(), lhsRvalue, rhsRvalue);
-                            default -> throw new UnsupportedOperationException(
-                                    "FilterOperator.consumeNonVecComparisonOperator does not support the provided comparison operator");
+                        createReferenceType(getLocation(), "AdaptiveConjunctOrder"),
+                        new Java.Rvalue[] {
+                                createInitialisedPrimitiveArray(getLocation(), Java.Primitive.DOUBLE, staticCosts)
                         }
-                )
+                ),
+                false
         );
+    }
 
-        // The condition matches. Invoke the parent consumption method if required.
-        if (callParentConsumeOnMatch)
-            codegenResult.addAll(nonVecParentConsume(cCtx, oCtx));
-
-        // Return the result
-        return codegenResult;
+    /**
+     * Method to estimate the relative cost of evaluating a conjunct on a single record, which is
+     * used to order conjuncts before their actual cost has been measured.
+     * @param conjunctExpression The conjunct to estimate the cost of.
+     * @return The estimated cost, where a numeric comparison or range check has cost 1.
+     */
+    private static double estimateConjunctCost(AethraExpression conjunctExpression) {
+        if (!(conjunctExpression instanceof AethraBinaryFunction conjunct))
+            return 1d;
+
+        int literalLength = (conjunct.secondOperand instanceof AethraStringLiteral rhsLit) ? rhsLit.value.length : 0;
+        return switch (conjunct.getKind()) {
+            case LIKE, NOT_LIKE -> 4d + literalLength / 4d;
+            default -> (literalLength == 0) ? 1d : 2d + literalLength / 8d;
+        };
     }
 
     /**
@@ -270,7 +1254,8 @@ public class FilterOperator extends CodeGenOperator {
 
     @Override
     public List<Java.Statement> produceVec(CodeGenContext cCtx, OptimisationContext oCtx) {
-        // Simply forward the call to the child operator to get the results of the query
+        // Forward the call to the child operator to get the results of the query, allowing a scan to skip batches
+        this.registerBatchPruningRanges(this.filterExpression);
         return this.child.produceVec(cCtx, oCtx);
     }
 
@@ -308,8 +1293,11 @@ public class FilterOperator extends CodeGenOperator {
         // Forward the generation obligation to the correct method based on the operator type.
         return switch (castFilterOperator.getKind()) {
             case AND -> consumeVecAndOperator(cCtx, oCtx, (AethraAndFunction) castFilterOperator, callParentConsumeOnMatch);
+            case BETWEEN -> consumeVecBetweenOperator(cCtx, oCtx, (AethraBetweenFunction) castFilterOperator, callParentConsumeOnMatch);
             case EQ, GT, GTE, LT, LTE ->
                     consumeVecComparisonOperator(cCtx, oCtx, (AethraBinaryFunction) castFilterOperator, callParentConsumeOnMatch);
+            case LIKE, NOT_LIKE ->
+                    consumeVecLikeOperator(cCtx, oCtx, (AethraBinaryFunction) castFilterOperator, callParentConsumeOnMatch);
             default -> throw new UnsupportedOperationException(
                     "FilterOperator.consumeVecOperator does not support this operator type");
         };
@@ -332,12 +1320,19 @@ public class FilterOperator extends CodeGenOperator {
             AethraAndFunction filterOperator,
             boolean callParentConsumeOnMatch
     ) {
+        // Lower and upper bound comparisons on the same column are fused into a single range check
+        AethraAndFunction fusedFilterOperator = this.fuseRangePredicates(cCtx, filterOperator);
+
+        // Small conjunctions of simple predicates are evaluated in an order chosen at runtime
+        if (this.useAdaptiveConjunctOrder(cCtx, fusedFilterOperator, true))
+            return this.consumeVecAdaptiveAndOperator(cCtx, oCtx, fusedFilterOperator, callParentConsumeOnMatch);
+
         // Initialise the result
         List<Java.Statement> codegenResult = new ArrayList<>();
 
         // Obtain the AND operands and generate code for each of them
         // If a record does not match the operand, it will invoke a continue statement
-        for (AethraExpression operand : filterOperator.operands)
+        for (AethraExpression operand : fusedFilterOperator.operands)
             codegenResult.addAll(consumeVecOperator(cCtx, oCtx, operand, false));
 
         // The vectors which are in the getCurrentOrdinalMapping() will have validity markers attached
@@ -349,6 +1344,242 @@ public class FilterOperator extends CodeGenOperator {
         return codegenResult;
     }
 
+    /**
+     * Method to generate the required vectorised code on the backward code generation pass for an
+     * AND operator whose operands are evaluated in an order chosen at runtime by an
+     * {@link AdaptiveConjunctOrder}. Each position produces its own selection vector out of the
+     * selection vector of the previous position, and reports its selectivity and evaluation time
+     * so that the order can be adapted between vectors.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The AND operator to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 for the records matching this {@code filterOperator}.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeVecAdaptiveAndOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraAndFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+        String conjunctOrderName = this.defineAdaptiveConjunctOrder(cCtx, filterOperator);
+        List<AccessPath> incomingOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+
+        // [conjunctOrderName].beginVector();
+        codegenResult.add(
+                createMethodInvocationStm(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), conjunctOrderName),
+                        "beginVector"
+                )
+        );
+
+        ArrayAccessPath previousSelectionAP = null;
+        ScalarVariableAccessPath previousSelectionLengthAP = null;
+        for (int position = 0; position < filterOperator.operands.length; position++) {
+            // int[] adaptive_sel_vec = null;
+            // int adaptive_sel_vec_length = 0;
+            // long adaptive_start_time = System.nanoTime();
+            ArrayAccessPath selectionAP = new ArrayAccessPath(cCtx.defineVariable("adaptive_sel_vec"), P_A_INT);
+            ScalarVariableAccessPath selectionLengthAP = new ScalarVariableAccessPath(
+                    cCtx.defineVariable(selectionAP.getVariableName() + "_length"), P_INT);
+            String startTimeName = cCtx.defineVariable("adaptive_start_time");
+            codegenResult.add(
+                    createLocalVariable(
+                            getLocation(),
+                            createPrimitiveArrayType(getLocation(), Java.Primitive.INT),
+                            selectionAP.getVariableName(),
+                            new Java.NullLiteral(getLocation())
+                    )
+            );
+            codegenResult.add(
+                    createLocalVariable(
+                            getLocation(),
+                            toJavaType(getLocation(), P_INT),
+                            selectionLengthAP.getVariableName(),
+                            createIntegerLiteral(getLocation(), 0)
+                    )
+            );
+            codegenResult.add(
+                    createLocalVariable(
+                            getLocation(),
+                            createPrimitiveType(getLocation(), Java.Primitive.LONG),
+                            startTimeName,
+                            createNanoTimeInvocation()
+                    )
+            );
+
+            // Generate each operand on the records selected by the previous position
+            List<List<Java.Statement>> caseBodies = new ArrayList<>(filterOperator.operands.length);
+            for (AethraExpression operand : filterOperator.operands) {
+                cCtx.pushOrdinalMapping();
+                if (previousSelectionAP != null)
+                    cCtx.setCurrentOrdinalMapping(this.exposeSelectionVector(
+                            incomingOrdinalMapping, previousSelectionAP, previousSelectionLengthAP));
+
+                // [operand code]
+                // adaptive_sel_vec = [operand selection vector];
+                // adaptive_sel_vec_length = [operand selection vector length];
+                List<Java.Statement> caseBody = consumeVecOperator(cCtx, oCtx, operand, false);
+                if (!(cCtx.getCurrentOrdinalMapping().get(0) instanceof ArrowVectorWithSelectionVectorAccessPath operandResultAP))
+                    throw new UnsupportedOperationException(
+                            "FilterOperator.consumeVecAdaptiveAndOperator expects each operand to produce a selection vector");
+                caseBody.add(
+                        createVariableAssignmentStm(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), selectionAP.getVariableName()),
+                                operandResultAP.readSelectionVector()
+                        )
+                );
+                caseBody.add(
+                        createVariableAssignmentStm(
+                                getLocation(),
+                                selectionLengthAP.write(),
+                                operandResultAP.readSelectionVectorLength()
+                        )
+                );
+                caseBodies.add(caseBody);
+                cCtx.popOrdinalMapping();
+            }
+
+            // switch ([conjunctOrderName].order[position]) {
+            //     case 0: { [operand 0 case body] } break;
+            //     ...
+            // }
+            codegenResult.add(
+                    createSwitch(
+                            getLocation(),
+                            createArrayElementAccessExpr(
+                                    getLocation(),
+                                    createAmbiguousNameRef(getLocation(), conjunctOrderName + ".order"),
+                                    createIntegerLiteral(getLocation(), position)
+                            ),
+                            caseBodies
+                    )
+            );
+
+            // [conjunctOrderName].recordVector(
+            //      [position], [input length], adaptive_sel_vec_length, System.nanoTime() - adaptive_start_time);
+            Java.Rvalue inputLength = (previousSelectionLengthAP != null)
+                    ? previousSelectionLengthAP.read()
+                    : readVectorLength(incomingOrdinalMapping.get(0));
+            codegenResult.add(
+                    createMethodInvocationStm(
+                            getLocation(),
+                            createAmbiguousNameRef(getLocation(), conjunctOrderName),
+                            "recordVector",
+                            new Java.Rvalue[] {
+                                    createIntegerLiteral(getLocation(), position),
+                                    inputLength,
+                                    selectionLengthAP.read(),
+                                    sub(
+                                            getLocation(),
+                                            createNanoTimeInvocation(),
+                                            createAmbiguousNameRef(getLocation(), startTimeName)
+                                    )
+                            }
+                    )
+            );
+
+            previousSelectionAP = selectionAP;
+            previousSelectionLengthAP = selectionLengthAP;
+        }
+
+        // Expose the selection vector of the final position on all ordinals, and invoke the parent if required
+        cCtx.setCurrentOrdinalMapping(this.exposeSelectionVector(
+                incomingOrdinalMapping, previousSelectionAP, previousSelectionLengthAP));
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(vecParentConsume(cCtx, oCtx));
+
+        // Return the resulting code
+        return codegenResult;
+    }
+
+    /**
+     * Method to generate code which obtains the number of records represented by a vector access path.
+     * @param accessPath The access path to generate the code for.
+     * @return The number of records in the vector, or in its selection vector if it has one.
+     */
+    private static Java.Rvalue readVectorLength(AccessPath accessPath) {
+        if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.readSelectionVectorLength();
+        else if (accessPath instanceof ArrowVectorAccessPath avap)
+            return createMethodInvocation(getLocation(), avap.read(), "getValueCount");
+        else
+            throw new UnsupportedOperationException(
+                    "FilterOperator.readVectorLength does not support this access path: " + accessPath.getClass());
+    }
+
+    /**
+     * Method to generate a {@code System.nanoTime()} invocation.
+     * @return The generated invocation.
+     */
+    private static Java.Rvalue createNanoTimeInvocation() {
+        return createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), "System"), "nanoTime");
+    }
+
+    /**
+     * Method to generate the required vectorised code on the backward code generation pass for
+     * a range check, which is evaluated by a single {@code between_ge_le} primitive (or by the
+     * {@code selectEncoded} primitive of the table reader for encoded columns).
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The range check to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if this {@code filterOperator} matches. Necessary to allow
+     *                                 recursive code generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeVecBetweenOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraBetweenFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        if (!(filterOperator.firstOperand instanceof AethraInputRef lhsRef))
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeVecBetweenOperator only supports input references as the checked operand");
+        AccessPath lhsAP = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex);
+
+        if (this.useSIMDVec())
+            throw new UnsupportedOperationException("FilterOperator.consumeVecBetweenOperator does not support SIMD");
+
+        // Both primitives take the inclusive lower and upper bound as their scalar operands
+        Java.Rvalue[] rhsScalars;
+        if (isIntegralRangeColumn(lhsAP.getType())) {
+            int[] bounds = getIntegralBetweenBounds(filterOperator);
+            rhsScalars = new Java.Rvalue[] {
+                    createIntegerLiteral(getLocation(), bounds[0]),
+                    createIntegerLiteral(getLocation(), bounds[1])
+            };
+
+        } else if (isDoubleRangeColumn(lhsAP.getType())) {
+            double[] bounds = getDoubleBetweenBounds(filterOperator);
+            rhsScalars = new Java.Rvalue[] {
+                    createFloatingPointLiteral(getLocation(), bounds[0]),
+                    createFloatingPointLiteral(getLocation(), bounds[1])
+            };
+
+        } else {
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeVecBetweenOperator does not support this operand type: " + lhsAP.getType());
+        }
+
+        return this.consumeVecSelectionPrimitive(
+                cCtx,
+                oCtx,
+                lhsRef.columnIndex,
+                lhsAP,
+                (getEncodedVector(lhsAP) == null) ? "between_ge_le" : "selectEncoded",
+                rhsScalars,
+                new ArrayList<>(),
+                callParentConsumeOnMatch
+        );
+    }
+
     /**
      * Method to generate the required vectorised code on the backward code generation pass for
      * a comparison (>, >=, <, <=) operator.
@@ -370,15 +1601,7 @@ public class FilterOperator extends CodeGenOperator {
         List<Java.Statement> codegenResult = new ArrayList<>();
 
         // Obtain the operator method name
-        String operatorName = switch (filterOperator.getKind()) {
-            case EQ -> "eq";
-            case GT -> "gt";
-            case GTE -> "ge";
-            case LT -> "lt";
-            case LTE -> "le";
-            default -> throw new UnsupportedOperationException(
-                    "FilterOperator.consumeVecComparisonOperator does not support the provided comparison operator: " + filterOperator.getKind());
-        };
+        String operatorName = getComparisonPrimitiveName(filterOperator.getKind());
 
         // Obtain the operands
         AethraExpression lhs = filterOperator.firstOperand;
@@ -393,27 +1616,67 @@ public class FilterOperator extends CodeGenOperator {
 
         } else throw new UnsupportedOperationException("FilterOperator.consumeVecComparisonOperator does not support this left-hand operand");
 
-        Java.Rvalue rhsScalar;
+        // Dictionary-encoded columns are compared once per dictionary entry rather than once per record
+        DictionaryEncodedArrowVectorAccessPath lhsDictionary = getDictionaryEncodedVector(lhsAP);
+        if (lhsDictionary != null) {
+            if (!(rhs instanceof AethraStringLiteral rhsLit))
+                throw new UnsupportedOperationException(
+                        "FilterOperator.consumeVecComparisonOperator only supports string literals on dictionary-encoded columns");
+
+            String bitmapName = this.defineDictionaryBitmap(
+                    cCtx, lhsDictionary, operatorName, createInitialisedByteArray(getLocation(), rhsLit.value));
+            return this.consumeVecSelectionPrimitive(
+                    cCtx,
+                    oCtx,
+                    lhsRef.columnIndex,
+                    lhsAP,
+                    "inCodeSet",
+                    new Java.Rvalue[] { createAmbiguousNameRef(getLocation(), bitmapName) },
+                    codegenResult,
+                    callParentConsumeOnMatch
+            );
+        }
+
+        // Columns served from an encoded column file are compared on their encoded values
+        EncodedArrowVectorAccessPath lhsEncoded = getEncodedVector(lhsAP);
+        if (lhsEncoded != null && isEncodedPredicateOperand(rhs)) {
+            return this.consumeVecSelectionPrimitive(
+                    cCtx,
+                    oCtx,
+                    lhsRef.columnIndex,
+                    lhsAP,
+                    "selectEncoded",
+                    this.createEncodedPredicateBounds(filterOperator.getKind(), rhs),
+                    codegenResult,
+                    callParentConsumeOnMatch
+            );
+        }
+
+        Java.Rvalue[] rhsScalars;
         QueryVariableType rhsScalarType;
         if (rhs instanceof AethraDateDayLiteral rhsLit) {
-            rhsScalar = createIntegerLiteral(getLocation(), rhsLit.unixDay);
+            rhsScalars = new Java.Rvalue[] { createIntegerLiteral(getLocation(), rhsLit.unixDay) };
             rhsScalarType = P_INT_DATE;
 
         } else if (rhs instanceof AethraDoubleLiteral rhsLit) {
-            rhsScalar = createFloatingPointLiteral(getLocation(), rhsLit.value);
+            rhsScalars = new Java.Rvalue[] { createFloatingPointLiteral(getLocation(), rhsLit.value) };
             rhsScalarType = P_DOUBLE;
 
         } else if (rhs instanceof AethraIntegerLiteral rhsLit) {
-            rhsScalar = createIntegerLiteral(getLocation(), rhsLit.value);
+            rhsScalars = new Java.Rvalue[] { createIntegerLiteral(getLocation(), rhsLit.value) };
             rhsScalarType = P_INT;
 
         } else if (rhs instanceof AethraStringLiteral rhsLit) {
-            rhsScalar = createInitialisedByteArray(getLocation(), rhsLit.value);
+            // Short fixed-size binary columns are compared as packed words rather than byte by byte
+            if (usePackedComparison(lhsAP.getType(), rhsLit.value, filterOperator.getKind()))
+                rhsScalars = createPackedWordLiterals(rhsLit.value);
+            else
+                rhsScalars = new Java.Rvalue[] { createInitialisedByteArray(getLocation(), rhsLit.value) };
             rhsScalarType = new QueryVariableType(QueryVariableType.LogicalType.S_FL_BIN, rhsLit.value.length);
 
         } else if (rhs instanceof AethraBinaryFunction abf && abf.firstOperand instanceof AethraDateDayLiteral) {
             // Deal with special date specification format
-            rhsScalar = createIntegerLiteral(getLocation(), translateToUnixDay(rhs));
+            rhsScalars = new Java.Rvalue[] { createIntegerLiteral(getLocation(), translateToUnixDay(rhs)) };
             rhsScalarType = P_INT_DATE;
 
         } else throw new UnsupportedOperationException("FilterOperator.consumeVecComparisonOperator does not support this right-hand operator");
@@ -426,6 +1689,7 @@ public class FilterOperator extends CodeGenOperator {
                 && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_DOUBLE_VECTOR
                 && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_DOUBLE_VECTOR_W_SELECTION_VECTOR
                 && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR
+                && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR_W_SELECTION_VECTOR
                 && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_INT_VECTOR
                 && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_INT_VECTOR_W_SELECTION_VECTOR
                 )
@@ -442,13 +1706,126 @@ public class FilterOperator extends CodeGenOperator {
                             + lhsAP.getType() + " - " + rhs.getClass());
         }
 
+        // Byte array literals are only supported on fixed-size binary vectors without a selection vector
+        if (lhsAP.getType().logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR_W_SELECTION_VECTOR
+                && rhsScalars.length != 2)
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeVecComparisonOperator only supports packed comparisons on filtered fixed-size binary vectors");
+
         if (this.useSIMDVec())
             throw new UnsupportedOperationException("FilterOperator.consumeVecComparisonOperator does no longer support SIMD");
 
+        return this.consumeVecSelectionPrimitive(
+                cCtx, oCtx, lhsRef.columnIndex, lhsAP, operatorName, rhsScalars, codegenResult, callParentConsumeOnMatch);
+    }
+
+    /**
+     * Method to generate the required vectorised code on the backward code generation pass for
+     * a LIKE or NOT LIKE operator.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param filterOperator The LIKE operator to generate code for.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 if this {@code filterOperator} matches. Necessary to allow
+     *                                 recursive code generation.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeVecLikeOperator(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            AethraBinaryFunction filterOperator,
+            boolean callParentConsumeOnMatch
+    ) {
+        // Initialise the result
+        List<Java.Statement> codegenResult = new ArrayList<>();
+
+        // Obtain the operator method name
+        String operatorName = switch (filterOperator.getKind()) {
+            case LIKE -> "like";
+            case NOT_LIKE -> "notLike";
+            default -> throw new UnsupportedOperationException(
+                    "FilterOperator.consumeVecLikeOperator does not support the provided operator: " + filterOperator.getKind());
+        };
+
+        // Check if the operands match the expected format: string vector LIKE pattern
+        if (!(filterOperator.firstOperand instanceof AethraInputRef lhsRef))
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeVecLikeOperator only supports input references as the left-hand operand");
+        AccessPath lhsAP = cCtx.getCurrentOrdinalMapping().get(lhsRef.columnIndex);
+
+        // Dictionary-encoded columns are matched once per dictionary entry rather than once per record
+        DictionaryEncodedArrowVectorAccessPath lhsDictionary = getDictionaryEncodedVector(lhsAP);
+        if (lhsDictionary != null) {
+            String matcherName = this.defineLikeMatcher(cCtx, filterOperator.secondOperand);
+            String bitmapName = this.defineDictionaryBitmap(
+                    cCtx, lhsDictionary, operatorName, createAmbiguousNameRef(getLocation(), matcherName));
+            return this.consumeVecSelectionPrimitive(
+                    cCtx,
+                    oCtx,
+                    lhsRef.columnIndex,
+                    lhsAP,
+                    "inCodeSet",
+                    new Java.Rvalue[] { createAmbiguousNameRef(getLocation(), bitmapName) },
+                    codegenResult,
+                    callParentConsumeOnMatch
+            );
+        }
+
+        if (lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR
+                && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR_W_SELECTION_VECTOR
+                && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_VARCHAR_VECTOR
+                && lhsAP.getType().logicalType != QueryVariableType.LogicalType.ARROW_VARCHAR_VECTOR_W_SELECTION_VECTOR)
+            throw new UnsupportedOperationException(
+                    "FilterOperator.consumeVecLikeOperator does not support this left-hand operand type: " + lhsAP.getType());
+
+        if (this.useSIMDVec())
+            throw new UnsupportedOperationException("FilterOperator.consumeVecLikeOperator does not support SIMD");
+
+        // Compile the pattern into a matcher once per query
+        String matcherName = this.defineLikeMatcher(cCtx, filterOperator.secondOperand);
+
+        return this.consumeVecSelectionPrimitive(
+                cCtx,
+                oCtx,
+                lhsRef.columnIndex,
+                lhsAP,
+                operatorName,
+                new Java.Rvalue[] { createAmbiguousNameRef(getLocation(), matcherName) },
+                codegenResult,
+                callParentConsumeOnMatch
+        );
+    }
+
+    /**
+     * Method to generate the vectorised code which invokes a {@code VectorisedFilterOperators} primitive
+     * (or the {@code selectEncoded} primitive of the table reader for encoded columns) to compute the
+     * selection vector of a single condition over a single column, and which updates the current
+     * ordinal mapping to expose that selection vector on all ordinals.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param columnIndex The ordinal index of the column that the condition is evaluated on.
+     * @param lhsAP The {@link AccessPath} of the column that the condition is evaluated on.
+     * @param operatorName The name of the {@code VectorisedFilterOperators} primitive to invoke.
+     * @param rhsScalars The scalar operand(s) to pass to the primitive.
+     * @param codegenResult The code generated so far for the condition, to which the code is appended.
+     * @param callParentConsumeOnMatch Whether the parent operator consume method should be invoked
+     *                                 for the selected records.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeVecSelectionPrimitive(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            int columnIndex,
+            AccessPath lhsAP,
+            String operatorName,
+            Java.Rvalue[] rhsScalars,
+            List<Java.Statement> codegenResult,
+            boolean callParentConsumeOnMatch
+    ) {
         // Do a scan-surrounding allocation for the selection vector/validity mask that will result from this operator
         // int[] ordinal_[index]_sel_vec = cCtx.getAllocationManager().getIntVector()
         String selectionResultVariableName = cCtx.defineQueryGlobalVariable(
-                "ordinal_" + lhsRef.columnIndex + "_sel_vec",
+                "ordinal_" + columnIndex + "_sel_vec",
                 createPrimitiveArrayType(getLocation(), Java.Primitive.INT),
                 createMethodInvocation(
                         getLocation(),
@@ -471,9 +1848,21 @@ public class FilterOperator extends CodeGenOperator {
                 P_INT
         );
 
+        // Encoded columns are evaluated by their table reader on the encoded values instead
+        // int ordinal_[index]_sel_vec_length = [tableReader].selectEncoded([columnIndex], rhsScalars..., ordinal_[index]_sel_vec[, ...]);
+        EncodedArrowVectorAccessPath lhsEncoded = getEncodedVector(lhsAP);
+        Java.Rvalue primitiveTarget = (lhsEncoded == null)
+                ? createAmbiguousNameRef(getLocation(), "VectorisedFilterOperators")
+                : lhsEncoded.readArrowReader();
+
         if (lhsAP instanceof ArrowVectorAccessPath lhsArrowVecAP) {
             // int ordinal_[index]_sel_vec_length = VectorisedFilterOperators.[operatorName](
-            //      lhsArrowVecAP.read(), rhsIntScalar, ordinal_[index]_sel_vec);
+            //      lhsArrowVecAP.read(), rhsScalars..., ordinal_[index]_sel_vec);
+            List<Java.Rvalue> primitiveArguments = new ArrayList<>();
+            primitiveArguments.add((lhsEncoded == null) ? lhsArrowVecAP.read() : lhsEncoded.readColumnIndex());
+            primitiveArguments.addAll(Arrays.asList(rhsScalars));
+            primitiveArguments.add(selectionResultAP.read());
+
             codegenResult.add(
                     createLocalVariable(
                             getLocation(),
@@ -481,21 +1870,24 @@ public class FilterOperator extends CodeGenOperator {
                             selectionResultLengthAP.getVariableName(),
                             createMethodInvocation(
                                     getLocation(),
-                                    createAmbiguousNameRef(getLocation(), "VectorisedFilterOperators"),
+                                    primitiveTarget,
                                     operatorName,
-                                    new Java.Rvalue[]{
-                                            lhsArrowVecAP.read(),
-                                            rhsScalar,
-                                            selectionResultAP.read()
-                                    }
+                                    primitiveArguments.toArray(new Java.Rvalue[0])
                             )
                     )
             );
 
         } else if (lhsAP instanceof ArrowVectorWithSelectionVectorAccessPath lhsArrowVecWSAP) {
             // int ordinal_[index]_sel_vec_length = VectorisedFilterOperators.[operatorName](
-            //      lhsArrowVecWSAP.readArrowVector(), rhsIntScalar, ordinal_[index]_sel_vec,
+            //      lhsArrowVecWSAP.readArrowVector(), rhsScalars..., ordinal_[index]_sel_vec,
             //      lhsArrowVecWSAP.readSelectionVector(), lhsArrowVecWSAP.readSelectionVectorLength());
+            List<Java.Rvalue> primitiveArguments = new ArrayList<>();
+            primitiveArguments.add((lhsEncoded == null) ? lhsArrowVecWSAP.readArrowVector() : lhsEncoded.readColumnIndex());
+            primitiveArguments.addAll(Arrays.asList(rhsScalars));
+            primitiveArguments.add(selectionResultAP.read());
+            primitiveArguments.add(lhsArrowVecWSAP.readSelectionVector());
+            primitiveArguments.add(lhsArrowVecWSAP.readSelectionVectorLength());
+
             codegenResult.add(
                     createLocalVariable(
                             getLocation(),
@@ -503,51 +1895,61 @@ public class FilterOperator extends CodeGenOperator {
                             selectionResultLengthAP.getVariableName(),
                             createMethodInvocation(
                                     getLocation(),
-                                    createAmbiguousNameRef(getLocation(),"VectorisedFilterOperators"),
+                                    primitiveTarget,
                                     operatorName,
-                                    new Java.Rvalue[] {
-                                            lhsArrowVecWSAP.readArrowVector(),
-                                            rhsScalar,
-                                            selectionResultAP.read(),
-                                            lhsArrowVecWSAP.readSelectionVector(),
-                                            lhsArrowVecWSAP.readSelectionVectorLength()
-                                    }
+                                    primitiveArguments.toArray(new Java.Rvalue[0])
                             )
                     )
             );
 
         } else {
             throw new UnsupportedOperationException(
-                    "FilterOperator.consumeVecComparisonOperator does not support this left-hand access path and simd enabled combination");
+                    "FilterOperator.consumeVecSelectionPrimitive does not support this left-hand access path and simd enabled combination");
         }
 
         // Update the current ordinal mapping to include the selection vector for all arrow vectors
-        List<AccessPath> updatedOrdinalMapping = cCtx.getCurrentOrdinalMapping().stream().map(
+        cCtx.setCurrentOrdinalMapping(this.exposeSelectionVector(
+                cCtx.getCurrentOrdinalMapping(), selectionResultAP, selectionResultLengthAP));
+
+        // Invoke the parent consumption method if required.
+        if (callParentConsumeOnMatch)
+            codegenResult.addAll(vecParentConsume(cCtx, oCtx));
+
+        // Return the result
+        return codegenResult;
+    }
+
+    /**
+     * Method to create an ordinal mapping in which all arrow vectors of a given ordinal mapping are
+     * accessed through a given selection vector.
+     * @param ordinalMapping The ordinal mapping to expose the selection vector on.
+     * @param selectionVectorAP The selection vector to expose.
+     * @param selectionVectorLengthAP The length of the selection vector to expose.
+     * @return The resulting ordinal mapping.
+     */
+    private List<AccessPath> exposeSelectionVector(
+            List<AccessPath> ordinalMapping,
+            ArrayAccessPath selectionVectorAP,
+            ScalarVariableAccessPath selectionVectorLengthAP
+    ) {
+        return ordinalMapping.stream().map(
                 entry -> {
                     if (entry instanceof ArrowVectorAccessPath avapEntry && !this.useSIMDVec())
                         return (AccessPath) new ArrowVectorWithSelectionVectorAccessPath(
                                 avapEntry,
-                                selectionResultAP,
-                                selectionResultLengthAP,
+                                selectionVectorAP,
+                                selectionVectorLengthAP,
                                 arrowVectorWithSelectionVectorType(avapEntry.getType()));
                     else if (entry instanceof ArrowVectorWithSelectionVectorAccessPath avwsvapEntry && !this.useSIMDVec())
                         return new ArrowVectorWithSelectionVectorAccessPath(
                                 avwsvapEntry.getArrowVectorVariable(),
-                                selectionResultAP,
-                                selectionResultLengthAP,
+                                selectionVectorAP,
+                                selectionVectorLengthAP,
                                 arrowVectorWithSelectionVectorType(avwsvapEntry.getArrowVectorVariable().getType()));
                     else
                         throw new UnsupportedOperationException(
                                 "We expected all ordinals to be of specific vector types");
                 }).toList();
-        cCtx.setCurrentOrdinalMapping(updatedOrdinalMapping);
-
-        // Invoke the parent consumption method if required.
-        if (callParentConsumeOnMatch)
-            codegenResult.addAll(vecParentConsume(cCtx, oCtx));
-
-        // Return the result
-        return codegenResult;
     }
 
     /**
@@ -13,12 +13,14 @@ import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVecto
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithSelectionVectorAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.MapAccessPath;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.data.PartitionedSpillFile;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen;
 import AethraDB.evaluation.general_support.hashmaps.KeyMultiRecordMapGenerator;
+import AethraDB.evaluation.general_support.hashmaps.OffHeapKeyMultiRecordMapGenerator;
 import org.codehaus.janino.Java;
 
 import java.util.ArrayList;
@@ -53,14 +55,21 @@ import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createReferenceType;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createBlock;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createPrimitiveLocalVar;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMapInstantiationArguments;
 
 /**
  * {@link CodeGenOperator} which performs a join over two tables for a given join condition. All
  * joins implemented by this operator are currently hash-joins over a single equality predicate.
+ * When a spill memory budget is configured, the non-vectorised paradigm performs a hybrid hash-join:
+ * the left child records are inserted into the join map until it can no longer grow within the
+ * budget, after which the remaining left child records are hash-partitioned to disk. The right
+ * child records probe the join map and, once the left child spilled, are also hash-partitioned to
+ * disk, after which each spilled partition pair is joined in memory like in a Grace hash-join.
  */
 public class JoinOperator extends CodeGenOperator {
 
@@ -97,6 +106,12 @@ public class JoinOperator extends CodeGenOperator {
      */
     private KeyMultiRecordMapGenerator joinMapGenerator;
 
+    /**
+     * The generator used for creating an off-heap hash-map type instead of the type generated by
+     * {@code this.joinMapGenerator}, or {@code null} if the hash-map is stored on-heap.
+     */
+    private OffHeapKeyMultiRecordMapGenerator offHeapJoinMapGenerator;
+
     /**
      * The access path to the hash-map variable used for performing the join.
      */
@@ -125,10 +140,48 @@ public class JoinOperator extends CodeGenOperator {
 
     /**
      * Boolean indicating if the consume method should perform a hash-table build or a hash-table probe.
-     * Will be initialised as false to indicate a hash-table build first.
+     * Will be set by the produce methods before producing the left and right child respectively, as
+     * a child may consume its records in multiple places.
      */
     private boolean consumeInProbePhase;
 
+    /**
+     * Whether the join can switch to spilling its inputs to disk and joining them one partition
+     * pair at a time once its join map can no longer grow within the budget.
+     */
+    private boolean spillToDisk;
+
+    /**
+     * The name of the variable indicating whether the join has switched to spilling.
+     */
+    private String spillingName;
+
+    /**
+     * The name of the variable counting the left child records since the join started checking
+     * whether it should switch to spilling.
+     */
+    private String spillCheckName;
+
+    /**
+     * The name of the {@link PartitionedSpillFile} variable for the left child records when spilling.
+     */
+    private String buildSpillFileName;
+
+    /**
+     * The name of the {@link PartitionedSpillFile} variable for the right child records when spilling.
+     */
+    private String probeSpillFileName;
+
+    /**
+     * The column types of the left child records when spilling.
+     */
+    private QueryVariableType[] buildSpillColumnTypes;
+
+    /**
+     * The column types of the right child records when spilling.
+     */
+    private QueryVariableType[] probeSpillColumnTypes;
+
     /**
      * Creates a new {@link JoinOperator} instance for a specific sub-query.
      * @param leftChild The {@link CodeGenOperator} producing the left input side of the join.
@@ -149,7 +202,6 @@ public class JoinOperator extends CodeGenOperator {
         this.rightChild = rightChild;
         this.rightChild.setParent(this);
         this.rightChildEquijoinIndex = rightJoinColumnIndex;
-        this.consumeInProbePhase = false;
 
         this.resultVectorNames = new ArrayList<>();
         this.resultVectorDefinitions = new ArrayList<>();
@@ -174,38 +226,76 @@ public class JoinOperator extends CodeGenOperator {
         // Reserve a name for the join map and set its access path
         this.joinMapAP = new MapAccessPath(cCtx.claimGlobalVariableName("join_map"), MAP_GENERATED);
 
+        // Check whether the join may spill its inputs to disk and reserve the names of its spill state
+        this.spillToDisk = cCtx.getSpillMemoryBudget() > 0;
+        if (this.spillToDisk) {
+            this.buildSpillFileName = cCtx.claimGlobalVariableName("join_build_spill");
+            this.probeSpillFileName = cCtx.claimGlobalVariableName("join_probe_spill");
+            this.spillingName = cCtx.claimGlobalVariableName("join_spilling");
+            this.spillCheckName = cCtx.claimGlobalVariableName("join_spill_check");
+        }
+
         // First build the hash-table by calling the produceNonVec method on the left child operator,
         // which will eventually invoke the consumeNonVec method on @this which should perform the
         // hash-table build.
         // Additionally, the consumeNonVec method will initialise the join map type for the hash table
         // which will have to be added to the codeGenResult first, after which we initialise the
         // actual map used for the join.
+        this.consumeInProbePhase = false;
         cCtx.pushCodeGenContext();
         List<Java.Statement> leftChildProduceResult = this.leftChild.produceNonVec(cCtx, oCtx);
         cCtx.popCodeGenContext();
 
         codeGenResult.add(
-                createLocalClassDeclarationStm(this.joinMapGenerator.generate()));
+                createLocalClassDeclarationStm(this.generateJoinMapDeclaration()));
         Java.Type javaJoinMapType =
-                createReferenceType(getLocation(), this.joinMapGenerator.generate().getName());
+                createReferenceType(getLocation(), this.generateJoinMapDeclaration().getName());
         codeGenResult.add(
                 createLocalVariable(
                         getLocation(),
                         javaJoinMapType,
                         this.joinMapAP.getVariableName(),
-                        createClassInstance(getLocation(), javaJoinMapType)
+                        createClassInstance(
+                                getLocation(),
+                                javaJoinMapType,
+                                createMapInstantiationArguments(this.joinMapAP.getVariableName())
+                        )
                 )
         );
 
+        // When the join may spill, the left child records are written to disk instead of to the
+        // join map once the join map can no longer grow within the budget
+        if (this.spillToDisk) {
+            codeGenResult.add(createSpillFileDeclaration(this.buildSpillFileName, "join_build", this.buildSpillColumnTypes));
+            codeGenResult.addAll(createSpillStateDeclarations(this.spillingName, this.spillCheckName));
+        }
+
         codeGenResult.addAll(leftChildProduceResult);
 
+        // Record the statistics of the join map once it has been built in memory, if profiling
+        this.profileHashTable(cCtx, codeGenResult, this.joinMapAP.read());
+
         // Next, call the produce method on the right child operator, which will eventually invoke
         // the consumeNonVec method on @this, which should perform the hash-table probe and call
         // the consumeNonVec method on the parent.
+        this.consumeInProbePhase = true;
         cCtx.pushCodeGenContext();
-        codeGenResult.addAll(this.rightChild.produceNonVec(cCtx, oCtx));
+        List<Java.Statement> rightChildProduceResult = this.rightChild.produceNonVec(cCtx, oCtx);
         cCtx.popCodeGenContext();
 
+        if (this.spillToDisk) {
+            // When the join may spill, the right child records are also written to disk once the
+            // left child spilled, after which the spilled records are joined per partition pair
+            codeGenResult.add(createSpillFileDeclaration(this.probeSpillFileName, "join_probe", this.probeSpillColumnTypes));
+            codeGenResult.addAll(rightChildProduceResult);
+            codeGenResult.addAll(this.joinSpilledPartitionsNonVec(cCtx, oCtx));
+        } else {
+            codeGenResult.addAll(rightChildProduceResult);
+        }
+
+        // Free the join map if it is stored off-heap
+        this.closeOffHeapJoinMap(codeGenResult);
+
         return codeGenResult;
     }
 
@@ -337,7 +427,7 @@ public class JoinOperator extends CodeGenOperator {
         // Obtain the index for the values for the left side of the join for the current key value
         ScalarVariableAccessPath joinRecordIndex = new ScalarVariableAccessPath(
                 cCtx.defineVariable("records_to_join_index"),
-                P_INT);
+                this.offHeapJoinMapGenerator != null ? P_LONG : P_INT);
         codeGenResult.add(
                 createLocalVariable(
                         getLocation(),
@@ -373,79 +463,86 @@ public class JoinOperator extends CodeGenOperator {
         // Get the column values for the right-hand side of the join in local variables
         codeGenResult.addAll(localRightHandAPsInitialisationStatements);
 
-        // int left_join_record_count = [joinMapAP].keysRecordCount[records_to_join_index];
-        ScalarVariableAccessPath leftJoinRecordCount =
-                new ScalarVariableAccessPath(cCtx.defineVariable("left_join_record_count"), P_INT);
-        codeGenResult.add(
-                createLocalVariable(
-                        getLocation(),
-                        toJavaType(getLocation(), leftJoinRecordCount.getType()),
-                        leftJoinRecordCount.getVariableName(),
-                        createArrayElementAccessExpr(
-                                getLocation(),
-                                new Java.FieldAccessExpression(
-                                        getLocation(),
-                                        joinMapAP.read(),
-                                        KeyMultiRecordMapGenerator.keysRecordCountAP.getVariableName()
-                                ),
-                                joinRecordIndex.read()
-                        )
-                )
-        );
-
-        // for (int i = 0; i < left_join_record_count; i++) {
-        //     [joinLoopBody]
-        // }
-        ScalarVariableAccessPath joinLoopIndexVar =
-                new ScalarVariableAccessPath(cCtx.defineVariable("i"), P_INT);
+        // Loop over the left-hand join records for the current key value
         Java.Block joinLoopBody = new Java.Block(getLocation());
-        codeGenResult.add(
-                JaninoControlGen.createForLoop(
-                        getLocation(),
-                        createPrimitiveLocalVar(getLocation(), Java.Primitive.INT, joinLoopIndexVar.getVariableName(), "0"),
-                        JaninoOperatorGen.lt(getLocation(), joinLoopIndexVar.read(), leftJoinRecordCount.read()),
-                        JaninoOperatorGen.postIncrement(getLocation(), joinLoopIndexVar.write()),
-                        joinLoopBody
-                )
-        );
-
-        // In the for-loop, expose the left-hand join columns as local variables
-        // Also start updating the ordinal mapping
-        List<AccessPath> updatedOrdinalMapping = new ArrayList<>(this.resultColumnCount);
-
-        // JoinMapType.ValueRecordType left_join_rec = joinMap.records[joinRecordIndex][joinLoopIndexVar];
         String leftJoinRec = cCtx.defineVariable("left_join_rec");
-        if (this.joinMapGenerator.valueFieldNames.length > 0) {
-            joinLoopBody.addStatement(
+        ScalarVariableAccessPath leftJoinRecIndex = new ScalarVariableAccessPath(leftJoinRec, P_LONG);
+        if (this.offHeapJoinMapGenerator != null) {
+            codeGenResult.add(this.createOffHeapJoinRecordLoop(leftJoinRecIndex, joinRecordIndex, joinLoopBody));
+
+        } else {
+            // int left_join_record_count = [joinMapAP].keysRecordCount[records_to_join_index];
+            ScalarVariableAccessPath leftJoinRecordCount =
+                    new ScalarVariableAccessPath(cCtx.defineVariable("left_join_record_count"), P_INT);
+            codeGenResult.add(
                     createLocalVariable(
                             getLocation(),
-                            new Java.ReferenceType(
-                                    getLocation(),
-                                    new Java.Annotation[0],
-                                    new String[] {
-                                            this.joinMapGenerator.mapDeclaration.name,
-                                            this.joinMapGenerator.valueRecordDeclaration.name
-                                    },
-                                    null
-                            ),
-                            leftJoinRec,
+                            toJavaType(getLocation(), leftJoinRecordCount.getType()),
+                            leftJoinRecordCount.getVariableName(),
                             createArrayElementAccessExpr(
                                     getLocation(),
-                                    createArrayElementAccessExpr(
+                                    new Java.FieldAccessExpression(
                                             getLocation(),
-                                            new Java.FieldAccessExpression(
-                                                    getLocation(),
-                                                    joinMapAP.read(),
-                                                    KeyMultiRecordMapGenerator.valueRecordArrayName
-                                            ),
-                                            joinRecordIndex.read()
+                                            joinMapAP.read(),
+                                            KeyMultiRecordMapGenerator.keysRecordCountAP.getVariableName()
                                     ),
-                                    joinLoopIndexVar.read()
+                                    joinRecordIndex.read()
                             )
                     )
             );
+
+            // for (int i = 0; i < left_join_record_count; i++) {
+            //     [joinLoopBody]
+            // }
+            ScalarVariableAccessPath joinLoopIndexVar =
+                    new ScalarVariableAccessPath(cCtx.defineVariable("i"), P_INT);
+            codeGenResult.add(
+                    JaninoControlGen.createForLoop(
+                            getLocation(),
+                            createPrimitiveLocalVar(getLocation(), Java.Primitive.INT, joinLoopIndexVar.getVariableName(), "0"),
+                            JaninoOperatorGen.lt(getLocation(), joinLoopIndexVar.read(), leftJoinRecordCount.read()),
+                            JaninoOperatorGen.postIncrement(getLocation(), joinLoopIndexVar.write()),
+                            joinLoopBody
+                    )
+            );
+
+            // JoinMapType.ValueRecordType left_join_rec = joinMap.records[joinRecordIndex][joinLoopIndexVar];
+            if (this.joinMapGenerator.valueFieldNames.length > 0) {
+                joinLoopBody.addStatement(
+                        createLocalVariable(
+                                getLocation(),
+                                new Java.ReferenceType(
+                                        getLocation(),
+                                        new Java.Annotation[0],
+                                        new String[] {
+                                                this.joinMapGenerator.mapDeclaration.name,
+                                                this.joinMapGenerator.valueRecordDeclaration.name
+                                        },
+                                        null
+                                ),
+                                leftJoinRec,
+                                createArrayElementAccessExpr(
+                                        getLocation(),
+                                        createArrayElementAccessExpr(
+                                                getLocation(),
+                                                new Java.FieldAccessExpression(
+                                                        getLocation(),
+                                                        joinMapAP.read(),
+                                                        KeyMultiRecordMapGenerator.valueRecordArrayName
+                                                ),
+                                                joinRecordIndex.read()
+                                        ),
+                                        joinLoopIndexVar.read()
+                                )
+                        )
+                );
+            }
         }
 
+        // In the loop, expose the left-hand join columns as local variables
+        // Also start updating the ordinal mapping
+        List<AccessPath> updatedOrdinalMapping = new ArrayList<>(this.resultColumnCount);
+
         int numberOfLhsColumns = this.joinMapGenerator.valueFieldNames.length + 1; // add 1 for key column
         int currentLhsJoinMapValueColumnIndex = 0; // Need to account for the fact that the key is not duplicated in the map
         for (int i = 0; i < numberOfLhsColumns; i++) {
@@ -470,11 +567,7 @@ public class JoinOperator extends CodeGenOperator {
                             getLocation(),
                             toJavaType(getLocation(), currentLeftSideColumnVar.getType()),
                             currentLeftSideColumnVar.getVariableName(),
-                            new Java.FieldAccessExpression(
-                                    getLocation(),
-                                    createAmbiguousNameRef(getLocation(), leftJoinRec),
-                                    this.joinMapGenerator.valueFieldNames[currentLhsJoinMapValueColumnIndex]
-                            )
+                            this.createLeftJoinValueRead(leftJoinRecIndex, currentLhsJoinMapValueColumnIndex)
                     )
             );
 
@@ -496,6 +589,247 @@ public class JoinOperator extends CodeGenOperator {
         return codeGenResult;
     }
 
+    /**
+     * Method for generating the code that performs the hash-table build in the non-vectorised
+     * paradigm when the join may spill. Each record is inserted into the join map until the join map
+     * can no longer grow within the budget, after which each record is written to disk instead.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecBuildSpillable(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // if ([spill trigger condition]) [spilling] = true;
+        codeGenResult.add(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        createSpillTriggerCondition(this.spillingName, this.spillCheckName, this.joinMapAP.getVariableName()),
+                        createVariableAssignmentStm(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), this.spillingName),
+                                new Java.BooleanLiteral(getLocation(), "true")
+                        )
+                )
+        );
+
+        // if ([spilling]) { [write the record to disk] } else { [insert the record into the join map] }
+        // Both branches expose the record columns as their own local variables
+        List<AccessPath> recordOrdinalMapping = new ArrayList<>(cCtx.getCurrentOrdinalMapping());
+        Java.Block recordSpill = createBlock(getLocation());
+        recordSpill.addStatements(this.consumeNonVecSpill(cCtx, true));
+        cCtx.setCurrentOrdinalMapping(recordOrdinalMapping);
+
+        Java.Block recordInsert = createBlock(getLocation());
+        recordInsert.addStatements(this.consumeNonVecBuild(cCtx, oCtx));
+        codeGenResult.add(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), this.spillingName),
+                        recordSpill,
+                        recordInsert
+                )
+        );
+
+        return codeGenResult;
+    }
+
+    /**
+     * Method for generating the code that performs the hash-table probe in the non-vectorised
+     * paradigm when the join may spill. Each record probes the left child records that were kept in
+     * the join map and, if the left child spilled, is also written to disk to be joined with the
+     * spilled left child records afterwards.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecProbeSpillable(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // if ([spilling]) { [write the record to disk] }
+        List<AccessPath> recordOrdinalMapping = new ArrayList<>(cCtx.getCurrentOrdinalMapping());
+        Java.Block recordSpill = createBlock(getLocation());
+        recordSpill.addStatements(this.consumeNonVecSpill(cCtx, false));
+        cCtx.setCurrentOrdinalMapping(recordOrdinalMapping);
+        codeGenResult.add(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), this.spillingName),
+                        recordSpill
+                )
+        );
+
+        // Probe the join map (which also has the parent operator consume the result)
+        codeGenResult.addAll(this.consumeNonVecProbe(cCtx, oCtx));
+        return codeGenResult;
+    }
+
+    /**
+     * Method for generating the code that writes the records of either join input to disk when
+     * spilling in the non-vectorised paradigm.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param buildSide Whether the records of the left child (true) or right child (false) are written.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> consumeNonVecSpill(CodeGenContext cCtx, boolean buildSide) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // Check that we can handle the key type
+        int keyOrdinal = buildSide
+                ? this.leftChildEquijoinIndex
+                : this.rightChildEquijoinIndex - this.leftChildColumnCount;
+        QueryVariableType[] columnTypes = primitiveColumnTypes(cCtx.getCurrentOrdinalMapping());
+        if (columnTypes[keyOrdinal] != P_INT)
+            throw new UnsupportedOperationException("JoinOperator.consumeNonVecSpill only supports integer join key columns");
+
+        String spillFileName;
+        if (buildSide) {
+            this.buildSpillColumnTypes = columnTypes;
+            spillFileName = this.buildSpillFileName;
+        } else {
+            this.probeSpillColumnTypes = columnTypes;
+            spillFileName = this.probeSpillFileName;
+        }
+
+        // Write the record to the partition of its key
+        Java.Rvalue[] columnValues = new Java.Rvalue[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++)
+            columnValues[i] = getRValueFromOrdinalAccessPathNonVec(cCtx, i, codeGenResult);
+        spillRecordNonVec(
+                codeGenResult,
+                spillFileName,
+                createMethodInvocation(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), "Int_Hash_Function"),
+                        "preHash",
+                        new Java.Rvalue[] { getRValueFromOrdinalAccessPathNonVec(cCtx, keyOrdinal, codeGenResult) }
+                ),
+                columnTypes,
+                columnValues
+        );
+
+        return codeGenResult;
+    }
+
+    /**
+     * Method for generating the code that performs the actual join over the spilled join inputs
+     * in the non-vectorised paradigm, by building and probing the join map per partition pair.
+     * When the join did not spill, the spilled inputs are empty and no partition pair is joined.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> joinSpilledPartitionsNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // GraceHashJoinPartitions join_partitions = new GraceHashJoinPartitions(
+        //         cCtx.getArrowQueryAllocator(), [buildSpillFile], [probeSpillFile],
+        //         [buildKeyOrdinal], [probeKeyOrdinal], cCtx.getSpillMemoryBudget());
+        String partitionsName = cCtx.defineVariable("join_partitions");
+        Java.Type partitionsType = createReferenceType(getLocation(), "GraceHashJoinPartitions");
+        codeGenResult.add(
+                createLocalVariable(
+                        getLocation(),
+                        partitionsType,
+                        partitionsName,
+                        createClassInstance(
+                                getLocation(),
+                                partitionsType,
+                                new Java.Rvalue[] {
+                                        createMethodInvocation(
+                                                getLocation(),
+                                                createAmbiguousNameRef(getLocation(), "cCtx"),
+                                                "getArrowQueryAllocator"
+                                        ),
+                                        createAmbiguousNameRef(getLocation(), this.buildSpillFileName),
+                                        createAmbiguousNameRef(getLocation(), this.probeSpillFileName),
+                                        createIntegerLiteral(getLocation(), this.leftChildEquijoinIndex),
+                                        createIntegerLiteral(getLocation(), this.rightChildEquijoinIndex - this.leftChildColumnCount),
+                                        createMethodInvocation(
+                                                getLocation(),
+                                                createAmbiguousNameRef(getLocation(), "cCtx"),
+                                                "getSpillMemoryBudget"
+                                        )
+                                }
+                        )
+                )
+        );
+
+        // while (join_partitions.nextPartition()) {
+        //     [joinMapAP].reset();
+        //     [scan over the build partition which builds the join map]
+        //     [scan over the probe partition which probes the join map]
+        // }
+        Java.Block partitionLoopBody = createBlock(getLocation());
+        codeGenResult.add(
+                JaninoControlGen.createWhileLoop(
+                        getLocation(),
+                        createMethodInvocation(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), partitionsName),
+                                "nextPartition"
+                        ),
+                        partitionLoopBody
+                )
+        );
+
+        partitionLoopBody.addStatement(createMethodInvocationStm(getLocation(), this.joinMapAP.read(), "reset"));
+        partitionLoopBody.addStatements(
+                this.scanSpilledJoinPartitionNonVec(cCtx, oCtx, partitionsName, true));
+        partitionLoopBody.addStatements(
+                this.scanSpilledJoinPartitionNonVec(cCtx, oCtx, partitionsName, false));
+
+        // join_partitions.close();
+        codeGenResult.add(
+                createMethodInvocationStm(getLocation(), createAmbiguousNameRef(getLocation(), partitionsName), "close"));
+
+        return codeGenResult;
+    }
+
+    /**
+     * Method for generating the scan over one side of the current partition pair of a spilled
+     * join, which either builds or probes the join map.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param partitionsName The name of the {@code GraceHashJoinPartitions} variable.
+     * @param buildSide Whether the build side (true) or probe side (false) should be scanned.
+     * @return The generated query code.
+     */
+    private List<Java.Statement> scanSpilledJoinPartitionNonVec(
+            CodeGenContext cCtx,
+            OptimisationContext oCtx,
+            String partitionsName,
+            boolean buildSide
+    ) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+        cCtx.pushCodeGenContext();
+
+        // ArrowTableReader [partitionReader] = join_partitions.get[Build|Probe]Reader();
+        String partitionReaderName = cCtx.defineVariable(buildSide ? "join_build_partition" : "join_probe_partition");
+        codeGenResult.add(
+                createLocalVariable(
+                        getLocation(),
+                        createReferenceType(getLocation(), "ArrowTableReader"),
+                        partitionReaderName,
+                        createMethodInvocation(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), partitionsName),
+                                buildSide ? "getBuildReader" : "getProbeReader"
+                        )
+                )
+        );
+
+        // Scan the records of the partition and build or probe the join map with each record
+        QueryVariableType[] columnTypes = buildSide ? this.buildSpillColumnTypes : this.probeSpillColumnTypes;
+        Java.Block recordLoopBody = scanSpilledPartitionNonVec(cCtx, codeGenResult, partitionReaderName, columnTypes);
+        recordLoopBody.addStatements(buildSide
+                ? this.consumeNonVecBuild(cCtx, oCtx)
+                : this.consumeNonVecProbe(cCtx, oCtx));
+
+        cCtx.popCodeGenContext();
+        return codeGenResult;
+    }
+
     @Override
     public List<Java.Statement> produceVec(CodeGenContext cCtx, OptimisationContext oCtx) {
         List<Java.Statement> codeGenResult = new ArrayList<>();
@@ -527,30 +861,40 @@ public class JoinOperator extends CodeGenOperator {
         // hash-table build.
         // Additionally, the consumeVec method will initialise the join map type for the hash table and
         // prepare the left-hand side of the result vector type initialisation.
+        this.consumeInProbePhase = false;
         cCtx.pushCodeGenContext();
         List<Java.Statement> leftChildProduceResult = this.leftChild.produceVec(cCtx, oCtx);
         cCtx.popCodeGenContext();
 
         // We first add the join map type to the codegen result, and initialise an instance
-        codeGenResult.add(createLocalClassDeclarationStm(this.joinMapGenerator.generate()));
+        codeGenResult.add(createLocalClassDeclarationStm(this.generateJoinMapDeclaration()));
 
         Java.Type javaJoinMapType =
-                createReferenceType(getLocation(), this.joinMapGenerator.generate().getName());
+                createReferenceType(getLocation(), this.generateJoinMapDeclaration().getName());
         codeGenResult.add(
                 createLocalVariable(
                         getLocation(),
                         javaJoinMapType,
                         this.joinMapAP.getVariableName(),
-                        createClassInstance(getLocation(), javaJoinMapType)
+                        createClassInstance(
+                                getLocation(),
+                                javaJoinMapType,
+                                createMapInstantiationArguments(this.joinMapAP.getVariableName())
+                        )
                 )
         );
 
         // Then we add the left-child production code
         codeGenResult.addAll(leftChildProduceResult);
 
+        // Record the statistics of the join map once it has been built in memory, if profiling
+        if (!this.spillToDisk)
+            this.profileHashTable(cCtx, codeGenResult, this.joinMapAP.read());
+
         // Next, call the produce method on the right child operator, which will eventually invoke
         // the consumeVec method on @this, which should perform the hash-table probe, continue the
         // result vector type initialisation and call the consumeVec method on the parent.
+        this.consumeInProbePhase = true;
         cCtx.pushCodeGenContext();
         List<Java.Statement> rightChildProduceResult = this.rightChild.produceVec(cCtx, oCtx);
         cCtx.popCodeGenContext();
@@ -589,6 +933,9 @@ public class JoinOperator extends CodeGenOperator {
         // Then add the right child production result
         codeGenResult.addAll(rightChildProduceResult);
 
+        // Free the join map if it is stored off-heap
+        this.closeOffHeapJoinMap(codeGenResult);
+
         // For vectorised implementations, deallocate the pre-hash vector
         codeGenResult.add(
                 createMethodInvocationStm(
@@ -1395,6 +1742,22 @@ public class JoinOperator extends CodeGenOperator {
                 )
         );
 
+        // A key may have more left join records than fit into a single result vector, so keep track
+        // of the record at which the current key should be resumed in the next result vector
+        // [int|long] left_join_resume = -1;
+        ScalarVariableAccessPath leftJoinResumeAP = new ScalarVariableAccessPath(
+                cCtx.defineVariable("left_join_resume"),
+                this.offHeapJoinMapGenerator != null ? P_LONG : P_INT
+        );
+        codeGenResult.add(
+                createLocalVariable(
+                        getLocation(),
+                        toJavaType(getLocation(), leftJoinResumeAP.getType()),
+                        leftJoinResumeAP.getVariableName(),
+                        createIntegerLiteral(getLocation(), -1)
+                )
+        );
+
         // while (currentRecordIndex < recordCount) { [whileLoopBody] }
         Java.Block whileLoopBody = new Java.Block(getLocation());
         codeGenResult.add(
@@ -1470,7 +1833,7 @@ public class JoinOperator extends CodeGenOperator {
         // Obtain the index for the values for the left side of the join for the current key value
         ScalarVariableAccessPath joinRecordIndex = new ScalarVariableAccessPath(
                 cCtx.defineVariable("records_to_join_index"),
-                P_INT);
+                this.offHeapJoinMapGenerator != null ? P_LONG : P_INT);
         resultVectorConstructionLoop.addStatement(
                 createLocalVariable(
                         getLocation(),
@@ -1511,42 +1874,18 @@ public class JoinOperator extends CodeGenOperator {
                 )
         );
 
-        // int left_join_record_count = [joinMapAP].keysRecordCount[records_to_join_index];
-        ScalarVariableAccessPath leftJoinRecordCount =
-                new ScalarVariableAccessPath(cCtx.defineVariable("left_join_record_count"), P_INT);
-        resultVectorConstructionLoop.addStatement(
-                createLocalVariable(
-                        getLocation(),
-                        toJavaType(getLocation(), leftJoinRecordCount.getType()),
-                        leftJoinRecordCount.getVariableName(),
-                        createArrayElementAccessExpr(
-                                getLocation(),
-                                new Java.FieldAccessExpression(
-                                        getLocation(),
-                                        joinMapAP.read(),
-                                        KeyMultiRecordMapGenerator.keysRecordCountAP.getVariableName()
-                                ),
-                                joinRecordIndex.read()
-                        )
-                )
-        );
-
         // Check if there is still room in the result vector and if not, break from the inner loop
-        // if (leftJoinRecordCount > (VectorisedOperators.VECTOR_LENGTH - currentResultIndex))
+        // if (currentResultIndex == VectorisedOperators.VECTOR_LENGTH)
         //     break;
         Java.Block breakBlock = new Java.Block(getLocation());
         breakBlock.addStatement(new Java.BreakStatement(getLocation(), null));
         resultVectorConstructionLoop.addStatement(
                 JaninoControlGen.createIf(
                         getLocation(),
-                        JaninoOperatorGen.gt(
+                        JaninoOperatorGen.eq(
                                 getLocation(),
-                                leftJoinRecordCount.read(),
-                                JaninoOperatorGen.sub(
-                                        getLocation(),
-                                        createAmbiguousNameRef(getLocation(), "VectorisedOperators.VECTOR_LENGTH"),
-                                        currentResultIndexAP.read()
-                                )
+                                currentResultIndexAP.read(),
+                                createAmbiguousNameRef(getLocation(), "VectorisedOperators.VECTOR_LENGTH")
                         ),
                         breakBlock
                 )
@@ -1636,59 +1975,151 @@ public class JoinOperator extends CodeGenOperator {
             }
         }
 
-        // for (int i = 0; i < left_join_record_count; i++) {
-        //     [joinLoopBody]
-        // }
-        ScalarVariableAccessPath joinLoopIndexVar =
-                new ScalarVariableAccessPath(cCtx.defineVariable("i"), P_INT);
+        // Loop over the left join records for the current key value, starting from the record at
+        // which the key was interrupted in the previous result vector if any
         Java.Block joinLoopBody = new Java.Block(getLocation());
+        String leftJoinRec = cCtx.defineVariable("left_join_rec");
+        ScalarVariableAccessPath leftJoinRecIndex = new ScalarVariableAccessPath(leftJoinRec, P_LONG);
+        ScalarVariableAccessPath joinLoopIndexVar = this.offHeapJoinMapGenerator != null
+                ? leftJoinRecIndex
+                : new ScalarVariableAccessPath(cCtx.defineVariable("i"), P_INT);
+
+        // [int|long] left_join_first_rec = (left_join_resume == -1) ? [first record] : left_join_resume;
+        ScalarVariableAccessPath leftJoinFirstRecAP = new ScalarVariableAccessPath(
+                cCtx.defineVariable("left_join_first_rec"),
+                leftJoinResumeAP.getType()
+        );
         resultVectorConstructionLoop.addStatement(
-                JaninoControlGen.createForLoop(
+                createLocalVariable(
                         getLocation(),
-                        createPrimitiveLocalVar(getLocation(), Java.Primitive.INT, joinLoopIndexVar.getVariableName(), "0"),
-                        JaninoOperatorGen.lt(getLocation(), joinLoopIndexVar.read(), leftJoinRecordCount.read()),
-                        JaninoOperatorGen.postIncrement(getLocation(), joinLoopIndexVar.write()),
-                        joinLoopBody
+                        toJavaType(getLocation(), leftJoinFirstRecAP.getType()),
+                        leftJoinFirstRecAP.getVariableName(),
+                        JaninoOperatorGen.ternary(
+                                getLocation(),
+                                JaninoOperatorGen.eq(getLocation(), leftJoinResumeAP.read(), createIntegerLiteral(getLocation(), -1)),
+                                this.offHeapJoinMapGenerator != null
+                                        ? createMethodInvocation(
+                                                getLocation(),
+                                                this.joinMapAP.read(),
+                                                "getFirstRecord",
+                                                new Java.Rvalue[] { joinRecordIndex.read() }
+                                        )
+                                        : createIntegerLiteral(getLocation(), 0),
+                                leftJoinResumeAP.read()
+                        )
                 )
         );
 
-        // In the loop over the left join records, first add the statements to set the correct
-        // values in the result vectors for the left side join columns
-        int numberOfLhsColumns = this.joinMapGenerator.valueFieldNames.length + 1; // Add 1 for key column
+        // left_join_resume = -1;
+        resultVectorConstructionLoop.addStatement(
+                createVariableAssignmentStm(
+                        getLocation(),
+                        leftJoinResumeAP.write(),
+                        createIntegerLiteral(getLocation(), -1)
+                )
+        );
 
-        // JoinMapType.ValueRecordType left_join_rec = joinMap.records[joinRecordIndex][joinLoopIndexVar];String leftJoinRec = cCtx.defineVariable("left_join_rec");
-        String leftJoinRec = cCtx.defineVariable("left_join_rec");
-        if (this.joinMapGenerator.valueFieldNames.length > 0) {
-            joinLoopBody.addStatement(
+        // Once the result vector is full, remember the current record and stop joining the key
+        // if (currentResultIndex == VectorisedOperators.VECTOR_LENGTH) {
+        //     left_join_resume = [i|left_join_rec];
+        //     break;
+        // }
+        Java.Block resumeBlock = new Java.Block(getLocation());
+        resumeBlock.addStatement(
+                createVariableAssignmentStm(getLocation(), leftJoinResumeAP.write(), joinLoopIndexVar.read()));
+        resumeBlock.addStatement(new Java.BreakStatement(getLocation(), null));
+        joinLoopBody.addStatement(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        JaninoOperatorGen.eq(
+                                getLocation(),
+                                currentResultIndexAP.read(),
+                                createAmbiguousNameRef(getLocation(), "VectorisedOperators.VECTOR_LENGTH")
+                        ),
+                        resumeBlock
+                )
+        );
+
+        if (this.offHeapJoinMapGenerator != null) {
+            resultVectorConstructionLoop.addStatement(
+                    this.createOffHeapJoinRecordLoop(leftJoinRecIndex, leftJoinFirstRecAP.read(), joinLoopBody));
+
+        } else {
+            // int left_join_record_count = [joinMapAP].keysRecordCount[records_to_join_index];
+            ScalarVariableAccessPath leftJoinRecordCount =
+                    new ScalarVariableAccessPath(cCtx.defineVariable("left_join_record_count"), P_INT);
+            resultVectorConstructionLoop.addStatement(
                     createLocalVariable(
                             getLocation(),
-                            new Java.ReferenceType(
-                                    getLocation(),
-                                    new Java.Annotation[0],
-                                    new String[] {
-                                            this.joinMapGenerator.mapDeclaration.name,
-                                            this.joinMapGenerator.valueRecordDeclaration.name
-                                    },
-                                    null
-                            ),
-                            leftJoinRec,
+                            toJavaType(getLocation(), leftJoinRecordCount.getType()),
+                            leftJoinRecordCount.getVariableName(),
                             createArrayElementAccessExpr(
                                     getLocation(),
-                                    createArrayElementAccessExpr(
+                                    new Java.FieldAccessExpression(
                                             getLocation(),
-                                            new Java.FieldAccessExpression(
-                                                    getLocation(),
-                                                    joinMapAP.read(),
-                                                    KeyMultiRecordMapGenerator.valueRecordArrayName
-                                            ),
-                                            joinRecordIndex.read()
+                                            joinMapAP.read(),
+                                            KeyMultiRecordMapGenerator.keysRecordCountAP.getVariableName()
                                     ),
-                                    joinLoopIndexVar.read()
+                                    joinRecordIndex.read()
                             )
                     )
             );
+
+            // for (int i = left_join_first_rec; i < left_join_record_count; i++) {
+            //     [joinLoopBody]
+            // }
+            resultVectorConstructionLoop.addStatement(
+                    JaninoControlGen.createForLoop(
+                            getLocation(),
+                            createLocalVariable(
+                                    getLocation(),
+                                    createPrimitiveType(getLocation(), Java.Primitive.INT),
+                                    joinLoopIndexVar.getVariableName(),
+                                    leftJoinFirstRecAP.read()
+                            ),
+                            JaninoOperatorGen.lt(getLocation(), joinLoopIndexVar.read(), leftJoinRecordCount.read()),
+                            JaninoOperatorGen.postIncrement(getLocation(), joinLoopIndexVar.write()),
+                            joinLoopBody
+                    )
+            );
+
+            // JoinMapType.ValueRecordType left_join_rec = joinMap.records[joinRecordIndex][joinLoopIndexVar];
+            if (this.joinMapGenerator.valueFieldNames.length > 0) {
+                joinLoopBody.addStatement(
+                        createLocalVariable(
+                                getLocation(),
+                                new Java.ReferenceType(
+                                        getLocation(),
+                                        new Java.Annotation[0],
+                                        new String[] {
+                                                this.joinMapGenerator.mapDeclaration.name,
+                                                this.joinMapGenerator.valueRecordDeclaration.name
+                                        },
+                                        null
+                                ),
+                                leftJoinRec,
+                                createArrayElementAccessExpr(
+                                        getLocation(),
+                                        createArrayElementAccessExpr(
+                                                getLocation(),
+                                                new Java.FieldAccessExpression(
+                                                        getLocation(),
+                                                        joinMapAP.read(),
+                                                        KeyMultiRecordMapGenerator.valueRecordArrayName
+                                                ),
+                                                joinRecordIndex.read()
+                                        ),
+                                        joinLoopIndexVar.read()
+                                )
+                        )
+                );
+            }
         }
 
+        // In the loop over the left join records, first add the statements to set the correct
+        // values in the result vectors for the left side join columns
+        int numberOfLhsColumns = this.joinMapGenerator.valueFieldNames.length + 1; // Add 1 for key column
+
         // Need to account for the join key de-duplication:
         // no need to construct the LHS key vector too, since it is a duplicate of the RHS key vector
         int leftKeyIndex = this.leftChildEquijoinIndex;
@@ -1706,11 +2137,7 @@ public class JoinOperator extends CodeGenOperator {
                                     this.resultVectorDefinitions.get(i).read(),
                                     currentResultIndexAP.read()
                             ),
-                            new Java.FieldAccessExpression(
-                                    getLocation(),
-                                    createAmbiguousNameRef(getLocation(), leftJoinRec),
-                                    this.joinMapGenerator.valueFieldNames[currentLhsValueColumnIndex++]
-                            )
+                            this.createLeftJoinValueRead(leftJoinRecIndex, currentLhsValueColumnIndex++)
                     )
             );
         }
@@ -1735,7 +2162,21 @@ public class JoinOperator extends CodeGenOperator {
         joinLoopBody.addStatement(JaninoOperatorGen.postIncrementStm(getLocation(), currentResultIndexAP.write()));
         // End of the join-loop
 
-        // Finally, move to the next record
+        // If the result vector filled up before all records of the key were joined, pass it on and
+        // continue with the current key in the next result vector
+        // if (left_join_resume != -1)
+        //     break;
+        Java.Block resumeBreakBlock = new Java.Block(getLocation());
+        resumeBreakBlock.addStatement(new Java.BreakStatement(getLocation(), null));
+        resultVectorConstructionLoop.addStatement(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        JaninoOperatorGen.neq(getLocation(), leftJoinResumeAP.read(), createIntegerLiteral(getLocation(), -1)),
+                        resumeBreakBlock
+                )
+        );
+
+        // Otherwise, move to the next record
         // currentLoopIndex++;
         resultVectorConstructionLoop.addStatement(
                 JaninoOperatorGen.postIncrementStm(getLocation(), currentLoopIndexAP.write()));
@@ -1773,18 +2214,27 @@ public class JoinOperator extends CodeGenOperator {
      */
     private List<Java.Statement> consume(CodeGenContext cCtx, OptimisationContext oCtx, boolean vectorised) {
         if (!this.consumeInProbePhase) {
-            // Mark that on the next call, we are in the probe phase
-            this.consumeInProbePhase = true;
-
-            // Then introduce the class to store records of the left-child in the hash-table
+            // Introduce the class to store records of the left-child in the hash-table
             this.joinMapGenerator = joinMapGeneratorForRelation(
                     cCtx.getCurrentOrdinalMapping(),
                     this.leftChildEquijoinIndex
             );
 
+            // Store the map off-heap if requested and supported for the relation
+            if (cCtx.useOffHeapHashTables()
+                    && OffHeapKeyMultiRecordMapGenerator.supports(this.joinMapGenerator.keyType, this.joinMapGenerator.valueTypes))
+                this.offHeapJoinMapGenerator = new OffHeapKeyMultiRecordMapGenerator(
+                        this.joinMapGenerator.keyType,
+                        this.joinMapGenerator.valueTypes
+                );
+
             // Store the number of columns in the left-child records
             this.leftChildColumnCount = cCtx.getCurrentOrdinalMapping().size();
 
+            // When the join may spill, the hash table is built until it can no longer grow
+            if (!vectorised && this.spillToDisk)
+                return this.consumeNonVecBuildSpillable(cCtx, oCtx);
+
             // And build the hash table
             return vectorised ? this.consumeVecBuild(cCtx, oCtx) : this.consumeNonVecBuild(cCtx, oCtx);
 
@@ -1795,12 +2245,119 @@ public class JoinOperator extends CodeGenOperator {
             // Initialise result structures
             this.resultColumnCount = rightChildColumnCount + this.leftChildColumnCount;
 
+            // When the join may spill, the records are also partitioned once the left child spilled
+            if (!vectorised && this.spillToDisk)
+                return this.consumeNonVecProbeSpillable(cCtx, oCtx);
+
             // Perform the probe (which also has the parent operator consume the result)
             return vectorised ? this.consumeVecProbe(cCtx, oCtx) : this.consumeNonVecProbe(cCtx, oCtx);
 
         }
     }
 
+    /**
+     * Method to obtain the type declaration of the join map, which is stored off-heap if an
+     * off-heap join map generator was configured during the build phase.
+     * @return The {@link Java.LocalClassDeclaration} of the join map type.
+     */
+    private Java.LocalClassDeclaration generateJoinMapDeclaration() {
+        if (this.offHeapJoinMapGenerator != null)
+            return this.offHeapJoinMapGenerator.generate();
+        return this.joinMapGenerator.generate();
+    }
+
+    /**
+     * Method to generate the statement which frees the join map once the probe phase has finished,
+     * which is only necessary if the join map is stored off-heap.
+     * @param codeGenResult The list to add the generated statement to.
+     */
+    private void closeOffHeapJoinMap(List<Java.Statement> codeGenResult) {
+        // [joinMapAP].close();
+        if (this.offHeapJoinMapGenerator != null)
+            codeGenResult.add(createMethodInvocationStm(getLocation(), this.joinMapAP.read(), "close"));
+    }
+
+    /**
+     * Method to generate the loop over the records of a key in an off-heap join map.
+     * @param recordIndexAP The access path to use for the index of the current record.
+     * @param keyIndexAP The access path to the index of the key in the join map.
+     * @param loopBody The body of the loop.
+     * @return The generated loop.
+     */
+    private Java.ForStatement createOffHeapJoinRecordLoop(
+            ScalarVariableAccessPath recordIndexAP,
+            ScalarVariableAccessPath keyIndexAP,
+            Java.Block loopBody
+    ) {
+        return this.createOffHeapJoinRecordLoop(
+                recordIndexAP,
+                createMethodInvocation(
+                        getLocation(),
+                        this.joinMapAP.read(),
+                        "getFirstRecord",
+                        new Java.Rvalue[] { keyIndexAP.read() }
+                ),
+                loopBody
+        );
+    }
+
+    /**
+     * Method to generate the loop over the records of a key in an off-heap join map, starting from
+     * a given record of that key.
+     * @param recordIndexAP The access path to use for the index of the current record.
+     * @param firstRecord The index of the record to start the loop from.
+     * @param loopBody The body of the loop.
+     * @return The generated loop.
+     */
+    private Java.ForStatement createOffHeapJoinRecordLoop(
+            ScalarVariableAccessPath recordIndexAP,
+            Java.Rvalue firstRecord,
+            Java.Block loopBody
+    ) {
+        // for (long left_join_rec = [firstRecord];
+        //      left_join_rec != -1;
+        //      left_join_rec = [joinMapAP].getNextRecord(left_join_rec)) {
+        //     [loopBody]
+        // }
+        return JaninoControlGen.createForLoop(
+                getLocation(),
+                createLocalVariable(
+                        getLocation(),
+                        toJavaType(getLocation(), recordIndexAP.getType()),
+                        recordIndexAP.getVariableName(),
+                        firstRecord
+                ),
+                JaninoOperatorGen.neq(getLocation(), recordIndexAP.read(), createIntegerLiteral(getLocation(), -1)),
+                new Java.Assignment(
+                        getLocation(),
+                        recordIndexAP.write(),
+                        "=",
+                        createMethodInvocation(
+                                getLocation(),
+                                this.joinMapAP.read(),
+                                "getNextRecord",
+                                new Java.Rvalue[] { recordIndexAP.read() }
+                        )
+                ),
+                loopBody
+        );
+    }
+
+    /**
+     * Method to generate the {@link Java.Rvalue} reading a value of the current left-hand join record.
+     * @param leftJoinRecAP The access path to the current left-hand join record, which refers to a
+     *                      record object for on-heap join maps and to a record index otherwise.
+     * @param valueOrdinal The index of the value in the join map record.
+     * @return The {@link Java.Rvalue} corresponding to the requested value.
+     */
+    private Java.Rvalue createLeftJoinValueRead(ScalarVariableAccessPath leftJoinRecAP, int valueOrdinal) {
+        if (this.offHeapJoinMapGenerator != null)
+            return this.offHeapJoinMapGenerator.createValueRead(this.joinMapAP.read(), leftJoinRecAP.read(), valueOrdinal);
+
+        // left_join_rec.[valueFieldName] (unpacked for short fixed-length binary values)
+        return this.joinMapGenerator.createValueFieldRead(leftJoinRecAP.getVariableName(), valueOrdinal);
+    }
+
     /**
      * Method to instantiate a generator for a custom join map for storing the elements of an input
      * relation in a hash-table.
@@ -1811,20 +2368,7 @@ public class JoinOperator extends CodeGenOperator {
     private KeyMultiRecordMapGenerator joinMapGeneratorForRelation(
             List<AccessPath> relationType, int keyIndex) {
         // Obtain the types of all the columns in the relation
-        QueryVariableType[] primitiveColumnTypes = new QueryVariableType[relationType.size()];
-        for (int i = 0; i < primitiveColumnTypes.length; i++) {
-            QueryVariableType relationColumnType = relationType.get(i).getType();
-            if (relationColumnType == S_VARCHAR
-                    || relationColumnType == ARROW_VARCHAR_VECTOR || relationColumnType == ARRAY_VARCHAR_VECTOR)
-                primitiveColumnTypes[i] = S_VARCHAR;
-            else if (relationColumnType.logicalType == QueryVariableType.LogicalType.S_FL_BIN
-                    || relationColumnType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR
-                    || relationColumnType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR_W_SELECTION_VECTOR
-                    || relationColumnType.logicalType == QueryVariableType.LogicalType.ARRAY_FIXED_LENGTH_BINARY_VECTOR)
-                primitiveColumnTypes[i] = new QueryVariableType(QueryVariableType.LogicalType.S_FL_BIN, relationColumnType.byteWidth);
-            else
-                primitiveColumnTypes[i] = primitiveType(relationColumnType);
-        }
+        QueryVariableType[] primitiveColumnTypes = primitiveColumnTypes(relationType);
 
         // Extract the key column type
         QueryVariableType keyColumnType = primitiveColumnTypes[keyIndex];
@@ -1845,4 +2389,27 @@ public class JoinOperator extends CodeGenOperator {
         );
     }
 
+    /**
+     * Method to obtain the primitive type of each column in an input relation.
+     * @param relationType The input relation to obtain the column types of.
+     * @return The primitive type of each column in {@code relationType}.
+     */
+    private static QueryVariableType[] primitiveColumnTypes(List<AccessPath> relationType) {
+        QueryVariableType[] primitiveColumnTypes = new QueryVariableType[relationType.size()];
+        for (int i = 0; i < primitiveColumnTypes.length; i++) {
+            QueryVariableType relationColumnType = relationType.get(i).getType();
+            if (relationColumnType == S_VARCHAR
+                    || relationColumnType == ARROW_VARCHAR_VECTOR || relationColumnType == ARRAY_VARCHAR_VECTOR)
+                primitiveColumnTypes[i] = S_VARCHAR;
+            else if (relationColumnType.logicalType == QueryVariableType.LogicalType.S_FL_BIN
+                    || relationColumnType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR
+                    || relationColumnType.logicalType == QueryVariableType.LogicalType.ARROW_FIXED_LENGTH_BINARY_VECTOR_W_SELECTION_VECTOR
+                    || relationColumnType.logicalType == QueryVariableType.LogicalType.ARRAY_FIXED_LENGTH_BINARY_VECTOR)
+                primitiveColumnTypes[i] = new QueryVariableType(QueryVariableType.LogicalType.S_FL_BIN, relationColumnType.byteWidth);
+            else
+                primitiveColumnTypes[i] = primitiveType(relationColumnType);
+        }
+        return primitiveColumnTypes;
+    }
+
 }
@@ -0,0 +1,409 @@
+package AethraDB.evaluation.codegen.operators;
+
+import AethraDB.evaluation.codegen.infrastructure.context.CodeGenContext;
+import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.AccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen;
+import org.codehaus.janino.Java;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_A_INT;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.arrowVectorWithSelectionVectorType;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createArrayElementAccessExpr;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createIntegerLiteral;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createPrimitiveArrayType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createBlock;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.ge;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.lt;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.postIncrement;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.postIncrementStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.sub;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createPrimitiveLocalVar;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAdditionAssignmentStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
+
+/**
+ * A {@link CodeGenOperator} which only exposes the first records produced by its child operator.
+ * Once enough records have been produced, the generated code breaks out of the loop of the scan that
+ * drives the pipeline and signals the table readers of the child to stop reading, so that the
+ * remainder of the input is not processed.
+ */
+public class LimitOperator extends CodeGenOperator {
+
+    /**
+     * The {@link CodeGenOperator} producing the records to be limited by {@code this}.
+     */
+    private final CodeGenOperator child;
+
+    /**
+     * The maximum number of records to expose to the parent operator.
+     */
+    private final int limit;
+
+    /**
+     * The name of the variable counting the number of records exposed to the parent operator so far.
+     */
+    private String limitCountName;
+
+    /**
+     * The index of the first table reader that is registered by the child operator.
+     */
+    private int firstArrowReaderIndex;
+
+    /**
+     * The selection vector which selects each record of a vector, which is used in the vectorised
+     * paradigm to limit vectors that do not have a selection vector yet ({@code null} if unused).
+     */
+    private ArrayAccessPath identitySelectionVector;
+
+    /**
+     * Create a {@link LimitOperator} instance for a specific sub-query.
+     * @param child The {@link CodeGenOperator} producing the records to be limited.
+     * @param limit The maximum number of records to expose to the parent operator.
+     */
+    public LimitOperator(CodeGenOperator child, int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("LimitOperator expects a non-negative limit");
+
+        this.child = child;
+        this.child.setParent(this);
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean canProduceNonVectorised() {
+        return this.child.canProduceNonVectorised();
+    }
+
+    @Override
+    public boolean canProduceVectorised() {
+        return this.child.canProduceVectorised();
+    }
+
+    @Override
+    public List<Java.Statement> produceNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        return this.genericProduce(cCtx, oCtx, false);
+    }
+
+    @Override
+    protected boolean consumesDictionaryCodes(int ordinalIndex) {
+        // Records are only counted, so dictionary-encoded ordinals can be passed on as-is
+        return true;
+    }
+
+    @Override
+    protected boolean consumesEncodedValues(int ordinalIndex) {
+        // Records are only counted, so encoded ordinals can be passed on without unpacking them
+        return true;
+    }
+
+    @Override
+    public List<Java.Statement> consumeNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        if (this.useSIMDNonVec(cCtx))
+            throw new UnsupportedOperationException("LimitOperator.consumeNonVec does not support SIMD");
+
+        // Only expose the current record if the limit has not been reached yet
+        // if (limit_count < [this.limit]) {
+        //     limit_count++;
+        //     [parent consumption]
+        // }
+        Java.Block limitNotReachedBody = createBlock(getLocation());
+        codeGenResult.add(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        lt(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), this.limitCountName),
+                                createIntegerLiteral(getLocation(), this.limit)
+                        ),
+                        limitNotReachedBody
+                )
+        );
+        limitNotReachedBody.addStatement(postIncrementStm(getLocation(), createAmbiguousNameRef(getLocation(), this.limitCountName)));
+        limitNotReachedBody.addStatements(this.nonVecParentConsume(cCtx, oCtx));
+
+        // Terminate the pipeline once the limit has been reached
+        this.generateEarlyTermination(cCtx, codeGenResult);
+
+        return codeGenResult;
+    }
+
+    @Override
+    public List<Java.Statement> produceVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        return this.genericProduce(cCtx, oCtx, true);
+    }
+
+    @Override
+    public List<Java.Statement> consumeVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        if (this.useSIMDVec())
+            throw new UnsupportedOperationException("LimitOperator.consumeVec does not support SIMD");
+
+        // All ordinals of a vector should either have a selection vector, or none of them should
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        boolean hasSelectionVector = hasSelectionVector(currentOrdinalMapping.get(0));
+        for (AccessPath accessPath : currentOrdinalMapping) {
+            if (hasSelectionVector(accessPath) != hasSelectionVector)
+                throw new UnsupportedOperationException(
+                        "LimitOperator.consumeVec expects either all or no ordinals to have a selection vector");
+        }
+
+        // Compute the number of records of the current vector that can still be exposed
+        // int limit_vector_length = Math.min([vector length], [this.limit] - limit_count);
+        // limit_count += limit_vector_length;
+        ScalarVariableAccessPath limitVectorLength =
+                new ScalarVariableAccessPath(cCtx.defineVariable("limit_vector_length"), P_INT);
+        codeGenResult.add(
+                createLocalVariable(
+                        getLocation(),
+                        toJavaType(getLocation(), limitVectorLength.getType()),
+                        limitVectorLength.getVariableName(),
+                        createMethodInvocation(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), "Math"),
+                                "min",
+                                new Java.Rvalue[] {
+                                        readVectorLength(currentOrdinalMapping.get(0)),
+                                        sub(
+                                                getLocation(),
+                                                createIntegerLiteral(getLocation(), this.limit),
+                                                createAmbiguousNameRef(getLocation(), this.limitCountName)
+                                        )
+                                }
+                        )
+                )
+        );
+        codeGenResult.add(
+                createVariableAdditionAssignmentStm(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), this.limitCountName),
+                        limitVectorLength.read()
+                )
+        );
+
+        // Vectors without a selection vector are limited through a selection vector which selects
+        // each record, so that they can be truncated without copying them
+        if (!hasSelectionVector && this.identitySelectionVector == null) {
+            boolean requiresSelectionVector = currentOrdinalMapping.stream()
+                    .anyMatch(accessPath -> accessPath instanceof ArrowVectorAccessPath);
+
+            if (requiresSelectionVector) {
+                // int[] limit_sel_vec = cCtx.getAllocationManager().getIntVector();
+                String identitySelectionVectorName = cCtx.defineQueryGlobalVariable(
+                        "limit_sel_vec",
+                        createPrimitiveArrayType(getLocation(), Java.Primitive.INT),
+                        createMethodInvocation(
+                                getLocation(),
+                                createMethodInvocation(
+                                        getLocation(),
+                                        createAmbiguousNameRef(getLocation(), "cCtx"),
+                                        "getAllocationManager"
+                                ),
+                                "getIntVector"
+                        ),
+                        true
+                );
+                this.identitySelectionVector = new ArrayAccessPath(identitySelectionVectorName, P_A_INT);
+            }
+        }
+
+        // Expose the truncated vectors to the parent operator
+        List<AccessPath> updatedOrdinalMapping = new ArrayList<>(currentOrdinalMapping.size());
+        for (AccessPath accessPath : currentOrdinalMapping)
+            updatedOrdinalMapping.add(this.limitVector(accessPath, limitVectorLength));
+        cCtx.setCurrentOrdinalMapping(updatedOrdinalMapping);
+        codeGenResult.addAll(this.vecParentConsume(cCtx, oCtx));
+
+        // Terminate the pipeline once the limit has been reached
+        this.generateEarlyTermination(cCtx, codeGenResult);
+
+        return codeGenResult;
+    }
+
+    /**
+     * Method for generating the code shared by both production paradigms.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param oCtx The {@link OptimisationContext} to use during the generation and execution.
+     * @param vectorised Whether the child should be produced in the vectorised paradigm.
+     * @return The generated query code for this operator.
+     */
+    private List<Java.Statement> genericProduce(CodeGenContext cCtx, OptimisationContext oCtx, boolean vectorised) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // Define the record counter and remember which table readers belong to the child operator
+        // int limit_count = 0;
+        this.limitCountName = cCtx.defineVariable("limit_count");
+        this.firstArrowReaderIndex = cCtx.getArrowReaders().size();
+        codeGenResult.add(createPrimitiveLocalVar(getLocation(), Java.Primitive.INT, this.limitCountName, "0"));
+
+        // Forward the call to the child operator to get the records to limit
+        List<Java.Statement> childProductionResult = vectorised
+                ? this.child.produceVec(cCtx, oCtx)
+                : this.child.produceNonVec(cCtx, oCtx);
+
+        // Initialise the identity selection vector if it is used
+        // for (int limit_sel_vec_i = 0; limit_sel_vec_i < limit_sel_vec.length; limit_sel_vec_i++)
+        //     limit_sel_vec[limit_sel_vec_i] = limit_sel_vec_i;
+        if (this.identitySelectionVector != null) {
+            ScalarVariableAccessPath identityIndex =
+                    new ScalarVariableAccessPath(cCtx.defineVariable("limit_sel_vec_i"), P_INT);
+            codeGenResult.add(
+                    JaninoControlGen.createForLoop(
+                            getLocation(),
+                            createPrimitiveLocalVar(getLocation(), Java.Primitive.INT, identityIndex.getVariableName(), "0"),
+                            lt(
+                                    getLocation(),
+                                    identityIndex.read(),
+                                    createAmbiguousNameRef(getLocation(), this.identitySelectionVector.getVariableName() + ".length")
+                            ),
+                            postIncrement(getLocation(), identityIndex.write()),
+                            createVariableAssignmentStm(
+                                    getLocation(),
+                                    createArrayElementAccessExpr(getLocation(), this.identitySelectionVector.read(), identityIndex.read()),
+                                    identityIndex.read()
+                            )
+                    )
+            );
+        }
+
+        codeGenResult.addAll(childProductionResult);
+        return codeGenResult;
+    }
+
+    /**
+     * Method to generate the code which terminates the current pipeline once the limit has been reached.
+     * This is only possible when the pipeline is driven by a labelled loop, otherwise the remaining
+     * records are simply not exposed to the parent operator.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to add the generated code to.
+     */
+    private void generateEarlyTermination(CodeGenContext cCtx, List<Java.Statement> codegenTarget) {
+        String pipelineLoopLabel = cCtx.getPipelineLoopLabel();
+        if (pipelineLoopLabel == null)
+            return;
+
+        // if (limit_count >= [this.limit]) {
+        //     $ for each table reader i registered by the child $
+        //         cCtx.getArrowReader([i]).stopReading();
+        //     break [pipelineLoopLabel];
+        // }
+        Java.Block limitReachedBody = createBlock(getLocation());
+        for (int i = this.firstArrowReaderIndex; i < cCtx.getArrowReaders().size(); i++) {
+            limitReachedBody.addStatement(
+                    createMethodInvocationStm(
+                            getLocation(),
+                            createMethodInvocation(
+                                    getLocation(),
+                                    createAmbiguousNameRef(getLocation(), "cCtx"),
+                                    "getArrowReader",
+                                    new Java.Rvalue[] { createIntegerLiteral(getLocation(), i) }
+                            ),
+                            "stopReading"
+                    )
+            );
+        }
+        limitReachedBody.addStatement(JaninoControlGen.createBreak(getLocation(), pipelineLoopLabel));
+
+        codegenTarget.add(
+                JaninoControlGen.createIf(
+                        getLocation(),
+                        ge(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), this.limitCountName),
+                                createIntegerLiteral(getLocation(), this.limit)
+                        ),
+                        limitReachedBody
+                )
+        );
+    }
+
+    /**
+     * Method to obtain an access path to the first records of a vector.
+     * @param accessPath The access path of the vector to limit.
+     * @param limitVectorLength The variable containing the number of records to expose.
+     * @return An access path which exposes only the first {@code limitVectorLength} records of {@code accessPath}.
+     */
+    private AccessPath limitVector(AccessPath accessPath, ScalarVariableAccessPath limitVectorLength) {
+        if (accessPath instanceof ArrowVectorAccessPath avap)
+            return new ArrowVectorWithSelectionVectorAccessPath(
+                    avap,
+                    this.identitySelectionVector,
+                    limitVectorLength,
+                    arrowVectorWithSelectionVectorType(avap.getType()));
+
+        else if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap)
+            return new ArrowVectorWithSelectionVectorAccessPath(
+                    avwsvap.getArrowVectorVariable(),
+                    avwsvap.getSelectionVectorVariable(),
+                    limitVectorLength,
+                    avwsvap.getType());
+
+        else if (accessPath instanceof ArrayVectorAccessPath avap)
+            return new ArrayVectorAccessPath(
+                    avap.getVectorVariable(),
+                    limitVectorLength,
+                    avap.getType());
+
+        else if (accessPath instanceof ArrayVectorWithSelectionVectorAccessPath avwsvap)
+            return new ArrayVectorWithSelectionVectorAccessPath(
+                    avwsvap.getArrayVectorVariable(),
+                    avwsvap.getSelectionVectorVariable(),
+                    limitVectorLength,
+                    avwsvap.getType());
+
+        else
+            throw new UnsupportedOperationException("LimitOperator cannot limit this access path " + accessPath);
+    }
+
+    /**
+     * Method to determine whether a vector access path has a selection vector.
+     * @param accessPath The access path to check.
+     * @return Whether {@code accessPath} has a selection vector.
+     */
+    private static boolean hasSelectionVector(AccessPath accessPath) {
+        return accessPath instanceof ArrowVectorWithSelectionVectorAccessPath
+                || accessPath instanceof ArrayVectorWithSelectionVectorAccessPath;
+    }
+
+    /**
+     * Method to generate a read of the number of records in a vector access path, which is the
+     * length of its selection vector if it has one.
+     * @param accessPath The access path to obtain the number of records of.
+     * @return An r-value reading the number of records of {@code accessPath}.
+     */
+    private static Java.Rvalue readVectorLength(AccessPath accessPath) {
+        if (accessPath instanceof ArrowVectorAccessPath avap)
+            return createMethodInvocation(getLocation(), avap.read(), "getValueCount");
+
+        else if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.readSelectionVectorLength();
+
+        else if (accessPath instanceof ArrayVectorAccessPath avap)
+            return avap.getVectorLengthVariable().read();
+
+        else if (accessPath instanceof ArrayVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.readSelectionVectorLength();
+
+        else
+            throw new UnsupportedOperationException("LimitOperator cannot limit this access path " + accessPath);
+    }
+
+}
@@ -74,6 +74,55 @@ public class ProjectOperator extends CodeGenOperator {
         return this.child.produceNonVec(cCtx, oCtx);
     }
 
+    @Override
+    protected boolean consumesDictionaryCodes(int ordinalIndex) {
+        // Dictionary-encoded ordinals can be passed on as-is when they are only projected out directly
+        return this.onlyProjectsDirectly(ordinalIndex);
+    }
+
+    @Override
+    protected boolean consumesEncodedValues(int ordinalIndex) {
+        // Encoded ordinals can be passed on without unpacking them when they are only projected out directly
+        return this.onlyProjectsDirectly(ordinalIndex);
+    }
+
+    /**
+     * Method to check whether an ordinal is only referenced by projection expressions that project
+     * it out directly, so that its access path can be passed on to the parent as-is.
+     * @param ordinalIndex The ordinal index to check the references for.
+     * @return {@code true} iff {@code ordinalIndex} is only referenced by {@link AethraInputRef} expressions.
+     */
+    private boolean onlyProjectsDirectly(int ordinalIndex) {
+        for (AethraExpression projectionExpression : this.projectionExpressions) {
+            if (!(projectionExpression instanceof AethraInputRef) && referencesOrdinal(projectionExpression, ordinalIndex))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method to check whether an expression references a given ordinal. Unknown expression types
+     * are conservatively assumed to reference it.
+     * @param expression The expression to check.
+     * @param ordinalIndex The ordinal index to check the references for.
+     * @return {@code true} iff {@code expression} (possibly) references {@code ordinalIndex}.
+     */
+    private static boolean referencesOrdinal(AethraExpression expression, int ordinalIndex) {
+        if (expression instanceof AethraInputRef inputRef)
+            return inputRef.columnIndex == ordinalIndex;
+        else if (expression instanceof AethraLiteral)
+            return false;
+        else if (expression instanceof AethraBinaryFunction binaryFunction)
+            return referencesOrdinal(binaryFunction.firstOperand, ordinalIndex)
+                    || referencesOrdinal(binaryFunction.secondOperand, ordinalIndex);
+        else if (expression instanceof AethraCaseFunction caseFunction)
+            return referencesOrdinal(caseFunction.ifExpression, ordinalIndex)
+                    || referencesOrdinal(caseFunction.trueValue, ordinalIndex)
+                    || referencesOrdinal(caseFunction.falseValue, ordinalIndex);
+        else
+            return true;
+    }
+
     @Override
     public List<Java.Statement> consumeNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
         List<Java.Statement> codeGenResult = new ArrayList<>();
@@ -411,11 +460,19 @@ public class ProjectOperator extends CodeGenOperator {
                 throw new UnsupportedOperationException("ProjectOperator.createVecComputationCode could not determine desired return type");
 
             // Allocate a variable for the result using scan-surrounding allocation
-            QueryVariableType returnVectorType = QueryVariableTypeMethods.primitiveArrayTypeForPrimitive(primitiveReturnType);
+            // Use an off-heap result vector if requested, as long as no operand is backed by a Java array
+            boolean useSegmentResult = cCtx.useOffHeapVectors()
+                    && !QueryVariableTypeMethods.isArrayVector(lhopResult.getType())
+                    && !QueryVariableTypeMethods.isArrayVector(rhopResult.getType());
+            QueryVariableType returnVectorType = useSegmentResult
+                    ? QueryVariableTypeMethods.primitiveSegmentTypeForPrimitive(primitiveReturnType)
+                    : QueryVariableTypeMethods.primitiveArrayTypeForPrimitive(primitiveReturnType);
             // returnVectorType[] projection_computation_result = cCtx.getAllocationManager().get[returnVectorType]Vector();
+            // or
+            // MemorySegment projection_computation_result = cCtx.getAllocationManager().get[returnVectorType]SegmentVector();
             String projectionComputationResultVariableName = cCtx.defineQueryGlobalVariable(
                     "projection_computation_result",
-                    JaninoGeneralGen.createPrimitiveArrayType(JaninoGeneralGen.getLocation(), QueryVariableTypeMethods.toJavaPrimitive(primitiveReturnType)),
+                    QueryVariableTypeMethods.toJavaType(JaninoGeneralGen.getLocation(), returnVectorType),
                     JaninoMethodGen.createMethodInvocation(
                             JaninoGeneralGen.getLocation(),
                             JaninoMethodGen.createMethodInvocation(
@@ -428,6 +485,9 @@ public class ProjectOperator extends CodeGenOperator {
                                 case P_A_DOUBLE -> "getDoubleVector";
                                 case P_A_INT -> "getIntVector";
                                 case P_A_LONG -> "getLongVector";
+                                case P_SEG_DOUBLE -> "getDoubleSegmentVector";
+                                case P_SEG_INT -> "getIntSegmentVector";
+                                case P_SEG_LONG -> "getLongSegmentVector";
                                 default -> throw new UnsupportedOperationException("ProjectOperator.createVecComputationCode cannot allocate this result type");
                             }
                     ),
@@ -167,6 +167,14 @@ public class QueryResultPrinterOperator extends CodeGenOperator {
                     || ordinalType == QueryVariableType.ARROW_DATE_VECTOR_W_SELECTION_VECTOR;
             String vectorisedPrintOperatorsMethodName = isDate ? "printDate" : "print";
 
+            // Off-heap vectors do not carry their element type, so select the primitive by name
+            if (ordinalType == QueryVariableType.SEGMENT_DOUBLE_VECTOR)
+                vectorisedPrintOperatorsMethodName = "printDoubleSegment";
+            else if (ordinalType == QueryVariableType.SEGMENT_INT_VECTOR)
+                vectorisedPrintOperatorsMethodName = "printIntSegment";
+            else if (ordinalType == QueryVariableType.SEGMENT_LONG_VECTOR)
+                vectorisedPrintOperatorsMethodName = "printLongSegment";
+
             if (ordinalAccessPath instanceof ArrowVectorAccessPath avap) {
                 codegenResult.add(
                         createMethodInvocationStm(
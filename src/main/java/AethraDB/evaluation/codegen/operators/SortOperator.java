@@ -0,0 +1,751 @@
+package AethraDB.evaluation.codegen.operators;
+
+import AethraDB.evaluation.codegen.infrastructure.context.CodeGenContext;
+import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.AccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrayVectorWithValidityMaskAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithSelectionVectorAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ArrowVectorWithValidityMaskAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.data.SortBuffer;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoControlGen;
+import org.codehaus.janino.Java;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.S_A_VARCHAR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.S_VARCHAR;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.isSegmentVector;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.memberTypeForArrowVector;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.primitiveArrayTypeForPrimitive;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.primitiveType;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.vectorTypeForPrimitiveArrayType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen.createClassInstance;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createArrayElementAccessExpr;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createInitialisedPrimitiveArray;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createIntegerLiteral;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createNestedPrimitiveArrayType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createPrimitiveArrayType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createReferenceType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createStringLiteral;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createBlock;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.lt;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen.postIncrement;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createPrimitiveLocalVar;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAdditionAssignmentStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
+
+/**
+ * A {@link CodeGenOperator} which sorts the records produced by its child on a set of columns and
+ * optionally only exposes the first records of the sorted result (i.e. ORDER BY ... LIMIT ...).
+ * Since sorting is blocking, the operator materialises all records of its child into a
+ * {@link SortBuffer}, which orders them using a radix sort over byte-normalised keys, or retains
+ * only the best records in a bounded heap when a limit is present. Afterwards, the sorted records
+ * are exposed to the parent operator as a new "scan".
+ */
+public class SortOperator extends CodeGenOperator {
+
+    /**
+     * The {@link CodeGenOperator} producing the records to be sorted by {@code this}.
+     */
+    private final CodeGenOperator child;
+
+    /**
+     * The indices of the columns to sort the records on, in order of significance.
+     */
+    private final int[] sortColumnIndices;
+
+    /**
+     * Whether each column in {@code sortColumnIndices} should be sorted in descending order.
+     */
+    private final boolean[] sortDescending;
+
+    /**
+     * The maximum number of sorted records to expose, or {@code SortBuffer.NO_LIMIT}.
+     */
+    private final int limit;
+
+    /**
+     * The name of the {@link SortBuffer} variable that materialises the records of the child.
+     */
+    private String sortBufferName;
+
+    /**
+     * The types of the columns of the records that are materialised, which are determined while
+     * consuming the records of the child.
+     */
+    private QueryVariableType[] columnTypes;
+
+    /**
+     * Create a {@link SortOperator} instance for a specific sub-query.
+     * @param child The {@link CodeGenOperator} producing the records to be sorted.
+     * @param sortColumnIndices The indices of the columns to sort on, in order of significance.
+     * @param sortDescending Whether each sort column should be sorted in descending order.
+     * @param limit The maximum number of sorted records to expose, or {@code SortBuffer.NO_LIMIT}.
+     */
+    public SortOperator(CodeGenOperator child, int[] sortColumnIndices, boolean[] sortDescending, int limit) {
+        if (sortColumnIndices.length != sortDescending.length)
+            throw new IllegalArgumentException("SortOperator expects a sort direction for each sort column");
+        if (limit < 0 && limit != SortBuffer.NO_LIMIT)
+            throw new IllegalArgumentException("SortOperator expects a non-negative limit or SortBuffer.NO_LIMIT");
+
+        this.child = child;
+        this.child.setParent(this);
+        this.sortColumnIndices = sortColumnIndices;
+        this.sortDescending = sortDescending;
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean canProduceNonVectorised() {
+        // Since this is a blocking operator, we can always expose the result in the non-vectorised paradigm.
+        return true;
+    }
+
+    @Override
+    public boolean canProduceVectorised() {
+        // Since this is a blocking operator, we can always expose the result in the vectorised paradigm.
+        return true;
+    }
+
+    @Override
+    public List<Java.Statement> produceNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // Define the sort buffer and continue production in the child operator, so that eventually
+        // this operator's consumeNonVec method is invoked, which determines the column types
+        this.sortBufferName = cCtx.defineVariable("sort_buffer");
+        cCtx.pushCodeGenContext();
+        List<Java.Statement> childProductionResult = this.child.produceNonVec(cCtx, oCtx);
+        cCtx.popCodeGenContext();
+
+        // Materialise the child's records into the sort buffer and sort them
+        codeGenResult.add(this.createSortBufferDeclaration());
+        codeGenResult.addAll(childProductionResult);
+        codeGenResult.add(createMethodInvocationStm(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), "sort"));
+        int outputPipelineStart = codeGenResult.size();
+
+        // Expose the sorted records to the parent as a new "scan"
+        // int[] sorted_rows = [this.sortBufferName].getSortedRows();
+        // $ for each column i $
+        //     [columnType][] sorted_column_[i] = [this.sortBufferName].get[Kind]Column([i]);
+        // int sorted_record_count = [this.sortBufferName].getSortedRecordCount();
+        // for (int sorted_i = 0; sorted_i < sorted_record_count; sorted_i++) {
+        //     int sorted_row = sorted_rows[sorted_i];
+        //     $ for each column i $
+        //         [columnType] sorted_value_[i] = sorted_column_[i][sorted_row];
+        //     [parent consumption]
+        // }
+        // [this.sortBufferName].close();
+        String sortedRowsName = cCtx.defineVariable("sorted_rows");
+        codeGenResult.add(createLocalVariable(
+                getLocation(),
+                createPrimitiveArrayType(getLocation(), Java.Primitive.INT),
+                sortedRowsName,
+                createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), "getSortedRows")
+        ));
+
+        String[] sortedColumnNames = new String[this.columnTypes.length];
+        for (int i = 0; i < sortedColumnNames.length; i++) {
+            int columnKind = columnKind(this.columnTypes[i]);
+            sortedColumnNames[i] = cCtx.defineVariable("sorted_column_" + i);
+            codeGenResult.add(createLocalVariable(
+                    getLocation(),
+                    columnArrayJavaType(columnKind),
+                    sortedColumnNames[i],
+                    createMethodInvocation(
+                            getLocation(),
+                            createAmbiguousNameRef(getLocation(), this.sortBufferName),
+                            "get" + columnKindName(columnKind) + "Column",
+                            new Java.Rvalue[] { createIntegerLiteral(getLocation(), i) }
+                    )
+            ));
+        }
+
+        ScalarVariableAccessPath sortedRecordCount = this.declareSortedRecordCount(cCtx, codeGenResult);
+
+        ScalarVariableAccessPath sortedIndex = new ScalarVariableAccessPath(cCtx.defineVariable("sorted_i"), P_INT);
+        Java.Block forLoopBody = createBlock(getLocation());
+        codeGenResult.add(
+                JaninoControlGen.createForLoop(
+                        getLocation(),
+                        createLocalVariable(
+                                getLocation(),
+                                toJavaType(getLocation(), sortedIndex.getType()),
+                                sortedIndex.getVariableName(),
+                                createIntegerLiteral(getLocation(), 0)
+                        ),
+                        lt(getLocation(), sortedIndex.read(), sortedRecordCount.read()),
+                        postIncrement(getLocation(), sortedIndex.write()),
+                        forLoopBody
+                )
+        );
+
+        ScalarVariableAccessPath sortedRow = new ScalarVariableAccessPath(cCtx.defineVariable("sorted_row"), P_INT);
+        forLoopBody.addStatement(createLocalVariable(
+                getLocation(),
+                toJavaType(getLocation(), sortedRow.getType()),
+                sortedRow.getVariableName(),
+                createArrayElementAccessExpr(getLocation(), createAmbiguousNameRef(getLocation(), sortedRowsName), sortedIndex.read())
+        ));
+
+        List<AccessPath> newOrdinalMapping = new ArrayList<>(this.columnTypes.length);
+        for (int i = 0; i < this.columnTypes.length; i++) {
+            ScalarVariableAccessPath sortedValue = new ScalarVariableAccessPath(
+                    cCtx.defineVariable("sorted_value_" + i), this.columnTypes[i]);
+            forLoopBody.addStatement(createLocalVariable(
+                    getLocation(),
+                    toJavaType(getLocation(), sortedValue.getType()),
+                    sortedValue.getVariableName(),
+                    createArrayElementAccessExpr(getLocation(), createAmbiguousNameRef(getLocation(), sortedColumnNames[i]), sortedRow.read())
+            ));
+            newOrdinalMapping.add(i, sortedValue);
+        }
+
+        // Have the parent operator consume the result
+        cCtx.setCurrentOrdinalMapping(newOrdinalMapping);
+        forLoopBody.addStatements(this.nonVecParentConsume(cCtx, oCtx));
+
+        // Release the memory of the sort buffer as the sorted records won't be used anymore
+        codeGenResult.add(createMethodInvocationStm(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), "close"));
+
+        this.instrumentPipeline(cCtx, codeGenResult, outputPipelineStart);
+        return codeGenResult;
+    }
+
+    @Override
+    public List<Java.Statement> consumeNonVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        if (this.useSIMDNonVec(cCtx))
+            throw new UnsupportedOperationException("SortOperator.consumeNonVec does not support SIMD");
+
+        // Obtain a local r-value for each column of the current record
+        int columnCount = cCtx.getCurrentOrdinalMapping().size();
+        Java.Rvalue[] columnValues = new Java.Rvalue[columnCount];
+        QueryVariableType[] consumedColumnTypes = new QueryVariableType[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnValues[i] = getRValueFromOrdinalAccessPathNonVec(cCtx, i, codeGenResult);
+            consumedColumnTypes[i] = cCtx.getCurrentOrdinalMapping().get(i).getType();
+        }
+        this.registerColumnTypes(consumedColumnTypes);
+
+        // Append the record to the sort buffer
+        // $ for each column i $
+        //     [this.sortBufferName].set[Kind]([i], [columnValues[i]]);
+        // [this.sortBufferName].finishRecord();
+        codeGenResult.addAll(this.createRecordAppendStatements(columnValues));
+
+        // Do not consume parent operator here, but in the produce method since sorting is a blocking operator
+        return codeGenResult;
+    }
+
+    @Override
+    public List<Java.Statement> produceVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        // Define the sort buffer and continue production in the child operator, so that eventually
+        // this operator's consumeVec method is invoked, which determines the column types
+        this.sortBufferName = cCtx.defineVariable("sort_buffer");
+        cCtx.pushCodeGenContext();
+        List<Java.Statement> childProductionResult = this.child.produceVec(cCtx, oCtx);
+        cCtx.popCodeGenContext();
+
+        // Materialise the child's records into the sort buffer and sort them
+        codeGenResult.add(this.createSortBufferDeclaration());
+        codeGenResult.addAll(childProductionResult);
+        codeGenResult.add(createMethodInvocationStm(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), "sort"));
+        int outputPipelineStart = codeGenResult.size();
+
+        // Allocate a result vector per column and update the ordinal mapping
+        // int sort_vector_length;
+        // $ for each column i $
+        //     [columnType][] sort_vector_[i] = cCtx.getAllocationManager().get[Type]Vector();
+        ScalarVariableAccessPath sortVectorLength = new ScalarVariableAccessPath(
+                cCtx.defineVariable("sort_vector_length"), P_INT);
+        codeGenResult.add(createPrimitiveLocalVar(getLocation(), Java.Primitive.INT, sortVectorLength.getVariableName()));
+
+        List<AccessPath> newOrdinalMapping = new ArrayList<>(this.columnTypes.length);
+        ArrayAccessPath[] sortVectors = new ArrayAccessPath[this.columnTypes.length];
+        for (int i = 0; i < this.columnTypes.length; i++) {
+            QueryVariableType columnType = this.columnTypes[i];
+            QueryVariableType arrayType = switch (columnType.logicalType) {
+                case S_FL_BIN -> new QueryVariableType(QueryVariableType.LogicalType.S_A_FL_BIN, columnType.byteWidth);
+                case S_VARCHAR -> S_A_VARCHAR;
+                default -> primitiveArrayTypeForPrimitive(columnType);
+            };
+            String allocationMethodName = switch (columnKind(columnType)) {
+                case SortBuffer.INT_COLUMN -> "getIntVector";
+                case SortBuffer.LONG_COLUMN -> "getLongVector";
+                case SortBuffer.DOUBLE_COLUMN -> "getDoubleVector";
+                default -> "getNestedByteVector";
+            };
+
+            sortVectors[i] = new ArrayAccessPath(cCtx.defineVariable("sort_vector_" + i), arrayType);
+            codeGenResult.add(createLocalVariable(
+                    getLocation(),
+                    toJavaType(getLocation(), arrayType),
+                    sortVectors[i].getVariableName(),
+                    createMethodInvocation(
+                            getLocation(),
+                            createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), "cCtx"), "getAllocationManager"),
+                            allocationMethodName
+                    )
+            ));
+
+            newOrdinalMapping.add(i, new ArrayVectorAccessPath(
+                    sortVectors[i],
+                    sortVectorLength,
+                    vectorTypeForPrimitiveArrayType(arrayType)));
+        }
+
+        // Expose the sorted records to the parent in vectors
+        // int sorted_record_count = [this.sortBufferName].getSortedRecordCount();
+        // int sorted_offset = 0;
+        // while (sorted_offset < sorted_record_count) {
+        //     sort_vector_length = [this.sortBufferName].gather[Kind]s(0, sorted_offset, sort_vector_0);
+        //     $ for each remaining column i $
+        //         [this.sortBufferName].gather[Kind]s([i], sorted_offset, sort_vector_[i]);
+        //     sorted_offset += sort_vector_length;
+        //     [parent consumption]
+        // }
+        ScalarVariableAccessPath sortedRecordCount = this.declareSortedRecordCount(cCtx, codeGenResult);
+
+        ScalarVariableAccessPath sortedOffset = new ScalarVariableAccessPath(cCtx.defineVariable("sorted_offset"), P_INT);
+        codeGenResult.add(createLocalVariable(
+                getLocation(),
+                toJavaType(getLocation(), sortedOffset.getType()),
+                sortedOffset.getVariableName(),
+                createIntegerLiteral(getLocation(), 0)
+        ));
+
+        Java.Block whileLoopBody = createBlock(getLocation());
+        codeGenResult.add(
+                JaninoControlGen.createWhileLoop(
+                        getLocation(),
+                        lt(getLocation(), sortedOffset.read(), sortedRecordCount.read()),
+                        whileLoopBody
+                )
+        );
+
+        for (int i = 0; i < this.columnTypes.length; i++) {
+            int columnKind = columnKind(this.columnTypes[i]);
+            String gatherMethodName = (columnKind == SortBuffer.BYTES_COLUMN) ? "gatherBytes" : "gather" + columnKindName(columnKind) + "s";
+            Java.Rvalue[] gatherArguments = new Java.Rvalue[] {
+                    createIntegerLiteral(getLocation(), i),
+                    sortedOffset.read(),
+                    sortVectors[i].read()
+            };
+
+            if (i == 0)
+                whileLoopBody.addStatement(createVariableAssignmentStm(
+                        getLocation(),
+                        sortVectorLength.write(),
+                        createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), gatherMethodName, gatherArguments)
+                ));
+            else
+                whileLoopBody.addStatement(createMethodInvocationStm(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), this.sortBufferName),
+                        gatherMethodName,
+                        gatherArguments
+                ));
+        }
+
+        whileLoopBody.addStatement(createVariableAdditionAssignmentStm(getLocation(), sortedOffset.write(), sortVectorLength.read()));
+
+        // Have the parent operator consume the result
+        cCtx.setCurrentOrdinalMapping(newOrdinalMapping);
+        whileLoopBody.addStatements(this.vecParentConsume(cCtx, oCtx));
+
+        // Release the result vectors and the memory of the sort buffer as they won't be used anymore
+        for (ArrayAccessPath sortVector : sortVectors) {
+            // cCtx.getAllocationManager().release([sortVector.read()]);
+            codeGenResult.add(createMethodInvocationStm(
+                    getLocation(),
+                    createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), "cCtx"), "getAllocationManager"),
+                    "release",
+                    new Java.Rvalue[] { sortVector.read() }
+            ));
+        }
+        codeGenResult.add(createMethodInvocationStm(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), "close"));
+
+        this.instrumentPipeline(cCtx, codeGenResult, outputPipelineStart);
+        return codeGenResult;
+    }
+
+    @Override
+    public List<Java.Statement> consumeVec(CodeGenContext cCtx, OptimisationContext oCtx) {
+        List<Java.Statement> codeGenResult = new ArrayList<>();
+
+        if (this.useSIMDVec())
+            throw new UnsupportedOperationException("SortOperator.consumeVec does not support SIMD");
+
+        // Determine the column types from the element types of the vectors
+        List<AccessPath> currentOrdinalMapping = cCtx.getCurrentOrdinalMapping();
+        QueryVariableType[] consumedColumnTypes = new QueryVariableType[currentOrdinalMapping.size()];
+        for (int i = 0; i < consumedColumnTypes.length; i++)
+            consumedColumnTypes[i] = vectorElementType(currentOrdinalMapping.get(i));
+        this.registerColumnTypes(consumedColumnTypes);
+
+        // All vectors share the same selection vector or validity mask, so pick the first one that
+        // has either to determine which records are valid
+        AccessPath drivingAccessPath = currentOrdinalMapping.get(0);
+        for (AccessPath accessPath : currentOrdinalMapping) {
+            if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath
+                    || accessPath instanceof ArrayVectorWithSelectionVectorAccessPath
+                    || accessPath instanceof ArrowVectorWithValidityMaskAccessPath
+                    || accessPath instanceof ArrayVectorWithValidityMaskAccessPath) {
+                drivingAccessPath = accessPath;
+                break;
+            }
+        }
+
+        // Generate a loop over the valid records of the vectors
+        ScalarVariableAccessPath recordIndex = new ScalarVariableAccessPath(cCtx.defineVariable("sort_record_index"), P_INT);
+        Java.Block loopBody = createBlock(getLocation());
+
+        if (drivingAccessPath instanceof ArrowVectorWithSelectionVectorAccessPath
+                || drivingAccessPath instanceof ArrayVectorWithSelectionVectorAccessPath) {
+            // for (int sort_selection_i = 0; sort_selection_i < [selectionVectorLength]; sort_selection_i++) {
+            //     int sort_record_index = [selectionVector][sort_selection_i];
+            //     [loopBody]
+            // }
+            Java.Rvalue selectionVector;
+            Java.Rvalue selectionVectorLength;
+            if (drivingAccessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap) {
+                selectionVector = avwsvap.readSelectionVector();
+                selectionVectorLength = avwsvap.readSelectionVectorLength();
+            } else {
+                ArrayVectorWithSelectionVectorAccessPath avwsvap = (ArrayVectorWithSelectionVectorAccessPath) drivingAccessPath;
+                selectionVector = avwsvap.readSelectionVector();
+                selectionVectorLength = avwsvap.readSelectionVectorLength();
+            }
+
+            ScalarVariableAccessPath selectionIndex = new ScalarVariableAccessPath(cCtx.defineVariable("sort_selection_i"), P_INT);
+            codeGenResult.add(JaninoControlGen.createForLoop(
+                    getLocation(),
+                    createLocalVariable(
+                            getLocation(),
+                            toJavaType(getLocation(), selectionIndex.getType()),
+                            selectionIndex.getVariableName(),
+                            createIntegerLiteral(getLocation(), 0)
+                    ),
+                    lt(getLocation(), selectionIndex.read(), selectionVectorLength),
+                    postIncrement(getLocation(), selectionIndex.write()),
+                    loopBody
+            ));
+            loopBody.addStatement(createLocalVariable(
+                    getLocation(),
+                    toJavaType(getLocation(), recordIndex.getType()),
+                    recordIndex.getVariableName(),
+                    createArrayElementAccessExpr(getLocation(), selectionVector, selectionIndex.read())
+            ));
+
+        } else {
+            // for (int sort_record_index = 0; sort_record_index < [vectorLength]; sort_record_index++) {
+            //     $ if the vectors have a validity mask $
+            //     if (![validityMask][sort_record_index]) continue;
+            //     [loopBody]
+            // }
+            Java.Rvalue vectorLength;
+            Java.Rvalue validityMask = null;
+            if (drivingAccessPath instanceof ArrowVectorWithValidityMaskAccessPath avwvmap) {
+                vectorLength = avwvmap.readValidityMaskLength();
+                validityMask = avwvmap.readValidityMask();
+            } else if (drivingAccessPath instanceof ArrayVectorWithValidityMaskAccessPath avwvmap) {
+                vectorLength = avwvmap.readValidityMaskLength();
+                validityMask = avwvmap.readValidityMask();
+            } else if (drivingAccessPath instanceof ArrowVectorAccessPath avap) {
+                vectorLength = createMethodInvocation(getLocation(), avap.read(), "getValueCount");
+            } else if (drivingAccessPath instanceof ArrayVectorAccessPath avap) {
+                vectorLength = avap.getVectorLengthVariable().read();
+            } else {
+                throw new UnsupportedOperationException(
+                        "SortOperator.consumeVec does not support this access path " + drivingAccessPath);
+            }
+
+            codeGenResult.add(JaninoControlGen.createForLoop(
+                    getLocation(),
+                    createLocalVariable(
+                            getLocation(),
+                            toJavaType(getLocation(), recordIndex.getType()),
+                            recordIndex.getVariableName(),
+                            createIntegerLiteral(getLocation(), 0)
+                    ),
+                    lt(getLocation(), recordIndex.read(), vectorLength),
+                    postIncrement(getLocation(), recordIndex.write()),
+                    loopBody
+            ));
+
+            if (validityMask != null)
+                loopBody.addStatement(JaninoControlGen.createIfNotContinue(
+                        getLocation(),
+                        createArrayElementAccessExpr(getLocation(), validityMask, recordIndex.read())
+                ));
+        }
+
+        // Append the current record of the vectors to the sort buffer
+        Java.Rvalue[] columnValues = new Java.Rvalue[currentOrdinalMapping.size()];
+        for (int i = 0; i < columnValues.length; i++)
+            columnValues[i] = readVectorElement(currentOrdinalMapping.get(i), recordIndex.read());
+        loopBody.addStatements(this.createRecordAppendStatements(columnValues));
+
+        // Do not consume parent operator here, but in the produce method since sorting is a blocking operator
+        return codeGenResult;
+    }
+
+    /**
+     * Method to register the column types of the records consumed by {@code this}.
+     * @param consumedColumnTypes The types of the columns of the records being consumed.
+     */
+    private void registerColumnTypes(QueryVariableType[] consumedColumnTypes) {
+        for (int sortColumnIndex : this.sortColumnIndices) {
+            if (sortColumnIndex < 0 || sortColumnIndex >= consumedColumnTypes.length)
+                throw new IllegalArgumentException("SortOperator cannot sort on non-existent column " + sortColumnIndex);
+        }
+
+        if (this.columnTypes == null) {
+            // Validate that all column types are supported by the sort buffer
+            for (QueryVariableType columnType : consumedColumnTypes)
+                columnKind(columnType);
+            this.columnTypes = consumedColumnTypes;
+            return;
+        }
+
+        // When the child consumes records in multiple places, they should all have the same layout
+        boolean layoutMatches = this.columnTypes.length == consumedColumnTypes.length;
+        for (int i = 0; layoutMatches && i < consumedColumnTypes.length; i++)
+            layoutMatches = this.columnTypes[i].logicalType == consumedColumnTypes[i].logicalType;
+
+        if (!layoutMatches)
+            throw new IllegalStateException("SortOperator expects all consumed records to have the same column types");
+    }
+
+    /**
+     * Method to generate the declaration of the sort buffer.
+     * @return The statement declaring and initialising the sort buffer.
+     */
+    private Java.Statement createSortBufferDeclaration() {
+        if (this.columnTypes == null)
+            throw new IllegalStateException("SortOperator.createSortBufferDeclaration expects the child to have been consumed");
+
+        // SortBuffer [this.sortBufferName] = new SortBuffer(
+        //         cCtx.getMemoryAccountant(),
+        //         "[this.sortBufferName]",
+        //         new int[] { [columnKinds] },
+        //         new int[] { [this.sortColumnIndices] },
+        //         new boolean[] { [this.sortDescending] },
+        //         [this.limit]
+        // );
+        String[] columnKinds = new String[this.columnTypes.length];
+        for (int i = 0; i < columnKinds.length; i++)
+            columnKinds[i] = Integer.toString(columnKind(this.columnTypes[i]));
+
+        String[] sortColumns = new String[this.sortColumnIndices.length];
+        String[] sortDirections = new String[this.sortDescending.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            sortColumns[i] = Integer.toString(this.sortColumnIndices[i]);
+            sortDirections[i] = Boolean.toString(this.sortDescending[i]);
+        }
+
+        Java.Rvalue limitValue = (this.limit == SortBuffer.NO_LIMIT)
+                ? createAmbiguousNameRef(getLocation(), "SortBuffer.NO_LIMIT")
+                : createIntegerLiteral(getLocation(), this.limit);
+
+        return createLocalVariable(
+                getLocation(),
+                createReferenceType(getLocation(), "SortBuffer"),
+                this.sortBufferName,
+                createClassInstance(
+                        getLocation(),
+                        createReferenceType(getLocation(), "SortBuffer"),
+                        new Java.Rvalue[] {
+                                createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), "cCtx"), "getMemoryAccountant"),
+                                createStringLiteral(getLocation(), "\"" + this.sortBufferName + "\""),
+                                createInitialisedPrimitiveArray(getLocation(), Java.Primitive.INT, columnKinds),
+                                createInitialisedPrimitiveArray(getLocation(), Java.Primitive.INT, sortColumns),
+                                createInitialisedPrimitiveArray(getLocation(), Java.Primitive.BOOLEAN, sortDirections),
+                                limitValue
+                        }
+                )
+        );
+    }
+
+    /**
+     * Method to generate the statements which append a record to the sort buffer.
+     * @param columnValues The values of the columns of the record to append.
+     * @return The statements appending the record.
+     */
+    private List<Java.Statement> createRecordAppendStatements(Java.Rvalue[] columnValues) {
+        List<Java.Statement> appendStatements = new ArrayList<>(columnValues.length + 1);
+
+        for (int i = 0; i < columnValues.length; i++) {
+            appendStatements.add(createMethodInvocationStm(
+                    getLocation(),
+                    createAmbiguousNameRef(getLocation(), this.sortBufferName),
+                    "set" + columnKindName(columnKind(this.columnTypes[i])),
+                    new Java.Rvalue[] {
+                            createIntegerLiteral(getLocation(), i),
+                            columnValues[i]
+                    }
+            ));
+        }
+
+        appendStatements.add(createMethodInvocationStm(
+                getLocation(),
+                createAmbiguousNameRef(getLocation(), this.sortBufferName),
+                "finishRecord"
+        ));
+
+        return appendStatements;
+    }
+
+    /**
+     * Method to generate the declaration of the variable holding the number of sorted records to expose.
+     * @param cCtx The {@link CodeGenContext} to use during the generation.
+     * @param codegenTarget The list of statements to add the declaration to.
+     * @return The access path to the declared variable.
+     */
+    private ScalarVariableAccessPath declareSortedRecordCount(CodeGenContext cCtx, List<Java.Statement> codegenTarget) {
+        // int sorted_record_count = [this.sortBufferName].getSortedRecordCount();
+        ScalarVariableAccessPath sortedRecordCount = new ScalarVariableAccessPath(
+                cCtx.defineVariable("sorted_record_count"), P_INT);
+        codegenTarget.add(createLocalVariable(
+                getLocation(),
+                toJavaType(getLocation(), sortedRecordCount.getType()),
+                sortedRecordCount.getVariableName(),
+                createMethodInvocation(getLocation(), createAmbiguousNameRef(getLocation(), this.sortBufferName), "getSortedRecordCount")
+        ));
+        return sortedRecordCount;
+    }
+
+    /**
+     * Method to obtain the {@link SortBuffer} column kind for a column type.
+     * @param columnType The type of the column.
+     * @return The column kind in which values of {@code columnType} are stored.
+     */
+    private static int columnKind(QueryVariableType columnType) {
+        return switch (columnType.logicalType) {
+            case P_INT, P_INT_DATE -> SortBuffer.INT_COLUMN;
+            case P_LONG -> SortBuffer.LONG_COLUMN;
+            case P_DOUBLE -> SortBuffer.DOUBLE_COLUMN;
+            case S_FL_BIN, S_VARCHAR -> SortBuffer.BYTES_COLUMN;
+            default -> throw new UnsupportedOperationException("SortOperator does not support columns of type " + columnType);
+        };
+    }
+
+    /**
+     * Method to obtain the name of a {@link SortBuffer} column kind as used in its method names.
+     * @param columnKind The column kind to obtain the name of.
+     * @return The name of {@code columnKind}.
+     */
+    private static String columnKindName(int columnKind) {
+        return switch (columnKind) {
+            case SortBuffer.INT_COLUMN -> "Int";
+            case SortBuffer.LONG_COLUMN -> "Long";
+            case SortBuffer.DOUBLE_COLUMN -> "Double";
+            default -> "Bytes";
+        };
+    }
+
+    /**
+     * Method to obtain the Java type of the {@link SortBuffer} column array of a column kind.
+     * @param columnKind The column kind to obtain the array type for.
+     * @return The Java type of the column array.
+     */
+    private static Java.Type columnArrayJavaType(int columnKind) {
+        return switch (columnKind) {
+            case SortBuffer.INT_COLUMN -> createPrimitiveArrayType(getLocation(), Java.Primitive.INT);
+            case SortBuffer.LONG_COLUMN -> createPrimitiveArrayType(getLocation(), Java.Primitive.LONG);
+            case SortBuffer.DOUBLE_COLUMN -> createPrimitiveArrayType(getLocation(), Java.Primitive.DOUBLE);
+            default -> createNestedPrimitiveArrayType(getLocation(), Java.Primitive.BYTE);
+        };
+    }
+
+    /**
+     * Method to obtain the vector that underlies a vector access path, disregarding any selection
+     * vector or validity mask.
+     * @param accessPath The vector access path.
+     * @return The {@link ArrowVectorAccessPath} or {@link ArrayVectorAccessPath} underlying {@code accessPath}.
+     */
+    private static AccessPath underlyingVector(AccessPath accessPath) {
+        if (accessPath instanceof ArrowVectorAccessPath || accessPath instanceof ArrayVectorAccessPath)
+            return accessPath;
+        else if (accessPath instanceof ArrowVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.getArrowVectorVariable();
+        else if (accessPath instanceof ArrowVectorWithValidityMaskAccessPath avwvmap)
+            return avwvmap.getArrowVectorVariable();
+        else if (accessPath instanceof ArrayVectorWithSelectionVectorAccessPath avwsvap)
+            return avwsvap.getArrayVectorVariable();
+        else if (accessPath instanceof ArrayVectorWithValidityMaskAccessPath avwvmap)
+            return avwvmap.getArrayVectorVariable();
+        else
+            throw new UnsupportedOperationException("SortOperator does not support this vector access path " + accessPath);
+    }
+
+    /**
+     * Method to obtain the type of the elements of a vector access path.
+     * @param accessPath The vector access path.
+     * @return The scalar type of the elements of {@code accessPath}.
+     */
+    private static QueryVariableType vectorElementType(AccessPath accessPath) {
+        QueryVariableType vectorType = underlyingVector(accessPath).getType();
+        return switch (vectorType.logicalType) {
+            case ARROW_DATE_VECTOR, ARROW_DOUBLE_VECTOR, ARROW_FIXED_LENGTH_BINARY_VECTOR,
+                 ARROW_INT_VECTOR, ARROW_LONG_VECTOR, ARROW_VARCHAR_VECTOR -> memberTypeForArrowVector(vectorType);
+            case ARRAY_FIXED_LENGTH_BINARY_VECTOR -> new QueryVariableType(QueryVariableType.LogicalType.S_FL_BIN, vectorType.byteWidth);
+            case ARRAY_VARCHAR_VECTOR -> S_VARCHAR;
+            default -> primitiveType(vectorType);
+        };
+    }
+
+    /**
+     * Method to generate a read of a single element of a vector access path.
+     * @param accessPath The vector access path to read from.
+     * @param index The index of the element to read.
+     * @return The r-value reading the element at {@code index}.
+     */
+    private static Java.Rvalue readVectorElement(AccessPath accessPath, Java.Rvalue index) {
+        AccessPath vector = underlyingVector(accessPath);
+
+        if (vector instanceof ArrowVectorAccessPath avap) {
+            // [vector].get([index])
+            return createMethodInvocation(getLocation(), avap.read(), "get", new Java.Rvalue[] { index });
+
+        }
+
+        ArrayVectorAccessPath avap = (ArrayVectorAccessPath) vector;
+        if (isSegmentVector(avap.getType())) {
+            // [vector].getAtIndex(ValueLayout.JAVA_[type], [index])
+            String valueLayout = switch (primitiveType(avap.getType()).logicalType) {
+                case P_DOUBLE -> "ValueLayout.JAVA_DOUBLE";
+                case P_LONG -> "ValueLayout.JAVA_LONG";
+                default -> "ValueLayout.JAVA_INT";
+            };
+            return createMethodInvocation(
+                    getLocation(),
+                    avap.getVectorVariable().read(),
+                    "getAtIndex",
+                    new Java.Rvalue[] { createAmbiguousNameRef(getLocation(), valueLayout), index }
+            );
+        }
+
+        // [vector][[index]]
+        return createArrayElementAccessExpr(getLocation(), avap.getVectorVariable().read(), index);
+    }
+
+}
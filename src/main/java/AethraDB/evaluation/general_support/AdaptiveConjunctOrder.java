@@ -0,0 +1,251 @@
+package AethraDB.evaluation.general_support;
+
+import AethraDB.evaluation.vector_support.VectorisedOperators;
+
+import java.util.Arrays;
+
+/**
+ * Class which chooses, at query execution time, the order in which generated code evaluates the
+ * conjuncts of a conjunctive filter condition. The planner emits conjuncts in an arbitrary order,
+ * while the cheapest order evaluates cheap and selective conjuncts first, so that expensive
+ * conjuncts only see the records which survive the others.
+ *
+ * The generated code evaluates conjunct {@code order[p]} at position {@code p} and reports how many
+ * records reached and survived each position (and in the vectorised paradigm, how long each
+ * position took). The statistics of the first rounds are used to rank the conjuncts by
+ * {@code cost / (1 - selectivity)}, and the ranking is re-evaluated periodically on decayed
+ * statistics so that the order follows changes in the data. A round is a single vector in the
+ * vectorised paradigm and {@code RECORDS_PER_ROUND} records in the non-vectorised paradigm. The
+ * order only changes at the start of a vector or record, so each of them is evaluated in a single
+ * consistent order.
+ *
+ * Conjunctions with more than {@code MAX_ADAPTIVE_CONJUNCTS} conjuncts are evaluated in planner
+ * order, as the generated code grows quadratically in the number of conjuncts.
+ */
+public final class AdaptiveConjunctOrder {
+
+    /**
+     * The system property which can be used to disable the runtime reordering of conjuncts.
+     */
+    public static final String ADAPTIVE_ORDER_PROPERTY = "aethradb.adaptive_conjunct_order";
+
+    /**
+     * Whether conjuncts should be reordered at runtime.
+     */
+    public static final boolean ADAPTIVE_ORDER_ENABLED = determineAdaptiveOrderEnabled();
+
+    /**
+     * The maximum number of conjuncts of a conjunction which is reordered at runtime.
+     */
+    public static final int MAX_ADAPTIVE_CONJUNCTS = 4;
+
+    /**
+     * The number of records forming a single round in the non-vectorised paradigm.
+     */
+    public static final int RECORDS_PER_ROUND = VectorisedOperators.VECTOR_LENGTH;
+
+    /**
+     * The number of rounds which is sampled before the conjuncts are ranked for the first time.
+     */
+    private static final int SAMPLING_ROUNDS = 8;
+
+    /**
+     * The number of rounds after which the ranking of the conjuncts is re-evaluated.
+     */
+    private static final int REORDER_INTERVAL_ROUNDS = 128;
+
+    /**
+     * The factor by which the statistics are scaled after each ranking, so that the ranking
+     * follows the recent behaviour of the conjuncts.
+     */
+    private static final double STATISTICS_DECAY = 0.5;
+
+    /**
+     * The selectivity assumed for conjuncts which have not been evaluated on any record yet.
+     */
+    private static final double UNKNOWN_SELECTIVITY = 0.5;
+
+    /**
+     * The lower bound on the fraction of records a conjunct discards, which keeps the rank of
+     * conjuncts that discard nothing finite.
+     */
+    private static final double MIN_DISCARD_FRACTION = 1e-3;
+
+    /**
+     * The index of the conjunct to evaluate at each position.
+     */
+    public final int[] order;
+
+    /**
+     * The number of records of the current round which survived each position, which is maintained
+     * by the non-vectorised generated code.
+     */
+    public final long[] passedRecords;
+
+    /**
+     * The cost estimate of each conjunct derived from its shape during code generation, used when
+     * no measured cost is available.
+     */
+    private final double[] staticCosts;
+
+    /**
+     * The (decayed) number of records on which each conjunct has been evaluated.
+     */
+    private final double[] inputRecords;
+
+    /**
+     * The (decayed) number of records which survived each conjunct.
+     */
+    private final double[] outputRecords;
+
+    /**
+     * The (decayed) number of nanoseconds spent evaluating each conjunct.
+     */
+    private final double[] elapsedNanos;
+
+    /**
+     * The number of records started in the current non-vectorised round.
+     */
+    private int roundRecords;
+
+    /**
+     * The number of rounds remaining until the ranking is re-evaluated.
+     */
+    private int roundsUntilReorder;
+
+    /**
+     * Creates a new {@link AdaptiveConjunctOrder} instance, which starts out in planner order.
+     * @param staticCosts The cost estimate of each conjunct, in planner order.
+     */
+    public AdaptiveConjunctOrder(double[] staticCosts) {
+        int conjunctCount = staticCosts.length;
+        this.order = new int[conjunctCount];
+        for (int i = 0; i < conjunctCount; i++)
+            this.order[i] = i;
+        this.passedRecords = new long[conjunctCount];
+        this.staticCosts = staticCosts;
+        this.inputRecords = new double[conjunctCount];
+        this.outputRecords = new double[conjunctCount];
+        this.elapsedNanos = new double[conjunctCount];
+        this.roundRecords = 0;
+        this.roundsUntilReorder = SAMPLING_ROUNDS;
+    }
+
+    /**
+     * Method to determine whether conjuncts should be reordered from the system properties.
+     * @return {@code true} unless the {@code ADAPTIVE_ORDER_PROPERTY} is set to {@code false}.
+     */
+    private static boolean determineAdaptiveOrderEnabled() {
+        return Boolean.parseBoolean(System.getProperty(ADAPTIVE_ORDER_PROPERTY, "true"));
+    }
+
+    /* ---- Non-vectorised paradigm ---- */
+
+    /**
+     * Method to be invoked before the conjuncts are evaluated on a record. The generated code
+     * increments {@code passedRecords[p]} for each position {@code p} that the record passes.
+     */
+    public void beginRecord() {
+        if (this.roundRecords == RECORDS_PER_ROUND)
+            this.completeRecordRound();
+        this.roundRecords++;
+    }
+
+    /**
+     * Method which converts the counters of a completed non-vectorised round into statistics of
+     * the conjuncts that were evaluated at each position.
+     */
+    private void completeRecordRound() {
+        long positionInput = this.roundRecords;
+        for (int p = 0; p < this.order.length; p++) {
+            long positionOutput = this.passedRecords[p];
+            this.recordStatistics(this.order[p], positionInput, positionOutput, 0L);
+            this.passedRecords[p] = 0;
+            positionInput = positionOutput;
+        }
+
+        this.roundRecords = 0;
+        this.completeRound();
+    }
+
+    /* ---- Vectorised paradigm ---- */
+
+    /**
+     * Method to be invoked before the conjuncts are evaluated on a vector.
+     */
+    public void beginVector() {
+        this.completeRound();
+    }
+
+    /**
+     * Method to record the evaluation of a position on a vector.
+     * @param position The position that was evaluated.
+     * @param inputLength The number of records of the vector that reached the position.
+     * @param outputLength The number of records of the vector that survived the position.
+     * @param nanos The number of nanoseconds taken to evaluate the position.
+     */
+    public void recordVector(int position, int inputLength, int outputLength, long nanos) {
+        this.recordStatistics(this.order[position], inputLength, outputLength, nanos);
+    }
+
+    /* ---- Ranking ---- */
+
+    /**
+     * Method to add the result of evaluating a conjunct to its statistics.
+     * @param conjunct The conjunct that was evaluated.
+     * @param input The number of records the conjunct was evaluated on.
+     * @param output The number of records which survived the conjunct.
+     * @param nanos The number of nanoseconds taken to evaluate the conjunct, or 0 if unmeasured.
+     */
+    private void recordStatistics(int conjunct, long input, long output, long nanos) {
+        this.inputRecords[conjunct] += input;
+        this.outputRecords[conjunct] += output;
+        this.elapsedNanos[conjunct] += nanos;
+    }
+
+    /**
+     * Method to be invoked whenever a round completes, which re-ranks the conjuncts when due.
+     */
+    private void completeRound() {
+        if (--this.roundsUntilReorder > 0)
+            return;
+
+        this.reorder();
+        this.roundsUntilReorder = REORDER_INTERVAL_ROUNDS;
+    }
+
+    /**
+     * Method to rank the conjuncts by {@code cost / (1 - selectivity)} and to store the resulting
+     * order in {@code order}. Measured costs are only used when they are available for every
+     * conjunct, as they are not comparable with the static estimates.
+     */
+    private void reorder() {
+        int conjunctCount = this.order.length;
+        boolean useMeasuredCost = true;
+        for (int k = 0; k < conjunctCount; k++)
+            useMeasuredCost &= this.inputRecords[k] > 0 && this.elapsedNanos[k] > 0;
+
+        double[] ranks = new double[conjunctCount];
+        Integer[] ranking = new Integer[conjunctCount];
+        for (int k = 0; k < conjunctCount; k++) {
+            double selectivity = (this.inputRecords[k] > 0)
+                    ? this.outputRecords[k] / this.inputRecords[k]
+                    : UNKNOWN_SELECTIVITY;
+            double cost = useMeasuredCost
+                    ? this.elapsedNanos[k] / this.inputRecords[k]
+                    : this.staticCosts[k];
+            ranks[k] = cost / Math.max(1d - selectivity, MIN_DISCARD_FRACTION);
+            ranking[k] = k;
+
+            this.inputRecords[k] *= STATISTICS_DECAY;
+            this.outputRecords[k] *= STATISTICS_DECAY;
+            this.elapsedNanos[k] *= STATISTICS_DECAY;
+        }
+
+        // Stable sort so that equally ranked conjuncts keep their planner order
+        Arrays.sort(ranking, (a, b) -> Double.compare(ranks[a], ranks[b]));
+        for (int p = 0; p < conjunctCount; p++)
+            this.order[p] = ranking[p];
+    }
+
+}
@@ -58,4 +58,37 @@ public class ArrowOptimisations {
         return byteCacheTargets[requiredWidth];
     }
 
+    /**
+     * Method to read an element of a 4-byte wide fixed-width vector (such as an {@code IntVector} or a
+     * {@code DateDayVector}) directly from the data buffer of the vector, without the null and bounds
+     * checks performed by the {@code get} method of the vector. The caller should hoist the address
+     * of the data buffer out of the loop over the vector.
+     * @param dataBufferAddress The address of the data buffer of the vector.
+     * @param elementIndex The index of the element whose value should be retrieved.
+     * @return The value of the element.
+     */
+    public static int getIntValue(long dataBufferAddress, int elementIndex) {
+        return MemoryUtil.UNSAFE.getInt(dataBufferAddress + ((long) elementIndex << 2));
+    }
+
+    /**
+     * Method to read an element of a {@code BigIntVector} directly from the data buffer of the vector.
+     * @param dataBufferAddress The address of the data buffer of the vector.
+     * @param elementIndex The index of the element whose value should be retrieved.
+     * @return The value of the element.
+     */
+    public static long getLongValue(long dataBufferAddress, int elementIndex) {
+        return MemoryUtil.UNSAFE.getLong(dataBufferAddress + ((long) elementIndex << 3));
+    }
+
+    /**
+     * Method to read an element of a {@code Float8Vector} directly from the data buffer of the vector.
+     * @param dataBufferAddress The address of the data buffer of the vector.
+     * @param elementIndex The index of the element whose value should be retrieved.
+     * @return The value of the element.
+     */
+    public static double getDoubleValue(long dataBufferAddress, int elementIndex) {
+        return MemoryUtil.UNSAFE.getDouble(dataBufferAddress + ((long) elementIndex << 3));
+    }
+
 }
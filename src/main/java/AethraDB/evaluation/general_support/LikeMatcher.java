@@ -0,0 +1,524 @@
+package AethraDB.evaluation.general_support;
+
+import org.apache.arrow.memory.util.MemoryUtil;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for evaluating a SQL LIKE pattern directly on string values, without materialising those
+ * values into byte arrays first. A pattern is compiled once during code generation via
+ * {@code compile} into a matcher that is specialised for the shape of the pattern (exact, prefix,
+ * suffix, contains or a sequence of segments), so that each record only performs the work that
+ * its pattern actually requires.
+ *
+ * The matchers read values via {@link MemoryUtil#UNSAFE} using a (base object, offset) pair, which
+ * allows the same code to match off-heap Arrow buffers (base {@code null}, offset is an absolute
+ * address) and on-heap byte arrays (base is the array, offset is relative to
+ * {@link MemoryUtil#BYTE_ARRAY_BASE_OFFSET}). Comparisons are performed a word (8 bytes) at a time
+ * and substring searches use a SWAR (SIMD within a register) filter on the first and last byte of
+ * the needle to skip over non-candidate positions eight at a time.
+ *
+ * Patterns are matched byte-wise: the {@code _} wildcard matches exactly one byte, which is correct
+ * for the ASCII strings that AethraDB stores. Escape characters are not supported.
+ */
+public abstract class LikeMatcher {
+
+    /**
+     * The wildcard character matching any sequence of characters.
+     */
+    private static final byte ANY_SEQUENCE = '%';
+
+    /**
+     * The wildcard character matching exactly one character.
+     */
+    private static final byte ANY_CHARACTER = '_';
+
+    /**
+     * Word with the lowest bit of every byte set, used by the SWAR zero-byte detection.
+     */
+    private static final long LOW_BITS = 0x0101010101010101L;
+
+    /**
+     * Word with the highest bit of every byte set, used by the SWAR zero-byte detection.
+     */
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /**
+     * Whether words read via {@link MemoryUtil#UNSAFE} have their first byte in the least significant position.
+     */
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * The width of a single entry in the offset buffer of a {@link VarCharVector}.
+     */
+    private static final long VARCHAR_OFFSET_WIDTH = 4L;
+
+    /**
+     * Method to compile a LIKE pattern into the most specific {@link LikeMatcher} for its shape.
+     * @param pattern The LIKE pattern to compile.
+     * @return A {@link LikeMatcher} evaluating {@code pattern}.
+     */
+    public static LikeMatcher compile(byte[] pattern) {
+        // Patterns with single character wildcards are evaluated by the generic matcher
+        for (byte patternByte : pattern) {
+            if (patternByte == ANY_CHARACTER)
+                return new WildcardMatcher(pattern);
+        }
+
+        // Split the pattern into its non-empty literal segments
+        List<Needle> segments = new ArrayList<>();
+        int segmentStart = 0;
+        for (int i = 0; i <= pattern.length; i++) {
+            if (i == pattern.length || pattern[i] == ANY_SEQUENCE) {
+                if (i > segmentStart) {
+                    byte[] segment = new byte[i - segmentStart];
+                    System.arraycopy(pattern, segmentStart, segment, 0, segment.length);
+                    segments.add(new Needle(segment));
+                }
+                segmentStart = i + 1;
+            }
+        }
+
+        boolean anchoredStart = pattern.length > 0 && pattern[0] != ANY_SEQUENCE;
+        boolean anchoredEnd = pattern.length > 0 && pattern[pattern.length - 1] != ANY_SEQUENCE;
+
+        // Select the specialised matcher
+        if (pattern.length == 0)
+            return new ExactMatcher(new Needle(pattern));
+
+        if (segments.isEmpty())
+            return new AnyMatcher();
+
+        if (segments.size() == 1) {
+            Needle segment = segments.get(0);
+            if (anchoredStart && anchoredEnd)
+                return new ExactMatcher(segment);
+            else if (anchoredStart)
+                return new PrefixMatcher(segment);
+            else if (anchoredEnd)
+                return new SuffixMatcher(segment);
+            else
+                return new ContainsMatcher(segment);
+        }
+
+        Needle prefix = anchoredStart ? segments.remove(0) : null;
+        Needle suffix = anchoredEnd ? segments.remove(segments.size() - 1) : null;
+        return new SegmentsMatcher(prefix, segments.toArray(new Needle[0]), suffix);
+    }
+
+    /**
+     * Method to check whether a value matches the pattern of {@code this}.
+     * @param base The object containing the value, or {@code null} if {@code offset} is an absolute address.
+     * @param offset The offset of the first byte of the value relative to {@code base}.
+     * @param length The length of the value in bytes.
+     * @return {@code true} iff the value matches the pattern of {@code this}.
+     */
+    public abstract boolean matches(Object base, long offset, int length);
+
+    /**
+     * Method to check whether a byte array matches the pattern of {@code this}.
+     * @param value The value to check.
+     * @return {@code true} iff {@code value} matches the pattern of {@code this}.
+     */
+    public final boolean matches(byte[] value) {
+        return this.matches(value, MemoryUtil.BYTE_ARRAY_BASE_OFFSET, value.length);
+    }
+
+    /**
+     * Method to check whether an element of a {@link VarCharVector} matches the pattern of {@code this}.
+     * @param vector The vector containing the element to check.
+     * @param index The index of the element to check.
+     * @return {@code true} iff the element matches the pattern of {@code this}.
+     */
+    public final boolean matches(VarCharVector vector, int index) {
+        long offsetAddress = vector.getOffsetBufferAddress() + index * VARCHAR_OFFSET_WIDTH;
+        int startOffset = MemoryUtil.UNSAFE.getInt(offsetAddress);
+        int endOffset = MemoryUtil.UNSAFE.getInt(offsetAddress + VARCHAR_OFFSET_WIDTH);
+        return this.matches(null, vector.getDataBufferAddress() + startOffset, endOffset - startOffset);
+    }
+
+    /**
+     * Method to check whether an element of a {@link FixedSizeBinaryVector} matches the pattern of {@code this}.
+     * @param vector The vector containing the element to check.
+     * @param index The index of the element to check.
+     * @return {@code true} iff the element matches the pattern of {@code this}.
+     */
+    public final boolean matches(FixedSizeBinaryVector vector, int index) {
+        int byteWidth = vector.getByteWidth();
+        return this.matches(null, vector.getDataBufferAddress() + (long) index * byteWidth, byteWidth);
+    }
+
+    /**
+     * Method to find the first occurrence of {@code needle} in a byte sequence. The SWAR filter
+     * compares eight candidate start positions at once against both the first and the last byte of
+     * the needle, and only verifies the positions at which both bytes match.
+     * @param base The object containing the byte sequence, or {@code null} if {@code offset} is an absolute address.
+     * @param offset The offset of the first byte of the sequence relative to {@code base}.
+     * @param length The length of the sequence in bytes.
+     * @param from The position in the sequence from which to start the search.
+     * @param needle The needle to search for.
+     * @return The position of the first occurrence of {@code needle} at or after {@code from}, or -1 if there is none.
+     */
+    static int indexOf(Object base, long offset, int length, int from, Needle needle) {
+        int needleLength = needle.bytes.length;
+        int lastStart = length - needleLength;
+        int position = from;
+
+        // Each iteration reads the words starting at position and position + needleLength - 1
+        for (; position <= lastStart - 7; position += 8) {
+            long firstByteMatches = zeroBytes(
+                    MemoryUtil.UNSAFE.getLong(base, offset + position) ^ needle.firstByteBroadcast);
+            long lastByteMatches = zeroBytes(
+                    MemoryUtil.UNSAFE.getLong(base, offset + position + needleLength - 1) ^ needle.lastByteBroadcast);
+            long candidates = firstByteMatches & lastByteMatches;
+
+            while (candidates != 0) {
+                int candidateByte;
+                if (LITTLE_ENDIAN) {
+                    candidateByte = Long.numberOfTrailingZeros(candidates) >>> 3;
+                    candidates &= candidates - 1;
+                } else {
+                    int leadingZeros = Long.numberOfLeadingZeros(candidates);
+                    candidateByte = leadingZeros >>> 3;
+                    candidates &= ~(Long.MIN_VALUE >>> leadingZeros);
+                }
+
+                int candidate = position + candidateByte;
+                if (equalBytes(base, offset + candidate, needle))
+                    return candidate;
+            }
+        }
+
+        // Handle the remaining positions byte-wise
+        byte firstByte = needle.bytes[0];
+        for (; position <= lastStart; position++) {
+            if (MemoryUtil.UNSAFE.getByte(base, offset + position) == firstByte
+                    && equalBytes(base, offset + position, needle))
+                return position;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Method to check whether a byte sequence starts with the bytes of {@code needle}. The caller
+     * is responsible for ensuring that the sequence is at least as long as {@code needle}.
+     * @param base The object containing the byte sequence, or {@code null} if {@code offset} is an absolute address.
+     * @param offset The offset of the first byte of the sequence relative to {@code base}.
+     * @param needle The needle to compare against.
+     * @return {@code true} iff the sequence starts with {@code needle}.
+     */
+    static boolean equalBytes(Object base, long offset, Needle needle) {
+        byte[] needleBytes = needle.bytes;
+        long[] needleWords = needle.words;
+
+        int i = 0;
+        for (int word = 0; word < needleWords.length; word++, i += 8) {
+            if (MemoryUtil.UNSAFE.getLong(base, offset + i) != needleWords[word])
+                return false;
+        }
+
+        for (; i < needleBytes.length; i++) {
+            if (MemoryUtil.UNSAFE.getByte(base, offset + i) != needleBytes[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to mark the zero bytes of a word. Every zero byte gets its highest bit set in the
+     * result, while a byte directly above a zero byte may also be marked spuriously due to the
+     * borrow; callers therefore need to verify the marked positions.
+     * @param word The word to inspect.
+     * @return A word with the highest bit set for (at least) every zero byte in {@code word}.
+     */
+    private static long zeroBytes(long word) {
+        return (word - LOW_BITS) & ~word & HIGH_BITS;
+    }
+
+    /* ---- Pattern segments ---- */
+
+    /**
+     * Class representing a literal segment of a LIKE pattern in a form that is suitable for word-wise
+     * comparisons and SWAR searches.
+     */
+    static final class Needle {
+
+        /**
+         * The bytes of the segment.
+         */
+        final byte[] bytes;
+
+        /**
+         * The complete 8-byte words of the segment, read in native byte order.
+         */
+        final long[] words;
+
+        /**
+         * The first byte of the segment repeated in every byte of a word.
+         */
+        final long firstByteBroadcast;
+
+        /**
+         * The last byte of the segment repeated in every byte of a word.
+         */
+        final long lastByteBroadcast;
+
+        /**
+         * Create a {@link Needle} instance.
+         * @param bytes The bytes of the segment.
+         */
+        Needle(byte[] bytes) {
+            this.bytes = bytes;
+            this.words = new long[bytes.length >>> 3];
+            for (int i = 0; i < this.words.length; i++)
+                this.words[i] = MemoryUtil.UNSAFE.getLong(bytes, MemoryUtil.BYTE_ARRAY_BASE_OFFSET + 8L * i);
+
+            this.firstByteBroadcast = bytes.length == 0 ? 0 : (bytes[0] & 0xFFL) * LOW_BITS;
+            this.lastByteBroadcast = bytes.length == 0 ? 0 : (bytes[bytes.length - 1] & 0xFFL) * LOW_BITS;
+        }
+
+    }
+
+    /* ---- Specialised matchers ---- */
+
+    /**
+     * Matcher for patterns consisting only of {@code %} wildcards.
+     */
+    private static final class AnyMatcher extends LikeMatcher {
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            return true;
+        }
+
+    }
+
+    /**
+     * Matcher for patterns without wildcards.
+     */
+    private static final class ExactMatcher extends LikeMatcher {
+
+        /**
+         * The value that should be matched exactly.
+         */
+        private final Needle value;
+
+        /**
+         * Create an {@link ExactMatcher} instance.
+         * @param value The value that should be matched exactly.
+         */
+        private ExactMatcher(Needle value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            return length == this.value.bytes.length && equalBytes(base, offset, this.value);
+        }
+
+    }
+
+    /**
+     * Matcher for patterns of the form {@code abc%}.
+     */
+    private static final class PrefixMatcher extends LikeMatcher {
+
+        /**
+         * The prefix that values should start with.
+         */
+        private final Needle prefix;
+
+        /**
+         * Create a {@link PrefixMatcher} instance.
+         * @param prefix The prefix that values should start with.
+         */
+        private PrefixMatcher(Needle prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            return length >= this.prefix.bytes.length && equalBytes(base, offset, this.prefix);
+        }
+
+    }
+
+    /**
+     * Matcher for patterns of the form {@code %abc}.
+     */
+    private static final class SuffixMatcher extends LikeMatcher {
+
+        /**
+         * The suffix that values should end with.
+         */
+        private final Needle suffix;
+
+        /**
+         * Create a {@link SuffixMatcher} instance.
+         * @param suffix The suffix that values should end with.
+         */
+        private SuffixMatcher(Needle suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            int suffixLength = this.suffix.bytes.length;
+            return length >= suffixLength && equalBytes(base, offset + length - suffixLength, this.suffix);
+        }
+
+    }
+
+    /**
+     * Matcher for patterns of the form {@code %abc%}.
+     */
+    private static final class ContainsMatcher extends LikeMatcher {
+
+        /**
+         * The segment that values should contain.
+         */
+        private final Needle segment;
+
+        /**
+         * Create a {@link ContainsMatcher} instance.
+         * @param segment The segment that values should contain.
+         */
+        private ContainsMatcher(Needle segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            return indexOf(base, offset, length, 0, this.segment) >= 0;
+        }
+
+    }
+
+    /**
+     * Matcher for patterns consisting of multiple segments separated by {@code %}, such as
+     * {@code %abc%def%} or {@code abc%def}. The middle segments are located greedily from left to
+     * right, which is sufficient as {@code %} can absorb any gap between them.
+     */
+    private static final class SegmentsMatcher extends LikeMatcher {
+
+        /**
+         * The segment that values should start with, or {@code null} if the pattern starts with {@code %}.
+         */
+        private final Needle prefix;
+
+        /**
+         * The segments that should occur in order between the prefix and the suffix.
+         */
+        private final Needle[] middleSegments;
+
+        /**
+         * The segment that values should end with, or {@code null} if the pattern ends with {@code %}.
+         */
+        private final Needle suffix;
+
+        /**
+         * Create a {@link SegmentsMatcher} instance.
+         * @param prefix The segment that values should start with, or {@code null} if there is none.
+         * @param middleSegments The segments that should occur in order between the prefix and the suffix.
+         * @param suffix The segment that values should end with, or {@code null} if there is none.
+         */
+        private SegmentsMatcher(Needle prefix, Needle[] middleSegments, Needle suffix) {
+            this.prefix = prefix;
+            this.middleSegments = middleSegments;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            int searchStart = 0;
+            int searchEnd = length;
+
+            if (this.prefix != null) {
+                if (length < this.prefix.bytes.length || !equalBytes(base, offset, this.prefix))
+                    return false;
+                searchStart = this.prefix.bytes.length;
+            }
+
+            if (this.suffix != null) {
+                int suffixLength = this.suffix.bytes.length;
+                if (searchEnd - searchStart < suffixLength
+                        || !equalBytes(base, offset + searchEnd - suffixLength, this.suffix))
+                    return false;
+                searchEnd -= suffixLength;
+            }
+
+            for (Needle segment : this.middleSegments) {
+                int segmentIndex = indexOf(base, offset, searchEnd, searchStart, segment);
+                if (segmentIndex < 0)
+                    return false;
+                searchStart = segmentIndex + segment.bytes.length;
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * Matcher for arbitrary patterns, including those containing {@code _}, which backtracks to the
+     * most recent {@code %} on a mismatch.
+     */
+    private static final class WildcardMatcher extends LikeMatcher {
+
+        /**
+         * The pattern to match.
+         */
+        private final byte[] pattern;
+
+        /**
+         * Create a {@link WildcardMatcher} instance.
+         * @param pattern The pattern to match.
+         */
+        private WildcardMatcher(byte[] pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(Object base, long offset, int length) {
+            int patternIndex = 0;
+            int valueIndex = 0;
+            int lastWildcardIndex = -1;
+            int lastWildcardValueIndex = 0;
+
+            while (valueIndex < length) {
+                if (patternIndex < this.pattern.length
+                        && this.pattern[patternIndex] != ANY_SEQUENCE
+                        && (this.pattern[patternIndex] == ANY_CHARACTER
+                            || this.pattern[patternIndex] == MemoryUtil.UNSAFE.getByte(base, offset + valueIndex))) {
+                    patternIndex++;
+                    valueIndex++;
+
+                } else if (patternIndex < this.pattern.length && this.pattern[patternIndex] == ANY_SEQUENCE) {
+                    lastWildcardIndex = patternIndex++;
+                    lastWildcardValueIndex = valueIndex;
+
+                } else if (lastWildcardIndex >= 0) {
+                    // Let the most recent % absorb one more byte and retry
+                    patternIndex = lastWildcardIndex + 1;
+                    valueIndex = ++lastWildcardValueIndex;
+
+                } else {
+                    return false;
+                }
+            }
+
+            while (patternIndex < this.pattern.length && this.pattern[patternIndex] == ANY_SEQUENCE)
+                patternIndex++;
+
+            return patternIndex == this.pattern.length;
+        }
+
+    }
+
+}
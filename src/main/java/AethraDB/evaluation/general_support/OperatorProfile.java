@@ -0,0 +1,151 @@
+package AethraDB.evaluation.general_support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class collecting the runtime metrics of a single operator of a profiled query. The fields of this
+ * class are updated directly by the generated code, which only contains such updates when the query
+ * was generated with profiling enabled.
+ */
+public final class OperatorProfile {
+
+    /**
+     * The identifier of the operator within its query.
+     */
+    public final int id;
+
+    /**
+     * The identifier of the operator consuming the records of this operator, or -1 for the root.
+     */
+    public final int parentId;
+
+    /**
+     * The name of the operator.
+     */
+    public final String name;
+
+    /**
+     * The number of records that the operator passed to its parent.
+     */
+    public long rowsOut;
+
+    /**
+     * The number of times the operator passed a record (or a vector in the vectorised paradigm) to its parent.
+     */
+    public long batchesOut;
+
+    /**
+     * The number of nanoseconds spent in the pipelines that the operator drives.
+     */
+    public long pipelineNanos;
+
+    /**
+     * The statistics of the hash-tables built by the operator, as JSON objects.
+     */
+    private final List<String> hashTableStatistics;
+
+    /**
+     * Creates a new {@link OperatorProfile} instance.
+     * @param id The identifier of the operator within its query.
+     * @param parentId The identifier of the parent operator, or -1 for the root operator.
+     * @param name The name of the operator.
+     */
+    public OperatorProfile(int id, int parentId, String name) {
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.rowsOut = 0;
+        this.batchesOut = 0;
+        this.pipelineNanos = 0;
+        this.hashTableStatistics = new ArrayList<>();
+    }
+
+    /**
+     * Method to record the statistics of a hash-table built by the operator which resolves collisions
+     * by chaining entries via an index array.
+     * @param size The number of entries in the hash-table.
+     * @param hashTable The hash-table, containing the index of the first entry of each chain or -1.
+     * @param next The index of the next entry in the chain of each entry, or -1.
+     * @param growCount The number of times the entry arrays of the hash-table were grown.
+     * @param rehashCount The number of times the hash-table was rebuilt at a larger size.
+     */
+    public void recordHashTable(int size, int[] hashTable, int[] next, int growCount, int rehashCount) {
+        int[] chainLengths = new int[hashTable.length];
+        for (int bucket = 0; bucket < hashTable.length; bucket++) {
+            for (int entry = hashTable[bucket]; entry != -1 && chainLengths[bucket] <= size; entry = next[entry])
+                chainLengths[bucket]++;
+        }
+
+        this.recordHashTable(size, chainLengths, growCount, rehashCount);
+    }
+
+    /**
+     * Method to record the statistics of a hash-table built by the operator from the length of
+     * the collision chain of each of its buckets.
+     * @param size The number of entries in the hash-table.
+     * @param chainLengths The number of entries in the collision chain of each bucket.
+     * @param growCount The number of times the entry arrays of the hash-table were grown.
+     * @param rehashCount The number of times the hash-table was rebuilt at a larger size.
+     */
+    public void recordHashTable(int size, int[] chainLengths, int growCount, int rehashCount) {
+        long chains = 0;
+        long chainedEntries = 0;
+        long maxChainLength = 0;
+        for (int chainLength : chainLengths) {
+            if (chainLength == 0)
+                continue;
+
+            chains++;
+            chainedEntries += chainLength;
+            maxChainLength = Math.max(maxChainLength, chainLength);
+        }
+
+        this.recordHashTable(
+                size,
+                chainLengths.length,
+                maxChainLength,
+                chains == 0 ? 0d : ((double) chainedEntries) / chains,
+                growCount,
+                rehashCount
+        );
+    }
+
+    /**
+     * Method to record the statistics of a hash-table built by the operator.
+     * @param size The number of entries in the hash-table.
+     * @param capacity The number of slots in the hash-table.
+     * @param maxChainLength The length of the longest collision chain of the hash-table.
+     * @param averageChainLength The average length of the non-empty collision chains of the hash-table.
+     * @param growCount The number of times the entry arrays of the hash-table were grown.
+     * @param rehashCount The number of times the hash-table was rebuilt at a larger size.
+     */
+    public void recordHashTable(
+            long size,
+            long capacity,
+            long maxChainLength,
+            double averageChainLength,
+            int growCount,
+            int rehashCount
+    ) {
+        this.hashTableStatistics.add(
+                "{\"size\": " + size
+                        + ", \"capacity\": " + capacity
+                        + ", \"loadFactor\": " + (capacity == 0 ? 0d : ((double) size) / capacity)
+                        + ", \"maxChainLength\": " + maxChainLength
+                        + ", \"averageChainLength\": " + averageChainLength
+                        + ", \"grows\": " + growCount
+                        + ", \"rehashes\": " + rehashCount
+                        + "}"
+        );
+    }
+
+    /**
+     * Method to obtain the statistics of the hash-tables built by the operator.
+     * @return The statistics of each hash-table as a JSON object.
+     */
+    public List<String> getHashTableStatistics() {
+        return this.hashTableStatistics;
+    }
+
+}
@@ -0,0 +1,202 @@
+package AethraDB.evaluation.general_support;
+
+import org.apache.arrow.memory.util.MemoryUtil;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+
+import java.nio.ByteOrder;
+
+/**
+ * This class contains methods for handling short fixed-size binary values (at most
+ * {@code MAX_PACKED_BYTE_WIDTH} bytes) as at most two packed {@code long} words, rather than as
+ * byte arrays. A value is packed big-endian and zero-padded: the first byte of the value is stored
+ * in the most significant byte of the first word. As a result, packed values can be checked for
+ * equality using {@code ==} and ordered lexicographically using {@link Long#compareUnsigned}, while
+ * values are loaded straight from the data buffer of a {@link FixedSizeBinaryVector} without copies.
+ */
+public class PackedStrings {
+
+    /**
+     * The maximum byte width of a fixed-size binary value that can be packed into words.
+     */
+    public static final int MAX_PACKED_BYTE_WIDTH = 16;
+
+    /**
+     * Whether words read via {@link MemoryUtil#UNSAFE} need to be byte-swapped to obtain a big-endian packing.
+     */
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private PackedStrings() {
+
+    }
+
+    /**
+     * Method to check whether values of a given byte width can be packed.
+     * @param byteWidth The byte width to check.
+     * @return {@code true} iff values of {@code byteWidth} bytes fit in two words.
+     */
+    public static boolean canPack(int byteWidth) {
+        return byteWidth > 0 && byteWidth <= MAX_PACKED_BYTE_WIDTH;
+    }
+
+    /**
+     * Method to obtain a packed word of a byte array value.
+     * @param value The value to pack.
+     * @param wordIndex The index of the word to obtain (0 or 1).
+     * @return The packed word, zero-padded if the value does not fill the complete word.
+     */
+    public static long packWord(byte[] value, int wordIndex) {
+        int wordOffset = wordIndex << 3;
+        long word = 0L;
+        for (int i = 0; i < 8 && wordOffset + i < value.length; i++)
+            word |= (value[wordOffset + i] & 0xFFL) << ((7 - i) << 3);
+
+        return word;
+    }
+
+    /**
+     * Method to reconstruct a fixed-size binary value from its packed words.
+     * @param word0 The first packed word of the value.
+     * @param word1 The second packed word of the value.
+     * @param byteWidth The byte width of the value.
+     * @return A new byte array containing the value.
+     */
+    public static byte[] unpack(long word0, long word1, int byteWidth) {
+        byte[] value = new byte[byteWidth];
+        for (int i = 0; i < byteWidth; i++) {
+            long word = (i < 8) ? word0 : word1;
+            value[i] = (byte) (word >>> ((7 - (i & 7)) << 3));
+        }
+
+        return value;
+    }
+
+    /**
+     * Method to load a packed word of a fixed-size binary value directly from memory.
+     * @param valueAddress The memory address of the first byte of the value.
+     * @param byteWidth The byte width of the value.
+     * @param wordIndex The index of the word to obtain (0 or 1).
+     * @return The packed word, zero-padded if the value does not fill the complete word.
+     */
+    public static long readWord(long valueAddress, int byteWidth, int wordIndex) {
+        int wordOffset = wordIndex << 3;
+        int remainingBytes = byteWidth - wordOffset;
+
+        // Complete words can be loaded with a single read
+        if (remainingBytes >= 8)
+            return toBigEndian(MemoryUtil.UNSAFE.getLong(valueAddress + wordOffset));
+
+        if (remainingBytes <= 0)
+            return 0L;
+
+        // Partial words of values spanning at least one word are loaded with an overlapping read
+        // of the last 8 bytes of the value, after which the bytes of the previous word are shifted out
+        if (byteWidth >= 8)
+            return toBigEndian(MemoryUtil.UNSAFE.getLong(valueAddress + byteWidth - 8)) << ((8 - remainingBytes) << 3);
+
+        // Values shorter than a word are assembled byte by byte to avoid reading past the buffer
+        long word = 0L;
+        for (int i = 0; i < remainingBytes; i++)
+            word |= (MemoryUtil.UNSAFE.getByte(valueAddress + wordOffset + i) & 0xFFL) << ((7 - i) << 3);
+
+        return word;
+    }
+
+    /**
+     * Method to load a packed word of an element in a {@link FixedSizeBinaryVector}.
+     * @param vector The vector containing the element.
+     * @param index The index of the element.
+     * @param wordIndex The index of the word to obtain (0 or 1).
+     * @return The packed word of the element.
+     */
+    public static long readWord(FixedSizeBinaryVector vector, int index, int wordIndex) {
+        int byteWidth = vector.getByteWidth();
+        return readWord(vector.getDataBufferAddress() + (long) index * byteWidth, byteWidth, wordIndex);
+    }
+
+    /**
+     * Method to check whether an element in a {@link FixedSizeBinaryVector} equals a packed value.
+     * @param vector The vector containing the element.
+     * @param index The index of the element.
+     * @param word0 The first packed word of the value to compare against.
+     * @param word1 The second packed word of the value to compare against.
+     * @return {@code true} iff the element equals the packed value.
+     */
+    public static boolean equals(FixedSizeBinaryVector vector, int index, long word0, long word1) {
+        int byteWidth = vector.getByteWidth();
+        long valueAddress = vector.getDataBufferAddress() + (long) index * byteWidth;
+        return readWord(valueAddress, byteWidth, 0) == word0
+                && (byteWidth <= 8 || readWord(valueAddress, byteWidth, 1) == word1);
+    }
+
+    /**
+     * Method to compare an element in a {@link FixedSizeBinaryVector} lexicographically to a packed value.
+     * @param vector The vector containing the element.
+     * @param index The index of the element.
+     * @param word0 The first packed word of the value to compare against.
+     * @param word1 The second packed word of the value to compare against.
+     * @return A negative integer, zero, or a positive integer if the element is less than, equal to,
+     * or greater than the packed value.
+     */
+    public static int compare(FixedSizeBinaryVector vector, int index, long word0, long word1) {
+        int byteWidth = vector.getByteWidth();
+        long valueAddress = vector.getDataBufferAddress() + (long) index * byteWidth;
+        return compare(valueAddress, byteWidth, word0, word1);
+    }
+
+    /**
+     * Method to compare a fixed-size binary value in memory lexicographically to a packed value.
+     * @param valueAddress The memory address of the first byte of the value.
+     * @param byteWidth The byte width of the value.
+     * @param word0 The first packed word of the value to compare against.
+     * @param word1 The second packed word of the value to compare against.
+     * @return A negative integer, zero, or a positive integer if the value is less than, equal to,
+     * or greater than the packed value.
+     */
+    public static int compare(long valueAddress, int byteWidth, long word0, long word1) {
+        int firstWordComparison = Long.compareUnsigned(readWord(valueAddress, byteWidth, 0), word0);
+        if (firstWordComparison != 0 || byteWidth <= 8)
+            return firstWordComparison;
+
+        return Long.compareUnsigned(readWord(valueAddress, byteWidth, 1), word1);
+    }
+
+    /**
+     * Method to check whether a byte array value equals a packed value.
+     * @param value The value to check.
+     * @param word0 The first packed word of the value to compare against.
+     * @param word1 The second packed word of the value to compare against.
+     * @return {@code true} iff {@code value} equals the packed value.
+     */
+    public static boolean equals(byte[] value, long word0, long word1) {
+        return packWord(value, 0) == word0 && packWord(value, 1) == word1;
+    }
+
+    /**
+     * Method to compare a byte array value lexicographically to a packed value.
+     * @param value The value to compare.
+     * @param word0 The first packed word of the value to compare against.
+     * @param word1 The second packed word of the value to compare against.
+     * @return A negative integer, zero, or a positive integer if {@code value} is less than, equal to,
+     * or greater than the packed value.
+     */
+    public static int compare(byte[] value, long word0, long word1) {
+        int firstWordComparison = Long.compareUnsigned(packWord(value, 0), word0);
+        if (firstWordComparison != 0)
+            return firstWordComparison;
+
+        return Long.compareUnsigned(packWord(value, 1), word1);
+    }
+
+    /**
+     * Method to convert a word read in native byte order into its big-endian packing.
+     * @param nativeWord The word as read from memory.
+     * @return The word with its first byte in memory in the most significant position.
+     */
+    private static long toBigEndian(long nativeWord) {
+        return LITTLE_ENDIAN ? Long.reverseBytes(nativeWord) : nativeWord;
+    }
+
+}
@@ -0,0 +1,114 @@
+package AethraDB.evaluation.general_support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class collecting the runtime metrics of the operators of a profiled query, which can be reported
+ * as a JSON tree mirroring the query plan. The generated code of a profiled query registers each of
+ * its operators when the query starts, and updates the returned {@link OperatorProfile}s as it runs.
+ */
+public final class QueryProfile {
+
+    /**
+     * The profile of each registered operator, by operator identifier.
+     */
+    private final Map<Integer, OperatorProfile> operatorProfiles;
+
+    /**
+     * Creates a new empty {@link QueryProfile} instance.
+     */
+    public QueryProfile() {
+        this.operatorProfiles = new TreeMap<>();
+    }
+
+    /**
+     * Method to register an operator of the query, or to obtain its profile if it was registered already.
+     * @param id The identifier of the operator within the query.
+     * @param parentId The identifier of the parent operator, or -1 for the root operator.
+     * @param name The name of the operator.
+     * @return The {@link OperatorProfile} of the operator.
+     */
+    public OperatorProfile registerOperator(int id, int parentId, String name) {
+        return this.operatorProfiles.computeIfAbsent(id, k -> new OperatorProfile(id, parentId, name));
+    }
+
+    /**
+     * Method to check whether any operator has been registered, i.e. whether the query was profiled.
+     * @return {@code true} iff the query registered at least one operator.
+     */
+    public boolean isEmpty() {
+        return this.operatorProfiles.isEmpty();
+    }
+
+    /**
+     * Method to report the profile as a JSON tree of operators, where the records that an operator
+     * consumed are the records that its children passed to it.
+     * @return The JSON representation of the profile.
+     */
+    public String toJson() {
+        Map<Integer, List<OperatorProfile>> childProfiles = new TreeMap<>();
+        List<OperatorProfile> rootProfiles = new ArrayList<>();
+        for (OperatorProfile profile : this.operatorProfiles.values()) {
+            if (this.operatorProfiles.containsKey(profile.parentId))
+                childProfiles.computeIfAbsent(profile.parentId, k -> new ArrayList<>()).add(profile);
+            else
+                rootProfiles.add(profile);
+        }
+
+        StringBuilder json = new StringBuilder();
+        this.appendOperatorList(json, rootProfiles, childProfiles);
+        return json.toString();
+    }
+
+    /**
+     * Method to append a JSON array of operator profiles (and their children) to a JSON string.
+     * @param json The {@link StringBuilder} to append the operator profiles to.
+     * @param profiles The operator profiles to append.
+     * @param childProfiles The child profiles of each operator.
+     */
+    private void appendOperatorList(
+            StringBuilder json,
+            List<OperatorProfile> profiles,
+            Map<Integer, List<OperatorProfile>> childProfiles
+    ) {
+        json.append('[');
+        for (int i = 0; i < profiles.size(); i++) {
+            if (i > 0)
+                json.append(", ");
+            this.appendOperator(json, profiles.get(i), childProfiles);
+        }
+        json.append(']');
+    }
+
+    /**
+     * Method to append the JSON object of an operator profile (and its children) to a JSON string.
+     * @param json The {@link StringBuilder} to append the operator profile to.
+     * @param profile The operator profile to append.
+     * @param childProfiles The child profiles of each operator.
+     */
+    private void appendOperator(
+            StringBuilder json,
+            OperatorProfile profile,
+            Map<Integer, List<OperatorProfile>> childProfiles
+    ) {
+        List<OperatorProfile> children = childProfiles.getOrDefault(profile.id, List.of());
+        long rowsIn = 0;
+        for (OperatorProfile child : children)
+            rowsIn += child.rowsOut;
+
+        json.append("{\"operator\": \"").append(profile.name).append('"');
+        json.append(", \"id\": ").append(profile.id);
+        json.append(", \"rowsIn\": ").append(rowsIn);
+        json.append(", \"rowsOut\": ").append(profile.rowsOut);
+        json.append(", \"batchesOut\": ").append(profile.batchesOut);
+        json.append(", \"pipelineTime\": ").append(((double) profile.pipelineNanos) / 1_000_000d);
+        json.append(", \"hashTables\": ").append(profile.getHashTableStatistics());
+        json.append(", \"children\": ");
+        this.appendOperatorList(json, children, childProfiles);
+        json.append('}');
+    }
+
+}
@@ -0,0 +1,191 @@
+package AethraDB.evaluation.general_support;
+
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import java.util.Arrays;
+
+/**
+ * This class contains methods for operating on dictionary-encoded string columns, whose vectors
+ * contain int codes that index into a dictionary of {@link VarCharVector} or {@link FixedSizeBinaryVector}
+ * values. Predicates on such columns are evaluated once per dictionary entry into a code bitmap,
+ * so that the predicate can be applied to each record by a single array lookup on its code, while
+ * the actual values only need to be decoded where an operator requires them.
+ */
+public class StringDictionaries {
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private StringDictionaries() {
+
+    }
+
+    /**
+     * Method to materialise the values of a dictionary as byte arrays.
+     * @param dictionary The dictionary to materialise.
+     * @return The values of {@code dictionary}, indexed by their dictionary code.
+     */
+    public static byte[][] getValues(FieldVector dictionary) {
+        int dictionarySize = dictionary.getValueCount();
+        byte[][] values = new byte[dictionarySize][];
+
+        if (dictionary instanceof VarCharVector varCharDictionary) {
+            for (int i = 0; i < dictionarySize; i++)
+                values[i] = varCharDictionary.get(i);
+
+        } else if (dictionary instanceof FixedSizeBinaryVector fixedSizeBinaryDictionary) {
+            for (int i = 0; i < dictionarySize; i++)
+                values[i] = fixedSizeBinaryDictionary.get(i);
+
+        } else {
+            throw new UnsupportedOperationException(
+                    "StringDictionaries.getValues does not support dictionaries of type " + dictionary.getClass());
+        }
+
+        return values;
+    }
+
+    /**
+     * Method to decode a vector of dictionary codes into a {@link VarCharVector}.
+     * @param codes The dictionary codes to decode.
+     * @param values The values of the dictionary, indexed by their dictionary code.
+     * @param target The vector to decode into, which is reset before decoding.
+     */
+    public static void decode(IntVector codes, byte[][] values, VarCharVector target) {
+        int valueCount = codes.getValueCount();
+        target.reset();
+
+        for (int i = 0; i < valueCount; i++) {
+            if (codes.isNull(i))
+                target.setNull(i);
+            else
+                target.setSafe(i, values[codes.get(i)]);
+        }
+
+        target.setValueCount(valueCount);
+    }
+
+    /**
+     * Method to decode a vector of dictionary codes into a {@link FixedSizeBinaryVector}.
+     * @param codes The dictionary codes to decode.
+     * @param values The values of the dictionary, indexed by their dictionary code.
+     * @param target The vector to decode into, which is reset before decoding.
+     */
+    public static void decode(IntVector codes, byte[][] values, FixedSizeBinaryVector target) {
+        int valueCount = codes.getValueCount();
+        target.reset();
+
+        for (int i = 0; i < valueCount; i++) {
+            if (codes.isNull(i))
+                target.setNull(i);
+            else
+                target.setSafe(i, values[codes.get(i)]);
+        }
+
+        target.setValueCount(valueCount);
+    }
+
+    /* ---- Code bitmaps ---- */
+
+    /**
+     * Method to compute the code bitmap of an equality predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param literal The value to compare the dictionary values to.
+     * @return A bitmap indicating for each dictionary code whether its value equals {@code literal}.
+     */
+    public static boolean[] eq(FieldVector dictionary, byte[] literal) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = Arrays.equals(values[i], literal);
+        return bitmap;
+    }
+
+    /**
+     * Method to compute the code bitmap of a greater-than predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param literal The value to compare the dictionary values to.
+     * @return A bitmap indicating for each dictionary code whether its value is greater than {@code literal}.
+     */
+    public static boolean[] gt(FieldVector dictionary, byte[] literal) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = Arrays.compareUnsigned(values[i], literal) > 0;
+        return bitmap;
+    }
+
+    /**
+     * Method to compute the code bitmap of a greater-than-or-equal predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param literal The value to compare the dictionary values to.
+     * @return A bitmap indicating for each dictionary code whether its value is at least {@code literal}.
+     */
+    public static boolean[] ge(FieldVector dictionary, byte[] literal) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = Arrays.compareUnsigned(values[i], literal) >= 0;
+        return bitmap;
+    }
+
+    /**
+     * Method to compute the code bitmap of a less-than predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param literal The value to compare the dictionary values to.
+     * @return A bitmap indicating for each dictionary code whether its value is less than {@code literal}.
+     */
+    public static boolean[] lt(FieldVector dictionary, byte[] literal) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = Arrays.compareUnsigned(values[i], literal) < 0;
+        return bitmap;
+    }
+
+    /**
+     * Method to compute the code bitmap of a less-than-or-equal predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param literal The value to compare the dictionary values to.
+     * @return A bitmap indicating for each dictionary code whether its value is at most {@code literal}.
+     */
+    public static boolean[] le(FieldVector dictionary, byte[] literal) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = Arrays.compareUnsigned(values[i], literal) <= 0;
+        return bitmap;
+    }
+
+    /**
+     * Method to compute the code bitmap of a LIKE predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param matcher The {@link LikeMatcher} representing the LIKE pattern.
+     * @return A bitmap indicating for each dictionary code whether its value matches the pattern.
+     */
+    public static boolean[] like(FieldVector dictionary, LikeMatcher matcher) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = matcher.matches(values[i]);
+        return bitmap;
+    }
+
+    /**
+     * Method to compute the code bitmap of a NOT LIKE predicate on a dictionary.
+     * @param dictionary The dictionary to evaluate the predicate on.
+     * @param matcher The {@link LikeMatcher} representing the LIKE pattern.
+     * @return A bitmap indicating for each dictionary code whether its value does not match the pattern.
+     */
+    public static boolean[] notLike(FieldVector dictionary, LikeMatcher matcher) {
+        byte[][] values = getValues(dictionary);
+        boolean[] bitmap = new boolean[values.length];
+        for (int i = 0; i < values.length; i++)
+            bitmap[i] = !matcher.matches(values[i]);
+        return bitmap;
+    }
+
+}
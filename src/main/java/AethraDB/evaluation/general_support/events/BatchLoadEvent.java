@@ -0,0 +1,71 @@
+package AethraDB.evaluation.general_support.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event covering the time that a query waits for an
+ * {@link AethraDB.evaluation.codegen.infrastructure.data.ArrowTableReader} to load its next batch.
+ * For readers which read ahead, this is the time the query is stalled on the reader thread, while
+ * for other readers it is the time spent reading and decoding the batch.
+ */
+@Name("AethraDB.BatchLoad")
+@Label("Batch Load")
+@Category({ "AethraDB", "I/O" })
+@Description("A wait of a query for the next batch of an Arrow table")
+@StackTrace(false)
+public final class BatchLoadEvent extends jdk.jfr.Event {
+
+    /**
+     * The identifier of the query reading the table.
+     */
+    @Label("Query Id")
+    long queryId;
+
+    /**
+     * The name of the Arrow file that is read.
+     */
+    @Label("Table File")
+    String tableFile;
+
+    /**
+     * The index of the batch that was requested.
+     */
+    @Label("Batch Index")
+    int batchIndex;
+
+    /**
+     * Whether a batch was loaded, as opposed to the end of the table being reached.
+     */
+    @Label("Loaded")
+    boolean loaded;
+
+    /**
+     * Method to start an event covering the load of a batch.
+     * @param queryId The identifier of the query reading the table.
+     * @param tableFile The name of the Arrow file that is read.
+     * @param batchIndex The index of the batch that is requested.
+     * @return The started event, which should be finished once the load has completed.
+     */
+    public static BatchLoadEvent start(long queryId, String tableFile, int batchIndex) {
+        BatchLoadEvent event = new BatchLoadEvent();
+        event.queryId = queryId;
+        event.tableFile = tableFile;
+        event.batchIndex = batchIndex;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Method to finish the event and commit it if it is enabled in the current recording.
+     * @param loaded Whether a batch was loaded.
+     */
+    public void finish(boolean loaded) {
+        this.loaded = loaded;
+        this.commit();
+    }
+
+}
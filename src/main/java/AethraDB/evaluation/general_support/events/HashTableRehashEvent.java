@@ -0,0 +1,77 @@
+package AethraDB.evaluation.general_support.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event covering the rebuild of the hash-table of a map at a larger size.
+ * Rehashes re-insert every key of the map, so they show up as stalls in the pipeline building it.
+ */
+@Name("AethraDB.HashTableRehash")
+@Label("Hash-Table Rehash")
+@Category({ "AethraDB", "Query" })
+@Description("The rebuild of a hash-table at a larger size")
+@StackTrace(false)
+public final class HashTableRehashEvent extends jdk.jfr.Event {
+
+    /**
+     * The identifier of the query building the hash-table.
+     */
+    @Label("Query Id")
+    long queryId;
+
+    /**
+     * The owner to which the map attributes its memory, which identifies the operator building it.
+     */
+    @Label("Owner")
+    String owner;
+
+    /**
+     * The number of keys in the hash-table.
+     */
+    @Label("Keys")
+    long keys;
+
+    /**
+     * The number of buckets of the hash-table before the rehash.
+     */
+    @Label("Previous Buckets")
+    long previousBuckets;
+
+    /**
+     * The number of buckets of the hash-table after the rehash.
+     */
+    @Label("Buckets")
+    long buckets;
+
+    /**
+     * Method to start an event covering the rehash of a hash-table.
+     * @param queryId The identifier of the query building the hash-table.
+     * @param owner The owner to which the map attributes its memory.
+     * @param keys The number of keys in the hash-table.
+     * @param previousBuckets The number of buckets of the hash-table before the rehash.
+     * @return The started event, which should be finished once the rehash is complete.
+     */
+    public static HashTableRehashEvent start(long queryId, String owner, long keys, long previousBuckets) {
+        HashTableRehashEvent event = new HashTableRehashEvent();
+        event.queryId = queryId;
+        event.owner = owner;
+        event.keys = keys;
+        event.previousBuckets = previousBuckets;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Method to finish the event and commit it if it is enabled in the current recording.
+     * @param buckets The number of buckets of the hash-table after the rehash.
+     */
+    public void finish(long buckets) {
+        this.buckets = buckets;
+        this.commit();
+    }
+
+}
@@ -0,0 +1,62 @@
+package AethraDB.evaluation.general_support.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event covering the execution of a pipeline of a generated query. The event
+ * is started and finished by the generated code around each pipeline, so that it costs a single
+ * allocation per pipeline rather than per record or batch.
+ */
+@Name("AethraDB.Pipeline")
+@Label("Pipeline Execution")
+@Category({ "AethraDB", "Query" })
+@Description("The execution of a pipeline of a generated query")
+@StackTrace(false)
+public final class PipelineEvent extends jdk.jfr.Event {
+
+    /**
+     * The identifier of the query executing the pipeline.
+     */
+    @Label("Query Id")
+    long queryId;
+
+    /**
+     * The identifier of the pipeline within its query.
+     */
+    @Label("Pipeline Id")
+    int pipelineId;
+
+    /**
+     * The name of the operator driving the pipeline.
+     */
+    @Label("Operator")
+    String operator;
+
+    /**
+     * Method to start an event covering the execution of a pipeline.
+     * @param queryId The identifier of the query executing the pipeline.
+     * @param pipelineId The identifier of the pipeline within its query.
+     * @param operator The name of the operator driving the pipeline.
+     * @return The started event, which should be finished once the pipeline has been executed.
+     */
+    public static PipelineEvent start(long queryId, int pipelineId, String operator) {
+        PipelineEvent event = new PipelineEvent();
+        event.queryId = queryId;
+        event.pipelineId = pipelineId;
+        event.operator = operator;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Method to finish the event and commit it if it is enabled in the current recording.
+     */
+    public void finish() {
+        this.commit();
+    }
+
+}
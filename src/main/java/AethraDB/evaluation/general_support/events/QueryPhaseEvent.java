@@ -0,0 +1,80 @@
+package AethraDB.evaluation.general_support.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event covering a phase of the lifecycle of a query, i.e. its planning, code
+ * generation, compilation, the loading of its generated classes or its execution. Together with the
+ * other events in this package, these events allow the latency of a query to be attributed to its
+ * phases after the fact from a continuous recording.
+ */
+@Name("AethraDB.QueryPhase")
+@Label("Query Phase")
+@Category({ "AethraDB", "Query" })
+@Description("A phase of the lifecycle of a query")
+@StackTrace(false)
+public final class QueryPhaseEvent extends jdk.jfr.Event {
+
+    /**
+     * The phase in which the query is planned.
+     */
+    public static final String PLANNING = "planning";
+
+    /**
+     * The phase in which code is generated for the planned query.
+     */
+    public static final String CODE_GENERATION = "codegen";
+
+    /**
+     * The phase in which the generated code is compiled by Janino.
+     */
+    public static final String COMPILATION = "compile";
+
+    /**
+     * The phase in which the compiled classes of the query are loaded and instantiated.
+     */
+    public static final String CLASS_LOADING = "class loading";
+
+    /**
+     * The phase in which the generated query is executed.
+     */
+    public static final String EXECUTION = "execution";
+
+    /**
+     * The identifier of the query.
+     */
+    @Label("Query Id")
+    long queryId;
+
+    /**
+     * The phase of the query covered by the event.
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Method to start an event covering a phase of a query.
+     * @param queryId The identifier of the query.
+     * @param phase The phase of the query that is starting.
+     * @return The started event, which should be finished once the phase is complete.
+     */
+    public static QueryPhaseEvent start(long queryId, String phase) {
+        QueryPhaseEvent event = new QueryPhaseEvent();
+        event.queryId = queryId;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Method to finish the event and commit it if it is enabled in the current recording.
+     */
+    public void finish() {
+        this.commit();
+    }
+
+}
@@ -1,17 +1,26 @@
 package AethraDB.evaluation.general_support.hashmaps;
 
+import AethraDB.evaluation.general_support.PackedStrings;
 import org.apache.arrow.memory.util.MemoryUtil;
 import org.apache.arrow.vector.FixedSizeBinaryVector;
 
+import java.nio.ByteOrder;
+
 /**
- * The standard hash function used for computing the hash value of a character array column.
+ * The standard hash function used for computing the hash value of a character array column. As it
+ * already mixes its key a word at a time, it is independent of the selected {@link HashFunctionFamily}.
  */
 public final class Char_Arr_Hash_Function {
 
     /**
-     * Buffer array for reading from a fixed-size binary vector.
+     * The multiplier used to mix each word of a key into the hash value (the 64-bit golden ratio).
      */
-    private static byte[] readBuffer = null;
+    private static final long MIX_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Whether complete words of a key are read in little-endian order by {@code preHash}.
+     */
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
 
     /**
      * Prevent instantiation of this class.
@@ -26,11 +35,7 @@ public final class Char_Arr_Hash_Function {
      * @return The pre-hash value.
      */
     public static long preHash(byte[] key) {
-        long hash = 0L;
-        for (int i = 0; i < key.length; i++)
-            hash = (hash * 31) ^ key[i];
-
-        return (hash < 0) ? (-hash) :  hash;
+        return preHash(key, MemoryUtil.BYTE_ARRAY_BASE_OFFSET, key.length);
     }
 
     /**
@@ -41,23 +46,67 @@ public final class Char_Arr_Hash_Function {
      */
     public static long preHash(FixedSizeBinaryVector vector, long keyIndex) {
         int vectorWidth = vector.getByteWidth();
-        long memoryAddressToRead = vector.getDataBufferAddress() + keyIndex * vectorWidth;
+        return preHash(null, vector.getDataBufferAddress() + keyIndex * vectorWidth, vectorWidth);
+    }
 
-        // Upgrade the readBuffer if necessary
-        if (readBuffer == null || readBuffer.length < vectorWidth) {
-            readBuffer = new byte[vectorWidth];
-        }
+    /**
+     * Method to compute the pre-hash of a character array key that is stored as packed words by
+     * {@link PackedStrings}. The words are mixed exactly as the byte array variant mixes the bytes
+     * of the key, so that both variants compute identical hash values for identical keys.
+     * @param word0 The first packed word of the key.
+     * @param word1 The second packed word of the key.
+     * @param length The length of the key in bytes.
+     * @return The pre-hash value.
+     */
+    public static long preHash(long word0, long word1, int length) {
+        long hash = length;
+        hash = (hash ^ toMixedWord(word0, length)) * MIX_MULTIPLIER;
+        if (length > 8)
+            hash = (hash ^ toMixedWord(word1, length - 8)) * MIX_MULTIPLIER;
+
+        hash ^= hash >>> 32;
+        return hash & Long.MAX_VALUE;
+    }
+
+    /**
+     * Method to convert a packed word into the word that {@code preHash} reads from memory for the
+     * same bytes: complete words are read in native byte order, while tails are assembled with the
+     * first byte in the least significant position.
+     * @param packedWord The packed word to convert.
+     * @param remainingBytes The number of bytes of the key starting at the word.
+     * @return The word as mixed into the hash value.
+     */
+    private static long toMixedWord(long packedWord, int remainingBytes) {
+        if (remainingBytes >= 8 && !LITTLE_ENDIAN)
+            return packedWord;
+        return Long.reverseBytes(packedWord);
+    }
+
+    /**
+     * Method to compute the pre-hash of a character array a word (8 bytes) at a time, so that short
+     * keys only require one or two mixing steps. Both the byte array and the arrow vector variants
+     * delegate to this method to ensure that they compute identical hash values for identical keys.
+     * @param base The object containing the key, or {@code null} if {@code offset} is an absolute address.
+     * @param offset The offset of the first byte of the key relative to {@code base}.
+     * @param length The length of the key in bytes.
+     * @return The (non-negative) pre-hash value.
+     */
+    private static long preHash(Object base, long offset, int length) {
+        long hash = length;
 
-        // Read the value
-        MemoryUtil.UNSAFE.copyMemory(null, memoryAddressToRead, readBuffer, MemoryUtil.BYTE_ARRAY_BASE_OFFSET, vectorWidth);
+        int i = 0;
+        for (; i + 8 <= length; i += 8)
+            hash = (hash ^ MemoryUtil.UNSAFE.getLong(base, offset + i)) * MIX_MULTIPLIER;
 
-        // Hash the part of the readBuffer that is valid
-        long hash = 0L;
-        for (int i = 0; i < vectorWidth; i++) {
-            hash = (hash * 31) ^ readBuffer[i];
+        if (i < length) {
+            long tail = 0L;
+            for (int shift = 0; i < length; i++, shift += 8)
+                tail |= (MemoryUtil.UNSAFE.getByte(base, offset + i) & 0xFFL) << shift;
+            hash = (hash ^ tail) * MIX_MULTIPLIER;
         }
 
-        return (hash < 0) ? (-hash) : hash;
+        hash ^= hash >>> 32;
+        return hash & Long.MAX_VALUE;
     }
 
 }
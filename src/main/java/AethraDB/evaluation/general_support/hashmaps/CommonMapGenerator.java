@@ -2,11 +2,16 @@ package AethraDB.evaluation.general_support.hashmaps;
 
 import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
 import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGen;
 import AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen;
+import AethraDB.evaluation.general_support.PackedStrings;
+import org.codehaus.janino.Access;
 import org.codehaus.janino.Java;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
@@ -16,6 +21,59 @@ import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTy
  */
 public class CommonMapGenerator {
 
+    /**
+     * The name of the field and constructor parameter through which a generated map accesses the
+     * {@link AethraDB.evaluation.codegen.infrastructure.data.QueryMemoryAccountant} of its query.
+     */
+    public static final String MEMORY_ACCOUNTANT_NAME = "memoryAccountant";
+
+    /**
+     * The name of the field and constructor parameter storing the owner to which a generated map
+     * attributes its memory reservations.
+     */
+    public static final String MEMORY_OWNER_NAME = "memoryOwner";
+
+    /**
+     * The name of the field counting how often a generated map grew its entry arrays.
+     */
+    public static final String GROW_COUNT_NAME = "growCount";
+
+    /**
+     * The name of the field counting how often a generated map rebuilt its hash-table at a larger size.
+     */
+    public static final String REHASH_COUNT_NAME = "rehashCount";
+
+    /**
+     * The name of the method through which a generated map records its hash-table statistics in an
+     * {@link AethraDB.evaluation.general_support.OperatorProfile}.
+     */
+    public static final String RECORD_STATISTICS_METHOD_NAME = "recordStatistics";
+
+    /**
+     * The name of the local variable holding the Java Flight Recorder event of a rehash.
+     */
+    private static final String REHASH_EVENT_NAME = "rehashEvent";
+
+    /**
+     * The estimated number of bytes of an object reference on the heap (assuming compressed oops).
+     */
+    public static final int REFERENCE_BYTES = 4;
+
+    /**
+     * The estimated number of bytes of an object header on the heap.
+     */
+    public static final int OBJECT_HEADER_BYTES = 12;
+
+    /**
+     * The estimated number of bytes of an array header on the heap.
+     */
+    public static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * The estimated number of bytes of a variable-length string stored in a map.
+     */
+    public static final int ESTIMATED_VARCHAR_BYTES = 32;
+
     /**
      * Prevent instantiation of this class.
      */
@@ -171,4 +229,386 @@ public class CommonMapGenerator {
 
     }
 
+    /* ---- Packed storage of short fixed-length strings ---- */
+
+    /**
+     * Method to check whether values of a given type are stored as two packed {@code long} words
+     * in a generated map, rather than as a byte array.
+     * @param type The type of the values.
+     * @return {@code true} iff {@code type} is a fixed-length binary type that can be packed by
+     * {@link PackedStrings}.
+     */
+    public static boolean isPackedStringType(QueryVariableType type) {
+        return type.logicalType == QueryVariableType.LogicalType.S_FL_BIN && PackedStrings.canPack(type.byteWidth);
+    }
+
+    /**
+     * Method to obtain the name of the record field storing a packed word of a value.
+     * @param fieldName The name of the value in the record.
+     * @param wordIndex The index of the word (0 or 1).
+     * @return The name of the field storing word {@code wordIndex} of the value.
+     */
+    public static String packedWordFieldName(String fieldName, int wordIndex) {
+        return fieldName + "_w" + wordIndex;
+    }
+
+    /**
+     * Method to generate the packed words of a byte array variable.
+     * @param sourceVariableName The name of the byte array variable to pack.
+     * @return The invocations {@code PackedStrings.packWord([sourceVariableName], 0)} and
+     * {@code PackedStrings.packWord([sourceVariableName], 1)}.
+     */
+    public static Java.Rvalue[] createPackedWords(String sourceVariableName) {
+        Java.Rvalue[] packedWords = new Java.Rvalue[2];
+        for (int i = 0; i < packedWords.length; i++) {
+            packedWords[i] = JaninoMethodGen.createMethodInvocation(
+                    JaninoGeneralGen.getLocation(),
+                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "PackedStrings"),
+                    "packWord",
+                    new Java.Rvalue[] {
+                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), sourceVariableName),
+                            JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), i)
+                    }
+            );
+        }
+
+        return packedWords;
+    }
+
+    /**
+     * Method to generate the read of a packed value from a record, which unpacks the value into a
+     * new byte array.
+     * @param recordVariableName The name of the variable referring to the record.
+     * @param fieldName The name of the value in the record.
+     * @param byteWidth The byte width of the value.
+     * @return The invocation {@code PackedStrings.unpack(record.[fieldName]_w0, record.[fieldName]_w1, [byteWidth])}.
+     */
+    public static Java.Rvalue createUnpackedFieldRead(String recordVariableName, String fieldName, int byteWidth) {
+        return JaninoMethodGen.createMethodInvocation(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "PackedStrings"),
+                "unpack",
+                new Java.Rvalue[] {
+                        new Java.FieldAccessExpression(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), recordVariableName),
+                                packedWordFieldName(fieldName, 0)
+                        ),
+                        new Java.FieldAccessExpression(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), recordVariableName),
+                                packedWordFieldName(fieldName, 1)
+                        ),
+                        JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), byteWidth)
+                }
+        );
+    }
+
+    /* ---- Memory accounting of generated maps ---- */
+
+    /**
+     * Method to estimate the number of bytes a value of some type occupies when it is stored in a
+     * generated map, including the referenced array for byte array values that are not packed.
+     * @param type The type of the value.
+     * @return The estimated number of bytes occupied by a value of type {@code type}.
+     */
+    public static int estimatedValueBytes(QueryVariableType type) {
+        if (isPackedStringType(type))
+            return 2 * Long.BYTES;
+        else if (type.logicalType == QueryVariableType.LogicalType.S_FL_BIN)
+            return REFERENCE_BYTES + ARRAY_HEADER_BYTES + type.byteWidth;
+        else if (type == QueryVariableType.S_VARCHAR)
+            return REFERENCE_BYTES + ARRAY_HEADER_BYTES + ESTIMATED_VARCHAR_BYTES;
+
+        return switch (type.logicalType) {
+            case P_BOOLEAN -> 1;
+            case P_INT, P_INT_DATE -> 4;
+            case P_DOUBLE, P_LONG -> 8;
+            default -> throw new UnsupportedOperationException(
+                    "CommonMapGenerator.estimatedValueBytes does not support type " + type);
+        };
+    }
+
+    /**
+     * Method to estimate the number of bytes an object occupies on the heap.
+     * @param fieldBytes The total number of bytes of the fields of the object.
+     * @return The estimated number of bytes occupied by the object, including its header and padding.
+     */
+    public static int estimatedObjectBytes(int fieldBytes) {
+        return (OBJECT_HEADER_BYTES + fieldBytes + 7) & ~7;
+    }
+
+    /**
+     * Method to add the fields required for memory accounting to a generated map type.
+     * @param mapDeclaration The map type to add the fields to.
+     */
+    public static void addMemoryAccountingFields(Java.LocalClassDeclaration mapDeclaration) {
+        mapDeclaration.addFieldDeclaration(
+                JaninoClassGen.createPrivateFieldDeclaration(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "QueryMemoryAccountant"),
+                        JaninoVariableGen.createSimpleVariableDeclaration(JaninoGeneralGen.getLocation(), MEMORY_ACCOUNTANT_NAME)
+                )
+        );
+
+        mapDeclaration.addFieldDeclaration(
+                JaninoClassGen.createPrivateFieldDeclaration(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "String"),
+                        JaninoVariableGen.createSimpleVariableDeclaration(JaninoGeneralGen.getLocation(), MEMORY_OWNER_NAME)
+                )
+        );
+    }
+
+    /**
+     * Method to add the fields counting the resizes of a generated map to its type.
+     * @param mapDeclaration The map type to add the fields to.
+     */
+    public static void addResizeCounterFields(Java.LocalClassDeclaration mapDeclaration) {
+        for (String counterName : new String[] { GROW_COUNT_NAME, REHASH_COUNT_NAME }) {
+            mapDeclaration.addFieldDeclaration(
+                    JaninoClassGen.createPrivateFieldDeclaration(
+                            JaninoGeneralGen.getLocation(),
+                            JaninoGeneralGen.createPrimitiveType(JaninoGeneralGen.getLocation(), Java.Primitive.INT),
+                            JaninoVariableGen.createSimpleVariableDeclaration(JaninoGeneralGen.getLocation(), counterName)
+                    )
+            );
+        }
+    }
+
+    /**
+     * Method to create a statement which increments a resize counter of a generated map. Since the
+     * statement is only executed when the map resizes, it does not affect the cost of map accesses.
+     * @param counterName The name of the counter to increment.
+     * @return The statement {@code this.[counterName]++;}.
+     */
+    public static Java.Statement createResizeCounterIncrementStm(String counterName) {
+        return JaninoOperatorGen.postIncrementStm(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), counterName)
+        );
+    }
+
+    /**
+     * Method to create the statement which starts the Java Flight Recorder event of a rehash of a
+     * generated map. It should be the first statement of the rehash method.
+     * @param hashTableName The name of the field storing the hash-table of the map.
+     * @param keyCount The number of keys in the hash-table.
+     * @return The statement {@code HashTableRehashEvent rehashEvent = HashTableRehashEvent.start(
+     * this.memoryAccountant.getQueryId(), this.memoryOwner, [keyCount], this.[hashTableName].length);}.
+     */
+    public static Java.Statement createRehashEventStartStm(String hashTableName, Java.Rvalue keyCount) {
+        return JaninoVariableGen.createLocalVariable(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "HashTableRehashEvent"),
+                REHASH_EVENT_NAME,
+                JaninoMethodGen.createMethodInvocation(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "HashTableRehashEvent"),
+                        "start",
+                        new Java.Rvalue[] {
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), MEMORY_ACCOUNTANT_NAME),
+                                        "getQueryId"
+                                ),
+                                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), MEMORY_OWNER_NAME),
+                                keyCount,
+                                createArrayLengthAccess(hashTableName)
+                        }
+                )
+        );
+    }
+
+    /**
+     * Method to create the statement which finishes the Java Flight Recorder event of a rehash of
+     * a generated map. It should be the last statement of the rehash method.
+     * @param hashTableName The name of the field storing the hash-table of the map.
+     * @return The statement {@code rehashEvent.finish(this.[hashTableName].length);}.
+     */
+    public static Java.Statement createRehashEventFinishStm(String hashTableName) {
+        return JaninoMethodGen.createMethodInvocationStm(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), REHASH_EVENT_NAME),
+                "finish",
+                new Java.Rvalue[] { createArrayLengthAccess(hashTableName) }
+        );
+    }
+
+    /**
+     * Method to create an expression obtaining the length of an array field of a generated map.
+     * @param arrayName The name of the array field.
+     * @return The expression {@code this.[arrayName].length}.
+     */
+    private static Java.Rvalue createArrayLengthAccess(String arrayName) {
+        return new Java.FieldAccessExpression(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), arrayName),
+                "length"
+        );
+    }
+
+    /**
+     * Method to add the method which records the hash-table statistics of a generated map in an
+     * {@link AethraDB.evaluation.general_support.OperatorProfile} to the map type.
+     * @param mapDeclaration The map type to add the method to.
+     * @param statisticsComputation The statements computing the arguments of the statistics call.
+     * @param hashTableArguments The arguments describing the hash-table, which precede the resize counters.
+     */
+    public static void addRecordStatisticsMethod(
+            Java.LocalClassDeclaration mapDeclaration,
+            List<Java.Statement> statisticsComputation,
+            Java.Rvalue... hashTableArguments
+    ) {
+        Java.Rvalue[] arguments = new Java.Rvalue[hashTableArguments.length + 2];
+        System.arraycopy(hashTableArguments, 0, arguments, 0, hashTableArguments.length);
+        arguments[hashTableArguments.length] =
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), GROW_COUNT_NAME);
+        arguments[hashTableArguments.length + 1] =
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), REHASH_COUNT_NAME);
+
+        // profile.recordHashTable([hashTableArguments], this.growCount, this.rehashCount);
+        List<Java.Statement> methodBody = new ArrayList<>(statisticsComputation);
+        methodBody.add(
+                JaninoMethodGen.createMethodInvocationStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "profile"),
+                        "recordHashTable",
+                        arguments
+                )
+        );
+
+        // public void recordStatistics(OperatorProfile profile)
+        JaninoMethodGen.createMethod(
+                JaninoGeneralGen.getLocation(),
+                mapDeclaration,
+                Access.PUBLIC,
+                JaninoGeneralGen.createPrimitiveType(JaninoGeneralGen.getLocation(), Java.Primitive.VOID),
+                RECORD_STATISTICS_METHOD_NAME,
+                JaninoMethodGen.createFormalParameters(
+                        JaninoGeneralGen.getLocation(),
+                        new Java.FunctionDeclarator.FormalParameter[] {
+                                JaninoMethodGen.createFormalParameter(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "OperatorProfile"),
+                                        "profile"
+                                )
+                        }
+                ),
+                methodBody
+        );
+    }
+
+    /**
+     * Method to create the formal parameters of a generated map constructor, prefixed by the
+     * parameters required for memory accounting.
+     * @param parameters The map-specific formal parameters of the constructor.
+     * @return The formal parameters of the constructor.
+     */
+    public static Java.FunctionDeclarator.FormalParameters createMemoryAccountingFormalParameters(
+            Java.FunctionDeclarator.FormalParameter... parameters) {
+        var formalParameters = new Java.FunctionDeclarator.FormalParameter[parameters.length + 2];
+        formalParameters[0] = JaninoMethodGen.createFormalParameter(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "QueryMemoryAccountant"),
+                MEMORY_ACCOUNTANT_NAME
+        );
+        formalParameters[1] = JaninoMethodGen.createFormalParameter(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "String"),
+                MEMORY_OWNER_NAME
+        );
+        System.arraycopy(parameters, 0, formalParameters, 2, parameters.length);
+        return JaninoMethodGen.createFormalParameters(JaninoGeneralGen.getLocation(), formalParameters);
+    }
+
+    /**
+     * Method to create the arguments of a generated map constructor invocation, prefixed by the
+     * parameters required for memory accounting of the invoking constructor.
+     * @param arguments The map-specific arguments of the constructor invocation.
+     * @return The arguments of the constructor invocation.
+     */
+    public static Java.Rvalue[] createMemoryAccountingArguments(Java.Rvalue... arguments) {
+        Java.Rvalue[] constructorArguments = new Java.Rvalue[arguments.length + 2];
+        constructorArguments[0] = JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), MEMORY_ACCOUNTANT_NAME);
+        constructorArguments[1] = JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), MEMORY_OWNER_NAME);
+        System.arraycopy(arguments, 0, constructorArguments, 2, arguments.length);
+        return constructorArguments;
+    }
+
+    /**
+     * Method to create the statements which store the memory accounting parameters of a generated
+     * map constructor in the fields of the map.
+     * @return The statements initialising the memory accounting fields.
+     */
+    public static List<Java.Statement> createMemoryAccountingInitialisation() {
+        List<Java.Statement> initialisation = new ArrayList<>();
+
+        // this.memoryAccountant = memoryAccountant;
+        initialisation.add(
+                JaninoVariableGen.createVariableAssignmentStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), MEMORY_ACCOUNTANT_NAME),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), MEMORY_ACCOUNTANT_NAME)
+                )
+        );
+
+        // this.memoryOwner = memoryOwner;
+        initialisation.add(
+                JaninoVariableGen.createVariableAssignmentStm(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), MEMORY_OWNER_NAME),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), MEMORY_OWNER_NAME)
+                )
+        );
+
+        return initialisation;
+    }
+
+    /**
+     * Method to create a statement which reserves memory for a generated map at its accountant.
+     * The statement should be executed before the memory is actually allocated, so that a map
+     * exceeding the memory budget of the query fails before the JVM runs out of memory.
+     * @param slotCount The number of slots for which memory is reserved.
+     * @param bytesPerSlot The estimated number of bytes per slot.
+     * @return The statement {@code this.memoryAccountant.reserve(this.memoryOwner, (long) slotCount * bytesPerSlot);}.
+     */
+    public static Java.Statement createMemoryReservationStm(Java.Rvalue slotCount, int bytesPerSlot) {
+        return JaninoMethodGen.createMethodInvocationStm(
+                JaninoGeneralGen.getLocation(),
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), MEMORY_ACCOUNTANT_NAME),
+                "reserve",
+                new Java.Rvalue[] {
+                        JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), MEMORY_OWNER_NAME),
+                        JaninoOperatorGen.mul(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createCast(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createPrimitiveType(JaninoGeneralGen.getLocation(), Java.Primitive.LONG),
+                                        slotCount
+                                ),
+                                JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), bytesPerSlot)
+                        )
+                }
+        );
+    }
+
+    /**
+     * Method to create the arguments with which query code should instantiate a generated map, so
+     * that the map accounts its memory usage at the
+     * {@link AethraDB.evaluation.codegen.infrastructure.data.QueryMemoryAccountant} of the query.
+     * @param memoryOwner The owner to which the map should attribute its memory usage.
+     * @return The arguments {@code cCtx.getMemoryAccountant(), "[memoryOwner]"}.
+     */
+    public static Java.Rvalue[] createMapInstantiationArguments(String memoryOwner) {
+        return new Java.Rvalue[] {
+                JaninoMethodGen.createMethodInvocation(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "cCtx"),
+                        "getMemoryAccountant"
+                ),
+                JaninoGeneralGen.createStringLiteral(JaninoGeneralGen.getLocation(), "\"" + memoryOwner + "\"")
+        };
+    }
+
 }
@@ -1,7 +1,8 @@
 package AethraDB.evaluation.general_support.hashmaps;
 
 /**
- * The standard hash function used for computing the hash value of a double column.
+ * The standard hash function used for computing the hash value of a double column, which is
+ * defined by the selected {@link HashFunctionFamily}.
  */
 public final class Double_Hash_Function {
 
@@ -13,13 +14,12 @@ public final class Double_Hash_Function {
     }
 
     /**
-     * Method to compute the pre-hash of a double key.
+     * Method to compute the pre-hash of a double key using the selected {@link HashFunctionFamily}.
      * @param key The key to compute the pre-hash value for.
      * @return The pre-hash value.
      */
     public static long preHash(double key) {
-        // TODO: consider using something more efficient
-        return Double.hashCode(key);
+        return HashFunctionFamily.SELECTED.preHashDouble(key);
     }
 
 }
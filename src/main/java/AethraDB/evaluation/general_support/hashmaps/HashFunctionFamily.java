@@ -0,0 +1,169 @@
+package AethraDB.evaluation.general_support.hashmaps;
+
+/**
+ * Enum defining the families of hash functions that the {@link Int_Hash_Function}, the
+ * {@link Double_Hash_Function} and the combination of multi-column keys can be based on. The family
+ * is selected once per process via the {@code HASH_FUNCTION_PROPERTY} system property, so that all
+ * generated maps, vectorised hashing primitives and runtime hash tables agree on the pre-hash value
+ * of each key. As the selected family is a static final field, the JIT compiler folds the family
+ * checks in the hash functions away.
+ *
+ * Generated maps derive the bucket of a key from the low bits of its pre-hash value (i.e. they
+ * compute {@code preHash & (hashTableLength - 1)}), hence each family needs to ensure that the low
+ * bits of its pre-hash values depend on all bits of the key.
+ */
+public enum HashFunctionFamily {
+
+    /**
+     * The universal hash function {@code (a * key + b) mod p} (CLRS page 267) for integer keys,
+     * {@link Double#hashCode} for double keys and XOR for combining multi-column keys. This family
+     * requires a 64-bit modulo per key and maps the key pairs (x, y) and (y, x), as well as all
+     * pairs (x, x), to the same pre-hash value. It is retained for comparison purposes.
+     */
+    UNIVERSAL,
+
+    /**
+     * Multiply-shift hashing: the key is multiplied by an odd 64-bit constant, after which the
+     * high half of the product is folded into its low half, as the low bits of a product only
+     * depend on the low bits of the key. Requires a single multiplication per key.
+     */
+    MULTIPLY_SHIFT,
+
+    /**
+     * The 64-bit finaliser of MurmurHash3, which achieves full avalanche at the cost of two
+     * multiplications per key. Intended for key distributions on which multiply-shift hashing
+     * still causes clustering.
+     */
+    MURMUR_FINALISER;
+
+    /**
+     * The system property which can be used to select the hash function family.
+     */
+    public static final String HASH_FUNCTION_PROPERTY = "aethradb.hash_function";
+
+    /**
+     * The hash function family that is used when none is configured.
+     */
+    public static final HashFunctionFamily DEFAULT_FAMILY = MULTIPLY_SHIFT;
+
+    /**
+     * The hash function family used by all hash functions in the current process.
+     */
+    public static final HashFunctionFamily SELECTED = determineSelectedFamily();
+
+    /**
+     * The multiplier used for multiply-shift hashing and for combining pre-hash values
+     * (the 64-bit golden ratio).
+     */
+    private static final long GOLDEN_RATIO_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The first multiplier of the MurmurHash3 64-bit finaliser.
+     */
+    private static final long MURMUR_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+
+    /**
+     * The second multiplier of the MurmurHash3 64-bit finaliser.
+     */
+    private static final long MURMUR_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+
+    /**
+     * The distance by which a pre-hash value is rotated when combining it with the pre-hash value
+     * of the next key column, which moves the well-mixed high bits of the product into the low bits.
+     */
+    private static final int COMBINE_ROTATION = 31;
+
+    /**
+     * Method to determine the hash function family to use from the system properties.
+     * @return The configured hash function family, or {@code DEFAULT_FAMILY} if none is configured.
+     */
+    private static HashFunctionFamily determineSelectedFamily() {
+        String familyName = System.getProperty(HASH_FUNCTION_PROPERTY);
+        if (familyName == null)
+            return DEFAULT_FAMILY;
+
+        for (HashFunctionFamily family : values()) {
+            if (family.name().equalsIgnoreCase(familyName))
+                return family;
+        }
+
+        throw new IllegalArgumentException(
+                "HashFunctionFamily.determineSelectedFamily does not support the hash function family " + familyName);
+    }
+
+    /**
+     * Method to compute the pre-hash of an integer key using this family.
+     * @param key The key to compute the pre-hash value for.
+     * @return The pre-hash value of {@code key}.
+     */
+    public long preHashInt(int key) {
+        if (this == UNIVERSAL)
+            return (Int_Hash_Function.hashConstantA * key + Int_Hash_Function.hashConstantB) % Int_Hash_Function.hashConstantP;
+
+        return this.mixWord(key);
+    }
+
+    /**
+     * Method to compute the pre-hash of a double key using this family. As generated maps compare
+     * double keys using {@code ==}, {@code -0.0} and {@code 0.0} are mapped to the same value.
+     * @param key The key to compute the pre-hash value for.
+     * @return The pre-hash value of {@code key}.
+     */
+    public long preHashDouble(double key) {
+        // Adding positive zero turns negative zero into positive zero and leaves other values intact
+        double normalisedKey = key + 0.0d;
+        if (this == UNIVERSAL)
+            return Double.hashCode(normalisedKey);
+
+        return this.mixWord(Double.doubleToLongBits(normalisedKey));
+    }
+
+    /**
+     * Method to combine the pre-hash value of the preceding columns of a multi-column key with the
+     * pre-hash value of the next column using this family. Except for the {@code UNIVERSAL} family,
+     * this operation is not commutative, so that keys whose columns contain the same values in a
+     * different order obtain different pre-hash values.
+     * @param preHash The pre-hash value of the preceding key columns.
+     * @param nextPreHash The pre-hash value of the next key column.
+     * @return The pre-hash value of the preceding key columns and the next key column.
+     */
+    public long combinePreHashes(long preHash, long nextPreHash) {
+        if (this == UNIVERSAL)
+            return preHash ^ nextPreHash;
+
+        return Long.rotateLeft(preHash * GOLDEN_RATIO_MULTIPLIER, COMBINE_ROTATION) ^ nextPreHash;
+    }
+
+    /**
+     * Method to mix a 64-bit word into a pre-hash value using this (non-universal) family.
+     * @param word The word to mix.
+     * @return The pre-hash value of {@code word}.
+     */
+    private long mixWord(long word) {
+        if (this == MULTIPLY_SHIFT) {
+            long product = word * GOLDEN_RATIO_MULTIPLIER;
+            return product ^ (product >>> 32);
+        }
+
+        // MurmurHash3 fmix64
+        long hash = word;
+        hash ^= hash >>> 33;
+        hash *= MURMUR_MULTIPLIER_1;
+        hash ^= hash >>> 33;
+        hash *= MURMUR_MULTIPLIER_2;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Method to combine the pre-hash values of two key columns using the selected family. Generated
+     * code uses this method to extend the pre-hash value of a multi-column key.
+     * @param preHash The pre-hash value of the preceding key columns.
+     * @param nextPreHash The pre-hash value of the next key column.
+     * @return The pre-hash value of the preceding key columns and the next key column.
+     */
+    public static long combine(long preHash, long nextPreHash) {
+        return SELECTED.combinePreHashes(preHash, nextPreHash);
+    }
+
+}
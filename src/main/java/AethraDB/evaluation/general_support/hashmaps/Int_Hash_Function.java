@@ -19,11 +19,12 @@ import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTy
 import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
 
 /**
- * The standard hash function used for computing the hash value of an integer column.
- * The hash function is a fixed universal hash function (CLRS page 267) based on the maximum integer
- * value, as this is the maximum number of elements which can occur in an array.
+ * The standard hash function used for computing the hash value of an integer column. The hash
+ * function is defined by the selected {@link HashFunctionFamily}. For the universal family, it is a
+ * fixed universal hash function (CLRS page 267) based on the maximum integer value, as this is the
+ * maximum number of elements which can occur in an array.
  *
- * It uses the following constants:
+ * The universal family uses the following constants:
  *  - p = 4 294 967 459 > Integer.MAX_VALUE
  *  - a = 3 044 339 450 (random number between 1 and p - 1)
  *  - b = 4 157 137 050 (random number between 0 and p - 1)
@@ -53,13 +54,13 @@ public final class Int_Hash_Function {
     public static final long hashConstantB = 4_157_137_050L;
 
     /**
-     * Method to compute the pre-hash of an integer key. That is, compute the value
-     * {@code (a * key + b) mod p} (which is thus not truncated to the appropriate hash length.
+     * Method to compute the pre-hash of an integer key using the selected {@link HashFunctionFamily}
+     * (which is thus not truncated to the appropriate hash length).
      * @param key The key to compute the pre-hash value for.
-     * @return The pre-hash value {@code (a * key + b) mod p}.
+     * @return The pre-hash value of {@code key}.
      */
     public static long preHash(int key) {
-        return (hashConstantA * key + hashConstantB) % hashConstantP;
+        return HashFunctionFamily.SELECTED.preHashInt(key);
     }
 
     /**
@@ -88,126 +89,135 @@ public final class Int_Hash_Function {
 
         // Handling depends on the ordinal type that we receive
         if (keyColumnAccessPath instanceof SIMDLoopAccessPath kcap_slap) {
-            // Initialise the integer SIMD key vector
-            // IntVector [SIMD_Key_Vector_Int] = IntVector.fromSegment(
-            //      [kcap_slap.readVectorSpecies()],
-            //      [kcap_slap.readMemorySegment()],
-            //      [kcap_slap.readArrowVectorOffset()] * [kcap_slap.readArrowVector().TYPE_WIDTH],
-            //      java.nio.ByteOrder.LITTLE_ENDIAN,
-            //      [kcap_slap.readSIMDMask()]
-            // );
-            String SIMDIntKeyVectorName = cCtx.defineVariable("SIMD_Key_Vector_Int");
-            result.generatedCode.add(
-                    JaninoVariableGen.createLocalVariable(
-                            JaninoGeneralGen.getLocation(),
-                            toJavaType(JaninoGeneralGen.getLocation(), kcap_slap.getType()),
-                            SIMDIntKeyVectorName,
-                            JaninoMethodGen.createMethodInvocation(
-                                    JaninoGeneralGen.getLocation(),
-                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "oCtx"),
-                                    "createIntVector",
-                                    new Java.Rvalue[]{
-                                            kcap_slap.readVectorSpecies(),
-                                            kcap_slap.readMemorySegment(),
-                                            JaninoOperatorGen.mul(
-                                                    JaninoGeneralGen.getLocation(),
-                                                    kcap_slap.readArrowVectorOffset(),
-                                                    JaninoGeneralGen.createAmbiguousNameRef(
-                                                            JaninoGeneralGen.getLocation(),
-                                                            kcap_slap.getArrowVectorAccessPath().getVariableName() + ".TYPE_WIDTH"
-                                                    )
-                                            ),
-                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "java.nio.ByteOrder.LITTLE_ENDIAN"),
-                                            kcap_slap.readSIMDMask()
-                                    }
-                            )
-                    )
-            );
+            // The SIMD-ed pre-hash computation below implements the universal hash function family
+            // only. For the other families, the pre-hash values are computed per element in the
+            // flattened loop using the scalar hash function, which keeps them consistent with the
+            // pre-hash values computed by the hash-maps themselves.
+            boolean simdPreHash = HashFunctionFamily.SELECTED == HashFunctionFamily.UNIVERSAL;
+            String preHashValuesName = null;
 
-            // Cast the SIMD int key vector to a SIMD long key vector
-            String SIMDLongKeyVectorName = cCtx.defineVariable("SIMD_Key_Vector_Long");
-            // TODO: consider replacing getVectorSpeciesLong() with an allocated variable.
-            // LongVector [SIMD_Key_Vector_Long] = (LongVector) [SIMD_Key_Vector_Int].castShape([oCtx.getVectorSpeciesLong()], 0);
-            result.generatedCode.add(
-                    JaninoVariableGen.createLocalVariable(
-                            JaninoGeneralGen.getLocation(),
-                            JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
-                            SIMDLongKeyVectorName,
-                            JaninoGeneralGen.createCast(
-                                    JaninoGeneralGen.getLocation(),
-                                    JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
-                                    JaninoMethodGen.createMethodInvocation(
-                                            JaninoGeneralGen.getLocation(),
-                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDIntKeyVectorName),
-                                            "castShape",
-                                            new Java.Rvalue[]{
-                                                    JaninoMethodGen.createMethodInvocation(
-                                                            JaninoGeneralGen.getLocation(),
-                                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "oCtx"),
-                                                            "getVectorSpeciesLong"
-                                                    ),
-                                                    JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), 0)
-                                            }
-                                    )
-                            )
-                    )
-            );
+            if (simdPreHash) {
+                // Initialise the integer SIMD key vector
+                // IntVector [SIMD_Key_Vector_Int] = IntVector.fromSegment(
+                //      [kcap_slap.readVectorSpecies()],
+                //      [kcap_slap.readMemorySegment()],
+                //      [kcap_slap.readArrowVectorOffset()] * [kcap_slap.readArrowVector().TYPE_WIDTH],
+                //      java.nio.ByteOrder.LITTLE_ENDIAN,
+                //      [kcap_slap.readSIMDMask()]
+                // );
+                String SIMDIntKeyVectorName = cCtx.defineVariable("SIMD_Key_Vector_Int");
+                result.generatedCode.add(
+                        JaninoVariableGen.createLocalVariable(
+                                JaninoGeneralGen.getLocation(),
+                                toJavaType(JaninoGeneralGen.getLocation(), kcap_slap.getType()),
+                                SIMDIntKeyVectorName,
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "oCtx"),
+                                        "createIntVector",
+                                        new Java.Rvalue[]{
+                                                kcap_slap.readVectorSpecies(),
+                                                kcap_slap.readMemorySegment(),
+                                                JaninoOperatorGen.mul(
+                                                        JaninoGeneralGen.getLocation(),
+                                                        kcap_slap.readArrowVectorOffset(),
+                                                        JaninoGeneralGen.createAmbiguousNameRef(
+                                                                JaninoGeneralGen.getLocation(),
+                                                                kcap_slap.getArrowVectorAccessPath().getVariableName() + ".TYPE_WIDTH"
+                                                        )
+                                                ),
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "java.nio.ByteOrder.LITTLE_ENDIAN"),
+                                                kcap_slap.readSIMDMask()
+                                        }
+                                )
+                        )
+                );
 
-            // Compute the a * key part of the pre-hashing
-            // LongVector [SIMD_a_mul_key_vector] = [SIMD_Key_Vector_Long].mul(Int_Hash_Function.hashConstantA);
-            String SIMDAMulKeyVectorName = cCtx.defineVariable("SIMD_a_mul_key_vector");
-            result.generatedCode.add(
-                    JaninoVariableGen.createLocalVariable(
-                            JaninoGeneralGen.getLocation(),
-                            JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
-                            SIMDAMulKeyVectorName,
-                            JaninoMethodGen.createMethodInvocation(
-                                    JaninoGeneralGen.getLocation(),
-                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDLongKeyVectorName),
-                                    "mul",
-                                    new Java.Rvalue[]{
-                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function.hashConstantA")
-                                    }
-                            )
-                    )
-            );
+                // Cast the SIMD int key vector to a SIMD long key vector
+                String SIMDLongKeyVectorName = cCtx.defineVariable("SIMD_Key_Vector_Long");
+                // TODO: consider replacing getVectorSpeciesLong() with an allocated variable.
+                // LongVector [SIMD_Key_Vector_Long] = (LongVector) [SIMD_Key_Vector_Int].castShape([oCtx.getVectorSpeciesLong()], 0);
+                result.generatedCode.add(
+                        JaninoVariableGen.createLocalVariable(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
+                                SIMDLongKeyVectorName,
+                                JaninoGeneralGen.createCast(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
+                                        JaninoMethodGen.createMethodInvocation(
+                                                JaninoGeneralGen.getLocation(),
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDIntKeyVectorName),
+                                                "castShape",
+                                                new Java.Rvalue[]{
+                                                        JaninoMethodGen.createMethodInvocation(
+                                                                JaninoGeneralGen.getLocation(),
+                                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "oCtx"),
+                                                                "getVectorSpeciesLong"
+                                                        ),
+                                                        JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), 0)
+                                                }
+                                        )
+                                )
+                        )
+                );
 
-            // Compute the a * key + b part of the pre-hashing
-            // LongVector [SIMD_a_mul_key_plus_b_vector] = [SIMD_a_mul_key_vector].add(Int_Hash_Function.hashConstantB);
-            String SIMDAMulKeyPlusBVectorName = cCtx.defineVariable("SIMD_a_mul_key_plus_b_vector");
-            result.generatedCode.add(
-                    JaninoVariableGen.createLocalVariable(
-                            JaninoGeneralGen.getLocation(),
-                            JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
-                            SIMDAMulKeyPlusBVectorName,
-                            JaninoMethodGen.createMethodInvocation(
-                                    JaninoGeneralGen.getLocation(),
-                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDAMulKeyVectorName),
-                                    "add",
-                                    new Java.Rvalue[]{
-                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function.hashConstantB")
-                                    }
-                            )
-                    )
-            );
+                // Compute the a * key part of the pre-hashing
+                // LongVector [SIMD_a_mul_key_vector] = [SIMD_Key_Vector_Long].mul(Int_Hash_Function.hashConstantA);
+                String SIMDAMulKeyVectorName = cCtx.defineVariable("SIMD_a_mul_key_vector");
+                result.generatedCode.add(
+                        JaninoVariableGen.createLocalVariable(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
+                                SIMDAMulKeyVectorName,
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDLongKeyVectorName),
+                                        "mul",
+                                        new Java.Rvalue[]{
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function.hashConstantA")
+                                        }
+                                )
+                        )
+                );
 
-            // Still need to take the final computed value mod p which is done below during flattening
-            // Flatten the SIMD processing using a for-loop
-            // Get the pre-hash values as an array
-            // long[] pre_hash_values = [keyColumnPreHashAccessPath].toLongArray();
-            String preHashValuesName = cCtx.defineVariable("pre_hash_values");
-            result.generatedCode.add(
-                    JaninoVariableGen.createLocalVariable(
-                            JaninoGeneralGen.getLocation(),
-                            JaninoGeneralGen.createPrimitiveArrayType(JaninoGeneralGen.getLocation(), Java.Primitive.LONG),
-                            preHashValuesName,
-                            JaninoMethodGen.createMethodInvocation(
-                                    JaninoGeneralGen.getLocation(),
-                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDAMulKeyPlusBVectorName),
-                                    "toLongArray"
-                            )
-                    )
-            );
+                // Compute the a * key + b part of the pre-hashing
+                // LongVector [SIMD_a_mul_key_plus_b_vector] = [SIMD_a_mul_key_vector].add(Int_Hash_Function.hashConstantB);
+                String SIMDAMulKeyPlusBVectorName = cCtx.defineVariable("SIMD_a_mul_key_plus_b_vector");
+                result.generatedCode.add(
+                        JaninoVariableGen.createLocalVariable(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createReferenceType(JaninoGeneralGen.getLocation(), "jdk.incubator.vector.LongVector"),
+                                SIMDAMulKeyPlusBVectorName,
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDAMulKeyVectorName),
+                                        "add",
+                                        new Java.Rvalue[]{
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function.hashConstantB")
+                                        }
+                                )
+                        )
+                );
+
+                // Still need to take the final computed value mod p which is done below during flattening
+                // Flatten the SIMD processing using a for-loop
+                // Get the pre-hash values as an array
+                // long[] pre_hash_values = [keyColumnPreHashAccessPath].toLongArray();
+                preHashValuesName = cCtx.defineVariable("pre_hash_values");
+                result.generatedCode.add(
+                        JaninoVariableGen.createLocalVariable(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createPrimitiveArrayType(JaninoGeneralGen.getLocation(), Java.Primitive.LONG),
+                                preHashValuesName,
+                                JaninoMethodGen.createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), SIMDAMulKeyPlusBVectorName),
+                                        "toLongArray"
+                                )
+                        )
+                );
+            }
 
             // for (int [simd_vector_i] = 0; [simd_vector_i] < [kcap_slap.readSIMDVectorLengthVariable()]; [simd_vector_i]++) { [simdForLoopBody] }
             String simdVectorIName = cCtx.defineVariable("simd_vector_i");
@@ -262,22 +272,37 @@ public final class Int_Hash_Function {
             );
 
             // Create a variable for the pre-hash value
-            // long pre_hash_value = pre_hash_values[simd_vector_i] % Int_Hash_Function.hashConstantP;
+            // $ if simdPreHash $
+            //   long pre_hash_value = pre_hash_values[simd_vector_i] % Int_Hash_Function.hashConstantP;
+            // $ else $
+            //   long pre_hash_value = Int_Hash_Function.preHash(flattened_key);
+            Java.Rvalue preHashValue;
+            if (simdPreHash) {
+                preHashValue = JaninoOperatorGen.mod(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createArrayElementAccessExpr(
+                                JaninoGeneralGen.getLocation(),
+                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), preHashValuesName),
+                                result.simdVectorIAp.read()
+                        ),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function.hashConstantP")
+                );
+            } else {
+                preHashValue = JaninoMethodGen.createMethodInvocation(
+                        JaninoGeneralGen.getLocation(),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function"),
+                        "preHash",
+                        new Java.Rvalue[] { result.keyColumnAccessPath.read() }
+                );
+            }
+
             result.keyColumnPreHashAccessPath = new ScalarVariableAccessPath(cCtx.defineVariable("pre_hash_value"), P_LONG);
             result.flattenedForLoopBody.addStatement(
                     JaninoVariableGen.createLocalVariable(
                             JaninoGeneralGen.getLocation(),
                             toJavaType(JaninoGeneralGen.getLocation(), result.keyColumnPreHashAccessPath.getType()),
                             result.keyColumnPreHashAccessPath.getVariableName(),
-                            JaninoOperatorGen.mod(
-                                    JaninoGeneralGen.getLocation(),
-                                    JaninoGeneralGen.createArrayElementAccessExpr(
-                                            JaninoGeneralGen.getLocation(),
-                                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), preHashValuesName),
-                                            result.simdVectorIAp.read()
-                                    ),
-                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Int_Hash_Function.hashConstantP")
-                            )
+                            preHashValue
                     )
             );
 
@@ -44,7 +44,27 @@ import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoOperatorGe
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createSimpleVariableDeclaration;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.ARRAY_HEADER_BYTES;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.GROW_COUNT_NAME;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.REFERENCE_BYTES;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.REHASH_COUNT_NAME;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.addMemoryAccountingFields;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.addRecordStatisticsMethod;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.addResizeCounterFields;
 import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMapAssignmentRValue;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingArguments;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingFormalParameters;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingInitialisation;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryReservationStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createPackedWords;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createRehashEventFinishStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createRehashEventStartStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createResizeCounterIncrementStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.estimatedObjectBytes;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createUnpackedFieldRead;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.estimatedValueBytes;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.isPackedStringType;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.packedWordFieldName;
 
 /**
  * This class provides methods to generate a hash-map implementation for mapping some primitive type
@@ -53,6 +73,9 @@ import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.cr
  * for the given key type:
  *  - For int keys, the map uses the {@link Int_Hash_Function}.
  *  - Other key types are currently not yet supported.
+ * Short fixed-length binary values are stored in the value records as two packed {@code long} words
+ * (see {@link AethraDB.evaluation.general_support.PackedStrings}), which are only unpacked into a
+ * byte array when a value is read via {@code createValueFieldRead}.
  */
 public class KeyMultiRecordMapGenerator {
 
@@ -120,6 +143,21 @@ public class KeyMultiRecordMapGenerator {
      */
     public final String[] valueFieldNames;
 
+    /**
+     * Whether each value is stored as two packed words rather than as its {@code valueTypes} type.
+     */
+    private final boolean[] packedValues;
+
+    /**
+     * The estimated number of bytes that the map reserves per key slot of its key and record arrays.
+     */
+    private final int bytesPerKeySlot;
+
+    /**
+     * The estimated number of bytes that the map reserves per value record slot of a key.
+     */
+    private final int bytesPerValueRecordSlot;
+
     /**
      * Some helper definitions to enhance consistency.
      */
@@ -173,8 +211,26 @@ public class KeyMultiRecordMapGenerator {
 
         this.keysAP = new ArrayAccessPath("keys", primitiveArrayTypeForPrimitive(this.keyType));
         this.valueFieldNames = new String[valueTypes.length];
-        for (int i = 0; i < valueFieldNames.length; i++)
+        this.packedValues = new boolean[valueTypes.length];
+        for (int i = 0; i < valueFieldNames.length; i++) {
             this.valueFieldNames[i] = "value_ord_" + i;
+            this.packedValues[i] = isPackedStringType(valueTypes[i]);
+        }
+
+        // Estimate the memory footprint of the map, which is reserved at the memory accountant of
+        // the query whenever the map allocates or grows its arrays
+        int valueRecordFieldBytes = 0;
+        for (QueryVariableType valueType : valueTypes)
+            valueRecordFieldBytes += estimatedValueBytes(valueType);
+        this.bytesPerValueRecordSlot = REFERENCE_BYTES + estimatedObjectBytes(valueRecordFieldBytes);
+
+        int keySlotBytes = estimatedValueBytes(keyType) + 4 + 4; // keys, keysRecordCount and next
+        if (valueTypes.length > 0) {
+            keySlotBytes += REFERENCE_BYTES
+                    + ((ARRAY_HEADER_BYTES + initialRecordsPerKeyCount * REFERENCE_BYTES + 7) & ~7)
+                    + initialRecordsPerKeyCount * (this.bytesPerValueRecordSlot - REFERENCE_BYTES);
+        }
+        this.bytesPerKeySlot = keySlotBytes;
     }
 
     /**
@@ -207,6 +263,7 @@ public class KeyMultiRecordMapGenerator {
         this.generateRehashMethod();
         this.generateGetIndexMethod();
         this.generateResetMethod();
+        this.generateRecordStatisticsMethod();
 
         // Mark that generation was finished and return the generated type
         this.generationFinished = true;
@@ -297,6 +354,11 @@ public class KeyMultiRecordMapGenerator {
                 )
         );
 
+        // Add the variables used for accounting the memory of the map
+        addMemoryAccountingFields(this.mapDeclaration);
+
+        // Add the variables counting the resizes of the map, which are reported when profiling
+        addResizeCounterFields(this.mapDeclaration);
     }
 
     /**
@@ -318,26 +380,22 @@ public class KeyMultiRecordMapGenerator {
                 new Java.Type[0]
         );
 
-        // Create a field for each section of the values
-        for (int i = 0; i < this.valueFieldNames.length; i++) {
+        // Create a field for each section of the values (or two for each packed value)
+        for (Java.FunctionDeclarator.FormalParameter valueField : this.createValueFormalParameters()) {
             this.valueRecordDeclaration.addFieldDeclaration(
                     JaninoClassGen.createPublicFinalFieldDeclaration(
                             JaninoGeneralGen.getLocation(),
-                            toJavaType(getLocation(), this.valueTypes[i]),
+                            valueField.type,
                             createSimpleVariableDeclaration(
                                     JaninoGeneralGen.getLocation(),
-                                    this.valueFieldNames[i]
+                                    valueField.name
                             )
                     )
             );
         }
 
         // Create the constructor of the record which initialises all fields according to the parameter value
-        var formalParameters = new Java.FunctionDeclarator.FormalParameter[this.valueFieldNames.length];
-        for (int i = 0; i < this.valueFieldNames.length; i++) {
-            formalParameters[i] =
-                    createFormalParameter(getLocation(), toJavaType(getLocation(), this.valueTypes[i]), this.valueFieldNames[i]);
-        }
+        var formalParameters = this.createValueFormalParameters().toArray(new Java.FunctionDeclarator.FormalParameter[0]);
 
         List<Java.Statement> constructorBody = new ArrayList<>();
         for (int i = 0; i < formalParameters.length; i++) {
@@ -368,18 +426,18 @@ public class KeyMultiRecordMapGenerator {
      * Method to generate the constructors for the generated map type.
      */
     private void generateConstructors() {
-        // Start by generating the no-argument constructor which calls the real constructor with
-        // a default map-size of initialKeysPerMap.
+        // Start by generating the constructor which only takes the memory accounting parameters
+        // and calls the real constructor with a default map-size of initialKeysPerMap.
         createConstructor(
                 JaninoGeneralGen.getLocation(),
                 this.mapDeclaration,
                 Access.PUBLIC,
-                createFormalParameters(JaninoGeneralGen.getLocation(), new Java.FunctionDeclarator.FormalParameter[0]),
+                createMemoryAccountingFormalParameters(),
                 new Java.AlternateConstructorInvocation(
                         JaninoGeneralGen.getLocation(),
-                        new Java.Rvalue[] {
+                        createMemoryAccountingArguments(
                                 JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), initialKeysPerMap)
-                        }
+                        )
                 ),
                 new ArrayList<>()
         );
@@ -435,6 +493,13 @@ public class KeyMultiRecordMapGenerator {
                 )
         );
 
+        // Initialise the memory accounting fields and reserve the memory for the initial arrays
+        // this.memoryAccountant = memoryAccountant;
+        // this.memoryOwner = memoryOwner;
+        // this.memoryAccountant.reserve(this.memoryOwner, (long) capacity * [bytesPerKeySlot + 4]);
+        constructorBody.addAll(createMemoryAccountingInitialisation());
+        constructorBody.add(createMemoryReservationStm(capacityParameterAP.read(), this.bytesPerKeySlot + 4));
+
         // Initialise the numberOfRecords field
         constructorBody.add(
                 createVariableAssignmentStm(
@@ -592,15 +657,12 @@ public class KeyMultiRecordMapGenerator {
                 JaninoGeneralGen.getLocation(),
                 this.mapDeclaration,
                 Access.PUBLIC,
-                createFormalParameters(
-                        JaninoGeneralGen.getLocation(),
-                        new Java.FunctionDeclarator.FormalParameter[] {
-                                createFormalParameter(
-                                        JaninoGeneralGen.getLocation(),
-                                        toJavaType(JaninoGeneralGen.getLocation(), capacityParameterAP.getType()),
-                                        capacityParameterAP.getVariableName()
-                                )
-                        }
+                createMemoryAccountingFormalParameters(
+                        createFormalParameter(
+                                JaninoGeneralGen.getLocation(),
+                                toJavaType(JaninoGeneralGen.getLocation(), capacityParameterAP.getType()),
+                                capacityParameterAP.getVariableName()
+                        )
                 ),
                 null,
                 constructorBody
@@ -848,6 +910,14 @@ public class KeyMultiRecordMapGenerator {
                     )
             );
 
+            // this.memoryAccountant.reserve(this.memoryOwner, (long) (newValueArraysSize - currentValueArraysSize) * [bytesPerValueRecordSlot]);
+            recordStoreExtendArrays.addStatement(
+                    createMemoryReservationStm(
+                            JaninoOperatorGen.sub(JaninoGeneralGen.getLocation(), newValueArraysSize.read(), currentValueArraysSize.read()),
+                            this.bytesPerValueRecordSlot
+                    )
+            );
+
             String tempVarName = "temp_" + valueRecordArrayName;
             recordStoreExtendArrays.addStatement(
                     createLocalVariable(
@@ -896,9 +966,14 @@ public class KeyMultiRecordMapGenerator {
 
             // Insert the value record and increment the correct record count
             // this.records[index][insertionIndex] = new ValueRecord( ... );
-            Java.Rvalue[] valueOrdinals = new Java.Rvalue[this.valueFieldNames.length];
+            List<Java.Rvalue> valueOrdinals = new ArrayList<>(2 * this.valueFieldNames.length);
             for (int i = 0; i < this.valueFieldNames.length; i++) {
-                valueOrdinals[i] = createMapAssignmentRValue(this.valueTypes[i], formalParameters[i + 2].name, associateMethodBody);
+                if (this.packedValues[i]) {
+                    // Packing the value copies it into the record
+                    valueOrdinals.addAll(List.of(createPackedWords(formalParameters[i + 2].name)));
+                } else {
+                    valueOrdinals.add(createMapAssignmentRValue(this.valueTypes[i], formalParameters[i + 2].name, associateMethodBody));
+                }
             }
 
             associateMethodBody.add(
@@ -917,7 +992,7 @@ public class KeyMultiRecordMapGenerator {
                                     getLocation(),
                                     null,
                                     createReferenceType(getLocation(), this.valueRecordDeclaration.name),
-                                    valueOrdinals
+                                    valueOrdinals.toArray(new Java.Rvalue[0])
                             )
                     )
             );
@@ -1157,6 +1232,9 @@ public class KeyMultiRecordMapGenerator {
     private void generateGrowArraysMethod() {
         List<Java.Statement> growArraysMethodBody = new ArrayList<>();
 
+        // this.growCount++;
+        growArraysMethodBody.add(createResizeCounterIncrementStm(GROW_COUNT_NAME));
+
         // int currentSize = this.keys.length;
         ScalarVariableAccessPath currentSize = new ScalarVariableAccessPath("currentSize", P_INT);
         growArraysMethodBody.add(
@@ -1213,6 +1291,14 @@ public class KeyMultiRecordMapGenerator {
                 )
         );
 
+        // this.memoryAccountant.reserve(this.memoryOwner, (long) (newSize - currentSize) * [bytesPerKeySlot]);
+        growArraysMethodBody.add(
+                createMemoryReservationStm(
+                        JaninoOperatorGen.sub(JaninoGeneralGen.getLocation(), newSize.read(), currentSize.read()),
+                        this.bytesPerKeySlot
+                )
+        );
+
         // Grow, copy and fill the keys array
         growArraysMethodBody.add(
                 createLocalVariable(
@@ -1589,6 +1675,15 @@ public class KeyMultiRecordMapGenerator {
     private void generateRehashMethod() {
         List<Java.Statement> rehashMethodBody = new ArrayList<>();
 
+        // HashTableRehashEvent rehashEvent = HashTableRehashEvent.start(
+        //         this.memoryAccountant.getQueryId(), this.memoryOwner, this.numberOfRecords, this.hashTable.length);
+        // this.rehashCount++;
+        rehashMethodBody.add(createRehashEventStartStm(
+                hashTableAP.getVariableName(),
+                createThisFieldAccess(getLocation(), numberOfRecordsAP.getVariableName())
+        ));
+        rehashMethodBody.add(createResizeCounterIncrementStm(REHASH_COUNT_NAME));
+
         // Compute the new hash-table size as
         // int size = this.hashTable.length * [hashTableGrowFactor];
         ScalarVariableAccessPath size = new ScalarVariableAccessPath("size", P_INT);
@@ -1609,6 +1704,22 @@ public class KeyMultiRecordMapGenerator {
                 )
         );
 
+        // this.memoryAccountant.reserve(this.memoryOwner, (long) (size - this.hashTable.length) * 4);
+        rehashMethodBody.add(
+                createMemoryReservationStm(
+                        JaninoOperatorGen.sub(
+                                JaninoGeneralGen.getLocation(),
+                                size.read(),
+                                new Java.FieldAccessExpression(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), hashTableAP.getVariableName()),
+                                        "length"
+                                )
+                        ),
+                        4
+                )
+        );
+
         // Initialise the new hash-table and next array
         // this.hashTable = new int[size];
         // Arrays.fill(this.hashTable, -1);
@@ -1735,6 +1846,9 @@ public class KeyMultiRecordMapGenerator {
                 )
         );
 
+        // rehashEvent.finish(this.hashTable.length);
+        rehashMethodBody.add(createRehashEventFinishStm(hashTableAP.getVariableName()));
+
         // private void rehash()
         createMethod(
                 JaninoGeneralGen.getLocation(),
@@ -1911,6 +2025,23 @@ public class KeyMultiRecordMapGenerator {
         );
     }
 
+    /**
+     * Method to generate the "recordStatistics" method, which records the hash-table statistics of
+     * the generated map in an operator profile.
+     */
+    private void generateRecordStatisticsMethod() {
+        // public void recordStatistics(OperatorProfile profile) {
+        //     profile.recordHashTable(this.numberOfRecords, this.hashTable, this.next, this.growCount, this.rehashCount);
+        // }
+        addRecordStatisticsMethod(
+                this.mapDeclaration,
+                new ArrayList<>(),
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), numberOfRecordsAP.getVariableName()),
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), hashTableAP.getVariableName()),
+                JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), nextArrayAP.getVariableName())
+        );
+    }
+
     /**
      * Method to generate statements that check that a given {@link Java.Rvalue}
      * is non-negative.
@@ -1943,6 +2074,55 @@ public class KeyMultiRecordMapGenerator {
         );
     }
 
+    /**
+     * Method to generate the formal parameters (and equally named value record fields) through
+     * which the stored representation of the values is passed to the value record constructor.
+     * @return One {@code long} parameter per packed word for packed values, and a single parameter
+     * of the value type for the remaining values, in value ordinal order.
+     */
+    private List<Java.FunctionDeclarator.FormalParameter> createValueFormalParameters() {
+        List<Java.FunctionDeclarator.FormalParameter> valueParameters = new ArrayList<>(2 * this.valueFieldNames.length);
+        for (int i = 0; i < this.valueFieldNames.length; i++) {
+            if (this.packedValues[i]) {
+                for (int w = 0; w < 2; w++) {
+                    valueParameters.add(createFormalParameter(
+                            getLocation(),
+                            toJavaType(getLocation(), P_LONG),
+                            packedWordFieldName(this.valueFieldNames[i], w)
+                    ));
+                }
+            } else {
+                valueParameters.add(createFormalParameter(
+                        getLocation(),
+                        toJavaType(getLocation(), this.valueTypes[i]),
+                        this.valueFieldNames[i]
+                ));
+            }
+        }
+
+        return valueParameters;
+    }
+
+    /**
+     * Method to generate the read of a value from a value record of the generated map, which should
+     * be used by operators consuming the map contents instead of accessing {@code valueFieldNames}
+     * directly.
+     * @param recordVariableName The name of the variable referring to the value record.
+     * @param valueOrdinal The ordinal of the value to read.
+     * @return The expression {@code [record].value_ord_[valueOrdinal]}, or the unpacking of its
+     * words into a new byte array if the value is stored packed.
+     */
+    public Java.Rvalue createValueFieldRead(String recordVariableName, int valueOrdinal) {
+        if (this.packedValues[valueOrdinal])
+            return createUnpackedFieldRead(recordVariableName, this.valueFieldNames[valueOrdinal], this.valueTypes[valueOrdinal].byteWidth);
+
+        return new Java.FieldAccessExpression(
+                JaninoGeneralGen.getLocation(),
+                createAmbiguousNameRef(getLocation(), recordVariableName),
+                this.valueFieldNames[valueOrdinal]
+        );
+    }
+
     /**
      * Method to generate the statements that convert a pre-hash value into the actual hash value.
      * @param preHashRValue The pre-hash value to convert.
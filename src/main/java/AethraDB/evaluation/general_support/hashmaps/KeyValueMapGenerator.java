@@ -45,8 +45,26 @@ import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGe
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createSimpleVariableDeclaration;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAdditionAssignmentStm;
 import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
-import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableXorAssignmentStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.GROW_COUNT_NAME;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.REFERENCE_BYTES;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.REHASH_COUNT_NAME;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.addMemoryAccountingFields;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.addRecordStatisticsMethod;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.addResizeCounterFields;
 import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMapAssignmentRValue;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingArguments;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingFormalParameters;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingInitialisation;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryReservationStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createPackedWords;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createRehashEventFinishStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createRehashEventStartStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createResizeCounterIncrementStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.estimatedObjectBytes;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createUnpackedFieldRead;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.estimatedValueBytes;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.isPackedStringType;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.packedWordFieldName;
 
 /**
  * This class provides methods to generate a hash-map implementation for mapping some primitive type
@@ -57,6 +75,10 @@ import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.cr
  *  - For byte[] keys, the map uses the {@link Char_Arr_Hash_Function}.
  *  - For int keys, the map uses the {@link Int_Hash_Function}.
  *  - Other key types are currently not yet supported.
+ * The pre-hash values of the key columns are combined using {@link HashFunctionFamily#combine}.
+ * Short fixed-length binary keys are stored in each record as two packed {@code long} words (see
+ * {@link AethraDB.evaluation.general_support.PackedStrings}), which are compared word-wise and only
+ * unpacked into a byte array when a key is read via {@code createKeyFieldRead}.
  */
 public class KeyValueMapGenerator {
 
@@ -101,6 +123,11 @@ public class KeyValueMapGenerator {
      */
     public final String[] keyFieldNames;
 
+    /**
+     * Whether each key is stored as two packed words rather than as its {@code keyTypes} type.
+     */
+    private final boolean[] packedKeys;
+
     /**
      * The names of the record fields storing the values in each record.
      */
@@ -111,6 +138,11 @@ public class KeyValueMapGenerator {
      */
     private static final String nextFieldName = "next";
 
+    /**
+     * The estimated number of bytes that the map reserves per slot of its record array.
+     */
+    private final int bytesPerRecordSlot;
+
     /**
      * The {@link AccessPath} to the array storing the hash-table.
      */
@@ -165,12 +197,24 @@ public class KeyValueMapGenerator {
         this.generationFinished = false;
 
         this.keyFieldNames = new String[keyTypes.length];
-        for (int i = 0; i < keyFieldNames.length; i++)
+        this.packedKeys = new boolean[keyTypes.length];
+        for (int i = 0; i < keyFieldNames.length; i++) {
             this.keyFieldNames[i] = "key_ord_" + i;
+            this.packedKeys[i] = isPackedStringType(keyTypes[i]);
+        }
 
         this.valueFieldNames = new String[valueTypes.length];
         for (int i = 0; i < valueFieldNames.length; i++)
             this.valueFieldNames[i] = "value_ord_" + i;
+
+        // Estimate the memory footprint of a record slot (including the record object itself), which
+        // is reserved at the memory accountant of the query whenever the map allocates or grows its arrays
+        int recordFieldBytes = 4; // next
+        for (QueryVariableType keyType : keyTypes)
+            recordFieldBytes += estimatedValueBytes(keyType);
+        for (QueryVariableType valueType : valueTypes)
+            recordFieldBytes += estimatedValueBytes(valueType);
+        this.bytesPerRecordSlot = REFERENCE_BYTES + estimatedObjectBytes(recordFieldBytes);
     }
 
     /**
@@ -202,6 +246,7 @@ public class KeyValueMapGenerator {
         this.generatePutHashEntryMethod();
         this.generateRehashMethod();
         this.generateResetMethod();
+        this.generateRecordStatisticsMethod();
 
         // Mark that generation was finished and return the generated type
         this.generationFinished = true;
@@ -252,6 +297,11 @@ public class KeyValueMapGenerator {
                 )
         );
 
+        // Add the variables used for accounting the memory of the map
+        addMemoryAccountingFields(this.mapDeclaration);
+
+        // Add the variables counting the resizes of the map, which are reported when profiling
+        addResizeCounterFields(this.mapDeclaration);
     }
 
     /**
@@ -273,21 +323,16 @@ public class KeyValueMapGenerator {
                 new Java.Type[0]
         );
 
-        // Create a field for each section of the key
-        for (int i = 0; i < this.keyFieldNames.length; i++) {
-            Java.Type fieldType;
-            if (this.keyTypes[i].logicalType == QueryVariableType.LogicalType.S_FL_BIN || this.keyTypes[i] == S_VARCHAR)
-                fieldType = JaninoGeneralGen.createPrimitiveArrayType(JaninoGeneralGen.getLocation(), Java.Primitive.BYTE);
-            else
-                fieldType = toJavaType(getLocation(), this.keyTypes[i]);
-
+        // Create a field for each section of the key (or two for each packed key)
+        List<Java.FunctionDeclarator.FormalParameter> keyFields = this.createKeyFormalParameters();
+        for (Java.FunctionDeclarator.FormalParameter keyField : keyFields) {
             this.recordDeclaration.addFieldDeclaration(
                     JaninoClassGen.createPublicFieldDeclaration(
                             JaninoGeneralGen.getLocation(),
-                            fieldType,
+                            keyField.type,
                             createSimpleVariableDeclaration(
                                     JaninoGeneralGen.getLocation(),
-                                    this.keyFieldNames[i]
+                                    keyField.name
                             )
                     )
             );
@@ -321,13 +366,13 @@ public class KeyValueMapGenerator {
 
         // Create the constructor of the record which initialises all fields according to the parameter
         // value and initialises the next pointer at null.
-        var formalParameters = new Java.FunctionDeclarator.FormalParameter[this.keyFieldNames.length + this.valueFieldNames.length];
-        for (int i = 0; i < this.keyFieldNames.length; i++) {
-            formalParameters[i] =
-                    createFormalParameter(getLocation(), toJavaType(getLocation(), this.keyTypes[i]), this.keyFieldNames[i]);
+        List<Java.FunctionDeclarator.FormalParameter> keyParameters = this.createKeyFormalParameters();
+        var formalParameters = new Java.FunctionDeclarator.FormalParameter[keyParameters.size() + this.valueFieldNames.length];
+        for (int i = 0; i < keyParameters.size(); i++) {
+            formalParameters[i] = keyParameters.get(i);
         }
         for (int i = 0; i < this.valueFieldNames.length; i++) {
-            formalParameters[this.keyFieldNames.length + i] =
+            formalParameters[keyParameters.size() + i] =
                     createFormalParameter(getLocation(), toJavaType(getLocation(), this.valueTypes[i]), this.valueFieldNames[i]);
         }
 
@@ -401,18 +446,18 @@ public class KeyValueMapGenerator {
      */
     private void generateConstructors() {
 
-        // Start by generating the no-argument constructor which calls the real constructor with
-        // a default map-size of initialKeysPerMap.
+        // Start by generating the constructor which only takes the memory accounting parameters
+        // and calls the real constructor with a default map-size of initialKeysPerMap.
         createConstructor(
                 JaninoGeneralGen.getLocation(),
                 this.mapDeclaration,
                 Access.PUBLIC,
-                createFormalParameters(JaninoGeneralGen.getLocation(), new Java.FunctionDeclarator.FormalParameter[0]),
+                createMemoryAccountingFormalParameters(),
                 new Java.AlternateConstructorInvocation(
                         JaninoGeneralGen.getLocation(),
-                        new Java.Rvalue[] {
+                        createMemoryAccountingArguments(
                                 JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), initialKeysPerMap)
-                        }
+                        )
                 ),
                 new ArrayList<>()
         );
@@ -469,6 +514,13 @@ public class KeyValueMapGenerator {
                 )
         );
 
+        // Initialise the memory accounting fields and reserve the memory for the initial arrays
+        // this.memoryAccountant = memoryAccountant;
+        // this.memoryOwner = memoryOwner;
+        // this.memoryAccountant.reserve(this.memoryOwner, (long) capacity * [bytesPerRecordSlot + 4]);
+        constructorBody.addAll(createMemoryAccountingInitialisation());
+        constructorBody.add(createMemoryReservationStm(capacityParameterAP.read(), this.bytesPerRecordSlot + 4));
+
         // Initialise the numberOfRecords field
         constructorBody.add(
                 createVariableAssignmentStm(
@@ -538,15 +590,12 @@ public class KeyValueMapGenerator {
                 JaninoGeneralGen.getLocation(),
                 this.mapDeclaration,
                 Access.PUBLIC,
-                createFormalParameters(
-                        JaninoGeneralGen.getLocation(),
-                        new Java.FunctionDeclarator.FormalParameter[] {
-                                createFormalParameter(
-                                        JaninoGeneralGen.getLocation(),
-                                        toJavaType(JaninoGeneralGen.getLocation(), capacityParameterAP.getType()),
-                                        capacityParameterAP.getVariableName()
-                                )
-                        }
+                createMemoryAccountingFormalParameters(
+                        createFormalParameter(
+                                JaninoGeneralGen.getLocation(),
+                                toJavaType(JaninoGeneralGen.getLocation(), capacityParameterAP.getType()),
+                                capacityParameterAP.getVariableName()
+                        )
                 ),
                 null,
                 constructorBody
@@ -610,15 +659,40 @@ public class KeyValueMapGenerator {
             );
         }
 
+        // Pack each short fixed-length binary key into the words that are stored in the records
+        // long key_ord_i_w0 = PackedStrings.packWord(key_ord_i, 0);
+        // long key_ord_i_w1 = PackedStrings.packWord(key_ord_i, 1);
+        for (int i = 0; i < this.keyFieldNames.length; i++) {
+            if (!this.packedKeys[i])
+                continue;
+
+            Java.Rvalue[] packedWords = createPackedWords(formalParameters[i].name);
+            for (int w = 0; w < packedWords.length; w++) {
+                incrementForKeyMethodBody.add(
+                        createLocalVariable(
+                                JaninoGeneralGen.getLocation(),
+                                toJavaType(JaninoGeneralGen.getLocation(), P_LONG),
+                                packedWordFieldName(this.keyFieldNames[i], w),
+                                packedWords[w]
+                        )
+                );
+            }
+        }
+
         // Declare the index variable and check whether the key is already contained in the map
         // RecordType record = find(keys ..., preHash);
         String record = "record";
-        Java.Rvalue[] findMethodArguments = new Java.Rvalue[this.keyFieldNames.length + 1];
-        for (int i = 0; i < findMethodArguments.length; i++)
+        List<Java.FunctionDeclarator.FormalParameter> keyParameters = this.createKeyFormalParameters();
+        Java.Rvalue[] findMethodArguments = new Java.Rvalue[keyParameters.size() + 1];
+        for (int i = 0; i < keyParameters.size(); i++)
             findMethodArguments[i] = JaninoGeneralGen.createAmbiguousNameRef(
                     JaninoGeneralGen.getLocation(),
-                    formalParameters[i].name
+                    keyParameters.get(i).name
             );
+        findMethodArguments[keyParameters.size()] = JaninoGeneralGen.createAmbiguousNameRef(
+                JaninoGeneralGen.getLocation(),
+                formalParameters[this.keyFieldNames.length].name
+        );
 
         incrementForKeyMethodBody.add(
                 createLocalVariable(
@@ -686,12 +760,21 @@ public class KeyValueMapGenerator {
                 )
         );
 
-        Java.Rvalue[] recordOrdinalValues = new Java.Rvalue[this.keyFieldNames.length + this.valueFieldNames.length];
+        Java.Rvalue[] recordOrdinalValues = new Java.Rvalue[keyParameters.size() + this.valueFieldNames.length];
+        int currentRecordOrdinalIndex = 0;
         for (int i = 0; i < this.keyFieldNames.length; i++) {
-            recordOrdinalValues[i] = createMapAssignmentRValue( this.keyTypes[i], formalParameters[i].name, allocateIndexBody);
+            if (this.packedKeys[i]) {
+                // The packed words are copies of the key already
+                for (int w = 0; w < 2; w++)
+                    recordOrdinalValues[currentRecordOrdinalIndex++] =
+                            createAmbiguousNameRef(getLocation(), packedWordFieldName(this.keyFieldNames[i], w));
+            } else {
+                recordOrdinalValues[currentRecordOrdinalIndex++] =
+                        createMapAssignmentRValue( this.keyTypes[i], formalParameters[i].name, allocateIndexBody);
+            }
         }
         for (int i = 0; i < this.valueFieldNames.length; i++) {
-            recordOrdinalValues[this.keyFieldNames.length + i] = createAmbiguousNameRef(getLocation(), formalParameters[this.keyFieldNames.length + 1 + i].name);
+            recordOrdinalValues[currentRecordOrdinalIndex++] = createAmbiguousNameRef(getLocation(), formalParameters[this.keyFieldNames.length + 1 + i].name);
         }
         allocateIndexBody.addStatement(
                 createVariableAssignmentStm(
@@ -811,17 +894,13 @@ public class KeyValueMapGenerator {
      */
     private void generateFindMethod() {
         // Generate the method signature
+        List<Java.FunctionDeclarator.FormalParameter> keyParameters = this.createKeyFormalParameters();
         Java.FunctionDeclarator.FormalParameter[] formalParameters =
-                new Java.FunctionDeclarator.FormalParameter[this.keyTypes.length + 1];
+                new Java.FunctionDeclarator.FormalParameter[keyParameters.size() + 1];
         int currentFormalParameterIndex = 0;
 
-        for (int i = 0; i < this.keyTypes.length; i++) {
-            formalParameters[currentFormalParameterIndex++] = createFormalParameter(
-                    JaninoGeneralGen.getLocation(),
-                    toJavaType(JaninoGeneralGen.getLocation(), this.keyTypes[i]),
-                    "key_ord_" + i
-            );
-        }
+        for (Java.FunctionDeclarator.FormalParameter keyParameter : keyParameters)
+            formalParameters[currentFormalParameterIndex++] = keyParameter;
 
         int preHashFormalParamIndex = currentFormalParameterIndex++;
         formalParameters[preHashFormalParamIndex] = createFormalParameter(
@@ -906,105 +985,12 @@ public class KeyValueMapGenerator {
         );
 
         // Generate the disjunction for the while-loop guard
-        Java.Rvalue nextLoopDisjunction;
-        if (this.keyTypes[0].logicalType == QueryVariableType.LogicalType.S_FL_BIN) {
-            nextLoopDisjunction = JaninoOperatorGen.not(
-                    JaninoGeneralGen.getLocation(),
-                    fixedLengthBinaryEq(
-                            getLocation(),
-                            new Java.FieldAccessExpression(
-                                    JaninoGeneralGen.getLocation(),
-                                    createAmbiguousNameRef(getLocation(), currentRecord),
-                                    this.keyFieldNames[0]
-                            ),
-                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), formalParameters[0].name),
-                            this.keyTypes[0].byteWidth
-                    )
-            );
-
-        } else if (this.keyTypes[0] == S_VARCHAR) {
-            nextLoopDisjunction = JaninoOperatorGen.not(
-                    JaninoGeneralGen.getLocation(),
-                    createMethodInvocation(
-                            JaninoGeneralGen.getLocation(),
-                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Arrays"),
-                            "equals",
-                            new Java.Rvalue[]{
-                                    new Java.FieldAccessExpression(
-                                            JaninoGeneralGen.getLocation(),
-                                            createAmbiguousNameRef(getLocation(), currentRecord),
-                                            this.keyFieldNames[0]
-                                    ),
-                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), formalParameters[0].name)
-                            }
-                    )
-            );
-
-        } else {
-            nextLoopDisjunction = JaninoOperatorGen.neq(
-                    JaninoGeneralGen.getLocation(),
-                    new Java.FieldAccessExpression(
-                            JaninoGeneralGen.getLocation(),
-                            createAmbiguousNameRef(getLocation(), currentRecord),
-                            this.keyFieldNames[0]
-                    ),
-                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), formalParameters[0].name)
-            );
-
-        }
-
+        Java.Rvalue nextLoopDisjunction = this.createKeyMismatchCheck(currentRecord, 0);
         for (int i = 1; i < this.keyFieldNames.length; i++) {
-            Java.Rvalue conditionCheck;
-            if (this.keyTypes[i].logicalType == QueryVariableType.LogicalType.S_FL_BIN) {
-                conditionCheck = JaninoOperatorGen.not(
-                        JaninoGeneralGen.getLocation(),
-                        fixedLengthBinaryEq(
-                                getLocation(),
-                                new Java.FieldAccessExpression(
-                                        JaninoGeneralGen.getLocation(),
-                                        createAmbiguousNameRef(getLocation(), currentRecord),
-                                        this.keyFieldNames[i]
-                                ),
-                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), formalParameters[i].name),
-                                this.keyTypes[i].byteWidth
-                        )
-                );
-
-            } else if (this.keyTypes[i] == S_VARCHAR) {
-                conditionCheck = JaninoOperatorGen.not(
-                        JaninoGeneralGen.getLocation(),
-                        createMethodInvocation(
-                                JaninoGeneralGen.getLocation(),
-                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Arrays"),
-                                "equals",
-                                new Java.Rvalue[]{
-                                        new Java.FieldAccessExpression(
-                                                JaninoGeneralGen.getLocation(),
-                                                createAmbiguousNameRef(getLocation(), currentRecord),
-                                                this.keyFieldNames[i]
-                                        ),
-                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), formalParameters[i].name)
-                                }
-                        )
-                );
-
-            } else {
-                conditionCheck = JaninoOperatorGen.neq(
-                        JaninoGeneralGen.getLocation(),
-                        new Java.FieldAccessExpression(
-                                JaninoGeneralGen.getLocation(),
-                                createAmbiguousNameRef(getLocation(), currentRecord),
-                                this.keyFieldNames[i]
-                        ),
-                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), formalParameters[i].name)
-                );
-
-            }
-
             nextLoopDisjunction = JaninoOperatorGen.or(
                     JaninoGeneralGen.getLocation(),
                     nextLoopDisjunction,
-                    conditionCheck
+                    this.createKeyMismatchCheck(currentRecord, i)
             );
         }
 
@@ -1057,12 +1043,89 @@ public class KeyValueMapGenerator {
 
     }
 
+    /**
+     * Method to generate the check whether a key of a record differs from the corresponding key
+     * parameter of the "find" method.
+     * @param recordVariableName The name of the variable referring to the record.
+     * @param keyOrdinal The ordinal of the key to check.
+     * @return The boolean expression {@code [record].key_ord_[keyOrdinal] != key_ord_[keyOrdinal]}
+     * for the storage type of the key.
+     */
+    private Java.Rvalue createKeyMismatchCheck(String recordVariableName, int keyOrdinal) {
+        String keyFieldName = this.keyFieldNames[keyOrdinal];
+
+        if (this.packedKeys[keyOrdinal]) {
+            // Packed keys are equal iff both of their words are equal
+            Java.Rvalue[] wordMismatches = new Java.Rvalue[2];
+            for (int w = 0; w < wordMismatches.length; w++) {
+                wordMismatches[w] = JaninoOperatorGen.neq(
+                        JaninoGeneralGen.getLocation(),
+                        new Java.FieldAccessExpression(
+                                JaninoGeneralGen.getLocation(),
+                                createAmbiguousNameRef(getLocation(), recordVariableName),
+                                packedWordFieldName(keyFieldName, w)
+                        ),
+                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), packedWordFieldName(keyFieldName, w))
+                );
+            }
+            return JaninoOperatorGen.or(JaninoGeneralGen.getLocation(), wordMismatches[0], wordMismatches[1]);
+
+        } else if (this.keyTypes[keyOrdinal].logicalType == QueryVariableType.LogicalType.S_FL_BIN) {
+            return JaninoOperatorGen.not(
+                    JaninoGeneralGen.getLocation(),
+                    fixedLengthBinaryEq(
+                            getLocation(),
+                            new Java.FieldAccessExpression(
+                                    JaninoGeneralGen.getLocation(),
+                                    createAmbiguousNameRef(getLocation(), recordVariableName),
+                                    keyFieldName
+                            ),
+                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), keyFieldName),
+                            this.keyTypes[keyOrdinal].byteWidth
+                    )
+            );
+
+        } else if (this.keyTypes[keyOrdinal] == S_VARCHAR) {
+            return JaninoOperatorGen.not(
+                    JaninoGeneralGen.getLocation(),
+                    createMethodInvocation(
+                            JaninoGeneralGen.getLocation(),
+                            JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "Arrays"),
+                            "equals",
+                            new Java.Rvalue[]{
+                                    new Java.FieldAccessExpression(
+                                            JaninoGeneralGen.getLocation(),
+                                            createAmbiguousNameRef(getLocation(), recordVariableName),
+                                            keyFieldName
+                                    ),
+                                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), keyFieldName)
+                            }
+                    )
+            );
+
+        } else {
+            return JaninoOperatorGen.neq(
+                    JaninoGeneralGen.getLocation(),
+                    new Java.FieldAccessExpression(
+                            JaninoGeneralGen.getLocation(),
+                            createAmbiguousNameRef(getLocation(), recordVariableName),
+                            keyFieldName
+                    ),
+                    JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), keyFieldName)
+            );
+
+        }
+    }
+
     /**
      * Method to generate the "growArrays" method to grow the records array when it becomes too small.
      */
     private void generateGrowArraysMethod() {
         List<Java.Statement> growArraysMethodBody = new ArrayList<>();
 
+        // this.growCount++;
+        growArraysMethodBody.add(createResizeCounterIncrementStm(GROW_COUNT_NAME));
+
         // int currentSize = this.recordsArray.length;
         ScalarVariableAccessPath currentSize = new ScalarVariableAccessPath("currentSize", P_INT);
         growArraysMethodBody.add(
@@ -1119,6 +1182,14 @@ public class KeyValueMapGenerator {
                 )
         );
 
+        // this.memoryAccountant.reserve(this.memoryOwner, (long) (newSize - currentSize) * [bytesPerRecordSlot]);
+        growArraysMethodBody.add(
+                createMemoryReservationStm(
+                        JaninoOperatorGen.sub(JaninoGeneralGen.getLocation(), newSize.read(), currentSize.read()),
+                        this.bytesPerRecordSlot
+                )
+        );
+
         // Grow, copy and fill the new array
         growArraysMethodBody.add(
                 createLocalVariable(
@@ -1363,6 +1434,15 @@ public class KeyValueMapGenerator {
     private void generateRehashMethod() {
         List<Java.Statement> rehashMethodBody = new ArrayList<>();
 
+        // HashTableRehashEvent rehashEvent = HashTableRehashEvent.start(
+        //         this.memoryAccountant.getQueryId(), this.memoryOwner, this.numberOfRecords, this.hashTable.length);
+        // this.rehashCount++;
+        rehashMethodBody.add(createRehashEventStartStm(
+                hashTableAP.getVariableName(),
+                createThisFieldAccess(getLocation(), numberOfRecordsAP.getVariableName())
+        ));
+        rehashMethodBody.add(createResizeCounterIncrementStm(REHASH_COUNT_NAME));
+
         // Compute the new hash-table size as
         // int size = this.hashTable.length * [hashTableGrowFactor];
         ScalarVariableAccessPath size = new ScalarVariableAccessPath("size", P_INT);
@@ -1383,6 +1463,22 @@ public class KeyValueMapGenerator {
                 )
         );
 
+        // this.memoryAccountant.reserve(this.memoryOwner, (long) (size - this.hashTable.length) * 4);
+        rehashMethodBody.add(
+                createMemoryReservationStm(
+                        JaninoOperatorGen.sub(
+                                JaninoGeneralGen.getLocation(),
+                                size.read(),
+                                new Java.FieldAccessExpression(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createThisFieldAccess(JaninoGeneralGen.getLocation(), hashTableAP.getVariableName()),
+                                        "length"
+                                )
+                        ),
+                        4
+                )
+        );
+
         // Initialise the new hash-table
         // this.hashTable = new int[size];
         // Arrays.fill(this.hashTable, -1);
@@ -1445,7 +1541,7 @@ public class KeyValueMapGenerator {
         //       [keyType] key_ord_j = currentRecord.keys_ord_j;
         //     long preHash = [hash_function_container].hash(key_ord_0);
         //     $ for each remaining key ord j $
-        //       preHash ^= [hash_function_container].hash(key_ord_j);
+        //       preHash = HashFunctionFamily.combine(preHash, [hash_function_container].hash(key_ord_j));
         //     this.putHashEntry(currentRecord, preHash, i, false);
         // }
         Java.Block hashAssociationLoopBody = new Java.Block(JaninoGeneralGen.getLocation());
@@ -1484,21 +1580,17 @@ public class KeyValueMapGenerator {
                 )
         );
 
-        ScalarVariableAccessPath[] keyVarAPs = new ScalarVariableAccessPath[this.keyFieldNames.length];
-        for (int i = 0; i < this.keyFieldNames.length; i++) {
-            String keyName = "key_ord_" + i;
-            QueryVariableType keyType = this.keyTypes[i];
-
-            keyVarAPs[i] = new ScalarVariableAccessPath(keyName, keyType);
+        // Load the stored keys (or their packed words) from the record
+        for (Java.FunctionDeclarator.FormalParameter keyField : this.createKeyFormalParameters()) {
             hashAssociationLoopBody.addStatement(
                     createLocalVariable(
                             JaninoGeneralGen.getLocation(),
-                            toJavaType(JaninoGeneralGen.getLocation(), keyType),
-                            keyName,
+                            keyField.type,
+                            keyField.name,
                             new Java.FieldAccessExpression(
                                     JaninoGeneralGen.getLocation(),
                                     createAmbiguousNameRef(getLocation(), currentRecord),
-                                    this.keyFieldNames[i]
+                                    keyField.name
                             )
                     )
             );
@@ -1516,9 +1608,7 @@ public class KeyValueMapGenerator {
                                 "This key-type is currently not supported by the KeyValueMapGenerator");
                     },
                     "preHash",
-                    new Java.Rvalue[] {
-                            keyVarAPs[i].read()
-                    }
+                    this.createKeyPreHashArguments(i)
             );
 
             if (i == 0) {
@@ -1534,10 +1624,18 @@ public class KeyValueMapGenerator {
             } else {
                 // On the remaining key ordinals, we need to "extend" the preHash variable
                 hashAssociationLoopBody.addStatement(
-                        createVariableXorAssignmentStm(
+                        createVariableAssignmentStm(
                                 JaninoGeneralGen.getLocation(),
                                 JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "preHash"),
-                                hashMethodInvocation
+                                createMethodInvocation(
+                                        JaninoGeneralGen.getLocation(),
+                                        JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "HashFunctionFamily"),
+                                        "combine",
+                                        new Java.Rvalue[] {
+                                                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), "preHash"),
+                                                hashMethodInvocation
+                                        }
+                                )
                         )
                 );
             }
@@ -1561,6 +1659,9 @@ public class KeyValueMapGenerator {
                 )
         );
 
+        // rehashEvent.finish(this.hashTable.length);
+        rehashMethodBody.add(createRehashEventFinishStm(hashTableAP.getVariableName()));
+
         // private void rehash()
         createMethod(
                 JaninoGeneralGen.getLocation(),
@@ -1693,6 +1794,203 @@ public class KeyValueMapGenerator {
         );
     }
 
+    /**
+     * Method to generate the "recordStatistics" method, which records the hash-table statistics of
+     * the generated map in an operator profile.
+     */
+    private void generateRecordStatisticsMethod() {
+        List<Java.Statement> statisticsComputation = new ArrayList<>();
+
+        // int[] chainLengths = new int[this.hashTable.length];
+        ArrayAccessPath chainLengths = new ArrayAccessPath("chainLengths", P_A_INT);
+        statisticsComputation.add(
+                createLocalVariable(
+                        getLocation(),
+                        toJavaType(getLocation(), chainLengths.getType()),
+                        chainLengths.getVariableName(),
+                        createNewPrimitiveArray(getLocation(), Java.Primitive.INT, this.createHashTableLength())
+                )
+        );
+
+        // for (int bucket = 0; bucket < this.hashTable.length; bucket++) {
+        //     if (this.hashTable[bucket] != -1) {
+        //         RecordType currentRecord = this.records[this.hashTable[bucket]];
+        //         while (currentRecord != null) {
+        //             chainLengths[bucket]++;
+        //             currentRecord = currentRecord.next;
+        //         }
+        //     }
+        // }
+        ScalarVariableAccessPath bucket = new ScalarVariableAccessPath("bucket", P_INT);
+        String currentRecord = "currentRecord";
+
+        Java.Block chainLoopBody = new Java.Block(getLocation());
+        chainLoopBody.addStatement(
+                JaninoOperatorGen.postIncrementStm(
+                        getLocation(),
+                        createArrayElementAccessExpr(getLocation(), chainLengths.read(), bucket.read())
+                )
+        );
+        chainLoopBody.addStatement(
+                createVariableAssignmentStm(
+                        getLocation(),
+                        createAmbiguousNameRef(getLocation(), currentRecord),
+                        new Java.FieldAccessExpression(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), currentRecord),
+                                nextFieldName
+                        )
+                )
+        );
+
+        Java.Block nonEmptyBucketBody = new Java.Block(getLocation());
+        nonEmptyBucketBody.addStatement(
+                createLocalVariable(
+                        getLocation(),
+                        createReferenceType(getLocation(), this.recordDeclaration.name),
+                        currentRecord,
+                        createArrayElementAccessExpr(
+                                getLocation(),
+                                createThisFieldAccess(getLocation(), recordArrayName),
+                                this.createBucketHead(bucket)
+                        )
+                )
+        );
+        nonEmptyBucketBody.addStatement(
+                JaninoControlGen.createWhileLoop(
+                        getLocation(),
+                        JaninoOperatorGen.neq(
+                                getLocation(),
+                                createAmbiguousNameRef(getLocation(), currentRecord),
+                                new Java.NullLiteral(getLocation())
+                        ),
+                        chainLoopBody
+                )
+        );
+
+        statisticsComputation.add(
+                JaninoControlGen.createForLoop(
+                        getLocation(),
+                        createLocalVariable(
+                                getLocation(),
+                                toJavaType(getLocation(), bucket.getType()),
+                                bucket.getVariableName(),
+                                createIntegerLiteral(getLocation(), 0)
+                        ),
+                        lt(getLocation(), bucket.read(), this.createHashTableLength()),
+                        postIncrement(getLocation(), bucket.write()),
+                        JaninoControlGen.createIf(
+                                getLocation(),
+                                JaninoOperatorGen.neq(getLocation(), this.createBucketHead(bucket), createIntegerLiteral(getLocation(), -1)),
+                                nonEmptyBucketBody
+                        )
+                )
+        );
+
+        // public void recordStatistics(OperatorProfile profile) {
+        //     [statisticsComputation]
+        //     profile.recordHashTable(this.numberOfRecords, chainLengths, this.growCount, this.rehashCount);
+        // }
+        addRecordStatisticsMethod(
+                this.mapDeclaration,
+                statisticsComputation,
+                createThisFieldAccess(getLocation(), numberOfRecordsAP.getVariableName()),
+                chainLengths.read()
+        );
+    }
+
+    /**
+     * Method to generate the formal parameters (and equally named record fields) through which the
+     * stored representation of the keys is passed around in the generated map.
+     * @return One {@code long} parameter per packed word for packed keys, and a single parameter of
+     * the key type for the remaining keys, in key ordinal order.
+     */
+    private List<Java.FunctionDeclarator.FormalParameter> createKeyFormalParameters() {
+        List<Java.FunctionDeclarator.FormalParameter> keyParameters = new ArrayList<>(2 * this.keyFieldNames.length);
+        for (int i = 0; i < this.keyFieldNames.length; i++) {
+            if (this.packedKeys[i]) {
+                for (int w = 0; w < 2; w++) {
+                    keyParameters.add(createFormalParameter(
+                            JaninoGeneralGen.getLocation(),
+                            toJavaType(JaninoGeneralGen.getLocation(), P_LONG),
+                            packedWordFieldName(this.keyFieldNames[i], w)
+                    ));
+                }
+            } else {
+                keyParameters.add(createFormalParameter(
+                        JaninoGeneralGen.getLocation(),
+                        toJavaType(JaninoGeneralGen.getLocation(), this.keyTypes[i]),
+                        this.keyFieldNames[i]
+                ));
+            }
+        }
+
+        return keyParameters;
+    }
+
+    /**
+     * Method to generate the arguments for pre-hashing a key that was loaded from a record into the
+     * local variables declared by {@code createKeyFormalParameters}.
+     * @param keyOrdinal The ordinal of the key to pre-hash.
+     * @return The arguments to pass to the "preHash" method of the hash function of the key, where
+     * packed keys are hashed on their words to obtain the same pre-hash value as their byte array.
+     */
+    private Java.Rvalue[] createKeyPreHashArguments(int keyOrdinal) {
+        String keyFieldName = this.keyFieldNames[keyOrdinal];
+        if (!this.packedKeys[keyOrdinal])
+            return new Java.Rvalue[] { JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), keyFieldName) };
+
+        return new Java.Rvalue[] {
+                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), packedWordFieldName(keyFieldName, 0)),
+                JaninoGeneralGen.createAmbiguousNameRef(JaninoGeneralGen.getLocation(), packedWordFieldName(keyFieldName, 1)),
+                JaninoGeneralGen.createIntegerLiteral(JaninoGeneralGen.getLocation(), this.keyTypes[keyOrdinal].byteWidth)
+        };
+    }
+
+    /**
+     * Method to generate the read of a key from a record of the generated map, which should be used
+     * by operators consuming the map contents instead of accessing {@code keyFieldNames} directly.
+     * @param recordVariableName The name of the variable referring to the record.
+     * @param keyOrdinal The ordinal of the key to read.
+     * @return The expression {@code [record].key_ord_[keyOrdinal]}, or the unpacking of its words
+     * into a new byte array if the key is stored packed.
+     */
+    public Java.Rvalue createKeyFieldRead(String recordVariableName, int keyOrdinal) {
+        if (this.packedKeys[keyOrdinal])
+            return createUnpackedFieldRead(recordVariableName, this.keyFieldNames[keyOrdinal], this.keyTypes[keyOrdinal].byteWidth);
+
+        return new Java.FieldAccessExpression(
+                JaninoGeneralGen.getLocation(),
+                createAmbiguousNameRef(getLocation(), recordVariableName),
+                this.keyFieldNames[keyOrdinal]
+        );
+    }
+
+    /**
+     * Method to generate an expression obtaining the number of buckets of the hash-table.
+     * @return The expression {@code this.hashTable.length}.
+     */
+    private Java.Rvalue createHashTableLength() {
+        return new Java.FieldAccessExpression(
+                JaninoGeneralGen.getLocation(),
+                createThisFieldAccess(getLocation(), hashTableAP.getVariableName()),
+                "length"
+        );
+    }
+
+    /**
+     * Method to generate an expression obtaining the first record index of a hash-table bucket.
+     * @param bucket The variable storing the bucket to obtain the first record index of.
+     * @return The expression {@code this.hashTable[bucket]}.
+     */
+    private Java.Rvalue createBucketHead(ScalarVariableAccessPath bucket) {
+        return createArrayElementAccessExpr(
+                getLocation(),
+                createThisFieldAccess(getLocation(), hashTableAP.getVariableName()),
+                bucket.read()
+        );
+    }
+
     /**
      * Method to generate the statements that convert a pre-hash value into the actual hash value.
      * @param preHashRValue The pre-hash value to convert.
@@ -0,0 +1,469 @@
+package AethraDB.evaluation.general_support.hashmaps;
+
+import AethraDB.evaluation.codegen.infrastructure.data.QueryMemoryAccountant;
+import AethraDB.evaluation.general_support.OperatorProfile;
+import AethraDB.evaluation.general_support.events.HashTableRehashEvent;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.IdentityHashMap;
+
+/**
+ * Base class of the maps generated by the {@link OffHeapKeyMultiRecordMapGenerator}, which map
+ * non-negative integer keys to multiple records. In contrast to the maps generated by the
+ * {@link KeyMultiRecordMapGenerator}, all state of such a map (i.e. the hash-table, the keys, the
+ * collision chains and the record values) is stored in native memory, which is addressed using
+ * long indices. As a result, the size of the map does not affect the garbage collector, and the map
+ * is not limited to the maximum Java array length.
+ *
+ * Native memory is allocated per column through {@code resizeColumn} and is freed explicitly:
+ * old columns are freed as soon as they have been grown, while all remaining columns are freed
+ * when the map is closed. A map should thus be closed once the query no longer needs it. Each
+ * allocation is reserved at the {@link QueryMemoryAccountant} of the query before it is performed,
+ * and released again when the column is freed.
+ *
+ * The records of each key are stored as a linked list of record indices in insertion order. The
+ * generated subclasses store a native column per record value, indexed by the record index, and
+ * grow these columns whenever {@code resizeValueColumns} is invoked. The hash function for the
+ * keys is the {@link Int_Hash_Function}.
+ */
+public abstract class OffHeapIntKeyMultiRecordMap implements AutoCloseable {
+
+    /**
+     * The value used to indicate the absence of a key or record index.
+     */
+    private static final long NO_INDEX = -1L;
+
+    /**
+     * The default value for how many keys should be expected in the map (must be a power of two).
+     */
+    private static final long initialKeysPerMap = 262_144;
+
+    /**
+     * The default value for how many records should be expected in the map.
+     */
+    private static final long initialRecordsPerMap = 262_144;
+
+    /**
+     * The grow-factor used for upgrading the hash-table and the columns when they "overflow".
+     * This factor is lower than that of the on-heap maps, since over-allocation is more costly
+     * for the large maps this class is intended for.
+     */
+    private static final long growFactor = 2;
+
+    /**
+     * The {@link QueryMemoryAccountant} at which this map reserves its native memory.
+     */
+    private final QueryMemoryAccountant memoryAccountant;
+
+    /**
+     * The owner to which this map attributes its native memory at {@code memoryAccountant}.
+     */
+    private final String memoryOwner;
+
+    /**
+     * The {@link Arena} that owns each native column of this map.
+     */
+    private final IdentityHashMap<MemorySegment, Arena> columnArenas;
+
+    /**
+     * The number of native bytes that are currently allocated by this map.
+     */
+    private long allocatedBytes;
+
+    /**
+     * The number of distinct keys in the map.
+     */
+    private long numberOfKeys;
+
+    /**
+     * The number of keys that the key columns can currently hold.
+     */
+    private long keyCapacity;
+
+    /**
+     * Column storing the key for each key index.
+     */
+    private MemorySegment keys;
+
+    /**
+     * Column storing the number of records for each key index.
+     */
+    private MemorySegment keysRecordCount;
+
+    /**
+     * Column storing the index of the first record for each key index.
+     */
+    private MemorySegment keysFirstRecord;
+
+    /**
+     * Column storing the index of the last record for each key index.
+     */
+    private MemorySegment keysLastRecord;
+
+    /**
+     * Column storing the collision chain for each key index.
+     */
+    private MemorySegment next;
+
+    /**
+     * The number of buckets of the hash-table (always a power of two).
+     */
+    private long hashTableSize;
+
+    /**
+     * The hash-table, which stores the first key index of the collision chain of each bucket.
+     */
+    private MemorySegment hashTable;
+
+    /**
+     * The number of records in the map.
+     */
+    private long numberOfRecords;
+
+    /**
+     * The number of records that the record columns can currently hold.
+     */
+    private long recordCapacity;
+
+    /**
+     * Column storing the index of the next record of the same key for each record index.
+     */
+    private MemorySegment recordsNext;
+
+    /**
+     * The number of times the key or record columns of the map were grown.
+     */
+    private int growCount;
+
+    /**
+     * The number of times the hash-table of the map was rebuilt at a larger size.
+     */
+    private int rehashCount;
+
+    /**
+     * Initialise the key, hash-table and record-chain columns of a new map. Subclasses should
+     * allocate their value columns for {@code getRecordCapacity()} records in their constructor.
+     * @param memoryAccountant The {@link QueryMemoryAccountant} at which the map reserves its memory.
+     * @param memoryOwner The owner to which the map attributes its memory.
+     */
+    protected OffHeapIntKeyMultiRecordMap(QueryMemoryAccountant memoryAccountant, String memoryOwner) {
+        this.memoryAccountant = memoryAccountant;
+        this.memoryOwner = memoryOwner;
+        this.columnArenas = new IdentityHashMap<>();
+        this.allocatedBytes = 0;
+
+        this.numberOfKeys = 0;
+        this.keyCapacity = initialKeysPerMap;
+        this.keys = this.resizeColumn(null, this.keyCapacity, ValueLayout.JAVA_INT);
+        this.keysRecordCount = this.resizeColumn(null, this.keyCapacity, ValueLayout.JAVA_INT);
+        this.keysFirstRecord = this.resizeColumn(null, this.keyCapacity, ValueLayout.JAVA_LONG);
+        this.keysLastRecord = this.resizeColumn(null, this.keyCapacity, ValueLayout.JAVA_LONG);
+        this.next = this.resizeColumn(null, this.keyCapacity, ValueLayout.JAVA_LONG);
+
+        this.hashTableSize = initialKeysPerMap;
+        this.hashTable = this.resizeColumn(null, this.hashTableSize, ValueLayout.JAVA_LONG);
+        this.hashTable.fill((byte) 0xFF); // Sets each entry to NO_INDEX
+
+        this.numberOfRecords = 0;
+        this.recordCapacity = initialRecordsPerMap;
+        this.recordsNext = this.resizeColumn(null, this.recordCapacity, ValueLayout.JAVA_LONG);
+
+        this.growCount = 0;
+        this.rehashCount = 0;
+    }
+
+    /**
+     * Method which should grow each value column of the generated map to the given capacity while
+     * retaining its contents, through {@code resizeColumn}.
+     * @param newCapacity The number of records that each value column should be able to hold.
+     */
+    protected abstract void resizeValueColumns(long newCapacity);
+
+    /**
+     * Method to (re-)allocate a native column, copying over the contents of the existing column and
+     * freeing it.
+     * @param column The column to resize, or {@code null} to allocate a new column.
+     * @param newCapacity The number of elements the column should be able to hold.
+     * @param elementLayout The layout of the elements stored in the column.
+     * @return The resized column.
+     */
+    protected final MemorySegment resizeColumn(MemorySegment column, long newCapacity, ValueLayout elementLayout) {
+        long newByteSize = newCapacity * elementLayout.byteSize();
+        this.memoryAccountant.reserve(this.memoryOwner, newByteSize);
+        Arena columnArena = Arena.ofShared();
+        MemorySegment resizedColumn = columnArena.allocate(newByteSize, ValueLayout.JAVA_LONG.byteAlignment());
+        this.columnArenas.put(resizedColumn, columnArena);
+        this.allocatedBytes += newByteSize;
+
+        if (column != null) {
+            MemorySegment.copy(column, 0, resizedColumn, 0, Math.min(column.byteSize(), newByteSize));
+            this.freeColumn(column);
+        }
+
+        return resizedColumn;
+    }
+
+    /**
+     * Method to free a native column of this map.
+     * @param column The column to free.
+     */
+    private void freeColumn(MemorySegment column) {
+        Arena columnArena = this.columnArenas.remove(column);
+        if (columnArena == null)
+            throw new IllegalArgumentException("OffHeapIntKeyMultiRecordMap.freeColumn received a column it did not allocate");
+
+        this.allocatedBytes -= column.byteSize();
+        this.memoryAccountant.release(this.memoryOwner, column.byteSize());
+        columnArena.close();
+    }
+
+    /**
+     * Method to append a new record to the records of a key, which registers the key if necessary.
+     * The generated subclasses should store the values of the record at the returned index.
+     * @param key The key to append the record to.
+     * @param preHash The pre-hash value of {@code key}.
+     * @return The index of the new record.
+     */
+    protected final long appendRecord(int key, long preHash) {
+        if (key < 0)
+            throw new IllegalArgumentException("The map expects non-negative keys");
+
+        long keyIndex = this.find(key, preHash);
+        if (keyIndex == NO_INDEX)
+            keyIndex = this.insertKey(key, preHash);
+
+        // Allocate the record
+        long recordIndex = this.numberOfRecords++;
+        if (recordIndex == this.recordCapacity)
+            this.growRecordColumns();
+        this.recordsNext.setAtIndex(ValueLayout.JAVA_LONG, recordIndex, NO_INDEX);
+
+        // And append it to the record chain of the key
+        long lastRecordIndex = this.keysLastRecord.getAtIndex(ValueLayout.JAVA_LONG, keyIndex);
+        if (lastRecordIndex == NO_INDEX)
+            this.keysFirstRecord.setAtIndex(ValueLayout.JAVA_LONG, keyIndex, recordIndex);
+        else
+            this.recordsNext.setAtIndex(ValueLayout.JAVA_LONG, lastRecordIndex, recordIndex);
+        this.keysLastRecord.setAtIndex(ValueLayout.JAVA_LONG, keyIndex, recordIndex);
+        this.keysRecordCount.setAtIndex(
+                ValueLayout.JAVA_INT, keyIndex, this.keysRecordCount.getAtIndex(ValueLayout.JAVA_INT, keyIndex) + 1);
+
+        return recordIndex;
+    }
+
+    /**
+     * Method to register a key which is not yet contained in the map.
+     * @param key The key to register.
+     * @param preHash The pre-hash value of {@code key}.
+     * @return The key index of {@code key}.
+     */
+    private long insertKey(int key, long preHash) {
+        long keyIndex = this.numberOfKeys++;
+        if (keyIndex == this.keyCapacity)
+            this.growKeyColumns();
+
+        this.keys.setAtIndex(ValueLayout.JAVA_INT, keyIndex, key);
+        this.keysRecordCount.setAtIndex(ValueLayout.JAVA_INT, keyIndex, 0);
+        this.keysFirstRecord.setAtIndex(ValueLayout.JAVA_LONG, keyIndex, NO_INDEX);
+        this.keysLastRecord.setAtIndex(ValueLayout.JAVA_LONG, keyIndex, NO_INDEX);
+
+        // Keep the load factor of the hash-table below 0.75
+        if (this.numberOfKeys > (3 * this.hashTableSize) / 4)
+            this.rehash();
+        else
+            this.putHashEntry(preHash, keyIndex);
+
+        return keyIndex;
+    }
+
+    /**
+     * Method to find the key index of a given key.
+     * @param key The key to find the key index for.
+     * @param preHash The pre-hash value of {@code key}.
+     * @return The key index of {@code key} if it is contained in the map, {@code -1} otherwise.
+     */
+    private long find(int key, long preHash) {
+        long currentIndex = this.hashTable.getAtIndex(ValueLayout.JAVA_LONG, preHash & (this.hashTableSize - 1));
+        while (currentIndex != NO_INDEX && this.keys.getAtIndex(ValueLayout.JAVA_INT, currentIndex) != key)
+            currentIndex = this.next.getAtIndex(ValueLayout.JAVA_LONG, currentIndex);
+        return currentIndex;
+    }
+
+    /**
+     * Method to insert a key index at the head of the collision chain of its bucket.
+     * @param preHash The pre-hash value of the key.
+     * @param keyIndex The key index of the key.
+     */
+    private void putHashEntry(long preHash, long keyIndex) {
+        long bucket = preHash & (this.hashTableSize - 1);
+        this.next.setAtIndex(ValueLayout.JAVA_LONG, keyIndex, this.hashTable.getAtIndex(ValueLayout.JAVA_LONG, bucket));
+        this.hashTable.setAtIndex(ValueLayout.JAVA_LONG, bucket, keyIndex);
+    }
+
+    /**
+     * Method to construct a larger hash-table and re-insert all keys into it.
+     */
+    private void rehash() {
+        HashTableRehashEvent rehashEvent = HashTableRehashEvent.start(
+                this.memoryAccountant.getQueryId(), this.memoryOwner, this.numberOfKeys, this.hashTableSize);
+        this.rehashCount++;
+        this.freeColumn(this.hashTable);
+        this.hashTableSize *= growFactor;
+        this.hashTable = this.resizeColumn(null, this.hashTableSize, ValueLayout.JAVA_LONG);
+        this.hashTable.fill((byte) 0xFF);
+
+        for (long i = 0; i < this.numberOfKeys; i++)
+            this.putHashEntry(Int_Hash_Function.preHash(this.keys.getAtIndex(ValueLayout.JAVA_INT, i)), i);
+        rehashEvent.finish(this.hashTableSize);
+    }
+
+    /**
+     * Method to grow the key columns when they overflow.
+     */
+    private void growKeyColumns() {
+        this.growCount++;
+        this.keyCapacity *= growFactor;
+        this.keys = this.resizeColumn(this.keys, this.keyCapacity, ValueLayout.JAVA_INT);
+        this.keysRecordCount = this.resizeColumn(this.keysRecordCount, this.keyCapacity, ValueLayout.JAVA_INT);
+        this.keysFirstRecord = this.resizeColumn(this.keysFirstRecord, this.keyCapacity, ValueLayout.JAVA_LONG);
+        this.keysLastRecord = this.resizeColumn(this.keysLastRecord, this.keyCapacity, ValueLayout.JAVA_LONG);
+        this.next = this.resizeColumn(this.next, this.keyCapacity, ValueLayout.JAVA_LONG);
+    }
+
+    /**
+     * Method to grow the record columns when they overflow.
+     */
+    private void growRecordColumns() {
+        this.growCount++;
+        this.recordCapacity *= growFactor;
+        this.recordsNext = this.resizeColumn(this.recordsNext, this.recordCapacity, ValueLayout.JAVA_LONG);
+        this.resizeValueColumns(this.recordCapacity);
+    }
+
+    /**
+     * Method to obtain the key index in the map that contains the records for a given key.
+     * @param key The key to obtain the key index for.
+     * @param preHash The pre-hash value of {@code key}.
+     * @return The key index of {@code key} if it is contained in the map, {@code -1} otherwise.
+     */
+    public final long getIndex(int key, long preHash) {
+        if (key < 0)
+            throw new IllegalArgumentException("The map expects non-negative keys");
+
+        return this.find(key, preHash);
+    }
+
+    /**
+     * Method to obtain the number of records associated to a key index.
+     * @param keyIndex The key index to obtain the number of records for.
+     * @return The number of records associated to {@code keyIndex}.
+     */
+    public final int getRecordCount(long keyIndex) {
+        return this.keysRecordCount.getAtIndex(ValueLayout.JAVA_INT, keyIndex);
+    }
+
+    /**
+     * Method to obtain the index of the first record associated to a key index.
+     * @param keyIndex The key index to obtain the first record for.
+     * @return The index of the first record associated to {@code keyIndex}.
+     */
+    public final long getFirstRecord(long keyIndex) {
+        return this.keysFirstRecord.getAtIndex(ValueLayout.JAVA_LONG, keyIndex);
+    }
+
+    /**
+     * Method to obtain the index of the record following a given record of the same key.
+     * @param recordIndex The record to obtain the successor of.
+     * @return The index of the next record of the same key, or {@code -1} if there is none.
+     */
+    public final long getNextRecord(long recordIndex) {
+        return this.recordsNext.getAtIndex(ValueLayout.JAVA_LONG, recordIndex);
+    }
+
+    /**
+     * Method to obtain the number of records that the record columns can currently hold.
+     * @return The number of records that the record columns can currently hold.
+     */
+    protected final long getRecordCapacity() {
+        return this.recordCapacity;
+    }
+
+    /**
+     * Method to obtain the number of distinct keys in the map.
+     * @return The number of distinct keys in the map.
+     */
+    public final long getNumberOfKeys() {
+        return this.numberOfKeys;
+    }
+
+    /**
+     * Method to obtain the number of records in the map.
+     * @return The number of records in the map.
+     */
+    public final long getNumberOfRecords() {
+        return this.numberOfRecords;
+    }
+
+    /**
+     * Method to obtain the number of native bytes currently allocated by the map.
+     * @return The number of native bytes currently allocated by the map.
+     */
+    public final long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    /**
+     * Method to record the statistics of the hash-table of the map in the profile of an operator.
+     * @param profile The {@link OperatorProfile} to record the statistics in.
+     */
+    public final void recordStatistics(OperatorProfile profile) {
+        long chains = 0;
+        long maxChainLength = 0;
+        for (long bucket = 0; bucket < this.hashTableSize; bucket++) {
+            long chainLength = 0;
+            long currentIndex = this.hashTable.getAtIndex(ValueLayout.JAVA_LONG, bucket);
+            while (currentIndex != NO_INDEX) {
+                chainLength++;
+                currentIndex = this.next.getAtIndex(ValueLayout.JAVA_LONG, currentIndex);
+            }
+
+            if (chainLength > 0) {
+                chains++;
+                maxChainLength = Math.max(maxChainLength, chainLength);
+            }
+        }
+
+        profile.recordHashTable(
+                this.numberOfKeys,
+                this.hashTableSize,
+                maxChainLength,
+                chains == 0 ? 0d : ((double) this.numberOfKeys) / chains,
+                this.growCount,
+                this.rehashCount
+        );
+    }
+
+    /**
+     * Method to "clear" the map, while retaining its allocated memory.
+     */
+    public final void reset() {
+        this.numberOfKeys = 0;
+        this.numberOfRecords = 0;
+        this.hashTable.fill((byte) 0xFF);
+    }
+
+    /**
+     * Method to free all native memory of the map, after which the map can no longer be used.
+     */
+    @Override
+    public final void close() {
+        for (Arena columnArena : this.columnArenas.values())
+            columnArena.close();
+        this.columnArenas.clear();
+        this.memoryAccountant.release(this.memoryOwner, this.allocatedBytes);
+        this.allocatedBytes = 0;
+    }
+
+}
@@ -0,0 +1,393 @@
+package AethraDB.evaluation.general_support.hashmaps;
+
+import AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType;
+import AethraDB.evaluation.codegen.infrastructure.context.access_path.ScalarVariableAccessPath;
+import AethraDB.evaluation.codegen.infrastructure.janino.JaninoClassGen;
+import org.codehaus.janino.Access;
+import org.codehaus.janino.Java;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_INT;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableType.P_LONG;
+import static AethraDB.evaluation.codegen.infrastructure.context.QueryVariableTypeMethods.toJavaType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createAmbiguousNameRef;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createReferenceType;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.createThisFieldAccess;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoGeneralGen.getLocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createConstructor;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createFormalParameter;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createFormalParameters;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethod;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocation;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createMethodInvocationStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoMethodGen.createReturnStm;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createLocalVariable;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createSimpleVariableDeclaration;
+import static AethraDB.evaluation.codegen.infrastructure.janino.JaninoVariableGen.createVariableAssignmentStm;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingArguments;
+import static AethraDB.evaluation.general_support.hashmaps.CommonMapGenerator.createMemoryAccountingFormalParameters;
+
+/**
+ * This class provides methods to generate an off-heap hash-map implementation for mapping integer
+ * keys to multiple records, where each field of the record is an int, long or double. The generated
+ * map extends the {@link OffHeapIntKeyMultiRecordMap}, which manages the hash-table, the keys and the
+ * record chains in native memory, and only adds a native column per record field together with the
+ * methods to insert and read records. Compared to the {@link KeyMultiRecordMapGenerator}, the
+ * generated map addresses its records using long indices, and should be closed once it is no
+ * longer needed to free its native memory.
+ */
+public class OffHeapKeyMultiRecordMapGenerator {
+
+    /**
+     * The {@link QueryVariableType} indicating the primitive key type of the map to be generated.
+     */
+    public final QueryVariableType keyType;
+
+    /**
+     * The {@link QueryVariableType}s indicating the primitive type of each record value.
+     */
+    public final QueryVariableType[] valueTypes;
+
+    /**
+     * Boolean keeping track of whether generation has already been performed.
+     */
+    private boolean generationFinished;
+
+    /**
+     * The {@link Java.LocalClassDeclaration} generated by {@code this} if {@code this.generationFinished == true}.
+     */
+    public Java.LocalClassDeclaration mapDeclaration;
+
+    /**
+     * The names of the methods which read the values of a record in the map.
+     */
+    public final String[] valueFieldNames;
+
+    /**
+     * The names of the fields storing the native column of each record value.
+     */
+    private final String[] valueColumnNames;
+
+    /**
+     * Some helper definitions to enhance consistency.
+     */
+    private static final String ASSOCIATE_METHOD_NAME = "associate";
+    private static final String APPEND_RECORD_METHOD_NAME = "appendRecord";
+    private static final String RESIZE_COLUMN_METHOD_NAME = "resizeColumn";
+    private static final String RESIZE_VALUE_COLUMNS_METHOD_NAME = "resizeValueColumns";
+    private static final String GET_RECORD_CAPACITY_METHOD_NAME = "getRecordCapacity";
+
+    /**
+     * Instantiate a {@link OffHeapKeyMultiRecordMapGenerator} to generate a map type for specific
+     * key and value types.
+     * @param keyType The key type that is to be used by the generated map.
+     * @param valueTypes The value types that records in the map should be built up of.
+     */
+    public OffHeapKeyMultiRecordMapGenerator(QueryVariableType keyType, QueryVariableType[] valueTypes) {
+        if (!supports(keyType, valueTypes))
+            throw new IllegalArgumentException("OffHeapKeyMultiRecordMapGenerator expects an int key type and int, long or double value types");
+
+        this.keyType = keyType;
+        this.valueTypes = valueTypes;
+
+        this.generationFinished = false;
+
+        this.valueFieldNames = new String[valueTypes.length];
+        this.valueColumnNames = new String[valueTypes.length];
+        for (int i = 0; i < valueFieldNames.length; i++) {
+            this.valueFieldNames[i] = "value_ord_" + i;
+            this.valueColumnNames[i] = "value_ord_" + i + "_column";
+        }
+    }
+
+    /**
+     * Method to check whether a map can be generated for the given key and value types.
+     * @param keyType The key type that is to be used by the map.
+     * @param valueTypes The value types that records in the map should be built up of.
+     * @return {@code true} iff an off-heap map can be generated for the given types.
+     */
+    public static boolean supports(QueryVariableType keyType, QueryVariableType[] valueTypes) {
+        if (keyType != P_INT)
+            return false;
+
+        for (QueryVariableType valueType : valueTypes) {
+            if (valueLayoutName(valueType) == null)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to obtain the name of the {@link java.lang.foreign.ValueLayout} used for storing a
+     * value of a given type in a native column.
+     * @param valueType The type of the value to store.
+     * @return The name of the layout to use, or {@code null} if the type is not supported.
+     */
+    private static String valueLayoutName(QueryVariableType valueType) {
+        return switch (valueType.logicalType) {
+            case P_INT, P_INT_DATE -> "ValueLayout.JAVA_INT";
+            case P_LONG -> "ValueLayout.JAVA_LONG";
+            case P_DOUBLE -> "ValueLayout.JAVA_DOUBLE";
+            default -> null;
+        };
+    }
+
+    /**
+     * Method to generate the actual map type for the provided specification.
+     * @return A {@link Java.LocalClassDeclaration} defining the configured key-record map type.
+     */
+    public Java.LocalClassDeclaration generate() {
+        // If the type was already generated, return it immediately
+        if (generationFinished)
+            return this.mapDeclaration;
+
+        // Generate the class declaration that will represent the type
+        this.mapDeclaration = new Java.LocalClassDeclaration(
+                getLocation(),
+                null,
+                new Java.Modifier[] {
+                        new Java.AccessModifier(Access.PRIVATE.toString(), getLocation()),
+                        new Java.AccessModifier("final", getLocation())
+                },
+                "OffHeapKeyMultiRecordMap_" + this.hashCode(),
+                null,
+                createReferenceType(getLocation(), "OffHeapIntKeyMultiRecordMap"),
+                new Java.Type[0]
+        );
+
+        // Now generate the class body in a step-by-step fashion
+        this.generateFieldDeclarations();
+        this.generateConstructor();
+        this.generateResizeValueColumnsMethod();
+        this.generateAssociateMethod();
+        this.generateValueReadMethods();
+
+        // Mark that generation was finished and return the generated type
+        this.generationFinished = true;
+        return this.mapDeclaration;
+    }
+
+    /**
+     * Method to generate the native value columns of the generated map type.
+     */
+    private void generateFieldDeclarations() {
+        for (String valueColumnName : this.valueColumnNames) {
+            this.mapDeclaration.addFieldDeclaration(
+                    JaninoClassGen.createPrivateFieldDeclaration(
+                            getLocation(),
+                            createReferenceType(getLocation(), "MemorySegment"),
+                            createSimpleVariableDeclaration(getLocation(), valueColumnName)
+                    )
+            );
+        }
+    }
+
+    /**
+     * Method to generate the constructor of the generated map type, which allocates the value columns.
+     */
+    private void generateConstructor() {
+        // this.resizeValueColumns(this.getRecordCapacity());
+        List<Java.Statement> constructorBody = new ArrayList<>();
+        constructorBody.add(
+                createMethodInvocationStm(
+                        getLocation(),
+                        new Java.ThisReference(getLocation()),
+                        RESIZE_VALUE_COLUMNS_METHOD_NAME,
+                        new Java.Rvalue[] {
+                                createMethodInvocation(
+                                        getLocation(),
+                                        new Java.ThisReference(getLocation()),
+                                        GET_RECORD_CAPACITY_METHOD_NAME
+                                )
+                        }
+                )
+        );
+
+        // Pass the memory accounting parameters on to the OffHeapIntKeyMultiRecordMap constructor
+        createConstructor(
+                getLocation(),
+                this.mapDeclaration,
+                Access.PUBLIC,
+                createMemoryAccountingFormalParameters(),
+                new Java.SuperConstructorInvocation(getLocation(), null, createMemoryAccountingArguments()),
+                constructorBody
+        );
+    }
+
+    /**
+     * Method to generate the "resizeValueColumns" method, which grows each value column to a new capacity.
+     */
+    private void generateResizeValueColumnsMethod() {
+        ScalarVariableAccessPath newCapacityAP = new ScalarVariableAccessPath("newCapacity", P_LONG);
+
+        // this.[valueColumn] = this.resizeColumn(this.[valueColumn], newCapacity, [valueLayout]);
+        List<Java.Statement> methodBody = new ArrayList<>();
+        for (int i = 0; i < this.valueColumnNames.length; i++) {
+            methodBody.add(
+                    createVariableAssignmentStm(
+                            getLocation(),
+                            createThisFieldAccess(getLocation(), this.valueColumnNames[i]),
+                            createMethodInvocation(
+                                    getLocation(),
+                                    new Java.ThisReference(getLocation()),
+                                    RESIZE_COLUMN_METHOD_NAME,
+                                    new Java.Rvalue[] {
+                                            createThisFieldAccess(getLocation(), this.valueColumnNames[i]),
+                                            newCapacityAP.read(),
+                                            createAmbiguousNameRef(getLocation(), valueLayoutName(this.valueTypes[i]))
+                                    }
+                            )
+                    )
+            );
+        }
+
+        // protected void resizeValueColumns(long newCapacity)
+        createMethod(
+                getLocation(),
+                this.mapDeclaration,
+                Access.PROTECTED,
+                new Java.PrimitiveType(getLocation(), Java.Primitive.VOID),
+                RESIZE_VALUE_COLUMNS_METHOD_NAME,
+                createFormalParameters(
+                        getLocation(),
+                        new Java.FunctionDeclarator.FormalParameter[] {
+                                createFormalParameter(
+                                        getLocation(),
+                                        toJavaType(getLocation(), newCapacityAP.getType()),
+                                        newCapacityAP.getVariableName()
+                                )
+                        }
+                ),
+                methodBody
+        );
+    }
+
+    /**
+     * Method to generate the "associate" method, which appends a record to the records of a key.
+     */
+    private void generateAssociateMethod() {
+        // Generate the method signature
+        var formalParameters = new Java.FunctionDeclarator.FormalParameter[this.valueFieldNames.length + 2];
+        formalParameters[0] = createFormalParameter(getLocation(), toJavaType(getLocation(), this.keyType), "key");
+        formalParameters[1] = createFormalParameter(getLocation(), toJavaType(getLocation(), P_LONG), "preHash");
+        for (int i = 0; i < this.valueFieldNames.length; i++) {
+            formalParameters[i + 2] = createFormalParameter(
+                    getLocation(), toJavaType(getLocation(), this.valueTypes[i]), this.valueFieldNames[i]);
+        }
+
+        List<Java.Statement> associateMethodBody = new ArrayList<>();
+
+        // long recordIndex = this.appendRecord(key, preHash);
+        ScalarVariableAccessPath recordIndexAP = new ScalarVariableAccessPath("recordIndex", P_LONG);
+        associateMethodBody.add(
+                createLocalVariable(
+                        getLocation(),
+                        toJavaType(getLocation(), recordIndexAP.getType()),
+                        recordIndexAP.getVariableName(),
+                        createMethodInvocation(
+                                getLocation(),
+                                new Java.ThisReference(getLocation()),
+                                APPEND_RECORD_METHOD_NAME,
+                                new Java.Rvalue[] {
+                                        createAmbiguousNameRef(getLocation(), formalParameters[0].name),
+                                        createAmbiguousNameRef(getLocation(), formalParameters[1].name)
+                                }
+                        )
+                )
+        );
+
+        // this.[valueColumn].setAtIndex([valueLayout], recordIndex, [value]);
+        for (int i = 0; i < this.valueColumnNames.length; i++) {
+            associateMethodBody.add(
+                    createMethodInvocationStm(
+                            getLocation(),
+                            createThisFieldAccess(getLocation(), this.valueColumnNames[i]),
+                            "setAtIndex",
+                            new Java.Rvalue[] {
+                                    createAmbiguousNameRef(getLocation(), valueLayoutName(this.valueTypes[i])),
+                                    recordIndexAP.read(),
+                                    createAmbiguousNameRef(getLocation(), this.valueFieldNames[i])
+                            }
+                    )
+            );
+        }
+
+        // public void associate([keyType] key, long preHash, [values ...])
+        createMethod(
+                getLocation(),
+                this.mapDeclaration,
+                Access.PUBLIC,
+                new Java.PrimitiveType(getLocation(), Java.Primitive.VOID),
+                ASSOCIATE_METHOD_NAME,
+                createFormalParameters(getLocation(), formalParameters),
+                associateMethodBody
+        );
+    }
+
+    /**
+     * Method to generate a method per record value, which reads the value of a given record.
+     */
+    private void generateValueReadMethods() {
+        ScalarVariableAccessPath recordIndexAP = new ScalarVariableAccessPath("recordIndex", P_LONG);
+
+        for (int i = 0; i < this.valueFieldNames.length; i++) {
+            // return this.[valueColumn].getAtIndex([valueLayout], recordIndex);
+            List<Java.Statement> methodBody = new ArrayList<>();
+            methodBody.add(
+                    createReturnStm(
+                            getLocation(),
+                            createMethodInvocation(
+                                    getLocation(),
+                                    createThisFieldAccess(getLocation(), this.valueColumnNames[i]),
+                                    "getAtIndex",
+                                    new Java.Rvalue[] {
+                                            createAmbiguousNameRef(getLocation(), valueLayoutName(this.valueTypes[i])),
+                                            recordIndexAP.read()
+                                    }
+                            )
+                    )
+            );
+
+            // public [valueType] [valueFieldName](long recordIndex)
+            createMethod(
+                    getLocation(),
+                    this.mapDeclaration,
+                    Access.PUBLIC,
+                    toJavaType(getLocation(), this.valueTypes[i]),
+                    this.valueFieldNames[i],
+                    createFormalParameters(
+                            getLocation(),
+                            new Java.FunctionDeclarator.FormalParameter[] {
+                                    createFormalParameter(
+                                            getLocation(),
+                                            toJavaType(getLocation(), recordIndexAP.getType()),
+                                            recordIndexAP.getVariableName()
+                                    )
+                            }
+                    ),
+                    methodBody
+            );
+        }
+    }
+
+    /**
+     * Method to generate the {@link Java.Rvalue} which reads a value of a record in a map of this type.
+     * @param mapRvalue The map to read the value from.
+     * @param recordIndexRvalue The index of the record to read the value from.
+     * @param valueOrdinal The index of the value within the record.
+     * @return An {@link Java.Rvalue} corresponding to the requested value.
+     */
+    public Java.Rvalue createValueRead(Java.Rvalue mapRvalue, Java.Rvalue recordIndexRvalue, int valueOrdinal) {
+        // [map].[valueFieldName](recordIndex)
+        return createMethodInvocation(
+                getLocation(),
+                mapRvalue,
+                this.valueFieldNames[valueOrdinal],
+                new Java.Rvalue[] { recordIndexRvalue }
+        );
+    }
+
+}
@@ -3,6 +3,9 @@ package AethraDB.evaluation.vector_support;
 import AethraDB.evaluation.general_support.hashmaps.KeyValueMapGenerator;
 import org.apache.arrow.vector.Float8Vector;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
 /**
  * Class containing vectorised primitives for aggregation operators.
  */
@@ -43,6 +46,73 @@ public class VectorisedAggregationOperators extends VectorisedOperators {
         return sum;
     }
 
+    /**
+     * Method for computing the sum of all valid entries in a vector as indicated by a selection vector.
+     * @param vector The vector to compute the sum of.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param selectionVector The selection vector indicating the valid entries of {@code vector}.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(int[] vector, int vectorLength, int[] selectionVector, int selectionVectorLength) {
+        long sum = 0;
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            sum += vector[selectedIndex];
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in a vector as indicated by a validity mask.
+     * @param vector The vector to compute the sum of.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param validityMask The mask indicating the valid entries of {@code vector}.
+     * @param validityMaskLength The length of the valid portion of {@code validityMask}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(int[] vector, int vectorLength, boolean[] validityMask, int validityMaskLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            if (validityMask[i]) {
+                sum += vector[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in a vector.
+     * @param vector The vector to compute the sum of.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(long[] vector, int vectorLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            sum += vector[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in a vector as indicated by a validity mask.
+     * @param vector The vector to compute the sum of.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param validityMask The mask indicating the valid entries of {@code vector}.
+     * @param validityMaskLength The length of the valid portion of {@code validityMask}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(long[] vector, int vectorLength, boolean[] validityMask, int validityMaskLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            if (validityMask[i]) {
+                sum += vector[i];
+            }
+        }
+        return sum;
+    }
+
     /**
      * Method for computing the sum of all entries in a vector.
      * @param vector The vector to compute the sum of.
@@ -106,6 +176,141 @@ public class VectorisedAggregationOperators extends VectorisedOperators {
         return sum;
     }
 
+    /**
+     * Method for computing the sum of all valid entries in an off-heap double vector.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static double vectorSum(MemorySegment vector, int vectorLength) {
+        double sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            sum += vector.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap double vector as indicated by a selection vector.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param selectionVector The selection vector indicating the valid entries of {@code vector}.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static double vectorSum(MemorySegment vector, int vectorLength, int[] selectionVector, int selectionVectorLength) {
+        double sum = 0d;
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            sum += vector.getAtIndex(ValueLayout.JAVA_DOUBLE, selectedIndex);
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap double vector as indicated by a validity mask.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param validityMask The mask indicating the valid entries of {@code vector}.
+     * @param validityMaskLength The length of the valid portion of {@code validityMask}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static double vectorSum(MemorySegment vector, int vectorLength, boolean[] validityMask, int validityMaskLength) {
+        double sum = 0d;
+        for (int i = 0; i < vectorLength; i++) {
+            if (validityMask[i]) {
+                sum += vector.getAtIndex(ValueLayout.JAVA_DOUBLE, i);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap int vector.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param layout The layout of the entries of {@code vector}.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(MemorySegment vector, ValueLayout.OfInt layout, int vectorLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            sum += vector.getAtIndex(layout, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap int vector as indicated by a selection vector.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param layout The layout of the entries of {@code vector}.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param selectionVector The selection vector indicating the valid entries of {@code vector}.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(MemorySegment vector, ValueLayout.OfInt layout, int vectorLength, int[] selectionVector, int selectionVectorLength) {
+        long sum = 0;
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            sum += vector.getAtIndex(layout, selectedIndex);
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap int vector as indicated by a validity mask.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param layout The layout of the entries of {@code vector}.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param validityMask The mask indicating the valid entries of {@code vector}.
+     * @param validityMaskLength The length of the valid portion of {@code validityMask}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(MemorySegment vector, ValueLayout.OfInt layout, int vectorLength, boolean[] validityMask, int validityMaskLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            if (validityMask[i]) {
+                sum += vector.getAtIndex(layout, i);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap long vector.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param layout The layout of the entries of {@code vector}.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(MemorySegment vector, ValueLayout.OfLong layout, int vectorLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            sum += vector.getAtIndex(layout, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Method for computing the sum of all valid entries in an off-heap long vector as indicated by a validity mask.
+     * @param vector The vector to compute the sum of, represented as a memory segment.
+     * @param layout The layout of the entries of {@code vector}.
+     * @param vectorLength The length of the valid portion of {@code vector}.
+     * @param validityMask The mask indicating the valid entries of {@code vector}.
+     * @param validityMaskLength The length of the valid portion of {@code validityMask}.
+     * @return The sum of all entries in {@code vector}.
+     */
+    public static long vectorSum(MemorySegment vector, ValueLayout.OfLong layout, int vectorLength, boolean[] validityMask, int validityMaskLength) {
+        long sum = 0;
+        for (int i = 0; i < vectorLength; i++) {
+            if (validityMask[i]) {
+                sum += vector.getAtIndex(layout, i);
+            }
+        }
+        return sum;
+    }
+
     /**
      * Method to construct a vector from a map generated by {@link KeyValueMapGenerator}.
      * @param resultVector The vector to construct into.
@@ -3,6 +3,9 @@ package AethraDB.evaluation.vector_support;
 import org.apache.arrow.vector.Float8Vector;
 import org.apache.arrow.vector.IntVector;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
 /**
  * Class containing vectorised primitives for arithmetic operators.
  */
@@ -335,4 +338,359 @@ public class VectorisedArithmeticOperators extends VectorisedOperators {
         return lhsArrayVectorLength;
     }
 
+    /* --------------------------------------------------------------------------------------------------- */
+
+    /* THE BELOW METHODS ARE OVERLOADS OF THE ABOVE METHODS FOR OFF-HEAP VECTORS REPRESENTED AS MEMORY SEGMENTS */
+
+    /**
+     * Method to multiply two int vectors, but only at the indices indicated by a given selection vector.
+     * @param lhsArrowVector The left-hand side int vector, represented as an arrow vector.
+     * @param rhsArrowVector The right-hand side int vector, represented as an arrow vector.
+     * @param selectionVector The vector indicating which indices the operation should be performed at.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(
+            IntVector lhsArrowVector,
+            IntVector rhsArrowVector,
+            int[] selectionVector,
+            int selectionVectorLength,
+            MemorySegment result) {
+        int vectorLength = lhsArrowVector.getValueCount();
+        assert vectorLength == rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            result.setAtIndex(ValueLayout.JAVA_INT, selectedIndex, lhsArrowVector.get(selectedIndex) * rhsArrowVector.get(selectedIndex));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors.
+     * @param lhsArrowVector The left-hand side double vector, represented as an arrow vector.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(Float8Vector lhsArrowVector, Float8Vector rhsArrowVector, MemorySegment result) {
+        int vectorLength = lhsArrowVector.getValueCount();
+        assert vectorLength == rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < vectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, lhsArrowVector.get(i) * rhsArrowVector.get(i));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors, but only at the indices indicated by a given selection vector.
+     * @param lhsArrowVector The left-hand side double vector, represented as an arrow vector.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param selectionVector The vector indicating which indices the operation should be performed at.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(
+            Float8Vector lhsArrowVector,
+            Float8Vector rhsArrowVector,
+            int[] selectionVector,
+            int selectionVectorLength,
+            MemorySegment result) {
+        int vectorLength = lhsArrowVector.getValueCount();
+        assert vectorLength == rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, selectedIndex, lhsArrowVector.get(selectedIndex) * rhsArrowVector.get(selectedIndex));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors.
+     * @param lhsArrowVector The left-hand side double vector, represented as an arrow vector.
+     * @param rhsSegmentVector The right-hand side double vector, represented as a memory segment.
+     * @param rhsSegmentVectorLength The length of the valid portion of {@code rhsSegmentVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(Float8Vector lhsArrowVector, MemorySegment rhsSegmentVector, int rhsSegmentVectorLength, MemorySegment result) {
+        int vectorLength = lhsArrowVector.getValueCount();
+        assert vectorLength == rhsSegmentVectorLength;
+
+        for (int i = 0; i < vectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, lhsArrowVector.get(i) * rhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, i));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors.
+     * @param lhsSegmentVector The left-hand side double vector, represented as a memory segment.
+     * @param lhsSegmentVectorLength The length of the valid portion of {@code lhsSegmentVector}.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(MemorySegment lhsSegmentVector, int lhsSegmentVectorLength, Float8Vector rhsArrowVector, MemorySegment result) {
+        assert lhsSegmentVectorLength == rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < lhsSegmentVectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, lhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, i) * rhsArrowVector.get(i));
+        }
+
+        return lhsSegmentVectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors, but only at the indices indicated by a given selection vector.
+     * @param lhsArrowVector The left-hand side double vector, represented as an arrow vector.
+     * @param rhsSegmentVector The right-hand side double vector, represented as a memory segment.
+     * @param rhsSegmentVectorLength The length of the valid portion of {@code rhsSegmentVector}.
+     * @param selectionVector The vector indicating which indices the operation should be performed at.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(
+            Float8Vector lhsArrowVector,
+            MemorySegment rhsSegmentVector,
+            int rhsSegmentVectorLength,
+            int[] selectionVector,
+            int selectionVectorLength,
+            MemorySegment result) {
+        int vectorLength = lhsArrowVector.getValueCount();
+        assert vectorLength == rhsSegmentVectorLength;
+
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            result.setAtIndex(
+                    ValueLayout.JAVA_DOUBLE,
+                    selectedIndex,
+                    lhsArrowVector.get(selectedIndex) * rhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, selectedIndex));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors.
+     * @param lhsSegmentVector The left-hand side double vector, represented as a memory segment.
+     * @param lhsSegmentVectorLength The length of the valid portion of {@code lhsSegmentVector}.
+     * @param rhsSegmentVector The right-hand side double vector, represented as a memory segment.
+     * @param rhsSegmentVectorLength The length of the valid portion of {@code rhsSegmentVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(
+            MemorySegment lhsSegmentVector,
+            int lhsSegmentVectorLength,
+            MemorySegment rhsSegmentVector,
+            int rhsSegmentVectorLength,
+            MemorySegment result) {
+        assert lhsSegmentVectorLength == rhsSegmentVectorLength;
+
+        for (int i = 0; i < lhsSegmentVectorLength; i++) {
+            result.setAtIndex(
+                    ValueLayout.JAVA_DOUBLE,
+                    i,
+                    lhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, i) * rhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, i));
+        }
+
+        return lhsSegmentVectorLength;
+    }
+
+    /**
+     * Method to multiply two double vectors, but only at the indices indicated by a selection vector.
+     * @param lhsSegmentVector The left-hand side double vector, represented as a memory segment.
+     * @param lhsSegmentVectorLength The length of the valid portion of {@code lhsSegmentVector}.
+     * @param rhsSegmentVector The right-hand side double vector, represented as a memory segment.
+     * @param rhsSegmentVectorLength The length of the valid portion of {@code rhsSegmentVector}.
+     * @param selectionVector The vector indicating which indices the operation should be performed at.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int multiply(
+            MemorySegment lhsSegmentVector,
+            int lhsSegmentVectorLength,
+            MemorySegment rhsSegmentVector,
+            int rhsSegmentVectorLength,
+            int[] selectionVector,
+            int selectionVectorLength,
+            MemorySegment result)
+    {
+        assert lhsSegmentVectorLength == rhsSegmentVectorLength;
+
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            result.setAtIndex(
+                    ValueLayout.JAVA_DOUBLE,
+                    selectedIndex,
+                    lhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, selectedIndex) * rhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, selectedIndex));
+        }
+
+        return lhsSegmentVectorLength;
+    }
+
+    /**
+     * Method to create a double vector by "pairwise" adding a double vector to a scalar value.
+     * @param lhsScalar The left-hand side scalar value to add from.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int add(int lhsScalar, Float8Vector rhsArrowVector, MemorySegment result) {
+        int vectorLength = rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < vectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, ((double) lhsScalar) + rhsArrowVector.get(i));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to create a double vector by "pairwise" adding a double vector to a scalar value, but
+     * only at the indices indicating by a given selection vector.
+     * @param lhsScalar The left-hand side scalar value to add from.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param selectionVector The vector indicating which indices the operation should be performed at.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int add(
+            int lhsScalar,
+            Float8Vector rhsArrowVector,
+            int[] selectionVector,
+            int selectionVectorLength,
+            MemorySegment result)
+    {
+        int vectorLength = rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int selectedIndex = selectionVector[i];
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, selectedIndex, ((double) lhsScalar) + rhsArrowVector.get(selectedIndex));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to create a double vector by "pairwise" adding two double vectors.
+     * @param lhsArrowVector The left-hand side double vector, represented as an arrow vector.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int add(Float8Vector lhsArrowVector, Float8Vector rhsArrowVector, MemorySegment result) {
+        int vectorLength = rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < vectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, lhsArrowVector.get(i) + rhsArrowVector.get(i));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to create a double vector by "pairwise" subtracting a double vector from a scalar value.
+     * @param lhsScalar The left-hand side scalar value to subtract from.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int subtract(int lhsScalar, Float8Vector rhsArrowVector, MemorySegment result) {
+        int vectorLength = rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < vectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, ((double) lhsScalar) - rhsArrowVector.get(i));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to create a double vector by "pairwise" subtracting a double vector from a scalar value
+     * only at the indices of a given selection vector.
+     * @param lhsScalar The left-hand side scalar value to subtract from.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param selectionVector The vector indicating which indices the operation should be performed at.
+     * @param selectionVectorLength The length of the valid portion of {@code selectionVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int subtract(
+            int lhsScalar,
+            Float8Vector rhsArrowVector,
+            int[] selectionVector,
+            int selectionVectorLength,
+            MemorySegment result)
+    {
+        int vectorLength = rhsArrowVector.getValueCount();
+
+        for (int i = 0; i < selectionVectorLength; i++) {
+            int resultIndex = selectionVector[i];
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, resultIndex, ((double) lhsScalar) - rhsArrowVector.get(resultIndex));
+        }
+
+        return vectorLength;
+    }
+
+    /**
+     * Method to create a double vector by "pairwise" subtracting two double vectors.
+     * @param lhsSegmentVector The left-hand side double vector, represented as a memory segment.
+     * @param lhsSegmentVectorLength The length of the valid portion of {@code lhsSegmentVector}.
+     * @param rhsArrowVector The right-hand side double vector, represented as an arrow vector.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int subtract(
+            MemorySegment lhsSegmentVector,
+            int lhsSegmentVectorLength,
+            Float8Vector rhsArrowVector,
+            MemorySegment result)
+    {
+        for (int i = 0; i < lhsSegmentVectorLength; i++) {
+            result.setAtIndex(ValueLayout.JAVA_DOUBLE, i, lhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, i) - rhsArrowVector.get(i));
+        }
+
+        return lhsSegmentVectorLength;
+    }
+
+    /**
+     * Method to divide two vectors.
+     * @param lhsSegmentVector The left-hand side double vector, represented as a memory segment.
+     * @param lhsSegmentVectorLength The length of the valid portion of {@code lhsSegmentVector}.
+     * @param rhsSegmentVector The right-hand side integer vector, represented as a memory segment.
+     * @param rhsSegmentVectorLength The length of the valid portion of {@code rhsSegmentVector}.
+     * @param result The memory segment to which the result should be written.
+     * @return The length of the valid portion of {@code result}.
+     */
+    public static int divide(
+            MemorySegment lhsSegmentVector,
+            int lhsSegmentVectorLength,
+            MemorySegment rhsSegmentVector,
+            int rhsSegmentVectorLength,
+            MemorySegment result) {
+        assert lhsSegmentVectorLength == rhsSegmentVectorLength;
+
+        for (int i = 0; i < lhsSegmentVectorLength; i++) {
+            result.setAtIndex(
+                    ValueLayout.JAVA_DOUBLE,
+                    i,
+                    lhsSegmentVector.getAtIndex(ValueLayout.JAVA_DOUBLE, i) / rhsSegmentVector.getAtIndex(ValueLayout.JAVA_INT, i));
+        }
+
+        return lhsSegmentVectorLength;
+    }
+
 }
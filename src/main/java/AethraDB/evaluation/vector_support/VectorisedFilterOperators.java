@@ -1,5 +1,7 @@
 package AethraDB.evaluation.vector_support;
 
+import AethraDB.evaluation.general_support.LikeMatcher;
+import AethraDB.evaluation.general_support.PackedStrings;
 import org.apache.arrow.memory.util.MemoryUtil;
 import org.apache.arrow.vector.IntVector;
 
@@ -166,6 +168,41 @@ public class VectorisedFilterOperators extends VectorisedOperators {
 
     /* --------------------------------------------------------------------------------------------------- */
 
+    public static int between_ge_le(IntVector vector, int lower, int upper, int[] selectionVector) {
+        // The unsigned offset from the lower bound is within the span iff both bounds hold (requires lower <= upper)
+        int span = upper - lower;
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (Integer.compareUnsigned(vector.get(i) - lower, span) <= 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int between_ge_le(
+            IntVector vector,
+            int lower,
+            int upper,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int span = upper - lower;
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (Integer.compareUnsigned(vector.get(validIndex) - lower, span) <= 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    /* --------------------------------------------------------------------------------------------------- */
+
     public static int gt(org.apache.arrow.vector.DateDayVector vector, int condition, int[] selectionVector) {
         int selectionVectorIndex = 0;
 
@@ -224,6 +261,38 @@ public class VectorisedFilterOperators extends VectorisedOperators {
         return selectionVectorIndex;
     }
 
+    public static int between_ge_le(org.apache.arrow.vector.DateDayVector vector, int lower, int upper, int[] selectionVector) {
+        int span = upper - lower;
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (Integer.compareUnsigned(vector.get(i) - lower, span) <= 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int between_ge_le(
+            org.apache.arrow.vector.DateDayVector vector,
+            int lower,
+            int upper,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int span = upper - lower;
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (Integer.compareUnsigned(vector.get(validIndex) - lower, span) <= 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
     /* --------------------------------------------------------------------------------------------------- */
 
     public static int gt(org.apache.arrow.vector.DateDayVector vector, int condition, int[] selectionVector, int[] validIndices, int validIndicesCount) {
@@ -516,6 +585,18 @@ public class VectorisedFilterOperators extends VectorisedOperators {
 
     /* --------------------------------------------------------------------------------------------------- */
 
+    public static int between_ge_le(org.apache.arrow.vector.Float8Vector vector, double lower, double upper, int[] selectionVector) {
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            double value = vector.get(i);
+            if (value >= lower && value <= upper)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
     public static int between_ge_le(
             org.apache.arrow.vector.Float8Vector vector,
             double lower,
@@ -582,4 +663,355 @@ public class VectorisedFilterOperators extends VectorisedOperators {
         return vectorLength;
     }
 
+    /* --------------------------------------------------------------------------------------------------- */
+
+    public static int eq(org.apache.arrow.vector.FixedSizeBinaryVector vector, long word0, long word1, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth, word0, word1) == 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int gt(org.apache.arrow.vector.FixedSizeBinaryVector vector, long word0, long word1, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth, word0, word1) > 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int ge(org.apache.arrow.vector.FixedSizeBinaryVector vector, long word0, long word1, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth, word0, word1) >= 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int lt(org.apache.arrow.vector.FixedSizeBinaryVector vector, long word0, long word1, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth, word0, word1) < 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int le(org.apache.arrow.vector.FixedSizeBinaryVector vector, long word0, long word1, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth, word0, word1) <= 0)
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    /* --------------------------------------------------------------------------------------------------- */
+
+    public static int eq(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            long word0,
+            long word1,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth, word0, word1) == 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int gt(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            long word0,
+            long word1,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth, word0, word1) > 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int ge(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            long word0,
+            long word1,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth, word0, word1) >= 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int lt(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            long word0,
+            long word1,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth, word0, word1) < 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int le(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            long word0,
+            long word1,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (PackedStrings.compare(vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth, word0, word1) <= 0)
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    /* --------------------------------------------------------------------------------------------------- */
+
+    public static int like(org.apache.arrow.vector.VarCharVector vector, LikeMatcher matcher, int[] selectionVector) {
+        long offsetBufferAddress = vector.getOffsetBufferAddress();
+        long dataBufferAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        int startOffset = MemoryUtil.UNSAFE.getInt(offsetBufferAddress);
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            int endOffset = MemoryUtil.UNSAFE.getInt(offsetBufferAddress + 4L * (i + 1));
+            if (matcher.matches(null, dataBufferAddress + startOffset, endOffset - startOffset))
+                selectionVector[selectionVectorIndex++] = i;
+            startOffset = endOffset;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int like(
+            org.apache.arrow.vector.VarCharVector vector,
+            LikeMatcher matcher,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        long offsetBufferAddress = vector.getOffsetBufferAddress();
+        long dataBufferAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            long offsetAddress = offsetBufferAddress + 4L * validIndex;
+            int startOffset = MemoryUtil.UNSAFE.getInt(offsetAddress);
+            int endOffset = MemoryUtil.UNSAFE.getInt(offsetAddress + 4L);
+            if (matcher.matches(null, dataBufferAddress + startOffset, endOffset - startOffset))
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int like(org.apache.arrow.vector.FixedSizeBinaryVector vector, LikeMatcher matcher, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (matcher.matches(null, vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth))
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int like(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            LikeMatcher matcher,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (matcher.matches(null, vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth))
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    /* --------------------------------------------------------------------------------------------------- */
+
+    public static int notLike(org.apache.arrow.vector.VarCharVector vector, LikeMatcher matcher, int[] selectionVector) {
+        long offsetBufferAddress = vector.getOffsetBufferAddress();
+        long dataBufferAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        int startOffset = MemoryUtil.UNSAFE.getInt(offsetBufferAddress);
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            int endOffset = MemoryUtil.UNSAFE.getInt(offsetBufferAddress + 4L * (i + 1));
+            if (!matcher.matches(null, dataBufferAddress + startOffset, endOffset - startOffset))
+                selectionVector[selectionVectorIndex++] = i;
+            startOffset = endOffset;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int notLike(
+            org.apache.arrow.vector.VarCharVector vector,
+            LikeMatcher matcher,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        long offsetBufferAddress = vector.getOffsetBufferAddress();
+        long dataBufferAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            long offsetAddress = offsetBufferAddress + 4L * validIndex;
+            int startOffset = MemoryUtil.UNSAFE.getInt(offsetAddress);
+            int endOffset = MemoryUtil.UNSAFE.getInt(offsetAddress + 4L);
+            if (!matcher.matches(null, dataBufferAddress + startOffset, endOffset - startOffset))
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int notLike(org.apache.arrow.vector.FixedSizeBinaryVector vector, LikeMatcher matcher, int[] selectionVector) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < vector.getValueCount(); i++) {
+            if (!matcher.matches(null, vectorMemoryBaseAddress + (long) i * vectorWidth, vectorWidth))
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int notLike(
+            org.apache.arrow.vector.FixedSizeBinaryVector vector,
+            LikeMatcher matcher,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int vectorWidth = vector.getByteWidth();
+        long vectorMemoryBaseAddress = vector.getDataBufferAddress();
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (!matcher.matches(null, vectorMemoryBaseAddress + (long) validIndex * vectorWidth, vectorWidth))
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int inCodeSet(IntVector codeVector, boolean[] codeBitmap, int[] selectionVector) {
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < codeVector.getValueCount(); i++) {
+            if (codeBitmap[codeVector.get(i)])
+                selectionVector[selectionVectorIndex++] = i;
+        }
+
+        return selectionVectorIndex;
+    }
+
+    public static int inCodeSet(
+            IntVector codeVector,
+            boolean[] codeBitmap,
+            int[] selectionVector,
+            int[] validIndices,
+            int validIndicesCount
+    ) {
+        int selectionVectorIndex = 0;
+
+        for (int i = 0; i < validIndicesCount; i++) {
+            int validIndex = validIndices[i];
+            if (codeBitmap[codeVector.get(validIndex)])
+                selectionVector[selectionVectorIndex++] = validIndex;
+        }
+
+        return selectionVectorIndex;
+    }
+
 }
@@ -2,11 +2,13 @@ package AethraDB.evaluation.vector_support;
 
 import AethraDB.evaluation.general_support.hashmaps.Char_Arr_Hash_Function;
 import AethraDB.evaluation.general_support.hashmaps.Double_Hash_Function;
+import AethraDB.evaluation.general_support.hashmaps.HashFunctionFamily;
 import AethraDB.evaluation.general_support.hashmaps.Int_Hash_Function;
 import org.apache.arrow.vector.IntVector;
 
 /**
- * Class containing vectorised primitives for hashing operators.
+ * Class containing vectorised primitives for hashing operators. Pre-hash vectors of multi-column
+ * keys are extended per column using {@link HashFunctionFamily#combine}.
  */
 public class VectorisedHashOperators extends VectorisedOperators  {
 
@@ -40,7 +42,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
             IntVector keyVector
     ) {
         for (int i = 0; i < keyVector.getValueCount(); i++)
-            preHashKeyVector[i] ^= Int_Hash_Function.preHash(keyVector.get(i));
+            preHashKeyVector[i] = HashFunctionFamily.combine(preHashKeyVector[i], Int_Hash_Function.preHash(keyVector.get(i)));
     }
 
     /**
@@ -79,7 +81,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
     ) {
         for (int i = 0; i < selectionVectorLength; i++) {
             int recordIndex = selectionVector[i];
-            preHashKeyVector[recordIndex] ^= Int_Hash_Function.preHash(keyVector.get(recordIndex));
+            preHashKeyVector[recordIndex] = HashFunctionFamily.combine(preHashKeyVector[recordIndex], Int_Hash_Function.preHash(keyVector.get(recordIndex)));
         }
     }
 
@@ -110,7 +112,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
             int keyVectorLength
     ) {
         for (int i = 0; i < keyVectorLength; i++)
-            preHashKeyVector[i] ^= Int_Hash_Function.preHash(keyVector[i]);
+            preHashKeyVector[i] = HashFunctionFamily.combine(preHashKeyVector[i], Int_Hash_Function.preHash(keyVector[i]));
     }
 
     /**
@@ -140,7 +142,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
             int keyVectorLength
     ) {
         for (int i = 0; i < keyVectorLength; i++)
-            preHashKeyVector[i] ^= Double_Hash_Function.preHash(keyVector[i]);
+            preHashKeyVector[i] = HashFunctionFamily.combine(preHashKeyVector[i], Double_Hash_Function.preHash(keyVector[i]));
     }
 
     /**
@@ -166,7 +168,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
             org.apache.arrow.vector.FixedSizeBinaryVector keyVector
     ) {
         for (int i = 0; i < keyVector.getValueCount(); i++)
-            preHashKeyVector[i] ^= Char_Arr_Hash_Function.preHash(keyVector, i);
+            preHashKeyVector[i] = HashFunctionFamily.combine(preHashKeyVector[i], Char_Arr_Hash_Function.preHash(keyVector, i));
     }
 
     /**
@@ -196,7 +198,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
             int keyVectorLength
     ) {
         for (int i = 0; i < keyVectorLength; i++)
-            preHashKeyVector[i] ^= Char_Arr_Hash_Function.preHash(keyVector[i]);
+            preHashKeyVector[i] = HashFunctionFamily.combine(preHashKeyVector[i], Char_Arr_Hash_Function.preHash(keyVector[i]));
     }
 
     /**
@@ -233,7 +235,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
     ) {
         for (int i = 0; i < selectionVectorLength; i++) {
             int recordIndex = selectionVector[i];
-            preHashKeyVector[recordIndex] ^= Char_Arr_Hash_Function.preHash(keyVector, recordIndex);
+            preHashKeyVector[recordIndex] = HashFunctionFamily.combine(preHashKeyVector[recordIndex], Char_Arr_Hash_Function.preHash(keyVector, recordIndex));
         }
     }
 
@@ -275,7 +277,7 @@ public class VectorisedHashOperators extends VectorisedOperators  {
     ) {
         for (int i = 0; i < selectionVectorLength; i++) {
             int recordIndex = selectionVector[i];
-            preHashKeyVector[recordIndex] ^= Char_Arr_Hash_Function.preHash(keyVector[recordIndex]);
+            preHashKeyVector[recordIndex] = HashFunctionFamily.combine(preHashKeyVector[recordIndex], Char_Arr_Hash_Function.preHash(keyVector[recordIndex]));
         }
     }
 
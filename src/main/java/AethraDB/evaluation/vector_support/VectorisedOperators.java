@@ -11,11 +11,23 @@ public class VectorisedOperators {
     static private byte[][] byteArrayCaches = new byte[1][0];
 
     /**
-     * Length of vectors in the system.
-     * Current value is determined as the maximum vector length of used datasets so vectors always fit.
-     * TODO: maybe make less magic.
+     * The system property which can be used to override the default vector length.
      */
-    public static final int VECTOR_LENGTH = 16384;
+    public static final String VECTOR_LENGTH_PROPERTY = "aethradb.vector_length";
+
+    /**
+     * The default length of vectors in the system. It is chosen such that the handful of primitive
+     * vectors that are live within a single pipeline remain resident in the L1/L2 cache.
+     */
+    public static final int DEFAULT_VECTOR_LENGTH = 1024;
+
+    /**
+     * Length of vectors in the system, which is independent of the batch size of the Arrow files
+     * being read, as table scans split larger batches into sub-batches of at most this length.
+     * Can be configured via the {@code VECTOR_LENGTH_PROPERTY} system property and needs to be a
+     * positive multiple of 8 so that Arrow validity buffers can be sliced without copying.
+     */
+    public static final int VECTOR_LENGTH = determineVectorLength();
 
     /**
      * Prevent this class from being instantiated.
@@ -24,6 +36,18 @@ public class VectorisedOperators {
 
     }
 
+    /**
+     * Method to determine the vector length to use from the system properties.
+     * @return The configured vector length, or {@code DEFAULT_VECTOR_LENGTH} if none is configured.
+     */
+    private static int determineVectorLength() {
+        int vectorLength = Integer.getInteger(VECTOR_LENGTH_PROPERTY, DEFAULT_VECTOR_LENGTH);
+        if (vectorLength <= 0 || vectorLength % 8 != 0)
+            throw new IllegalArgumentException(
+                    "VectorisedOperators.determineVectorLength expects a positive multiple of 8, got " + vectorLength);
+        return vectorLength;
+    }
+
     /**
      * Method to obtain a byte array cache of a given width.
      * @param cacheWidth The width that the byte array cache should have.
@@ -2,6 +2,8 @@ package AethraDB.evaluation.vector_support;
 
 import AethraDB.evaluation.general_support.ArrowOptimisations;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -160,4 +162,43 @@ public class VectorisedPrintOperators extends VectorisedOperators {
         System.out.println(new String(vector[lastVectorIndex]) + "]");
     }
 
+    /**
+     * Primitive for printing an off-heap vector of doubles to the standard output.
+     * @param vector The vector to output.
+     * @param vectorLength The length of the valid portion of {@code vector} to print.
+     */
+    public static void printDoubleSegment(MemorySegment vector, int vectorLength) {
+        System.out.print("[");
+        int lastVectorIndex = vectorLength - 1;
+        for (int i = 0; i < lastVectorIndex; i++)
+            System.out.print(String.format("%.2f", vector.getAtIndex(ValueLayout.JAVA_DOUBLE, i)) + ", ");
+        System.out.println(String.format("%.2f", vector.getAtIndex(ValueLayout.JAVA_DOUBLE, lastVectorIndex)) + "]");
+    }
+
+    /**
+     * Primitive for printing an off-heap vector of ints to the standard output.
+     * @param vector The vector to output.
+     * @param vectorLength The length of the valid portion of {@code vector} to print.
+     */
+    public static void printIntSegment(MemorySegment vector, int vectorLength) {
+        System.out.print("[");
+        int lastVectorIndex = vectorLength - 1;
+        for (int i = 0; i < lastVectorIndex; i++)
+            System.out.print(vector.getAtIndex(ValueLayout.JAVA_INT, i) + ", ");
+        System.out.println(vector.getAtIndex(ValueLayout.JAVA_INT, lastVectorIndex) + "]");
+    }
+
+    /**
+     * Primitive for printing an off-heap vector of longs to the standard output.
+     * @param vector The vector to output.
+     * @param vectorLength The length of the valid portion of {@code vector} to print.
+     */
+    public static void printLongSegment(MemorySegment vector, int vectorLength) {
+        System.out.print("[");
+        int lastVectorIndex = vectorLength - 1;
+        for (int i = 0; i < lastVectorIndex; i++)
+            System.out.print(vector.getAtIndex(ValueLayout.JAVA_LONG, i) + ", ");
+        System.out.println(vector.getAtIndex(ValueLayout.JAVA_LONG, lastVectorIndex) + "]");
+    }
+
 }
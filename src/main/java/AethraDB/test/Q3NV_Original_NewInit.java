@@ -9,6 +9,7 @@ import AethraDB.test.Q3NV_Original_Support_NewInit.KeyValueMap_282432134;
 import org.apache.arrow.memory.RootAllocator;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 
 public class Q3NV_Original_NewInit {
@@ -29,7 +30,7 @@ public class Q3NV_Original_NewInit {
         System.out.println(msDuration);
     }
 
-    public static void query(ABQArrowTableReader customer, ABQArrowTableReader orders, ABQArrowTableReader lineitem) {
+    public static void query(ABQArrowTableReader customer, ABQArrowTableReader orders, ABQArrowTableReader lineitem) throws IOException {
         /// GENERATED
         byte[] byte_array_cache = null;
         long result_count = 0;
@@ -5,7 +5,9 @@ import AethraDB.evaluation.codegen.GeneratedQuery;
 import AethraDB.evaluation.codegen.infrastructure.context.CodeGenContext;
 import AethraDB.evaluation.codegen.infrastructure.context.OptimisationContext;
 import AethraDB.evaluation.codegen.infrastructure.data.ABQArrowTableReader;
+import AethraDB.evaluation.codegen.infrastructure.data.ArenaAllocationManager;
 import AethraDB.evaluation.codegen.infrastructure.data.ArrowTableReader;
+import AethraDB.evaluation.general_support.events.QueryPhaseEvent;
 import org.apache.arrow.memory.RootAllocator;
 
 import java.io.BufferedWriter;
@@ -21,6 +23,18 @@ import java.net.URLClassLoader;
  */
 public class AethraGenerator {
 
+    /**
+     * The version of the native interface that this class expects the AethraDB-Lib library to expose.
+     * It must be incremented whenever the signature of one of the native methods below changes, as
+     * a library built against a different version would otherwise silently receive garbled arguments.
+     */
+    private static final int NATIVE_INTERFACE_VERSION = 2;
+
+    /**
+     * The path of the AethraDB-Lib library which contains the native generator methods.
+     */
+    private static final String NATIVE_LIBRARY_PATH = "/home/olivier/Repositories/AethraDB/lib/AethraDB-Lib.so";
+
     private static boolean libraryLoaded = false;
 
     /**
@@ -32,6 +46,13 @@ public class AethraGenerator {
      *                                or data-centric query processing (false).
      * @param summariseResultAsCount Whether to only return the number of results,
      *                               instead of the actual results.
+     * @param useOffHeapVectors Whether vectorised query processing should use off-heap intermediate
+     *                          vectors which are allocated from a per-query arena.
+     * @param spillMemoryBudget The number of bytes that the hash-table of a join or grouped
+     *                          aggregation may occupy before the operator spills its input(s) to
+     *                          disk, or 0 if operators should never spill.
+     * @param profileQuery Whether the generated code should collect per-operator runtime metrics
+     *                     in the {@link AethraDB.evaluation.general_support.QueryProfile} of the query.
      * @return A {@link GeneratedQuery} representing the root of the planned query.
      */
     public static GeneratedQuery planGenerateCompileQuery(
@@ -39,35 +60,52 @@ public class AethraGenerator {
             String databasePath,
             String queryPath,
             boolean useVectorisedProcessing,
-            boolean summariseResultAsCount
+            boolean summariseResultAsCount,
+            boolean useOffHeapVectors,
+            long spillMemoryBudget,
+            boolean profileQuery
     ) throws Exception {
         // Load the library
         if (!libraryLoaded) {
-            System.load("/home/olivier/Repositories/AethraDB/lib/AethraDB-Lib.so");
+            System.load(NATIVE_LIBRARY_PATH);
             libraryLoaded = true;
         }
 
         // Create the library isolation ID
         long isolateThread = createIsolate();
+        checkNativeInterfaceVersion(isolateThread);
+
+        // Create the context of the query up front, so that its identifier tags the events of each phase
+        CodeGenContext cCtx = useOffHeapVectors
+                ? new CodeGenContext(rootAllocator, new ArenaAllocationManager())
+                : new CodeGenContext(rootAllocator);
+        cCtx.setSpillMemoryBudget(spillMemoryBudget);
+        cCtx.setProfileQuery(profileQuery);
+        OptimisationContext oCtx = new OptimisationContext();
 
         // Plan the query
         AethraDB.queryPlanningStart = System.nanoTime();
+        QueryPhaseEvent phaseEvent = QueryPhaseEvent.start(cCtx.getQueryId(), QueryPhaseEvent.PLANNING);
         plan(isolateThread, databasePath, queryPath);
+        phaseEvent.finish();
         AethraDB.queryPlanningEnd = System.nanoTime();
 
         // Perform code generation
         AethraDB.codeGenerationStart = System.nanoTime();
-        codeGen(isolateThread, useVectorisedProcessing, summariseResultAsCount);
+        phaseEvent = QueryPhaseEvent.start(cCtx.getQueryId(), QueryPhaseEvent.CODE_GENERATION);
+        codeGen(isolateThread, useVectorisedProcessing, summariseResultAsCount, useOffHeapVectors, spillMemoryBudget, profileQuery);
+        phaseEvent.finish();
         AethraDB.codeGenerationEnd = System.nanoTime();
 
         // Perform compilation
         AethraDB.codeCompilationStart = System.nanoTime();
+        phaseEvent = QueryPhaseEvent.start(cCtx.getQueryId(), QueryPhaseEvent.COMPILATION);
         final String runDescriptor = compile(isolateThread);
+        phaseEvent.finish();
 
-        // Create the context with the appropriate data readers
+        // Add the appropriate data readers to the context
+        phaseEvent = QueryPhaseEvent.start(cCtx.getQueryId(), QueryPhaseEvent.CLASS_LOADING);
         final String[] runDescriptorLines = runDescriptor.split("\n");
-        CodeGenContext cCtx = new CodeGenContext(rootAllocator);
-        OptimisationContext oCtx = new OptimisationContext();
 
         for (int i = 1; i < runDescriptorLines.length; i++) {
             final String arrowLine = runDescriptorLines[i];
@@ -84,7 +122,7 @@ public class AethraGenerator {
 
             ArrowTableReader reader = new ABQArrowTableReader(
                     arrowFile,
-                    cCtx.getArrowRootAllocator(),
+                    cCtx.getArrowQueryAllocator(),
                     isProjectingReader,
                     projectionColumns
             );
@@ -121,6 +159,7 @@ public class AethraGenerator {
                 generatedQueryClass.getDeclaredConstructor(CodeGenContext.class, OptimisationContext.class);
         GeneratedQuery generatedQueryInstance =
                 (GeneratedQuery) generatedQueryConstructor.newInstance(cCtx, oCtx);
+        phaseEvent.finish();
 
         AethraDB.codeCompilationEnd = System.nanoTime();
         return generatedQueryInstance;
@@ -135,6 +174,13 @@ public class AethraGenerator {
      *                                or data-centric query processing (false).
      * @param summariseResultAsCount Whether to only return the number of results,
      *                               instead of the actual results.
+     * @param useOffHeapVectors Whether vectorised query processing should use off-heap intermediate
+     *                          vectors which are allocated from a per-query arena.
+     * @param spillMemoryBudget The number of bytes that the hash-table of a join or grouped
+     *                          aggregation may occupy before the operator spills its input(s) to
+     *                          disk, or 0 if operators should never spill.
+     * @param profileQuery Whether the generated code should collect per-operator runtime metrics
+     *                     in the {@link AethraDB.evaluation.general_support.QueryProfile} of the query.
      * @return A {@link GeneratedQuery} representing the root of the planned query.
      */
     public static GeneratedQuery planGenerateCompileQueryString(
@@ -142,7 +188,10 @@ public class AethraGenerator {
             String databasePath,
             String queryString,
             boolean useVectorisedProcessing,
-            boolean summariseResultAsCount
+            boolean summariseResultAsCount,
+            boolean useOffHeapVectors,
+            long spillMemoryBudget,
+            boolean profileQuery
     ) throws Exception {
         // First write the query to a temporary file
         File tempDir = new File(System.getProperty("java.io.tmpdir"));
@@ -165,7 +214,10 @@ public class AethraGenerator {
                 databasePath,
                 tempQueryFile.getAbsolutePath(),
                 useVectorisedProcessing,
-                summariseResultAsCount
+                summariseResultAsCount,
+                useOffHeapVectors,
+                spillMemoryBudget,
+                profileQuery
         );
 
         // Remove the temporary file
@@ -176,6 +228,35 @@ public class AethraGenerator {
         return generatedQuery;
     }
 
+    /**
+     * Method to verify that the loaded native generator library was built against the native method
+     * signatures of this class, so that a stale library fails clearly instead of misbehaving.
+     * @param isolateThreadId Parameter for isolating the native library thread calls.
+     * @throws IllegalStateException when the library is stale and needs to be rebuilt.
+     */
+    private static void checkNativeInterfaceVersion(long isolateThreadId) {
+        int libraryVersion;
+        try {
+            libraryVersion = nativeInterfaceVersion(isolateThreadId);
+        } catch (UnsatisfiedLinkError e) {
+            // Libraries predating the version check do not expose the method at all
+            libraryVersion = 1;
+        }
+
+        if (libraryVersion != NATIVE_INTERFACE_VERSION)
+            throw new IllegalStateException("The native generator library " + NATIVE_LIBRARY_PATH
+                    + " implements native interface version " + libraryVersion + ", but version "
+                    + NATIVE_INTERFACE_VERSION + " is required: rebuild it as described in readme.md");
+    }
+
+    /**
+     * Method mapping for the method of the native generator library which returns the version of
+     * the native interface it was built against.
+     * @param isolateThreadId Parameter for isolating the native library thread calls.
+     * @return The native interface version of the library.
+     */
+    private static native int nativeInterfaceVersion(long isolateThreadId);
+
     /**
      * Method mapping for the plan method of the native generator library.
      * @param isolateThreadId Parameter for isolating the native library thread calls.
@@ -191,8 +272,11 @@ public class AethraGenerator {
      *                                or data-centric query processing (false).
      * @param summariseResultAsCount Whether to only return the number of results,
      *                               instead of the actual results.
+     * @param useOffHeapVectors Whether vectorised query processing should use off-heap intermediate vectors.
+     * @param spillMemoryBudget The number of bytes that a join or aggregation hash-table may occupy before the operator spills.
+     * @param profileQuery Whether the generated code should collect per-operator runtime metrics.
      */
-    private static native void codeGen(long isolateThreadId, boolean useVectorisedProcessing, boolean summariseResultAsCount);
+    private static native void codeGen(long isolateThreadId, boolean useVectorisedProcessing, boolean summariseResultAsCount, boolean useOffHeapVectors, long spillMemoryBudget, boolean profileQuery);
 
     /**
      * Method mapping for the compile method of the native generator library.
@@ -1,11 +1,14 @@
 package AethraDB.util;
 
+import AethraDB.evaluation.codegen.infrastructure.data.SortBuffer;
 import AethraDB.evaluation.codegen.operators.AggregationOperator;
 import AethraDB.evaluation.codegen.operators.ArrowTableScanOperator;
 import AethraDB.evaluation.codegen.operators.CodeGenOperator;
 import AethraDB.evaluation.codegen.operators.FilterOperator;
 import AethraDB.evaluation.codegen.operators.JoinOperator;
+import AethraDB.evaluation.codegen.operators.LimitOperator;
 import AethraDB.evaluation.codegen.operators.ProjectOperator;
+import AethraDB.evaluation.codegen.operators.SortOperator;
 import AethraDB.util.language.AethraExpression;
 import AethraDB.util.language.function.AethraBinaryFunction;
 import AethraDB.util.language.function.AethraFunction;
@@ -52,9 +55,15 @@ public class AethraQueryDecoder {
         else if (operatorDefinition == 'J')
             return decodeJoin(databasePath, queryPlanLines, operatorToDecodeIndex);
 
+        else if (operatorDefinition == 'L')
+            return decodeLimit(databasePath, queryPlanLines, operatorToDecodeIndex);
+
         else if (operatorDefinition == 'P')
             return decodeProject(databasePath, queryPlanLines, operatorToDecodeIndex);
 
+        else if (operatorDefinition == 'O')
+            return decodeSort(databasePath, queryPlanLines, operatorToDecodeIndex);
+
         else if (operatorDefinition == 'S')
             return decodeScan(databasePath, queryPlanLines, operatorToDecodeIndex);
 
@@ -126,6 +135,21 @@ public class AethraQueryDecoder {
         return new JoinOperator(leftInputNode, rightInputNode, leftJoinColumnEqIndex, rightJoinColumnEqIndex);
     }
 
+    private static CodeGenOperator decodeLimit(final String databasePath, final String[] queryPlanLines, int operatorToDecodeIndex) {
+        String limitToDecode = queryPlanLines[operatorToDecodeIndex];
+
+        // Parse the limit definition
+        // Line form: L;{input node line index};{maximum number of records}\n
+        String[] limitDefinition = limitToDecode.split(";");
+        int inputNodeIndex = Integer.parseInt(limitDefinition[1]);
+        int limit = Integer.parseInt(limitDefinition[2]);
+
+        // First, decode the input node
+        CodeGenOperator inputNode = decode(databasePath, queryPlanLines, inputNodeIndex);
+
+        return new LimitOperator(inputNode, limit);
+    }
+
     private static CodeGenOperator decodeProject(final String databasePath, final String[] queryPlanLines, int operatorToDecodeIndex) {
         String projectionToDecode = queryPlanLines[operatorToDecodeIndex];
 
@@ -147,6 +171,36 @@ public class AethraQueryDecoder {
         return new ProjectOperator(inputNode, parsedProjectionExpression);
     }
 
+    private static CodeGenOperator decodeSort(final String databasePath, final String[] queryPlanLines, int operatorToDecodeIndex) {
+        String sortToDecode = queryPlanLines[operatorToDecodeIndex];
+
+        // Parse the sort definition
+        // Line form: O;{input node line index};{sort column indices separated by commas};{sort directions (ASC/DESC) separated by commas};{optional limit}\n
+        String[] sortDefinition = sortToDecode.split(";");
+        int inputNodeIndex = Integer.parseInt(sortDefinition[1]);
+
+        String[] rawSortColumns = sortDefinition[2].split(",");
+        String[] rawSortDirections = sortDefinition[3].split(",");
+        if (rawSortColumns.length != rawSortDirections.length)
+            throw new IllegalArgumentException("AethraQueryDecoder.decodeSort expects a sort direction for each sort column");
+
+        int[] sortColumns = new int[rawSortColumns.length];
+        boolean[] sortDescending = new boolean[rawSortDirections.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            sortColumns[i] = Integer.parseInt(rawSortColumns[i]);
+            sortDescending[i] = rawSortDirections[i].equalsIgnoreCase("DESC");
+        }
+
+        int limit = (sortDefinition.length > 4 && !sortDefinition[4].isEmpty())
+                ? Integer.parseInt(sortDefinition[4])
+                : SortBuffer.NO_LIMIT;
+
+        // First, decode the input node
+        CodeGenOperator inputNode = decode(databasePath, queryPlanLines, inputNodeIndex);
+
+        return new SortOperator(inputNode, sortColumns, sortDescending, limit);
+    }
+
     private static CodeGenOperator decodeScan(final String databasePath, final String[] queryPlanLines, int operatorToDecodeIndex) {
         String scanToDecode = queryPlanLines[operatorToDecodeIndex];
 
@@ -254,6 +308,21 @@ public class AethraQueryDecoder {
             }
             return new AethraCaseFunction(ifCondition, convertedOperands[1], convertedOperands[2]);
 
+        } else if (function.startsWith("LIKE")) {
+            return new AethraBinaryFunction(AethraFunction.Kind.LIKE, convertedOperands[0], convertedOperands[1]);
+        } else if (function.startsWith("NOT LIKE")) {
+            return new AethraBinaryFunction(AethraFunction.Kind.NOT_LIKE, convertedOperands[0], convertedOperands[1]);
+        } else if (function.startsWith("NOT")) {
+            // Only negated LIKE conditions are supported, which are folded into a single NOT_LIKE function
+            if (convertedOperands.length != 1
+                    || !(convertedOperands[0] instanceof AethraBinaryFunction negatedFunction)
+                    || negatedFunction.getKind() != AethraFunction.Kind.LIKE) {
+                throw new UnsupportedOperationException(
+                        "AethraQueryDecoder.decodeFunction currently only supports the NOT function over a LIKE function");
+            }
+            return new AethraBinaryFunction(
+                    AethraFunction.Kind.NOT_LIKE, negatedFunction.firstOperand, negatedFunction.secondOperand);
+
         } else if (function.startsWith("=")) {
             return new AethraBinaryFunction(AethraFunction.Kind.EQ, convertedOperands[0], convertedOperands[1]);
         } else if (function.startsWith(">=")) {
@@ -0,0 +1,627 @@
+package AethraDB.util.arrow;
+
+import AethraDB.evaluation.codegen.infrastructure.data.BatchStatisticsFile;
+import AethraDB.evaluation.codegen.infrastructure.data.EncodedColumnFile;
+import AethraDB.evaluation.vector_support.VectorisedOperators;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.ElementAddressableVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.TransferPair;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Tool which rewrites the Arrow IPC file of a table so that its records are ordered on a set of
+ * sort columns, and so that its batches have a length which is a multiple of the vector length of
+ * the vectorised paradigm. Afterwards, the batch statistics file of the table is written, which
+ * allows scans to skip the batches that cannot satisfy a range predicate on the sort columns. When
+ * the table has an encoded column file, it is re-encoded for the new batches.
+ *
+ * Tables which do not fit in memory are sorted externally: the table is read in runs of at most
+ * {@code runLength} records, each of which is sorted in memory and spilled to a temporary Arrow
+ * file, after which the runs are merged into the new table file.
+ */
+public final class ArrowTableClusterer {
+
+    /**
+     * The default number of vectors of length {@code VectorisedOperators.VECTOR_LENGTH} per batch of
+     * a clustered table, which keeps the per-batch overhead of the Arrow IPC format low while
+     * keeping batches small enough to be skipped at a fine granularity.
+     */
+    public static final int DEFAULT_VECTORS_PER_BATCH = 16;
+
+    /**
+     * The default maximum number of records that is sorted in memory at once.
+     */
+    public static final int DEFAULT_RUN_LENGTH = 1 << 22;
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private ArrowTableClusterer() {
+
+    }
+
+    /**
+     * Method to rewrite the Arrow IPC file of a table in the order of the given sort columns.
+     * @param arrowFile The Arrow IPC file of the table, which is replaced by the clustered file.
+     * @param sortColumns The indices of the columns to sort on, in order of significance. Nulls are
+     *                    ordered first, and dictionary-encoded columns cannot be sorted on.
+     * @param batchLength The number of records per batch of the clustered file, which should be a
+     *                    multiple of {@code VectorisedOperators.VECTOR_LENGTH}.
+     * @param runLength The maximum number of records that is sorted in memory at once.
+     * @param outputCodec The codec with which to compress the clustered file.
+     * @throws IOException when an I/O issue occurs while reading or writing the table.
+     */
+    public static void cluster(
+            File arrowFile,
+            int[] sortColumns,
+            int batchLength,
+            int runLength,
+            CompressionUtil.CodecType outputCodec
+    ) throws IOException {
+        if (batchLength <= 0 || batchLength % VectorisedOperators.VECTOR_LENGTH != 0)
+            throw new IllegalArgumentException(
+                    "ArrowTableClusterer.cluster expects a batch length that is a multiple of " + VectorisedOperators.VECTOR_LENGTH);
+        if (runLength <= 0)
+            throw new IllegalArgumentException("ArrowTableClusterer.cluster expects a positive run length");
+
+        int[] encodedColumns = EncodedColumnFile.readEncodedColumnIndices(arrowFile);
+        File temporaryFile = new File(arrowFile.getPath() + ".tmp");
+        List<File> runFiles = new ArrayList<>();
+
+        try (
+                BufferAllocator allocator = new RootAllocator();
+                FileInputStream arrowFileStream = new FileInputStream(arrowFile);
+                ArrowFileReader arrowReader = new ArrowFileReader(arrowFileStream.getChannel(), allocator, AethraCompressionCodecFactory.INSTANCE)
+        ) {
+            VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+            Schema schema = root.getSchema();
+            for (int sortColumn : sortColumns)
+                validateSortColumn(schema.getFields().get(sortColumn));
+
+            // Sort the table in runs, retaining the batches of the current run until it is complete
+            List<FieldVector[]> runBatches = new ArrayList<>();
+            int runRecordCount = 0;
+            while (arrowReader.loadNextBatch()) {
+                runBatches.add(retainBatch(root, allocator));
+                runRecordCount += root.getRowCount();
+
+                if (runRecordCount >= runLength) {
+                    runFiles.add(spillRun(runBatches, runRecordCount, sortColumns, schema, arrowReader, allocator, batchLength));
+                    runRecordCount = 0;
+                }
+            }
+
+            try (ClusteredFileWriter writer = new ClusteredFileWriter(
+                    temporaryFile, schema, arrowReader, allocator, batchLength, outputCodec)) {
+                if (runFiles.isEmpty()) {
+                    // The table fits in a single run, which can be written directly
+                    writeSortedRun(runBatches, runRecordCount, sortColumns, writer);
+
+                } else {
+                    if (runRecordCount > 0)
+                        runFiles.add(spillRun(runBatches, runRecordCount, sortColumns, schema, arrowReader, allocator, batchLength));
+                    mergeRuns(runFiles, sortColumns, allocator, writer);
+                }
+            }
+
+        } catch (IOException | RuntimeException e) {
+            temporaryFile.delete();
+            throw e;
+
+        } finally {
+            for (File runFile : runFiles)
+                runFile.delete();
+        }
+
+        if (!temporaryFile.renameTo(arrowFile)) {
+            temporaryFile.delete();
+            throw new IOException("ArrowTableClusterer.cluster could not replace " + arrowFile);
+        }
+
+        // Refresh the sidecar files, which refer to the batches of the previous file
+        BatchStatisticsFile.write(arrowFile);
+        if (encodedColumns.length > 0)
+            EncodedColumnFile.write(arrowFile, encodedColumns);
+    }
+
+    /**
+     * Method to check whether a table can be sorted on a column.
+     * @param field The field of the column.
+     */
+    private static void validateSortColumn(Field field) {
+        ArrowType type = field.getType();
+        boolean isSupported = field.getDictionary() == null && (
+                (type instanceof ArrowType.Int intType && intType.getIsSigned())
+                || (type instanceof ArrowType.Date dateType && dateType.getUnit() == DateUnit.DAY)
+                || (type instanceof ArrowType.FloatingPoint fpType && fpType.getPrecision() == FloatingPointPrecision.DOUBLE)
+                || type instanceof ArrowType.Decimal
+                || type instanceof ArrowType.FixedSizeBinary
+                || type instanceof ArrowType.Utf8
+                || type instanceof ArrowType.LargeUtf8);
+
+        if (!isSupported)
+            throw new IllegalArgumentException("ArrowTableClusterer.validateSortColumn cannot sort on column " + field);
+    }
+
+    /**
+     * Method to take ownership of the vectors of the batch that is currently loaded in a root.
+     * @param root The root containing the batch.
+     * @param allocator The allocator to transfer the vectors to.
+     * @return The vectors of the batch, indexed by column index.
+     */
+    private static FieldVector[] retainBatch(VectorSchemaRoot root, BufferAllocator allocator) {
+        List<FieldVector> vectors = root.getFieldVectors();
+        FieldVector[] batch = new FieldVector[vectors.size()];
+        for (int columnIndex = 0; columnIndex < batch.length; columnIndex++) {
+            TransferPair transferPair = vectors.get(columnIndex).getTransferPair(allocator);
+            transferPair.transfer();
+            batch[columnIndex] = (FieldVector) transferPair.getTo();
+        }
+        return batch;
+    }
+
+    /**
+     * Method to sort a run and to spill it to a temporary Arrow file.
+     * @param runBatches The batches of the run, which are released and cleared.
+     * @param runRecordCount The number of records in the run.
+     * @param sortColumns The indices of the columns to sort on.
+     * @param schema The schema of the table.
+     * @param dictionaryProvider The provider of the dictionaries of the table.
+     * @param allocator The allocator to use for writing the run.
+     * @param batchLength The number of records per batch of the run file.
+     * @return The temporary file containing the sorted run.
+     * @throws IOException when an I/O issue occurs while writing the run.
+     */
+    private static File spillRun(
+            List<FieldVector[]> runBatches,
+            int runRecordCount,
+            int[] sortColumns,
+            Schema schema,
+            DictionaryProvider dictionaryProvider,
+            BufferAllocator allocator,
+            int batchLength
+    ) throws IOException {
+        File runFile = File.createTempFile("aethradb_cluster_run_", ".arrow");
+        runFile.deleteOnExit();
+
+        try (ClusteredFileWriter writer = new ClusteredFileWriter(
+                runFile, schema, dictionaryProvider, allocator, batchLength, CompressionUtil.CodecType.NO_COMPRESSION)) {
+            writeSortedRun(runBatches, runRecordCount, sortColumns, writer);
+        }
+
+        return runFile;
+    }
+
+    /**
+     * Method to sort a run in memory and to write it in order.
+     * @param runBatches The batches of the run, which are released and cleared.
+     * @param runRecordCount The number of records in the run.
+     * @param sortColumns The indices of the columns to sort on.
+     * @param writer The writer to append the sorted records to.
+     * @throws IOException when an I/O issue occurs while writing the run.
+     */
+    private static void writeSortedRun(
+            List<FieldVector[]> runBatches,
+            int runRecordCount,
+            int[] sortColumns,
+            ClusteredFileWriter writer
+    ) throws IOException {
+        // Address each record by its batch and its index within that batch
+        int[] recordBatches = new int[runRecordCount];
+        int[] recordIndices = new int[runRecordCount];
+        int recordCount = 0;
+        for (int batchIndex = 0; batchIndex < runBatches.size(); batchIndex++) {
+            int batchRecordCount = runBatches.get(batchIndex)[0].getValueCount();
+            for (int i = 0; i < batchRecordCount; i++) {
+                recordBatches[recordCount] = batchIndex;
+                recordIndices[recordCount] = i;
+                recordCount++;
+            }
+        }
+
+        // Sort the records on the sort columns (stably, to keep the original order of equal records)
+        int[] order = new int[recordCount];
+        for (int i = 0; i < recordCount; i++)
+            order[i] = i;
+        mergeSort(order, new int[recordCount], 0, recordCount, (left, right) -> compareRecords(
+                runBatches.get(recordBatches[left]), recordIndices[left],
+                runBatches.get(recordBatches[right]), recordIndices[right],
+                sortColumns));
+
+        for (int record : order)
+            writer.append(runBatches.get(recordBatches[record]), recordIndices[record]);
+
+        for (FieldVector[] batch : runBatches) {
+            for (FieldVector vector : batch)
+                vector.close();
+        }
+        runBatches.clear();
+    }
+
+    /**
+     * Method to sort a range of record references using a stable merge sort.
+     * @param order The record references to sort.
+     * @param buffer A buffer of at least the length of {@code order}.
+     * @param from The (inclusive) start of the range to sort.
+     * @param to The (exclusive) end of the range to sort.
+     * @param comparator The comparator defining the order of the records.
+     */
+    private static void mergeSort(int[] order, int[] buffer, int from, int to, RecordComparator comparator) {
+        if (to - from <= 16) {
+            // Insertion sort small ranges
+            for (int i = from + 1; i < to; i++) {
+                int record = order[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(order[j], record) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = record;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle, comparator);
+        mergeSort(order, buffer, middle, to, comparator);
+        if (comparator.compare(order[middle - 1], order[middle]) <= 0)
+            return;
+
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0))
+                order[i] = buffer[left++];
+            else
+                order[i] = buffer[right++];
+        }
+    }
+
+    /**
+     * Method to merge sorted runs into a single sorted sequence of records.
+     * @param runFiles The files containing the sorted runs.
+     * @param sortColumns The indices of the columns to sort on.
+     * @param allocator The allocator to use for reading the runs.
+     * @param writer The writer to append the merged records to.
+     * @throws IOException when an I/O issue occurs while reading the runs or writing the records.
+     */
+    private static void mergeRuns(
+            List<File> runFiles,
+            int[] sortColumns,
+            BufferAllocator allocator,
+            ClusteredFileWriter writer
+    ) throws IOException {
+        List<RunCursor> cursors = new ArrayList<>(runFiles.size());
+        PriorityQueue<RunCursor> mergeQueue = new PriorityQueue<>(runFiles.size(), (left, right) -> compareRecords(
+                left.vectors, left.recordIndex, right.vectors, right.recordIndex, sortColumns));
+
+        try {
+            for (File runFile : runFiles) {
+                RunCursor cursor = new RunCursor(runFile, allocator);
+                cursors.add(cursor);
+                if (cursor.advance())
+                    mergeQueue.add(cursor);
+            }
+
+            while (!mergeQueue.isEmpty()) {
+                RunCursor cursor = mergeQueue.poll();
+                writer.append(cursor.vectors, cursor.recordIndex);
+                if (cursor.advance())
+                    mergeQueue.add(cursor);
+            }
+
+        } finally {
+            for (RunCursor cursor : cursors)
+                cursor.close();
+        }
+    }
+
+    /**
+     * Method to compare two records on the sort columns.
+     * @param leftBatch The vectors of the batch containing the left record.
+     * @param leftIndex The index of the left record in its batch.
+     * @param rightBatch The vectors of the batch containing the right record.
+     * @param rightIndex The index of the right record in its batch.
+     * @param sortColumns The indices of the columns to sort on.
+     * @return A negative value, zero, or a positive value if the left record is ordered before,
+     * equal to, or after the right record respectively.
+     */
+    private static int compareRecords(
+            FieldVector[] leftBatch,
+            int leftIndex,
+            FieldVector[] rightBatch,
+            int rightIndex,
+            int[] sortColumns
+    ) {
+        for (int sortColumn : sortColumns) {
+            int comparison = compareValues(leftBatch[sortColumn], leftIndex, rightBatch[sortColumn], rightIndex);
+            if (comparison != 0)
+                return comparison;
+        }
+        return 0;
+    }
+
+    /**
+     * Method to compare two values of a sort column, ordering nulls first.
+     * @param left The vector containing the left value.
+     * @param leftIndex The index of the left value.
+     * @param right The vector containing the right value.
+     * @param rightIndex The index of the right value.
+     * @return A negative value, zero, or a positive value if the left value is ordered before,
+     * equal to, or after the right value respectively.
+     */
+    private static int compareValues(FieldVector left, int leftIndex, FieldVector right, int rightIndex) {
+        boolean leftIsNull = left.isNull(leftIndex);
+        boolean rightIsNull = right.isNull(rightIndex);
+        if (leftIsNull || rightIsNull)
+            return Boolean.compare(!leftIsNull, !rightIsNull);
+
+        if (left instanceof BaseIntVector leftInt)
+            return Long.compare(leftInt.getValueAsLong(leftIndex), ((BaseIntVector) right).getValueAsLong(rightIndex));
+
+        else if (left instanceof DateDayVector leftDate)
+            return Integer.compare(leftDate.get(leftIndex), ((DateDayVector) right).get(rightIndex));
+
+        else if (left instanceof Float8Vector leftDouble)
+            return Double.compare(leftDouble.get(leftIndex), ((Float8Vector) right).get(rightIndex));
+
+        else if (left instanceof DecimalVector leftDecimal)
+            return leftDecimal.getObject(leftIndex).compareTo(((DecimalVector) right).getObject(rightIndex));
+
+        else if (left instanceof ElementAddressableVector leftBinary)
+            // Binary and string values are ordered by their unsigned bytes
+            return leftBinary.getDataPointer(leftIndex).compareTo(((ElementAddressableVector) right).getDataPointer(rightIndex));
+
+        else
+            throw new UnsupportedOperationException(
+                    "ArrowTableClusterer.compareValues cannot compare the current field vector type: " + left.getClass());
+    }
+
+    /**
+     * Functional interface for comparing two records identified by an integer reference.
+     */
+    @FunctionalInterface
+    private interface RecordComparator {
+
+        /**
+         * Method to compare two records.
+         * @param left The reference of the left record.
+         * @param right The reference of the right record.
+         * @return A negative value, zero, or a positive value if the left record is ordered before,
+         * equal to, or after the right record respectively.
+         */
+        int compare(int left, int right);
+
+    }
+
+    /**
+     * Class for reading the records of a sorted run one at a time during merging.
+     */
+    private static final class RunCursor implements AutoCloseable {
+
+        /**
+         * The stream used for reading the run file.
+         */
+        private final FileInputStream runFileStream;
+
+        /**
+         * The reader used for reading the run file.
+         */
+        private final ArrowFileReader runReader;
+
+        /**
+         * The root into which the batches of the run are loaded.
+         */
+        private final VectorSchemaRoot root;
+
+        /**
+         * The vectors of {@code root}, indexed by column index, which remain valid across batches.
+         */
+        private final FieldVector[] vectors;
+
+        /**
+         * The index of the current record in the current batch.
+         */
+        private int recordIndex;
+
+        /**
+         * The number of records in the current batch.
+         */
+        private int batchRecordCount;
+
+        /**
+         * Create a new {@link RunCursor} positioned before the first record of a run.
+         * @param runFile The file containing the run.
+         * @param allocator The allocator to use for reading the run.
+         * @throws IOException when an I/O issue occurs while opening the run.
+         */
+        private RunCursor(File runFile, BufferAllocator allocator) throws IOException {
+            this.runFileStream = new FileInputStream(runFile);
+            this.runReader = new ArrowFileReader(this.runFileStream.getChannel(), allocator);
+            this.root = this.runReader.getVectorSchemaRoot();
+            this.vectors = this.root.getFieldVectors().toArray(new FieldVector[0]);
+            this.recordIndex = 0;
+            this.batchRecordCount = 0;
+        }
+
+        /**
+         * Method to move the cursor to the next record of the run.
+         * @return {@code true} if the cursor is positioned on a record, {@code false} if the run is exhausted.
+         * @throws IOException when an I/O issue occurs while reading the next batch of the run.
+         */
+        private boolean advance() throws IOException {
+            this.recordIndex++;
+            while (this.recordIndex >= this.batchRecordCount) {
+                if (!this.runReader.loadNextBatch())
+                    return false;
+                this.recordIndex = 0;
+                this.batchRecordCount = this.root.getRowCount();
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.root.close();
+            this.runReader.close();
+            this.runFileStream.close();
+        }
+
+    }
+
+    /**
+     * Class for writing records one at a time to an Arrow file in batches of a fixed length.
+     */
+    private static final class ClusteredFileWriter implements AutoCloseable {
+
+        /**
+         * The stream used for writing the file.
+         */
+        private final FileOutputStream fileStream;
+
+        /**
+         * The root buffering the records of the current batch.
+         */
+        private final VectorSchemaRoot root;
+
+        /**
+         * The vectors of {@code root}, indexed by column index.
+         */
+        private final FieldVector[] vectors;
+
+        /**
+         * The writer used for writing the batches to the file.
+         */
+        private final ArrowFileWriter writer;
+
+        /**
+         * The number of records per batch.
+         */
+        private final int batchLength;
+
+        /**
+         * The number of records in the current batch.
+         */
+        private int bufferedRecords;
+
+        /**
+         * Create a new {@link ClusteredFileWriter} instance.
+         * @param file The file to write.
+         * @param schema The schema of the records to write.
+         * @param dictionaryProvider The provider of the dictionaries of dictionary-encoded columns.
+         * @param allocator The allocator to use for buffering the records.
+         * @param batchLength The number of records per batch.
+         * @param codec The codec with which to compress the batches.
+         * @throws IOException when an I/O issue occurs while starting the file.
+         */
+        private ClusteredFileWriter(
+                File file,
+                Schema schema,
+                DictionaryProvider dictionaryProvider,
+                BufferAllocator allocator,
+                int batchLength,
+                CompressionUtil.CodecType codec
+        ) throws IOException {
+            this.fileStream = new FileOutputStream(file);
+            this.root = VectorSchemaRoot.create(schema, allocator);
+            this.vectors = this.root.getFieldVectors().toArray(new FieldVector[0]);
+            this.writer = new ArrowFileWriter(
+                    this.root, dictionaryProvider, this.fileStream.getChannel(), null, IpcOption.DEFAULT,
+                    AethraCompressionCodecFactory.INSTANCE, codec);
+            this.batchLength = batchLength;
+            this.bufferedRecords = 0;
+            this.writer.start();
+        }
+
+        /**
+         * Method to append a record to the file.
+         * @param batch The vectors of the batch containing the record, indexed by column index.
+         * @param recordIndex The index of the record in its batch.
+         * @throws IOException when an I/O issue occurs while writing a completed batch.
+         */
+        private void append(FieldVector[] batch, int recordIndex) throws IOException {
+            for (int columnIndex = 0; columnIndex < this.vectors.length; columnIndex++)
+                this.vectors[columnIndex].copyFromSafe(recordIndex, this.bufferedRecords, batch[columnIndex]);
+
+            if (++this.bufferedRecords == this.batchLength)
+                this.flush();
+        }
+
+        /**
+         * Method to write the buffered records to the file as a single batch.
+         * @throws IOException when the batch could not be written.
+         */
+        private void flush() throws IOException {
+            this.root.setRowCount(this.bufferedRecords);
+            this.writer.writeBatch();
+            for (FieldVector vector : this.vectors)
+                vector.reset();
+            this.bufferedRecords = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (this.bufferedRecords > 0)
+                    this.flush();
+                this.writer.end();
+            } finally {
+                this.writer.close();
+                this.root.close();
+                this.fileStream.close();
+            }
+        }
+
+    }
+
+    /**
+     * Entry point for clustering the Arrow IPC file of a table.
+     * @param args The path of the Arrow IPC file of the table, a comma-separated list of the indices
+     *             of the columns to sort on, and optionally the batch length, the run length, and
+     *             "lz4" to compress the clustered file.
+     */
+    public static void main(String[] args) throws IOException {
+        File arrowFile = new File(args[0]);
+        String[] sortColumnDescriptions = args[1].split(",");
+        int[] sortColumns = new int[sortColumnDescriptions.length];
+        for (int i = 0; i < sortColumns.length; i++)
+            sortColumns[i] = Integer.parseInt(sortColumnDescriptions[i].trim());
+
+        int batchLength = (args.length > 2)
+                ? Integer.parseInt(args[2])
+                : DEFAULT_VECTORS_PER_BATCH * VectorisedOperators.VECTOR_LENGTH;
+        int runLength = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_RUN_LENGTH;
+        CompressionUtil.CodecType outputCodec = (args.length > 4 && args[4].equalsIgnoreCase("lz4"))
+                ? CompressionUtil.CodecType.LZ4_FRAME
+                : CompressionUtil.CodecType.NO_COMPRESSION;
+
+        cluster(arrowFile, sortColumns, batchLength, runLength, outputCodec);
+    }
+
+}
@@ -0,0 +1,64 @@
+package AethraDB.util.language.function;
+
+import AethraDB.util.language.AethraExpression;
+
+/**
+ * {@link AethraFunction} definition for representing a range check of an operand against a lower
+ * and an upper bound. The planner does not emit this function: it is introduced during code
+ * generation to fuse a lower and an upper bound comparison on the same operand into one check.
+ */
+public class AethraBetweenFunction extends AethraFunction {
+
+    /**
+     * The operand whose value is checked against the bounds.
+     */
+    public final AethraExpression firstOperand;
+
+    /**
+     * The lower bound that the operand should satisfy.
+     */
+    public final AethraExpression lowerBound;
+
+    /**
+     * Whether the operand may be equal to {@code lowerBound}.
+     */
+    public final boolean lowerInclusive;
+
+    /**
+     * The upper bound that the operand should satisfy.
+     */
+    public final AethraExpression upperBound;
+
+    /**
+     * Whether the operand may be equal to {@code upperBound}.
+     */
+    public final boolean upperInclusive;
+
+    /**
+     * Creates a new {@link AethraBetweenFunction} instance.
+     * @param firstOperand The operand whose value is checked against the bounds.
+     * @param lowerBound The lower bound that the operand should satisfy.
+     * @param lowerInclusive Whether the operand may be equal to {@code lowerBound}.
+     * @param upperBound The upper bound that the operand should satisfy.
+     * @param upperInclusive Whether the operand may be equal to {@code upperBound}.
+     */
+    public AethraBetweenFunction(
+            AethraExpression firstOperand,
+            AethraExpression lowerBound,
+            boolean lowerInclusive,
+            AethraExpression upperBound,
+            boolean upperInclusive
+    ) {
+        this.firstOperand = firstOperand;
+        this.lowerBound = lowerBound;
+        this.lowerInclusive = lowerInclusive;
+        this.upperBound = upperBound;
+        this.upperInclusive = upperInclusive;
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.BETWEEN;
+    }
+
+}
@@ -16,12 +16,16 @@ public abstract class AethraFunction extends AethraExpression {
         AND,
         CASE,
 
+        BETWEEN,
         EQ,
         GT,
         GTE,
         LT,
         LTE,
 
+        LIKE,
+        NOT_LIKE,
+
         ADD,
         DIVIDE,
         MULTIPLY,
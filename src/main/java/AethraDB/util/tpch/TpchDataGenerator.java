@@ -0,0 +1,748 @@
+package AethraDB.util.tpch;
+
+import AethraDB.evaluation.vector_support.VectorisedOperators;
+import AethraDB.util.arrow.ArrowTableClusterer;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.compression.CompressionUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tool which generates the TPC-H tables at a given scale factor as Arrow IPC files in the layout
+ * that the engine expects (see {@link TpchTable}), so that benchmark data does not have to be
+ * produced and converted outside the project.
+ *
+ * The cardinalities, key structures and value domains of the tables follow the TPC-H specification
+ * and dbgen: order keys are sparse, line items reference existing part-supplier combinations,
+ * prices are derived from the part keys, and the order status and total price are derived from the
+ * line items of the order. The values of each row are drawn from a generator that is seeded by the
+ * key of the row, which makes the output deterministic regardless of the batch length and the
+ * number of threads. The values are not bit-identical to the output of dbgen, which draws them from
+ * different random streams.
+ *
+ * The tables are generated in parallel, with one task per table. As the orders and line items of an
+ * order are derived from each other, these two tables are generated by the same task.
+ */
+public final class TpchDataGenerator {
+
+    /**
+     * The default number of records per batch of the generated tables.
+     */
+    public static final int DEFAULT_BATCH_LENGTH =
+            ArrowTableClusterer.DEFAULT_VECTORS_PER_BATCH * VectorisedOperators.VECTOR_LENGTH;
+
+    /**
+     * The first order date of the generated data.
+     */
+    private static final int START_DATE = (int) LocalDate.of(1992, 1, 1).toEpochDay();
+
+    /**
+     * The date separating shipped line items from line items that still have to be shipped.
+     */
+    private static final int CURRENT_DATE = (int) LocalDate.of(1995, 6, 17).toEpochDay();
+
+    /**
+     * The last order date of the generated data, which leaves room for shipping and receiving the
+     * line items of the order before the end of 1998.
+     */
+    private static final int LAST_ORDER_DATE = (int) LocalDate.of(1998, 12, 31).toEpochDay() - 151;
+
+    /**
+     * The number of suppliers per scale factor.
+     */
+    private static final long SUPPLIERS_PER_SCALE_FACTOR = 10_000L;
+
+    /**
+     * The number of parts per scale factor.
+     */
+    private static final long PARTS_PER_SCALE_FACTOR = 200_000L;
+
+    /**
+     * The number of suppliers of each part.
+     */
+    private static final int SUPPLIERS_PER_PART = 4;
+
+    /**
+     * The number of customers per scale factor.
+     */
+    private static final long CUSTOMERS_PER_SCALE_FACTOR = 150_000L;
+
+    /**
+     * The number of orders per scale factor.
+     */
+    private static final long ORDERS_PER_SCALE_FACTOR = 1_500_000L;
+
+    /**
+     * The number of clerks per scale factor.
+     */
+    private static final long CLERKS_PER_SCALE_FACTOR = 1_000L;
+
+    /**
+     * The number of suppliers among which one has a comment containing customer complaints and
+     * another has a comment containing customer recommendations.
+     */
+    private static final int SUPPLIER_COMMENT_BLOCK = 2_000;
+
+    /**
+     * The identifier of the random stream of the region table.
+     */
+    private static final long REGION_STREAM = 1;
+
+    /**
+     * The identifier of the random stream of the nation table.
+     */
+    private static final long NATION_STREAM = 2;
+
+    /**
+     * The identifier of the random stream of the supplier table.
+     */
+    private static final long SUPPLIER_STREAM = 3;
+
+    /**
+     * The identifier of the random stream of the suppliers with a comment about customers.
+     */
+    private static final long SUPPLIER_COMMENT_STREAM = 4;
+
+    /**
+     * The identifier of the random stream of the part table.
+     */
+    private static final long PART_STREAM = 5;
+
+    /**
+     * The identifier of the random stream of the partsupp table.
+     */
+    private static final long PARTSUPP_STREAM = 6;
+
+    /**
+     * The identifier of the random stream of the customer table.
+     */
+    private static final long CUSTOMER_STREAM = 7;
+
+    /**
+     * The identifier of the random stream of the orders and lineitem tables.
+     */
+    private static final long ORDERS_STREAM = 8;
+
+    /**
+     * The directory to write the table files to.
+     */
+    private final File outputDirectory;
+
+    /**
+     * The number of records per batch of the generated tables.
+     */
+    private final int batchLength;
+
+    /**
+     * The codec with which to compress the generated tables.
+     */
+    private final CompressionUtil.CodecType codec;
+
+    /**
+     * The number of suppliers to generate.
+     */
+    private final long supplierCount;
+
+    /**
+     * The number of parts to generate.
+     */
+    private final long partCount;
+
+    /**
+     * The number of customers to generate.
+     */
+    private final long customerCount;
+
+    /**
+     * The number of orders to generate.
+     */
+    private final long orderCount;
+
+    /**
+     * The number of clerks that process the orders.
+     */
+    private final long clerkCount;
+
+    /**
+     * The pseudo-text pool from which the comment columns are drawn.
+     */
+    private final byte[] textPool;
+
+    /**
+     * Creates a new {@link TpchDataGenerator} instance.
+     * @param outputDirectory The directory to write the table files to.
+     * @param scaleFactor The TPC-H scale factor of the data to generate.
+     * @param batchLength The number of records per batch of the generated tables.
+     * @param codec The codec with which to compress the generated tables.
+     */
+    private TpchDataGenerator(File outputDirectory, double scaleFactor, int batchLength, CompressionUtil.CodecType codec) {
+        this.outputDirectory = outputDirectory;
+        this.batchLength = batchLength;
+        this.codec = codec;
+        this.supplierCount = scaledCardinality(scaleFactor, SUPPLIERS_PER_SCALE_FACTOR);
+        this.partCount = scaledCardinality(scaleFactor, PARTS_PER_SCALE_FACTOR);
+        this.customerCount = scaledCardinality(scaleFactor, CUSTOMERS_PER_SCALE_FACTOR);
+        this.orderCount = scaledCardinality(scaleFactor, ORDERS_PER_SCALE_FACTOR);
+        this.clerkCount = scaledCardinality(scaleFactor, CLERKS_PER_SCALE_FACTOR);
+        this.textPool = TpchDistributions.textPool();
+    }
+
+    /**
+     * Method to generate all TPC-H tables as Arrow IPC files named after the table (e.g. "lineitem.arrow").
+     * @param outputDirectory The directory to write the table files to, which is created if needed.
+     * @param scaleFactor The TPC-H scale factor of the data to generate.
+     * @param batchLength The number of records per batch of the generated tables.
+     * @param parallelism The maximum number of tables to generate concurrently.
+     * @param codec The codec with which to compress the generated tables.
+     * @throws IOException when an I/O issue occurs while writing the tables.
+     */
+    public static void generate(
+            File outputDirectory,
+            double scaleFactor,
+            int batchLength,
+            int parallelism,
+            CompressionUtil.CodecType codec
+    ) throws IOException {
+        if (!(scaleFactor > 0))
+            throw new IllegalArgumentException("TpchDataGenerator.generate expects a positive scale factor");
+        if (batchLength <= 0)
+            throw new IllegalArgumentException("TpchDataGenerator.generate expects a positive batch length");
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("TpchDataGenerator.generate expects a positive parallelism");
+        if (sparseOrderKey(scaledCardinality(scaleFactor, ORDERS_PER_SCALE_FACTOR)) > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(
+                    "TpchDataGenerator.generate cannot represent the order keys of scale factor " + scaleFactor + " as integers");
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs())
+            throw new IOException("TpchDataGenerator.generate could not create " + outputDirectory);
+
+        TpchDataGenerator generator = new TpchDataGenerator(outputDirectory, scaleFactor, batchLength, codec);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+        try (BufferAllocator allocator = new RootAllocator()) {
+            try {
+                // Submit the largest tables first, so that the small tables fill up the remaining threads
+                List<Future<Void>> tableTasks = new ArrayList<>();
+                tableTasks.add(executor.submit(tableTask(() -> generator.generateOrdersAndLineitem(allocator))));
+                tableTasks.add(executor.submit(tableTask(() -> generator.generatePartSupp(allocator))));
+                tableTasks.add(executor.submit(tableTask(() -> generator.generatePart(allocator))));
+                tableTasks.add(executor.submit(tableTask(() -> generator.generateCustomer(allocator))));
+                tableTasks.add(executor.submit(tableTask(() -> generator.generateSupplier(allocator))));
+                tableTasks.add(executor.submit(tableTask(() -> generator.generateNation(allocator))));
+                tableTasks.add(executor.submit(tableTask(() -> generator.generateRegion(allocator))));
+
+                for (Future<Void> tableTask : tableTasks)
+                    tableTask.get();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("TpchDataGenerator.generate was interrupted", e);
+
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException)
+                    throw ioException;
+                else if (e.getCause() instanceof RuntimeException runtimeException)
+                    throw runtimeException;
+                throw new IllegalStateException("TpchDataGenerator.generate failed to generate a table", e.getCause());
+
+            } finally {
+                // Ensure no task still holds buffers of the allocator when it is closed
+                executor.shutdownNow();
+                awaitTermination(executor);
+            }
+        }
+    }
+
+    /**
+     * Method to convert the generation of a table into a task that can be submitted to an executor.
+     * @param generation The generation of the table.
+     * @return The task generating the table.
+     */
+    private static Callable<Void> tableTask(TableGeneration generation) {
+        return () -> {
+            generation.generate();
+            return null;
+        };
+    }
+
+    /**
+     * Method to wait for the tasks of an executor that has been shut down to finish.
+     * @param executor The executor to wait for.
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES))
+                    break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Method to create the writer of a table.
+     * @param table The table to write.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @return The writer of the table.
+     * @throws IOException when the table file could not be created.
+     */
+    private TpchTableWriter createWriter(TpchTable table, BufferAllocator allocator) throws IOException {
+        return new TpchTableWriter(
+                new File(this.outputDirectory, table.getFileName()), table, allocator, this.batchLength, this.codec);
+    }
+
+    /**
+     * Method to generate the region table.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @throws IOException when an I/O issue occurs while writing the table.
+     */
+    private void generateRegion(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(REGION_STREAM);
+        try (TpchTableWriter writer = this.createWriter(TpchTable.REGION, allocator)) {
+            for (int regionKey = 0; regionKey < TpchDistributions.REGIONS.length; regionKey++) {
+                random.seekRow(regionKey);
+                writer.setInt(0, regionKey);
+                writer.setFixed(1, TpchDistributions.REGIONS[regionKey]);
+                this.setText(writer, 2, random, 31, 115);
+                writer.endRow();
+            }
+        }
+    }
+
+    /**
+     * Method to generate the nation table.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @throws IOException when an I/O issue occurs while writing the table.
+     */
+    private void generateNation(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(NATION_STREAM);
+        try (TpchTableWriter writer = this.createWriter(TpchTable.NATION, allocator)) {
+            for (int nationKey = 0; nationKey < TpchDistributions.NATIONS.length; nationKey++) {
+                random.seekRow(nationKey);
+                writer.setInt(0, nationKey);
+                writer.setFixed(1, TpchDistributions.NATIONS[nationKey]);
+                writer.setInt(2, TpchDistributions.NATION_REGIONS[nationKey]);
+                this.setText(writer, 3, random, 31, 114);
+                writer.endRow();
+            }
+        }
+    }
+
+    /**
+     * Method to generate the supplier table. In each block of {@code SUPPLIER_COMMENT_BLOCK}
+     * suppliers, one supplier has a comment about customer complaints and another a comment about
+     * customer recommendations.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @throws IOException when an I/O issue occurs while writing the table.
+     */
+    private void generateSupplier(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(SUPPLIER_STREAM);
+        TpchRandom commentRandom = new TpchRandom(SUPPLIER_COMMENT_STREAM);
+        byte[] addressBuffer = new byte[40];
+        byte[] commentBuffer = new byte[100];
+        long complaintsKey = -1;
+        long recommendsKey = -1;
+
+        try (TpchTableWriter writer = this.createWriter(TpchTable.SUPPLIER, allocator)) {
+            for (long suppKey = 1; suppKey <= this.supplierCount; suppKey++) {
+                long blockIndex = (suppKey - 1) / SUPPLIER_COMMENT_BLOCK;
+                if ((suppKey - 1) % SUPPLIER_COMMENT_BLOCK == 0) {
+                    commentRandom.seekRow(blockIndex);
+                    long blockStart = blockIndex * SUPPLIER_COMMENT_BLOCK + 1;
+                    complaintsKey = blockStart + commentRandom.nextInt(0, SUPPLIER_COMMENT_BLOCK - 1);
+                    recommendsKey = blockStart + commentRandom.nextInt(0, SUPPLIER_COMMENT_BLOCK - 2);
+                    if (recommendsKey >= complaintsKey)
+                        recommendsKey++;
+                }
+
+                random.seekRow(suppKey);
+                int nationKey = random.nextInt(0, TpchDistributions.NATIONS.length - 1);
+                writer.setInt(0, (int) suppKey);
+                writer.setFixed(1, formatIdentifier("Supplier#", suppKey));
+                setRandomString(writer, 2, random, addressBuffer, 10, 40);
+                writer.setInt(3, nationKey);
+                writer.setFixed(4, generatePhoneNumber(random, nationKey));
+                writer.setDecimal(5, random.nextLong(-99_999, 999_999));
+
+                if (suppKey == complaintsKey || suppKey == recommendsKey)
+                    this.setCustomerComment(writer, 6, random, commentBuffer, suppKey == complaintsKey ? "Complaints" : "Recommends");
+                else
+                    this.setText(writer, 6, random, 25, 100);
+
+                writer.endRow();
+            }
+        }
+    }
+
+    /**
+     * Method to generate the part table.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @throws IOException when an I/O issue occurs while writing the table.
+     */
+    private void generatePart(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(PART_STREAM);
+        int[] nameColors = new int[5];
+        StringBuilder nameBuilder = new StringBuilder(64);
+
+        try (TpchTableWriter writer = this.createWriter(TpchTable.PART, allocator)) {
+            for (long partKey = 1; partKey <= this.partCount; partKey++) {
+                random.seekRow(partKey);
+
+                // The name consists of five distinct colours
+                nameBuilder.setLength(0);
+                for (int i = 0; i < nameColors.length; i++) {
+                    int color;
+                    boolean isDuplicate;
+                    do {
+                        color = random.nextInt(0, TpchDistributions.COLORS.length - 1);
+                        isDuplicate = false;
+                        for (int j = 0; j < i; j++)
+                            isDuplicate |= nameColors[j] == color;
+                    } while (isDuplicate);
+
+                    nameColors[i] = color;
+                    if (i > 0)
+                        nameBuilder.append(' ');
+                    nameBuilder.append(TpchDistributions.COLORS[color]);
+                }
+
+                int manufacturer = random.nextInt(1, 5);
+                int brand = random.nextInt(1, 5);
+
+                writer.setInt(0, (int) partKey);
+                writer.setString(1, nameBuilder.toString());
+                writer.setFixed(2, "Manufacturer#" + manufacturer);
+                writer.setFixed(3, "Brand#" + manufacturer + brand);
+                writer.setString(4, pick(random, TpchDistributions.TYPE_SYLLABLE_1)
+                        + " " + pick(random, TpchDistributions.TYPE_SYLLABLE_2)
+                        + " " + pick(random, TpchDistributions.TYPE_SYLLABLE_3));
+                writer.setInt(5, random.nextInt(1, 50));
+                writer.setFixed(6, pick(random, TpchDistributions.CONTAINER_SYLLABLE_1)
+                        + " " + pick(random, TpchDistributions.CONTAINER_SYLLABLE_2));
+                writer.setDecimal(7, retailPriceCents(partKey));
+                this.setText(writer, 8, random, 5, 22);
+                writer.endRow();
+            }
+        }
+    }
+
+    /**
+     * Method to generate the partsupp table.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @throws IOException when an I/O issue occurs while writing the table.
+     */
+    private void generatePartSupp(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(PARTSUPP_STREAM);
+        try (TpchTableWriter writer = this.createWriter(TpchTable.PARTSUPP, allocator)) {
+            for (long partKey = 1; partKey <= this.partCount; partKey++) {
+                for (int supplierIndex = 0; supplierIndex < SUPPLIERS_PER_PART; supplierIndex++) {
+                    random.seekRow(partKey * SUPPLIERS_PER_PART + supplierIndex);
+                    writer.setInt(0, (int) partKey);
+                    writer.setInt(1, (int) this.partSupplierKey(partKey, supplierIndex));
+                    writer.setInt(2, random.nextInt(1, 9_999));
+                    writer.setDecimal(3, random.nextLong(100, 100_000));
+                    this.setText(writer, 4, random, 49, 198);
+                    writer.endRow();
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to generate the customer table.
+     * @param allocator The allocator to use for buffering the records of the table.
+     * @throws IOException when an I/O issue occurs while writing the table.
+     */
+    private void generateCustomer(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(CUSTOMER_STREAM);
+        byte[] addressBuffer = new byte[40];
+
+        try (TpchTableWriter writer = this.createWriter(TpchTable.CUSTOMER, allocator)) {
+            for (long custKey = 1; custKey <= this.customerCount; custKey++) {
+                random.seekRow(custKey);
+                int nationKey = random.nextInt(0, TpchDistributions.NATIONS.length - 1);
+                writer.setInt(0, (int) custKey);
+                writer.setString(1, formatIdentifier("Customer#", custKey));
+                setRandomString(writer, 2, random, addressBuffer, 10, 40);
+                writer.setInt(3, nationKey);
+                writer.setFixed(4, generatePhoneNumber(random, nationKey));
+                writer.setDecimal(5, random.nextLong(-99_999, 999_999));
+                writer.setFixed(6, pick(random, TpchDistributions.SEGMENTS));
+                this.setText(writer, 7, random, 29, 116);
+                writer.endRow();
+            }
+        }
+    }
+
+    /**
+     * Method to generate the orders and lineitem tables. The status and total price of an order are
+     * derived from its line items, while the dates of the line items are derived from the order date.
+     * @param allocator The allocator to use for buffering the records of the tables.
+     * @throws IOException when an I/O issue occurs while writing the tables.
+     */
+    private void generateOrdersAndLineitem(BufferAllocator allocator) throws IOException {
+        TpchRandom random = new TpchRandom(ORDERS_STREAM);
+
+        try (
+                TpchTableWriter ordersWriter = this.createWriter(TpchTable.ORDERS, allocator);
+                TpchTableWriter lineitemWriter = this.createWriter(TpchTable.LINEITEM, allocator)
+        ) {
+            for (long orderIndex = 1; orderIndex <= this.orderCount; orderIndex++) {
+                long orderKey = sparseOrderKey(orderIndex);
+                random.seekRow(orderKey);
+
+                // Only two thirds of the customers place orders
+                long custKey;
+                do {
+                    custKey = random.nextLong(1, this.customerCount);
+                } while (custKey % 3 == 0 && this.customerCount >= 3);
+
+                int orderDate = random.nextInt(START_DATE, LAST_ORDER_DATE);
+                String orderPriority = pick(random, TpchDistributions.PRIORITIES);
+                String clerk = formatIdentifier("Clerk#", random.nextLong(1, this.clerkCount));
+
+                int lineCount = random.nextInt(1, 7);
+                int shippedLineCount = 0;
+                long totalPriceCents = 0;
+                for (int lineNumber = 1; lineNumber <= lineCount; lineNumber++) {
+                    long partKey = random.nextLong(1, this.partCount);
+                    long suppKey = this.partSupplierKey(partKey, random.nextInt(0, SUPPLIERS_PER_PART - 1));
+                    int quantity = random.nextInt(1, 50);
+                    int discount = random.nextInt(0, 10);
+                    int tax = random.nextInt(0, 8);
+                    int shipDate = orderDate + random.nextInt(1, 121);
+                    int commitDate = orderDate + random.nextInt(30, 90);
+                    int receiptDate = shipDate + random.nextInt(1, 30);
+                    long extendedPriceCents = quantity * retailPriceCents(partKey);
+                    totalPriceCents += ((extendedPriceCents * (100 - discount)) / 100) * (100 + tax) / 100;
+
+                    String returnFlag = (receiptDate <= CURRENT_DATE) ? (random.nextInt(0, 1) == 0 ? "R" : "A") : "N";
+                    boolean isShipped = shipDate <= CURRENT_DATE;
+                    if (isShipped)
+                        shippedLineCount++;
+
+                    lineitemWriter.setInt(0, (int) orderKey);
+                    lineitemWriter.setInt(1, (int) partKey);
+                    lineitemWriter.setInt(2, (int) suppKey);
+                    lineitemWriter.setInt(3, lineNumber);
+                    lineitemWriter.setDecimal(4, quantity * 100L);
+                    lineitemWriter.setDecimal(5, extendedPriceCents);
+                    lineitemWriter.setDecimal(6, discount);
+                    lineitemWriter.setDecimal(7, tax);
+                    lineitemWriter.setFixed(8, returnFlag);
+                    lineitemWriter.setFixed(9, isShipped ? "F" : "O");
+                    lineitemWriter.setDate(10, shipDate);
+                    lineitemWriter.setDate(11, commitDate);
+                    lineitemWriter.setDate(12, receiptDate);
+                    lineitemWriter.setFixed(13, pick(random, TpchDistributions.INSTRUCTIONS));
+                    lineitemWriter.setFixed(14, pick(random, TpchDistributions.MODES));
+                    this.setText(lineitemWriter, 15, random, 10, 43);
+                    lineitemWriter.endRow();
+                }
+
+                String orderStatus = (shippedLineCount == lineCount) ? "F" : (shippedLineCount == 0 ? "O" : "P");
+                ordersWriter.setInt(0, (int) orderKey);
+                ordersWriter.setInt(1, (int) custKey);
+                ordersWriter.setFixed(2, orderStatus);
+                ordersWriter.setDecimal(3, totalPriceCents);
+                ordersWriter.setDate(4, orderDate);
+                ordersWriter.setFixed(5, orderPriority);
+                ordersWriter.setFixed(6, clerk);
+                ordersWriter.setInt(7, 0);
+                this.setText(ordersWriter, 8, random, 19, 78);
+                ordersWriter.endRow();
+            }
+        }
+    }
+
+    /**
+     * Method to set a {@code VARCHAR} column to a random substring of the pseudo-text pool.
+     * @param writer The writer of the table.
+     * @param columnIndex The index of the column.
+     * @param random The generator of the current row.
+     * @param minLength The minimum length of the text.
+     * @param maxLength The maximum length of the text.
+     */
+    private void setText(TpchTableWriter writer, int columnIndex, TpchRandom random, int minLength, int maxLength) {
+        int length = random.nextInt(minLength, maxLength);
+        int offset = random.nextInt(0, this.textPool.length - length);
+        writer.setString(columnIndex, this.textPool, offset, length);
+    }
+
+    /**
+     * Method to set a {@code VARCHAR} column to a random text which contains "Customer" followed
+     * by a specific word, as is the case for the supplier comments queried by TPC-H query 16.
+     * @param writer The writer of the table.
+     * @param columnIndex The index of the column.
+     * @param random The generator of the current row.
+     * @param commentBuffer The buffer to compose the text in, which should fit 100 characters.
+     * @param word The word to follow "Customer" with.
+     */
+    private void setCustomerComment(
+            TpchTableWriter writer,
+            int columnIndex,
+            TpchRandom random,
+            byte[] commentBuffer,
+            String word
+    ) {
+        String customer = "Customer ";
+        int length = random.nextInt(25, 100);
+        System.arraycopy(this.textPool, random.nextInt(0, this.textPool.length - length), commentBuffer, 0, length);
+
+        int freeLength = length - customer.length() - word.length();
+        int customerOffset = random.nextInt(0, freeLength);
+        int wordOffset = customerOffset + customer.length() + random.nextInt(0, freeLength - customerOffset);
+        for (int i = 0; i < customer.length(); i++)
+            commentBuffer[customerOffset + i] = (byte) customer.charAt(i);
+        for (int i = 0; i < word.length(); i++)
+            commentBuffer[wordOffset + i] = (byte) word.charAt(i);
+
+        writer.setString(columnIndex, commentBuffer, 0, length);
+    }
+
+    /**
+     * Method to set a {@code VARCHAR} column to a random alphanumeric string.
+     * @param writer The writer of the table.
+     * @param columnIndex The index of the column.
+     * @param random The generator of the current row.
+     * @param buffer The buffer to compose the string in, which should fit {@code maxLength} characters.
+     * @param minLength The minimum length of the string.
+     * @param maxLength The maximum length of the string.
+     */
+    private static void setRandomString(
+            TpchTableWriter writer,
+            int columnIndex,
+            TpchRandom random,
+            byte[] buffer,
+            int minLength,
+            int maxLength
+    ) {
+        int length = random.nextInt(minLength, maxLength);
+        for (int i = 0; i < length; i++)
+            buffer[i] = TpchDistributions.ALPHANUMERIC[random.nextInt(0, TpchDistributions.ALPHANUMERIC.length - 1)];
+        writer.setString(columnIndex, buffer, 0, length);
+    }
+
+    /**
+     * Method to generate a phone number, whose country code is derived from the nation key.
+     * @param random The generator of the current row.
+     * @param nationKey The nation key of the owner of the phone number.
+     * @return The phone number.
+     */
+    private static String generatePhoneNumber(TpchRandom random, int nationKey) {
+        return (nationKey + 10)
+                + "-" + random.nextInt(100, 999)
+                + "-" + random.nextInt(100, 999)
+                + "-" + random.nextInt(1_000, 9_999);
+    }
+
+    /**
+     * Method to uniformly pick a value from a list of values.
+     * @param random The generator of the current row.
+     * @param values The values to pick from.
+     * @return The picked value.
+     */
+    private static String pick(TpchRandom random, String[] values) {
+        return values[random.nextInt(0, values.length - 1)];
+    }
+
+    /**
+     * Method to format an identifier consisting of a prefix and a key padded to nine digits.
+     * @param prefix The prefix of the identifier.
+     * @param key The key of the identifier.
+     * @return The formatted identifier (e.g. "Supplier#000000001").
+     */
+    private static String formatIdentifier(String prefix, long key) {
+        String digits = Long.toString(key);
+        return prefix + "0".repeat(Math.max(0, 9 - digits.length())) + digits;
+    }
+
+    /**
+     * Method to compute the key of one of the suppliers of a part.
+     * @param partKey The key of the part.
+     * @param supplierIndex The index of the supplier among the suppliers of the part.
+     * @return The key of the supplier.
+     */
+    private long partSupplierKey(long partKey, int supplierIndex) {
+        return (partKey + supplierIndex * (this.supplierCount / SUPPLIERS_PER_PART + (partKey - 1) / this.supplierCount))
+                % this.supplierCount + 1;
+    }
+
+    /**
+     * Method to compute the retail price of a part.
+     * @param partKey The key of the part.
+     * @return The retail price of the part in cents.
+     */
+    private static long retailPriceCents(long partKey) {
+        return 90_000 + ((partKey / 10) % 20_001) + 100 * (partKey % 1_000);
+    }
+
+    /**
+     * Method to compute the key of an order, which leaves gaps in the key space by only using the
+     * first eight keys of each block of 32 keys.
+     * @param orderIndex The (one-based) index of the order.
+     * @return The key of the order.
+     */
+    private static long sparseOrderKey(long orderIndex) {
+        return ((orderIndex >>> 3) << 5) | (orderIndex & 7);
+    }
+
+    /**
+     * Method to compute the cardinality of a table at a scale factor.
+     * @param scaleFactor The scale factor.
+     * @param cardinalityPerScaleFactor The cardinality of the table at scale factor 1.
+     * @return The cardinality of the table, which is at least 1.
+     */
+    private static long scaledCardinality(double scaleFactor, long cardinalityPerScaleFactor) {
+        return Math.max(1, (long) (scaleFactor * cardinalityPerScaleFactor));
+    }
+
+    /**
+     * Functional interface representing the generation of one or more tables.
+     */
+    @FunctionalInterface
+    private interface TableGeneration {
+
+        /**
+         * Method to generate the table(s).
+         * @throws IOException when an I/O issue occurs while writing the table(s).
+         */
+        void generate() throws IOException;
+
+    }
+
+    /**
+     * Entry point for generating the TPC-H tables.
+     * @param args The output directory, the scale factor, and optionally the batch length, the
+     *             number of tables to generate concurrently, and "lz4" to compress the tables.
+     */
+    public static void main(String[] args) throws IOException {
+        File outputDirectory = new File(args[0]);
+        double scaleFactor = Double.parseDouble(args[1]);
+        int batchLength = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_BATCH_LENGTH;
+        int parallelism = (args.length > 3)
+                ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+        CompressionUtil.CodecType codec = (args.length > 4 && args[4].equalsIgnoreCase("lz4"))
+                ? CompressionUtil.CodecType.LZ4_FRAME
+                : CompressionUtil.CodecType.NO_COMPRESSION;
+
+        generate(outputDirectory, scaleFactor, batchLength, parallelism, codec);
+    }
+
+}
@@ -0,0 +1,355 @@
+package AethraDB.util.tpch;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class containing the value domains of the TPC-H tables as defined by the TPC-H specification
+ * (clause 4.2.2 and 4.2.3) and the distributions file of dbgen, together with the pseudo-text pool
+ * from which the comment columns are drawn.
+ */
+final class TpchDistributions {
+
+    /**
+     * The names of the regions, indexed by region key.
+     */
+    static final String[] REGIONS = { "AFRICA", "AMERICA", "ASIA", "EUROPE", "MIDDLE EAST" };
+
+    /**
+     * The names of the nations, indexed by nation key.
+     */
+    static final String[] NATIONS = {
+            "ALGERIA", "ARGENTINA", "BRAZIL", "CANADA", "EGYPT", "ETHIOPIA", "FRANCE", "GERMANY",
+            "INDIA", "INDONESIA", "IRAN", "IRAQ", "JAPAN", "JORDAN", "KENYA", "MOROCCO", "MOZAMBIQUE",
+            "PERU", "CHINA", "ROMANIA", "SAUDI ARABIA", "VIETNAM", "RUSSIA", "UNITED KINGDOM", "UNITED STATES"
+    };
+
+    /**
+     * The region key of each nation, indexed by nation key.
+     */
+    static final int[] NATION_REGIONS = {
+            0, 1, 1, 1, 4, 0, 3, 3, 2, 2, 4, 4, 2, 4, 0, 0, 0, 1, 2, 3, 4, 2, 3, 3, 1
+    };
+
+    /**
+     * The colours from which the names of the parts are composed.
+     */
+    static final String[] COLORS = {
+            "almond", "antique", "aquamarine", "azure", "beige", "bisque", "black", "blanched", "blue",
+            "blush", "brown", "burlywood", "burnished", "chartreuse", "chiffon", "chocolate", "coral",
+            "cornflower", "cornsilk", "cream", "cyan", "dark", "deep", "dim", "dodger", "drab", "firebrick",
+            "floral", "forest", "frosted", "gainsboro", "ghost", "goldenrod", "green", "grey", "honeydew",
+            "hot", "indian", "ivory", "khaki", "lace", "lavender", "lawn", "lemon", "light", "lime", "linen",
+            "magenta", "maroon", "medium", "metallic", "midnight", "mint", "misty", "moccasin", "navajo",
+            "navy", "olive", "orange", "orchid", "pale", "papaya", "peach", "peru", "pink", "plum", "powder",
+            "puff", "purple", "red", "rose", "rosy", "royal", "saddle", "salmon", "sandy", "seashell",
+            "sienna", "sky", "slate", "smoke", "snow", "spring", "steel", "tan", "thistle", "tomato",
+            "turquoise", "violet", "wheat", "white", "yellow"
+    };
+
+    /**
+     * The first syllable of the part types.
+     */
+    static final String[] TYPE_SYLLABLE_1 = { "STANDARD", "SMALL", "MEDIUM", "LARGE", "ECONOMY", "PROMO" };
+
+    /**
+     * The second syllable of the part types.
+     */
+    static final String[] TYPE_SYLLABLE_2 = { "ANODIZED", "BURNISHED", "PLATED", "POLISHED", "BRUSHED" };
+
+    /**
+     * The third syllable of the part types.
+     */
+    static final String[] TYPE_SYLLABLE_3 = { "TIN", "NICKEL", "BRASS", "STEEL", "COPPER" };
+
+    /**
+     * The first syllable of the part containers.
+     */
+    static final String[] CONTAINER_SYLLABLE_1 = { "SM", "LG", "MED", "JUMBO", "WRAP" };
+
+    /**
+     * The second syllable of the part containers.
+     */
+    static final String[] CONTAINER_SYLLABLE_2 = { "CASE", "BOX", "BAG", "JAR", "PKG", "PACK", "CAN", "DRUM" };
+
+    /**
+     * The market segments of the customers.
+     */
+    static final String[] SEGMENTS = { "AUTOMOBILE", "BUILDING", "FURNITURE", "MACHINERY", "HOUSEHOLD" };
+
+    /**
+     * The priorities of the orders.
+     */
+    static final String[] PRIORITIES = { "1-URGENT", "2-HIGH", "3-MEDIUM", "4-NOT SPECIFIED", "5-LOW" };
+
+    /**
+     * The shipping instructions of the line items.
+     */
+    static final String[] INSTRUCTIONS = { "DELIVER IN PERSON", "COLLECT COD", "NONE", "TAKE BACK RETURN" };
+
+    /**
+     * The shipping modes of the line items.
+     */
+    static final String[] MODES = { "REG AIR", "AIR", "RAIL", "SHIP", "TRUCK", "MAIL", "FOB" };
+
+    /**
+     * The characters from which the address strings are composed.
+     */
+    static final byte[] ALPHANUMERIC =
+            "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ,".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The size of the pseudo-text pool in bytes.
+     */
+    static final int TEXT_POOL_SIZE = 1 << 24;
+
+    /**
+     * The seed of the stream generating the pseudo-text pool.
+     */
+    private static final long TEXT_POOL_STREAM = 0x7E47L;
+
+    /**
+     * The sentence structures of the pseudo-text grammar.
+     */
+    private static final Distribution GRAMMAR = new Distribution(
+            new String[] { "N V T", "N V P T", "N V N T", "N P V N T", "N P V P T" },
+            new int[] { 3, 3, 3, 1, 1 });
+
+    /**
+     * The structures of noun phrases in the pseudo-text grammar.
+     */
+    private static final Distribution NOUN_PHRASES = new Distribution(
+            new String[] { "N", "J N", "J, J N", "D J N" },
+            new int[] { 10, 20, 10, 50 });
+
+    /**
+     * The structures of verb phrases in the pseudo-text grammar.
+     */
+    private static final Distribution VERB_PHRASES = new Distribution(
+            new String[] { "V", "X V", "V D", "X V D" },
+            new int[] { 30, 1, 40, 1 });
+
+    /**
+     * The nouns of the pseudo-text grammar.
+     */
+    private static final Distribution NOUNS = new Distribution(
+            new String[] {
+                    "packages", "requests", "accounts", "deposits", "foxes", "ideas", "theodolites",
+                    "pinto beans", "instructions", "dependencies", "excuses", "platelets", "asymptotes",
+                    "courts", "dolphins", "multipliers", "sauternes", "warthogs", "frets", "dinos",
+                    "attainments", "somas", "Tiresias", "patterns", "forges", "braids", "hockey players",
+                    "frays", "warhorses", "dugouts", "notornis", "epitaphs", "pearls", "tithes", "waters",
+                    "orbits", "gifts", "sheaves", "depths", "sentiments", "decoys", "realms", "pains",
+                    "grouches", "escapades"
+            },
+            new int[] {
+                    40, 40, 40, 40, 20, 20, 20, 20, 20, 10, 10, 10, 10, 5, 5, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+                    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1
+            });
+
+    /**
+     * The verbs of the pseudo-text grammar.
+     */
+    private static final Distribution VERBS = new Distribution(
+            new String[] {
+                    "sleep", "wake", "are", "cajole", "haggle", "nag", "use", "boost", "affix", "detect",
+                    "integrate", "maintain", "nod", "was", "lose", "sublate", "solve", "thrash", "promise",
+                    "engage", "hinder", "print", "x-ray", "breach", "eat", "grow", "impress", "mold", "poach",
+                    "serve", "run", "dazzle", "snooze", "doze", "unwind", "kindle", "play", "hang", "believe",
+                    "doubt"
+            },
+            new int[] {
+                    20, 20, 20, 20, 20, 10, 10, 10, 5, 5, 5, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+                    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1
+            });
+
+    /**
+     * The adjectives of the pseudo-text grammar.
+     */
+    private static final Distribution ADJECTIVES = new Distribution(
+            new String[] {
+                    "special", "pending", "unusual", "express", "furious", "sly", "careful", "blithe", "quick",
+                    "fluffy", "slow", "quiet", "ruthless", "thin", "close", "dogged", "daring", "brave",
+                    "stealthy", "permanent", "enticing", "idle", "busy", "regular", "final", "ironic", "even",
+                    "bold", "silent"
+            },
+            new int[] {
+                    20, 20, 20, 20, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 50, 40, 40, 30,
+                    20, 10
+            });
+
+    /**
+     * The adverbs of the pseudo-text grammar.
+     */
+    private static final Distribution ADVERBS = new Distribution(
+            new String[] {
+                    "sometimes", "always", "never", "furiously", "slyly", "carefully", "blithely", "quickly",
+                    "fluffily", "slowly", "quietly", "ruthlessly", "thinly", "closely", "doggedly", "daringly",
+                    "bravely", "stealthily", "permanently", "enticingly", "idly", "busily", "regularly",
+                    "finally", "ironically", "evenly", "boldly", "silently"
+            },
+            new int[] {
+                    1, 1, 1, 50, 50, 50, 40, 30, 20, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1
+            });
+
+    /**
+     * The prepositions of the pseudo-text grammar.
+     */
+    private static final Distribution PREPOSITIONS = new Distribution(
+            new String[] {
+                    "about", "above", "according to", "across", "after", "against", "along", "alongside of",
+                    "among", "around", "at", "atop", "before", "behind", "beneath", "beside", "besides",
+                    "between", "beyond", "by", "despite", "during", "except", "for", "from", "in place of",
+                    "inside", "instead of", "into", "near", "of", "on", "outside", "over", "past", "since",
+                    "through", "throughout", "to", "toward", "under", "until", "up", "upon", "without", "with",
+                    "within"
+            },
+            new int[] {
+                    50, 50, 50, 50, 50, 40, 40, 30, 30, 20, 10, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+                    1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1
+            });
+
+    /**
+     * The auxiliary verbs of the pseudo-text grammar.
+     */
+    private static final Distribution AUXILIARIES = new Distribution(
+            new String[] {
+                    "do", "may", "might", "shall", "will", "would", "can", "could", "should", "ought to", "must",
+                    "will have to", "shall have to", "could have to", "should have to", "must have to",
+                    "need to", "try to"
+            },
+            new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 });
+
+    /**
+     * The sentence terminators of the pseudo-text grammar.
+     */
+    private static final Distribution TERMINATORS = new Distribution(
+            new String[] { ".", ";", ":", "?", "!", "--" },
+            new int[] { 50, 1, 1, 1, 1, 1 });
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private TpchDistributions() {
+
+    }
+
+    /**
+     * Method to obtain the pseudo-text pool from which the comment columns are drawn. The pool is
+     * generated once, from a fixed seed, on first use.
+     * @return The pseudo-text pool as US-ASCII bytes.
+     */
+    static byte[] textPool() {
+        return TextPoolHolder.TEXT_POOL;
+    }
+
+    /**
+     * Method to generate the pseudo-text pool by concatenating sentences of the pseudo-text grammar.
+     * @return The generated pseudo-text pool as US-ASCII bytes.
+     */
+    private static byte[] generateTextPool() {
+        TpchRandom random = new TpchRandom(TEXT_POOL_STREAM);
+        StringBuilder text = new StringBuilder(TEXT_POOL_SIZE + 256);
+        while (text.length() < TEXT_POOL_SIZE) {
+            for (char symbol : GRAMMAR.pick(random).toCharArray()) {
+                switch (symbol) {
+                    case 'N' -> appendPhrase(text, NOUN_PHRASES.pick(random), random);
+                    case 'V' -> appendPhrase(text, VERB_PHRASES.pick(random), random);
+                    case 'P' -> {
+                        text.append(PREPOSITIONS.pick(random)).append(" the ");
+                        appendPhrase(text, NOUN_PHRASES.pick(random), random);
+                    }
+                    case 'T' -> {
+                        // Terminators directly follow the last word of the sentence
+                        text.setLength(text.length() - 1);
+                        text.append(TERMINATORS.pick(random)).append(' ');
+                    }
+                    default -> { }
+                }
+            }
+        }
+
+        text.setLength(TEXT_POOL_SIZE);
+        return text.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Method to append a noun or verb phrase of the pseudo-text grammar, followed by a space.
+     * @param text The text to append the phrase to.
+     * @param phrase The structure of the phrase to append.
+     * @param random The generator used to pick the words of the phrase.
+     */
+    private static void appendPhrase(StringBuilder text, String phrase, TpchRandom random) {
+        for (char symbol : phrase.toCharArray()) {
+            switch (symbol) {
+                case 'N' -> text.append(NOUNS.pick(random)).append(' ');
+                case 'V' -> text.append(VERBS.pick(random)).append(' ');
+                case 'J' -> text.append(ADJECTIVES.pick(random)).append(' ');
+                case 'D' -> text.append(ADVERBS.pick(random)).append(' ');
+                case 'X' -> text.append(AUXILIARIES.pick(random)).append(' ');
+                case ',' -> text.insert(text.length() - 1, ',');
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Class which defers generating the pseudo-text pool until it is first needed.
+     */
+    private static final class TextPoolHolder {
+
+        /**
+         * The pseudo-text pool as US-ASCII bytes.
+         */
+        private static final byte[] TEXT_POOL = generateTextPool();
+
+    }
+
+    /**
+     * Class representing a weighted distribution over a set of strings.
+     */
+    static final class Distribution {
+
+        /**
+         * The values of the distribution.
+         */
+        private final String[] values;
+
+        /**
+         * The cumulative weight of each value of the distribution.
+         */
+        private final int[] cumulativeWeights;
+
+        /**
+         * Creates a new {@link Distribution} instance.
+         * @param values The values of the distribution.
+         * @param weights The weight of each value of the distribution.
+         */
+        Distribution(String[] values, int[] weights) {
+            if (values.length != weights.length)
+                throw new IllegalArgumentException("Distribution expects a weight for each value");
+
+            this.values = values;
+            this.cumulativeWeights = new int[weights.length];
+            int totalWeight = 0;
+            for (int i = 0; i < weights.length; i++) {
+                totalWeight += weights[i];
+                this.cumulativeWeights[i] = totalWeight;
+            }
+        }
+
+        /**
+         * Method to draw a value from the distribution.
+         * @param random The generator to draw the value with.
+         * @return A value of the distribution, drawn proportionally to its weight.
+         */
+        String pick(TpchRandom random) {
+            int target = random.nextInt(0, this.cumulativeWeights[this.cumulativeWeights.length - 1] - 1);
+            int index = 0;
+            while (this.cumulativeWeights[index] <= target)
+                index++;
+            return this.values[index];
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package AethraDB.util.tpch;
+
+/**
+ * Pseudo-random number generator used by the {@link TpchDataGenerator}. Rather than producing a
+ * single sequence per table, the generator is re-seeded for each row from the identifier of the
+ * column group it generates and the key of the row, so that the values of a row do not depend on
+ * which thread generates it, on the batch length, or on the rows generated before it.
+ */
+final class TpchRandom {
+
+    /**
+     * The increment of the SplitMix64 sequence.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The seed identifying the stream of this generator.
+     */
+    private final long streamSeed;
+
+    /**
+     * The current state of the generator.
+     */
+    private long state;
+
+    /**
+     * Creates a new {@link TpchRandom} instance.
+     * @param stream The identifier of the stream of values that this generator produces.
+     */
+    TpchRandom(long stream) {
+        this.streamSeed = mix(stream * GOLDEN_GAMMA + 0x2545F4914F6CDD1DL);
+        this.state = this.streamSeed;
+    }
+
+    /**
+     * Method to position the generator at the start of the values of a row.
+     * @param rowKey The key of the row whose values should be generated next.
+     */
+    void seekRow(long rowKey) {
+        this.state = mix(this.streamSeed ^ mix(rowKey * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Method to obtain the next pseudo-random value of the generator.
+     * @return The next 64-bit pseudo-random value.
+     */
+    long nextLong() {
+        this.state += GOLDEN_GAMMA;
+        return mix(this.state);
+    }
+
+    /**
+     * Method to obtain a pseudo-random value from a range.
+     * @param low The (inclusive) lower bound of the range.
+     * @param high The (inclusive) upper bound of the range.
+     * @return A value uniformly drawn from [{@code low}, {@code high}].
+     */
+    long nextLong(long low, long high) {
+        return low + Long.remainderUnsigned(this.nextLong(), high - low + 1);
+    }
+
+    /**
+     * Method to obtain a pseudo-random value from a range.
+     * @param low The (inclusive) lower bound of the range.
+     * @param high The (inclusive) upper bound of the range.
+     * @return A value uniformly drawn from [{@code low}, {@code high}].
+     */
+    int nextInt(int low, int high) {
+        return (int) this.nextLong(low, high);
+    }
+
+    /**
+     * The SplitMix64 finaliser, which maps each 64-bit value to a well-mixed 64-bit value.
+     * @param value The value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+}
@@ -0,0 +1,178 @@
+package AethraDB.util.tpch;
+
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.util.List;
+
+/**
+ * Enum describing the Arrow layout of the TPC-H tables as read by the engine: identifiers and other
+ * integer columns are stored as 32-bit integers, decimals as doubles, dates as days since the epoch,
+ * {@code CHAR(n)} columns as space-padded fixed-size binaries of width n, and {@code VARCHAR}
+ * columns as UTF-8 strings.
+ */
+enum TpchTable {
+
+    REGION("region",
+            intColumn("r_regionkey"),
+            fixedColumn("r_name", 25),
+            stringColumn("r_comment")),
+
+    NATION("nation",
+            intColumn("n_nationkey"),
+            fixedColumn("n_name", 25),
+            intColumn("n_regionkey"),
+            stringColumn("n_comment")),
+
+    SUPPLIER("supplier",
+            intColumn("s_suppkey"),
+            fixedColumn("s_name", 25),
+            stringColumn("s_address"),
+            intColumn("s_nationkey"),
+            fixedColumn("s_phone", 15),
+            decimalColumn("s_acctbal"),
+            stringColumn("s_comment")),
+
+    PART("part",
+            intColumn("p_partkey"),
+            stringColumn("p_name"),
+            fixedColumn("p_mfgr", 25),
+            fixedColumn("p_brand", 10),
+            stringColumn("p_type"),
+            intColumn("p_size"),
+            fixedColumn("p_container", 10),
+            decimalColumn("p_retailprice"),
+            stringColumn("p_comment")),
+
+    PARTSUPP("partsupp",
+            intColumn("ps_partkey"),
+            intColumn("ps_suppkey"),
+            intColumn("ps_availqty"),
+            decimalColumn("ps_supplycost"),
+            stringColumn("ps_comment")),
+
+    CUSTOMER("customer",
+            intColumn("c_custkey"),
+            stringColumn("c_name"),
+            stringColumn("c_address"),
+            intColumn("c_nationkey"),
+            fixedColumn("c_phone", 15),
+            decimalColumn("c_acctbal"),
+            fixedColumn("c_mktsegment", 10),
+            stringColumn("c_comment")),
+
+    ORDERS("orders",
+            intColumn("o_orderkey"),
+            intColumn("o_custkey"),
+            fixedColumn("o_orderstatus", 1),
+            decimalColumn("o_totalprice"),
+            dateColumn("o_orderdate"),
+            fixedColumn("o_orderpriority", 15),
+            fixedColumn("o_clerk", 15),
+            intColumn("o_shippriority"),
+            stringColumn("o_comment")),
+
+    LINEITEM("lineitem",
+            intColumn("l_orderkey"),
+            intColumn("l_partkey"),
+            intColumn("l_suppkey"),
+            intColumn("l_linenumber"),
+            decimalColumn("l_quantity"),
+            decimalColumn("l_extendedprice"),
+            decimalColumn("l_discount"),
+            decimalColumn("l_tax"),
+            fixedColumn("l_returnflag", 1),
+            fixedColumn("l_linestatus", 1),
+            dateColumn("l_shipdate"),
+            dateColumn("l_commitdate"),
+            dateColumn("l_receiptdate"),
+            fixedColumn("l_shipinstruct", 25),
+            fixedColumn("l_shipmode", 10),
+            stringColumn("l_comment"));
+
+    /**
+     * The name of the table, which is also the name of its Arrow IPC file without extension.
+     */
+    private final String tableName;
+
+    /**
+     * The schema of the Arrow IPC file of the table.
+     */
+    private final Schema schema;
+
+    /**
+     * Creates a new {@link TpchTable} instance.
+     * @param tableName The name of the table.
+     * @param fields The fields of the table, in column order.
+     */
+    TpchTable(String tableName, Field... fields) {
+        this.tableName = tableName;
+        this.schema = new Schema(List.of(fields));
+    }
+
+    /**
+     * Method to obtain the name of the Arrow IPC file of the table.
+     * @return The file name of the table.
+     */
+    String getFileName() {
+        return this.tableName + ".arrow";
+    }
+
+    /**
+     * Method to obtain the schema of the Arrow IPC file of the table.
+     * @return The schema of the table.
+     */
+    Schema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Method to create the field of an integer column.
+     * @param name The name of the column.
+     * @return The field describing the column.
+     */
+    private static Field intColumn(String name) {
+        return Field.nullable(name, new ArrowType.Int(32, true));
+    }
+
+    /**
+     * Method to create the field of a decimal column.
+     * @param name The name of the column.
+     * @return The field describing the column.
+     */
+    private static Field decimalColumn(String name) {
+        return Field.nullable(name, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE));
+    }
+
+    /**
+     * Method to create the field of a date column.
+     * @param name The name of the column.
+     * @return The field describing the column.
+     */
+    private static Field dateColumn(String name) {
+        return Field.nullable(name, new ArrowType.Date(DateUnit.DAY));
+    }
+
+    /**
+     * Method to create the field of a {@code CHAR(n)} column.
+     * @param name The name of the column.
+     * @param width The width n of the column.
+     * @return The field describing the column.
+     */
+    private static Field fixedColumn(String name, int width) {
+        return Field.nullable(name, new ArrowType.FixedSizeBinary(width));
+    }
+
+    /**
+     * Method to create the field of a {@code VARCHAR} column.
+     * @param name The name of the column.
+     * @return The field describing the column.
+     */
+    private static Field stringColumn(String name) {
+        return Field.nullable(name, ArrowType.Utf8.INSTANCE);
+    }
+
+}
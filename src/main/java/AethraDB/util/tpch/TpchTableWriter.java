@@ -0,0 +1,196 @@
+package AethraDB.util.tpch;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedSizeBinaryVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Class for writing the rows of a TPC-H table one column value at a time to an Arrow IPC file in
+ * batches of a fixed length.
+ */
+final class TpchTableWriter implements AutoCloseable {
+
+    /**
+     * The stream used for writing the file.
+     */
+    private final FileOutputStream fileStream;
+
+    /**
+     * The root buffering the rows of the current batch.
+     */
+    private final VectorSchemaRoot root;
+
+    /**
+     * The vectors of {@code root}, indexed by column index.
+     */
+    private final FieldVector[] vectors;
+
+    /**
+     * Buffer per fixed-size binary column used to space-pad its values, or {@code null} for other columns.
+     */
+    private final byte[][] paddingBuffers;
+
+    /**
+     * The writer used for writing the batches to the file.
+     */
+    private final ArrowFileWriter writer;
+
+    /**
+     * The number of rows per batch.
+     */
+    private final int batchLength;
+
+    /**
+     * The number of rows in the current batch.
+     */
+    private int bufferedRows;
+
+    /**
+     * Create a new {@link TpchTableWriter} instance.
+     * @param file The file to write.
+     * @param table The table whose rows are written.
+     * @param allocator The allocator to use for buffering the rows.
+     * @param batchLength The number of rows per batch.
+     * @param codec The codec with which to compress the batches.
+     * @throws IOException when an I/O issue occurs while starting the file.
+     */
+    TpchTableWriter(
+            File file,
+            TpchTable table,
+            BufferAllocator allocator,
+            int batchLength,
+            CompressionUtil.CodecType codec
+    ) throws IOException {
+        this.fileStream = new FileOutputStream(file);
+        this.root = VectorSchemaRoot.create(table.getSchema(), allocator);
+        this.vectors = this.root.getFieldVectors().toArray(new FieldVector[0]);
+        this.paddingBuffers = new byte[this.vectors.length][];
+        for (int columnIndex = 0; columnIndex < this.vectors.length; columnIndex++) {
+            if (this.vectors[columnIndex] instanceof FixedSizeBinaryVector fixedSizeBinaryVector)
+                this.paddingBuffers[columnIndex] = new byte[fixedSizeBinaryVector.getByteWidth()];
+        }
+
+        this.writer = new ArrowFileWriter(
+                this.root, null, this.fileStream.getChannel(), null, IpcOption.DEFAULT,
+                AethraCompressionCodecFactory.INSTANCE, codec);
+        this.batchLength = batchLength;
+        this.bufferedRows = 0;
+        this.writer.start();
+    }
+
+    /**
+     * Method to set the value of an integer column of the current row.
+     * @param columnIndex The index of the column.
+     * @param value The value to set.
+     */
+    void setInt(int columnIndex, int value) {
+        ((IntVector) this.vectors[columnIndex]).setSafe(this.bufferedRows, value);
+    }
+
+    /**
+     * Method to set the value of a decimal column of the current row.
+     * @param columnIndex The index of the column.
+     * @param cents The value to set, in hundredths.
+     */
+    void setDecimal(int columnIndex, long cents) {
+        ((Float8Vector) this.vectors[columnIndex]).setSafe(this.bufferedRows, cents / 100d);
+    }
+
+    /**
+     * Method to set the value of a date column of the current row.
+     * @param columnIndex The index of the column.
+     * @param epochDay The value to set, as the number of days since the epoch.
+     */
+    void setDate(int columnIndex, int epochDay) {
+        ((DateDayVector) this.vectors[columnIndex]).setSafe(this.bufferedRows, epochDay);
+    }
+
+    /**
+     * Method to set the value of a {@code CHAR(n)} column of the current row, padding it with spaces.
+     * @param columnIndex The index of the column.
+     * @param value The US-ASCII value to set, which should not be longer than the column width.
+     */
+    void setFixed(int columnIndex, String value) {
+        byte[] paddingBuffer = this.paddingBuffers[columnIndex];
+        int length = value.length();
+        if (length > paddingBuffer.length)
+            throw new IllegalArgumentException("TpchTableWriter.setFixed received a value exceeding the column width: " + value);
+
+        for (int i = 0; i < length; i++)
+            paddingBuffer[i] = (byte) value.charAt(i);
+        Arrays.fill(paddingBuffer, length, paddingBuffer.length, (byte) ' ');
+        ((FixedSizeBinaryVector) this.vectors[columnIndex]).setSafe(this.bufferedRows, paddingBuffer);
+    }
+
+    /**
+     * Method to set the value of a {@code VARCHAR} column of the current row.
+     * @param columnIndex The index of the column.
+     * @param value The US-ASCII value to set.
+     */
+    void setString(int columnIndex, String value) {
+        byte[] bytes = new byte[value.length()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) value.charAt(i);
+        this.setString(columnIndex, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Method to set the value of a {@code VARCHAR} column of the current row from a byte range.
+     * @param columnIndex The index of the column.
+     * @param source The array containing the UTF-8 bytes of the value.
+     * @param offset The offset of the value in {@code source}.
+     * @param length The length of the value in bytes.
+     */
+    void setString(int columnIndex, byte[] source, int offset, int length) {
+        ((VarCharVector) this.vectors[columnIndex]).setSafe(this.bufferedRows, source, offset, length);
+    }
+
+    /**
+     * Method to complete the current row, writing the current batch once it is full.
+     * @throws IOException when an I/O issue occurs while writing a completed batch.
+     */
+    void endRow() throws IOException {
+        if (++this.bufferedRows == this.batchLength)
+            this.flush();
+    }
+
+    /**
+     * Method to write the buffered rows to the file as a single batch.
+     * @throws IOException when the batch could not be written.
+     */
+    private void flush() throws IOException {
+        this.root.setRowCount(this.bufferedRows);
+        this.writer.writeBatch();
+        for (FieldVector vector : this.vectors)
+            vector.reset();
+        this.bufferedRows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.bufferedRows > 0)
+                this.flush();
+            this.writer.end();
+        } finally {
+            this.writer.close();
+            this.root.close();
+            this.fileStream.close();
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.apache.arrow.vector.compression;
+
+/**
+ * AethraDB specific class.
+ * {@link CompressionCodec.Factory} which provides the compression codecs that AethraDB implements
+ * without native dependencies, and which is used for reading all Arrow IPC files.
+ */
+public class AethraCompressionCodecFactory implements CompressionCodec.Factory {
+
+    /**
+     * The shared instance of the factory.
+     */
+    public static final AethraCompressionCodecFactory INSTANCE = new AethraCompressionCodecFactory();
+
+    /**
+     * Prevent instantiating this class outside of {@code INSTANCE}.
+     */
+    private AethraCompressionCodecFactory() {
+
+    }
+
+    @Override
+    public CompressionCodec createCodec(CompressionUtil.CodecType codecType) {
+        return switch (codecType) {
+            case NO_COMPRESSION -> NoCompressionCodec.INSTANCE;
+            case LZ4_FRAME -> Lz4FrameCompressionCodec.INSTANCE;
+            case ZSTD -> throw new UnsupportedOperationException(
+                    "AethraCompressionCodecFactory does not support ZSTD compressed Arrow files, please use LZ4_FRAME instead");
+        };
+    }
+
+    @Override
+    public CompressionCodec createCodec(CompressionUtil.CodecType codecType, int compressionLevel) {
+        // The available codecs do not have compression levels
+        return this.createCodec(codecType);
+    }
+
+}
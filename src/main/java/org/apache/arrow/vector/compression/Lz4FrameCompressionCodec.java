@@ -0,0 +1,68 @@
+package org.apache.arrow.vector.compression;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+
+/**
+ * AethraDB specific class.
+ * {@link CompressionCodec} for the LZ4 frame format, implemented in pure Java (see {@link Lz4FrameFormat})
+ * so that compressed Arrow IPC files can be read without a dependency on native compression libraries.
+ * The codec is stateless, and can therefore be shared by threads that (de)compress buffers in parallel.
+ */
+public class Lz4FrameCompressionCodec extends AbstractCompressionCodec {
+
+    /**
+     * The shared instance of the codec.
+     */
+    public static final Lz4FrameCompressionCodec INSTANCE = new Lz4FrameCompressionCodec();
+
+    /**
+     * Prevent instantiating this class outside of {@code INSTANCE}.
+     */
+    private Lz4FrameCompressionCodec() {
+
+    }
+
+    @Override
+    protected ArrowBuf doCompress(BufferAllocator allocator, ArrowBuf uncompressedBuffer) {
+        long uncompressedLength = uncompressedBuffer.writerIndex();
+        ArrowBuf compressedBuffer = allocator.buffer(
+                CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH + Lz4FrameFormat.maxCompressedFrameLength(uncompressedLength));
+
+        long frameLength = Lz4FrameFormat.compressFrame(
+                uncompressedBuffer.memoryAddress(),
+                uncompressedLength,
+                compressedBuffer.memoryAddress() + CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH
+        );
+
+        compressedBuffer.writerIndex(CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH + frameLength);
+        return compressedBuffer;
+    }
+
+    @Override
+    protected ArrowBuf doDecompress(BufferAllocator allocator, ArrowBuf compressedBuffer) {
+        long decompressedLength = readUncompressedLength(compressedBuffer);
+        ArrowBuf decompressedBuffer = allocator.buffer(decompressedLength);
+
+        try {
+            Lz4FrameFormat.decompressFrames(
+                    compressedBuffer.memoryAddress() + CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH,
+                    compressedBuffer.writerIndex() - CompressionUtil.SIZE_OF_UNCOMPRESSED_LENGTH,
+                    decompressedBuffer.memoryAddress(),
+                    decompressedLength
+            );
+        } catch (RuntimeException e) {
+            decompressedBuffer.close();
+            throw e;
+        }
+
+        decompressedBuffer.writerIndex(decompressedLength);
+        return decompressedBuffer;
+    }
+
+    @Override
+    public CompressionUtil.CodecType getCodecType() {
+        return CompressionUtil.CodecType.LZ4_FRAME;
+    }
+
+}
@@ -0,0 +1,478 @@
+package org.apache.arrow.vector.compression;
+
+import org.apache.arrow.memory.util.MemoryUtil;
+
+/**
+ * AethraDB specific class.
+ * Pure-Java implementation of the LZ4 frame format (https://github.com/lz4/lz4/blob/dev/doc/lz4_Frame_format.md)
+ * and of the LZ4 block format that it wraps, operating directly on off-heap memory addresses.
+ *
+ * Decompression supports all frame features except preset dictionaries: frames may use linked or
+ * independent blocks, may be concatenated, and may contain block and content checksums (which are
+ * skipped rather than verified, as the Arrow IPC file already guards against truncation).
+ * Compression produces frames of independent blocks without checksums using a single-pass greedy
+ * matcher, which favours speed over compression ratio.
+ */
+final class Lz4FrameFormat {
+
+    /**
+     * The magic number that starts every LZ4 frame.
+     */
+    private static final int FRAME_MAGIC = 0x184D2204;
+
+    /**
+     * The mask to apply to a magic number to check whether it indicates a skippable frame.
+     */
+    private static final int SKIPPABLE_FRAME_MAGIC_MASK = 0xFFFFFFF0;
+
+    /**
+     * The magic number of skippable frames, after applying {@code SKIPPABLE_FRAME_MAGIC_MASK}.
+     */
+    private static final int SKIPPABLE_FRAME_MAGIC = 0x184D2A50;
+
+    /**
+     * The frame descriptor flag byte written by the compressor: version 01 and independent blocks.
+     */
+    private static final byte FRAME_FLAGS = 0x60;
+
+    /**
+     * The frame block descriptor byte written by the compressor: a maximum block size of 4 MiB.
+     */
+    private static final byte FRAME_BLOCK_DESCRIPTOR = 0x70;
+
+    /**
+     * The maximum block size corresponding to {@code FRAME_BLOCK_DESCRIPTOR}.
+     */
+    private static final int MAX_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The number of bytes taken by the frame header written by the compressor.
+     */
+    private static final int FRAME_HEADER_SIZE = 7;
+
+    /**
+     * The bit of a block size which indicates that the block is stored uncompressed.
+     */
+    private static final int UNCOMPRESSED_BLOCK_FLAG = 0x80000000;
+
+    /**
+     * The minimum length of a match in the LZ4 block format.
+     */
+    private static final int MIN_MATCH = 4;
+
+    /**
+     * The number of bytes at the end of a block which must always be encoded as literals.
+     */
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * The minimum distance between the start of the last match and the end of a block.
+     */
+    private static final int MF_LIMIT = 12;
+
+    /**
+     * The maximum offset of a match in the LZ4 block format.
+     */
+    private static final int MAX_OFFSET = 65535;
+
+    /**
+     * The base-2 logarithm of the number of entries in the compressor's hash table.
+     */
+    private static final int HASH_LOG = 16;
+
+    /**
+     * The number of unsuccessful match attempts after which the compressor increases its step size
+     * (as a power of two), to quickly skip over incompressible data.
+     */
+    private static final int SKIP_TRIGGER = 6;
+
+    /**
+     * Prevent instantiating this class.
+     */
+    private Lz4FrameFormat() {
+
+    }
+
+    /**
+     * Method to compute an upper bound on the size of the frame produced by {@code compressFrame}.
+     * @param sourceLength The number of bytes to compress.
+     * @return The maximum number of bytes that the compressed frame can take.
+     */
+    static long maxCompressedFrameLength(long sourceLength) {
+        long blockCount = Math.max(1, (sourceLength + MAX_BLOCK_SIZE - 1) / MAX_BLOCK_SIZE);
+        // Each block is stored compressed only if this is smaller, so blocks take at most their size plus the size field
+        return FRAME_HEADER_SIZE + sourceLength + blockCount * 4L + 4L;
+    }
+
+    /**
+     * Method to compress a memory region into an LZ4 frame.
+     * @param sourceAddress The address of the first byte to compress.
+     * @param sourceLength The number of bytes to compress.
+     * @param targetAddress The address at which to write the frame, which must have room for
+     *                      {@code maxCompressedFrameLength(sourceLength)} bytes.
+     * @return The number of bytes written to {@code targetAddress}.
+     */
+    static long compressFrame(long sourceAddress, long sourceLength, long targetAddress) {
+        long outputPosition = targetAddress;
+
+        // Write the frame header
+        putIntLE(outputPosition, FRAME_MAGIC);
+        MemoryUtil.UNSAFE.putByte(outputPosition + 4, FRAME_FLAGS);
+        MemoryUtil.UNSAFE.putByte(outputPosition + 5, FRAME_BLOCK_DESCRIPTOR);
+        MemoryUtil.UNSAFE.putByte(outputPosition + 6, headerChecksum(FRAME_FLAGS, FRAME_BLOCK_DESCRIPTOR));
+        outputPosition += FRAME_HEADER_SIZE;
+
+        // Write the blocks, each preceded by its size
+        int[] hashTable = new int[1 << HASH_LOG];
+        for (long blockStart = 0; blockStart < sourceLength; blockStart += MAX_BLOCK_SIZE) {
+            int blockLength = (int) Math.min(MAX_BLOCK_SIZE, sourceLength - blockStart);
+            long blockAddress = sourceAddress + blockStart;
+
+            // Compressed blocks cannot exceed the block length in size, store the block as-is otherwise
+            int compressedLength = compressBlock(blockAddress, blockLength, outputPosition + 4, blockLength, hashTable);
+            if (compressedLength < 0) {
+                putIntLE(outputPosition, blockLength | UNCOMPRESSED_BLOCK_FLAG);
+                MemoryUtil.UNSAFE.copyMemory(blockAddress, outputPosition + 4, blockLength);
+                outputPosition += 4 + blockLength;
+            } else {
+                putIntLE(outputPosition, compressedLength);
+                outputPosition += 4 + compressedLength;
+            }
+        }
+
+        // Write the end mark
+        putIntLE(outputPosition, 0);
+        outputPosition += 4;
+
+        return outputPosition - targetAddress;
+    }
+
+    /**
+     * Method to decompress one or more concatenated LZ4 frames.
+     * @param sourceAddress The address of the first byte of the frames.
+     * @param sourceLength The number of bytes taken by the frames.
+     * @param targetAddress The address at which to write the decompressed data.
+     * @param targetLength The exact number of bytes that the frames decompress to.
+     */
+    static void decompressFrames(long sourceAddress, long sourceLength, long targetAddress, long targetLength) {
+        long inputPosition = sourceAddress;
+        long inputEnd = sourceAddress + sourceLength;
+        long outputPosition = targetAddress;
+        long outputEnd = targetAddress + targetLength;
+
+        while (inputPosition < inputEnd) {
+            checkAvailable(inputPosition, 4, inputEnd);
+            int magic = getIntLE(inputPosition);
+            inputPosition += 4;
+
+            // Skip over skippable frames
+            if ((magic & SKIPPABLE_FRAME_MAGIC_MASK) == SKIPPABLE_FRAME_MAGIC) {
+                checkAvailable(inputPosition, 4, inputEnd);
+                inputPosition += 4 + (getIntLE(inputPosition) & 0xFFFFFFFFL);
+                continue;
+            }
+
+            if (magic != FRAME_MAGIC)
+                throw new IllegalArgumentException("Lz4FrameFormat.decompressFrames encountered an invalid frame magic number: " + magic);
+
+            // Parse the frame descriptor
+            checkAvailable(inputPosition, 3, inputEnd);
+            int flags = MemoryUtil.UNSAFE.getByte(inputPosition) & 0xFF;
+            if ((flags >>> 6) != 1)
+                throw new IllegalArgumentException("Lz4FrameFormat.decompressFrames only supports version 01 frames");
+            if ((flags & 0x01) != 0)
+                throw new UnsupportedOperationException("Lz4FrameFormat.decompressFrames does not support preset dictionaries");
+            boolean hasBlockChecksums = (flags & 0x10) != 0;
+            boolean hasContentSize = (flags & 0x08) != 0;
+            boolean hasContentChecksum = (flags & 0x04) != 0;
+            inputPosition += 2 + (hasContentSize ? 8 : 0) + 1;
+
+            // Decode the blocks of the frame
+            while (true) {
+                checkAvailable(inputPosition, 4, inputEnd);
+                int blockSize = getIntLE(inputPosition);
+                inputPosition += 4;
+                if (blockSize == 0)
+                    break;
+
+                int blockLength = blockSize & ~UNCOMPRESSED_BLOCK_FLAG;
+                checkAvailable(inputPosition, blockLength, inputEnd);
+                if ((blockSize & UNCOMPRESSED_BLOCK_FLAG) != 0) {
+                    checkAvailable(outputPosition, blockLength, outputEnd);
+                    MemoryUtil.UNSAFE.copyMemory(inputPosition, outputPosition, blockLength);
+                    outputPosition += blockLength;
+                } else {
+                    // Linked blocks may refer to earlier blocks, which is safe as the output is contiguous
+                    outputPosition = decompressBlock(inputPosition, blockLength, targetAddress, outputPosition, outputEnd);
+                }
+
+                inputPosition += blockLength + (hasBlockChecksums ? 4 : 0);
+            }
+
+            if (hasContentChecksum)
+                inputPosition += 4;
+        }
+
+        if (outputPosition != outputEnd)
+            throw new IllegalArgumentException("Lz4FrameFormat.decompressFrames decompressed " + (outputPosition - targetAddress)
+                    + " bytes, while " + targetLength + " bytes were expected");
+    }
+
+    /**
+     * Method to compress a memory region into a single LZ4 block.
+     * @param sourceAddress The address of the first byte to compress.
+     * @param sourceLength The number of bytes to compress.
+     * @param targetAddress The address at which to write the compressed block.
+     * @param targetCapacity The number of bytes available at {@code targetAddress}.
+     * @param hashTable The hash table to use for finding matches, which is cleared by this method.
+     * @return The number of bytes written, or -1 if the block could not be compressed within {@code targetCapacity}.
+     */
+    static int compressBlock(long sourceAddress, int sourceLength, long targetAddress, int targetCapacity, int[] hashTable) {
+        long targetEnd = targetAddress + targetCapacity;
+        long outputPosition = targetAddress;
+        int anchor = 0;
+
+        // Blocks that are too short for matches consist of literals only
+        if (sourceLength >= MF_LIMIT + 1) {
+            // Hash table entries store the position of a 4-byte sequence plus one, so zero indicates an empty entry
+            java.util.Arrays.fill(hashTable, 0);
+            int matchSearchLimit = sourceLength - MF_LIMIT;
+            int matchExtensionLimit = sourceLength - LAST_LITERALS;
+            int position = 0;
+            int searchAttempts = 1 << SKIP_TRIGGER;
+
+            while (position < matchSearchLimit) {
+                int sequence = MemoryUtil.UNSAFE.getInt(sourceAddress + position);
+                int hash = hash(sequence);
+                int candidate = hashTable[hash] - 1;
+                hashTable[hash] = position + 1;
+
+                if (candidate < 0 || position - candidate > MAX_OFFSET
+                        || MemoryUtil.UNSAFE.getInt(sourceAddress + candidate) != sequence) {
+                    // Skip ahead faster the longer no match has been found
+                    position += searchAttempts++ >>> SKIP_TRIGGER;
+                    continue;
+                }
+                searchAttempts = 1 << SKIP_TRIGGER;
+
+                // Extend the match backwards over pending literals and forwards as far as allowed
+                while (position > anchor && candidate > 0
+                        && MemoryUtil.UNSAFE.getByte(sourceAddress + position - 1) == MemoryUtil.UNSAFE.getByte(sourceAddress + candidate - 1)) {
+                    position--;
+                    candidate--;
+                }
+                int matchLength = MIN_MATCH;
+                while (position + matchLength < matchExtensionLimit
+                        && MemoryUtil.UNSAFE.getByte(sourceAddress + position + matchLength) == MemoryUtil.UNSAFE.getByte(sourceAddress + candidate + matchLength))
+                    matchLength++;
+
+                outputPosition = writeSequence(
+                        sourceAddress + anchor, position - anchor, position - candidate, matchLength, outputPosition, targetEnd);
+                if (outputPosition < 0)
+                    return -1;
+
+                position += matchLength;
+                anchor = position;
+
+                // Register a position inside the match to improve the chance of finding the next match
+                if (position - 2 < matchSearchLimit)
+                    hashTable[hash(MemoryUtil.UNSAFE.getInt(sourceAddress + position - 2))] = position - 1;
+            }
+        }
+
+        // Write the remaining bytes as the final literal-only sequence
+        outputPosition = writeSequence(sourceAddress + anchor, sourceLength - anchor, 0, 0, outputPosition, targetEnd);
+        if (outputPosition < 0)
+            return -1;
+
+        return (int) (outputPosition - targetAddress);
+    }
+
+    /**
+     * Method to decompress a single LZ4 block.
+     * @param sourceAddress The address of the first byte of the block.
+     * @param sourceLength The number of bytes taken by the block.
+     * @param outputStart The start of the output region, which bounds the offsets of matches.
+     * @param outputPosition The address at which to write the decompressed block.
+     * @param outputEnd The end of the output region.
+     * @return The address directly after the decompressed block.
+     */
+    static long decompressBlock(long sourceAddress, int sourceLength, long outputStart, long outputPosition, long outputEnd) {
+        long inputPosition = sourceAddress;
+        long inputEnd = sourceAddress + sourceLength;
+
+        while (true) {
+            checkAvailable(inputPosition, 1, inputEnd);
+            int token = MemoryUtil.UNSAFE.getByte(inputPosition++) & 0xFF;
+
+            // Copy the literals
+            int literalLength = token >>> 4;
+            if (literalLength == 15) {
+                int lengthByte;
+                do {
+                    checkAvailable(inputPosition, 1, inputEnd);
+                    lengthByte = MemoryUtil.UNSAFE.getByte(inputPosition++) & 0xFF;
+                    literalLength += lengthByte;
+                } while (lengthByte == 255);
+            }
+            checkAvailable(inputPosition, literalLength, inputEnd);
+            checkAvailable(outputPosition, literalLength, outputEnd);
+            MemoryUtil.UNSAFE.copyMemory(inputPosition, outputPosition, literalLength);
+            inputPosition += literalLength;
+            outputPosition += literalLength;
+
+            // The last sequence of a block only contains literals
+            if (inputPosition == inputEnd)
+                return outputPosition;
+
+            // Copy the match
+            checkAvailable(inputPosition, 2, inputEnd);
+            int offset = (MemoryUtil.UNSAFE.getByte(inputPosition) & 0xFF) | ((MemoryUtil.UNSAFE.getByte(inputPosition + 1) & 0xFF) << 8);
+            inputPosition += 2;
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int lengthByte;
+                do {
+                    checkAvailable(inputPosition, 1, inputEnd);
+                    lengthByte = MemoryUtil.UNSAFE.getByte(inputPosition++) & 0xFF;
+                    matchLength += lengthByte;
+                } while (lengthByte == 255);
+            }
+            matchLength += MIN_MATCH;
+
+            long matchPosition = outputPosition - offset;
+            if (offset == 0 || matchPosition < outputStart)
+                throw new IllegalArgumentException("Lz4FrameFormat.decompressBlock encountered an invalid match offset: " + offset);
+            checkAvailable(outputPosition, matchLength, outputEnd);
+
+            if (offset >= matchLength) {
+                MemoryUtil.UNSAFE.copyMemory(matchPosition, outputPosition, matchLength);
+                outputPosition += matchLength;
+            } else {
+                // Overlapping matches repeat the last offset bytes: copy the periodic region in doubling chunks
+                long matchEnd = outputPosition + matchLength;
+                while (outputPosition < matchEnd) {
+                    long chunkLength = Math.min(outputPosition - matchPosition, matchEnd - outputPosition);
+                    MemoryUtil.UNSAFE.copyMemory(matchPosition, outputPosition, chunkLength);
+                    outputPosition += chunkLength;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to write a single sequence of the LZ4 block format.
+     * @param literalAddress The address of the literals of the sequence.
+     * @param literalLength The number of literals of the sequence.
+     * @param offset The offset of the match of the sequence (unused for the last sequence).
+     * @param matchLength The length of the match of the sequence, or 0 for the last sequence.
+     * @param outputPosition The address at which to write the sequence.
+     * @param outputEnd The end of the output region.
+     * @return The address directly after the written sequence, or -1 if it does not fit the output region.
+     */
+    private static long writeSequence(long literalAddress, int literalLength, int offset, int matchLength, long outputPosition, long outputEnd) {
+        // Check the worst-case size of the sequence up-front
+        if (outputPosition + 1 + literalLength / 255 + 1 + literalLength + 2 + matchLength / 255 + 1 > outputEnd)
+            return -1;
+
+        long tokenPosition = outputPosition++;
+        int encodedMatchLength = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+        int token = (Math.min(literalLength, 15) << 4) | Math.min(encodedMatchLength, 15);
+        MemoryUtil.UNSAFE.putByte(tokenPosition, (byte) token);
+
+        outputPosition = writeLengthExtension(literalLength, outputPosition);
+        MemoryUtil.UNSAFE.copyMemory(literalAddress, outputPosition, literalLength);
+        outputPosition += literalLength;
+
+        if (matchLength != 0) {
+            MemoryUtil.UNSAFE.putByte(outputPosition++, (byte) offset);
+            MemoryUtil.UNSAFE.putByte(outputPosition++, (byte) (offset >>> 8));
+            outputPosition = writeLengthExtension(encodedMatchLength, outputPosition);
+        }
+
+        return outputPosition;
+    }
+
+    /**
+     * Method to write the extension bytes of a literal or match length that does not fit its token nibble.
+     * @param length The (encoded) length to write the extension for.
+     * @param outputPosition The address at which to write the extension.
+     * @return The address directly after the extension.
+     */
+    private static long writeLengthExtension(int length, long outputPosition) {
+        if (length < 15)
+            return outputPosition;
+
+        int remaining = length - 15;
+        while (remaining >= 255) {
+            MemoryUtil.UNSAFE.putByte(outputPosition++, (byte) 255);
+            remaining -= 255;
+        }
+        MemoryUtil.UNSAFE.putByte(outputPosition++, (byte) remaining);
+        return outputPosition;
+    }
+
+    /**
+     * Method to hash a 4-byte sequence into an index of the compressor's hash table.
+     * @param sequence The sequence to hash.
+     * @return The hash table index of {@code sequence}.
+     */
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    /**
+     * Method to compute the header checksum byte of a frame descriptor without content size and dictionary id.
+     * @param flags The flag byte of the frame descriptor.
+     * @param blockDescriptor The block descriptor byte of the frame descriptor.
+     * @return The second byte of the XXH32 hash (with seed 0) of the frame descriptor.
+     */
+    static byte headerChecksum(byte flags, byte blockDescriptor) {
+        final int prime1 = 0x9E3779B1;
+        final int prime2 = 0x85EBCA77;
+        final int prime3 = 0xC2B2AE3D;
+        final int prime5 = 0x165667B1;
+
+        // XXH32 of a 2-byte input: no stripes or 4-byte lanes, only single-byte rounds
+        int hash = prime5 + 2;
+        hash = Integer.rotateLeft(hash + (flags & 0xFF) * prime5, 11) * prime1;
+        hash = Integer.rotateLeft(hash + (blockDescriptor & 0xFF) * prime5, 11) * prime1;
+        hash ^= hash >>> 15;
+        hash *= prime2;
+        hash ^= hash >>> 13;
+        hash *= prime3;
+        hash ^= hash >>> 16;
+        return (byte) (hash >>> 8);
+    }
+
+    /**
+     * Method to check that a region of memory lies within the bounds of a buffer.
+     * @param position The start of the region.
+     * @param length The length of the region.
+     * @param end The end of the buffer.
+     */
+    private static void checkAvailable(long position, long length, long end) {
+        if (length < 0 || position + length > end)
+            throw new IllegalArgumentException("Lz4FrameFormat encountered a malformed frame that exceeds its buffer bounds");
+    }
+
+    /**
+     * Method to read a little-endian int from memory.
+     * @param address The address to read from.
+     * @return The int at {@code address}.
+     */
+    private static int getIntLE(long address) {
+        int value = MemoryUtil.UNSAFE.getInt(address);
+        return MemoryUtil.LITTLE_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    /**
+     * Method to write a little-endian int to memory.
+     * @param address The address to write to.
+     * @param value The value to write.
+     */
+    private static void putIntLE(long address, int value) {
+        MemoryUtil.UNSAFE.putInt(address, MemoryUtil.LITTLE_ENDIAN ? value : Integer.reverseBytes(value));
+    }
+
+}
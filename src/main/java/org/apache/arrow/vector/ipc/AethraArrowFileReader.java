@@ -1,5 +1,6 @@
 package org.apache.arrow.vector.ipc;
 
+import org.apache.arrow.flatbuf.BodyCompression;
 import org.apache.arrow.flatbuf.Buffer;
 import org.apache.arrow.flatbuf.FieldNode;
 import org.apache.arrow.flatbuf.Footer;
@@ -11,8 +12,9 @@ import org.apache.arrow.util.VisibleForTesting;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.TypeLayout;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.AethraCompressionCodecFactory;
 import org.apache.arrow.vector.compression.CompressionCodec;
-import org.apache.arrow.vector.compression.NoCompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtil;
 import org.apache.arrow.vector.ipc.message.ArrowBlock;
 import org.apache.arrow.vector.ipc.message.ArrowDictionaryBatch;
 import org.apache.arrow.vector.ipc.message.ArrowFieldNode;
@@ -31,6 +33,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.apache.arrow.memory.util.LargeMemoryUtil.checkedCastToInt;
 import static org.apache.arrow.vector.ipc.ArrowMagic.MAGIC_LENGTH;
@@ -41,13 +44,21 @@ import static org.apache.arrow.vector.ipc.message.MessageSerializer.IPC_CONTINUA
  * Class which performs reading of Arrow IPC files, but while reducing overhead compared to the
  * standard {@link ArrowFileReader}.
  *
+ * Compressed input files are supported via the codecs of {@link AethraCompressionCodecFactory}.
+ * Decompression is performed by the thread calling {@link #loadNextBatch()}, where the buffers of
+ * a sufficiently large record batch are decompressed in parallel per column buffer.
+ *
  * However, to do its work, this reader makes some important assumptions:
- * - It assumes that no compression is used in the input file
  * - It assumes that no vector has a child vector
  * - It assumes that field vectors are always aligned to 8-byte boundaries
  */
 public class AethraArrowFileReader extends ArrowReader {
 
+    /**
+     * The minimum number of compressed bytes in a record batch for its buffers to be decompressed in parallel.
+     */
+    private static final long PARALLEL_DECOMPRESSION_THRESHOLD = 64 * 1024;
+
     private final SeekableReadChannel in;
     private final int[] columnsToRead;
     private boolean[] columnEnabled;
@@ -69,7 +80,7 @@ public class AethraArrowFileReader extends ArrowReader {
     }
 
     private AethraArrowFileReader(SeekableReadChannel in, BufferAllocator allocator, int[] columnsToRead) {
-        this(in, allocator, NoCompressionCodec.Factory.INSTANCE, columnsToRead);
+        this(in, allocator, AethraCompressionCodecFactory.INSTANCE, columnsToRead);
     }
 
     public AethraArrowFileReader(SeekableByteChannel in, BufferAllocator allocator, int[] columnsToRead) {
@@ -179,6 +190,20 @@ public class AethraArrowFileReader extends ArrowReader {
         }
     }
 
+    /**
+     * Skips the next record batch without reading it. Returns true if a batch was skipped,
+     * false if no more batches.
+     */
+    public boolean skipNextBatch() throws IOException {
+        ensureInitialized();
+        if (currentRecordBatch < footer.getRecordBatches().size()) {
+            currentRecordBatch++;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
     /**
      * Returns the {@link ArrowBlock} metadata from the file.
      */
@@ -248,14 +273,21 @@ public class AethraArrowFileReader extends ArrowReader {
             nodes.add(new ArrowFieldNode(node.length(), node.nullCount()));
         }
 
+        // Obtain the codec for the buffers of the body
+        BodyCompression compressionFB = recordBatchFB.compression();
+        CompressionCodec codec = (compressionFB == null)
+                ? null
+                : AethraCompressionCodecFactory.INSTANCE.createCodec(CompressionUtil.CodecType.fromCompressionType(compressionFB.codec()));
+
         // Now read the vectors of the body that we actually need
         VectorSchemaRoot root = this.getVectorSchemaRoot();
         List<FieldVector> fieldVectors = root.getFieldVectors();
+        List<Integer> loadedColumns = new ArrayList<>(this.columnsToRead.length);
+        List<List<ArrowBuf>> loadedColumnBuffers = new ArrayList<>(this.columnsToRead.length);
         int currentRecordBatchFBBufferIndex = 0;
         for (int columnIndex = 0; columnIndex < fieldVectors.size(); columnIndex++) {
 
             // Get the layout of the current column
-            ArrowFieldNode columnFieldNode = nodes.get(columnIndex);
             FieldVector columnFieldVector = fieldVectors.get(columnIndex);
             Field columnField = columnFieldVector.getField();
             int bufferLayoutCount = TypeLayout.getTypeBufferCount(columnField.getType());
@@ -273,7 +305,11 @@ public class AethraArrowFileReader extends ArrowReader {
                 continue;
             }
 
-            // Otherwise, we need to load the data into memory (assumption: no decompression necessary)
+            // Check that there are no children to be loaded too
+            if (columnField.getChildren().size() > 0)
+                throw new IllegalStateException("AethraArrowFileReader does not support child fields");
+
+            // Otherwise, we need to load the (possibly compressed) data into memory
             List<ArrowBuf> columnBuffers = new ArrayList<>(bufferLayoutCount);
             for (Buffer cbd : columnsBufferDefinitions) {
                 long bufferLength = cbd.length();
@@ -287,7 +323,21 @@ public class AethraArrowFileReader extends ArrowReader {
                 columnBuffers.add(actualColumnBuffer);
             }
 
-            // Try to assign the buffers to the field vector
+            loadedColumns.add(columnIndex);
+            loadedColumnBuffers.add(columnBuffers);
+        }
+
+        // Decompress the buffers that were read if necessary
+        if (codec != null && codec.getCodecType() != CompressionUtil.CodecType.NO_COMPRESSION)
+            decompressBuffers(codec, loadedColumnBuffers, allocator);
+
+        // Assign the buffers to the field vectors
+        for (int i = 0; i < loadedColumns.size(); i++) {
+            int columnIndex = loadedColumns.get(i);
+            ArrowFieldNode columnFieldNode = nodes.get(columnIndex);
+            FieldVector columnFieldVector = fieldVectors.get(columnIndex);
+            List<ArrowBuf> columnBuffers = loadedColumnBuffers.get(i);
+
             try {
                 columnFieldVector.loadFieldBuffers(columnFieldNode, columnBuffers);
 
@@ -296,10 +346,6 @@ public class AethraArrowFileReader extends ArrowReader {
                         columnFieldVector + ". error message: " + e.getMessage(), e);
             }
 
-            // Check that there are no children to be loaded too
-            if (columnField.getChildren().size() > 0)
-                throw new IllegalStateException("AethraArrowFileReader does not support child fields");
-
             // Make sure reference counting is up-to-date
             for (ArrowBuf cb : columnBuffers)
                 cb.getReferenceManager().release();
@@ -315,4 +361,41 @@ public class AethraArrowFileReader extends ArrowReader {
 
     }
 
+    /**
+     * Method to decompress the buffers of the columns read from a record batch in place. Empty buffers
+     * (e.g. validity buffers of columns without nulls) are not compressed and are therefore kept as-is.
+     * When the record batch is sufficiently large, the buffers are decompressed in parallel.
+     * @param codec The codec to decompress the buffers with.
+     * @param columnBuffers The buffers per column, which are replaced by their decompressed versions.
+     * @param allocator The allocator to allocate the decompressed buffers with.
+     */
+    private static void decompressBuffers(CompressionCodec codec, List<List<ArrowBuf>> columnBuffers, BufferAllocator allocator) {
+        // Collect the buffers that need to be decompressed
+        List<List<ArrowBuf>> owningLists = new ArrayList<>();
+        List<Integer> indicesInOwningLists = new ArrayList<>();
+        long compressedSize = 0;
+        for (List<ArrowBuf> buffers : columnBuffers) {
+            for (int i = 0; i < buffers.size(); i++) {
+                long bufferSize = buffers.get(i).writerIndex();
+                if (bufferSize > 0) {
+                    owningLists.add(buffers);
+                    indicesInOwningLists.add(i);
+                    compressedSize += bufferSize;
+                }
+            }
+        }
+
+        // Decompress each buffer, which also releases the compressed buffer. As each task replaces
+        // a distinct element of an array list without structurally modifying it, no synchronisation is needed
+        IntStream bufferIndices = IntStream.range(0, owningLists.size());
+        if (owningLists.size() > 1 && compressedSize >= PARALLEL_DECOMPRESSION_THRESHOLD)
+            bufferIndices = bufferIndices.parallel();
+
+        bufferIndices.forEach(i -> {
+            List<ArrowBuf> buffers = owningLists.get(i);
+            int indexInBuffers = indicesInOwningLists.get(i);
+            buffers.set(indexInBuffers, codec.decompress(allocator, buffers.get(indexInBuffers)));
+        });
+    }
+
 }
@@ -174,6 +174,20 @@ public class ArrowFileReader extends ArrowReader {
     return footer.getDictionaries();
   }
 
+  /**
+   * Skips the next record batch without reading it. Returns true if a batch was skipped,
+   * false if no more batches.
+   */
+  public boolean skipNextBatch() throws IOException {
+    ensureInitialized();
+    if (currentRecordBatch < footer.getRecordBatches().size()) {
+      currentRecordBatch++;
+      return true;
+    } else {
+      return false;
+    }
+  }
+
   /**
    * Returns the {@link ArrowBlock} metadata from the file.
    */